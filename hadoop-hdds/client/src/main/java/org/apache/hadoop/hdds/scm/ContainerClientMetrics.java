@@ -29,6 +29,7 @@
 import org.apache.hadoop.metrics2.lib.Interns;
 import org.apache.hadoop.metrics2.lib.MetricsRegistry;
 import org.apache.hadoop.metrics2.lib.MutableCounterLong;
+import org.apache.hadoop.metrics2.lib.MutableGaugeLong;
 import org.apache.hadoop.metrics2.lib.MutableQuantiles;
 import org.apache.hadoop.metrics2.lib.MutableRate;
 import org.apache.hadoop.ozone.OzoneConsts;
@@ -65,6 +66,24 @@ public final class ContainerClientMetrics {
   private MutableCounterLong writeChunksDuringWrite;
   @Metric
   private MutableCounterLong flushesDuringWrite;
+  @Metric
+  private MutableCounterLong readaheadChunks;
+  @Metric
+  private MutableCounterLong readaheadBytes;
+  @Metric
+  private MutableCounterLong readaheadHits;
+  @Metric
+  private MutableCounterLong readaheadWasted;
+  @Metric
+  private MutableCounterLong readaheadWastedBytes;
+  @Metric
+  private MutableCounterLong readaheadFailed;
+  @Metric
+  private MutableCounterLong readaheadRejected;
+  @Metric
+  private MutableGaugeLong writeBufferReservedBytes;
+  @Metric
+  private MutableCounterLong writeBufferReservationWaits;
 
   private MutableQuantiles[] listBlockLatency;
   private MutableQuantiles[] getBlockLatency;
@@ -255,6 +274,50 @@ public void addDataNodeHsyncLatency(long hsyncLatencyTime) {
     }
   }
 
+  public void recordReadaheadIssued(long bytes) {
+    readaheadChunks.incr();
+    readaheadBytes.incr(bytes);
+  }
+
+  public void recordReadaheadHit() {
+    readaheadHits.incr();
+  }
+
+  public void recordReadaheadWasted(long bytes) {
+    readaheadWasted.incr();
+    readaheadWastedBytes.incr(bytes);
+  }
+
+  public void recordReadaheadFailed() {
+    readaheadFailed.incr();
+  }
+
+  public void recordReadaheadRejected() {
+    readaheadRejected.incr();
+  }
+
+  public void recordWriteBufferReserved(long bytes) {
+    writeBufferReservedBytes.incr(bytes);
+  }
+
+  public void recordWriteBufferReleased(long bytes) {
+    writeBufferReservedBytes.decr(bytes);
+  }
+
+  public void recordWriteBufferReservationWait() {
+    writeBufferReservationWaits.incr();
+  }
+
+  @VisibleForTesting
+  public MutableGaugeLong getWriteBufferReservedBytes() {
+    return writeBufferReservedBytes;
+  }
+
+  @VisibleForTesting
+  public MutableCounterLong getWriteBufferReservationWaits() {
+    return writeBufferReservationWaits;
+  }
+
   @VisibleForTesting
   public MutableCounterLong getTotalWriteChunkBytes() {
     return totalWriteChunkBytes;
@@ -299,4 +362,24 @@ public MutableCounterLong getWriteChunksDuringWrite() {
   public MutableCounterLong getFlushesDuringWrite() {
     return flushesDuringWrite;
   }
+
+  public MutableCounterLong getReadaheadChunks() {
+    return readaheadChunks;
+  }
+
+  public MutableCounterLong getReadaheadHits() {
+    return readaheadHits;
+  }
+
+  public MutableCounterLong getReadaheadWasted() {
+    return readaheadWasted;
+  }
+
+  public MutableCounterLong getReadaheadWastedBytes() {
+    return readaheadWastedBytes;
+  }
+
+  public MutableCounterLong getReadaheadRejected() {
+    return readaheadRejected;
+  }
 }
@@ -146,6 +146,39 @@ public class OzoneClientConfig {
       tags = ConfigTag.CLIENT)
   private int readRetryInterval = 1;
 
+  @Config(key = "ozone.client.read.readahead.enabled",
+      defaultValue = "false",
+      type = ConfigType.BOOLEAN,
+      description = "When enabled, a block input stream which detects "
+          + "sequential reads keeps the next chunks (and the first chunk of "
+          + "the next block) in flight asynchronously, so that sequential "
+          + "scans do not pay a datanode round trip at each chunk boundary.",
+      tags = ConfigTag.CLIENT)
+  private boolean readaheadEnabled = false;
+
+  @Config(key = "ozone.client.read.readahead.chunks",
+      defaultValue = "4",
+      description = "Number of chunks to read ahead of the current position "
+          + "once sequential access is detected. "
+          + "Effective only when ozone.client.read.readahead.enabled = true",
+      tags = ConfigTag.CLIENT)
+  private int readaheadChunks = 4;
+
+  @Config(key = "ozone.client.read.readahead.max.size",
+      defaultValue = "128MB",
+      type = ConfigType.SIZE,
+      description = "Upper bound of chunk data which is fetched ahead but not "
+          + "yet consumed, shared by all streams of the client. Readahead "
+          + "requests beyond this limit are skipped.",
+      tags = ConfigTag.CLIENT)
+  private long readaheadMaxSize = 128 * 1024 * 1024;
+
+  @Config(key = "ozone.client.read.readahead.threads",
+      defaultValue = "8",
+      description = "Number of threads issuing readahead ReadChunk calls.",
+      tags = ConfigTag.CLIENT)
+  private int readaheadThreads = 8;
+
   @Config(key = "ozone.client.checksum.type",
       defaultValue = "CRC32",
       description = "The checksum type [NONE/ CRC32/ CRC32C/ SHA256/ MD5] "
@@ -210,6 +243,14 @@ public class OzoneClientConfig {
       tags = ConfigTag.CLIENT)
   private int ecReconstructStripeWritePoolLimit = 10 * 3;
 
+  @Config(key = "ozone.client.ec.reconstruct.block.group.concurrency",
+      defaultValue = "4",
+      description = "Maximum number of block groups of a container" +
+          " reconstructed concurrently by the EC reconstruction coordinator." +
+          " A value of 1 reconstructs the block groups one after another.",
+      tags = ConfigTag.CLIENT)
+  private int ecReconstructBlockGroupConcurrency = 4;
+
   @Config(key = "ozone.client.checksum.combine.mode",
       defaultValue = "COMPOSITE_CRC",
       description = "The combined checksum type [MD5MD5CRC / COMPOSITE_CRC] "
@@ -274,11 +315,39 @@ public class OzoneClientConfig {
       tags = ConfigTag.CLIENT)
   private int maxConcurrentWritePerKey = 1;
 
+  @Config(key = "ozone.client.key.write.parallel.blocks",
+      defaultValue = "1",
+      description = "Maximum number of blocks of a key written in parallel "
+          + "by a single output stream. When a block is full, it is closed in "
+          + "the background while the writes continue in the next block, so "
+          + "that a single stream can use several pipelines at a time. Each "
+          + "block in flight uses its own buffers of up to "
+          + "ozone.client.stream.buffer.max.size. Defaults to 1, which writes "
+          + "the blocks one after the other. Applies to Ratis replicated keys.",
+      tags = ConfigTag.CLIENT)
+  private int parallelBlockWrites = 1;
+
+  @Config(key = "ozone.client.write.buffer.max.size",
+      defaultValue = "0",
+      type = ConfigType.SIZE,
+      description = "Upper bound of the memory held by the write buffers of "
+          + "all the output streams of a client. A stream reserves the "
+          + "capacity of its buffer pool, i.e. "
+          + "ozone.client.stream.buffer.max.size, when it starts buffering "
+          + "data, waiting while the limit would be exceeded, and releases it "
+          + "when it is closed. Zero means no limit.",
+      tags = ConfigTag.CLIENT)
+  private long writeBufferMaxSize = 0;
+
   @PostConstruct
   public void validate() {
     Preconditions.checkState(streamBufferSize > 0);
     Preconditions.checkState(streamBufferFlushSize > 0);
     Preconditions.checkState(streamBufferMaxSize > 0);
+    Preconditions.checkState(readaheadChunks > 0);
+    Preconditions.checkState(readaheadThreads > 0);
+    Preconditions.checkState(parallelBlockWrites > 0);
+    Preconditions.checkState(writeBufferMaxSize >= 0);
 
     Preconditions.checkArgument(bufferIncrement < streamBufferSize,
         "Buffer increment should be smaller than the size of the stream "
@@ -410,6 +479,38 @@ public void setReadRetryInterval(int readRetryInterval) {
     this.readRetryInterval = readRetryInterval;
   }
 
+  public boolean isReadaheadEnabled() {
+    return readaheadEnabled;
+  }
+
+  public void setReadaheadEnabled(boolean readaheadEnabled) {
+    this.readaheadEnabled = readaheadEnabled;
+  }
+
+  public int getReadaheadChunks() {
+    return readaheadChunks;
+  }
+
+  public void setReadaheadChunks(int readaheadChunks) {
+    this.readaheadChunks = readaheadChunks;
+  }
+
+  public long getReadaheadMaxSize() {
+    return readaheadMaxSize;
+  }
+
+  public void setReadaheadMaxSize(long readaheadMaxSize) {
+    this.readaheadMaxSize = readaheadMaxSize;
+  }
+
+  public int getReadaheadThreads() {
+    return readaheadThreads;
+  }
+
+  public void setReadaheadThreads(int readaheadThreads) {
+    this.readaheadThreads = readaheadThreads;
+  }
+
   public ChecksumType getChecksumType() {
     return ChecksumType.valueOf(checksumType);
   }
@@ -488,6 +589,14 @@ public int getEcReconstructStripeWritePoolLimit() {
     return ecReconstructStripeWritePoolLimit;
   }
 
+  public void setEcReconstructBlockGroupConcurrency(int concurrency) {
+    this.ecReconstructBlockGroupConcurrency = concurrency;
+  }
+
+  public int getEcReconstructBlockGroupConcurrency() {
+    return ecReconstructBlockGroupConcurrency;
+  }
+
   public void setFsDefaultBucketLayout(String bucketLayout) {
     if (!bucketLayout.isEmpty()) {
       this.fsDefaultBucketLayout = bucketLayout;
@@ -538,6 +647,22 @@ public int getMaxConcurrentWritePerKey() {
     return this.maxConcurrentWritePerKey;
   }
 
+  public void setParallelBlockWrites(int parallelBlockWrites) {
+    this.parallelBlockWrites = parallelBlockWrites;
+  }
+
+  public int getParallelBlockWrites() {
+    return parallelBlockWrites;
+  }
+
+  public void setWriteBufferMaxSize(long writeBufferMaxSize) {
+    this.writeBufferMaxSize = writeBufferMaxSize;
+  }
+
+  public long getWriteBufferMaxSize() {
+    return writeBufferMaxSize;
+  }
+
   /**
    * Enum for indicating what mode to use when combining chunk and block
    * checksums to define an aggregate FileChecksum. This should be considered
@@ -22,6 +22,7 @@
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -113,6 +114,14 @@ public class BlockInputStream extends BlockExtendedInputStream {
 
   private BlockData blockData;
 
+  // Sequential readahead, null if disabled
+  private ChunkReadahead readahead;
+  // Block position at which the previous read ended
+  private long lastReadEndPosition = -1;
+  // Number of consecutive reads which continued the previous one
+  private int sequentialReads;
+  private boolean firstChunkReadaheadRequested;
+
   public BlockInputStream(
       BlockLocationInfo blockInfo,
       Pipeline pipeline,
@@ -348,6 +357,13 @@ protected ChunkInputStream createChunkInputStream(ChunkInfo chunkInfo) {
         xceiverClientFactory, pipelineRef::get, verifyChecksum, tokenRef::get);
   }
 
+  /**
+   * Enable sequential readahead for this stream.
+   */
+  public synchronized void setReadahead(ChunkReadahead readahead) {
+    this.readahead = readahead;
+  }
+
   @Override
   protected synchronized int readWithStrategy(ByteReaderStrategy strategy)
       throws IOException {
@@ -357,6 +373,19 @@ protected synchronized int readWithStrategy(ByteReaderStrategy strategy)
     }
 
     checkOpen();
+    if (readahead == null || chunkStreams == null) {
+      return readFromChunks(strategy);
+    }
+    trackSequentialRead();
+    int readLen = readFromChunks(strategy);
+    lastReadEndPosition = getPos();
+    if (isSequential()) {
+      scheduleReadahead();
+    }
+    return readLen;
+  }
+
+  private int readFromChunks(ByteReaderStrategy strategy) throws IOException {
     int totalReadLen = 0;
     int len = strategy.getTargetLength();
     while (len > 0) {
@@ -420,6 +449,157 @@ protected synchronized int readWithStrategy(ByteReaderStrategy strategy)
     return totalReadLen;
   }
 
+  /**
+   * Reads {@code buf.remaining()} bytes of the block starting at the given
+   * position, without changing the position of this stream. The chunks are
+   * read with separately acquired clients, so the lock of this stream is held
+   * only to initialize it or to refresh the pipeline after a failure, and
+   * positional reads can run in parallel with each other and with
+   * sequential reads.
+   *
+   * @throws EOFException if the block ends before the buffer is filled
+   */
+  public void readFully(long position, ByteBuffer buf) throws IOException {
+    final List<ChunkInputStream> chunks;
+    final long[] offsets;
+    synchronized (this) {
+      if (!initialized) {
+        initialize();
+      }
+      checkOpen();
+      chunks = chunkStreams;
+      offsets = chunkOffsets;
+    }
+    if (chunks == null || chunks.isEmpty()) {
+      if (buf.hasRemaining()) {
+        throw new EOFException("EOF encountered at pos: " + position
+            + " for block: " + blockID);
+      }
+      return;
+    }
+
+    int index = Arrays.binarySearch(offsets, position);
+    if (index < 0) {
+      // not a chunk boundary, index = insertionPoint - 1
+      index = -index - 2;
+    }
+    long pos = position;
+    while (buf.hasRemaining()) {
+      if (index < 0 || index >= chunks.size()) {
+        throw new EOFException("EOF encountered at pos: " + pos
+            + " for block: " + blockID);
+      }
+      ChunkInputStream chunk = chunks.get(index);
+      long chunkPos = pos - offsets[index];
+      long chunkRemaining = chunk.getLength() - chunkPos;
+      if (chunkRemaining > 0) {
+        int len = (int) Math.min(buf.remaining(), chunkRemaining);
+        ByteBuffer slice = buf.duplicate();
+        slice.limit(slice.position() + len);
+        readFullyFromChunk(chunk, chunkPos, slice);
+        buf.position(buf.position() + len);
+        pos += len;
+      }
+      index++;
+    }
+  }
+
+  private void readFullyFromChunk(ChunkInputStream chunk, long chunkPos,
+      ByteBuffer buf) throws IOException {
+    final int start = buf.position();
+    for (int retry = 1;; retry++) {
+      try {
+        chunk.readFully(chunkPos, buf);
+        return;
+      } catch (SCMSecurityException ex) {
+        throw ex;
+      } catch (IOException ex) {
+        if (!shouldRetryRead(ex, retry)) {
+          throw ex;
+        }
+        if (ex instanceof StorageContainerException
+            || isConnectivityIssue(ex)) {
+          synchronized (this) {
+            refreshBlockInfo(ex);
+          }
+        }
+        buf.position(start);
+      }
+    }
+  }
+
+  /**
+   * Detect whether the current read continues the previous one. Once the
+   * sequential run is broken, data fetched ahead outside the readahead
+   * window of the new position is dropped.
+   */
+  private void trackSequentialRead() {
+    if (getPos() == lastReadEndPosition) {
+      sequentialReads++;
+    } else if (sequentialReads > 0) {
+      sequentialReads = 0;
+      for (int i = 0; i < chunkStreams.size(); i++) {
+        if (i < chunkIndex || i > chunkIndex + readahead.getDepth()) {
+          chunkStreams.get(i).discardReadahead();
+        }
+      }
+    }
+  }
+
+  private boolean isSequential() {
+    return sequentialReads >= ChunkReadahead.SEQUENTIAL_READS_THRESHOLD;
+  }
+
+  /**
+   * Keep the configured number of chunks after the current one in flight.
+   */
+  private void scheduleReadahead() {
+    int last = Math.min(chunkIndex + readahead.getDepth(),
+        chunkStreams.size() - 1);
+    for (int i = chunkIndex + 1; i <= last; i++) {
+      chunkStreams.get(i).startReadahead(readahead);
+    }
+  }
+
+  /**
+   * @return true if the stream is read sequentially and the readahead window
+   * reaches the end of the block, i.e. the next block should be fetched.
+   */
+  public synchronized boolean isReadaheadAtBlockEnd() {
+    return readahead != null && chunkStreams != null && isSequential()
+        && chunkIndex + readahead.getDepth() >= chunkStreams.size() - 1;
+  }
+
+  /**
+   * Asynchronously initialize the stream and fetch its first chunk, used when
+   * the previous block of the key is read sequentially.
+   */
+  public synchronized void startFirstChunkReadahead() {
+    if (readahead == null || firstChunkReadaheadRequested) {
+      return;
+    }
+    firstChunkReadaheadRequested = true;
+    // the previous block has been read sequentially up to this one
+    sequentialReads = ChunkReadahead.SEQUENTIAL_READS_THRESHOLD;
+    lastReadEndPosition = 0;
+    readahead.execute(() -> {
+      try {
+        synchronized (this) {
+          if (xceiverClientFactory == null) {
+            return;
+          }
+          initialize();
+          if (chunkStreams != null && !chunkStreams.isEmpty()
+              && getPos() == 0) {
+            chunkStreams.get(0).startReadahead(readahead);
+          }
+        }
+      } catch (IOException e) {
+        LOG.debug("Failed to read ahead first chunk of block {}", blockID, e);
+      }
+    });
+  }
+
   /**
    * Seeks the BlockInputStream to the specified position. If the stream is
    * not initialized, save the seeked position via blockPosition. Otherwise,
@@ -574,9 +754,14 @@ private synchronized void storePosition() {
   }
 
   private boolean shouldRetryRead(IOException cause) throws IOException {
+    return shouldRetryRead(cause, ++retries);
+  }
+
+  private boolean shouldRetryRead(IOException cause, int retryCount)
+      throws IOException {
     RetryPolicy.RetryAction retryAction;
     try {
-      retryAction = retryPolicy.shouldRetry(cause, ++retries, 0, true);
+      retryAction = retryPolicy.shouldRetry(cause, retryCount, 0, true);
     } catch (IOException e) {
       throw e;
     } catch (Exception e) {
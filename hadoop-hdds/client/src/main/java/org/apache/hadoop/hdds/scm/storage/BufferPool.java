@@ -40,6 +40,9 @@
  * This pool is designed for concurrent access to allocation and release. It imposes a maximum number of buffers to be
  * allocated at the same time and once the limit has been approached, the thread requesting a new allocation needs to
  * wait until a allocated buffer is released.
+ * When a {@link WriteBufferBudget} is given, the pool reserves its capacity
+ * from the budget before allocating the first buffer, and releases it when
+ * the pool is cleared.
  */
 public class BufferPool {
   private static final Logger LOG = LoggerFactory.getLogger(BufferPool.class);
@@ -48,6 +51,9 @@ public class BufferPool {
   private final int bufferSize;
   private final int capacity;
   private final Function<ByteBuffer, ByteString> byteStringConversion;
+  private final WriteBufferBudget budget;
+  /** Whether the capacity is reserved from the budget, guarded by lock. */
+  private boolean reserved;
 
   private final LinkedList<ChunkBuffer> allocated = new LinkedList<>();
   private final LinkedList<ChunkBuffer> released = new LinkedList<>();
@@ -66,9 +72,40 @@ public BufferPool(int bufferSize, int capacity) {
 
   public BufferPool(int bufferSize, int capacity,
       Function<ByteBuffer, ByteString> byteStringConversion) {
+    this(bufferSize, capacity, byteStringConversion, null);
+  }
+
+  public BufferPool(int bufferSize, int capacity,
+      Function<ByteBuffer, ByteString> byteStringConversion,
+      WriteBufferBudget budget) {
     this.capacity = capacity;
     this.bufferSize = bufferSize;
     this.byteStringConversion = byteStringConversion;
+    this.budget = budget;
+  }
+
+  public WriteBufferBudget getBudget() {
+    return budget;
+  }
+
+  /**
+   * Reserve the capacity of this pool from the budget without waiting.
+   * @return true if the capacity is reserved, or there is no budget.
+   */
+  public boolean tryReserve() {
+    lock.lock();
+    try {
+      if (budget != null && !reserved) {
+        reserved = budget.tryReserve(getCapacityBytes());
+      }
+      return budget == null || reserved;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private long getCapacityBytes() {
+    return (long) bufferSize * capacity;
   }
 
   public Function<ByteBuffer, ByteString> byteStringConversion() {
@@ -93,6 +130,10 @@ public ChunkBuffer allocateBuffer(int increment) throws InterruptedException {
         LOG.debug("Allocation needs to wait the pool is at capacity (allocated = capacity = {}).", capacity);
         notFull.await();
       }
+      if (budget != null && !reserved) {
+        budget.reserve(getCapacityBytes());
+        reserved = true;
+      }
       // Get a buffer to allocate, preferably from the released ones.
       final ChunkBuffer buffer = released.isEmpty() ?
           ChunkBuffer.allocate(bufferSize, increment) : released.removeFirst();
@@ -167,6 +208,10 @@ public void clearBufferPool() {
       allocated.clear();
       released.clear();
       currentBuffer = null;
+      if (reserved) {
+        budget.release(getCapacityBytes());
+        reserved = false;
+      }
     } finally {
       lock.unlock();
     }
@@ -98,6 +98,9 @@ public class ChunkInputStream extends InputStream
 
   private final Supplier<Token<?>> tokenSupplier;
 
+  // Whole chunk data being fetched asynchronously ahead of the reader
+  private ChunkReadahead.Prefetch readahead;
+
   private static final int EOF = -1;
   private final List<Validator> validators;
 
@@ -280,6 +283,7 @@ public boolean seekToNewSource(long targetPos) {
 
   @Override
   public synchronized void close() {
+    discardReadahead();
     releaseBuffers();
     releaseClient();
   }
@@ -295,13 +299,18 @@ protected synchronized void releaseClient() {
    * Updates DatanodeBlockId which based on blockId.
    */
   private void updateDatanodeBlockId(Pipeline pipeline) throws IOException {
+    datanodeBlockID = getDatanodeBlockID(pipeline);
+  }
+
+  private ContainerProtos.DatanodeBlockID getDatanodeBlockID(Pipeline pipeline)
+      throws IOException {
     DatanodeDetails closestNode = pipeline.getClosestNode();
     int replicaIdx = pipeline.getReplicaIndex(closestNode);
     ContainerProtos.DatanodeBlockID.Builder builder = blockID.getDatanodeBlockIDProtobufBuilder();
     if (replicaIdx > 0) {
       builder.setReplicaIndex(replicaIdx);
     }
-    datanodeBlockID = builder.build();
+    return builder.build();
   }
 
   /**
@@ -349,6 +358,118 @@ private synchronized int prepareRead(int len) throws IOException {
     }
   }
 
+  /**
+   * Start fetching the whole chunk asynchronously, unless the chunk is already
+   * being read or some of it has been read already.
+   */
+  synchronized void startReadahead(ChunkReadahead chunkReadahead) {
+    if (readahead != null || allocated || chunkPosition > 0 || length == 0) {
+      return;
+    }
+    readahead = chunkReadahead.submit(length, this::readChunkAhead);
+  }
+
+  /**
+   * Drop data fetched ahead which has not been consumed yet.
+   */
+  synchronized void discardReadahead() {
+    if (readahead != null) {
+      readahead.discard();
+      readahead = null;
+    }
+  }
+
+  synchronized boolean hasReadahead() {
+    return readahead != null;
+  }
+
+  /**
+   * Read the whole chunk using a separately acquired client, so that it can
+   * be called without holding the lock of this stream.
+   */
+  @VisibleForTesting
+  protected ByteBuffer[] readChunkAhead() throws IOException {
+    return readChunkWithNewClient(chunkInfo);
+  }
+
+  /**
+   * Send RPC call to get the chunk from the container using a separately
+   * acquired client.
+   */
+  @VisibleForTesting
+  protected ByteBuffer[] readChunkWithNewClient(ChunkInfo readChunkInfo)
+      throws IOException {
+    Pipeline pipeline = pipelineSupplier.get();
+    XceiverClientSpi client =
+        xceiverClientFactory.acquireClientForReadData(pipeline);
+    try {
+      ReadChunkResponseProto readChunkResponse =
+          ContainerProtocolCalls.readChunk(client, readChunkInfo,
+              getDatanodeBlockID(pipeline), validators, tokenSupplier.get());
+      return toByteBuffers(readChunkResponse);
+    } finally {
+      xceiverClientFactory.releaseClientForReadData(client, false);
+    }
+  }
+
+  /**
+   * Reads {@code buf.remaining()} bytes of the chunk starting at the given
+   * position using a separately acquired client, so neither the position nor the buffers of
+   * this stream are changed, and the lock of this stream is not needed.
+   *
+   * @throws EOFException if the chunk ends before the buffer is filled
+   */
+  void readFully(long position, ByteBuffer buf) throws IOException {
+    int len = buf.remaining();
+    if (position + len > length) {
+      throw new EOFException("Unexpected EOF at pos: " + length
+          + " reading " + len + " bytes from " + position + " of chunk "
+          + chunkInfo.getChunkName());
+    }
+    if (len == 0) {
+      return;
+    }
+    long readOffset = position;
+    long readLen = len;
+    if (verifyChecksum) {
+      Pair<Long, Long> adjustedOffsetAndLength =
+          computeChecksumBoundaries(position, len);
+      readOffset = adjustedOffsetAndLength.getLeft();
+      readLen = adjustedOffsetAndLength.getRight();
+    }
+    final ChunkInfo readChunkInfo = ChunkInfo.newBuilder(chunkInfo)
+        .setOffset(chunkInfo.getOffset() + readOffset)
+        .setLen(readLen)
+        .build();
+
+    ByteBuffer[] data = readChunkWithNewClient(readChunkInfo);
+
+    // skip the bytes read only to verify the checksum
+    long skip = position - readOffset;
+    for (ByteBuffer buffer : data) {
+      ByteBuffer b = buffer.duplicate();
+      if (skip >= b.remaining()) {
+        skip -= b.remaining();
+        continue;
+      }
+      b.position(b.position() + (int) skip);
+      skip = 0;
+      if (b.remaining() > buf.remaining()) {
+        b.limit(b.position() + buf.remaining());
+      }
+      buf.put(b);
+      if (!buf.hasRemaining()) {
+        break;
+      }
+    }
+    if (buf.hasRemaining()) {
+      throw new IOException(String.format(
+          "Inconsistent read for chunkName=%s length=%d numBytesToRead=%d " +
+              "numBytesRead=%d", chunkInfo.getChunkName(), length, len,
+          len - buf.remaining()));
+    }
+  }
+
   /**
    * Reads full or partial Chunk from DN Container based on the current
    * position of the ChunkInputStream, the number of bytes of data to read
@@ -378,6 +499,18 @@ private synchronized void readChunkFromContainer(int len) throws IOException {
     // successful read in adjustBufferPosition()
     storePosition();
 
+    if (readahead != null) {
+      ChunkReadahead.Prefetch pending = readahead;
+      readahead = null;
+      ByteBuffer[] data = pending.take();
+      if (data != null) {
+        setBuffers(data, length);
+        bufferOffsetWrtChunkData = 0;
+        adjustBufferPosition(startByteIndex);
+        return;
+      }
+    }
+
     long adjustedBuffersOffset, adjustedBuffersLen;
     if (verifyChecksum) {
       // Adjust the chunk offset and length to include required checksum
@@ -414,8 +547,12 @@ private synchronized void readChunkFromContainer(int len) throws IOException {
 
   private void readChunkDataIntoBuffers(ChunkInfo readChunkInfo)
       throws IOException {
-    buffers = readChunk(readChunkInfo);
-    buffersSize = readChunkInfo.getLen();
+    setBuffers(readChunk(readChunkInfo), readChunkInfo.getLen());
+  }
+
+  private void setBuffers(ByteBuffer[] data, long size) {
+    buffers = data;
+    buffersSize = size;
 
     bufferOffsets = new long[buffers.length];
     int tempOffset = 0;
@@ -439,7 +576,11 @@ protected ByteBuffer[] readChunk(ChunkInfo readChunkInfo)
     ReadChunkResponseProto readChunkResponse =
         ContainerProtocolCalls.readChunk(xceiverClient, readChunkInfo, datanodeBlockID, validators,
             tokenSupplier.get());
+    return toByteBuffers(readChunkResponse);
+  }
 
+  private static ByteBuffer[] toByteBuffers(
+      ReadChunkResponseProto readChunkResponse) throws IOException {
     if (readChunkResponse.hasData()) {
       return readChunkResponse.getData().asReadOnlyByteBufferList()
           .toArray(new ByteBuffer[0]);
@@ -734,6 +875,7 @@ protected long getChunkPosition() {
   @Override
   public synchronized void unbuffer() {
     storePosition();
+    discardReadahead();
     releaseBuffers();
     releaseClient();
   }
@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.hdds.scm.storage;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.hadoop.hdds.scm.ContainerClientMetrics;
+import org.apache.hadoop.hdds.scm.OzoneClientConfig;
+import org.apache.ratis.util.function.CheckedSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Shared state of the sequential readahead of one client: the thread pool
+ * issuing asynchronous ReadChunk calls and the memory budget for chunk data
+ * which has been fetched ahead but not yet consumed by a reader.
+ */
+public class ChunkReadahead implements Closeable {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(ChunkReadahead.class);
+
+  /**
+   * Number of consecutive reads continuing at the position of the previous
+   * read before a stream is considered to be read sequentially.
+   */
+  static final int SEQUENTIAL_READS_THRESHOLD = 2;
+
+  private final ExecutorService executor;
+  private final int depth;
+  private final long maxBytes;
+  private final AtomicLong reservedBytes = new AtomicLong();
+  private final ContainerClientMetrics metrics;
+
+  public ChunkReadahead(OzoneClientConfig config,
+      ContainerClientMetrics metrics) {
+    this.depth = config.getReadaheadChunks();
+    this.maxBytes = config.getReadaheadMaxSize();
+    this.metrics = metrics;
+    int threads = config.getReadaheadThreads();
+    ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads,
+        60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+        new ThreadFactoryBuilder().setNameFormat("client-readahead-TID-%d")
+            .setDaemon(true).build());
+    pool.allowCoreThreadTimeOut(true);
+    this.executor = pool;
+  }
+
+  /**
+   * @return the number of chunks to keep in flight ahead of a sequential
+   * reader.
+   */
+  public int getDepth() {
+    return depth;
+  }
+
+  /**
+   * Submit an asynchronous read of {@code bytes} bytes.
+   * @return the pending readahead, or null if the memory budget does not
+   * allow it.
+   */
+  Prefetch submit(long bytes, CheckedSupplier<ByteBuffer[], IOException> read) {
+    if (!reserve(bytes)) {
+      metrics.recordReadaheadRejected();
+      return null;
+    }
+    metrics.recordReadaheadIssued(bytes);
+    final CompletableFuture<ByteBuffer[]> future;
+    try {
+      future = CompletableFuture.supplyAsync(() -> {
+        try {
+          return read.get();
+        } catch (IOException e) {
+          throw new CompletionException(e);
+        }
+      }, executor);
+    } catch (RuntimeException e) {
+      // executor has been shut down
+      reservedBytes.addAndGet(-bytes);
+      return null;
+    }
+    return new Prefetch(future, bytes);
+  }
+
+  /**
+   * Run an arbitrary readahead related task, e.g. opening the next block.
+   */
+  void execute(Runnable task) {
+    try {
+      executor.execute(task);
+    } catch (RuntimeException e) {
+      LOG.debug("Failed to schedule readahead task", e);
+    }
+  }
+
+  private boolean reserve(long bytes) {
+    long current;
+    do {
+      current = reservedBytes.get();
+      if (current + bytes > maxBytes) {
+        return false;
+      }
+    } while (!reservedBytes.compareAndSet(current, current + bytes));
+    return true;
+  }
+
+  @VisibleForTesting
+  long getReservedBytes() {
+    return reservedBytes.get();
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * Chunk data being fetched ahead of the reader. Exactly one of
+   * {@link #take()} or {@link #discard()} releases its memory reservation.
+   */
+  final class Prefetch {
+    private final CompletableFuture<ByteBuffer[]> future;
+    private final long bytes;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    private Prefetch(CompletableFuture<ByteBuffer[]> future, long bytes) {
+      this.future = future;
+      this.bytes = bytes;
+    }
+
+    /**
+     * Wait for the data to arrive and hand it over to the reader.
+     * @return the data, or null if the readahead failed and the caller has
+     * to read the chunk by itself.
+     */
+    ByteBuffer[] take() throws IOException {
+      try {
+        ByteBuffer[] data = future.get();
+        release();
+        metrics.recordReadaheadHit();
+        return data;
+      } catch (InterruptedException e) {
+        discard();
+        Thread.currentThread().interrupt();
+        throw new IOException("Interrupted while waiting for readahead", e);
+      } catch (ExecutionException e) {
+        LOG.debug("Readahead failed, falling back to synchronous read",
+            e.getCause());
+        release();
+        metrics.recordReadaheadFailed();
+        return null;
+      }
+    }
+
+    /**
+     * Drop the readahead since the reader is not going to consume it.
+     */
+    void discard() {
+      future.cancel(false);
+      if (release()) {
+        metrics.recordReadaheadWasted(bytes);
+      }
+    }
+
+    private boolean release() {
+      if (released.compareAndSet(false, true)) {
+        reservedBytes.addAndGet(-bytes);
+        return true;
+      }
+      return false;
+    }
+  }
+}
@@ -22,6 +22,7 @@
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.List;
 import org.apache.hadoop.fs.FSExceptionMessages;
@@ -96,6 +97,7 @@ protected synchronized int readWithStrategy(ByteReaderStrategy strategy)
           .readFromBlock((InputStream) current, numBytesToRead);
       checkPartBytesRead(numBytesToRead, numBytesRead, current);
       totalReadLen += numBytesRead;
+      readaheadNextPart(current);
 
       if (current.getRemaining() <= 0 &&
           partIndex + 1 < partStreams.size()) {
@@ -105,6 +107,21 @@ protected synchronized int readWithStrategy(ByteReaderStrategy strategy)
     return totalReadLen;
   }
 
+  /**
+   * If the current block is read sequentially and the readahead reached its
+   * end, start fetching the next block as well.
+   */
+  private void readaheadNextPart(PartInputStream current) {
+    if (partIndex + 1 < partStreams.size()
+        && current instanceof BlockInputStream
+        && ((BlockInputStream) current).isReadaheadAtBlockEnd()) {
+      PartInputStream next = partStreams.get(partIndex + 1);
+      if (next instanceof BlockInputStream) {
+        ((BlockInputStream) next).startFirstChunkReadahead();
+      }
+    }
+  }
+
   protected int getNumBytesToRead(ByteReaderStrategy strategy,
                                   PartInputStream current) throws IOException {
     return strategy.getTargetLength();
@@ -176,6 +193,83 @@ public synchronized void seek(long pos) throws IOException {
     prevPartIndex = partIndex;
   }
 
+  /**
+   * Reads {@code buf.remaining()} bytes starting at the given position of the
+   * key directly from the part streams, without changing the position of
+   * this stream. Blocks of replicated keys are read with positional reads,
+   * which leave the position of the part streams unchanged, so reads can be
+   * issued in parallel, also on the same part. Other parts are locked while
+   * they are read.
+   *
+   * @throws EOFException if the key ends before the buffer is filled
+   */
+  public void readFully(long position, ByteBuffer buf) throws IOException {
+    checkOpen();
+    if (position < 0) {
+      throw new EOFException("Negative position " + position
+          + " for key: " + key);
+    }
+    int index = getPartIndex(position);
+    long pos = position;
+    while (buf.hasRemaining()) {
+      if (index < 0 || index >= partStreams.size()) {
+        throw new EOFException("EOF encountered at pos: " + pos
+            + " for key: " + key);
+      }
+      PartInputStream part = partStreams.get(index);
+      long partPos = pos - partOffsets[index];
+      long partRemaining = part.getLength() - partPos;
+      if (partRemaining > 0) {
+        int len = (int) Math.min(buf.remaining(), partRemaining);
+        readFullyFromPart(part, partPos, buf, len);
+        pos += len;
+      }
+      index++;
+    }
+  }
+
+  /**
+   * @return the index of the part containing the given position of the key.
+   */
+  public int getPartIndex(long position) {
+    int index = Arrays.binarySearch(partOffsets, position);
+    if (index < 0) {
+      // not a part boundary, index = insertionPoint - 1
+      index = -index - 2;
+    }
+    return index;
+  }
+
+  private static void readFullyFromPart(PartInputStream part, long partPos,
+      ByteBuffer buf, int len) throws IOException {
+    if (part instanceof BlockInputStream) {
+      ByteBuffer slice = buf.duplicate();
+      slice.limit(slice.position() + len);
+      ((BlockInputStream) part).readFully(partPos, slice);
+      buf.position(buf.position() + len);
+      return;
+    }
+    synchronized (part) {
+      long oldPos = part.getPos();
+      try {
+        part.seek(partPos);
+        ByteBufferReader reader = new ByteBufferReader(buf);
+        int remaining = len;
+        while (remaining > 0) {
+          int numBytesRead = reader.readFromBlock((InputStream) part,
+              remaining);
+          if (numBytesRead <= 0) {
+            throw new EOFException("Unexpected EOF at pos: "
+                + (partPos + len - remaining));
+          }
+          remaining -= numBytesRead;
+        }
+      } finally {
+        part.seek(oldPos);
+      }
+    }
+  }
+
   public synchronized void initialize() throws IOException {
     // Pre-check that the stream has not been intialized already
     if (initialized) {
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.hdds.scm.storage;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import java.io.Closeable;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.apache.hadoop.hdds.scm.ContainerClientMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Memory budget for the write buffers of all the {@link BufferPool}s of one
+ * client.
+ * <p>
+ * The buffers themselves are allocated from the pooled direct memory of
+ * {@link org.apache.hadoop.hdds.utils.db.CodecBuffer}. A {@link BufferPool}
+ * reserves its whole capacity before allocating its first buffer, and
+ * releases it when it is cleared. Reserving the capacity up front, instead
+ * of buffer by buffer, guarantees that a stream which has started writing
+ * can always get the buffers it needs to make progress, so streams never
+ * wait for each other while holding buffers.
+ */
+public class WriteBufferBudget implements Closeable {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(WriteBufferBudget.class);
+
+  private final long maxBytes;
+  private final ContainerClientMetrics metrics;
+  private final Lock lock = new ReentrantLock();
+  private final Condition released = lock.newCondition();
+  private long reservedBytes;
+
+  public WriteBufferBudget(long maxBytes, ContainerClientMetrics metrics) {
+    Preconditions.checkArgument(maxBytes > 0, "maxBytes = %s <= 0", maxBytes);
+    this.maxBytes = maxBytes;
+    this.metrics = metrics;
+  }
+
+  /**
+   * Reserve the given amount of memory, waiting while it would exceed the
+   * budget. A reservation larger than the whole budget is granted once
+   * nothing else is reserved.
+   */
+  void reserve(long bytes) throws InterruptedException {
+    lock.lockInterruptibly();
+    try {
+      if (!canReserve(bytes)) {
+        metrics.recordWriteBufferReservationWait();
+        LOG.debug("Waiting to reserve {} bytes, reserved {} of {}",
+            bytes, reservedBytes, maxBytes);
+        do {
+          released.await();
+        } while (!canReserve(bytes));
+      }
+      add(bytes);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Reserve the given amount of memory if it fits in the budget.
+   * @return true if the memory has been reserved.
+   */
+  boolean tryReserve(long bytes) {
+    lock.lock();
+    try {
+      if (!canReserve(bytes)) {
+        return false;
+      }
+      add(bytes);
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  void release(long bytes) {
+    lock.lock();
+    try {
+      Preconditions.checkState(bytes <= reservedBytes,
+          "Releasing %s bytes, but only %s bytes are reserved",
+          bytes, reservedBytes);
+      reservedBytes -= bytes;
+      metrics.recordWriteBufferReleased(bytes);
+      released.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private boolean canReserve(long bytes) {
+    return reservedBytes == 0 || reservedBytes + bytes <= maxBytes;
+  }
+
+  private void add(long bytes) {
+    reservedBytes += bytes;
+    metrics.recordWriteBufferReserved(bytes);
+  }
+
+  @VisibleForTesting
+  long getReservedBytes() {
+    lock.lock();
+    try {
+      return reservedBytes;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Report the memory still reserved by buffer pools which have not been
+   * cleared, i.e. output streams which have been leaked without closing.
+   */
+  @Override
+  public void close() {
+    long leaked = getReservedBytes();
+    if (leaked > 0) {
+      LOG.warn("{} bytes of write buffers are still reserved on close, "
+          + "some output streams have not been closed", leaked);
+    }
+  }
+}
@@ -20,6 +20,7 @@
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.hadoop.hdds.client.BlockID;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ChunkInfo;
 import org.apache.hadoop.hdds.scm.XceiverClientFactory;
@@ -37,6 +38,9 @@ public class DummyChunkInputStream extends ChunkInputStream {
   // Stores the read chunk data in each readChunk call
   private final List<ByteString> readByteBuffers = new ArrayList<>();
 
+  // Number of readChunkAhead calls
+  private final AtomicInteger readaheadCount = new AtomicInteger();
+
   public DummyChunkInputStream(ChunkInfo chunkInfo,
       BlockID blockId,
       XceiverClientFactory xceiverClientFactory,
@@ -49,12 +53,32 @@ public DummyChunkInputStream(ChunkInfo chunkInfo,
 
   @Override
   protected ByteBuffer[] readChunk(ChunkInfo readChunkInfo) {
+    readByteBuffers.clear();
+    readByteBuffers.addAll(toByteStrings(readChunkInfo));
+    return BufferUtils.getReadOnlyByteBuffers(readByteBuffers)
+        .toArray(new ByteBuffer[0]);
+  }
+
+  @Override
+  protected ByteBuffer[] readChunkAhead() {
+    readaheadCount.incrementAndGet();
+    return BufferUtils.getReadOnlyByteBuffers(toByteStrings(getChunkInfo()))
+        .toArray(new ByteBuffer[0]);
+  }
+
+  @Override
+  protected ByteBuffer[] readChunkWithNewClient(ChunkInfo readChunkInfo) {
+    return BufferUtils.getReadOnlyByteBuffers(toByteStrings(readChunkInfo))
+        .toArray(new ByteBuffer[0]);
+  }
+
+  private List<ByteString> toByteStrings(ChunkInfo readChunkInfo) {
     int offset = (int) readChunkInfo.getOffset();
     int remainingToRead = (int) readChunkInfo.getLen();
 
     int bufferCapacity = readChunkInfo.getChecksumData().getBytesPerChecksum();
     int bufferLen;
-    readByteBuffers.clear();
+    List<ByteString> byteStrings = new ArrayList<>();
     while (remainingToRead > 0) {
       if (remainingToRead < bufferCapacity) {
         bufferLen = remainingToRead;
@@ -64,14 +88,12 @@ protected ByteBuffer[] readChunk(ChunkInfo readChunkInfo) {
       ByteString byteString = ByteString.copyFrom(chunkData,
           offset, bufferLen);
 
-      readByteBuffers.add(byteString);
+      byteStrings.add(byteString);
 
       offset += bufferLen;
       remainingToRead -= bufferLen;
     }
-
-    return BufferUtils.getReadOnlyByteBuffers(readByteBuffers)
-        .toArray(new ByteBuffer[0]);
+    return byteStrings;
   }
 
   @Override
@@ -87,4 +109,8 @@ protected void releaseClient() {
   public List<ByteString> getReadByteBuffers() {
     return readByteBuffers;
   }
+
+  public int getReadaheadCount() {
+    return readaheadCount.get();
+  }
 }
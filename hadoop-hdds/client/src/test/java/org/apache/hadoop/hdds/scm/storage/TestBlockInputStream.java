@@ -52,6 +52,7 @@
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ChecksumType;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ChunkInfo;
+import org.apache.hadoop.hdds.scm.ContainerClientMetrics;
 import org.apache.hadoop.hdds.scm.OzoneClientConfig;
 import org.apache.hadoop.hdds.scm.XceiverClientFactory;
 import org.apache.hadoop.hdds.scm.XceiverClientSpi;
@@ -265,6 +266,68 @@ public void testSeekAndRead() throws Exception {
     matchWithInputData(b2, 150, 100);
   }
 
+  @Test
+  public void testPositionalRead() throws Exception {
+    byte[] b = new byte[10];
+    assertEquals(10, blockStream.read(b, 0, 10));
+
+    // read 200 bytes starting from position 50, spanning 3 chunks, without
+    // changing the position of the stream
+    ByteBuffer buffer = ByteBuffer.allocate(200);
+    blockStream.readFully(50, buffer);
+    assertFalse(buffer.hasRemaining());
+    matchWithInputData(buffer.array(), 50, 200);
+    assertEquals(10, blockStream.getPos());
+    assertEquals(0, blockStream.getChunkIndex());
+
+    // the sequential read continues where it stopped
+    assertEquals(10, blockStream.read(b, 0, 10));
+    matchWithInputData(b, 10, 10);
+
+    assertThrows(EOFException.class,
+        () -> blockStream.readFully(blockSize - 10, ByteBuffer.allocate(20)));
+  }
+
+  @Test
+  public void testSequentialReadahead() throws Exception {
+    OzoneClientConfig clientConfig = conf.getObject(OzoneClientConfig.class);
+    clientConfig.setReadaheadChunks(2);
+    ContainerClientMetrics metrics = ContainerClientMetrics.acquire();
+    try (ChunkReadahead readahead = new ChunkReadahead(clientConfig, metrics)) {
+      blockStream.setReadahead(readahead);
+
+      // random reads do not trigger readahead
+      seekAndVerify(CHUNK_SIZE * 3);
+      assertEquals(10, blockStream.read(new byte[10], 0, 10));
+      seekAndVerify(10);
+      assertEquals(10, blockStream.read(new byte[10], 0, 10));
+      assertEquals(0, metrics.getReadaheadChunks().value());
+
+      // sequential reads fetch the next chunks ahead
+      seekAndVerify(0);
+      byte[] b = new byte[blockSize];
+      int pos = 0;
+      while (pos < blockSize) {
+        int n = blockStream.read(b, pos, Math.min(30, blockSize - pos));
+        assertThat(n).isPositive();
+        pos += n;
+      }
+      matchWithInputData(b, 0, blockSize);
+      assertEquals(-1, blockStream.read(new byte[1], 0, 1));
+
+      int readaheadCount = 0;
+      for (ChunkInputStream chunk : blockStream.getChunkStreams()) {
+        readaheadCount += ((DummyChunkInputStream) chunk).getReadaheadCount();
+      }
+      assertThat(readaheadCount).isPositive();
+      assertThat(metrics.getReadaheadHits().value()).isPositive();
+      assertEquals(0, readahead.getReservedBytes());
+    } finally {
+      blockStream.close();
+      ContainerClientMetrics.release();
+    }
+  }
+
   @Test
   public void testRefreshPipelineFunction() throws Exception {
     LogCapturer logCapturer = LogCapturer.captureLogs(BlockInputStream.class);
@@ -19,6 +19,8 @@
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -29,6 +31,8 @@
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
+import org.apache.hadoop.hdds.scm.ByteStringConversion;
+import org.apache.hadoop.hdds.scm.ContainerClientMetrics;
 import org.apache.hadoop.ozone.common.ChunkBuffer;
 import org.apache.ozone.test.GenericTestUtils;
 import org.apache.ozone.test.GenericTestUtils.LogCapturer;
@@ -63,6 +67,64 @@ void testBufferPoolConcurrently() throws Exception {
     assertAllocationBlockedUntilReleased(pool, buffers);
   }
 
+  @Test
+  void testBufferPoolWithBudget() throws Exception {
+    final int bufferSize = 1 << 10;
+    final int capacity = 4;
+    final long poolBytes = (long) bufferSize * capacity;
+    final ContainerClientMetrics metrics = ContainerClientMetrics.acquire();
+    try {
+      final WriteBufferBudget budget =
+          new WriteBufferBudget(2 * poolBytes, metrics);
+      final BufferPool pool1 = newPool(bufferSize, capacity, budget);
+      final BufferPool pool2 = newPool(bufferSize, capacity, budget);
+      final BufferPool pool3 = newPool(bufferSize, capacity, budget);
+
+      // the capacity is reserved with the first buffer
+      assertAllocate(pool1);
+      assertEquals(poolBytes, budget.getReservedBytes());
+      assertTrue(pool2.tryReserve());
+      assertAllocate(pool2);
+      assertEquals(2 * poolBytes, budget.getReservedBytes());
+      assertEquals(2 * poolBytes,
+          metrics.getWriteBufferReservedBytes().value());
+
+      // the budget is exhausted until a pool is cleared
+      assertFalse(pool3.tryReserve());
+      final long waits = metrics.getWriteBufferReservationWaits().value();
+      final AtomicReference<ChunkBuffer> allocated = new AtomicReference<>();
+      final Thread allocator = new Thread(() -> {
+        try {
+          allocated.set(pool3.allocateBuffer(0));
+        } catch (InterruptedException e) {
+          throw new RuntimeException(e);
+        }
+      });
+      allocator.start();
+      GenericTestUtils.waitFor(() ->
+          metrics.getWriteBufferReservationWaits().value() > waits, 10, 5000);
+      assertNull(allocated.get());
+
+      pool1.clearBufferPool();
+      allocator.join();
+      assertNotNull(allocated.get());
+      assertEquals(2 * poolBytes, budget.getReservedBytes());
+
+      pool2.clearBufferPool();
+      pool3.clearBufferPool();
+      assertEquals(0, budget.getReservedBytes());
+      assertEquals(0, metrics.getWriteBufferReservedBytes().value());
+    } finally {
+      ContainerClientMetrics.release();
+    }
+  }
+
+  private static BufferPool newPool(int bufferSize, int capacity,
+      WriteBufferBudget budget) {
+    return new BufferPool(bufferSize, capacity,
+        ByteStringConversion.createByteBufferConversion(false), budget);
+  }
+
   private void assertAllocationBlockedUntilReleased(BufferPool pool, Deque<ChunkBuffer> buffers) throws Exception {
     // As the pool is full, allocation will need to wait until a buffer is released.
     assertFull(pool);
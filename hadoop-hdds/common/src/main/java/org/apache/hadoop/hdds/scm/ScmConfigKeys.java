@@ -150,6 +150,9 @@ public final class ScmConfigKeys {
   public static final String OZONE_CHUNK_READ_NETTY_CHUNKED_NIO_FILE_KEY =
       "ozone.chunk.read.netty.ChunkedNioFile";
   public static final boolean OZONE_CHUNK_READ_NETTY_CHUNKED_NIO_FILE_DEFAULT = false;
+  public static final String OZONE_CHUNK_READ_MAPPED_CLOSED_CONTAINER_KEY =
+      "ozone.chunk.read.mapped.closed.container";
+  public static final boolean OZONE_CHUNK_READ_MAPPED_CLOSED_CONTAINER_DEFAULT = false;
 
   public static final String OZONE_SCM_CONTAINER_LAYOUT_KEY =
       "ozone.scm.container.layout";
@@ -369,6 +372,10 @@ public final class ScmConfigKeys {
       "ozone.scm.pipeline.placement.impl";
   public static final String OZONE_SCM_CONTAINER_PLACEMENT_EC_IMPL_KEY =
       "ozone.scm.container.placement.ec.impl";
+  public static final String OZONE_SCM_CONTAINER_PLACEMENT_INDEX_REFRESH =
+      "ozone.scm.container.placement.index.refresh";
+  public static final String
+      OZONE_SCM_CONTAINER_PLACEMENT_INDEX_REFRESH_DEFAULT = "1s";
 
   public static final String OZONE_SCM_PIPELINE_OWNER_CONTAINER_COUNT =
       "ozone.scm.pipeline.owner.container.count";
@@ -461,6 +468,11 @@ public final class ScmConfigKeys {
 
   public static final int OZONE_SCM_BLOCK_DELETION_PER_DN_DISTRIBUTION_FACTOR_DEFAULT = 8;
 
+  public static final String OZONE_SCM_BLOCK_DELETION_PER_DN_ADAPTIVE_WINDOW_ENABLED =
+      "ozone.scm.block.deletion.per.dn.adaptive.window.enabled";
+
+  public static final boolean OZONE_SCM_BLOCK_DELETION_PER_DN_ADAPTIVE_WINDOW_ENABLED_DEFAULT = false;
+
   public static final String OZONE_SCM_SEQUENCE_ID_BATCH_SIZE =
       "ozone.scm.sequence.id.batch.size";
   public static final int OZONE_SCM_SEQUENCE_ID_BATCH_SIZE_DEFAULT = 1000;
@@ -48,9 +48,10 @@ public final class ContainerInfo implements Comparable<ContainerInfo> {
       ContainerInfo::getProtobuf,
       ContainerInfo.class);
 
-  private HddsProtos.LifeCycleState state;
+  // The state is volatile as SCM queries containers without locking.
+  private volatile HddsProtos.LifeCycleState state;
   // The wall-clock ms since the epoch at which the current state enters.
-  private Instant stateEnterTime;
+  private volatile Instant stateEnterTime;
   @JsonIgnore
   private HddsProtos.LifeCycleState previousState;
   @JsonIgnore
@@ -145,8 +146,8 @@ public void setState(HddsProtos.LifeCycleState state) {
     previousState = this.state;
     previousStateEnterTime = this.stateEnterTime;
 
-    this.state = state;
     this.stateEnterTime = clock.instant();
+    this.state = state;
   }
 
   public Instant getStateEnterTime() {
@@ -350,8 +351,8 @@ public void revertState() {
       throw new IllegalStateException("previous state unknown");
     }
 
-    state = previousState;
     stateEnterTime = previousStateEnterTime;
+    state = previousState;
     previousState = null;
     previousStateEnterTime = null;
   }
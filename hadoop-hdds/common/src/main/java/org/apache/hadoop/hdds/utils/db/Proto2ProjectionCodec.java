@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.hdds.utils.db;
+
+import jakarta.annotation.Nonnull;
+import java.nio.ByteBuffer;
+import org.apache.ratis.util.JavaUtils;
+
+/**
+ * A decode-only {@link Codec} for a projection of a protobuf message,
+ * i.e. an object built from a subset of the fields of the message.
+ * <p>
+ * The fields are read with a {@link ProtoFieldReader} directly from the
+ * {@link CodecBuffer}, so the unused fields are neither parsed nor copied.
+ * It is useful for iterating a table when only a few fields of the values
+ * are required.
+ *
+ * @param <T> The projection type.
+ */
+public final class Proto2ProjectionCodec<T> implements Codec<T> {
+
+  /**
+   * Decode a projection from the fields of a message.
+   *
+   * @param <T> The projection type.
+   */
+  @FunctionalInterface
+  public interface Decoder<T> {
+    T decode(ProtoFieldReader reader) throws CodecException;
+  }
+
+  private final Class<T> clazz;
+  private final Decoder<T> decoder;
+
+  public static <T> Codec<T> get(Class<T> clazz, Decoder<T> decoder) {
+    return new Proto2ProjectionCodec<>(clazz, decoder);
+  }
+
+  private Proto2ProjectionCodec(Class<T> clazz, Decoder<T> decoder) {
+    this.clazz = clazz;
+    this.decoder = decoder;
+  }
+
+  @Override
+  public Class<T> getTypeClass() {
+    return clazz;
+  }
+
+  @Override
+  public boolean supportCodecBuffer() {
+    return true;
+  }
+
+  @Override
+  public T fromCodecBuffer(@Nonnull CodecBuffer buffer) throws CodecException {
+    return decode(buffer.asReadOnlyByteBuffer());
+  }
+
+  @Override
+  public T fromPersistedFormatImpl(byte[] rawData) throws CodecException {
+    return decode(ByteBuffer.wrap(rawData));
+  }
+
+  private T decode(ByteBuffer buffer) throws CodecException {
+    try {
+      return decoder.decode(new ProtoFieldReader(buffer));
+    } catch (RuntimeException e) {
+      throw new CodecException("Failed to decode " + getTypeClass(), e);
+    }
+  }
+
+  @Override
+  public T copyObject(T object) {
+    throw new UnsupportedOperationException("Unsupported copy of " + object);
+  }
+
+  @Override
+  public String toString() {
+    return JavaUtils.getClassSimpleName(getTypeClass()) + "-projection";
+  }
+}
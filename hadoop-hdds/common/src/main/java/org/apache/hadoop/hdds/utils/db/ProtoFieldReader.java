@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.hdds.utils.db;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads the fields of a serialized protobuf message one by one,
+ * directly from a {@link ByteBuffer}.
+ * <p>
+ * Unlike parsing the message, it does not create any object for the fields
+ * which are skipped, so that a caller only interested in a few small fields of
+ * a large message, e.g. the size and the modification time of a key but not
+ * its block locations, can decode them without copying the rest.
+ * <p>
+ * Usage:
+ * <pre>
+ *   while (reader.nextField()) {
+ *     switch (reader.getFieldNumber()) {
+ *     case 1: name = reader.readString(); break;
+ *     default: reader.skipField();
+ *     }
+ *   }
+ * </pre>
+ */
+public final class ProtoFieldReader {
+  private static final int WIRETYPE_VARINT = 0;
+  private static final int WIRETYPE_FIXED64 = 1;
+  private static final int WIRETYPE_LENGTH_DELIMITED = 2;
+  private static final int WIRETYPE_FIXED32 = 5;
+
+  private final ByteBuffer buffer;
+  private int tag;
+
+  /** Read the message from the position to the limit of the given buffer. */
+  public ProtoFieldReader(ByteBuffer buffer) {
+    this.buffer = buffer;
+  }
+
+  /**
+   * Move to the next field.
+   *
+   * @return false if there are no more fields.
+   */
+  public boolean nextField() throws CodecException {
+    if (!buffer.hasRemaining()) {
+      tag = 0;
+      return false;
+    }
+    tag = (int) readRawVarint();
+    if (getFieldNumber() == 0) {
+      throw new CodecException("Invalid tag " + tag);
+    }
+    return true;
+  }
+
+  /** @return the number of the current field. */
+  public int getFieldNumber() {
+    return tag >>> 3;
+  }
+
+  /** Read the current field of a varint type, e.g. int64 or uint64. */
+  public long readVarint() throws CodecException {
+    checkWireType(WIRETYPE_VARINT);
+    return readRawVarint();
+  }
+
+  /** Read the current field of the int32, uint32 or enum type. */
+  public int readInt() throws CodecException {
+    return (int) readVarint();
+  }
+
+  /** Read the current field of the bool type. */
+  public boolean readBool() throws CodecException {
+    return readVarint() != 0;
+  }
+
+  /** Read the current field of the string type. */
+  public String readString() throws CodecException {
+    final ByteBuffer bytes = readBytes();
+    if (bytes.hasArray()) {
+      return new String(bytes.array(), bytes.arrayOffset() + bytes.position(),
+          bytes.remaining(), StandardCharsets.UTF_8);
+    }
+    final byte[] array = new byte[bytes.remaining()];
+    bytes.get(array);
+    return new String(array, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Read the current field of a length-delimited type.
+   *
+   * @return a buffer sharing the content of the field, without copying it.
+   */
+  public ByteBuffer readBytes() throws CodecException {
+    checkWireType(WIRETYPE_LENGTH_DELIMITED);
+    final int length = readLength();
+    final ByteBuffer bytes = buffer.slice();
+    bytes.limit(length);
+    buffer.position(buffer.position() + length);
+    return bytes;
+  }
+
+  /** Read the current field of a message type. */
+  public ProtoFieldReader readMessage() throws CodecException {
+    return new ProtoFieldReader(readBytes());
+  }
+
+  /** Skip the current field. */
+  public void skipField() throws CodecException {
+    final int wireType = tag & 0x7;
+    switch (wireType) {
+    case WIRETYPE_VARINT:
+      readRawVarint();
+      return;
+    case WIRETYPE_FIXED64:
+      skip(8);
+      return;
+    case WIRETYPE_LENGTH_DELIMITED:
+      skip(readLength());
+      return;
+    case WIRETYPE_FIXED32:
+      skip(4);
+      return;
+    default:
+      // groups are deprecated and not used in Ozone
+      throw new CodecException("Unsupported wire type " + wireType
+          + " for field " + getFieldNumber());
+    }
+  }
+
+  private void checkWireType(int expected) throws CodecException {
+    if ((tag & 0x7) != expected) {
+      throw new CodecException("Unexpected wire type " + (tag & 0x7)
+          + " for field " + getFieldNumber() + ", expected " + expected);
+    }
+  }
+
+  private int readLength() throws CodecException {
+    final long length = readRawVarint();
+    if (length < 0 || length > buffer.remaining()) {
+      throw new CodecException("Invalid length " + length + " for field "
+          + getFieldNumber() + ", remaining " + buffer.remaining());
+    }
+    return (int) length;
+  }
+
+  private void skip(int n) throws CodecException {
+    if (n > buffer.remaining()) {
+      throw new CodecException("Truncated field " + getFieldNumber());
+    }
+    buffer.position(buffer.position() + n);
+  }
+
+  private long readRawVarint() throws CodecException {
+    long result = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      if (!buffer.hasRemaining()) {
+        throw new CodecException("Truncated varint");
+      }
+      final byte b = buffer.get();
+      result |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return result;
+      }
+    }
+    throw new CodecException("Malformed varint");
+  }
+}
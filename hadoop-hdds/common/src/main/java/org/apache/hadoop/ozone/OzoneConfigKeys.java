@@ -115,6 +115,14 @@ public final class OzoneConfigKeys {
   public static final String OZONE_FS_DATASTREAM_AUTO_THRESHOLD_DEFAULT
       = "4MB";
 
+  /**
+   * Number of threads issuing the block reads of vectored reads
+   * in OzoneFileSystem.
+   */
+  public static final String OZONE_FS_VECTORED_READ_THREADS
+      = "ozone.fs.vectored.read.threads";
+  public static final int OZONE_FS_VECTORED_READ_THREADS_DEFAULT = 16;
+
   /**
    * Flag to allow server-side HBase-related features and enhancements to be enabled.
    */
@@ -511,6 +519,11 @@ public final class OzoneConfigKeys {
   public static final String OZONE_MANAGER_FAIR_LOCK = "ozone.om.lock.fair";
   public static final boolean OZONE_MANAGER_FAIR_LOCK_DEFAULT = false;
 
+  public static final String OZONE_MANAGER_OPTIMISTIC_READ_ENABLED =
+      "ozone.om.lock.optimistic.read.enabled";
+  public static final boolean OZONE_MANAGER_OPTIMISTIC_READ_ENABLED_DEFAULT =
+      false;
+
   public static final String OZONE_MANAGER_STRIPED_LOCK_SIZE_PREFIX =
       "ozone.om.lock.stripes.";
 
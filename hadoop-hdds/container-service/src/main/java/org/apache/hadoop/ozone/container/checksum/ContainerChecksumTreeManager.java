@@ -38,6 +38,7 @@
 import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiConsumer;
@@ -47,6 +48,7 @@
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos;
 import org.apache.hadoop.hdds.scm.container.common.helpers.StorageContainerException;
 import org.apache.hadoop.hdds.utils.SimpleStriped;
+import org.apache.hadoop.ozone.container.common.helpers.BlockData;
 import org.apache.hadoop.ozone.container.common.impl.ContainerData;
 import org.apache.hadoop.ozone.container.common.statemachine.DatanodeConfiguration;
 import org.apache.hadoop.ozone.container.keyvalue.KeyValueContainerData;
@@ -67,24 +69,80 @@ public class ContainerChecksumTreeManager {
   // The file is atomically renamed into place, so readers do not need coordination.
   private final Striped<Lock> fileLock;
   private final ContainerMerkleTreeMetrics metrics;
+  // Merkle trees of the containers created since the datanode started, updated as blocks are committed.
+  // The tree of a container is removed when it is written for the first time, after the container is closed.
+  private final Map<Long, ContainerMerkleTreeWriter> openContainerTrees = new ConcurrentHashMap<>();
+  private final boolean incrementalTreeEnabled;
 
   /**
    * Creates one instance that should be used to coordinate all container checksum info within a datanode.
    */
   public ContainerChecksumTreeManager(ConfigurationSource conf) {
-    fileLock = SimpleStriped.custom(conf.getObject(DatanodeConfiguration.class).getContainerChecksumLockStripes(),
-        () -> new ReentrantLock(true));
+    DatanodeConfiguration dnConf = conf.getObject(DatanodeConfiguration.class);
+    fileLock = SimpleStriped.custom(dnConf.getContainerChecksumLockStripes(), () -> new ReentrantLock(true));
+    incrementalTreeEnabled = dnConf.isContainerChecksumIncrementalTreeEnabled();
     metrics = ContainerMerkleTreeMetrics.create();
   }
 
   public void stop() {
     ContainerMerkleTreeMetrics.unregister();
+    openContainerTrees.clear();
+  }
+
+  /**
+   * Starts maintaining the merkle tree of a newly created, empty container in memory.
+   * Blocks committed to the container should be added with {@link #addBlock}.
+   */
+  public void startTracking(long containerID) {
+    if (incrementalTreeEnabled) {
+      openContainerTrees.putIfAbsent(containerID, new ContainerMerkleTreeWriter());
+    }
+  }
+
+  /**
+   * Adds the chunks of a committed block to the in-memory merkle tree of the container, if it is tracked.
+   * Chunks already added for the block are replaced by those with the same offset, so both full and incremental
+   * chunk lists are handled.
+   */
+  public void addBlock(long containerID, BlockData blockData) {
+    openContainerTrees.computeIfPresent(containerID, (id, tree) -> {
+      tree.addBlock(blockData.getLocalID());
+      // Chunks are assumed to be healthy, same as when the tree is built from the block metadata.
+      tree.addChunks(blockData.getLocalID(), true, blockData.getChunks());
+      return tree;
+    });
+  }
+
+  /**
+   * Stops tracking the merkle tree of the container.
+   *
+   * @return the merkle tree with all blocks committed since the container was created, or empty if the container
+   * was not tracked.
+   */
+  public Optional<ContainerMerkleTreeWriter> stopTracking(long containerID) {
+    ContainerMerkleTreeWriter tree = openContainerTrees.remove(containerID);
+    if (tree != null) {
+      metrics.incrementIncrementalMerkleTreeWrites();
+    }
+    return Optional.ofNullable(tree);
+  }
+
+  /**
+   * Stops tracking the merkle tree of the container without using it, e.g. because the container is deleted.
+   */
+  public void discardTracking(long containerID) {
+    openContainerTrees.remove(containerID);
+  }
+
+  @VisibleForTesting
+  boolean isTracked(long containerID) {
+    return openContainerTrees.containsKey(containerID);
   }
 
   /**
    * Writes the specified container merkle tree to the specified container's checksum file.
    * The data merkle tree within the file is replaced with the {@code tree} parameter, but all other content of the
-   * file remains unchanged.
+   * file remains unchanged. If the persisted tree is the same as {@code tree}, the file is not rewritten.
    * Concurrent writes to the same file are coordinated internally.
    */
   public ContainerProtos.ContainerChecksumInfo writeContainerDataTree(ContainerData data,
@@ -94,10 +152,18 @@ public ContainerProtos.ContainerChecksumInfo writeContainerDataTree(ContainerDat
     Lock writeLock = getLock(containerID);
     writeLock.lock();
     try {
-      ContainerProtos.ContainerChecksumInfo.Builder checksumInfoBuilder = readOrCreate(data).toBuilder();
+      ContainerProtos.ContainerChecksumInfo currentChecksumInfo = readOrCreate(data);
 
       ContainerProtos.ContainerMerkleTree treeProto = captureLatencyNs(metrics.getCreateMerkleTreeLatencyNS(),
           tree::toProto);
+      if (currentChecksumInfo.hasContainerID() && currentChecksumInfo.getContainerID() == containerID &&
+          currentChecksumInfo.getContainerMerkleTree().equals(treeProto)) {
+        metrics.incrementMerkleTreeWriteSkipped();
+        LOG.debug("Data merkle tree for container {} is unchanged with container checksum {}", containerID,
+            checksumToString(treeProto.getDataChecksum()));
+        return currentChecksumInfo;
+      }
+      ContainerProtos.ContainerChecksumInfo.Builder checksumInfoBuilder = currentChecksumInfo.toBuilder();
       checksumInfoBuilder
           .setContainerID(containerID)
           .setContainerMerkleTree(treeProto);
@@ -54,6 +54,12 @@ public class ContainerMerkleTreeMetrics {
   @Metric(about = "Number of corrupt chunks identified during container reconciliation")
   private MutableCounterLong numCorruptChunksIdentified;
 
+  @Metric(about = "Number of Merkle tree writes skipped because the tree was unchanged")
+  private MutableCounterLong numMerkleTreeWriteSkipped;
+
+  @Metric(about = "Number of Merkle trees maintained on the write path until the container was closed")
+  private MutableCounterLong numIncrementalMerkleTreeWrite;
+
   @Metric(about = "Merkle tree write latency")
   private MutableRate merkleTreeWriteLatencyNS;
 
@@ -113,6 +119,14 @@ public void incrementCorruptChunksIdentified(long value) {
     this.numCorruptChunksIdentified.incr(value);
   }
 
+  public void incrementMerkleTreeWriteSkipped() {
+    this.numMerkleTreeWriteSkipped.incr();
+  }
+
+  public void incrementIncrementalMerkleTreeWrites() {
+    this.numIncrementalMerkleTreeWrite.incr();
+  }
+
   public MutableRate getWriteContainerMerkleTreeLatencyNS() {
     return this.merkleTreeWriteLatencyNS;
   }
@@ -152,4 +166,12 @@ public long getMissingChunksIdentified() {
   public long getCorruptChunksIdentified() {
     return this.numCorruptChunksIdentified.value();
   }
+
+  public long getMerkleTreeWriteSkipped() {
+    return this.numMerkleTreeWriteSkipped.value();
+  }
+
+  public long getIncrementalMerkleTreeWrites() {
+    return this.numIncrementalMerkleTreeWrite.value();
+  }
 }
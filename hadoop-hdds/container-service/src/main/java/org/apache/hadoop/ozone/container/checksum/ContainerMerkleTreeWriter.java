@@ -111,6 +111,13 @@ public void addBlock(long blockID) {
     id2Block.computeIfAbsent(blockID, BlockMerkleTreeWriter::new);
   }
 
+  /**
+   * @return The number of blocks currently in the tree.
+   */
+  public int getBlockCount() {
+    return id2Block.size();
+  }
+
   /**
    * Uses chunk hashes to compute all remaining hashes in the tree, and returns it as a protobuf object. No checksum
    * computation for the tree happens outside of this method.
@@ -58,6 +58,9 @@ public class ContainerMetrics implements Closeable {
   @Metric private MutableCounterLong bytesReadStateMachine;
   @Metric private MutableCounterLong numContainerReconciledWithoutChanges;
   @Metric private MutableCounterLong numContainerReconciledWithChanges;
+  @Metric private MutableCounterLong chunkReadCacheHits;
+  @Metric private MutableCounterLong chunkReadCacheMisses;
+  @Metric private MutableCounterLong chunkReadCacheEvictions;
 
   private final EnumMap<ContainerProtos.Type, MutableCounterLong> numOpsArray;
   private final EnumMap<ContainerProtos.Type, MutableCounterLong> opsBytesArray;
@@ -182,4 +185,28 @@ public void incContainerReconciledWithoutChanges() {
   public void incContainerReconciledWithChanges() {
     numContainerReconciledWithChanges.incr();
   }
+
+  public void incChunkReadCacheHits() {
+    chunkReadCacheHits.incr();
+  }
+
+  public long getChunkReadCacheHits() {
+    return chunkReadCacheHits.value();
+  }
+
+  public void incChunkReadCacheMisses() {
+    chunkReadCacheMisses.incr();
+  }
+
+  public long getChunkReadCacheMisses() {
+    return chunkReadCacheMisses.value();
+  }
+
+  public void incChunkReadCacheEvictions() {
+    chunkReadCacheEvictions.incr();
+  }
+
+  public long getChunkReadCacheEvictions() {
+    return chunkReadCacheEvictions.value();
+  }
 }
@@ -141,7 +141,7 @@ void updateDataScanTimestamp(Instant timestamp)
    * Import the container from an external archive.
    */
   void importContainerData(InputStream stream,
-      ContainerPacker<CONTAINERDATA> packer) throws IOException;
+      ContainerUnpacker<CONTAINERDATA> packer) throws IOException;
 
   /**
    * Export all the data of the container to one output archive with the help
@@ -40,6 +40,7 @@
 import org.apache.hadoop.ozone.container.common.report.IncrementalReportSender;
 import org.apache.hadoop.ozone.container.common.transport.server.ratis.DispatcherContext;
 import org.apache.hadoop.ozone.container.common.volume.VolumeSet;
+import org.apache.hadoop.ozone.container.keyvalue.KeyValueContainerData;
 import org.apache.hadoop.ozone.container.keyvalue.KeyValueHandler;
 import org.apache.hadoop.ozone.container.keyvalue.TarContainerPacker;
 import org.apache.ratis.statemachine.StateMachine;
@@ -129,7 +130,7 @@ public abstract ContainerCommandResponseProto handle(
    */
   public abstract Container importContainer(
       ContainerData containerData, InputStream rawContainerStream,
-      TarContainerPacker packer)
+      ContainerUnpacker<KeyValueContainerData> packer)
       throws IOException;
 
   /**
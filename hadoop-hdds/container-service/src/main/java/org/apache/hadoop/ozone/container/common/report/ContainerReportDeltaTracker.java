@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.container.common.report;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.ContainerReplicaProto;
+import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.ContainerReportsProto;
+import org.apache.hadoop.hdds.upgrade.HDDSLayoutFeature;
+import org.apache.hadoop.ozone.container.common.statemachine.DatanodeConfiguration;
+import org.apache.hadoop.ozone.container.upgrade.VersionedDatanodeFeatures;
+
+/**
+ * Turns consecutive full container reports into delta reports.
+ * <p>
+ * A delta report still covers every container on the datanode, so that SCM
+ * can detect missing replicas, but a replica which is unchanged since the
+ * previous report is only listed by its container ID. Only CLOSED, non-empty
+ * replicas are omitted this way, since SCM may need to act repeatedly on the
+ * others, e.g. to close a container or delete an empty replica.
+ * <p>
+ * A report with all replicas is sent after every
+ * {@link DatanodeConfiguration#getContainerReportDeltaMax()} delta reports,
+ * and whenever {@link #requestFullReport()} was called, e.g. because the
+ * previous report may not have reached all SCMs.
+ */
+public class ContainerReportDeltaTracker {
+
+  private final boolean enabled;
+  private final int maxDeltaReports;
+
+  private Map<Long, ContainerReplicaProto> previous = Collections.emptyMap();
+  private int deltaReports;
+  private volatile boolean fullReportRequired = true;
+
+  public ContainerReportDeltaTracker(DatanodeConfiguration conf) {
+    this.enabled = conf.isContainerReportDeltaEnabled();
+    this.maxDeltaReports = conf.getContainerReportDeltaMax();
+  }
+
+  /**
+   * Make the next report include all replicas.
+   */
+  public void requestFullReport() {
+    fullReportRequired = true;
+  }
+
+  /**
+   * @param fullReport report with all replicas of the datanode
+   * @return the report to send, either the given one or a delta report
+   */
+  public synchronized ContainerReportsProto encode(
+      ContainerReportsProto fullReport) {
+    final Map<Long, ContainerReplicaProto> last = previous;
+    final Map<Long, ContainerReplicaProto> current =
+        new HashMap<>(fullReport.getReportsCount() * 4 / 3 + 1);
+    for (ContainerReplicaProto replica : fullReport.getReportsList()) {
+      current.put(replica.getContainerID(), replica);
+    }
+    previous = current;
+
+    if (!enabled || fullReportRequired || deltaReports >= maxDeltaReports
+        || !VersionedDatanodeFeatures.isFinalized(
+            HDDSLayoutFeature.DELTA_CONTAINER_REPORTS)) {
+      fullReportRequired = false;
+      deltaReports = 0;
+      return fullReport;
+    }
+
+    deltaReports++;
+    final ContainerReportsProto.Builder delta =
+        ContainerReportsProto.newBuilder();
+    for (ContainerReplicaProto replica : fullReport.getReportsList()) {
+      if (isUnchanged(last.get(replica.getContainerID()), replica)) {
+        delta.addUnchangedContainerIds(replica.getContainerID());
+      } else {
+        delta.addReports(replica);
+      }
+    }
+    return delta.build();
+  }
+
+  /**
+   * Compare the fields used by SCM, ignoring I/O statistics.
+   */
+  static boolean isUnchanged(ContainerReplicaProto last,
+      ContainerReplicaProto current) {
+    return last != null
+        && current.getState() == ContainerReplicaProto.State.CLOSED
+        && !current.getIsEmpty()
+        && last.getState() == current.getState()
+        && last.getIsEmpty() == current.getIsEmpty()
+        && last.getUsed() == current.getUsed()
+        && last.getKeyCount() == current.getKeyCount()
+        && last.getSize() == current.getSize()
+        && last.getBlockCommitSequenceId()
+            == current.getBlockCommitSequenceId()
+        && last.getDeleteTransactionId() == current.getDeleteTransactionId()
+        && last.getReplicaIndex() == current.getReplicaIndex()
+        && last.getDataChecksum() == current.getDataChecksum()
+        && Objects.equals(last.getOriginNodeId(), current.getOriginNodeId());
+  }
+}
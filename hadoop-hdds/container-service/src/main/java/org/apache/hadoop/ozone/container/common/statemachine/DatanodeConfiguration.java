@@ -77,9 +77,18 @@ public class DatanodeConfiguration extends ReconfigurableConfig {
   public static final String WAIT_ON_ALL_FOLLOWERS = "hdds.datanode.wait.on.all.followers";
   public static final String CONTAINER_SCHEMA_V3_ENABLED = "hdds.datanode.container.schema.v3.enabled";
   public static final String CONTAINER_CHECKSUM_LOCK_STRIPES_KEY = "hdds.datanode.container.checksum.lock.stripes";
+  public static final String CONTAINER_CHECKSUM_INCREMENTAL_TREE_ENABLED_KEY =
+      "hdds.datanode.container.checksum.incremental.tree.enabled";
+  public static final String VOLUME_IO_SCHEDULER_BANDWIDTH_MAX_KEY = "hdds.datanode.volume.io.scheduler.bandwidth.max";
+  public static final String VOLUME_IO_SCHEDULER_BANDWIDTH_MIN_KEY = "hdds.datanode.volume.io.scheduler.bandwidth.min";
+  public static final String VOLUME_IO_SCHEDULER_LATENCY_TARGET_KEY =
+      "hdds.datanode.volume.io.scheduler.latency.target";
+  public static final String VOLUME_IO_SCHEDULER_ADJUST_INTERVAL_KEY =
+      "hdds.datanode.volume.io.scheduler.adjust.interval";
   public static final String CONTAINER_CLIENT_CACHE_SIZE = "hdds.datanode.container.client.cache.size";
   public static final String CONTAINER_CLIENT_CACHE_STALE_THRESHOLD =
       "hdds.datanode.container.client.cache.stale.threshold";
+  public static final String CHUNK_READ_CACHE_SIZE_KEY = "hdds.datanode.chunk.read.cache.size";
 
   static final boolean CHUNK_DATA_VALIDATION_CHECK_DEFAULT = false;
 
@@ -112,6 +121,10 @@ public class DatanodeConfiguration extends ReconfigurableConfig {
   public static final Boolean
       OZONE_DATANODE_CHECK_EMPTY_CONTAINER_DIR_ON_DELETE_DEFAULT = false;
   public static final int CONTAINER_CHECKSUM_LOCK_STRIPES_DEFAULT = 127;
+  static final long VOLUME_IO_SCHEDULER_BANDWIDTH_MAX_DEFAULT = 64L * 1024 * 1024;
+  static final Duration VOLUME_IO_SCHEDULER_LATENCY_TARGET_DEFAULT = Duration.ofMillis(20);
+  static final Duration VOLUME_IO_SCHEDULER_ADJUST_INTERVAL_DEFAULT = Duration.ofSeconds(1);
+
   public static final int CONTAINER_CLIENT_CACHE_SIZE_DEFAULT = 100;
   public static final int
       CONTAINER_CLIENT_CACHE_STALE_THRESHOLD_MILLISECONDS_DEFAULT = 10000;
@@ -162,6 +175,71 @@ public class DatanodeConfiguration extends ReconfigurableConfig {
   )
   private int containerCloseThreads = CONTAINER_CLOSE_THREADS_DEFAULT;
 
+  /**
+   * The number of threads used to load containers from disk at startup,
+   * shared by all volumes.
+   */
+  @Config(key = "container.load.threads",
+      type = ConfigType.INT,
+      defaultValue = "0",
+      tags = {DATANODE},
+      description = "The number of threads used to load containers from all volumes at datanode startup. "
+          + "Idle threads steal work from volumes with more containers. "
+          + "If zero or negative, the number of available processors is used."
+  )
+  private int containerLoadThreads = 0;
+
+  /**
+   * Whether to keep a per-volume index of loaded containers, which lets
+   * startup skip parsing unchanged .container files.
+   */
+  @Config(key = "container.index.enabled",
+      type = ConfigType.BOOLEAN,
+      defaultValue = "true",
+      tags = {DATANODE},
+      description = "If enabled, the datanode writes a checksummed binary index of the containers loaded "
+          + "from each volume. On the next startup, containers whose .container file is unchanged are "
+          + "loaded from the index instead of parsing the YAML file."
+  )
+  private boolean containerIndexEnabled = true;
+
+  /**
+   * Whether full container reports may list unchanged replicas by container
+   * ID only.
+   */
+  @Config(key = "container.report.delta.enabled",
+      type = ConfigType.BOOLEAN,
+      defaultValue = "true",
+      tags = {DATANODE},
+      description = "If enabled, a periodic full container report only includes the replicas which are new or "
+          + "changed since the previous report, while unchanged CLOSED replicas are listed by container ID only. "
+          + "Takes effect once the cluster is finalized for the DELTA_CONTAINER_REPORTS layout feature."
+  )
+  private boolean containerReportDeltaEnabled = true;
+
+  @Config(key = "container.report.delta.max",
+      type = ConfigType.INT,
+      defaultValue = "4",
+      tags = {DATANODE},
+      description = "The maximum number of consecutive delta full container reports. The next report after this "
+          + "many delta reports includes all replicas."
+  )
+  private int containerReportDeltaMax = 4;
+
+  /**
+   * The size of the cache for the data of recently read chunks.
+   */
+  @Config(key = "chunk.read.cache.size",
+      type = ConfigType.SIZE,
+      defaultValue = "0",
+      tags = {DATANODE},
+      description = "The maximum size of the off-heap cache holding the data"
+          + " of frequently read chunks, which is shared by all volumes of the"
+          + " Datanode. Cached chunks are served without reading the disk."
+          + " Set to 0 to disable the cache."
+  )
+  private long chunkReadCacheSize;
+
   /**
    * The maximum number of threads used to handle delete block commands.
    * It takes about 200ms to open a RocksDB with HDD media, so basically DN
@@ -557,6 +635,62 @@ public class DatanodeConfiguration extends ReconfigurableConfig {
   )
   private int containerChecksumLockStripes = CONTAINER_CHECKSUM_LOCK_STRIPES_DEFAULT;
 
+  @Config(key = "container.checksum.incremental.tree.enabled",
+      type = ConfigType.BOOLEAN,
+      defaultValue = "true",
+      tags = { DATANODE },
+      description = "If enabled, the merkle tree of containers created since the datanode started is kept in memory " +
+          "and updated as blocks are committed, so it can be written when the container is closed without reading " +
+          "the metadata of all blocks from the container DB."
+  )
+  private boolean containerChecksumIncrementalTreeEnabled = true;
+
+  @Config(key = "volume.io.scheduler.enabled",
+      type = ConfigType.BOOLEAN,
+      defaultValue = "false",
+      tags = { DATANODE },
+      description = "If enabled, the background container data scanner, block deletion and container replication " +
+          "share one I/O budget per volume instead of being limited independently. The budget is lowered when the " +
+          "latency of foreground chunk reads and writes on the volume exceeds " +
+          "hdds.datanode.volume.io.scheduler.latency.target, and raised again when it recovers."
+  )
+  private boolean volumeIOSchedulerEnabled = false;
+
+  @Config(key = "volume.io.scheduler.bandwidth.max",
+      type = ConfigType.SIZE,
+      defaultValue = "64MB",
+      tags = { DATANODE },
+      description = "The maximum bandwidth per second of background I/O on each volume, shared by all background " +
+          "tasks, if hdds.datanode.volume.io.scheduler.enabled is true."
+  )
+  private long volumeIOSchedulerBandwidthMax = VOLUME_IO_SCHEDULER_BANDWIDTH_MAX_DEFAULT;
+
+  @Config(key = "volume.io.scheduler.bandwidth.min",
+      type = ConfigType.SIZE,
+      defaultValue = "1MB",
+      tags = { DATANODE },
+      description = "The bandwidth per second of background I/O on each volume that is always allowed, even if " +
+          "foreground latency is above the target, so that background tasks keep making progress."
+  )
+  private long volumeIOSchedulerBandwidthMin = 1024 * 1024;
+
+  @Config(key = "volume.io.scheduler.latency.target",
+      type = ConfigType.TIME,
+      defaultValue = "20ms",
+      tags = { DATANODE },
+      description = "The average latency of foreground chunk reads and writes on a volume above which its " +
+          "background I/O budget is reduced."
+  )
+  private Duration volumeIOSchedulerLatencyTarget = VOLUME_IO_SCHEDULER_LATENCY_TARGET_DEFAULT;
+
+  @Config(key = "volume.io.scheduler.adjust.interval",
+      type = ConfigType.TIME,
+      defaultValue = "1s",
+      tags = { DATANODE },
+      description = "How often the background I/O budget of a volume is adjusted to the observed foreground latency."
+  )
+  private Duration volumeIOSchedulerAdjustInterval = VOLUME_IO_SCHEDULER_ADJUST_INTERVAL_DEFAULT;
+
   @Config(key = "container.client.cache.size",
       type = ConfigType.INT,
       defaultValue = "100",
@@ -726,6 +860,40 @@ public void validate() {
       containerChecksumLockStripes = CONTAINER_CHECKSUM_LOCK_STRIPES_DEFAULT;
     }
 
+    if (volumeIOSchedulerBandwidthMax <= 0) {
+      LOG.warn("{} must be greater than zero and was set to {}. Defaulting to {}",
+          VOLUME_IO_SCHEDULER_BANDWIDTH_MAX_KEY, volumeIOSchedulerBandwidthMax,
+          VOLUME_IO_SCHEDULER_BANDWIDTH_MAX_DEFAULT);
+      volumeIOSchedulerBandwidthMax = VOLUME_IO_SCHEDULER_BANDWIDTH_MAX_DEFAULT;
+    }
+
+    if (volumeIOSchedulerBandwidthMin <= 0 || volumeIOSchedulerBandwidthMin > volumeIOSchedulerBandwidthMax) {
+      LOG.warn("{} must be greater than zero and at most {} and was set to {}. Defaulting to {}",
+          VOLUME_IO_SCHEDULER_BANDWIDTH_MIN_KEY, VOLUME_IO_SCHEDULER_BANDWIDTH_MAX_KEY,
+          volumeIOSchedulerBandwidthMin, volumeIOSchedulerBandwidthMax);
+      volumeIOSchedulerBandwidthMin = volumeIOSchedulerBandwidthMax;
+    }
+
+    if (volumeIOSchedulerLatencyTarget.isNegative() || volumeIOSchedulerLatencyTarget.isZero()) {
+      LOG.warn("{} must be greater than zero and was set to {}. Defaulting to {}",
+          VOLUME_IO_SCHEDULER_LATENCY_TARGET_KEY, volumeIOSchedulerLatencyTarget,
+          VOLUME_IO_SCHEDULER_LATENCY_TARGET_DEFAULT);
+      volumeIOSchedulerLatencyTarget = VOLUME_IO_SCHEDULER_LATENCY_TARGET_DEFAULT;
+    }
+
+    if (volumeIOSchedulerAdjustInterval.isNegative() || volumeIOSchedulerAdjustInterval.isZero()) {
+      LOG.warn("{} must be greater than zero and was set to {}. Defaulting to {}",
+          VOLUME_IO_SCHEDULER_ADJUST_INTERVAL_KEY, volumeIOSchedulerAdjustInterval,
+          VOLUME_IO_SCHEDULER_ADJUST_INTERVAL_DEFAULT);
+      volumeIOSchedulerAdjustInterval = VOLUME_IO_SCHEDULER_ADJUST_INTERVAL_DEFAULT;
+    }
+
+    if (chunkReadCacheSize < 0) {
+      LOG.warn("{} must not be negative. Disabling the cache.",
+          CHUNK_READ_CACHE_SIZE_KEY);
+      chunkReadCacheSize = 0;
+    }
+
     if (containerClientCacheSize < 1) {
       LOG.warn("{} must be at least 1. Defaulting to {}", CONTAINER_CLIENT_CACHE_SIZE,
           CONTAINER_CLIENT_CACHE_SIZE_DEFAULT);
@@ -819,6 +987,47 @@ public void setContainerCloseThreads(int containerCloseThreads) {
     this.containerCloseThreads = containerCloseThreads;
   }
 
+  public int getContainerLoadThreads() {
+    return containerLoadThreads > 0 ? containerLoadThreads
+        : Runtime.getRuntime().availableProcessors();
+  }
+
+  public void setContainerLoadThreads(int containerLoadThreads) {
+    this.containerLoadThreads = containerLoadThreads;
+  }
+
+  public boolean isContainerIndexEnabled() {
+    return containerIndexEnabled;
+  }
+
+  public void setContainerIndexEnabled(boolean containerIndexEnabled) {
+    this.containerIndexEnabled = containerIndexEnabled;
+  }
+
+  public boolean isContainerReportDeltaEnabled() {
+    return containerReportDeltaEnabled;
+  }
+
+  public void setContainerReportDeltaEnabled(boolean enabled) {
+    this.containerReportDeltaEnabled = enabled;
+  }
+
+  public int getContainerReportDeltaMax() {
+    return containerReportDeltaMax;
+  }
+
+  public void setContainerReportDeltaMax(int containerReportDeltaMax) {
+    this.containerReportDeltaMax = containerReportDeltaMax;
+  }
+
+  public long getChunkReadCacheSize() {
+    return chunkReadCacheSize;
+  }
+
+  public void setChunkReadCacheSize(long chunkReadCacheSize) {
+    this.chunkReadCacheSize = chunkReadCacheSize;
+  }
+
   public long getMinFreeSpace(long capacity) {
     return Math.max((long) (capacity * minFreeSpaceRatio), minFreeSpace);
   }
@@ -1044,6 +1253,54 @@ public int getContainerChecksumLockStripes() {
     return containerChecksumLockStripes;
   }
 
+  public boolean isContainerChecksumIncrementalTreeEnabled() {
+    return containerChecksumIncrementalTreeEnabled;
+  }
+
+  public void setContainerChecksumIncrementalTreeEnabled(boolean enabled) {
+    this.containerChecksumIncrementalTreeEnabled = enabled;
+  }
+
+  public boolean isVolumeIOSchedulerEnabled() {
+    return volumeIOSchedulerEnabled;
+  }
+
+  public void setVolumeIOSchedulerEnabled(boolean enabled) {
+    this.volumeIOSchedulerEnabled = enabled;
+  }
+
+  public long getVolumeIOSchedulerBandwidthMax() {
+    return volumeIOSchedulerBandwidthMax;
+  }
+
+  public void setVolumeIOSchedulerBandwidthMax(long bandwidth) {
+    this.volumeIOSchedulerBandwidthMax = bandwidth;
+  }
+
+  public long getVolumeIOSchedulerBandwidthMin() {
+    return volumeIOSchedulerBandwidthMin;
+  }
+
+  public void setVolumeIOSchedulerBandwidthMin(long bandwidth) {
+    this.volumeIOSchedulerBandwidthMin = bandwidth;
+  }
+
+  public Duration getVolumeIOSchedulerLatencyTarget() {
+    return volumeIOSchedulerLatencyTarget;
+  }
+
+  public void setVolumeIOSchedulerLatencyTarget(Duration latencyTarget) {
+    this.volumeIOSchedulerLatencyTarget = latencyTarget;
+  }
+
+  public Duration getVolumeIOSchedulerAdjustInterval() {
+    return volumeIOSchedulerAdjustInterval;
+  }
+
+  public void setVolumeIOSchedulerAdjustInterval(Duration adjustInterval) {
+    this.volumeIOSchedulerAdjustInterval = adjustInterval;
+  }
+
   public int getContainerClientCacheSize() {
     return containerClientCacheSize;
   }
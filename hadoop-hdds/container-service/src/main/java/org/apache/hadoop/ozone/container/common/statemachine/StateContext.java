@@ -70,6 +70,7 @@
 import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.PipelineReport;
 import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.PipelineReportsProto;
 import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.SCMCommandProto;
+import org.apache.hadoop.ozone.container.common.report.ContainerReportDeltaTracker;
 import org.apache.hadoop.ozone.container.common.states.DatanodeState;
 import org.apache.hadoop.ozone.container.common.states.datanode.InitDatanodeState;
 import org.apache.hadoop.ozone.container.common.states.datanode.RunningDatanodeState;
@@ -133,6 +134,7 @@ public class StateContext {
   private final List<String> fullReportTypeList;
   // ReportType -> Report.
   private final Map<String, AtomicReference<Message>> type2Reports;
+  private final ContainerReportDeltaTracker containerReportDeltas;
 
   /**
    * term of latest leader SCM, extract from SCMCommand.
@@ -193,6 +195,7 @@ public StateContext(ConfigurationSource conf,
     isFullReportReadyToBeSent = new HashMap<>();
     fullReportTypeList = new ArrayList<>();
     type2Reports = new HashMap<>();
+    containerReportDeltas = new ContainerReportDeltaTracker(dnConf);
     this.threadNamePrefix = threadNamePrefix;
     heartbeatFrequency = new AtomicLong(getScmInitialHeartbeatInterval(conf));
     reconHeartbeatFrequency = new AtomicLong(getInitialReconHeartbeatInterval(conf));
@@ -389,10 +392,17 @@ public List<Message> getAllAvailableReports(
    * Gets a point in time snapshot of all containers, any pending incremental
    * container reports (ICR) for containers will be included in this report
    * and this call will drop any pending ICRs.
+   * The report may list replicas which are unchanged since the previous
+   * report by container ID only, see {@link ContainerReportDeltaTracker}.
    * @return Full Container Report
    */
   public ContainerReportsProto getFullContainerReportDiscardPendingICR()
       throws IOException {
+    if (isFullReportPending(CONTAINER_REPORTS_PROTO_NAME)) {
+      // The previous report has not been sent to all endpoints yet, and it
+      // will be replaced by this one.
+      containerReportDeltas.requestFullReport();
+    }
 
     // Block ICRs from being generated
     synchronized (parentDatanodeStateMachine
@@ -408,11 +418,31 @@ public ContainerReportsProto getFullContainerReportDiscardPendingICR()
           }
         }
       }
-      return parentDatanodeStateMachine
+      return containerReportDeltas.encode(parentDatanodeStateMachine
           .getContainer()
           .getContainerSet()
-          .getContainerReport();
+          .getContainerReport());
+    }
+  }
+
+  /**
+   * Make the next container report include all replicas, e.g. because the
+   * previous one failed to be sent.
+   */
+  public void requestFullContainerReport() {
+    containerReportDeltas.requestFullReport();
+  }
+
+  private boolean isFullReportPending(String reportType) {
+    if (type2Reports.get(reportType).get() == null) {
+      return false;
+    }
+    for (Map<String, AtomicBoolean> mp : isFullReportReadyToBeSent.values()) {
+      if (mp.get(reportType).get()) {
+        return true;
+      }
     }
+    return false;
   }
 
   @VisibleForTesting
@@ -155,6 +155,10 @@ public EndpointStateMachine.EndPointStates call() throws Exception {
       Preconditions.checkState(requestBuilder != null);
       // put back the reports which failed to be sent
       putBackIncrementalReports(requestBuilder);
+      if (requestBuilder.hasContainerReport()) {
+        // The next container report must not be a delta of the lost one.
+        context.requestFullContainerReport();
+      }
       rpcEndpoint.logIfNeeded(ex);
     } finally {
       rpcEndpoint.unlock();
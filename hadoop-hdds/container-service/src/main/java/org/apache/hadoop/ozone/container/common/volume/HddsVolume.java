@@ -87,6 +87,8 @@ public class HddsVolume extends StorageVolume {
 
   private final VolumeIOStats volumeIOStats;
   private final VolumeInfoMetrics volumeInfoMetrics;
+  // Null if background I/O is not scheduled per volume.
+  private final VolumeIOScheduler ioScheduler;
 
   private ContainerController controller;
 
@@ -142,6 +144,9 @@ private HddsVolume(Builder b) throws IOException {
           this.getStorageDir().toString(), intervals);
       this.volumeInfoMetrics =
           new VolumeInfoMetrics(b.getVolumeRootStr(), this);
+      this.ioScheduler = getDatanodeConfig().isVolumeIOSchedulerEnabled()
+          ? new VolumeIOScheduler(b.getVolumeRootStr(), volumeIOStats, getDatanodeConfig())
+          : null;
 
       this.volumeTestCount = getDatanodeConfig().getVolumeIOTestCount();
       this.volumeTestFailureTolerance = getDatanodeConfig().getVolumeIOFailureTolerance();
@@ -155,6 +160,7 @@ private HddsVolume(Builder b) throws IOException {
       this.setState(VolumeState.FAILED);
       volumeIOStats = null;
       volumeInfoMetrics = new VolumeInfoMetrics(b.getVolumeRootStr(), this);
+      ioScheduler = null;
       this.volumeTestCount = 0;
       this.volumeTestFailureTolerance = 0;
     }
@@ -194,6 +200,14 @@ public VolumeIOStats getVolumeIOStats() {
     return volumeIOStats;
   }
 
+  /**
+   * @return the scheduler of background I/O on this volume, or null if
+   * background I/O is not scheduled per volume.
+   */
+  public VolumeIOScheduler getIOScheduler() {
+    return ioScheduler;
+  }
+
   public VolumeInfoMetrics getVolumeInfoStats() {
     return volumeInfoMetrics;
   }
@@ -214,6 +228,9 @@ public void failVolume() {
     if (volumeIOStats != null) {
       volumeIOStats.unregister();
     }
+    if (ioScheduler != null) {
+      ioScheduler.shutdown();
+    }
     closeDbStore();
   }
 
@@ -223,6 +240,9 @@ public void shutdown() {
     if (volumeIOStats != null) {
       volumeIOStats.unregister();
     }
+    if (ioScheduler != null) {
+      ioScheduler.shutdown();
+    }
     if (volumeInfoMetrics != null) {
       volumeInfoMetrics.unregister();
     }
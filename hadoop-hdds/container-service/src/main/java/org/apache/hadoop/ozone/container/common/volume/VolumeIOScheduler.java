@@ -0,0 +1,304 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.container.common.volume;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.EnumMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.hadoop.hdfs.util.Canceler;
+import org.apache.hadoop.hdfs.util.DataTransferThrottler;
+import org.apache.hadoop.ozone.container.common.statemachine.DatanodeConfiguration;
+import org.apache.hadoop.util.Time;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Schedules the background I/O of one HDDS Volume, so that the container data scanner, block deletion and container
+ * replication together do not saturate the disk and hurt the latency of foreground chunk reads and writes.
+ * <p>
+ * All background I/O on the volume draws from a single token bucket, so together it never exceeds the bandwidth of
+ * the volume. Background I/O is grouped into {@link IOClass priority classes}: each byte of a class costs as many
+ * tokens as the weight of the heaviest class active in the last interval divided by its own weight. A class alone
+ * can use the whole bandwidth, while lower priority classes get less of it when higher priority classes are active.
+ * An idle class is charged as if it became active, so it can start without waiting for the next adjustment.
+ * <p>
+ * The bandwidth of the volume adapts to the average latency of foreground I/O recorded in {@link VolumeIOStats}. It
+ * is halved if the latency is above the target, and increased linearly up to the maximum otherwise. Adjustments
+ * are made lazily while background I/O is throttled, so the scheduler needs no thread of its own.
+ */
+public class VolumeIOScheduler {
+
+  private static final Logger LOG = LoggerFactory.getLogger(VolumeIOScheduler.class);
+
+  /**
+   * Block deletion mostly updates file system metadata instead of transferring data, so each deleted block is
+   * charged as this fixed number of bytes.
+   */
+  public static final long DELETE_BLOCK_COST = 64 * 1024;
+
+  /**
+   * Priority classes of background I/O. Classes with a higher weight get a larger share of the bandwidth.
+   */
+  public enum IOClass {
+    /** Copying containers from and to other datanodes, which restores redundancy. */
+    REPLICATION(4, "replication"),
+    /** Deleting blocks, which frees space. */
+    DELETION(2, "deletion"),
+    /** Verifying container data in the background. */
+    SCANNER(1, "scanner");
+
+    private final int weight;
+    private final String metricName;
+
+    IOClass(int weight, String metricName) {
+      this.weight = weight;
+      this.metricName = metricName;
+    }
+
+    public int getWeight() {
+      return weight;
+    }
+
+    String getMetricName() {
+      return metricName;
+    }
+  }
+
+  private final String name;
+  private final VolumeIOStats foregroundStats;
+  private final VolumeIOSchedulerMetrics metrics;
+  private final long maxBandwidth;
+  private final long minBandwidth;
+  private final long bandwidthIncrease;
+  private final long latencyTargetMs;
+  private final long adjustIntervalMs;
+  private final DataTransferThrottler throttler;
+  private final EnumMap<IOClass, LongAdder> bytesInInterval = new EnumMap<>(IOClass.class);
+
+  private volatile long lastAdjustTime;
+  /** Weight of the heaviest class active in the last interval, 0 if none was. */
+  private volatile int heaviestWeight;
+  private long bandwidth;
+  private long lastForegroundOps;
+  private long lastForegroundTime;
+
+  /**
+   * @param identifier Typically, path to volume root. E.g. /data/hdds
+   * @param foregroundStats the I/O statistics of chunk reads and writes on the volume
+   */
+  public VolumeIOScheduler(String identifier, VolumeIOStats foregroundStats, DatanodeConfiguration conf) {
+    this.name = identifier;
+    this.foregroundStats = foregroundStats;
+    this.metrics = new VolumeIOSchedulerMetrics(identifier);
+    this.maxBandwidth = conf.getVolumeIOSchedulerBandwidthMax();
+    this.minBandwidth = conf.getVolumeIOSchedulerBandwidthMin();
+    // Recover from the minimum to the maximum bandwidth in eight intervals.
+    this.bandwidthIncrease = Math.max(1, maxBandwidth / 8);
+    this.latencyTargetMs = conf.getVolumeIOSchedulerLatencyTarget().toMillis();
+    this.adjustIntervalMs = conf.getVolumeIOSchedulerAdjustInterval().toMillis();
+
+    bandwidth = maxBandwidth;
+    throttler = new DataTransferThrottler(bandwidth);
+    for (IOClass ioClass : IOClass.values()) {
+      bytesInInterval.put(ioClass, new LongAdder());
+    }
+    lastForegroundOps = getForegroundOps();
+    lastForegroundTime = foregroundStats.getTotalIOTime();
+    lastAdjustTime = Time.monotonicNow();
+    updateMetrics();
+  }
+
+  /**
+   * Waits until {@code numBytes} of background I/O of the given class are allowed on the volume.
+   *
+   * @param canceler stops waiting if cancelled, may be null
+   */
+  public void throttle(IOClass ioClass, long numBytes, Canceler canceler) {
+    if (numBytes <= 0) {
+      return;
+    }
+    if (Time.monotonicNow() - lastAdjustTime >= adjustIntervalMs) {
+      adjust(Time.monotonicNow());
+    }
+    bytesInInterval.get(ioClass).add(numBytes);
+    metrics.incBytes(ioClass, numBytes);
+    int weight = ioClass.getWeight();
+    throttler.throttle(numBytes * Math.max(heaviestWeight, weight) / weight, canceler);
+  }
+
+  /**
+   * @return a stream whose reads are throttled as background I/O of the given class on the volume, or {@code in}
+   * itself if the volume has no scheduler.
+   */
+  public static InputStream throttle(HddsVolume volume, IOClass ioClass, InputStream in) {
+    VolumeIOScheduler scheduler = volume == null ? null : volume.getIOScheduler();
+    return scheduler == null ? in : new ThrottledInputStream(in, scheduler, ioClass);
+  }
+
+  /**
+   * @return a stream whose writes are throttled as background I/O of the given class on the volume, or {@code out}
+   * itself if the volume has no scheduler.
+   */
+  public static OutputStream throttle(HddsVolume volume, IOClass ioClass, OutputStream out) {
+    VolumeIOScheduler scheduler = volume == null ? null : volume.getIOScheduler();
+    return scheduler == null ? out : new ThrottledOutputStream(out, scheduler, ioClass);
+  }
+
+  /**
+   * Waits until {@code numBytes} of background I/O of the given class are allowed on the volume. Returns
+   * immediately if the volume has no scheduler.
+   */
+  public static void throttle(HddsVolume volume, IOClass ioClass, long numBytes) {
+    VolumeIOScheduler scheduler = volume == null ? null : volume.getIOScheduler();
+    if (scheduler != null) {
+      scheduler.throttle(ioClass, numBytes, null);
+    }
+  }
+
+  /**
+   * Adapts the bandwidth of the volume to the foreground latency since the last adjustment, and the cost of each
+   * class to the activity of the classes in that interval.
+   */
+  @VisibleForTesting
+  synchronized void adjust(long now) {
+    long elapsed = now - lastAdjustTime;
+    if (elapsed < adjustIntervalMs) {
+      // Another thread has just adjusted.
+      return;
+    }
+    long foregroundOps = getForegroundOps();
+    long foregroundTime = foregroundStats.getTotalIOTime();
+    long deltaOps = foregroundOps - lastForegroundOps;
+    long deltaTime = foregroundTime - lastForegroundTime;
+    lastForegroundOps = foregroundOps;
+    lastForegroundTime = foregroundTime;
+    lastAdjustTime = now;
+
+    metrics.setForegroundLatency(deltaOps > 0 ? deltaTime / deltaOps : 0);
+    if (deltaOps > 0 && deltaTime > latencyTargetMs * deltaOps) {
+      long reduced = Math.max(minBandwidth, bandwidth / 2);
+      if (reduced < bandwidth) {
+        LOG.debug("Reducing background I/O bandwidth of {} to {} bytes/s, foreground latency is {} ms", name,
+            reduced, deltaTime / deltaOps);
+        metrics.incNumBandwidthReductions();
+      }
+      bandwidth = reduced;
+    } else {
+      bandwidth = Math.min(maxBandwidth, bandwidth + bandwidthIncrease);
+    }
+
+    int heaviest = 0;
+    for (IOClass ioClass : IOClass.values()) {
+      long bytes = bytesInInterval.get(ioClass).sumThenReset();
+      if (bytes > 0) {
+        heaviest = Math.max(heaviest, ioClass.getWeight());
+      }
+      long allowed = getBandwidth(ioClass) * elapsed / 1000;
+      metrics.setUtilization(ioClass, allowed > 0 ? (int) Math.min(100, bytes * 100 / allowed) : 0);
+    }
+    heaviestWeight = heaviest;
+    throttler.setBandwidth(bandwidth);
+    updateMetrics();
+  }
+
+  private void updateMetrics() {
+    metrics.setBandwidth(bandwidth);
+    for (IOClass ioClass : IOClass.values()) {
+      metrics.setClassBandwidth(ioClass, getBandwidth(ioClass));
+    }
+  }
+
+  private long getForegroundOps() {
+    return foregroundStats.getReadOpCount() + foregroundStats.getWriteOpCount();
+  }
+
+  public synchronized long getBandwidth() {
+    return bandwidth;
+  }
+
+  /**
+   * @return the bandwidth the given class can use while the classes active in the last interval are still active.
+   */
+  public long getBandwidth(IOClass ioClass) {
+    int weight = ioClass.getWeight();
+    return Math.max(1, throttler.getBandwidth() * weight / Math.max(heaviestWeight, weight));
+  }
+
+  public VolumeIOSchedulerMetrics getMetrics() {
+    return metrics;
+  }
+
+  public void shutdown() {
+    metrics.unregister();
+  }
+
+  private static final class ThrottledInputStream extends FilterInputStream {
+    private final VolumeIOScheduler scheduler;
+    private final IOClass ioClass;
+
+    ThrottledInputStream(InputStream in, VolumeIOScheduler scheduler, IOClass ioClass) {
+      super(in);
+      this.scheduler = scheduler;
+      this.ioClass = ioClass;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = super.read();
+      if (b >= 0) {
+        scheduler.throttle(ioClass, 1, null);
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      int n = super.read(b, off, len);
+      scheduler.throttle(ioClass, n, null);
+      return n;
+    }
+  }
+
+  private static final class ThrottledOutputStream extends FilterOutputStream {
+    private final VolumeIOScheduler scheduler;
+    private final IOClass ioClass;
+
+    ThrottledOutputStream(OutputStream out, VolumeIOScheduler scheduler, IOClass ioClass) {
+      super(out);
+      this.scheduler = scheduler;
+      this.ioClass = ioClass;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      scheduler.throttle(ioClass, 1, null);
+      out.write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      scheduler.throttle(ioClass, len, null);
+      out.write(b, off, len);
+    }
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.container.common.volume;
+
+import java.util.EnumMap;
+import org.apache.hadoop.metrics2.MetricsSystem;
+import org.apache.hadoop.metrics2.annotation.Metric;
+import org.apache.hadoop.metrics2.annotation.Metrics;
+import org.apache.hadoop.metrics2.lib.DefaultMetricsSystem;
+import org.apache.hadoop.metrics2.lib.MetricsRegistry;
+import org.apache.hadoop.metrics2.lib.MutableCounterLong;
+import org.apache.hadoop.metrics2.lib.MutableGaugeInt;
+import org.apache.hadoop.metrics2.lib.MutableGaugeLong;
+import org.apache.hadoop.ozone.OzoneConsts;
+import org.apache.hadoop.ozone.container.common.volume.VolumeIOScheduler.IOClass;
+
+/**
+ * Metrics of the background I/O scheduled by a {@link VolumeIOScheduler} for one HDDS Volume.
+ */
+@Metrics(about = "Volume Background I/O Scheduler Metrics", context = OzoneConsts.OZONE)
+public class VolumeIOSchedulerMetrics {
+
+  private static final String SOURCE_BASENAME = VolumeIOSchedulerMetrics.class.getSimpleName();
+
+  private final String metricsSourceName;
+  private final MetricsRegistry registry;
+
+  @Metric("Background I/O bandwidth per second currently allowed on the volume")
+  private MutableGaugeLong bandwidth;
+  @Metric("Average foreground I/O latency in ms observed in the last adjustment interval")
+  private MutableGaugeLong foregroundLatency;
+  @Metric("Number of times the background I/O bandwidth was reduced because of foreground latency")
+  private MutableCounterLong numBandwidthReductions;
+
+  private final EnumMap<IOClass, MutableCounterLong> bytes = new EnumMap<>(IOClass.class);
+  private final EnumMap<IOClass, MutableGaugeLong> classBandwidth = new EnumMap<>(IOClass.class);
+  private final EnumMap<IOClass, MutableGaugeInt> utilization = new EnumMap<>(IOClass.class);
+
+  /**
+   * @param identifier Typically, path to volume root. E.g. /data/hdds
+   */
+  public VolumeIOSchedulerMetrics(String identifier) {
+    metricsSourceName = SOURCE_BASENAME + '-' + identifier;
+    registry = new MetricsRegistry(metricsSourceName);
+    for (IOClass ioClass : IOClass.values()) {
+      String name = ioClass.getMetricName();
+      bytes.put(ioClass, registry.newCounter(name + "Bytes",
+          "Bytes of " + ioClass + " I/O on the volume", 0L));
+      classBandwidth.put(ioClass, registry.newGauge(name + "Bandwidth",
+          "Bandwidth per second currently allowed for " + ioClass + " I/O on the volume", 0L));
+      utilization.put(ioClass, registry.newGauge(name + "Utilization",
+          "Percentage of the allowed " + ioClass + " bandwidth used in the last adjustment interval", 0));
+    }
+    init();
+  }
+
+  public void init() {
+    MetricsSystem ms = DefaultMetricsSystem.instance();
+    ms.register(metricsSourceName, "Volume Background I/O Scheduler Statistics", this);
+  }
+
+  public void unregister() {
+    MetricsSystem ms = DefaultMetricsSystem.instance();
+    ms.unregisterSource(metricsSourceName);
+  }
+
+  void incBytes(IOClass ioClass, long numBytes) {
+    bytes.get(ioClass).incr(numBytes);
+  }
+
+  void setBandwidth(long value) {
+    bandwidth.set(value);
+  }
+
+  void setClassBandwidth(IOClass ioClass, long value) {
+    classBandwidth.get(ioClass).set(value);
+  }
+
+  void setUtilization(IOClass ioClass, int percent) {
+    utilization.get(ioClass).set(percent);
+  }
+
+  void setForegroundLatency(long latencyMs) {
+    foregroundLatency.set(latencyMs);
+  }
+
+  void incNumBandwidthReductions() {
+    numBandwidthReductions.incr();
+  }
+
+  public long getBytes(IOClass ioClass) {
+    return bytes.get(ioClass).value();
+  }
+
+  public long getBandwidth() {
+    return bandwidth.value();
+  }
+
+  public long getClassBandwidth(IOClass ioClass) {
+    return classBandwidth.get(ioClass).value();
+  }
+
+  public int getUtilization(IOClass ioClass) {
+    return utilization.get(ioClass).value();
+  }
+
+  public long getForegroundLatency() {
+    return foregroundLatency.value();
+  }
+
+  public long getNumBandwidthReductions() {
+    return numBandwidthReductions.value();
+  }
+}
@@ -17,6 +17,7 @@
 
 package org.apache.hadoop.ozone.container.common.volume;
 
+import java.util.concurrent.atomic.LongAdder;
 import org.apache.hadoop.metrics2.MetricsSystem;
 import org.apache.hadoop.metrics2.annotation.Metric;
 import org.apache.hadoop.metrics2.lib.DefaultMetricsSystem;
@@ -48,6 +49,8 @@ public class VolumeIOStats {
   private MutableRate writeTime;
   @Metric
   private MutableQuantiles[] writeLatencyQuantiles;
+  // Unlike readTime and writeTime, which are reset for each metrics snapshot, this is never reset.
+  private final LongAdder totalIOTime = new LongAdder();
 
   @Deprecated
   public VolumeIOStats() {
@@ -128,6 +131,7 @@ public void incWriteOpCount() {
    */
   public void incReadTime(long time) {
     readTime.add(time);
+    totalIOTime.add(time);
     for (MutableQuantiles q : readLatencyQuantiles) {
       q.add(time);
     }
@@ -139,6 +143,7 @@ public void incReadTime(long time) {
    */
   public void incWriteTime(long time) {
     writeTime.add(time);
+    totalIOTime.add(time);
     for (MutableQuantiles q : writeLatencyQuantiles) {
       q.add(time);
     }
@@ -192,6 +197,14 @@ public long getWriteTime() {
     return (long) writeTime.lastStat().total();
   }
 
+  /**
+   * Returns the total time of all read and write operations on the volume since it was created.
+   * @return long
+   */
+  public long getTotalIOTime() {
+    return totalIOTime.sum();
+  }
+
   @Metric
   public String getStorageDirectory() {
     return storageDirectory;
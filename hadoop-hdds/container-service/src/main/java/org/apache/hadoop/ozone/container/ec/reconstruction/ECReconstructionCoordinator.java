@@ -38,11 +38,14 @@
 import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import org.apache.hadoop.hdds.client.BlockID;
 import org.apache.hadoop.hdds.client.ECReplicationConfig;
@@ -85,7 +88,7 @@
  * - ListBlock from all healthy replicas
  * - calculate effective block group len for all blocks
  * - create RECOVERING containers in TargetDNs
- * -  for each block
+ * -  for each block, up to a configured number of block groups concurrently
  * -    build a ECReconstructedStripedInputStream to read healthy chunks
  * -    build a ECBlockOutputStream to write out decoded chunks
  * -      for each stripe
@@ -103,12 +106,16 @@ public class ECReconstructionCoordinator implements Closeable {
 
   private static final int EC_RECONSTRUCT_STRIPE_WRITE_POOL_MIN_SIZE = 5;
 
+  private static final int EC_RECONSTRUCT_BLOCK_GROUP_POOL_MIN_SIZE = 1;
+
   private final ECContainerOperationClient containerOperationClient;
 
   private final ByteBufferPool byteBufferPool;
 
   private final ExecutorService ecReconstructReadExecutor;
   private final MemoizedSupplier<ExecutorService> ecReconstructWriteExecutor;
+  private final MemoizedSupplier<ExecutorService>
+      ecReconstructBlockGroupExecutor;
   private final BlockInputStreamFactory blockInputStreamFactory;
   private final TokenHelper tokenHelper;
   private final ContainerClientMetrics clientMetrics;
@@ -135,6 +142,11 @@ public ECReconstructionCoordinator(
             EC_RECONSTRUCT_STRIPE_WRITE_POOL_MIN_SIZE,
             ozoneClientConfig.getEcReconstructStripeWritePoolLimit(),
             threadNamePrefix + "ec-reconstruct-writer-TID-%d"));
+    this.ecReconstructBlockGroupExecutor = MemoizedSupplier.valueOf(
+        () -> createThreadPoolExecutor(
+            EC_RECONSTRUCT_BLOCK_GROUP_POOL_MIN_SIZE,
+            ozoneClientConfig.getEcReconstructBlockGroupConcurrency(),
+            threadNamePrefix + "ec-reconstruct-block-group-TID-%d"));
     this.blockInputStreamFactory = BlockInputStreamFactoryImpl
         .getInstance(byteBufferPool, () -> ecReconstructReadExecutor);
     tokenHelper = new TokenHelper(new SecurityConfig(conf), secretKeyClient);
@@ -173,13 +185,8 @@ public void reconstructECContainerGroup(long containerID,
       }
 
       // 2. Reconstruct and transfer to targets
-      for (Map.Entry<Long, BlockLocationInfo> blockLocationInfoEntry
-          : blockLocationInfoMap.entrySet()) {
-        Long key = blockLocationInfoEntry.getKey();
-        BlockLocationInfo blockLocationInfo = blockLocationInfoEntry.getValue();
-        reconstructECBlockGroup(blockLocationInfo, repConfig,
-            targetNodeMap, blockDataMap.get(key));
-      }
+      reconstructECBlockGroups(blockLocationInfoMap, blockDataMap, repConfig,
+          targetNodeMap);
 
       // 3. Close containers
       for (DatanodeDetails dn: recoveringContainersCreatedDNs) {
@@ -221,6 +228,78 @@ public void reconstructECContainerGroup(long containerID,
 
   }
 
+  /**
+   * Reconstructs the given block groups, up to
+   * {@link OzoneClientConfig#getEcReconstructBlockGroupConcurrency()} of them
+   * at the same time. Once a block group fails, no further block groups are
+   * started, and the ones in flight are waited for before the failure is
+   * rethrown.
+   */
+  @VisibleForTesting
+  void reconstructECBlockGroups(
+      SortedMap<Long, BlockLocationInfo> blockLocationInfoMap,
+      SortedMap<Long, BlockData[]> blockDataMap, ECReplicationConfig repConfig,
+      SortedMap<Integer, DatanodeDetails> targetNodeMap) throws IOException {
+    int concurrency = ozoneClientConfig.getEcReconstructBlockGroupConcurrency();
+    if (concurrency <= 1 || blockLocationInfoMap.size() <= 1) {
+      for (Map.Entry<Long, BlockLocationInfo> blockLocationInfoEntry
+          : blockLocationInfoMap.entrySet()) {
+        Long key = blockLocationInfoEntry.getKey();
+        BlockLocationInfo blockLocationInfo = blockLocationInfoEntry.getValue();
+        reconstructECBlockGroup(blockLocationInfo, repConfig,
+            targetNodeMap, blockDataMap.get(key));
+      }
+      return;
+    }
+
+    ExecutorService executor = ecReconstructBlockGroupExecutor.get();
+    Semaphore permits = new Semaphore(concurrency);
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    try {
+      for (Map.Entry<Long, BlockLocationInfo> blockLocationInfoEntry
+          : blockLocationInfoMap.entrySet()) {
+        permits.acquire();
+        if (failure.get() != null) {
+          permits.release();
+          break;
+        }
+        BlockLocationInfo blockLocationInfo = blockLocationInfoEntry.getValue();
+        BlockData[] blockDataGroup =
+            blockDataMap.get(blockLocationInfoEntry.getKey());
+        CompletableFuture.runAsync(() -> {
+          try {
+            reconstructECBlockGroup(blockLocationInfo, repConfig,
+                targetNodeMap, blockDataGroup);
+          } catch (IOException e) {
+            throw new CompletionException(e);
+          }
+        }, executor).whenComplete((result, e) -> {
+          if (e != null) {
+            failure.compareAndSet(null,
+                e instanceof CompletionException ? e.getCause() : e);
+          }
+          permits.release();
+        });
+      }
+      // wait for the block groups in flight
+      permits.acquire(concurrency);
+      permits.release(concurrency);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while reconstructing block groups",
+          e);
+    }
+
+    Throwable t = failure.get();
+    if (t instanceof IOException) {
+      throw (IOException) t;
+    } else if (t instanceof RuntimeException) {
+      throw (RuntimeException) t;
+    } else if (t != null) {
+      throw new IOException("Failed to reconstruct block group", t);
+    }
+  }
+
   private ECBlockOutputStream getECBlockOutputStream(
       BlockLocationInfo blockLocationInfo, DatanodeDetails datanodeDetails,
       ECReplicationConfig repConfig, int replicaIndex) throws IOException {
@@ -272,7 +351,10 @@ public void reconstructECBlockGroup(BlockLocationInfo blockLocationInfo,
           new ECBlockOutputStream[toReconstructIndexes.size()];
       ECBlockOutputStream[] emptyBlockStreams =
           new ECBlockOutputStream[notReconstructIndexes.size()];
+      // Two sets of buffers, so a stripe can be recovered while the previous
+      // one is still being written to the targets.
       ByteBuffer[] bufs = new ByteBuffer[toReconstructIndexes.size()];
+      ByteBuffer[] nextBufs = new ByteBuffer[toReconstructIndexes.size()];
       try {
         // Create streams and buffers for all indexes that need reconstructed
         for (int i = 0; i < toReconstructIndexes.size(); i++) {
@@ -281,6 +363,8 @@ public void reconstructECBlockGroup(BlockLocationInfo blockLocationInfo,
           targetBlockStreams[i] = getECBlockOutputStream(blockLocationInfo, datanodeDetails, repConfig, replicaIndex);
           bufs[i] = byteBufferPool.getBuffer(false, repConfig.getEcChunkSize());
           bufs[i].clear();
+          nextBufs[i] = byteBufferPool.getBuffer(false, repConfig.getEcChunkSize());
+          nextBufs[i].clear();
         }
         // Then create a stream for all indexes that don't need reconstructed, but still need a stream to
         // write the empty block data to.
@@ -293,46 +377,9 @@ public void reconstructECBlockGroup(BlockLocationInfo blockLocationInfo,
         if (!toReconstructIndexes.isEmpty()) {
           sis.setRecoveryIndexes(toReconstructIndexes.stream().map(i -> (i - 1))
               .collect(Collectors.toSet()));
-          long length = safeBlockGroupLength;
-          while (length > 0) {
-            int readLen;
-            try {
-              readLen = sis.recoverChunks(bufs);
-              Set<Integer> failedIndexes = sis.getFailedIndexes();
-              if (!failedIndexes.isEmpty()) {
-                // There was a problem reading some of the block indexes, but we
-                // did not get an exception as there must have been spare indexes
-                // to try and recover from. Therefore we should log out the block
-                // group details in the same way as for the exception case below.
-                logBlockGroupDetails(blockLocationInfo, repConfig,
-                    blockDataGroup);
-              }
-            } catch (IOException e) {
-              // When we see exceptions here, it could be due to some transient
-              // issue that causes the block read to fail when reconstructing it,
-              // but we have seen issues where the containers don't have the
-              // blocks they appear they should have, or the block chunks are the
-              // wrong length etc. In order to debug these sort of cases, if we
-              // get an error, we will log out the details about the block group
-              // length on each source, along with their chunk list and chunk
-              // lengths etc.
-              logBlockGroupDetails(blockLocationInfo, repConfig,
-                  blockDataGroup);
-              throw e;
-            }
-            // TODO: can be submitted in parallel
-            for (int i = 0; i < bufs.length; i++) {
-              if (bufs[i].remaining() != 0) {
-                // If the buffer is empty, we don't need to write it as it will cause
-                // an empty chunk to be added to the end of the block.
-                CompletableFuture<ContainerProtos.ContainerCommandResponseProto>
-                    future = targetBlockStreams[i].write(bufs[i]);
-                checkFailures(targetBlockStreams[i], future);
-              }
-              bufs[i].clear();
-            }
-            length -= readLen;
-          }
+          recoverStripes(sis, targetBlockStreams, bufs, nextBufs,
+              safeBlockGroupLength, blockLocationInfo, repConfig,
+              blockDataGroup);
         }
         List<ECBlockOutputStream> allStreams = new ArrayList<>(Arrays.asList(targetBlockStreams));
         allStreams.addAll(Arrays.asList(emptyBlockStreams));
@@ -344,12 +391,142 @@ public void reconstructECBlockGroup(BlockLocationInfo blockLocationInfo,
         for (ByteBuffer buf : bufs) {
           byteBufferPool.putBuffer(buf);
         }
+        for (ByteBuffer buf : nextBufs) {
+          byteBufferPool.putBuffer(buf);
+        }
         IOUtils.cleanupWithLogger(LOG, targetBlockStreams);
         IOUtils.cleanupWithLogger(LOG, emptyBlockStreams);
       }
     }
   }
 
+  /**
+   * Recovers the stripes of the block group into the two sets of buffers in
+   * turn. The chunks of a stripe are written to the targets while the next
+   * stripe is recovered, and the buffers are reused only once those writes
+   * are complete.
+   */
+  @SuppressWarnings("checkstyle:ParameterNumber")
+  private void recoverStripes(ECBlockReconstructedStripeInputStream sis,
+      ECBlockOutputStream[] targetBlockStreams, ByteBuffer[] bufs,
+      ByteBuffer[] nextBufs, long length, BlockLocationInfo blockLocationInfo,
+      ECReplicationConfig repConfig, BlockData[] blockDataGroup)
+      throws IOException {
+    ByteBuffer[] recovering = bufs;
+    ByteBuffer[] writing = nextBufs;
+    List<CompletableFuture<ContainerProtos.ContainerCommandResponseProto>>
+        writes = null;
+    int stripesInFlight = 0;
+    try {
+      while (length > 0) {
+        metrics.incStripesInFlight();
+        stripesInFlight++;
+        int readLen = recoverStripe(sis, recovering, blockLocationInfo,
+            repConfig, blockDataGroup);
+        if (writes != null) {
+          awaitStripe(targetBlockStreams, writing, writes);
+          writes = null;
+          metrics.decStripesInFlight();
+          stripesInFlight--;
+        }
+        writes = writeStripe(targetBlockStreams, recovering);
+        ByteBuffer[] written = recovering;
+        recovering = writing;
+        writing = written;
+        metrics.incReconstructedBytesTotal(readLen);
+        length -= readLen;
+      }
+      if (writes != null) {
+        awaitStripe(targetBlockStreams, writing, writes);
+        writes = null;
+        metrics.decStripesInFlight();
+        stripesInFlight--;
+      }
+    } finally {
+      if (writes != null) {
+        // The buffers go back to the pool, they must not be in use.
+        for (CompletableFuture<?> write : writes) {
+          if (write != null) {
+            try {
+              write.get();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+              LOG.debug("Chunk write failed after a failed stripe", e);
+            }
+          }
+        }
+      }
+      for (; stripesInFlight > 0; stripesInFlight--) {
+        metrics.decStripesInFlight();
+      }
+    }
+  }
+
+  private int recoverStripe(ECBlockReconstructedStripeInputStream sis,
+      ByteBuffer[] bufs, BlockLocationInfo blockLocationInfo,
+      ECReplicationConfig repConfig, BlockData[] blockDataGroup)
+      throws IOException {
+    try {
+      int readLen = sis.recoverChunks(bufs);
+      Set<Integer> failedIndexes = sis.getFailedIndexes();
+      if (!failedIndexes.isEmpty()) {
+        // There was a problem reading some of the block indexes, but we
+        // did not get an exception as there must have been spare indexes
+        // to try and recover from. Therefore we should log out the block
+        // group details in the same way as for the exception case below.
+        logBlockGroupDetails(blockLocationInfo, repConfig,
+            blockDataGroup);
+      }
+      return readLen;
+    } catch (IOException e) {
+      // When we see exceptions here, it could be due to some transient
+      // issue that causes the block read to fail when reconstructing it,
+      // but we have seen issues where the containers don't have the
+      // blocks they appear they should have, or the block chunks are the
+      // wrong length etc. In order to debug these sort of cases, if we
+      // get an error, we will log out the details about the block group
+      // length on each source, along with their chunk list and chunk
+      // lengths etc.
+      logBlockGroupDetails(blockLocationInfo, repConfig,
+          blockDataGroup);
+      throw e;
+    }
+  }
+
+  /**
+   * Starts writing the recovered chunks of a stripe to all targets at once.
+   */
+  private List<CompletableFuture<ContainerProtos.ContainerCommandResponseProto>>
+      writeStripe(ECBlockOutputStream[] targetBlockStreams, ByteBuffer[] bufs)
+      throws IOException {
+    List<CompletableFuture<ContainerProtos.ContainerCommandResponseProto>>
+        futures = new ArrayList<>(bufs.length);
+    for (int i = 0; i < bufs.length; i++) {
+      // If the buffer is empty, we don't need to write it as it will cause
+      // an empty chunk to be added to the end of the block.
+      futures.add(bufs[i].remaining() != 0
+          ? targetBlockStreams[i].write(bufs[i]) : null);
+    }
+    return futures;
+  }
+
+  /**
+   * Waits for the writes of a stripe to all targets, then clears its buffers
+   * for the next stripe.
+   */
+  private void awaitStripe(ECBlockOutputStream[] targetBlockStreams,
+      ByteBuffer[] bufs,
+      List<CompletableFuture<ContainerProtos.ContainerCommandResponseProto>>
+          futures) throws IOException {
+    for (int i = 0; i < bufs.length; i++) {
+      if (futures.get(i) != null) {
+        checkFailures(targetBlockStreams[i], futures.get(i));
+      }
+      bufs[i].clear();
+    }
+  }
+
   private void logBlockGroupDetails(BlockLocationInfo blockLocationInfo,
       ECReplicationConfig repConfig, BlockData[] blockDataGroup) {
     LOG.info("Block group details for {}. " +
@@ -465,6 +642,9 @@ public void close() throws IOException {
     if (ecReconstructWriteExecutor.isInitialized()) {
       ecReconstructWriteExecutor.get().shutdownNow();
     }
+    if (ecReconstructBlockGroupExecutor.isInitialized()) {
+      ecReconstructBlockGroupExecutor.get().shutdownNow();
+    }
     ecReconstructReadExecutor.shutdownNow();
   }
 
@@ -23,6 +23,7 @@
 import org.apache.hadoop.metrics2.annotation.Metrics;
 import org.apache.hadoop.metrics2.lib.DefaultMetricsSystem;
 import org.apache.hadoop.metrics2.lib.MutableCounterLong;
+import org.apache.hadoop.metrics2.lib.MutableGaugeInt;
 import org.apache.hadoop.ozone.OzoneConsts;
 
 /**
@@ -39,6 +40,8 @@ public final class ECReconstructionMetrics {
   private @Metric MutableCounterLong blockGroupReconstructionFailsTotal;
   private @Metric MutableCounterLong reconstructionTotal;
   private @Metric MutableCounterLong reconstructionFailsTotal;
+  private @Metric MutableCounterLong reconstructedBytesTotal;
+  private @Metric MutableGaugeInt stripesInFlight;
 
   private ECReconstructionMetrics() {
   }
@@ -70,6 +73,18 @@ public void incReconstructionFailsTotal() {
     reconstructionFailsTotal.incr();
   }
 
+  public void incReconstructedBytesTotal(long bytes) {
+    reconstructedBytesTotal.incr(bytes);
+  }
+
+  public void incStripesInFlight() {
+    stripesInFlight.incr();
+  }
+
+  public void decStripesInFlight() {
+    stripesInFlight.decr();
+  }
+
   public long getReconstructionTotal() {
     return reconstructionTotal.value();
   }
@@ -77,4 +92,12 @@ public long getReconstructionTotal() {
   public long getBlockGroupReconstructionTotal() {
     return blockGroupReconstructionTotal.value();
   }
+
+  public long getReconstructedBytesTotal() {
+    return reconstructedBytesTotal.value();
+  }
+
+  public int getStripesInFlight() {
+    return stripesInFlight.value();
+  }
 }
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.container.keyvalue;
+
+import static org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.Result.CONTAINER_ALREADY_EXISTS;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import org.apache.commons.io.FileUtils;
+import org.apache.hadoop.hdds.conf.ConfigurationSource;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ContainerDataProto.State;
+import org.apache.hadoop.hdds.scm.container.common.helpers.StorageContainerException;
+import org.apache.hadoop.ozone.container.common.helpers.ContainerUtils;
+import org.apache.hadoop.ozone.container.common.impl.ContainerDataYaml;
+import org.apache.hadoop.ozone.container.common.interfaces.Container;
+import org.apache.hadoop.ozone.container.common.interfaces.ContainerUnpacker;
+
+/**
+ * Installs KeyValueContainer data unpacked to a temporary directory, shared
+ * by the importers of archived and streamed containers.
+ */
+final class ContainerDataInstaller {
+
+  private ContainerDataInstaller() {
+  }
+
+  /**
+   * Moves the unpacked container data from {@code containerUntarDir} to its
+   * final location, after verifying the checksum of the descriptor and
+   * persisting the container file in RECOVERING state.
+   */
+  static void install(ContainerUnpacker<KeyValueContainerData> unpacker,
+      Container<KeyValueContainerData> container, byte[] descriptorFileContent,
+      Path containerUntarDir, Path destContainerDir, ConfigurationSource conf)
+      throws IOException {
+    long containerId = container.getContainerData().getContainerID();
+    if (!Files.exists(destContainerDir)) {
+      Files.createDirectories(destContainerDir);
+    }
+    if (FileUtils.isEmptyDirectory(destContainerDir.toFile())) {
+
+      //before state change to RECOVERING, we need to verify the checksum for untarContainerData.
+      if (descriptorFileContent != null) {
+        KeyValueContainerData untarContainerData =
+            (KeyValueContainerData) ContainerDataYaml
+                .readContainer(descriptorFileContent);
+        ContainerUtils.verifyContainerFileChecksum(untarContainerData, conf);
+      }
+
+      // Before the atomic move, the destination dir is empty and doesn't have a metadata directory.
+      // Writing the .container file will fail as the metadata dir doesn't exist.
+      // So we instead save the container file to the containerUntarDir.
+      Path containerMetadataPath = Paths.get(container.getContainerData().getMetadataPath());
+      Path tempContainerMetadataPath = Paths.get(containerUntarDir.toString(),
+          containerMetadataPath.getName(containerMetadataPath.getNameCount() - 1).toString());
+      unpacker.persistCustomContainerState(container, descriptorFileContent, State.RECOVERING,
+          tempContainerMetadataPath);
+      Files.move(containerUntarDir, destContainerDir,
+              StandardCopyOption.ATOMIC_MOVE,
+              StandardCopyOption.REPLACE_EXISTING);
+    } else {
+      String errorMessage = "Container " + containerId +
+          " unpack failed because ContainerFile " +
+          destContainerDir.toAbsolutePath() + " already exists";
+      throw new StorageContainerException(errorMessage,
+          CONTAINER_ALREADY_EXISTS);
+    }
+  }
+}
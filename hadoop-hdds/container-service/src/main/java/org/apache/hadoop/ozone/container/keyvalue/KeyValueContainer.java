@@ -53,6 +53,8 @@
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.apache.commons.io.FileUtils;
 import org.apache.hadoop.fs.FileAlreadyExistsException;
 import org.apache.hadoop.fs.FileUtil;
@@ -71,6 +73,7 @@
 import org.apache.hadoop.ozone.container.common.impl.ContainerDataYaml;
 import org.apache.hadoop.ozone.container.common.interfaces.Container;
 import org.apache.hadoop.ozone.container.common.interfaces.ContainerPacker;
+import org.apache.hadoop.ozone.container.common.interfaces.ContainerUnpacker;
 import org.apache.hadoop.ozone.container.common.interfaces.DBHandle;
 import org.apache.hadoop.ozone.container.common.interfaces.VolumeChoosingPolicy;
 import org.apache.hadoop.ozone.container.common.statemachine.DatanodeConfiguration;
@@ -85,6 +88,7 @@
 import org.apache.hadoop.ozone.container.replication.ContainerImporter;
 import org.apache.hadoop.ozone.container.upgrade.VersionedDatanodeFeatures;
 import org.apache.hadoop.util.DiskChecker.DiskOutOfSpaceException;
+import org.apache.ratis.util.function.CheckedRunnable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -582,7 +586,7 @@ public void updateDeleteTransactionId(long deleteTransactionId) {
 
   @Override
   public void importContainerData(InputStream input,
-      ContainerPacker<KeyValueContainerData> packer)
+      ContainerUnpacker<KeyValueContainerData> packer)
       throws IOException {
     HddsVolume hddsVolume = containerData.getVolume();
     String idDir = VersionedDatanodeFeatures.ScmHA.chooseContainerPathID(
@@ -672,6 +676,23 @@ public void importContainerData(KeyValueContainerData originalContainerData)
   @Override
   public void exportContainerData(OutputStream destination,
       ContainerPacker<KeyValueContainerData> packer) throws IOException {
+    exportContainer(() -> packer.pack(this, destination));
+  }
+
+  /**
+   * Exports the container as a set of files to {@code stagingDir}, with the
+   * same layout as the container directory, plus the container descriptor
+   * as {@link TarContainerPacker#CONTAINER_FILE_NAME}.
+   * <p>
+   * Chunk files are hard linked if possible, as they are not modified after
+   * the container is closed. Metadata files are copied.
+   */
+  public void exportContainerFiles(Path stagingDir) throws IOException {
+    exportContainer(() -> stageContainerFiles(stagingDir));
+  }
+
+  private void exportContainer(CheckedRunnable<IOException> export)
+      throws IOException {
     writeLock();
     try {
       // Closed/ Quasi closed and unhealthy containers are considered for
@@ -694,7 +715,7 @@ public void exportContainerData(OutputStream destination,
         writeUnlock();
       }
 
-      packContainerToDestination(destination, packer);
+      packContainerToDestination(export);
     } finally {
       if (lock.isWriteLockedByCurrentThread()) {
         writeUnlock();
@@ -908,9 +929,8 @@ private File createTempFile(File file) throws IOException {
         file.getName(), file.getParentFile());
   }
 
-  private void packContainerToDestination(OutputStream destination,
-      ContainerPacker<KeyValueContainerData> packer)
-      throws IOException {
+  private void packContainerToDestination(
+      CheckedRunnable<IOException> export) throws IOException {
     if (containerData.hasSchema(OzoneConsts.SCHEMA_V3)) {
       // Synchronize the dump and pack operation,
       // so concurrent exports don't get dump files overwritten.
@@ -918,10 +938,46 @@ private void packContainerToDestination(OutputStream destination,
       // so it should not influence performance much.
       synchronized (dumpLock) {
         BlockUtils.dumpKVContainerDataToFiles(containerData, config);
-        packer.pack(this, destination);
+        export.run();
       }
     } else {
-      packer.pack(this, destination);
+      export.run();
+    }
+  }
+
+  private void stageContainerFiles(Path stagingDir) throws IOException {
+    Path containerDir = Paths.get(containerData.getContainerPath());
+    Files.createDirectories(stagingDir);
+    Files.copy(getContainerFile().toPath(),
+        stagingDir.resolve(TarContainerPacker.CONTAINER_FILE_NAME));
+    stageFiles(containerDir, TarContainerPacker.getDbPath(containerData),
+        stagingDir, false);
+    stageFiles(containerDir, Paths.get(containerData.getChunksPath()),
+        stagingDir, true);
+  }
+
+  private static void stageFiles(Path containerDir, Path dir, Path stagingDir,
+      boolean link) throws IOException {
+    if (!Files.isDirectory(dir)) {
+      return;
+    }
+    Files.createDirectories(stagingDir.resolve(containerDir.relativize(dir)));
+    List<Path> files;
+    try (Stream<Path> stream = Files.walk(dir)) {
+      files = stream.filter(Files::isRegularFile).collect(Collectors.toList());
+    }
+    for (Path file : files) {
+      Path target = stagingDir.resolve(containerDir.relativize(file));
+      Files.createDirectories(target.getParent());
+      if (link) {
+        try {
+          Files.createLink(target, file);
+          continue;
+        } catch (IOException | UnsupportedOperationException e) {
+          LOG.debug("Failed to link {}, copying it instead", file, e);
+        }
+      }
+      Files.copy(file, target);
     }
   }
 }
@@ -81,6 +81,7 @@
 import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
+import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.locks.Lock;
@@ -137,6 +138,7 @@
 import org.apache.hadoop.ozone.container.common.impl.ContainerSet;
 import org.apache.hadoop.ozone.container.common.interfaces.BlockIterator;
 import org.apache.hadoop.ozone.container.common.interfaces.Container;
+import org.apache.hadoop.ozone.container.common.interfaces.ContainerUnpacker;
 import org.apache.hadoop.ozone.container.common.interfaces.DBHandle;
 import org.apache.hadoop.ozone.container.common.interfaces.Handler;
 import org.apache.hadoop.ozone.container.common.interfaces.ScanResult;
@@ -154,6 +156,7 @@
 import org.apache.hadoop.ozone.container.keyvalue.helpers.KeyValueContainerUtil;
 import org.apache.hadoop.ozone.container.keyvalue.impl.BlockManagerImpl;
 import org.apache.hadoop.ozone.container.keyvalue.impl.ChunkManagerFactory;
+import org.apache.hadoop.ozone.container.keyvalue.impl.ChunkReadCache;
 import org.apache.hadoop.ozone.container.keyvalue.interfaces.BlockManager;
 import org.apache.hadoop.ozone.container.keyvalue.interfaces.ChunkManager;
 import org.apache.hadoop.ozone.container.upgrade.VersionedDatanodeFeatures;
@@ -174,6 +177,8 @@ public class KeyValueHandler extends Handler {
 
   private final BlockManager blockManager;
   private final ChunkManager chunkManager;
+  /** Cache of the data of hot chunks, null if disabled. */
+  private final ChunkReadCache chunkReadCache;
   private final VolumeChoosingPolicy volumeChoosingPolicy;
   private final long maxContainerSize;
   private final long maxDeleteLockWaitMs;
@@ -224,6 +229,8 @@ public KeyValueHandler(ConfigurationSource config,
 
     DatanodeConfiguration dnConf = conf.getObject(DatanodeConfiguration.class);
     maxDeleteLockWaitMs = dnConf.getDeleteContainerTimeoutMs();
+    chunkReadCache = dnConf.getChunkReadCacheSize() > 0
+        ? new ChunkReadCache(dnConf.getChunkReadCacheSize(), metrics) : null;
     // this striped handler lock is used for synchronizing createContainer
     // Requests.
     final int threadCountPerDisk = conf.getInt(
@@ -489,6 +496,7 @@ ContainerCommandResponseProto handleCreateContainer(
     }
 
     if (created) {
+      checksumManager.startTracking(containerID);
       ContainerLogger.logOpen(newContainerData);
       try {
         sendICR(newContainer);
@@ -662,6 +670,7 @@ ContainerCommandResponseProto handlePutBlock(
           dispatcherContext == null ? 0 : dispatcherContext.getLogIndex();
       blockData.setBlockCommitSequenceId(bcsId);
       blockManager.putBlock(kvContainer, blockData, endOfBlock);
+      checksumManager.addBlock(kvContainer.getContainerData().getContainerID(), blockData);
 
       blockDataProto = blockData.getProtoBufMessage();
 
@@ -932,8 +941,28 @@ ContainerCommandResponseProto handleReadChunk(
         chunkInfo.setReadDataIntoSingleBuffer(true);
       }
 
-      data = chunkManager.readChunk(kvContainer, blockID, chunkInfo,
-          dispatcherContext);
+      // Reads of the temporary chunk files and reads of older clients,
+      // which expect the data in a single buffer, bypass the cache.
+      final boolean useCache = chunkReadCache != null && !isReadChunkV0
+          && !DispatcherContext.op(dispatcherContext).readFromTmpFile();
+      final long containerID = kvContainer.getContainerData().getContainerID();
+      // taken before the read, so that data read before an invalidation of
+      // the block is not added to the cache after it
+      final long generation = useCache
+          ? chunkReadCache.getGeneration(containerID, blockID.getLocalID()) : 0;
+      final ChunkBuffer cached = useCache ? chunkReadCache.get(containerID,
+          blockID.getLocalID(), chunkInfo.getOffset(), chunkInfo.getLen())
+          : null;
+      if (cached != null) {
+        data = cached;
+      } else {
+        data = chunkManager.readChunk(kvContainer, blockID, chunkInfo,
+            dispatcherContext);
+        if (useCache) {
+          chunkReadCache.put(containerID, blockID.getLocalID(),
+              chunkInfo.getOffset(), chunkInfo.getLen(), generation, data);
+        }
+      }
       LOG.debug("read chunk from block {} chunk {}", blockID, chunkInfo);
       // Validate data only if the read chunk is issued by Ratis for its
       // internal logic.
@@ -1026,6 +1055,7 @@ ContainerCommandResponseProto handleWriteChunk(
       }
       chunkManager
           .writeChunk(kvContainer, blockID, chunkInfo, data, dispatcherContext);
+      invalidateChunkReadCache(kvContainer, blockID.getLocalID());
 
       final boolean isCommit = dispatcherContext.getStage().isCommit();
       if (isCommit && writeChunk.hasBlock()) {
@@ -1046,6 +1076,7 @@ ContainerCommandResponseProto handleWriteChunk(
           chunkManager.finishWriteChunks(kvContainer, blockData);
         }
         blockManager.putBlock(kvContainer, blockData, eob);
+        checksumManager.addBlock(kvContainer.getContainerData().getContainerID(), blockData);
         blockDataProto = blockData.getProtoBufMessage();
         final long numBytes = blockDataProto.getSerializedSize();
         metrics.incContainerBytesStats(Type.PutBlock, numBytes);
@@ -1086,6 +1117,7 @@ public void writeChunkForClosedContainer(ChunkInfo chunkInfo, BlockID blockID,
     DispatcherContext dispatcherContext = DispatcherContext.getHandleWriteChunk();
     chunkManager.writeChunk(kvContainer, blockID, chunkInfo, data,
         dispatcherContext);
+    invalidateChunkReadCache(kvContainer, blockID.getLocalID());
 
     // Increment write stats for WriteChunk after write.
     metrics.incClosedContainerBytesStats(Type.WriteChunk, chunkInfo.getLen());
@@ -1169,6 +1201,7 @@ ContainerCommandResponseProto handlePutSmallFile(
       validateChunkChecksumData(data, chunkInfo);
       chunkManager
           .writeChunk(kvContainer, blockID, chunkInfo, data, dispatcherContext);
+      invalidateChunkReadCache(kvContainer, blockID.getLocalID());
       chunkManager.finishWriteChunks(kvContainer, blockData);
 
       List<ContainerProtos.ChunkInfo> chunks = new LinkedList<>();
@@ -1177,6 +1210,7 @@ ContainerCommandResponseProto handlePutSmallFile(
       blockData.setBlockCommitSequenceId(dispatcherContext.getLogIndex());
 
       blockManager.putBlock(kvContainer, blockData);
+      checksumManager.addBlock(kvContainer.getContainerData().getContainerID(), blockData);
 
       blockDataProto = blockData.getProtoBufMessage();
       metrics.incContainerBytesStats(Type.PutSmallFile, chunkInfo.getLen());
@@ -1318,7 +1352,7 @@ private boolean checkContainerClose(KeyValueContainer kvContainer) {
   @Override
   public Container importContainer(ContainerData originalContainerData,
       final InputStream rawContainerStream,
-      final TarContainerPacker packer)
+      final ContainerUnpacker<KeyValueContainerData> packer)
       throws IOException {
     Preconditions.checkState(originalContainerData instanceof
         KeyValueContainerData, "Should be KeyValueContainerData instance");
@@ -1367,6 +1401,7 @@ public void markContainerForClose(Container container)
     } finally {
       container.writeUnlock();
     }
+    invalidateChunkReadCache(container);
     ContainerLogger.logClosing(container.getContainerData());
     sendICR(container);
   }
@@ -1379,7 +1414,9 @@ public void updateContainerChecksum(Container container, ContainerMerkleTreeWrit
 
   /**
    * Write the merkle tree for this container using the existing checksum metadata only. The data is not read or
-   * validated by this method, so it is expected to run quickly.
+   * validated by this method, so it is expected to run quickly. If the tree was maintained in memory since the
+   * container was created and covers all of its blocks, that tree is written, otherwise it is built from the block
+   * metadata in the container DB.
    * <p>
    * If a data checksum for the container already exists, this method does nothing. The existing value would have either
    * been made from the metadata or data itself so there is no need to recreate it from the metadata. This method
@@ -1389,13 +1426,22 @@ public void updateContainerChecksum(Container container, ContainerMerkleTreeWrit
    * @param container The container which will have a tree generated.
    */
   private void updateContainerChecksumFromMetadataIfNeeded(Container container) {
+    Optional<ContainerMerkleTreeWriter> trackedTree =
+        checksumManager.stopTracking(container.getContainerData().getContainerID());
     if (!container.getContainerData().needsDataChecksum()) {
       return;
     }
 
     try {
-      KeyValueContainer keyValueContainer = (KeyValueContainer) container;
-      updateAndGetContainerChecksumFromMetadata(keyValueContainer);
+      // Blocks written without going through this handler are not in the tracked tree, so only use it if it covers
+      // every block the container has.
+      if (trackedTree.isPresent() &&
+          trackedTree.get().getBlockCount() == container.getContainerData().getBlockCount()) {
+        updateAndGetContainerChecksum(container, trackedTree.get(), false);
+      } else {
+        KeyValueContainer keyValueContainer = (KeyValueContainer) container;
+        updateAndGetContainerChecksumFromMetadata(keyValueContainer);
+      }
     } catch (IOException ex) {
       LOG.error("Cannot create container checksum for container {} , Exception: ",
           container.getContainerData().getContainerID(), ex);
@@ -1484,6 +1530,7 @@ public void markContainerUnhealthy(Container container, ScanResult reason)
     } finally {
       container.writeUnlock();
     }
+    invalidateChunkReadCache(container);
     updateContainerChecksumFromMetadataIfNeeded(container);
     // Even if the container file is corrupted/missing and the unhealthy
     // update fails, the unhealthy state is kept in memory and sent to
@@ -1515,6 +1562,7 @@ public void quasiCloseContainer(Container container, String reason)
     } finally {
       container.writeUnlock();
     }
+    invalidateChunkReadCache(container);
     updateContainerChecksumFromMetadataIfNeeded(container);
     ContainerLogger.logQuasiClosed(container.getContainerData(), reason);
     sendICR(container);
@@ -1549,6 +1597,7 @@ public void closeContainer(Container container)
     } finally {
       container.writeUnlock();
     }
+    invalidateChunkReadCache(container);
     updateContainerChecksumFromMetadataIfNeeded(container);
     ContainerLogger.logClosed(container.getContainerData());
     sendICR(container);
@@ -1915,6 +1964,7 @@ private boolean previousChunkPresent(BlockID blockID, long chunkOffset,
   @Override
   public void deleteBlock(Container container, BlockData blockData)
       throws IOException {
+    invalidateChunkReadCache(container, blockData.getLocalID());
     chunkManager.deleteChunks(container, blockData);
     if (LOG.isDebugEnabled()) {
       for (ContainerProtos.ChunkInfo chunkInfo : blockData.getChunks()) {
@@ -1933,6 +1983,7 @@ public void deleteUnreferenced(Container container, long localID)
     ContainerLayoutVersion layoutVersion = container.getContainerData().
         getLayoutVersion();
     long containerID = container.getContainerData().getContainerID();
+    invalidateChunkReadCache(container, localID);
     // Only supports the default chunk/block name format now
     switch (layoutVersion) {
     case FILE_PER_BLOCK:
@@ -2104,6 +2155,8 @@ private void deleteInternal(Container container, boolean force)
           container.markContainerForDelete();
           long containerId = container.getContainerData().getContainerID();
           containerSet.removeContainer(containerId);
+          checksumManager.discardTracking(containerId);
+          invalidateChunkReadCache(container);
           ContainerLogger.logDeleted(container.getContainerData(), force);
           KeyValueContainerUtil.removeContainer(keyValueContainerData, conf);
         } catch (IOException ioe) {
@@ -2139,6 +2192,20 @@ private void deleteInternal(Container container, boolean force)
     volume.decrementUsedSpace(bytesUsed);
   }
 
+  private void invalidateChunkReadCache(Container container) {
+    if (chunkReadCache != null) {
+      chunkReadCache.invalidateContainer(
+          container.getContainerData().getContainerID());
+    }
+  }
+
+  private void invalidateChunkReadCache(Container container, long localID) {
+    if (chunkReadCache != null) {
+      chunkReadCache.invalidateBlock(
+          container.getContainerData().getContainerID(), localID);
+    }
+  }
+
   private void triggerVolumeScanAndThrowException(Container container,
       String msg, ContainerProtos.Result result)
       throws StorageContainerException {
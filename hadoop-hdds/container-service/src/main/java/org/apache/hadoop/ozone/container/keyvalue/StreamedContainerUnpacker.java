@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.container.keyvalue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.apache.commons.io.IOUtils;
+import org.apache.hadoop.hdds.conf.ConfigurationSource;
+import org.apache.hadoop.ozone.container.common.interfaces.Container;
+import org.apache.hadoop.ozone.container.common.interfaces.ContainerUnpacker;
+import org.apache.hadoop.ozone.container.keyvalue.helpers.KeyValueContainerLocationUtil;
+
+/**
+ * Imports KeyValueContainer data which has already been streamed file by file
+ * to the temporary directory of the target volume, with the layout created by
+ * {@link KeyValueContainer#exportContainerFiles(Path)}.
+ * <p>
+ * The input stream is the container descriptor; the data files are moved to
+ * their final location without being read.
+ */
+public class StreamedContainerUnpacker
+    implements ContainerUnpacker<KeyValueContainerData> {
+
+  private final ConfigurationSource conf;
+
+  public StreamedContainerUnpacker(ConfigurationSource conf) {
+    this.conf = conf;
+  }
+
+  @Override
+  public byte[] unpackContainerData(Container<KeyValueContainerData> container,
+      InputStream input, Path tmpDir, Path destContainerDir)
+      throws IOException {
+    long containerId = container.getContainerData().getContainerID();
+    Path containerUntarDir = tmpDir.resolve(String.valueOf(containerId));
+    if (!Files.isDirectory(containerUntarDir)) {
+      throw new IOException("Streamed data of container " + containerId +
+          " is missing from " + containerUntarDir);
+    }
+    // Empty directories are not streamed.
+    Files.createDirectories(KeyValueContainerLocationUtil
+        .getContainerMetaDataPath(containerUntarDir.toString()).toPath());
+    Files.createDirectories(KeyValueContainerLocationUtil
+        .getChunksLocationPath(containerUntarDir.toString()).toPath());
+
+    byte[] descriptorFileContent = unpackContainerDescriptor(input);
+    ContainerDataInstaller.install(this, container, descriptorFileContent,
+        containerUntarDir, destContainerDir, conf);
+    return descriptorFileContent;
+  }
+
+  @Override
+  public byte[] unpackContainerDescriptor(InputStream input)
+      throws IOException {
+    return IOUtils.toByteArray(input);
+  }
+}
@@ -17,7 +17,6 @@
 
 package org.apache.hadoop.ozone.container.keyvalue;
 
-import static org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.Result.CONTAINER_ALREADY_EXISTS;
 import static org.apache.hadoop.hdds.utils.Archiver.extractEntry;
 import static org.apache.hadoop.hdds.utils.Archiver.includeFile;
 import static org.apache.hadoop.hdds.utils.Archiver.includePath;
@@ -30,10 +29,8 @@
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.apache.commons.compress.archivers.ArchiveInputStream;
 import org.apache.commons.compress.archivers.ArchiveOutputStream;
@@ -41,11 +38,7 @@
 import org.apache.commons.io.FileUtils;
 import org.apache.hadoop.hdds.conf.ConfigurationSource;
 import org.apache.hadoop.hdds.conf.OzoneConfiguration;
-import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ContainerDataProto.State;
-import org.apache.hadoop.hdds.scm.container.common.helpers.StorageContainerException;
 import org.apache.hadoop.ozone.OzoneConsts;
-import org.apache.hadoop.ozone.container.common.helpers.ContainerUtils;
-import org.apache.hadoop.ozone.container.common.impl.ContainerDataYaml;
 import org.apache.hadoop.ozone.container.common.interfaces.Container;
 import org.apache.hadoop.ozone.container.common.interfaces.ContainerPacker;
 import org.apache.hadoop.ozone.container.keyvalue.helpers.KeyValueContainerLocationUtil;
@@ -62,7 +55,7 @@
 
   static final String DB_DIR_NAME = "db";
 
-  static final String CONTAINER_FILE_NAME = "container.yaml";
+  public static final String CONTAINER_FILE_NAME = "container.yaml";
 
   private final CopyContainerCompression compression;
 
@@ -94,37 +87,8 @@ public byte[] unpackContainerData(Container<KeyValueContainerData> container,
     Path dbRoot = getDbPath(containerUntarDir, containerData);
     Path chunksRoot = getChunkPath(containerUntarDir, containerData);
     byte[] descriptorFileContent = innerUnpack(input, dbRoot, chunksRoot);
-
-    if (!Files.exists(destContainerDir)) {
-      Files.createDirectories(destContainerDir);
-    }
-    if (FileUtils.isEmptyDirectory(destContainerDir.toFile())) {
-
-      //before state change to RECOVERING, we need to verify the checksum for untarContainerData.
-      if (descriptorFileContent != null) {
-        KeyValueContainerData untarContainerData =
-            (KeyValueContainerData) ContainerDataYaml
-                .readContainer(descriptorFileContent);
-        ContainerUtils.verifyContainerFileChecksum(untarContainerData, conf);
-      }
-
-      // Before the atomic move, the destination dir is empty and doesn't have a metadata directory.
-      // Writing the .container file will fail as the metadata dir doesn't exist.
-      // So we instead save the container file to the containerUntarDir.
-      Path containerMetadataPath = Paths.get(container.getContainerData().getMetadataPath());
-      Path tempContainerMetadataPath = Paths.get(containerUntarDir.toString(),
-          containerMetadataPath.getName(containerMetadataPath.getNameCount() - 1).toString());
-      persistCustomContainerState(container, descriptorFileContent, State.RECOVERING, tempContainerMetadataPath);
-      Files.move(containerUntarDir, destContainerDir,
-              StandardCopyOption.ATOMIC_MOVE,
-              StandardCopyOption.REPLACE_EXISTING);
-    } else {
-      String errorMessage = "Container " + containerId +
-          " unpack failed because ContainerFile " +
-          destContainerDir.toAbsolutePath() + " already exists";
-      throw new StorageContainerException(errorMessage,
-          CONTAINER_ALREADY_EXISTS);
-    }
+    ContainerDataInstaller.install(this, container, descriptorFileContent,
+        containerUntarDir, destContainerDir, conf);
     return descriptorFileContent;
   }
 
@@ -154,6 +118,32 @@ public void pack(Container<KeyValueContainerData> container,
     }
   }
 
+  /**
+   * Same as {@link #pack}, but archives the files of the container staged by
+   * {@link KeyValueContainer#exportContainerFiles(Path)}, so the container
+   * does not need to be locked while the archive is written.
+   *
+   * @param containerData Container the files were staged from.
+   * @param stagingDir Directory the files were staged to.
+   * @param output Destination tar file/stream.
+   */
+  public void packStagedFiles(KeyValueContainerData containerData,
+      Path stagingDir, OutputStream output) throws IOException {
+    Path containerDir = Paths.get(containerData.getContainerPath());
+    try (ArchiveOutputStream<TarArchiveEntry> archiveOutput = tar(compress(output))) {
+      includeFile(stagingDir.resolve(CONTAINER_FILE_NAME).toFile(),
+          CONTAINER_FILE_NAME, archiveOutput);
+
+      includePath(stagingDir.resolve(
+          containerDir.relativize(getDbPath(containerData))), DB_DIR_NAME,
+          archiveOutput);
+
+      includePath(stagingDir.resolve(containerDir.relativize(
+          Paths.get(containerData.getChunksPath()))), CHUNKS_DIR_NAME,
+          archiveOutput);
+    }
+  }
+
   @Override
   public byte[] unpackContainerDescriptor(InputStream input)
       throws IOException {
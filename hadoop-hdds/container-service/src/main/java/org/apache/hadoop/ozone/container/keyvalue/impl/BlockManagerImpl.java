@@ -63,6 +63,7 @@ public class BlockManagerImpl implements BlockManager {
   private final int readMappedBufferThreshold;
   private final int readMappedBufferMaxCount;
   private final boolean readNettyChunkedNioFile;
+  private final boolean readMappedClosedContainer;
 
   /**
    * Constructs a Block Manager.
@@ -84,6 +85,9 @@ public BlockManagerImpl(ConfigurationSource conf) {
     this.readNettyChunkedNioFile = config.getBoolean(
         ScmConfigKeys.OZONE_CHUNK_READ_NETTY_CHUNKED_NIO_FILE_KEY,
         ScmConfigKeys.OZONE_CHUNK_READ_NETTY_CHUNKED_NIO_FILE_DEFAULT);
+    this.readMappedClosedContainer = config.getBoolean(
+        ScmConfigKeys.OZONE_CHUNK_READ_MAPPED_CLOSED_CONTAINER_KEY,
+        ScmConfigKeys.OZONE_CHUNK_READ_MAPPED_CLOSED_CONTAINER_DEFAULT);
   }
 
   @Override
@@ -389,6 +393,11 @@ public boolean isReadNettyChunkedNioFile() {
     return readNettyChunkedNioFile;
   }
 
+  @Override
+  public boolean isReadMappedClosedContainer() {
+    return readMappedClosedContainer;
+  }
+
   /**
    * Deletes an existing block.
    * As Deletion is handled by BlockDeletingService,
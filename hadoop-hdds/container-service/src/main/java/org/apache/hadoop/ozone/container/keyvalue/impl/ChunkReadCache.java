@@ -0,0 +1,519 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.container.keyvalue.impl;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.apache.hadoop.ozone.common.ChunkBuffer;
+import org.apache.hadoop.ozone.common.ChunkBufferToByteString;
+import org.apache.hadoop.ozone.container.common.helpers.ContainerMetrics;
+import org.apache.ratis.thirdparty.com.google.protobuf.ByteString;
+import org.apache.ratis.thirdparty.com.google.protobuf.UnsafeByteOperations;
+
+/**
+ * A size bounded cache for the data of frequently read chunks.
+ * <p>
+ * The eviction policy is W-TinyLFU: new entries are added to a small LRU
+ * window. Entries evicted from the window are admitted to the main LRU
+ * region only if they have been requested more often than the entry the main
+ * region would evict for them. The access frequencies are estimated by a
+ * {@link FrequencySketch}, which also keeps the history of entries that are
+ * no longer cached. This keeps one-off reads, e.g. of a large scan or of a
+ * container being replicated, from flushing the hot chunks out of the cache.
+ * <p>
+ * The cache is split into segments by block, each with its own lock, so
+ * that concurrent reads of different blocks do not contend.
+ * <p>
+ * A read which misses the cache gets the generation of the block before
+ * reading the chunk from disk, and adds the data only if the block has not
+ * been invalidated since, see {@link #getGeneration(long, long)}.
+ * <p>
+ * The data is copied to direct buffers which are freed by the garbage
+ * collector, since the responses may still refer to them after an entry is
+ * evicted.
+ */
+public class ChunkReadCache {
+
+  /** Percentage of the capacity used by the window region. */
+  private static final int WINDOW_PERCENT = 1;
+  private static final int MAX_SEGMENTS = 16;
+  /** Minimum capacity of a segment, 64 chunks of the typical size. */
+  private static final long MIN_SEGMENT_SIZE =
+      64 * FrequencySketch.TYPICAL_CHUNK_SIZE;
+  /**
+   * Number of the generation counters of blocks and containers. Blocks
+   * sharing a counter only fail to be cached after one of them is
+   * invalidated.
+   */
+  private static final int BLOCK_GENERATIONS = 1 << 12;
+  private static final int CONTAINER_GENERATIONS = 1 << 8;
+
+  private final Segment[] segments;
+  private final long maxChunkSize;
+  private final ContainerMetrics metrics;
+  private final AtomicLongArray blockGenerations =
+      new AtomicLongArray(BLOCK_GENERATIONS);
+  private final AtomicLongArray containerGenerations =
+      new AtomicLongArray(CONTAINER_GENERATIONS);
+
+  public ChunkReadCache(long maxSize, ContainerMetrics metrics) {
+    this(maxSize, FrequencySketch.expectedEntries(maxSize),
+        segmentCount(maxSize), metrics);
+  }
+
+  @VisibleForTesting
+  ChunkReadCache(long maxSize, int expectedEntries, int segmentCount,
+      ContainerMetrics metrics) {
+    this.metrics = metrics;
+    this.segments = new Segment[segmentCount];
+    final long segmentSize = maxSize / segmentCount;
+    final int segmentEntries = Math.max(1, expectedEntries / segmentCount);
+    for (int i = 0; i < segmentCount; i++) {
+      segments[i] = new Segment(segmentSize, segmentEntries);
+    }
+    this.maxChunkSize = segments[0].maxSize - segments[0].maxWindowSize;
+  }
+
+  private static int segmentCount(long maxSize) {
+    return Integer.highestOneBit((int) Math.max(1,
+        Math.min(MAX_SEGMENTS, maxSize / MIN_SEGMENT_SIZE)));
+  }
+
+  /**
+   * @return the cached data of the given chunk, or null if it is not cached.
+   */
+  public ChunkBuffer get(long containerId, long localId, long offset,
+      long length) {
+    final Key key = new Key(containerId, localId, offset, length);
+    final Entry entry = segmentFor(containerId, localId).get(key);
+    if (entry == null) {
+      metrics.incChunkReadCacheMisses();
+      return null;
+    }
+    metrics.incChunkReadCacheHits();
+    return entry.newChunkBuffer();
+  }
+
+  /**
+   * @return the generation of the given block, which changes when its
+   * chunks are invalidated. Get it before reading a chunk to be added to the
+   * cache with {@link #put}.
+   */
+  public long getGeneration(long containerId, long localId) {
+    // both counters only grow, so the sum changes when any of them does
+    return blockGenerations.get(blockIndex(containerId, localId))
+        + containerGenerations.get(containerIndex(containerId));
+  }
+
+  /**
+   * Add a copy of the given data of a chunk to the cache, unless the block
+   * has been invalidated since the given generation. The data itself is not
+   * modified or retained.
+   */
+  public void put(long containerId, long localId, long offset, long length,
+      long generation, ChunkBufferToByteString data) {
+    if (length <= 0 || length > maxChunkSize) {
+      return;
+    }
+    final Key key = new Key(containerId, localId, offset, length);
+    final Segment segment = segmentFor(containerId, localId);
+    if (!segment.admits(key, generation)) {
+      return;
+    }
+    final Entry entry = Entry.copyOf(data);
+    if (entry.getSize() == length) {
+      segment.put(key, generation, entry);
+    }
+  }
+
+  /** Remove all the cached chunks of the given block. */
+  public void invalidateBlock(long containerId, long localId) {
+    blockGenerations.incrementAndGet(blockIndex(containerId, localId));
+    segmentFor(containerId, localId).invalidateBlock(containerId, localId);
+  }
+
+  /** Remove all the cached chunks of the given container. */
+  public void invalidateContainer(long containerId) {
+    containerGenerations.incrementAndGet(containerIndex(containerId));
+    for (Segment segment : segments) {
+      segment.invalidateContainer(containerId);
+    }
+  }
+
+  @VisibleForTesting
+  long getSize() {
+    long size = 0;
+    for (Segment segment : segments) {
+      size += segment.getSize();
+    }
+    return size;
+  }
+
+  @VisibleForTesting
+  int getCount() {
+    int count = 0;
+    for (Segment segment : segments) {
+      count += segment.getCount();
+    }
+    return count;
+  }
+
+  private Segment segmentFor(long containerId, long localId) {
+    return segments[(int) Long.remainderUnsigned(
+        blockHash(containerId, localId), segments.length)];
+  }
+
+  private static int blockIndex(long containerId, long localId) {
+    return (int) (blockHash(containerId, localId) >>> 32)
+        & (BLOCK_GENERATIONS - 1);
+  }
+
+  private static int containerIndex(long containerId) {
+    return (int) FrequencySketch.spread(containerId)
+        & (CONTAINER_GENERATIONS - 1);
+  }
+
+  private static long blockHash(long containerId, long localId) {
+    return FrequencySketch.spread(
+        containerId * 0x9e3779b97f4a7c15L + localId);
+  }
+
+  /**
+   * A part of the cache with its own lock, capacity and frequency sketch.
+   */
+  private final class Segment {
+    private final long maxSize;
+    private final long maxWindowSize;
+    private final FrequencySketch sketch;
+    private final LinkedHashMap<Key, Entry> window =
+        new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<Key, Entry> main =
+        new LinkedHashMap<>(16, 0.75f, true);
+    /** Keys of the cached chunks by container, for invalidation. */
+    private final Map<Long, Set<Key>> keysByContainer = new HashMap<>();
+    private long windowSize;
+    private long mainSize;
+
+    Segment(long maxSize, int expectedEntries) {
+      this.maxSize = maxSize;
+      this.maxWindowSize = Math.max(1, maxSize * WINDOW_PERCENT / 100);
+      this.sketch = new FrequencySketch(expectedEntries);
+    }
+
+    synchronized Entry get(Key key) {
+      sketch.increment(key);
+      final Entry found = window.get(key);
+      return found != null ? found : main.get(key);
+    }
+
+    /**
+     * @return whether the chunk would be added to the cache, which is
+     * checked before copying its data.
+     */
+    synchronized boolean admits(Key key, long generation) {
+      return generation == getGeneration(key.containerId, key.localId)
+          && !window.containsKey(key) && !main.containsKey(key);
+    }
+
+    synchronized void put(Key key, long generation, Entry entry) {
+      // the block may have been invalidated or the chunk added while the
+      // data was copied
+      if (!admits(key, generation)) {
+        return;
+      }
+      window.put(key, entry);
+      windowSize += entry.getSize();
+      keysByContainer.computeIfAbsent(key.containerId, k -> new HashSet<>())
+          .add(key);
+      evictFromWindow();
+    }
+
+    synchronized void invalidateBlock(long containerId, long localId) {
+      final Set<Key> keys = keysByContainer.get(containerId);
+      if (keys == null) {
+        return;
+      }
+      for (Iterator<Key> i = keys.iterator(); i.hasNext();) {
+        final Key key = i.next();
+        if (key.localId == localId) {
+          i.remove();
+          removeEntry(key);
+        }
+      }
+      if (keys.isEmpty()) {
+        keysByContainer.remove(containerId);
+      }
+    }
+
+    synchronized void invalidateContainer(long containerId) {
+      final Set<Key> keys = keysByContainer.remove(containerId);
+      if (keys != null) {
+        keys.forEach(this::removeEntry);
+      }
+    }
+
+    synchronized long getSize() {
+      return windowSize + mainSize;
+    }
+
+    synchronized int getCount() {
+      return window.size() + main.size();
+    }
+
+    private void removeEntry(Key key) {
+      Entry entry = window.remove(key);
+      if (entry != null) {
+        windowSize -= entry.getSize();
+        return;
+      }
+      entry = main.remove(key);
+      if (entry != null) {
+        mainSize -= entry.getSize();
+      }
+    }
+
+    /**
+     * Move the entries over the capacity of the window to the main region,
+     * if they win against the entries they would replace there.
+     */
+    private void evictFromWindow() {
+      final long maxMainSize = maxSize - maxWindowSize;
+      while (windowSize > maxWindowSize) {
+        final Iterator<Map.Entry<Key, Entry>> candidates =
+            window.entrySet().iterator();
+        final Map.Entry<Key, Entry> candidate = candidates.next();
+        candidates.remove();
+        windowSize -= candidate.getValue().getSize();
+
+        if (admit(candidate.getKey(), candidate.getValue().getSize(),
+            maxMainSize)) {
+          main.put(candidate.getKey(), candidate.getValue());
+          mainSize += candidate.getValue().getSize();
+        } else {
+          evicted(candidate.getKey());
+        }
+      }
+    }
+
+    /**
+     * Evict entries from the main region to make room for the candidate, as
+     * long as the candidate is more frequent than the victims.
+     * @return whether the candidate fits in the main region.
+     */
+    private boolean admit(Key candidate, long size, long maxMainSize) {
+      final int candidateFrequency = sketch.frequency(candidate);
+      final Iterator<Map.Entry<Key, Entry>> victims =
+          main.entrySet().iterator();
+      while (mainSize + size > maxMainSize) {
+        final Map.Entry<Key, Entry> victim = victims.next();
+        if (sketch.frequency(victim.getKey()) >= candidateFrequency) {
+          return false;
+        }
+        victims.remove();
+        mainSize -= victim.getValue().getSize();
+        evicted(victim.getKey());
+      }
+      return true;
+    }
+
+    private void evicted(Key key) {
+      final Set<Key> keys = keysByContainer.get(key.containerId);
+      if (keys != null) {
+        keys.remove(key);
+        if (keys.isEmpty()) {
+          keysByContainer.remove(key.containerId);
+        }
+      }
+      metrics.incChunkReadCacheEvictions();
+    }
+  }
+
+  /** The identity of a chunk read. */
+  static final class Key {
+    private final long containerId;
+    private final long localId;
+    private final long offset;
+    private final long length;
+
+    Key(long containerId, long localId, long offset, long length) {
+      this.containerId = containerId;
+      this.localId = localId;
+      this.offset = offset;
+      this.length = length;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      final Key that = (Key) o;
+      return containerId == that.containerId && localId == that.localId
+          && offset == that.offset && length == that.length;
+    }
+
+    /**
+     * Unlike a polynomial hash with a small multiplier, this does not
+     * collide for the keys of nearby containers and blocks.
+     */
+    long longHash() {
+      long hash = containerId;
+      hash = hash * 0x9e3779b97f4a7c15L + localId;
+      hash = hash * 0x9e3779b97f4a7c15L + offset;
+      return hash * 0x9e3779b97f4a7c15L + length;
+    }
+
+    @Override
+    public int hashCode() {
+      return Long.hashCode(longHash());
+    }
+  }
+
+  /**
+   * The cached data of a chunk. The split of the data into buffers is kept,
+   * since clients verify the checksums of the buffers they receive.
+   */
+  private static final class Entry {
+    private final List<ByteBuffer> buffers;
+    private final long size;
+
+    private Entry(List<ByteBuffer> buffers, long size) {
+      this.buffers = buffers;
+      this.size = size;
+    }
+
+    static Entry copyOf(ChunkBufferToByteString data) {
+      final List<ByteString> parts =
+          data.toByteStringList(UnsafeByteOperations::unsafeWrap);
+      final long size = parts.stream().mapToLong(ByteString::size).sum();
+      final ByteBuffer copy = ByteBuffer.allocateDirect(Math.toIntExact(size));
+      final List<ByteBuffer> buffers = new ArrayList<>(parts.size());
+      for (ByteString part : parts) {
+        final int start = copy.position();
+        part.copyTo(copy);
+        final ByteBuffer slice = copy.duplicate();
+        slice.position(start);
+        slice.limit(copy.position());
+        buffers.add(slice.slice().asReadOnlyBuffer());
+      }
+      return new Entry(Collections.unmodifiableList(buffers), size);
+    }
+
+    long getSize() {
+      return size;
+    }
+
+    ChunkBuffer newChunkBuffer() {
+      final List<ByteBuffer> duplicates = new ArrayList<>(buffers.size());
+      for (ByteBuffer b : buffers) {
+        duplicates.add(b.duplicate());
+      }
+      return ChunkBuffer.wrap(duplicates);
+    }
+  }
+
+  /**
+   * A count-min sketch of the access frequencies of the chunks, with small
+   * counters which are halved periodically, so that the frequencies of past
+   * accesses decay.
+   */
+  static final class FrequencySketch {
+    private static final int DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+    /** Assumed size of a chunk for estimating the number of entries. */
+    private static final long TYPICAL_CHUNK_SIZE = 256 * 1024;
+
+    private final byte[][] table;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int expectedEntries) {
+      final int width = Integer.highestOneBit(
+          Math.max(64, expectedEntries - 1) << 1);
+      this.table = new byte[DEPTH][width];
+      this.mask = width - 1;
+      this.sampleSize = 10 * width;
+    }
+
+    static int expectedEntries(long maxSize) {
+      return (int) Math.min(1 << 20, maxSize / TYPICAL_CHUNK_SIZE);
+    }
+
+    int frequency(Key key) {
+      final long hash = spread(key.longHash());
+      int min = MAX_COUNT;
+      for (int i = 0; i < DEPTH; i++) {
+        min = Math.min(min, table[i][index(hash, i)]);
+      }
+      return min;
+    }
+
+    void increment(Key key) {
+      final long hash = spread(key.longHash());
+      boolean added = false;
+      for (int i = 0; i < DEPTH; i++) {
+        final int index = index(hash, i);
+        if (table[i][index] < MAX_COUNT) {
+          table[i][index]++;
+          added = true;
+        }
+      }
+      if (added && ++additions >= sampleSize) {
+        reset();
+      }
+    }
+
+    private void reset() {
+      for (byte[] row : table) {
+        for (int j = 0; j < row.length; j++) {
+          row[j] >>= 1;
+        }
+      }
+      additions /= 2;
+    }
+
+    /** The finalizer of MurmurHash3. */
+    static long spread(long hash) {
+      long h = hash ^ (hash >>> 33);
+      h *= 0xff51afd7ed558ccdL;
+      h ^= h >>> 33;
+      h *= 0xc4ceb9fe1a85ec53L;
+      h ^= h >>> 33;
+      return h;
+    }
+
+    /** Derive the index of each row from the two halves of the hash. */
+    private int index(long hash, int i) {
+      return ((int) hash + i * (int) (hash >>> 32)) & mask;
+    }
+  }
+}
@@ -76,6 +76,8 @@ public class FilePerBlockStrategy implements ChunkManager {
   private final MappedBufferManager mappedBufferManager;
 
   private final boolean readNettyChunkedNioFile;
+  /** Read the chunks of closed containers using mapped buffers. */
+  private final boolean readMappedClosedContainer;
 
   public FilePerBlockStrategy(boolean sync, BlockManager manager) {
     doSyncWrite = sync;
@@ -93,6 +95,12 @@ public FilePerBlockStrategy(boolean sync, BlockManager manager) {
     }
 
     this.readNettyChunkedNioFile = manager != null && manager.isReadNettyChunkedNioFile();
+    final boolean mappedClosedContainer = manager != null && manager.isReadMappedClosedContainer();
+    if (mappedClosedContainer && mappedBufferManager == null) {
+      LOG.warn("ozone.chunk.read.mapped.closed.container is ignored since "
+          + "ozone.chunk.read.mapped.buffer.max.count is not positive");
+    }
+    this.readMappedClosedContainer = mappedClosedContainer && mappedBufferManager != null;
   }
 
   private static void checkLayoutVersion(Container container) {
@@ -220,6 +228,12 @@ public ChunkBufferToByteString readChunk(Container container, BlockID blockID,
     int bufferCapacity = ChunkManager.getBufferCapacityForChunkRead(info,
         defaultReadBufferCapacity);
 
+    if (readMappedClosedContainer && isImmutable(container.getContainerState())) {
+      // The data is serialized directly from the mapped file regions,
+      // without copying it into a read buffer first.
+      return ChunkUtils.readData(len, bufferCapacity, chunkFile, offset, volume,
+          0, true, mappedBufferManager);
+    }
     if (readNettyChunkedNioFile && dispatcherContext != null && dispatcherContext.isReleaseSupported()) {
       return ChunkUtils.readData(chunkFile, bufferCapacity, offset, len, volume, dispatcherContext);
     }
@@ -296,6 +310,11 @@ private void deleteChunk(Container container, BlockID blockID,
     LOG.info("Deleted block file: {}", file);
   }
 
+  private static boolean isImmutable(ContainerProtos.ContainerDataProto.State state) {
+    return state == ContainerProtos.ContainerDataProto.State.CLOSED
+        || state == ContainerProtos.ContainerDataProto.State.QUASI_CLOSED;
+  }
+
   private static File getChunkFile(Container container, BlockID blockID) throws StorageContainerException {
     return FILE_PER_BLOCK.getChunkFile(container.getContainerData(), blockID, null);
   }
@@ -128,6 +128,9 @@ void finalizeBlock(Container container, BlockID blockId)
   /** @return true iff Netty ChunkedNioFile read is enabled. */
   boolean isReadNettyChunkedNioFile();
 
+  /** @return true iff chunks of closed containers are read using memory mapped buffers. */
+  boolean isReadMappedClosedContainer();
+
   /**
    * Shutdown ContainerManager.
    */
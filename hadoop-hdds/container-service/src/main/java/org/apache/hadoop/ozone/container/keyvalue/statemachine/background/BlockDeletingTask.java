@@ -46,6 +46,7 @@
 import org.apache.hadoop.ozone.container.common.interfaces.Container;
 import org.apache.hadoop.ozone.container.common.interfaces.DBHandle;
 import org.apache.hadoop.ozone.container.common.interfaces.Handler;
+import org.apache.hadoop.ozone.container.common.volume.VolumeIOScheduler;
 import org.apache.hadoop.ozone.container.keyvalue.KeyValueContainerData;
 import org.apache.hadoop.ozone.container.keyvalue.helpers.BlockUtils;
 import org.apache.hadoop.ozone.container.keyvalue.helpers.KeyValueContainerUtil;
@@ -132,6 +133,11 @@ public BackgroundTaskResult call() throws Exception {
       }
       blocksToDelete -= crr.getSize();
       result.addAll(crr.getDeletedBlocks());
+      // Charged after the container lock is released, this paces the next
+      // deletion on the volume.
+      VolumeIOScheduler.throttle(containerData.getVolume(),
+          VolumeIOScheduler.IOClass.DELETION,
+          crr.getSize() * VolumeIOScheduler.DELETE_BLOCK_COST);
     }
     return result;
   }
@@ -24,6 +24,7 @@
 import org.apache.hadoop.hdfs.util.DataTransferThrottler;
 import org.apache.hadoop.ozone.container.common.interfaces.Container;
 import org.apache.hadoop.ozone.container.common.volume.HddsVolume;
+import org.apache.hadoop.ozone.container.common.volume.VolumeIOScheduler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -100,6 +101,10 @@ public String toString() {
     return String.format(NAME_FORMAT, volume + ", " + volume.getStorageID());
   }
 
+  /**
+   * Limits scanning to the configured bandwidth, and also to the share of the
+   * scanner in the background I/O of the volume if that is scheduled.
+   */
   private class HddsDataTransferThrottler extends DataTransferThrottler {
     HddsDataTransferThrottler(long bandwidthPerSec) {
       super(bandwidthPerSec);
@@ -107,9 +112,7 @@ private class HddsDataTransferThrottler extends DataTransferThrottler {
 
     @Override
     public synchronized void throttle(long numOfBytes) {
-      BackgroundContainerDataScanner.this.metrics.incNumBytesScanned(
-          numOfBytes);
-      super.throttle(numOfBytes);
+      throttle(numOfBytes, null);
     }
 
     @Override
@@ -117,6 +120,10 @@ public synchronized void throttle(long numOfBytes, Canceler c) {
       BackgroundContainerDataScanner.this.metrics.incNumBytesScanned(
           numOfBytes);
       super.throttle(numOfBytes, c);
+      VolumeIOScheduler ioScheduler = volume.getIOScheduler();
+      if (ioScheduler != null) {
+        ioScheduler.throttle(VolumeIOScheduler.IOClass.SCANNER, numOfBytes, c);
+      }
     }
   }
 }
@@ -0,0 +1,333 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.container.ozoneimpl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.CRC32;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ContainerDataProto;
+import org.apache.hadoop.ozone.container.common.impl.ContainerLayoutVersion;
+import org.apache.hadoop.ozone.container.keyvalue.KeyValueContainerData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Index of the containers loaded from a volume, persisted next to the
+ * container directories.
+ * <p>
+ * Each {@link Entry} holds the fields of a .container file together with the
+ * length, modification time and file key (inode) of the file they were read
+ * from. At startup an entry is used instead of parsing the YAML file only if
+ * the file still has the same attributes. Since .container files are always
+ * replaced by an atomic rename, any update changes the file key.
+ * <p>
+ * File format: magic, version, entry count, entries, and a CRC32 over all
+ * preceding bytes. An index which fails any check is ignored as a whole.
+ */
+final class ContainerIndex {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(ContainerIndex.class);
+
+  static final String FILE_NAME = "container.index";
+
+  private static final int MAGIC = 0x4f434958;
+  private static final int VERSION = 1;
+
+  private ContainerIndex() {
+  }
+
+  /**
+   * Read the index from the given file.
+   * @return entries by container ID, or an empty map if the file does not
+   * exist or is not a valid index.
+   */
+  static Map<Long, Entry> read(File file) {
+    final byte[] bytes;
+    try {
+      bytes = Files.readAllBytes(file.toPath());
+    } catch (NoSuchFileException e) {
+      return Collections.emptyMap();
+    } catch (IOException e) {
+      LOG.warn("Failed to read container index {}", file, e);
+      return Collections.emptyMap();
+    }
+
+    try {
+      if (bytes.length < Long.BYTES) {
+        throw new IOException("Truncated file, length " + bytes.length);
+      }
+      final int length = bytes.length - Long.BYTES;
+      final CRC32 crc = new CRC32();
+      crc.update(bytes, 0, length);
+      try (DataInputStream in = new DataInputStream(
+          new ByteArrayInputStream(bytes, 0, length))) {
+        if (in.readInt() != MAGIC) {
+          throw new IOException("Invalid magic");
+        }
+        final int version = in.readInt();
+        if (version != VERSION) {
+          throw new IOException("Unsupported version " + version);
+        }
+        final int count = in.readInt();
+        final Map<Long, Entry> entries = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+          final Entry entry = Entry.read(in);
+          entries.put(entry.getContainerID(), entry);
+        }
+        if (in.available() != 0) {
+          throw new IOException("Unexpected trailing bytes");
+        }
+        final long stored = new DataInputStream(new ByteArrayInputStream(
+            bytes, length, Long.BYTES)).readLong();
+        if (stored != crc.getValue()) {
+          throw new IOException("Checksum mismatch");
+        }
+        return entries;
+      }
+    } catch (IOException e) {
+      LOG.warn("Ignoring invalid container index {}: {}", file,
+          e.getMessage());
+      return Collections.emptyMap();
+    }
+  }
+
+  /**
+   * Atomically replace the index in the given file with the given entries.
+   */
+  static void write(File file, Collection<Entry> entries) throws IOException {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(entries.size());
+      for (Entry entry : entries) {
+        entry.write(out);
+      }
+    }
+    final CRC32 crc = new CRC32();
+    crc.update(bytes.toByteArray());
+    new DataOutputStream(bytes).writeLong(crc.getValue());
+
+    final File tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+    try (FileOutputStream out = new FileOutputStream(tmp)) {
+      bytes.writeTo(out);
+      out.getFD().sync();
+    }
+    Files.move(tmp.toPath(), file.toPath(),
+        StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  /**
+   * The indexed fields of a single .container file.
+   */
+  static final class Entry {
+    private final long containerID;
+    private final long fileLength;
+    private final long lastModified;
+    private final String fileKey;
+    private final ContainerLayoutVersion layoutVersion;
+    private final long maxSize;
+    private final String originPipelineId;
+    private final String originNodeId;
+    private final String containerDBType;
+    private final String metadataPath;
+    private final String chunksPath;
+    private final Map<String, String> metadata;
+    private final String checksum;
+    private final Long dataScanTimestamp;
+    private final ContainerDataProto.State state;
+    private final String schemaVersion;
+    private final int replicaIndex;
+
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    private Entry(long containerID, long fileLength, long lastModified,
+        String fileKey, ContainerLayoutVersion layoutVersion, long maxSize,
+        String originPipelineId, String originNodeId, String containerDBType,
+        String metadataPath, String chunksPath, Map<String, String> metadata,
+        String checksum, Long dataScanTimestamp,
+        ContainerDataProto.State state, String schemaVersion,
+        int replicaIndex) {
+      this.containerID = containerID;
+      this.fileLength = fileLength;
+      this.lastModified = lastModified;
+      this.fileKey = fileKey;
+      this.layoutVersion = layoutVersion;
+      this.maxSize = maxSize;
+      this.originPipelineId = originPipelineId;
+      this.originNodeId = originNodeId;
+      this.containerDBType = containerDBType;
+      this.metadataPath = metadataPath;
+      this.chunksPath = chunksPath;
+      this.metadata = metadata;
+      this.checksum = checksum;
+      this.dataScanTimestamp = dataScanTimestamp;
+      this.state = state;
+      this.schemaVersion = schemaVersion;
+      this.replicaIndex = replicaIndex;
+    }
+
+    /**
+     * Create an entry from container data just read from a .container file
+     * with the given attributes.
+     */
+    static Entry of(KeyValueContainerData data, BasicFileAttributes attrs) {
+      return new Entry(data.getContainerID(), attrs.size(),
+          attrs.lastModifiedTime().toMillis(), fileKey(attrs),
+          data.getLayoutVersion(), data.getMaxSize(),
+          data.getOriginPipelineId(), data.getOriginNodeId(),
+          data.getContainerDBType(), data.getMetadataPath(),
+          data.getChunksPath(), new LinkedHashMap<>(data.getMetadata()),
+          data.getContainerFileChecksum(), data.getDataScanTimestamp(),
+          data.getState(), data.getSchemaVersion(), data.getReplicaIndex());
+    }
+
+    long getContainerID() {
+      return containerID;
+    }
+
+    /**
+     * @return true if the .container file with the given attributes is
+     * the one this entry was created from.
+     */
+    boolean matches(BasicFileAttributes attrs) {
+      return fileLength == attrs.size()
+          && lastModified == attrs.lastModifiedTime().toMillis()
+          && Objects.equals(fileKey, fileKey(attrs));
+    }
+
+    /**
+     * @return a new container data object, equivalent to parsing the
+     * .container file this entry was created from.
+     */
+    KeyValueContainerData toContainerData() {
+      final KeyValueContainerData data = new KeyValueContainerData(
+          containerID, layoutVersion, maxSize, originPipelineId,
+          originNodeId);
+      data.setContainerDBType(containerDBType);
+      data.setMetadataPath(metadataPath);
+      data.setChunksPath(chunksPath);
+      data.setMetadata(metadata);
+      data.setContainerFileChecksum(checksum);
+      data.setDataScanTimestamp(dataScanTimestamp);
+      data.setState(state);
+      data.setSchemaVersion(schemaVersion);
+      data.setReplicaIndex(replicaIndex);
+      return data;
+    }
+
+    private void write(DataOutputStream out) throws IOException {
+      out.writeLong(containerID);
+      out.writeLong(fileLength);
+      out.writeLong(lastModified);
+      writeString(out, fileKey);
+      out.writeInt(layoutVersion.getVersion());
+      out.writeLong(maxSize);
+      writeString(out, originPipelineId);
+      writeString(out, originNodeId);
+      writeString(out, containerDBType);
+      writeString(out, metadataPath);
+      writeString(out, chunksPath);
+      out.writeInt(metadata.size());
+      for (Map.Entry<String, String> e : metadata.entrySet()) {
+        writeString(out, e.getKey());
+        writeString(out, e.getValue());
+      }
+      writeString(out, checksum);
+      out.writeBoolean(dataScanTimestamp != null);
+      if (dataScanTimestamp != null) {
+        out.writeLong(dataScanTimestamp);
+      }
+      out.writeInt(state.getNumber());
+      writeString(out, schemaVersion);
+      out.writeInt(replicaIndex);
+    }
+
+    private static Entry read(DataInputStream in) throws IOException {
+      final long containerID = in.readLong();
+      final long fileLength = in.readLong();
+      final long lastModified = in.readLong();
+      final String fileKey = readString(in);
+      final int version = in.readInt();
+      final ContainerLayoutVersion layoutVersion =
+          ContainerLayoutVersion.getContainerLayoutVersion(version);
+      if (layoutVersion == null) {
+        throw new IOException("Unknown layout version " + version
+            + " for container " + containerID);
+      }
+      final long maxSize = in.readLong();
+      final String originPipelineId = readString(in);
+      final String originNodeId = readString(in);
+      final String containerDBType = readString(in);
+      final String metadataPath = readString(in);
+      final String chunksPath = readString(in);
+      final int metadataSize = in.readInt();
+      final Map<String, String> metadata = new LinkedHashMap<>();
+      for (int i = 0; i < metadataSize; i++) {
+        metadata.put(readString(in), readString(in));
+      }
+      final String checksum = readString(in);
+      final Long dataScanTimestamp = in.readBoolean() ? in.readLong() : null;
+      final int stateNumber = in.readInt();
+      final ContainerDataProto.State state =
+          ContainerDataProto.State.valueOf(stateNumber);
+      if (state == null) {
+        throw new IOException("Unknown state " + stateNumber
+            + " for container " + containerID);
+      }
+      final String schemaVersion = readString(in);
+      final int replicaIndex = in.readInt();
+      return new Entry(containerID, fileLength, lastModified, fileKey,
+          layoutVersion, maxSize, originPipelineId, originNodeId,
+          containerDBType, metadataPath, chunksPath, metadata, checksum,
+          dataScanTimestamp, state, schemaVersion, replicaIndex);
+    }
+
+    private static String fileKey(BasicFileAttributes attrs) {
+      final Object key = attrs.fileKey();
+      return key != null ? key.toString() : null;
+    }
+
+    private static void writeString(DataOutputStream out, String s)
+        throws IOException {
+      out.writeBoolean(s != null);
+      if (s != null) {
+        out.writeUTF(s);
+      }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+      return in.readBoolean() ? in.readUTF() : null;
+    }
+  }
+}
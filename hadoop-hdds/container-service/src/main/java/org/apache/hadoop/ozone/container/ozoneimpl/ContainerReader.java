@@ -24,6 +24,15 @@
 import com.google.common.base.Preconditions;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.hadoop.hdds.conf.ConfigurationSource;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos;
 import org.apache.hadoop.hdds.scm.container.common.helpers.StorageContainerException;
@@ -32,6 +41,8 @@
 import org.apache.hadoop.ozone.container.common.impl.ContainerData;
 import org.apache.hadoop.ozone.container.common.impl.ContainerDataYaml;
 import org.apache.hadoop.ozone.container.common.impl.ContainerSet;
+import org.apache.hadoop.ozone.container.common.interfaces.Container;
+import org.apache.hadoop.ozone.container.common.statemachine.DatanodeConfiguration;
 import org.apache.hadoop.ozone.container.common.volume.HddsVolume;
 import org.apache.hadoop.ozone.container.common.volume.MutableVolumeSet;
 import org.apache.hadoop.ozone.container.keyvalue.KeyValueContainer;
@@ -63,7 +74,15 @@
  * the {@literal <<dataPath>>} layout for KeyValueContainers is:
  * <p>{@literal ../hdds/<<clusterUuid>>/current/<<containerDir>>/<<KVcontainerID
  * >/chunks/<<chunksFile>>}
- *
+ * <p>
+ * Containers of a volume are loaded sequentially, unless the reader runs in a
+ * {@link java.util.concurrent.ForkJoinPool}. In that case each container is
+ * loaded by a separate task, so that idle threads of the pool can steal work
+ * from volumes with more containers.
+ * <p>
+ * If enabled, the containers loaded from a volume are recorded in a
+ * {@link ContainerIndex}. On the next startup, the .container files which
+ * are unchanged since then are not parsed again.
  */
 public class ContainerReader implements Runnable {
 
@@ -75,6 +94,9 @@ public class ContainerReader implements Runnable {
   private final File hddsVolumeDir;
   private final MutableVolumeSet volumeSet;
   private final boolean shouldDelete;
+  private final boolean indexEnabled;
+  private final AtomicInteger loadedFromIndex = new AtomicInteger();
+  private final AtomicInteger loadedFromFile = new AtomicInteger();
 
   public ContainerReader(
       MutableVolumeSet volSet, HddsVolume volume, ContainerSet cset,
@@ -86,6 +108,10 @@ public ContainerReader(
     this.config = conf;
     this.volumeSet = volSet;
     this.shouldDelete = shouldDelete;
+    // The index is only maintained by the datanode owning the volume,
+    // not by offline tools reading it.
+    this.indexEnabled = shouldDelete &&
+        conf.getObject(DatanodeConfiguration.class).isContainerIndexEnabled();
   }
 
   @Override
@@ -143,48 +169,105 @@ public void readVolume(File hddsVolumeRootDir) {
 
       LOG.info("Start to verify containers on volume {}", hddsVolumeRootDir);
       File currentDir = new File(idDir, Storage.STORAGE_DIR_CURRENT);
+      List<File> containerDirList = new ArrayList<>();
       File[] containerTopDirs = currentDir.listFiles();
       if (containerTopDirs != null && containerTopDirs.length > 0) {
         for (File containerTopDir : containerTopDirs) {
           if (containerTopDir.isDirectory()) {
             File[] containerDirs = containerTopDir.listFiles();
             if (containerDirs != null) {
-              for (File containerDir : containerDirs) {
-                try {
-                  File containerFile = ContainerUtils.getContainerFile(
-                      containerDir);
-                  long containerID =
-                      ContainerUtils.getContainerID(containerDir);
-                  if (containerFile.exists()) {
-                    verifyContainerFile(containerID, containerFile);
-                  } else {
-                    LOG.error("Missing .container file for ContainerID: {}",
-                        containerDir.getName());
-                  }
-                } catch (Throwable e) {
-                  LOG.error("Failed to load container from {}",
-                      containerDir.getAbsolutePath(), e);
-                }
-              }
+              Collections.addAll(containerDirList, containerDirs);
             }
           }
         }
       }
+
+      File indexFile = new File(idDir, ContainerIndex.FILE_NAME);
+      Map<Long, ContainerIndex.Entry> index = indexEnabled
+          ? ContainerIndex.read(indexFile) : Collections.emptyMap();
+      Map<Long, ContainerIndex.Entry> loaded = new ConcurrentHashMap<>();
+      loadContainers(containerDirList, index, loaded);
+      if (indexEnabled) {
+        try {
+          ContainerIndex.write(indexFile, loaded.values());
+        } catch (IOException e) {
+          LOG.warn("Failed to write container index {}", indexFile, e);
+        }
+      }
     }
-    LOG.info("Finish verifying containers on volume {}", hddsVolumeRootDir);
+    LOG.info("Finish verifying containers on volume {}, {} loaded from " +
+        "index, {} loaded from .container files", hddsVolumeRootDir,
+        loadedFromIndex.get(), loadedFromFile.get());
   }
 
-  private void verifyContainerFile(long containerID,
-                                   File containerFile) {
+  private void loadContainers(List<File> containerDirs,
+      Map<Long, ContainerIndex.Entry> index,
+      Map<Long, ContainerIndex.Entry> loaded) {
+    if (ForkJoinTask.inForkJoinPool()) {
+      List<ForkJoinTask<?>> tasks = new ArrayList<>(containerDirs.size());
+      for (File containerDir : containerDirs) {
+        tasks.add(ForkJoinTask.adapt(
+            () -> loadContainer(containerDir, index, loaded)));
+      }
+      ForkJoinTask.invokeAll(tasks);
+    } else {
+      for (File containerDir : containerDirs) {
+        loadContainer(containerDir, index, loaded);
+      }
+    }
+  }
+
+  private void loadContainer(File containerDir,
+      Map<Long, ContainerIndex.Entry> index,
+      Map<Long, ContainerIndex.Entry> loaded) {
     try {
-      ContainerData containerData = ContainerDataYaml.readContainerFile(
-          containerFile);
+      File containerFile = ContainerUtils.getContainerFile(containerDir);
+      long containerID = ContainerUtils.getContainerID(containerDir);
+      if (containerFile.exists()) {
+        verifyContainerFile(containerID, containerFile,
+            index.get(containerID), loaded);
+      } else {
+        LOG.error("Missing .container file for ContainerID: {}",
+            containerDir.getName());
+      }
+    } catch (Throwable e) {
+      LOG.error("Failed to load container from {}",
+          containerDir.getAbsolutePath(), e);
+    }
+  }
+
+  private void verifyContainerFile(long containerID, File containerFile,
+      ContainerIndex.Entry indexed, Map<Long, ContainerIndex.Entry> loaded) {
+    try {
+      BasicFileAttributes attrs = indexEnabled ? Files.readAttributes(
+          containerFile.toPath(), BasicFileAttributes.class) : null;
+      boolean fromIndex = indexed != null && indexed.matches(attrs);
+      ContainerData containerData;
+      ContainerIndex.Entry entry = null;
+      if (fromIndex) {
+        entry = indexed;
+        containerData = indexed.toContainerData();
+      } else {
+        containerData = ContainerDataYaml.readContainerFile(containerFile);
+        if (indexEnabled && containerData instanceof KeyValueContainerData) {
+          entry = ContainerIndex.Entry.of(
+              (KeyValueContainerData) containerData, attrs);
+        }
+      }
       if (containerID != containerData.getContainerID()) {
         LOG.error("Invalid ContainerID in file {}. " +
             "Skipping loading of this container.", containerFile);
         return;
       }
-      verifyAndFixupContainerData(containerData);
+      // The checksum of an indexed entry was verified when it was indexed.
+      verifyAndFixupContainerData(containerData, !fromIndex);
+      (fromIndex ? loadedFromIndex : loadedFromFile).incrementAndGet();
+
+      Container<?> container = containerSet.getContainer(containerID);
+      if (entry != null && container != null
+          && container.getContainerData() == containerData) {
+        loaded.put(containerID, entry);
+      }
     } catch (IOException ex) {
       LOG.error("Failed to parse ContainerFile for ContainerID: {}",
           containerID, ex);
@@ -200,6 +283,11 @@ private void verifyContainerFile(long containerID,
    */
   public void verifyAndFixupContainerData(ContainerData containerData)
       throws IOException {
+    verifyAndFixupContainerData(containerData, true);
+  }
+
+  private void verifyAndFixupContainerData(ContainerData containerData,
+      boolean verifyChecksum) throws IOException {
     switch (containerData.getContainerType()) {
     case KeyValueContainer:
       if (!(containerData instanceof KeyValueContainerData)) {
@@ -212,7 +300,8 @@ public void verifyAndFixupContainerData(ContainerData containerData)
       KeyValueContainerData kvContainerData = (KeyValueContainerData)
           containerData;
       containerData.setVolume(hddsVolume);
-      KeyValueContainerUtil.parseKVContainerData(kvContainerData, config);
+      KeyValueContainerUtil.parseKVContainerData(kvContainerData, config,
+          !verifyChecksum);
       KeyValueContainer kvContainer = new KeyValueContainer(kvContainerData,
           config);
       if (kvContainer.getContainerState() == RECOVERING) {
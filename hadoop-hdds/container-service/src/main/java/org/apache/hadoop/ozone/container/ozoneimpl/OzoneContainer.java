@@ -37,15 +37,18 @@
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import org.apache.hadoop.hdds.conf.ConfigurationSource;
@@ -323,32 +326,36 @@ public GrpcTlsConfig getTlsClientConfig() {
    */
   @VisibleForTesting
   public void buildContainerSet() throws IOException {
-    Iterator<StorageVolume> volumeSetIterator = volumeSet.getVolumesList()
-        .iterator();
-    ArrayList<Thread> volumeThreads = new ArrayList<>();
+    List<StorageVolume> volumes = volumeSet.getVolumesList();
     long startTime = Time.monotonicNow();
 
     // Load container inspectors that may be triggered at startup based on
     // system properties set. These can inspect and possibly repair
     // containers as we iterate them here.
     ContainerInspectorUtil.load();
+    // A single pool is shared by all volumes, each volume's reader splits
+    // its work into per-container tasks, which idle threads can steal.
     String threadNamePrefix = datanodeDetails.threadNamePrefix();
-    ThreadFactory threadFactory = new ThreadFactoryBuilder()
-        .setDaemon(true)
-        .setNameFormat(threadNamePrefix + "ContainerReader-%d")
-        .build();
-    while (volumeSetIterator.hasNext()) {
-      StorageVolume volume = volumeSetIterator.next();
+    AtomicInteger threadCount = new AtomicInteger();
+    ForkJoinPool pool = new ForkJoinPool(
+        config.getObject(DatanodeConfiguration.class).getContainerLoadThreads(),
+        p -> {
+          ForkJoinWorkerThread thread =
+              ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+          thread.setName(threadNamePrefix + "ContainerReader-"
+              + threadCount.getAndIncrement());
+          return thread;
+        }, null, false);
+    List<ForkJoinTask<?>> volumeTasks = new ArrayList<>(volumes.size());
+    for (StorageVolume volume : volumes) {
       ContainerReader containerReader = new ContainerReader(volumeSet,
           (HddsVolume) volume, containerSet, config, true);
-      Thread thread = threadFactory.newThread(containerReader);
-      thread.start();
-      volumeThreads.add(thread);
+      volumeTasks.add(pool.submit(containerReader));
     }
 
     try {
-      for (Thread volumeThread : volumeThreads) {
-        volumeThread.join();
+      for (ForkJoinTask<?> volumeTask : volumeTasks) {
+        volumeTask.get();
       }
       try (TableIterator<ContainerID, ContainerID> itr
                = getWitnessedContainerMetadataStore().getContainerCreateInfoTable().keyIterator()) {
@@ -361,6 +368,11 @@ public void buildContainerSet() throws IOException {
     } catch (InterruptedException ex) {
       LOG.error("Volume Threads Interrupted exception", ex);
       Thread.currentThread().interrupt();
+    } catch (ExecutionException ex) {
+      // ContainerReader handles all failures of a volume by itself.
+      LOG.error("Unexpected failure while reading volumes", ex);
+    } finally {
+      pool.shutdownNow();
     }
 
     // After all containers have been processed, turn off container
@@ -36,11 +36,14 @@
 import org.apache.hadoop.ozone.container.common.impl.ContainerDataYaml;
 import org.apache.hadoop.ozone.container.common.impl.ContainerSet;
 import org.apache.hadoop.ozone.container.common.interfaces.Container;
+import org.apache.hadoop.ozone.container.common.interfaces.ContainerUnpacker;
 import org.apache.hadoop.ozone.container.common.interfaces.VolumeChoosingPolicy;
 import org.apache.hadoop.ozone.container.common.utils.StorageVolumeUtil;
 import org.apache.hadoop.ozone.container.common.volume.HddsVolume;
 import org.apache.hadoop.ozone.container.common.volume.MutableVolumeSet;
+import org.apache.hadoop.ozone.container.common.volume.VolumeIOScheduler;
 import org.apache.hadoop.ozone.container.keyvalue.KeyValueContainerData;
+import org.apache.hadoop.ozone.container.keyvalue.StreamedContainerUnpacker;
 import org.apache.hadoop.ozone.container.keyvalue.TarContainerPacker;
 import org.apache.hadoop.ozone.container.ozoneimpl.ContainerController;
 import org.slf4j.Logger;
@@ -90,6 +93,26 @@ public boolean isAllowedContainerImport(long containerID) {
   public void importContainer(long containerID, Path tarFilePath,
       HddsVolume targetVolume, CopyContainerCompression compression)
       throws IOException {
+    importContainer(containerID, tarFilePath, targetVolume,
+        getPacker(compression));
+  }
+
+  /**
+   * Imports a container whose files have been streamed to the untar
+   * directory of the target volume.
+   *
+   * @param descriptorFilePath the streamed container descriptor, deleted
+   *                           after the import
+   */
+  public void importStreamedContainer(long containerID,
+      Path descriptorFilePath, HddsVolume targetVolume) throws IOException {
+    importContainer(containerID, descriptorFilePath, targetVolume,
+        new StreamedContainerUnpacker(conf));
+  }
+
+  private void importContainer(long containerID, Path tarFilePath,
+      HddsVolume targetVolume, ContainerUnpacker<KeyValueContainerData> packer)
+      throws IOException {
     if (!importContainerProgress.add(containerID)) {
       deleteFileQuietely(tarFilePath);
       String log = "Container import in progress with container Id " + containerID;
@@ -107,7 +130,6 @@ public void importContainer(long containerID, Path tarFilePath,
       }
 
       KeyValueContainerData containerData;
-      TarContainerPacker packer = getPacker(compression);
 
       try (InputStream input = Files.newInputStream(tarFilePath)) {
         byte[] containerDescriptorYaml =
@@ -119,7 +141,9 @@ public void importContainer(long containerID, Path tarFilePath,
       // lastDataScanTime should be cleared for an imported container
       containerData.setDataScanTimestamp(null);
 
-      try (InputStream input = Files.newInputStream(tarFilePath)) {
+      try (InputStream input = VolumeIOScheduler.throttle(targetVolume,
+          VolumeIOScheduler.IOClass.REPLICATION,
+          Files.newInputStream(tarFilePath))) {
         Container container = controller.importContainer(
             containerData, input, packer);
         // After container import is successful, increase used space for the volume and schedule an OnDemand scan for it
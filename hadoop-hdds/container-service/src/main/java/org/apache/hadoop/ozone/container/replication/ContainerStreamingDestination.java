@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.container.replication;
+
+import java.nio.file.Path;
+import org.apache.hadoop.ozone.container.keyvalue.TarContainerPacker;
+import org.apache.hadoop.ozone.container.stream.StreamingDestination;
+import org.apache.hadoop.ozone.container.stream.StreamingException;
+
+/**
+ * Maps the files streamed by {@link ContainerStreamingSource} to the layout
+ * expected by the import of the container.
+ */
+public class ContainerStreamingDestination implements StreamingDestination {
+
+  private final Path containerDir;
+
+  private final Path descriptorFile;
+
+  /**
+   * @param containerDir directory for the data and metadata of the container
+   * @param descriptorFile file for the container descriptor
+   */
+  public ContainerStreamingDestination(Path containerDir,
+      Path descriptorFile) {
+    this.containerDir = containerDir.toAbsolutePath().normalize();
+    this.descriptorFile = descriptorFile;
+  }
+
+  @Override
+  public Path mapToDestination(String name) {
+    if (TarContainerPacker.CONTAINER_FILE_NAME.equals(name)) {
+      return descriptorFile;
+    }
+    Path path = containerDir.resolve(name).normalize();
+    if (!path.startsWith(containerDir) || path.equals(containerDir)) {
+      throw new StreamingException("Invalid file name in the container " +
+          "stream: " + name);
+    }
+    return path;
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.container.replication;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+import org.apache.commons.io.FileUtils;
+import org.apache.hadoop.ozone.container.common.interfaces.Container;
+import org.apache.hadoop.ozone.container.common.utils.ContainerLogger;
+import org.apache.hadoop.ozone.container.common.volume.HddsVolume;
+import org.apache.hadoop.ozone.container.keyvalue.KeyValueContainer;
+import org.apache.hadoop.ozone.container.ozoneimpl.ContainerController;
+import org.apache.hadoop.ozone.container.stream.StreamingException;
+import org.apache.hadoop.ozone.container.stream.StreamingSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Streaming source of closed containers, used by
+ * {@link StreamAndImportReplicator}.
+ * <p>
+ * The files of the container are staged (chunk files hard linked) to a
+ * temporary directory of its volume, which is removed when the connection is
+ * closed, whether or not all the files have been streamed.
+ * <p>
+ * Like the containers exported by the GRPC replication server, the number of
+ * containers streamed at a time is limited. Requests over the limit fail, so
+ * that the target can try another source.
+ */
+public class ContainerStreamingSource implements StreamingSource {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(ContainerStreamingSource.class);
+
+  public static final String CONTAINER_STREAM_DIR = "container-stream";
+
+  private final ContainerController controller;
+  private final Semaphore exports;
+
+  public ContainerStreamingSource(ContainerController controller,
+      int maxExports) {
+    this.controller = controller;
+    this.exports = new Semaphore(maxExports);
+  }
+
+  @Override
+  public Map<String, Path> getFilesToStream(String id) {
+    final long containerId;
+    try {
+      containerId = Long.parseLong(id);
+    } catch (NumberFormatException e) {
+      throw new StreamingException("Invalid container ID: " + id);
+    }
+    Container<?> container = controller.getContainer(containerId);
+    if (!(container instanceof KeyValueContainer)) {
+      throw new StreamingException("Container " + id + " is not found.");
+    }
+    KeyValueContainer kvContainer = (KeyValueContainer) container;
+    if (!exports.tryAcquire()) {
+      throw new StreamingException("Failed to export container " + id
+          + ", too many containers are being exported.");
+    }
+
+    Path stagingDir = null;
+    Map<String, Path> files = new HashMap<>();
+    boolean success = false;
+    try {
+      stagingDir = getStagingDirectory(
+          kvContainer.getContainerData().getVolume())
+          .resolve(id + "-" + UUID.randomUUID());
+      kvContainer.exportContainerFiles(stagingDir);
+      final Path root = stagingDir;
+      try (Stream<Path> list = Files.walk(root)) {
+        list.filter(Files::isRegularFile)
+            .forEach(path -> files.put(root.relativize(path).toString(), path));
+      }
+      success = true;
+    } catch (IOException e) {
+      throw new StreamingException("Failed to export container " + id, e);
+    } finally {
+      if (!success) {
+        if (stagingDir != null) {
+          deleteStagingDirectory(stagingDir);
+        }
+        exports.release();
+      }
+    }
+    ContainerLogger.logExported(kvContainer.getContainerData());
+    return files;
+  }
+
+  @Override
+  public void streamingFinished(String id, Map<String, Path> files) {
+    try {
+      getStagingDirectory(files).ifPresent(
+          ContainerStreamingSource::deleteStagingDirectory);
+    } finally {
+      exports.release();
+    }
+  }
+
+  /**
+   * @return the directory the given files have been staged to, which is the
+   * path of any of the files without its relative name.
+   */
+  private static Optional<Path> getStagingDirectory(Map<String, Path> files) {
+    return files.entrySet().stream().findAny().map(e -> {
+      Path dir = e.getValue();
+      for (int i = 0; i < Paths.get(e.getKey()).getNameCount(); i++) {
+        dir = dir.getParent();
+      }
+      return dir;
+    });
+  }
+
+  public static Path getStagingDirectory(HddsVolume volume)
+      throws IOException {
+    return ContainerImporter.getUntarDirectory(volume)
+        .resolveSibling(CONTAINER_STREAM_DIR);
+  }
+
+  static void deleteStagingDirectory(Path stagingDir) {
+    try {
+      FileUtils.deleteDirectory(stagingDir.toFile());
+    } catch (IOException e) {
+      LOG.warn("Failed to delete staging directory {}", stagingDir, e);
+    }
+  }
+}
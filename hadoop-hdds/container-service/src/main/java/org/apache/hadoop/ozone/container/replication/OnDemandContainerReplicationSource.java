@@ -21,8 +21,14 @@
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.UUID;
 import org.apache.hadoop.hdds.scm.container.common.helpers.StorageContainerException;
 import org.apache.hadoop.ozone.container.common.interfaces.Container;
+import org.apache.hadoop.ozone.container.common.utils.ContainerLogger;
+import org.apache.hadoop.ozone.container.common.volume.HddsVolume;
+import org.apache.hadoop.ozone.container.common.volume.VolumeIOScheduler;
+import org.apache.hadoop.ozone.container.keyvalue.KeyValueContainer;
 import org.apache.hadoop.ozone.container.keyvalue.TarContainerPacker;
 import org.apache.hadoop.ozone.container.ozoneimpl.ContainerController;
 
@@ -57,8 +63,29 @@ public void copyData(long containerId, OutputStream destination,
           " is not found.", CONTAINER_NOT_FOUND);
     }
 
-    controller.exportContainer(
-        container.getContainerType(), containerId, destination,
-        new TarContainerPacker(compression));
+    HddsVolume volume = container.getContainerData().getVolume();
+    TarContainerPacker packer = new TarContainerPacker(compression);
+    if (volume == null || volume.getIOScheduler() == null
+        || !(container instanceof KeyValueContainer)) {
+      controller.exportContainer(
+          container.getContainerType(), containerId, destination, packer);
+      return;
+    }
+
+    // The container is locked while it is exported, so only its files are
+    // staged (mostly as hard links) under the lock, and the archive is
+    // written from the staged files at the pace allowed by the volume.
+    KeyValueContainer kvContainer = (KeyValueContainer) container;
+    Path stagingDir = ContainerStreamingSource.getStagingDirectory(volume)
+        .resolve(containerId + "-" + UUID.randomUUID());
+    try {
+      kvContainer.exportContainerFiles(stagingDir);
+      packer.packStagedFiles(kvContainer.getContainerData(), stagingDir,
+          VolumeIOScheduler.throttle(volume,
+              VolumeIOScheduler.IOClass.REPLICATION, destination));
+    } finally {
+      ContainerStreamingSource.deleteStagingDirectory(stagingDir);
+    }
+    ContainerLogger.logExported(kvContainer.getContainerData());
   }
 }
@@ -24,6 +24,7 @@
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -37,6 +38,7 @@
 import org.apache.hadoop.hdds.tracing.GrpcServerInterceptor;
 import org.apache.hadoop.ozone.OzoneConsts;
 import org.apache.hadoop.ozone.container.ozoneimpl.ContainerController;
+import org.apache.hadoop.ozone.container.stream.StreamingServer;
 import org.apache.ratis.thirdparty.io.grpc.Server;
 import org.apache.ratis.thirdparty.io.grpc.ServerInterceptors;
 import org.apache.ratis.thirdparty.io.grpc.netty.GrpcSslContexts;
@@ -56,6 +58,8 @@ public class ReplicationServer {
 
   private Server server;
 
+  private StreamingServer streamingServer;
+
   private SecurityConfig secConf;
 
   private CertificateClient caClient;
@@ -76,6 +80,18 @@ public ReplicationServer(ContainerController controller,
     this.controller = controller;
     this.importer = importer;
     this.port = replicationConfig.getPort();
+    if (replicationConfig.isStreamingEnabled()) {
+      if (secConf.isSecurityEnabled()) {
+        LOG.warn("Container streaming replication is not supported with " +
+            "security enabled, using only the GRPC replication server");
+      } else {
+        streamingServer = new StreamingServer(
+            new ContainerStreamingSource(controller,
+                replicationConfig.getReplicationMaxStreams()),
+            replicationConfig.getStreamingPort(), null,
+            replicationConfig.getReplicationMaxStreams());
+      }
+    }
 
     int replicationServerWorkers =
         replicationConfig.getReplicationMaxStreams();
@@ -135,6 +151,9 @@ public void start() throws IOException {
     server.start();
     port = server.getPort();
     LOG.info("{} is started using port {}", getClass().getSimpleName(), port);
+    if (streamingServer != null) {
+      streamingServer.start();
+    }
   }
 
   public void stop() {
@@ -142,6 +161,9 @@ public void stop() {
       executor.shutdown();
       executor.awaitTermination(5L, TimeUnit.SECONDS);
       server.shutdown().awaitTermination(10L, TimeUnit.SECONDS);
+      if (streamingServer != null) {
+        streamingServer.stop();
+      }
     } catch (InterruptedException ex) {
       LOG.warn("{} couldn't be stopped gracefully", getClass().getSimpleName());
       Thread.currentThread().interrupt();
@@ -230,6 +252,30 @@ public static final class ReplicationConfig {
         tags = {DATANODE, MANAGEMENT})
     private int port;
 
+    @Config(key = "streaming.enabled", defaultValue = "false",
+        type = ConfigType.BOOLEAN,
+        description = "If enabled, closed containers are replicated by " +
+            "streaming their files (chunk files with zero-copy transfer) " +
+            "instead of downloading and extracting a tar archive. " +
+            "Ignored if security is enabled, as the streaming server does " +
+            "not authenticate clients.",
+        tags = {DATANODE, MANAGEMENT})
+    private boolean streamingEnabled = false;
+
+    @Config(key = "streaming.port", defaultValue = "9887",
+        description = "Port used for the container streaming server, if " +
+            "streaming replication is enabled. Should be the same on all " +
+            "datanodes.",
+        tags = {DATANODE, MANAGEMENT})
+    private int streamingPort;
+
+    @Config(key = "streaming.timeout", defaultValue = "10m",
+        type = ConfigType.TIME,
+        description = "Timeout for streaming the files of a single container " +
+            "from a source datanode.",
+        tags = {DATANODE, MANAGEMENT})
+    private Duration streamingTimeout = Duration.ofMinutes(10);
+
     @Config(key = OUTOFSERVICE_FACTOR_KEY,
         type = ConfigType.DOUBLE,
         defaultValue = OUTOFSERVICE_FACTOR_DEFAULT_VALUE,
@@ -258,6 +304,32 @@ public ReplicationConfig setPort(int portParam) {
       return this;
     }
 
+    public boolean isStreamingEnabled() {
+      return streamingEnabled;
+    }
+
+    public ReplicationConfig setStreamingEnabled(boolean enabled) {
+      this.streamingEnabled = enabled;
+      return this;
+    }
+
+    public int getStreamingPort() {
+      return streamingPort;
+    }
+
+    public ReplicationConfig setStreamingPort(int portParam) {
+      this.streamingPort = portParam;
+      return this;
+    }
+
+    public Duration getStreamingTimeout() {
+      return streamingTimeout;
+    }
+
+    public void setStreamingTimeout(Duration timeout) {
+      this.streamingTimeout = timeout;
+    }
+
     public int getReplicationMaxStreams() {
       return replicationMaxStreams;
     }
@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.container.replication;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.FileUtils;
+import org.apache.hadoop.hdds.protocol.DatanodeDetails;
+import org.apache.hadoop.ozone.container.common.impl.ContainerSet;
+import org.apache.hadoop.ozone.container.common.volume.HddsVolume;
+import org.apache.hadoop.ozone.container.replication.AbstractReplicationTask.Status;
+import org.apache.hadoop.ozone.container.replication.ReplicationServer.ReplicationConfig;
+import org.apache.hadoop.ozone.container.stream.StreamingClient;
+import org.apache.hadoop.ozone.container.stream.StreamingException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Replicates a container by streaming its files from a source datanode
+ * directly to the temporary directory of the target volume, and importing it
+ * from there.
+ * <p>
+ * Compared to {@link DownloadAndImportReplicator}, the chunk files are sent
+ * with zero-copy transfer by the source, and they are written only once on
+ * the target, without creating and extracting an intermediate tar archive.
+ * <p>
+ * If the container cannot be streamed from any source, e.g. since the
+ * sources do not run the streaming server or are exporting too many
+ * containers, it is replicated by the given fallback replicator.
+ */
+public class StreamAndImportReplicator implements ContainerReplicator {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(StreamAndImportReplicator.class);
+
+  private final ContainerSet containerSet;
+  private final ContainerImporter containerImporter;
+  private final int port;
+  private final long timeoutMillis;
+  private final ContainerReplicator fallback;
+
+  public StreamAndImportReplicator(ContainerSet containerSet,
+      ContainerImporter containerImporter,
+      ReplicationConfig replicationConfig, ContainerReplicator fallback) {
+    this.containerSet = containerSet;
+    this.containerImporter = containerImporter;
+    this.fallback = fallback;
+    this.port = replicationConfig.getStreamingPort();
+    this.timeoutMillis = replicationConfig.getStreamingTimeout().toMillis();
+  }
+
+  @Override
+  public void replicate(ReplicationTask task) {
+    if (!streamAndImport(task)) {
+      LOG.info("Falling back to downloading container {} as an archive",
+          task.getContainerId());
+      fallback.replicate(task);
+    }
+  }
+
+  /**
+   * @return false if the container could not be streamed from any source,
+   * otherwise the status of the task is set.
+   */
+  private boolean streamAndImport(ReplicationTask task) {
+    long containerID = task.getContainerId();
+    if (containerSet.getContainer(containerID) != null) {
+      LOG.debug("Container {} has already been replicated.", containerID);
+      task.setStatus(Status.SKIPPED);
+      return true;
+    }
+
+    // Import failure may be caused by the data of a single replica, so give
+    // all sources a chance over retries.
+    List<DatanodeDetails> sourceDatanodes =
+        new ArrayList<>(task.getSources());
+    Collections.shuffle(sourceDatanodes);
+
+    LOG.info("Starting streaming replication of container {} from {}",
+        containerID, sourceDatanodes);
+    HddsVolume targetVolume = null;
+    Path containerDir = null;
+    Path descriptorFile = null;
+
+    try {
+      targetVolume = containerImporter.chooseNextVolume();
+      Path untarDir = ContainerImporter.getUntarDirectory(targetVolume);
+      containerDir = untarDir.resolve(String.valueOf(containerID));
+      descriptorFile = untarDir.resolve(containerID + ".container");
+
+      if (!streamFromAny(containerID, sourceDatanodes, containerDir,
+          descriptorFile)) {
+        return false;
+      }
+      long bytes = FileUtils.sizeOfDirectory(containerDir.toFile());
+      LOG.info("Container {} is streamed with size {}, starting to import.",
+          containerID, bytes);
+      task.setTransferredBytes(bytes);
+
+      containerImporter.importStreamedContainer(containerID, descriptorFile,
+          targetVolume);
+
+      LOG.info("Container {} is replicated successfully", containerID);
+      task.setStatus(Status.DONE);
+    } catch (IOException e) {
+      LOG.error("Container {} replication was unsuccessful.", containerID, e);
+      task.setStatus(Status.FAILED);
+    } finally {
+      // the leftovers of the failed stream are removed before falling back
+      deleteQuietly(containerDir, descriptorFile);
+      if (targetVolume != null) {
+        targetVolume.incCommittedBytes(
+            -containerImporter.getDefaultReplicationSpace());
+      }
+    }
+    return true;
+  }
+
+  private boolean streamFromAny(long containerID,
+      List<DatanodeDetails> sourceDatanodes, Path containerDir,
+      Path descriptorFile) {
+    for (DatanodeDetails source : sourceDatanodes) {
+      // remove leftovers of a previous attempt
+      deleteQuietly(containerDir, descriptorFile);
+      try {
+        stream(source, containerID,
+            new ContainerStreamingDestination(containerDir, descriptorFile));
+        return true;
+      } catch (StreamingException e) {
+        LOG.error("Error on streaming container {} from {}.", containerID,
+            source, e);
+      }
+    }
+    LOG.error("Container {} could not be streamed from any datanode",
+        containerID);
+    return false;
+  }
+
+  @VisibleForTesting
+  protected void stream(DatanodeDetails source, long containerID,
+      ContainerStreamingDestination destination) {
+    try (StreamingClient client = new StreamingClient(source.getIpAddress(),
+        port, destination)) {
+      client.stream(String.valueOf(containerID), timeoutMillis,
+          TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private static void deleteQuietly(Path containerDir, Path descriptorFile) {
+    try {
+      if (containerDir != null) {
+        FileUtils.deleteDirectory(containerDir.toFile());
+      }
+      if (descriptorFile != null) {
+        Files.deleteIfExists(descriptorFile);
+      }
+    } catch (IOException e) {
+      LOG.warn("Failed to delete streamed files of {}", containerDir, e);
+    }
+  }
+}
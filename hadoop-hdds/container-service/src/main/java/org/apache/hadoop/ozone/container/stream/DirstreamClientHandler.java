@@ -132,8 +132,12 @@ public void channelUnregistered(ChannelHandlerContext ctx) {
   public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
     cause.printStackTrace();
     try {
-      destFileChannel.close();
-      destFile.close();
+      if (destFileChannel != null) {
+        destFileChannel.close();
+      }
+      if (destFile != null) {
+        destFile.close();
+      }
     } catch (IOException e) {
       e.printStackTrace();
     }
@@ -23,6 +23,8 @@
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.DefaultFileRegion;
+import io.netty.handler.ssl.SslHandler;
 import io.netty.handler.stream.ChunkedFile;
 import io.netty.util.ByteProcessor;
 import java.io.IOException;
@@ -32,7 +34,11 @@
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -48,10 +54,21 @@ public class DirstreamServerHandler extends ChannelInboundHandlerAdapter {
 
   private StreamingSource source;
 
+  /** Runs the blocking export of the files, off the event loop. */
+  private final Executor exportExecutor;
+
   private boolean headerProcessed = false;
 
-  public DirstreamServerHandler(StreamingSource source) {
+  private boolean exportStarted = false;
+
+  private String streamedId;
+
+  private Map<String, Path> streamedFiles;
+
+  public DirstreamServerHandler(StreamingSource source,
+      Executor exportExecutor) {
     this.source = source;
+    this.exportExecutor = exportExecutor;
   }
 
   @Override
@@ -71,12 +88,43 @@ public void channelRead(ChannelHandlerContext ctx, Object msg)
       buffer.release();
     }
 
-    if (headerProcessed) {
-      final List<Entry<String, Path>> entriesToWrite = new ArrayList<>(
-          source.getFilesToStream(id.toString().trim()).entrySet());
-
-      writeOneElement(ctx, entriesToWrite, 0);
+    if (headerProcessed && !exportStarted) {
+      exportStarted = true;
+      streamedId = id.toString().trim();
+      final String exportedId = streamedId;
+      CompletableFuture.supplyAsync(() -> {
+        try {
+          return source.getFilesToStream(exportedId);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new StreamingException(e);
+        }
+      }, exportExecutor).whenComplete((files, e) ->
+          ctx.executor().execute(() -> startStreaming(ctx, files, e)));
+    }
+  }
 
+  /**
+   * Starts writing the exported files, on the event loop of the channel.
+   */
+  private void startStreaming(ChannelHandlerContext ctx,
+      Map<String, Path> files, Throwable exportFailure) {
+    try {
+      if (exportFailure != null) {
+        exceptionCaught(ctx, exportFailure instanceof CompletionException
+            ? exportFailure.getCause() : exportFailure);
+        return;
+      }
+      if (!ctx.channel().isActive()) {
+        // closed while exporting, channelInactive has nothing to release
+        source.streamingFinished(streamedId, files);
+        return;
+      }
+      streamedFiles = files;
+      writeOneElement(ctx, new ArrayList<>(files.entrySet()), 0);
+    } catch (Exception e) {
+      LOG.error("Error on streaming files of {}", streamedId, e);
+      ctx.channel().close();
     }
   }
 
@@ -99,8 +147,12 @@ public void writeOneElement(
 
     ChannelFuture lastFuture = ctx.writeAndFlush(identifierBuf);
     lastFuture.addListener(f -> {
+      // Without TLS the file can be transferred by the kernel directly
+      // (sendfile), without copying it to the user space.
       ChannelFuture nextFuture = ctx.writeAndFlush(
-          new ChunkedFile(file.toFile()));
+          ctx.pipeline().get(SslHandler.class) == null
+              ? new DefaultFileRegion(file.toFile(), 0, fileSize)
+              : new ChunkedFile(file.toFile()));
       if (currentIndex == entriesToWrite.size() - 1) {
         nextFuture.addListener(a -> {
           if (!a.isSuccess()) {
@@ -114,14 +166,38 @@ public void writeOneElement(
               });
         });
       } else {
-        nextFuture.addListener(
-            a -> writeOneElement(ctx, entriesToWrite,
-                currentIndex + 1));
+        nextFuture.addListener(a -> {
+          if (!a.isSuccess()) {
+            // closing the connection releases the streamed files
+            LOG.error("Error on streaming file", a.cause());
+            ctx.channel().close();
+            return;
+          }
+          try {
+            writeOneElement(ctx, entriesToWrite, currentIndex + 1);
+          } catch (IOException e) {
+            LOG.error("Error on streaming file", e);
+            ctx.channel().close();
+          }
+        });
       }
     });
 
   }
 
+  @Override
+  public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+    if (streamedFiles != null) {
+      try {
+        source.streamingFinished(streamedId, streamedFiles);
+      } catch (RuntimeException e) {
+        LOG.warn("Failed to release streamed files of {}", streamedId, e);
+      }
+      streamedFiles = null;
+    }
+    super.channelInactive(ctx);
+  }
+
   @Override
   public void channelReadComplete(ChannelHandlerContext ctx) {
     ctx.flush();
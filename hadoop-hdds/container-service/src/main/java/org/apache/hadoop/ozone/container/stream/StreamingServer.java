@@ -17,6 +17,7 @@
 
 package org.apache.hadoop.ozone.container.stream;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
@@ -28,6 +29,8 @@
 import io.netty.handler.ssl.SslContext;
 import io.netty.handler.stream.ChunkedWriteHandler;
 import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,6 +42,8 @@ public class StreamingServer implements AutoCloseable {
   private static final Logger LOG =
       LoggerFactory.getLogger(StreamingServer.class);
 
+  private static final int DEFAULT_EXPORT_THREADS = 10;
+
   private int port;
 
   private StreamingSource source;
@@ -49,6 +54,10 @@ public class StreamingServer implements AutoCloseable {
 
   private SslContext sslContext;
 
+  private final int exportThreads;
+
+  private ExecutorService exportExecutor;
+
   public StreamingServer(
       StreamingSource source, int port
   ) {
@@ -57,10 +66,23 @@ public StreamingServer(
 
   public StreamingServer(
       StreamingSource source, int port, SslContext sslContext
+  ) {
+    this(source, port, sslContext, DEFAULT_EXPORT_THREADS);
+  }
+
+  /**
+   * @param exportThreads number of threads to collect the files to stream
+   *                      with, which may block, so it is not done by the
+   *                      event loop
+   */
+  public StreamingServer(
+      StreamingSource source, int port, SslContext sslContext,
+      int exportThreads
   ) {
     this.port = port;
     this.source = source;
     this.sslContext = sslContext;
+    this.exportThreads = exportThreads;
   }
 
   public void start() {
@@ -68,6 +90,11 @@ public void start() {
       ServerBootstrap b = new ServerBootstrap();
       bossGroup = new NioEventLoopGroup(100);
       workerGroup = new NioEventLoopGroup(100);
+      exportExecutor = Executors.newFixedThreadPool(exportThreads,
+          new ThreadFactoryBuilder()
+              .setDaemon(true)
+              .setNameFormat("StreamingExport-%d")
+              .build());
 
       b.group(bossGroup, workerGroup)
           .channel(NioServerSocketChannel.class)
@@ -81,7 +108,7 @@ public void initChannel(SocketChannel ch) throws Exception {
               }
               ch.pipeline().addLast(
                   new ChunkedWriteHandler(),
-                  new DirstreamServerHandler(source));
+                  new DirstreamServerHandler(source, exportExecutor));
 
 
             }
@@ -101,6 +128,7 @@ public void initChannel(SocketChannel ch) throws Exception {
   public void stop() {
     bossGroup.shutdownGracefully();
     workerGroup.shutdownGracefully();
+    exportExecutor.shutdownNow();
   }
 
   public int getPort() {
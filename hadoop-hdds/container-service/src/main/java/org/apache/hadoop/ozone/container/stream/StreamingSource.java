@@ -33,4 +33,14 @@ public interface StreamingSource {
    */
   Map<String, Path> getFilesToStream(String id) throws InterruptedException;
 
+  /**
+   * Called once the connection which streamed the files is closed, whether
+   * or not the transfer succeeded.
+   *
+   * @param id custom identifier
+   * @param files the files returned by {@link #getFilesToStream(String)}
+   */
+  default void streamingFinished(String id, Map<String, Path> files) {
+  }
+
 }
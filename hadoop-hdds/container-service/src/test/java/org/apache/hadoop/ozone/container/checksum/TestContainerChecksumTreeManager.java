@@ -19,6 +19,7 @@
 
 import static org.apache.hadoop.ozone.container.checksum.ContainerMerkleTreeTestUtils.assertContainerDiffMatch;
 import static org.apache.hadoop.ozone.container.checksum.ContainerMerkleTreeTestUtils.assertTreesSortedAndMatch;
+import static org.apache.hadoop.ozone.container.checksum.ContainerMerkleTreeTestUtils.buildChunk;
 import static org.apache.hadoop.ozone.container.checksum.ContainerMerkleTreeTestUtils.buildTestTree;
 import static org.apache.hadoop.ozone.container.checksum.ContainerMerkleTreeTestUtils.buildTestTreeWithMismatches;
 import static org.apache.hadoop.ozone.container.checksum.ContainerMerkleTreeTestUtils.readChecksumFile;
@@ -33,19 +34,24 @@
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.hadoop.hdds.client.BlockID;
 import org.apache.hadoop.hdds.conf.ConfigurationSource;
 import org.apache.hadoop.hdds.conf.OzoneConfiguration;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos;
 import org.apache.hadoop.hdds.scm.container.common.helpers.StorageContainerException;
+import org.apache.hadoop.ozone.container.common.helpers.BlockData;
+import org.apache.hadoop.ozone.container.common.statemachine.DatanodeConfiguration;
 import org.apache.hadoop.ozone.container.keyvalue.KeyValueContainerData;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -268,9 +274,10 @@ public void testTmpFileWriteFailure() throws Exception {
     assertTrue(finalFile.exists());
 
     // Make the write to the tmp file fail by removing permissions on its parent.
+    // A different tree is written, since an unchanged tree would not be rewritten.
     assertTrue(tmpFile.getParentFile().setWritable(false));
     try {
-      checksumManager.writeContainerDataTree(container, tree);
+      checksumManager.writeContainerDataTree(container, buildTestTree(config, 2));
       fail("Write to the tmp file should have failed.");
     } catch (IOException ex) {
       LOG.info("Write to the tmp file failed as expected with the following exception: ", ex);
@@ -560,6 +567,85 @@ void testContainerDiffWithBlockDeletionInPeer() throws Exception {
         blockIDs.contains(any.getBlockID())));
   }
 
+  @Test
+  public void testIncrementalTreeMatchesTreeFromMetadata() throws Exception {
+    ContainerMerkleTreeWriter expectedTree = new ContainerMerkleTreeWriter();
+    checksumManager.startTracking(CONTAINER_ID);
+    assertTrue(checksumManager.isTracked(CONTAINER_ID));
+
+    for (long blockID = 3; blockID > 0; blockID--) {
+      List<ContainerProtos.ChunkInfo> chunks = new ArrayList<>();
+      for (int i = 0; i < 3; i++) {
+        chunks.add(buildChunk(config, i, ByteBuffer.wrap(new byte[]{(byte) blockID, (byte) i})));
+      }
+      // Chunks of a block may be committed in several steps with incremental chunk lists.
+      BlockData partial = new BlockData(new BlockID(CONTAINER_ID, blockID));
+      partial.setChunks(chunks.subList(0, 1));
+      checksumManager.addBlock(CONTAINER_ID, partial);
+      BlockData full = new BlockData(new BlockID(CONTAINER_ID, blockID));
+      full.setChunks(chunks);
+      checksumManager.addBlock(CONTAINER_ID, full);
+
+      expectedTree.addBlock(blockID);
+      expectedTree.addChunks(blockID, true, chunks);
+    }
+    // an empty block
+    checksumManager.addBlock(CONTAINER_ID, new BlockData(new BlockID(CONTAINER_ID, 4)));
+    expectedTree.addBlock(4);
+
+    Optional<ContainerMerkleTreeWriter> trackedTree = checksumManager.stopTracking(CONTAINER_ID);
+    assertTrue(trackedTree.isPresent());
+    assertFalse(checksumManager.isTracked(CONTAINER_ID));
+    assertEquals(1, checksumManager.getMetrics().getIncrementalMerkleTreeWrites());
+    assertTreesSortedAndMatch(expectedTree.toProto(), trackedTree.get().toProto());
+  }
+
+  @Test
+  public void testUntrackedContainer() {
+    BlockData block = new BlockData(new BlockID(CONTAINER_ID, 1));
+    checksumManager.addBlock(CONTAINER_ID, block);
+    assertFalse(checksumManager.isTracked(CONTAINER_ID));
+    assertFalse(checksumManager.stopTracking(CONTAINER_ID).isPresent());
+
+    checksumManager.startTracking(CONTAINER_ID);
+    checksumManager.discardTracking(CONTAINER_ID);
+    assertFalse(checksumManager.stopTracking(CONTAINER_ID).isPresent());
+    assertEquals(0, checksumManager.getMetrics().getIncrementalMerkleTreeWrites());
+  }
+
+  @Test
+  public void testIncrementalTreeDisabled() {
+    checksumManager.stop();
+    OzoneConfiguration conf = new OzoneConfiguration();
+    DatanodeConfiguration dnConf = conf.getObject(DatanodeConfiguration.class);
+    dnConf.setContainerChecksumIncrementalTreeEnabled(false);
+    conf.setFromObject(dnConf);
+    checksumManager = new ContainerChecksumTreeManager(conf);
+
+    checksumManager.startTracking(CONTAINER_ID);
+    assertFalse(checksumManager.isTracked(CONTAINER_ID));
+  }
+
+  @Test
+  public void testUnchangedTreeIsNotRewritten() throws Exception {
+    ContainerMerkleTreeWriter tree = buildTestTree(config);
+    checksumManager.writeContainerDataTree(container, tree);
+    long writes = checksumManager.getMetrics().getWriteContainerMerkleTreeLatencyNS().lastStat().numSamples();
+    assertEquals(0, checksumManager.getMetrics().getMerkleTreeWriteSkipped());
+
+    ContainerProtos.ContainerChecksumInfo checksumInfo = checksumManager.writeContainerDataTree(container, tree);
+    assertEquals(1, checksumManager.getMetrics().getMerkleTreeWriteSkipped());
+    assertEquals(writes, checksumManager.getMetrics().getWriteContainerMerkleTreeLatencyNS().lastStat().numSamples());
+    assertTreesSortedAndMatch(tree.toProto(), checksumInfo.getContainerMerkleTree());
+    assertTreesSortedAndMatch(tree.toProto(), readChecksumFile(container).getContainerMerkleTree());
+
+    // A different tree is written.
+    ContainerMerkleTreeWriter otherTree = buildTestTree(config, 2);
+    checksumManager.writeContainerDataTree(container, otherTree);
+    assertEquals(1, checksumManager.getMetrics().getMerkleTreeWriteSkipped());
+    assertTreesSortedAndMatch(otherTree.toProto(), readChecksumFile(container).getContainerMerkleTree());
+  }
+
   @Test
   public void testChecksumTreeFilePath() {
     assertEquals(checksumFile.getAbsolutePath(),
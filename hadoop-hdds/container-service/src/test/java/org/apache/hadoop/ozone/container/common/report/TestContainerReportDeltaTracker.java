@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.container.common.report;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Arrays;
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
+import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.ContainerReplicaProto;
+import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.ContainerReplicaProto.State;
+import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.ContainerReportsProto;
+import org.apache.hadoop.ozone.container.common.statemachine.DatanodeConfiguration;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for {@link ContainerReportDeltaTracker}.
+ */
+public class TestContainerReportDeltaTracker {
+
+  private static ContainerReplicaProto replica(long id, State state,
+      long keyCount) {
+    return ContainerReplicaProto.newBuilder()
+        .setContainerID(id)
+        .setState(state)
+        .setKeyCount(keyCount)
+        .setUsed(keyCount * 100)
+        .setReadCount(0)
+        .build();
+  }
+
+  private static ContainerReportsProto report(ContainerReplicaProto... r) {
+    return ContainerReportsProto.newBuilder()
+        .addAllReports(Arrays.asList(r))
+        .build();
+  }
+
+  private static ContainerReportDeltaTracker newTracker(boolean enabled,
+      int max) {
+    DatanodeConfiguration conf =
+        new OzoneConfiguration().getObject(DatanodeConfiguration.class);
+    conf.setContainerReportDeltaEnabled(enabled);
+    conf.setContainerReportDeltaMax(max);
+    return new ContainerReportDeltaTracker(conf);
+  }
+
+  @Test
+  public void testDeltaReports() {
+    ContainerReportDeltaTracker tracker = newTracker(true, 2);
+    ContainerReportsProto first = report(
+        replica(1, State.CLOSED, 10),
+        replica(2, State.CLOSED, 10),
+        replica(3, State.OPEN, 10));
+    // the first report is always full
+    assertSame(first, tracker.encode(first));
+
+    // unchanged CLOSED replicas are listed by ID only, even if only I/O
+    // statistics changed, other replicas are always included
+    ContainerReplicaProto changed = replica(2, State.CLOSED, 11);
+    ContainerReplicaProto added = replica(4, State.CLOSED, 1);
+    ContainerReportsProto delta = tracker.encode(report(
+        replica(1, State.CLOSED, 10).toBuilder().setReadCount(5).build(),
+        changed, replica(3, State.OPEN, 10), added));
+    assertEquals(Arrays.asList(1L), delta.getUnchangedContainerIdsList());
+    assertThat(delta.getReportsList())
+        .containsExactly(changed, replica(3, State.OPEN, 10), added);
+
+    ContainerReportsProto second = report(replica(1, State.CLOSED, 10),
+        changed, added);
+    assertEquals(Arrays.asList(1L, 2L, 4L),
+        tracker.encode(second).getUnchangedContainerIdsList());
+
+    // at most two delta reports in a row
+    assertSame(second, tracker.encode(second));
+    assertEquals(3, tracker.encode(second).getUnchangedContainerIdsCount());
+
+    // a requested full report
+    tracker.requestFullReport();
+    assertSame(second, tracker.encode(second));
+  }
+
+  @Test
+  public void testDisabled() {
+    ContainerReportDeltaTracker tracker = newTracker(false, 2);
+    ContainerReportsProto report = report(replica(1, State.CLOSED, 10));
+    assertSame(report, tracker.encode(report));
+    assertSame(report, tracker.encode(report));
+  }
+
+  @Test
+  public void testEmptyReplicaIsAlwaysIncluded() {
+    ContainerReportDeltaTracker tracker = newTracker(true, 2);
+    ContainerReplicaProto empty = replica(1, State.CLOSED, 0).toBuilder()
+        .setIsEmpty(true).build();
+    tracker.encode(report(empty));
+    ContainerReportsProto delta = tracker.encode(report(empty));
+    assertEquals(0, delta.getUnchangedContainerIdsCount());
+    assertThat(delta.getReportsList()).containsExactly(empty);
+  }
+}
@@ -24,10 +24,13 @@
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -36,6 +39,7 @@
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicLong;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.hadoop.fs.StorageType;
 import org.apache.hadoop.hdds.conf.OzoneConfiguration;
 import org.apache.hadoop.hdds.conf.StorageSize;
@@ -594,6 +598,34 @@ public void testVolumeUsagesMetrics() throws Exception {
     volume.shutdown();
   }
 
+  @Test
+  public void testIOScheduler() throws Exception {
+    HddsVolume volume = volumeBuilder.build();
+    assertNull(volume.getIOScheduler());
+    InputStream in = new ByteArrayInputStream(new byte[10]);
+    assertSame(in, VolumeIOScheduler.throttle(volume,
+        VolumeIOScheduler.IOClass.REPLICATION, in));
+    volume.shutdown();
+
+    OzoneConfiguration conf = new OzoneConfiguration(CONF);
+    conf.setBoolean("hdds.datanode.volume.io.scheduler.enabled", true);
+    volume = volumeBuilder.conf(conf).build();
+    VolumeIOScheduler scheduler = volume.getIOScheduler();
+    assertNotNull(scheduler);
+    try (InputStream throttled = VolumeIOScheduler.throttle(volume,
+        VolumeIOScheduler.IOClass.REPLICATION,
+        new ByteArrayInputStream(new byte[1024]))) {
+      assertEquals(1024, IOUtils.toByteArray(throttled).length);
+    }
+    VolumeIOScheduler.throttle(volume, VolumeIOScheduler.IOClass.DELETION,
+        VolumeIOScheduler.DELETE_BLOCK_COST);
+    assertEquals(1024, scheduler.getMetrics()
+        .getBytes(VolumeIOScheduler.IOClass.REPLICATION));
+    assertEquals(VolumeIOScheduler.DELETE_BLOCK_COST, scheduler.getMetrics()
+        .getBytes(VolumeIOScheduler.IOClass.DELETION));
+    volume.shutdown();
+  }
+
   private MutableVolumeSet createDbVolumeSet() throws IOException {
     File dbVolumeDir = Files.createDirectory(folder.resolve("NewDir")).toFile();
     CONF.set(OzoneConfigKeys.HDDS_DATANODE_CONTAINER_DB_DIR,
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.container.common.volume;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.UUID;
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
+import org.apache.hadoop.ozone.container.common.statemachine.DatanodeConfiguration;
+import org.apache.hadoop.ozone.container.common.volume.VolumeIOScheduler.IOClass;
+import org.apache.hadoop.util.Time;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link VolumeIOScheduler}.
+ */
+public class TestVolumeIOScheduler {
+
+  private static final long MB = 1024 * 1024;
+  private static final long INTERVAL_MS = 1000;
+
+  private VolumeIOStats stats;
+  private VolumeIOScheduler scheduler;
+  private long now;
+
+  @BeforeEach
+  public void setup() {
+    DatanodeConfiguration conf = new OzoneConfiguration().getObject(DatanodeConfiguration.class);
+    conf.setVolumeIOSchedulerBandwidthMax(100 * MB);
+    conf.setVolumeIOSchedulerBandwidthMin(10 * MB);
+    conf.setVolumeIOSchedulerLatencyTarget(Duration.ofMillis(20));
+    conf.setVolumeIOSchedulerAdjustInterval(Duration.ofMillis(INTERVAL_MS));
+    String id = UUID.randomUUID().toString();
+    stats = new VolumeIOStats(id, id, new int[] {60});
+    scheduler = new VolumeIOScheduler(id, stats, conf);
+    now = Time.monotonicNow();
+  }
+
+  @AfterEach
+  public void cleanup() {
+    scheduler.shutdown();
+    stats.unregister();
+  }
+
+  @Test
+  public void testBandwidthFollowsForegroundLatency() {
+    assertEquals(100 * MB, scheduler.getBandwidth());
+
+    // Slow foreground I/O halves the bandwidth down to the minimum.
+    addForegroundReads(10, 100);
+    adjust();
+    assertEquals(50 * MB, scheduler.getBandwidth());
+    assertEquals(100, scheduler.getMetrics().getForegroundLatency());
+    addForegroundReads(10, 100);
+    adjust();
+    addForegroundReads(10, 100);
+    adjust();
+    addForegroundReads(10, 100);
+    adjust();
+    assertEquals(10 * MB, scheduler.getBandwidth());
+    assertEquals(4, scheduler.getMetrics().getNumBandwidthReductions());
+
+    // Without foreground I/O or with fast foreground I/O, the bandwidth is increased again.
+    adjust();
+    assertEquals(10 * MB + 100 * MB / 8, scheduler.getBandwidth());
+    addForegroundReads(10, 5);
+    adjust();
+    assertEquals(10 * MB + 2 * (100 * MB / 8), scheduler.getBandwidth());
+    for (int i = 0; i < 10; i++) {
+      adjust();
+    }
+    assertEquals(100 * MB, scheduler.getBandwidth());
+    assertEquals(100 * MB, scheduler.getMetrics().getBandwidth());
+  }
+
+  @Test
+  public void testBandwidthSharedByActiveClasses() {
+    // Before any background I/O, each class may use the whole bandwidth.
+    for (IOClass ioClass : IOClass.values()) {
+      assertEquals(100 * MB, scheduler.getBandwidth(ioClass));
+    }
+
+    scheduler.throttle(IOClass.REPLICATION, 10 * MB, null);
+    scheduler.throttle(IOClass.SCANNER, 1 * MB, null);
+    adjust();
+
+    // All classes draw from the bandwidth of the volume, lower priority classes at a higher cost while higher
+    // priority classes are active. An idle class gets the bandwidth it would have if it became active.
+    assertEquals(100 * MB, scheduler.getBandwidth(IOClass.REPLICATION));
+    assertEquals(100 * MB / 4, scheduler.getBandwidth(IOClass.SCANNER));
+    assertEquals(100 * MB / 2, scheduler.getBandwidth(IOClass.DELETION));
+    assertEquals(100 * MB / 4, scheduler.getMetrics().getClassBandwidth(IOClass.SCANNER));
+
+    VolumeIOSchedulerMetrics metrics = scheduler.getMetrics();
+    assertEquals(10 * MB, metrics.getBytes(IOClass.REPLICATION));
+    assertEquals(1 * MB, metrics.getBytes(IOClass.SCANNER));
+    assertEquals(0, metrics.getBytes(IOClass.DELETION));
+    // 10MB were used of the 100MB allowed in the last interval.
+    assertThat(metrics.getUtilization(IOClass.REPLICATION)).isBetween(9, 10);
+    assertEquals(0, metrics.getUtilization(IOClass.DELETION));
+
+    // Once the higher priority classes are idle, a lower priority class can use the whole bandwidth again.
+    scheduler.throttle(IOClass.SCANNER, 1 * MB, null);
+    adjust();
+    assertEquals(100 * MB, scheduler.getBandwidth(IOClass.SCANNER));
+    assertEquals(100 * MB, scheduler.getBandwidth(IOClass.REPLICATION));
+
+    // The bandwidth of the volume limits all classes together.
+    addForegroundReads(10, 100);
+    adjust();
+    assertEquals(50 * MB, scheduler.getBandwidth(IOClass.REPLICATION));
+    assertEquals(50 * MB, scheduler.getBandwidth(IOClass.SCANNER));
+  }
+
+  private void addForegroundReads(int count, long latencyMs) {
+    for (int i = 0; i < count; i++) {
+      stats.incReadOpCount();
+      stats.incReadTime(latencyMs);
+    }
+  }
+
+  private void adjust() {
+    now += INTERVAL_MS;
+    scheduler.adjust(now);
+  }
+}
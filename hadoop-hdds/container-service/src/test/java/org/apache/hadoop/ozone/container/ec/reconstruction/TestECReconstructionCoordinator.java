@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.container.ec.reconstruction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.hadoop.hdds.client.BlockID;
+import org.apache.hadoop.hdds.client.ECReplicationConfig;
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
+import org.apache.hadoop.hdds.protocol.DatanodeDetails;
+import org.apache.hadoop.hdds.scm.OzoneClientConfig;
+import org.apache.hadoop.hdds.scm.storage.BlockLocationInfo;
+import org.apache.hadoop.ozone.container.common.helpers.BlockData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link ECReconstructionCoordinator}.
+ */
+public class TestECReconstructionCoordinator {
+
+  private static final int CONCURRENCY = 3;
+  private static final int BLOCK_GROUPS = 20;
+
+  private final ECReplicationConfig repConfig = new ECReplicationConfig(3, 2);
+  private final SortedMap<Integer, DatanodeDetails> targets = new TreeMap<>();
+  private final SortedMap<Long, BlockLocationInfo> blockLocationInfoMap =
+      new TreeMap<>();
+  private final SortedMap<Long, BlockData[]> blockDataMap = new TreeMap<>();
+  private ECReconstructionMetrics metrics;
+
+  @BeforeEach
+  void setup() {
+    metrics = ECReconstructionMetrics.create();
+    for (long localID = 1; localID <= BLOCK_GROUPS; localID++) {
+      blockLocationInfoMap.put(localID, new BlockLocationInfo.Builder()
+          .setBlockID(new BlockID(1, localID))
+          .setLength(1024)
+          .build());
+      blockDataMap.put(localID, new BlockData[repConfig.getRequiredNodes()]);
+    }
+  }
+
+  @AfterEach
+  void cleanup() {
+    metrics.unRegister();
+  }
+
+  @Test
+  void reconstructsBlockGroupsConcurrently() throws IOException {
+    try (RecordingCoordinator coordinator =
+             new RecordingCoordinator(CONCURRENCY, -1)) {
+      coordinator.reconstructECBlockGroups(blockLocationInfoMap, blockDataMap,
+          repConfig, targets);
+
+      assertEquals(blockLocationInfoMap.keySet(), coordinator.reconstructed);
+      assertTrue(coordinator.maxRunning.get() > 1);
+      assertTrue(coordinator.maxRunning.get() <= CONCURRENCY);
+    }
+  }
+
+  @Test
+  void reconstructsBlockGroupsSequentially() throws IOException {
+    try (RecordingCoordinator coordinator = new RecordingCoordinator(1, -1)) {
+      coordinator.reconstructECBlockGroups(blockLocationInfoMap, blockDataMap,
+          repConfig, targets);
+
+      assertEquals(blockLocationInfoMap.keySet(), coordinator.reconstructed);
+      assertEquals(1, coordinator.maxRunning.get());
+    }
+  }
+
+  @Test
+  void stopsAfterFailedBlockGroup() throws IOException {
+    try (RecordingCoordinator coordinator =
+             new RecordingCoordinator(CONCURRENCY, 5)) {
+      IOException e = assertThrows(IOException.class,
+          () -> coordinator.reconstructECBlockGroups(blockLocationInfoMap,
+              blockDataMap, repConfig, targets));
+
+      assertSame(coordinator.failure, e);
+      assertFalse(coordinator.reconstructed.contains((long) BLOCK_GROUPS));
+      assertEquals(0, coordinator.running.get());
+    }
+  }
+
+  /**
+   * Records the block groups it is asked to reconstruct, instead of
+   * reconstructing them.
+   */
+  private final class RecordingCoordinator
+      extends ECReconstructionCoordinator {
+
+    private final long failingLocalID;
+    private final IOException failure = new IOException("injected");
+    private final Set<Long> reconstructed = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+
+    RecordingCoordinator(int concurrency, long failingLocalID)
+        throws IOException {
+      super(createConf(concurrency), null, null, null, metrics, "");
+      this.failingLocalID = failingLocalID;
+    }
+
+    @Override
+    public void reconstructECBlockGroup(BlockLocationInfo blockLocationInfo,
+        ECReplicationConfig config, SortedMap<Integer, DatanodeDetails> map,
+        BlockData[] blockDataGroup) throws IOException {
+      long localID = blockLocationInfo.getBlockID().getLocalID();
+      maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+      try {
+        Thread.sleep(20);
+        if (localID == failingLocalID) {
+          throw failure;
+        }
+        reconstructed.add(localID);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException(e);
+      } finally {
+        running.decrementAndGet();
+      }
+    }
+  }
+
+  private static OzoneConfiguration createConf(int concurrency) {
+    OzoneConfiguration conf = new OzoneConfiguration();
+    OzoneClientConfig clientConfig = conf.getObject(OzoneClientConfig.class);
+    clientConfig.setEcReconstructBlockGroupConcurrency(concurrency);
+    conf.setFromObject(clientConfig);
+    return conf;
+  }
+}
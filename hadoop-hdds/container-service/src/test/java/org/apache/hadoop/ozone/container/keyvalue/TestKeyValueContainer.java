@@ -24,6 +24,7 @@
 import static org.apache.hadoop.ozone.container.keyvalue.helpers.KeyValueContainerUtil.isSameSchemaVersion;
 import static org.apache.hadoop.ozone.container.replication.CopyContainerCompression.NO_COMPRESSION;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
@@ -46,8 +47,10 @@
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -90,8 +93,16 @@
 import org.apache.hadoop.ozone.container.keyvalue.helpers.KeyValueContainerUtil;
 import org.apache.hadoop.ozone.container.metadata.AbstractDatanodeStore;
 import org.apache.hadoop.ozone.container.metadata.DatanodeStore;
+import org.apache.hadoop.ozone.container.ozoneimpl.ContainerController;
+import org.apache.hadoop.ozone.container.replication.ContainerImporter;
+import org.apache.hadoop.ozone.container.replication.ContainerStreamingDestination;
+import org.apache.hadoop.ozone.container.replication.ContainerStreamingSource;
 import org.apache.hadoop.ozone.container.replication.CopyContainerCompression;
+import org.apache.hadoop.ozone.container.stream.StreamingClient;
+import org.apache.hadoop.ozone.container.stream.StreamingException;
+import org.apache.hadoop.ozone.container.stream.StreamingServer;
 import org.apache.hadoop.util.DiskChecker;
+import org.apache.ozone.test.GenericTestUtils;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -427,6 +438,127 @@ public void testContainerImportExport(ContainerTestVersionInfo versionInfo)
     }
   }
 
+  @ContainerTestVersionInfo.ContainerTest
+  public void testContainerStagedExport(ContainerTestVersionInfo versionInfo)
+      throws Exception {
+    init(versionInfo);
+    long containerId = keyValueContainer.getContainerData().getContainerID();
+    createContainer();
+    long numberOfKeysToWrite = 12;
+    closeContainer();
+    populate(numberOfKeysToWrite);
+    byte[] chunkContent = "chunk data".getBytes(StandardCharsets.UTF_8);
+    Files.write(Paths.get(keyValueContainerData.getChunksPath(), "1.block"),
+        chunkContent);
+
+    // the archive is written from the staged files
+    Path stagingDir = folder.toPath().resolve("staged");
+    keyValueContainer.exportContainerFiles(stagingDir);
+    TarContainerPacker packer = new TarContainerPacker(NO_COMPRESSION);
+    File exported = folder.toPath().resolve("export.tar").toFile();
+    try (OutputStream fos = Files.newOutputStream(exported.toPath())) {
+      packer.packStagedFiles(keyValueContainerData, stagingDir, fos);
+    }
+
+    KeyValueContainerUtil.removeContainer(
+        keyValueContainer.getContainerData(), CONF);
+    keyValueContainer.delete();
+
+    KeyValueContainerData containerData =
+        new KeyValueContainerData(containerId,
+            keyValueContainerData.getLayoutVersion(),
+            keyValueContainerData.getMaxSize(), UUID.randomUUID().toString(),
+            datanodeId.toString());
+    containerData.setSchemaVersion(keyValueContainerData.getSchemaVersion());
+    KeyValueContainer container = new KeyValueContainer(containerData, CONF);
+    container.populatePathFields(scmId, keyValueContainerData.getVolume());
+    try (InputStream fis = Files.newInputStream(exported.toPath())) {
+      container.importContainerData(fis, packer);
+    }
+
+    assertEquals("value1", containerData.getMetadata().get("key1"));
+    assertEquals(keyValueContainerData.getState(), containerData.getState());
+    assertEquals(numberOfKeysToWrite, containerData.getBlockCount());
+    assertArrayEquals(chunkContent, Files.readAllBytes(
+        Paths.get(containerData.getChunksPath(), "1.block")));
+  }
+
+  @ContainerTestVersionInfo.ContainerTest
+  public void testContainerStreamingImport(ContainerTestVersionInfo versionInfo)
+      throws Exception {
+    init(versionInfo);
+    long containerId = keyValueContainer.getContainerData().getContainerID();
+    createContainer();
+    long numberOfKeysToWrite = 12;
+    closeContainer();
+    populate(numberOfKeysToWrite);
+    byte[] chunkContent = "chunk data".getBytes(StandardCharsets.UTF_8);
+    Files.write(Paths.get(keyValueContainerData.getChunksPath(), "1.block"),
+        chunkContent);
+
+    HddsVolume volume = keyValueContainerData.getVolume();
+    Path containerDir = ContainerImporter.getUntarDirectory(volume)
+        .resolve(String.valueOf(containerId));
+    Path descriptorFile = folder.toPath().resolve("descriptor.yaml");
+    ContainerController controller = mock(ContainerController.class);
+    when(controller.getContainer(containerId)).thenReturn(keyValueContainer);
+
+    ContainerStreamingSource source = new ContainerStreamingSource(controller, 1);
+    try (StreamingServer server = new StreamingServer(source, 0)) {
+      server.start();
+      try (StreamingClient client = new StreamingClient("localhost",
+          server.getPort(),
+          new ContainerStreamingDestination(containerDir, descriptorFile))) {
+        client.stream(String.valueOf(containerId));
+      }
+    }
+    // staged files are removed after streaming
+    Path stagingDir = ContainerStreamingSource.getStagingDirectory(volume);
+    GenericTestUtils.waitFor(() -> {
+      try (Stream<Path> files = Files.list(stagingDir)) {
+        return files.count() == 0;
+      } catch (IOException e) {
+        return false;
+      }
+    }, 100, 5000);
+
+    // the number of containers exported at a time is limited
+    Map<String, Path> exported =
+        source.getFilesToStream(String.valueOf(containerId));
+    assertThrows(StreamingException.class,
+        () -> source.getFilesToStream(String.valueOf(containerId)));
+    source.streamingFinished(String.valueOf(containerId), exported);
+    source.streamingFinished(String.valueOf(containerId),
+        source.getFilesToStream(String.valueOf(containerId)));
+    try (Stream<Path> files = Files.list(stagingDir)) {
+      assertEquals(0, files.count());
+    }
+
+    //delete the original one
+    KeyValueContainerUtil.removeContainer(
+        keyValueContainer.getContainerData(), CONF);
+    keyValueContainer.delete();
+
+    KeyValueContainerData containerData =
+        new KeyValueContainerData(containerId,
+            keyValueContainerData.getLayoutVersion(),
+            keyValueContainerData.getMaxSize(), UUID.randomUUID().toString(),
+            datanodeId.toString());
+    containerData.setSchemaVersion(keyValueContainerData.getSchemaVersion());
+    KeyValueContainer container = new KeyValueContainer(containerData, CONF);
+    container.populatePathFields(scmId, volume);
+    try (InputStream fis = Files.newInputStream(descriptorFile)) {
+      container.importContainerData(fis, new StreamedContainerUnpacker(CONF));
+    }
+
+    assertEquals("value1", containerData.getMetadata().get("key1"));
+    assertEquals(keyValueContainerData.getState(), containerData.getState());
+    assertEquals(numberOfKeysToWrite, containerData.getBlockCount());
+    assertArrayEquals(chunkContent, Files.readAllBytes(
+        Paths.get(containerData.getChunksPath(), "1.block")));
+    assertFalse(Files.exists(containerDir));
+  }
+
   private void checkContainerFilesPresent(KeyValueContainerData data,
       long expectedNumFilesInChunksDir) throws IOException {
     File chunksDir = new File(data.getChunksPath());
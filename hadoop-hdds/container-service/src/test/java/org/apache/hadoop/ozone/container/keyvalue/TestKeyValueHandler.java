@@ -26,6 +26,7 @@
 import static org.apache.hadoop.hdds.scm.ScmConfigKeys.OZONE_SCM_CONTAINER_LAYOUT_KEY;
 import static org.apache.hadoop.ozone.OzoneConsts.GB;
 import static org.apache.hadoop.ozone.container.checksum.ContainerMerkleTreeTestUtils.assertTreesSortedAndMatch;
+import static org.apache.hadoop.ozone.container.checksum.ContainerMerkleTreeTestUtils.buildChunk;
 import static org.apache.hadoop.ozone.container.checksum.ContainerMerkleTreeTestUtils.buildTestTree;
 import static org.apache.hadoop.ozone.container.common.ContainerTestUtils.createBlockMetaData;
 import static org.apache.hadoop.ozone.container.common.impl.ContainerImplTestUtils.newContainerSet;
@@ -51,9 +52,11 @@
 import com.google.common.collect.Sets;
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Clock;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
@@ -66,6 +69,7 @@
 import org.apache.commons.io.FileUtils;
 import org.apache.hadoop.conf.StorageUnit;
 import org.apache.hadoop.fs.FileUtil;
+import org.apache.hadoop.hdds.client.BlockID;
 import org.apache.hadoop.hdds.conf.OzoneConfiguration;
 import org.apache.hadoop.hdds.protocol.DatanodeDetails;
 import org.apache.hadoop.hdds.protocol.MockDatanodeDetails;
@@ -695,6 +699,64 @@ public void testUpdateContainerChecksum(ContainerLayoutVersion layoutVersion) th
     assertTreesSortedAndMatch(treeWriter.toProto(), checksumInfo.getContainerMerkleTree());
   }
 
+  @Test
+  public void testIncrementalContainerChecksumOnClose() throws Exception {
+    final long containerID = 1L;
+    conf = new OzoneConfiguration();
+    final ContainerSet containerSet = newContainerSet();
+    final MutableVolumeSet volumeSet = mock(MutableVolumeSet.class);
+    HddsVolume hddsVolume = new HddsVolume.Builder(tempDir.toString()).conf(conf)
+        .clusterID(CLUSTER_ID).datanodeUuid(DATANODE_UUID)
+        .volumeSet(volumeSet)
+        .build();
+    hddsVolume.format(CLUSTER_ID);
+    hddsVolume.createWorkingDir(CLUSTER_ID, null);
+    hddsVolume.createTmpDirs(CLUSTER_ID);
+    when(volumeSet.getVolumesList()).thenReturn(Collections.singletonList(hddsVolume));
+
+    ContainerChecksumTreeManager checksumManager = new ContainerChecksumTreeManager(conf);
+    final KeyValueHandler kvHandler = new KeyValueHandler(conf, DATANODE_UUID, containerSet, volumeSet,
+        ContainerMetrics.create(conf), c -> { }, checksumManager);
+    kvHandler.setClusterID(CLUSTER_ID);
+
+    kvHandler.handleCreateContainer(createContainerRequest(DATANODE_UUID, containerID), null);
+    KeyValueContainer container = (KeyValueContainer) containerSet.getContainer(containerID);
+
+    ContainerMerkleTreeWriter expectedTree = new ContainerMerkleTreeWriter();
+    for (long localID = 1; localID <= 3; localID++) {
+      List<ContainerProtos.ChunkInfo> chunks = new ArrayList<>();
+      for (int i = 0; i < 2; i++) {
+        chunks.add(buildChunk(conf, i, ByteBuffer.wrap(new byte[]{(byte) localID, (byte) i})));
+      }
+      ContainerProtos.BlockData blockData = ContainerProtos.BlockData.newBuilder()
+          .setBlockID(new BlockID(containerID, localID).getDatanodeBlockIDProtobuf())
+          .addAllChunks(chunks)
+          .build();
+      ContainerCommandRequestProto putBlock = ContainerCommandRequestProto.newBuilder()
+          .setCmdType(ContainerProtos.Type.PutBlock)
+          .setContainerID(containerID)
+          .setDatanodeUuid(DATANODE_UUID)
+          .setPutBlock(ContainerProtos.PutBlockRequestProto.newBuilder()
+              .setBlockData(blockData)
+              .setEof(false))
+          .build();
+      assertEquals(ContainerProtos.Result.SUCCESS,
+          kvHandler.handlePutBlock(putBlock, container, null).getResult());
+      expectedTree.addBlock(localID);
+      expectedTree.addChunks(localID, true, chunks);
+    }
+
+    kvHandler.markContainerForClose(container);
+    kvHandler.closeContainer(container);
+
+    // The tree maintained on the write path was used instead of reading the block metadata.
+    assertEquals(1, checksumManager.getMetrics().getIncrementalMerkleTreeWrites());
+    ContainerProtos.ContainerChecksumInfo checksumInfo = checksumManager.read(container.getContainerData());
+    assertTreesSortedAndMatch(expectedTree.toProto(), checksumInfo.getContainerMerkleTree());
+    assertEquals(expectedTree.toProto().getDataChecksum(), container.getContainerData().getDataChecksum());
+    checksumManager.stop();
+  }
+
   @Test
   public void testGetContainerChecksumInfoOnInvalidContainerStates() {
     when(handler.handleGetContainerChecksumInfo(any(), any())).thenCallRealMethod();
@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.container.keyvalue.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
+import org.apache.hadoop.ozone.common.ChunkBuffer;
+import org.apache.hadoop.ozone.container.common.helpers.ContainerMetrics;
+import org.apache.ratis.thirdparty.com.google.protobuf.ByteString;
+import org.apache.ratis.thirdparty.com.google.protobuf.UnsafeByteOperations;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link ChunkReadCache}.
+ */
+public class TestChunkReadCache {
+
+  private static final int CHUNK_SIZE = 1024;
+  private static final int MAX_ENTRIES = 100;
+
+  private ContainerMetrics metrics;
+  private ChunkReadCache cache;
+
+  @BeforeEach
+  public void setup() {
+    metrics = ContainerMetrics.create(new OzoneConfiguration());
+    // the window holds a single chunk, the main region MAX_ENTRIES chunks
+    cache = new ChunkReadCache(MAX_ENTRIES * CHUNK_SIZE + 1200, 8192, 1, metrics);
+  }
+
+  @AfterEach
+  public void cleanup() {
+    ContainerMetrics.remove();
+  }
+
+  @Test
+  public void testGetReturnsCopyOfData() {
+    ByteBuffer first = ByteBuffer.wrap(newData(100, (byte) 1));
+    ByteBuffer second = ByteBuffer.wrap(newData(50, (byte) 2));
+    ChunkBuffer data = ChunkBuffer.wrap(Arrays.asList(first, second));
+
+    assertNull(cache.get(1, 2, 0, 150));
+    cache.put(1, 2, 0, 150, cache.getGeneration(1, 2), data);
+    first.put(0, (byte) 9);
+
+    ChunkBuffer cached = cache.get(1, 2, 0, 150);
+    assertNotNull(cached);
+    List<ByteString> buffers = cached.toByteStringList(UnsafeByteOperations::unsafeWrap);
+    assertEquals(2, buffers.size());
+    assertEquals(ByteString.copyFrom(newData(100, (byte) 1)), buffers.get(0));
+    assertEquals(ByteString.copyFrom(newData(50, (byte) 2)), buffers.get(1));
+    // a cached chunk can be read more than once
+    assertEquals(150, cache.get(1, 2, 0, 150).remaining());
+
+    assertNull(cache.get(1, 2, 0, 100));
+    assertNull(cache.get(1, 2, 100, 150));
+    assertEquals(2, metrics.getChunkReadCacheHits());
+    assertEquals(3, metrics.getChunkReadCacheMisses());
+  }
+
+  @Test
+  public void testFrequentChunksSurviveScan() {
+    for (int i = 0; i < MAX_ENTRIES; i++) {
+      read(1, i);
+      read(1, i);
+      read(1, i);
+    }
+    assertEquals(MAX_ENTRIES, cache.getCount());
+
+    // chunks read only once do not replace the frequently read ones
+    for (int i = 0; i < 10 * MAX_ENTRIES; i++) {
+      read(2, i);
+    }
+    for (int i = 0; i < MAX_ENTRIES; i++) {
+      assertNotNull(cache.get(1, i, 0, CHUNK_SIZE));
+    }
+    assertEquals(MAX_ENTRIES + 1, cache.getCount());
+    assertEquals((MAX_ENTRIES + 1) * CHUNK_SIZE, cache.getSize());
+  }
+
+  @Test
+  public void testInvalidate() {
+    for (int i = 0; i < 3; i++) {
+      read(1, i);
+      read(2, i);
+    }
+    cache.invalidateBlock(1, 1);
+    assertNull(cache.get(1, 1, 0, CHUNK_SIZE));
+    assertNotNull(cache.get(1, 2, 0, CHUNK_SIZE));
+    assertNotNull(cache.get(2, 1, 0, CHUNK_SIZE));
+
+    cache.invalidateContainer(2);
+    for (int i = 0; i < 3; i++) {
+      assertNull(cache.get(2, i, 0, CHUNK_SIZE));
+    }
+    assertEquals(2, cache.getCount());
+  }
+
+  @Test
+  public void testPutAfterInvalidate() {
+    // the chunk is read before the block is overwritten, and added after
+    long generation = cache.getGeneration(1, 1);
+    assertNull(cache.get(1, 1, 0, CHUNK_SIZE));
+    cache.invalidateBlock(1, 1);
+    cache.put(1, 1, 0, CHUNK_SIZE, generation, newChunk());
+    assertNull(cache.get(1, 1, 0, CHUNK_SIZE));
+
+    generation = cache.getGeneration(1, 2);
+    cache.invalidateContainer(1);
+    cache.put(1, 2, 0, CHUNK_SIZE, generation, newChunk());
+    assertNull(cache.get(1, 2, 0, CHUNK_SIZE));
+
+    // reads after the invalidation are cached
+    read(1, 1);
+    assertNotNull(cache.get(1, 1, 0, CHUNK_SIZE));
+    assertEquals(1, cache.getCount());
+  }
+
+  @Test
+  public void testConcurrentReadsAndInvalidations() throws Exception {
+    cache = new ChunkReadCache(MAX_ENTRIES * CHUNK_SIZE * 4, 8192, 4, metrics);
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      final List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < 4; t++) {
+        final long containerId = t;
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < 10 * MAX_ENTRIES; i++) {
+            read(containerId, i % 20);
+            if (i % 7 == 0) {
+              cache.invalidateBlock(containerId, i % 20);
+            }
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get(1, TimeUnit.MINUTES);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    for (long c = 0; c < 4; c++) {
+      cache.invalidateContainer(c);
+    }
+    assertEquals(0, cache.getCount());
+    assertEquals(0, cache.getSize());
+  }
+
+  /** Read a chunk through the cache. */
+  private void read(long containerId, long localId) {
+    final long generation = cache.getGeneration(containerId, localId);
+    if (cache.get(containerId, localId, 0, CHUNK_SIZE) == null) {
+      cache.put(containerId, localId, 0, CHUNK_SIZE, generation,
+          newChunk());
+    }
+  }
+
+  private static ChunkBuffer newChunk() {
+    return ChunkBuffer.wrap(ByteBuffer.wrap(newData(CHUNK_SIZE, (byte) 0)));
+  }
+
+  private static byte[] newData(int length, byte value) {
+    byte[] data = new byte[length];
+    Arrays.fill(data, value);
+    return data;
+  }
+}
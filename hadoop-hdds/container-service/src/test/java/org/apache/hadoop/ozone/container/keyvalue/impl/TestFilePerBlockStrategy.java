@@ -20,16 +20,22 @@
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.apache.hadoop.hdds.HddsConfigKeys.OZONE_METADATA_DIRS;
 import static org.apache.hadoop.hdds.scm.ScmConfigKeys.HDDS_DATANODE_DIR_KEY;
+import static org.apache.hadoop.hdds.scm.ScmConfigKeys.OZONE_CHUNK_READ_MAPPED_BUFFER_MAX_COUNT_KEY;
+import static org.apache.hadoop.hdds.scm.ScmConfigKeys.OZONE_CHUNK_READ_MAPPED_BUFFER_THRESHOLD_KEY;
+import static org.apache.hadoop.hdds.scm.ScmConfigKeys.OZONE_CHUNK_READ_MAPPED_CLOSED_CONTAINER_KEY;
 import static org.apache.hadoop.ozone.container.ContainerTestHelper.getChunk;
 import static org.apache.hadoop.ozone.container.ContainerTestHelper.setDataChecksum;
 import static org.apache.hadoop.ozone.container.common.ContainerTestUtils.WRITE_STAGE;
 import static org.apache.hadoop.ozone.container.common.impl.ContainerImplTestUtils.newContainerSet;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.MessageDigest;
@@ -162,6 +168,39 @@ public void testPartialRead() throws Exception {
     assertEquals(data.rewind().toByteString().substring(start, start + length), readData2.toByteString());
   }
 
+  /**
+   * Chunks of closed containers are read using mapped buffers if enabled.
+   */
+  @Test
+  public void testReadMappedClosedContainer() throws Exception {
+    final int datalen = 64 * 1024;
+    OzoneConfiguration conf = new OzoneConfiguration();
+    conf.setBoolean(OZONE_CHUNK_READ_MAPPED_CLOSED_CONTAINER_KEY, true);
+    conf.setInt(OZONE_CHUNK_READ_MAPPED_BUFFER_MAX_COUNT_KEY, 16);
+    // not reached by the reads of open containers
+    conf.set(OZONE_CHUNK_READ_MAPPED_BUFFER_THRESHOLD_KEY, "1MB");
+    ChunkManager subject = new FilePerBlockStrategy(true,
+        new BlockManagerImpl(conf));
+
+    KeyValueContainer container = getKeyValueContainer();
+    BlockID blockID = getBlockID();
+    ChunkInfo info = getChunk(blockID.getLocalID(), 0, 0, datalen);
+    ChunkBuffer data = ContainerTestHelper.getData(datalen);
+    setDataChecksum(info, data);
+    subject.writeChunk(container, blockID, info, data, WRITE_STAGE);
+    subject.finishWriteChunks(container, new BlockData(blockID));
+
+    ChunkBufferToByteString readData = subject.readChunk(container, blockID, info, null);
+    assertFalse(((ChunkBuffer) readData).asByteBufferList().stream()
+        .anyMatch(b -> b instanceof MappedByteBuffer));
+
+    container.getContainerData().setState(ContainerProtos.ContainerDataProto.State.CLOSED);
+    readData = subject.readChunk(container, blockID, info, null);
+    assertTrue(((ChunkBuffer) readData).asByteBufferList().stream()
+        .allMatch(b -> b instanceof MappedByteBuffer));
+    assertEquals(data.rewind().toByteString(), readData.toByteString());
+  }
+
   @ParameterizedTest
   @MethodSource("getNonClosedStates")
   public void testWriteChunkAndPutBlockFailureForNonClosedContainer(
@@ -41,6 +41,7 @@
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
 import org.apache.hadoop.conf.StorageUnit;
 import org.apache.hadoop.hdds.client.BlockID;
 import org.apache.hadoop.hdds.conf.OzoneConfiguration;
@@ -562,6 +563,74 @@ private void setBlockCommitSequence(KeyValueContainerData cData, long val)
     cData.updateBlockCommitSequenceId(val);
   }
 
+  @ContainerTestVersionInfo.ContainerTest
+  public void testContainerIndex(ContainerTestVersionInfo versionInfo)
+      throws Exception {
+    setLayoutAndSchemaVersion(versionInfo);
+    setup(versionInfo);
+    File indexFile = new File(new File(hddsVolume.getHddsRootDir(),
+        clusterId), ContainerIndex.FILE_NAME);
+    LogCapturer dnLogs = LogCapturer.captureLogs(ContainerReader.class);
+
+    // no index yet, all containers are parsed and then indexed
+    ContainerSet set1 = readVolumeWithIndex(dnLogs, 0, 2);
+    assertEquals(2, ContainerIndex.read(indexFile).size());
+
+    // load in a fork/join pool, containers come from the index
+    ContainerSet set2 = newContainerSet();
+    ForkJoinPool pool = new ForkJoinPool(2);
+    try {
+      dnLogs.clearOutput();
+      pool.submit(new ContainerReader(volumeSet, hddsVolume, set2, conf,
+          true)).get();
+      assertThat(dnLogs.getOutput())
+          .contains("2 loaded from index, 0 loaded from .container files");
+    } finally {
+      pool.shutdown();
+    }
+    for (int i = 0; i < 2; i++) {
+      KeyValueContainerData expected = (KeyValueContainerData)
+          set1.getContainer(i).getContainerData();
+      KeyValueContainerData actual = (KeyValueContainerData)
+          set2.getContainer(i).getContainerData();
+      assertEquals(expected.getState(), actual.getState());
+      assertEquals(expected.getContainerFileChecksum(),
+          actual.getContainerFileChecksum());
+      assertEquals(expected.getMetadataPath(), actual.getMetadataPath());
+      assertEquals(expected.getChunksPath(), actual.getChunksPath());
+      assertEquals(expected.getSchemaVersion(), actual.getSchemaVersion());
+      assertEquals(expected.getOriginNodeId(), actual.getOriginNodeId());
+      assertEquals(expected.getBlockCount(), actual.getBlockCount());
+      assertEquals(expected.getBytesUsed(), actual.getBytesUsed());
+    }
+
+    // an updated .container file is parsed again
+    ((KeyValueContainer) set2.getContainer(0)).markContainerUnhealthy();
+    ContainerCache.getInstance(conf).shutdownCache();
+    ContainerSet set3 = readVolumeWithIndex(dnLogs, 1, 1);
+    assertEquals(UNHEALTHY, set3.getContainer(0).getContainerState());
+
+    // a corrupt index is ignored
+    byte[] bytes = Files.readAllBytes(indexFile.toPath());
+    bytes[bytes.length / 2] ^= 1;
+    Files.write(indexFile.toPath(), bytes);
+    assertEquals(0, ContainerIndex.read(indexFile).size());
+    readVolumeWithIndex(dnLogs, 0, 2);
+    assertEquals(2, ContainerIndex.read(indexFile).size());
+  }
+
+  private ContainerSet readVolumeWithIndex(LogCapturer logs,
+      int fromIndex, int fromFile) {
+    ContainerSet set = newContainerSet();
+    logs.clearOutput();
+    new ContainerReader(volumeSet, hddsVolume, set, conf, true)
+        .readVolume(hddsVolume.getHddsRootDir());
+    assertThat(logs.getOutput()).contains(fromIndex + " loaded from index, "
+        + fromFile + " loaded from .container files");
+    assertEquals(2, set.containerCount());
+    return set;
+  }
+
   @ContainerTestVersionInfo.ContainerTest
   public void testMarkedDeletedContainerCleared(
       ContainerTestVersionInfo versionInfo) throws Exception {
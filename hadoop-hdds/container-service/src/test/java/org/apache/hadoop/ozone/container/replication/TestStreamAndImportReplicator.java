@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.container.replication;
+
+import static org.apache.hadoop.ozone.container.common.impl.ContainerImplTestUtils.newContainerSet;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
+import org.apache.hadoop.hdds.protocol.DatanodeDetails;
+import org.apache.hadoop.hdds.scm.ScmConfigKeys;
+import org.apache.hadoop.ozone.container.common.impl.ContainerSet;
+import org.apache.hadoop.ozone.container.common.volume.HddsVolume;
+import org.apache.hadoop.ozone.container.common.volume.MutableVolumeSet;
+import org.apache.hadoop.ozone.container.common.volume.StorageVolume;
+import org.apache.hadoop.ozone.container.common.volume.VolumeChoosingPolicyFactory;
+import org.apache.hadoop.ozone.container.ozoneimpl.ContainerController;
+import org.apache.hadoop.ozone.container.replication.ReplicationServer.ReplicationConfig;
+import org.apache.hadoop.ozone.container.stream.StreamingException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test for {@link StreamAndImportReplicator}.
+ */
+public class TestStreamAndImportReplicator {
+
+  @TempDir
+  private File tempDir;
+
+  private ContainerSet containerSet;
+  private MutableVolumeSet volumeSet;
+  private ContainerImporter importer;
+  private ContainerReplicator fallback;
+
+  @BeforeEach
+  void setup() throws IOException {
+    OzoneConfiguration conf = new OzoneConfiguration();
+    conf.set(ScmConfigKeys.HDDS_DATANODE_DIR_KEY, tempDir.getAbsolutePath());
+    containerSet = newContainerSet(0);
+    volumeSet = new MutableVolumeSet("test", conf, null,
+        StorageVolume.VolumeType.DATA_VOLUME, null);
+    importer = new ContainerImporter(conf, containerSet,
+        mock(ContainerController.class), volumeSet,
+        VolumeChoosingPolicyFactory.getPolicy(conf));
+    fallback = mock(ContainerReplicator.class);
+  }
+
+  @Test
+  public void testFallbackWhenStreamingFails() throws Exception {
+    HddsVolume volume = (HddsVolume) volumeSet.getVolumesList().get(0);
+    long initialCommittedBytes = volume.getCommittedBytes();
+    StreamAndImportReplicator replicator = new StreamAndImportReplicator(
+        containerSet, importer, new ReplicationConfig(), fallback) {
+      @Override
+      protected void stream(DatanodeDetails source, long containerID,
+          ContainerStreamingDestination destination) {
+        // the source fails after some of the files have been streamed
+        try {
+          Path chunk = destination.mapToDestination("chunks/1.block");
+          Files.createDirectories(chunk.getParent());
+          Files.write(chunk, new byte[10]);
+        } catch (IOException e) {
+          throw new StreamingException("Failed to write", e);
+        }
+        throw new StreamingException("Connection reset");
+      }
+    };
+    ReplicationTask task = new ReplicationTask(1L, Arrays.asList(
+        mock(DatanodeDetails.class), mock(DatanodeDetails.class)),
+        replicator);
+
+    replicator.replicate(task);
+
+    verify(fallback).replicate(task);
+    Path containerDir = ContainerImporter.getUntarDirectory(volume)
+        .resolve("1");
+    assertFalse(Files.exists(containerDir));
+    assertEquals(initialCommittedBytes, volume.getCommittedBytes());
+  }
+}
@@ -17,6 +17,7 @@
 
 package org.apache.hadoop.ozone.container.stream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -29,6 +30,7 @@
 import java.nio.file.Path;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
@@ -159,6 +161,35 @@ public Map<String, Path> getFilesToStream(String id)
 
   }
 
+  @Test
+  public void exportOffEventLoop() throws Exception {
+    Files.createDirectories(sourceDir.resolve(SUBDIR));
+    Files.createDirectories(destDir.resolve(SUBDIR));
+    Files.write(sourceDir.resolve(SUBDIR).resolve("file1"), CONTENT);
+
+    AtomicReference<String> exportThread = new AtomicReference<>();
+    try (StreamingServer server =
+             new StreamingServer(new DirectoryServerSource(sourceDir) {
+               @Override
+               public Map<String, Path> getFilesToStream(String id)
+                   throws InterruptedException {
+                 exportThread.set(Thread.currentThread().getName());
+                 return super.getFilesToStream(id);
+               }
+             }, 0)) {
+      server.start();
+      try (StreamingClient client =
+               new StreamingClient("localhost", server.getPort(),
+                   new DirectoryServerDestination(destDir))) {
+        client.stream(SUBDIR);
+      }
+    }
+
+    assertThat(exportThread.get()).startsWith("StreamingExport-");
+    assertArrayEquals(CONTENT,
+        Files.readAllBytes(destDir.resolve(SUBDIR).resolve("file1")));
+  }
+
   private void streamDir(String subdir) {
     try (StreamingServer server = new StreamingServer(
         new DirectoryServerSource(sourceDir), 0)) {
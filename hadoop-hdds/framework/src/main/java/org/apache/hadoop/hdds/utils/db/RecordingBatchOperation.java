@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.hdds.utils.db;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.apache.hadoop.hdds.utils.db.RocksDatabase.ColumnFamily;
+import org.apache.hadoop.hdds.utils.db.managed.ManagedWriteOptions;
+
+/**
+ * A {@link RDBBatchOperation} which only records the put and delete
+ * operations, so that they can be written to a DB later,
+ * possibly on a different node.
+ * <p>
+ * Like {@link RDBBatchOperation}, a later operation on a key replaces
+ * the earlier ones. This class cannot be committed and is not threadsafe.
+ */
+public class RecordingBatchOperation extends RDBBatchOperation {
+
+  /**
+   * A (table name -> (key -> value)) map, where a null value represents
+   * a delete.
+   */
+  private final Map<String, Map<ByteBuffer, byte[]>> records =
+      new LinkedHashMap<>();
+
+  public RecordingBatchOperation() {
+    super(null);
+  }
+
+  private Map<ByteBuffer, byte[]> getTableRecords(ColumnFamily family) {
+    return records.computeIfAbsent(family.getName(),
+        k -> new LinkedHashMap<>());
+  }
+
+  @Override
+  public void delete(ColumnFamily family, byte[] key) {
+    getTableRecords(family).put(ByteBuffer.wrap(key), null);
+  }
+
+  @Override
+  public void put(ColumnFamily family, CodecBuffer key, CodecBuffer value) {
+    // the buffers are owned by the batch
+    try {
+      put(family, key.getArray(), value.getArray());
+    } finally {
+      value.release();
+      key.release();
+    }
+  }
+
+  @Override
+  public void put(ColumnFamily family, byte[] key, byte[] value) {
+    getTableRecords(family).put(ByteBuffer.wrap(key), value);
+  }
+
+  /**
+   * @return the recorded operations as a (table name -> (key -> value)) map,
+   * where a null value represents a delete.
+   */
+  public Map<String, Map<ByteBuffer, byte[]>> getRecords() {
+    return Collections.unmodifiableMap(records);
+  }
+
+  @Override
+  public void commit(RocksDatabase db) {
+    throw new UnsupportedOperationException(
+        getClass().getSimpleName() + " cannot be committed");
+  }
+
+  @Override
+  public void commit(RocksDatabase db, ManagedWriteOptions writeOptions) {
+    throw new UnsupportedOperationException(
+        getClass().getSimpleName() + " cannot be committed");
+  }
+
+  @Override
+  public void close() {
+    records.clear();
+  }
+}
@@ -396,6 +396,21 @@ public KeyValueIterator<KEY, VALUE> iterator(KEY prefix, KeyValueIterator.Type t
     }
   }
 
+  /**
+   * Create a view of this table decoding the values with the given codec,
+   * e.g. a {@link Proto2ProjectionCodec} decoding only some of the fields,
+   * so that iterating the view does not have to decode the full values.
+   * <p>
+   * The view reads only the DB; it does not share the cache of this table.
+   *
+   * @param projection The codec to decode the values.
+   * @return a view of this table.
+   */
+  public <V> TypedTable<KEY, V> withValueCodec(Codec<V> projection)
+      throws RocksDatabaseException, CodecException {
+    return new TypedTable<>(rawTable, keyCodec, projection, CacheType.NO_CACHE);
+  }
+
   @Override
   public String getName() {
     return rawTable.getName();
@@ -42,6 +42,7 @@
 import java.util.function.LongFunction;
 import java.util.stream.Collectors;
 import org.apache.hadoop.hdds.StringUtils;
+import org.apache.hadoop.hdds.protocol.proto.HddsProtos;
 import org.apache.hadoop.hdds.scm.container.ContainerID;
 import org.apache.hadoop.hdds.utils.db.Table.KeyValue;
 import org.apache.hadoop.hdds.utils.db.cache.TableCache;
@@ -59,7 +60,8 @@
  */
 public class TestTypedTable {
   private final List<String> families = Arrays.asList(StringUtils.bytes2String(RocksDB.DEFAULT_COLUMN_FAMILY),
-      "First", "Second", "Third", "Fourth", "Fifth", "Sixth", "Seventh", "Eighth");
+      "First", "Second", "Third", "Fourth", "Fifth", "Sixth", "Seventh", "Eighth",
+      "Ninth");
 
   private RDBStore rdb;
   private final List<UncheckedAutoCloseable> closeables = new ArrayList<>();
@@ -159,6 +161,44 @@ static <T> void assertEqualsSupportingByteArray(T left, T right) {
     }
   }
 
+  @Test
+  public void testValueProjection() throws Exception {
+    final TypedTable<String, HddsProtos.KeyValue> table = newTypedTable(9,
+        StringCodec.get(), Proto2Codec.get(HddsProtos.KeyValue.getDefaultInstance()));
+    final Map<String, HddsProtos.KeyValue> map = new TreeMap<>();
+    for (int i = 0; i < 10; i++) {
+      final HddsProtos.KeyValue kv = HddsProtos.KeyValue.newBuilder()
+          .setKey("key" + i).setValue("value" + i).build();
+      map.put("prefix/" + i, kv);
+      table.put("prefix/" + i, kv);
+    }
+    table.put("other", HddsProtos.KeyValue.newBuilder().setKey("other").build());
+
+    // decode only the value field
+    final Codec<String> projection = Proto2ProjectionCodec.get(String.class, reader -> {
+      String value = null;
+      while (reader.nextField()) {
+        if (reader.getFieldNumber() == HddsProtos.KeyValue.VALUE_FIELD_NUMBER) {
+          value = reader.readString();
+        } else {
+          reader.skipField();
+        }
+      }
+      return value;
+    });
+    final TypedTable<String, String> view = table.withValueCodec(projection);
+    assertEquals(map.get("prefix/3").getValue(), view.get("prefix/3"));
+    try (Table.KeyValueIterator<String, String> i = view.iterator("prefix/")) {
+      for (Map.Entry<String, HddsProtos.KeyValue> e : map.entrySet()) {
+        assertTrue(i.hasNext());
+        final KeyValue<String, String> next = i.next();
+        assertEquals(e.getKey(), next.getKey());
+        assertEquals(e.getValue().getValue(), next.getValue());
+      }
+      assertFalse(i.hasNext());
+    }
+  }
+
   @Test
   public void testEmptyStringCodecBuffer() throws Exception {
     final StringCodec codec = StringCodec.get();
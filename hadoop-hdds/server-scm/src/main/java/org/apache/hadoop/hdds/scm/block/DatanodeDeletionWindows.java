@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.hdds.scm.block;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.hadoop.hdds.protocol.DatanodeID;
+
+/**
+ * Adaptive limits of the number of blocks sent to each datanode for deletion
+ * in an interval.
+ * <p>
+ * The limit of a datanode is its share of the per-interval limit, scaled by a
+ * factor which grows additively when the datanode acknowledges delete blocks
+ * transactions as successful, and is halved when a command fails, times out or
+ * contains failed transactions. So datanodes which keep up with deletion
+ * are sent more blocks, while slow or failing datanodes are sent fewer.
+ */
+class DatanodeDeletionWindows {
+
+  static final double INITIAL_SCALE = 1;
+  static final double MIN_SCALE = 0.125;
+  static final double MAX_SCALE = 8;
+  static final double SCALE_INCREMENT = 0.25;
+
+  private final Map<DatanodeID, Double> scales = new ConcurrentHashMap<>();
+
+  /**
+   * @param share the limit of the datanode without adaptation
+   * @param max the upper bound of the limit
+   * @return the number of blocks which can be sent to the datanode.
+   */
+  int getLimit(DatanodeID dnId, int share, int max) {
+    final long limit = Math.round(share * getScale(dnId));
+    return (int) Math.max(1, Math.min(limit, max));
+  }
+
+  double getScale(DatanodeID dnId) {
+    return scales.getOrDefault(dnId, INITIAL_SCALE);
+  }
+
+  void onSuccess(DatanodeID dnId) {
+    scales.merge(dnId, INITIAL_SCALE + SCALE_INCREMENT,
+        (scale, ignored) -> Math.min(MAX_SCALE, scale + SCALE_INCREMENT));
+  }
+
+  void onFailure(DatanodeID dnId) {
+    scales.merge(dnId, INITIAL_SCALE / 2,
+        (scale, ignored) -> Math.max(MIN_SCALE, scale / 2));
+  }
+
+  void remove(DatanodeID dnId) {
+    scales.remove(dnId);
+  }
+
+  void clear() {
+    scales.clear();
+  }
+}
@@ -19,6 +19,8 @@
 
 import static org.apache.hadoop.hdds.scm.ScmConfigKeys.OZONE_SCM_BLOCK_DELETION_MAX_RETRY;
 import static org.apache.hadoop.hdds.scm.ScmConfigKeys.OZONE_SCM_BLOCK_DELETION_MAX_RETRY_DEFAULT;
+import static org.apache.hadoop.hdds.scm.ScmConfigKeys.OZONE_SCM_BLOCK_DELETION_PER_DN_ADAPTIVE_WINDOW_ENABLED;
+import static org.apache.hadoop.hdds.scm.ScmConfigKeys.OZONE_SCM_BLOCK_DELETION_PER_DN_ADAPTIVE_WINDOW_ENABLED_DEFAULT;
 import static org.apache.hadoop.hdds.scm.ScmConfigKeys.OZONE_SCM_BLOCK_DELETION_PER_DN_DISTRIBUTION_FACTOR;
 import static org.apache.hadoop.hdds.scm.ScmConfigKeys.OZONE_SCM_BLOCK_DELETION_PER_DN_DISTRIBUTION_FACTOR_DEFAULT;
 import static org.apache.hadoop.hdds.scm.block.SCMDeletedBlockTransactionStatusManager.SCMDeleteBlocksCommandStatusManager.CmdStatus;
@@ -29,6 +31,8 @@
 import java.io.IOException;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -60,6 +64,7 @@
 import org.apache.hadoop.hdds.server.events.EventPublisher;
 import org.apache.hadoop.hdds.utils.db.Table;
 import org.apache.hadoop.ozone.protocol.commands.SCMCommand;
+import org.apache.hadoop.util.Time;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -96,6 +101,7 @@
   private long lastProcessedTransactionId = -1;
   private final int logAppenderQueueByteLimit;
   private int deletionFactorPerDatanode;
+  private final boolean adaptiveWindowEnabled;
 
   public DeletedBlockLogImpl(ConfigurationSource conf,
       StorageContainerManager scm,
@@ -129,7 +135,9 @@ public DeletedBlockLogImpl(ConfigurationSource conf,
     int deletionFactor = conf.getInt(OZONE_SCM_BLOCK_DELETION_PER_DN_DISTRIBUTION_FACTOR,
         OZONE_SCM_BLOCK_DELETION_PER_DN_DISTRIBUTION_FACTOR_DEFAULT);
     this.deletionFactorPerDatanode = deletionFactor <= 0 ? 1 : deletionFactor;
-
+    this.adaptiveWindowEnabled = conf.getBoolean(
+        OZONE_SCM_BLOCK_DELETION_PER_DN_ADAPTIVE_WINDOW_ENABLED,
+        OZONE_SCM_BLOCK_DELETION_PER_DN_ADAPTIVE_WINDOW_ENABLED_DEFAULT);
   }
 
   @VisibleForTesting
@@ -247,6 +255,7 @@ private DeletedBlocksTransaction constructNewTransaction(
         .setContainerID(containerID)
         .addAllLocalID(blocks)
         .setCount(0)
+        .setCreationTime(Time.now())
         .build();
   }
 
@@ -341,11 +350,12 @@ private void getTransaction(DeletedBlocksTransaction tx,
       DatanodeDeletedBlockTransactions transactions,
       Set<ContainerReplica> replicas,
       Map<DatanodeID, Map<Long, CmdStatus>> commandStatus,
-      int maxDeleteBlocksPerDatanode) {
+      Map<DatanodeID, Integer> maxDeleteBlocksPerDatanode) {
     // Ensure all DNs for this transaction are below their max block limit.
     if (!replicas.stream().allMatch(replica -> {
       final DatanodeID datanodeID = replica.getDatanodeDetails().getID();
-      return transactions.getNumberOfBlocksForDatanode(datanodeID) < maxDeleteBlocksPerDatanode;
+      return transactions.getNumberOfBlocksForDatanode(datanodeID)
+          < maxDeleteBlocksPerDatanode.get(datanodeID);
     })) {
       return;
     }
@@ -369,10 +379,8 @@ private void getTransaction(DeletedBlocksTransaction tx,
   }
 
   private Boolean checkInadequateReplica(Set<ContainerReplica> replicas,
-      DeletedBlocksTransaction txn,
-      Set<DatanodeDetails> dnList) throws ContainerNotFoundException {
-    ContainerInfo containerInfo = containerManager
-        .getContainer(ContainerID.valueOf(txn.getContainerID()));
+      ContainerInfo containerInfo,
+      Set<DatanodeDetails> dnList) {
     ReplicationManager replicationManager =
         scmContext.getScm().getReplicationManager();
     ContainerHealthResult result = replicationManager
@@ -386,7 +394,7 @@ private Boolean checkInadequateReplica(Set<ContainerReplica> replicas,
     // feedback to SCM at roughly the same time.
     // This avoids the issue of deletion blocking,
     // where some replicas of a Container are deleted while others do not receive the delete command.
-    long containerId = txn.getContainerID();
+    long containerId = containerInfo.getContainerID();
     for (ContainerReplica replica : replicas) {
       DatanodeDetails datanodeDetails = replica.getDatanodeDetails();
       if (!dnList.contains(datanodeDetails)) {
@@ -400,6 +408,67 @@ private Boolean checkInadequateReplica(Set<ContainerReplica> replicas,
     return result.getHealthState() != ContainerHealthResult.HealthState.HEALTHY;
   }
 
+  /**
+   * The state of a container with respect to sending its transactions,
+   * which is looked up once per container in a scan.
+   */
+  private static final class ContainerTarget {
+    /** The container is deleted or unknown, its transactions can be removed. */
+    private static final ContainerTarget REMOVE = new ContainerTarget(null);
+    /** The container is open. */
+    private static final ContainerTarget OPEN = new ContainerTarget(null);
+
+    private final ContainerInfo container;
+    /** Null until checked, empty if the replicas are inadequate. */
+    private Set<ContainerReplica> replicas;
+
+    private ContainerTarget(ContainerInfo container) {
+      this.container = container;
+    }
+  }
+
+  private ContainerTarget getContainerTarget(ContainerID id) {
+    try {
+      final ContainerInfo container = containerManager.getContainer(id);
+      if (container.isDeleted()) {
+        return ContainerTarget.REMOVE;
+      }
+      return container.isOpen() ? ContainerTarget.OPEN
+          : new ContainerTarget(container);
+    } catch (ContainerNotFoundException ex) {
+      return ContainerTarget.REMOVE;
+    }
+  }
+
+  private Set<ContainerReplica> getReplicasToSend(ContainerTarget target,
+      Set<DatanodeDetails> dnList) throws ContainerNotFoundException {
+    if (target.replicas == null) {
+      final Set<ContainerReplica> replicas = containerManager
+          .getContainerReplicas(target.container.containerID());
+      target.replicas = checkInadequateReplica(replicas, target.container,
+          dnList) ? Collections.emptySet() : replicas;
+    }
+    return target.replicas;
+  }
+
+  /**
+   * Set the age of the oldest transaction, which is the first one in the
+   * table.
+   */
+  private void updateOldestTransactionAge(
+      Table.KeyValueIterator<Long, DeletedBlocksTransaction> iter)
+      throws IOException {
+    iter.seekToFirst();
+    long ageMs = 0;
+    if (iter.hasNext()) {
+      final DeletedBlocksTransaction oldest = iter.next().getValue();
+      if (oldest.hasCreationTime()) {
+        ageMs = Math.max(0, Time.now() - oldest.getCreationTime());
+      }
+    }
+    metrics.setOldestBlockDeletionTransactionAgeMs(ageMs);
+  }
+
   @Override
   public DatanodeDeletedBlockTransactions getTransactions(
       int blockDeletionLimit, Set<DatanodeDetails> dnList)
@@ -414,32 +483,17 @@ public DatanodeDeletedBlockTransactions getTransactions(
           new DatanodeDeletedBlockTransactions();
       try (Table.KeyValueIterator<Long, DeletedBlocksTransaction> iter =
                deletedBlockLogStateManager.getReadOnlyIterator()) {
-        if (lastProcessedTransactionId != -1) {
-          iter.seek(lastProcessedTransactionId);
-          /*
-           * We should start from (lastProcessedTransactionId + 1) transaction.
-           * Now the iterator (iter.next call) is pointing at
-           * lastProcessedTransactionId, read the current value to move
-           * the cursor.
-           */
-          if (iter.hasNext()) {
-            /*
-             * There is a possibility that the lastProcessedTransactionId got
-             * deleted from the table, in that case we have to set
-             * lastProcessedTransactionId to next available transaction in the table.
-             *
-             * By doing this there is a chance that we will skip processing the new
-             * lastProcessedTransactionId, that should be ok. We can get to it in the
-             * next run.
-             */
-            lastProcessedTransactionId = iter.next().getKey();
-          }
-
-          // If we have reached the end, go to beginning.
-          if (!iter.hasNext()) {
-            iter.seekToFirst();
-            lastProcessedTransactionId = -1;
-          }
+        updateOldestTransactionAge(iter);
+
+        // Continue after the last processed transaction, wrapping around to
+        // the beginning of the table at most once.  Seek past it instead of
+        // reading it again, it may have been deleted from the table anyway.
+        final long startTxId = lastProcessedTransactionId + 1;
+        boolean wrapped = lastProcessedTransactionId == -1;
+        if (wrapped) {
+          iter.seekToFirst();
+        } else {
+          iter.seek(startTxId);
         }
 
         // Get the CmdStatus status of the aggregation, so that the current
@@ -456,54 +510,75 @@ public DatanodeDeletedBlockTransactions getTransactions(
         int maxDeleteBlocksPerDatanode = (factor > 0)
             ? Math.min(blockDeletionLimit, blockDeletionLimit / factor)
             : blockDeletionLimit;
+        final Map<DatanodeID, Integer> datanodeLimits = new HashMap<>();
+        final DatanodeDeletionWindows windows =
+            transactionStatusManager.getDeletionWindows();
+        for (DatanodeDetails dn : dnList) {
+          final int limit = adaptiveWindowEnabled
+              ? windows.getLimit(dn.getID(), maxDeleteBlocksPerDatanode,
+                  blockDeletionLimit)
+              : maxDeleteBlocksPerDatanode;
+          datanodeLimits.put(dn.getID(), limit);
+          metrics.setDNBlocksLimit(dn.getID(), limit);
+        }
+
+        // The transactions of a container are usually close to each other,
+        // look up the container and check its replicas only once.
+        final Map<ContainerID, ContainerTarget> containers = new HashMap<>();
 
         // Here takes block replica count as the threshold to avoid the case
         // that part of replicas committed the TXN and recorded in the
         // SCMDeletedBlockTransactionStatusManager, while they are counted
         // in the threshold.
-        while (iter.hasNext() &&
-            transactions.getBlocksDeleted() < blockDeletionLimit) {
-          keyValue = iter.next();
+        while (transactions.getBlocksDeleted() < blockDeletionLimit) {
+          if (!iter.hasNext()) {
+            if (wrapped) {
+              break;
+            }
+            // We started from in-between and reached end of the table,
+            // now we should go to the start of the table and process
+            // the transactions.
+            iter.seekToFirst();
+            wrapped = true;
+            continue;
+          }
+          final Table.KeyValue<Long, DeletedBlocksTransaction> next =
+              iter.next();
+          if (wrapped && lastProcessedTransactionId != -1
+              && next.getKey() >= startTxId) {
+            // We have circled back to where we started.
+            break;
+          }
+          keyValue = next;
           DeletedBlocksTransaction txn = keyValue.getValue();
           final ContainerID id = ContainerID.valueOf(txn.getContainerID());
+          final ContainerTarget target =
+              containers.computeIfAbsent(id, this::getContainerTarget);
           try {
             // HDDS-7126. When container is under replicated, it is possible
             // that container is deleted, but transactions are not deleted.
-            if (containerManager.getContainer(id).isDeleted()) {
-              LOG.warn("Container: {} was deleted for the " +
+            if (target == ContainerTarget.REMOVE) {
+              LOG.warn("Container: {} was deleted or not found for the " +
                   "transaction: {}.", id, txn);
               txIDs.add(txn.getTxID());
-            } else if (txn.getCount() > -1 && txn.getCount() <= maxRetry
-                && !containerManager.getContainer(id).isOpen()) {
-              Set<ContainerReplica> replicas = containerManager
-                  .getContainerReplicas(
-                      ContainerID.valueOf(txn.getContainerID()));
-              if (!checkInadequateReplica(replicas, txn, dnList)) {
-                getTransaction(txn, transactions, replicas, commandStatus, maxDeleteBlocksPerDatanode);
+            } else if (target == ContainerTarget.OPEN) {
+              metrics.incrSkippedTransaction();
+            } else if (txn.getCount() > -1 && txn.getCount() <= maxRetry) {
+              final Set<ContainerReplica> replicas =
+                  getReplicasToSend(target, dnList);
+              if (!replicas.isEmpty()) {
+                getTransaction(txn, transactions, replicas, commandStatus,
+                    datanodeLimits);
               } else {
                 metrics.incrSkippedTransaction();
               }
-            } else if (txn.getCount() >= maxRetry || containerManager.getContainer(id).isOpen()) {
+            } else if (txn.getCount() >= maxRetry) {
               metrics.incrSkippedTransaction();
             }
           } catch (ContainerNotFoundException ex) {
             LOG.warn("Container: {} was not found for the transaction: {}.", id, txn);
             txIDs.add(txn.getTxID());
           }
-
-          if (lastProcessedTransactionId == keyValue.getKey()) {
-            // We have circled back to the last transaction.
-            break;
-          }
-
-          if (!iter.hasNext() && lastProcessedTransactionId != -1) {
-            /*
-             * We started from in-between and reached end of the table,
-             * now we should go to the start of the table and process
-             * the transactions.
-             */
-            iter.seekToFirst();
-          }
         }
 
         lastProcessedTransactionId = keyValue != null ? keyValue.getKey() : -1;
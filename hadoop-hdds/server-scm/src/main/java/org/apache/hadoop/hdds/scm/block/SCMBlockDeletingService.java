@@ -95,6 +95,10 @@ public class SCMBlockDeletingService extends BackgroundService
   private final Clock clock;
   private final int transactionToDNsCommitMapLimit;
 
+  /** For computing the drain rate of the deleted block log. */
+  private long lastCompletedTransactions = -1;
+  private long lastRunTime;
+
   @SuppressWarnings("parameternumber")
   public SCMBlockDeletingService(DeletedBlockLog deletedBlockLog,
              NodeManager nodeManager, EventPublisher eventPublisher,
@@ -139,6 +143,21 @@ public BackgroundTaskQueue getTasks() {
     return queue;
   }
 
+  /**
+   * Update the number of transactions completed per second since the
+   * previous run.
+   */
+  private void updateDrainRate(long now) {
+    final long completed = metrics.getNumBlockDeletionTransactionCompleted();
+    final long elapsed = now - lastRunTime;
+    if (lastCompletedTransactions >= 0 && elapsed > 0) {
+      metrics.setBlockDeletionTransactionDrainRate(
+          (completed - lastCompletedTransactions) * 1000f / elapsed);
+    }
+    lastCompletedTransactions = completed;
+    lastRunTime = now;
+  }
+
   private class DeletedBlockTransactionScanner implements BackgroundTask {
 
     @Override
@@ -153,6 +172,7 @@ public EmptyTaskResult call() throws Exception {
       }
 
       long startTime = Time.monotonicNow();
+      updateDrainRate(startTime);
       // Scan SCM DB in HB interval and collect a throttled list of
       // to delete blocks.
 
@@ -76,6 +76,8 @@ public class SCMDeletedBlockTransactionStatusManager {
    */
   private final SCMDeleteBlocksCommandStatusManager
       scmDeleteBlocksCommandStatusManager;
+  private final DatanodeDeletionWindows deletionWindows =
+      new DatanodeDeletionWindows();
 
   public SCMDeletedBlockTransactionStatusManager(
       DeletedBlockLogStateManager deletedBlockLogStateManager,
@@ -89,7 +91,7 @@ public SCMDeletedBlockTransactionStatusManager(
     this.transactionToDNsCommitMap = new ConcurrentHashMap<>();
     this.transactionToRetryCountMap = new ConcurrentHashMap<>();
     this.scmDeleteBlocksCommandStatusManager =
-        new SCMDeleteBlocksCommandStatusManager(metrics);
+        new SCMDeleteBlocksCommandStatusManager(metrics, deletionWindows);
   }
 
   /**
@@ -105,10 +107,17 @@ protected static class SCMDeleteBlocksCommandStatusManager {
     private static final Set<CmdStatus> STATUSES_REQUIRING_TIMEOUT = Collections.singleton(SENT);
 
     private ScmBlockDeletingServiceMetrics metrics;
+    private final DatanodeDeletionWindows deletionWindows;
 
     public SCMDeleteBlocksCommandStatusManager(ScmBlockDeletingServiceMetrics metrics) {
+      this(metrics, new DatanodeDeletionWindows());
+    }
+
+    SCMDeleteBlocksCommandStatusManager(ScmBlockDeletingServiceMetrics metrics,
+        DatanodeDeletionWindows deletionWindows) {
       this.scmCmdStatusRecord = new ConcurrentHashMap<>();
       this.metrics = metrics;
+      this.deletionWindows = deletionWindows;
     }
 
     /**
@@ -318,6 +327,7 @@ private void removeTimeoutScmCommand(DatanodeID dnId,
             Duration.between(updateTime, now).toMillis() > timeoutMs) {
           CmdStatusData state = removeScmCommand(dnId, scmCmdId);
           metrics.incrDNCommandsTimeout(dnId, 1);
+          deletionWindows.onFailure(dnId);
           LOG.warn("SCM BlockDeletionCommand {} for Datanode: {} was removed after {}ms without update",
               state, dnId, timeoutMs);
         }
@@ -418,6 +428,7 @@ public void clear() {
     transactionToRetryCountMap.clear();
     scmDeleteBlocksCommandStatusManager.clear();
     transactionToDNsCommitMap.clear();
+    deletionWindows.clear();
   }
 
   public void cleanAllTimeoutSCMCommand(long timeoutMs) {
@@ -426,6 +437,11 @@ public void cleanAllTimeoutSCMCommand(long timeoutMs) {
 
   void onDatanodeDead(DatanodeID dnId) {
     scmDeleteBlocksCommandStatusManager.onDatanodeDead(dnId);
+    deletionWindows.remove(dnId);
+  }
+
+  DatanodeDeletionWindows getDeletionWindows() {
+    return deletionWindows;
   }
 
   boolean isDuplication(DatanodeID datanodeID, long tx, Map<DatanodeID, Map<Long, CmdStatus>> commandStatus) {
@@ -452,10 +468,12 @@ private boolean alreadyExecuted(DatanodeID dnId, long txId) {
   public void commitTransactions(List<DeleteBlockTransactionResult> transactionResults, DatanodeID dnId) {
 
     ArrayList<Long> txIDsToBeDeleted = new ArrayList<>();
+    boolean anyFailed = false;
     for (DeleteBlockTransactionResult transactionResult :
         transactionResults) {
       if (isTransactionFailed(transactionResult)) {
         metrics.incrBlockDeletionTransactionFailureOnDatanodes();
+        anyFailed = true;
         continue;
       }
       try {
@@ -508,6 +526,11 @@ public void commitTransactions(List<DeleteBlockTransactionResult> transactionRes
             transactionResult.getTxID(), e);
       }
     }
+    if (anyFailed) {
+      deletionWindows.onFailure(dnId);
+    } else if (!transactionResults.isEmpty()) {
+      deletionWindows.onSuccess(dnId);
+    }
     try {
       deletedBlockLogStateManager.removeTransactionsFromDB(txIDsToBeDeleted);
       metrics.incrBlockDeletionTransactionCompleted(txIDsToBeDeleted.size());
@@ -543,6 +566,9 @@ private void processSCMCommandStatus(List<CommandStatus> deleteBlockStatus, Data
       final CommandStatus.Status status = entry.getValue();
       scmDeleteBlocksCommandStatusManager.updateStatusByDNCommandStatus(
           dnID, entry.getKey(), status);
+      if (status == CommandStatus.Status.FAILED) {
+        deletionWindows.onFailure(dnID);
+      }
     }
   }
 
@@ -32,6 +32,7 @@
 import org.apache.hadoop.metrics2.lib.Interns;
 import org.apache.hadoop.metrics2.lib.MetricsRegistry;
 import org.apache.hadoop.metrics2.lib.MutableCounterLong;
+import org.apache.hadoop.metrics2.lib.MutableGaugeFloat;
 import org.apache.hadoop.metrics2.lib.MutableGaugeLong;
 
 /**
@@ -98,6 +99,14 @@ public final class ScmBlockDeletingServiceMetrics implements MetricsSource {
   @Metric(about = "Total blocks sent to DN for deletion.")
   private MutableGaugeLong numBlockAddedForDeletionToDN;
 
+  @Metric(about = "The age in milliseconds of the oldest transaction in the " +
+      "block deletion log.")
+  private MutableGaugeLong oldestBlockDeletionTransactionAgeMs;
+
+  @Metric(about = "The number of completed txs removed from DB per second " +
+      "since the previous run of the block deleting service.")
+  private MutableGaugeFloat blockDeletionTransactionDrainRate;
+
   private final Map<DatanodeID, DatanodeCommandDetails> numCommandsDatanode = new ConcurrentHashMap<>();
 
   private ScmBlockDeletingServiceMetrics() {
@@ -196,6 +205,27 @@ public void incrTotalBlockSentToDNForDeletion(long count) {
     this.numBlockAddedForDeletionToDN.incr(count);
   }
 
+  public void setDNBlocksLimit(DatanodeID id, long limit) {
+    this.numCommandsDatanode.computeIfAbsent(id, k -> new DatanodeCommandDetails())
+        .setBlocksLimit(limit);
+  }
+
+  public void setOldestBlockDeletionTransactionAgeMs(long ageMs) {
+    this.oldestBlockDeletionTransactionAgeMs.set(ageMs);
+  }
+
+  public long getOldestBlockDeletionTransactionAgeMs() {
+    return oldestBlockDeletionTransactionAgeMs.value();
+  }
+
+  public void setBlockDeletionTransactionDrainRate(float rate) {
+    this.blockDeletionTransactionDrainRate.set(rate);
+  }
+
+  public float getBlockDeletionTransactionDrainRate() {
+    return blockDeletionTransactionDrainRate.value();
+  }
+
   public long getNumBlockDeletionCommandSent() {
     return numBlockDeletionCommandSent.value();
   }
@@ -255,6 +285,8 @@ public void getMetrics(MetricsCollector metricsCollector, boolean all) {
     numProcessedTransactions.snapshot(builder, all);
     numBlockDeletionTransactionDataNodes.snapshot(builder, all);
     numBlockAddedForDeletionToDN.snapshot(builder, all);
+    oldestBlockDeletionTransactionAgeMs.snapshot(builder, all);
+    blockDeletionTransactionDrainRate.snapshot(builder, all);
 
     MetricsRecordBuilder recordBuilder = builder;
     for (Map.Entry<DatanodeID, DatanodeCommandDetails> e : numCommandsDatanode.entrySet()) {
@@ -270,7 +302,9 @@ public void getMetrics(MetricsCollector metricsCollector, boolean all) {
           .addGauge(DatanodeCommandDetails.COMMANDS_TIMEOUT_BY_DN,
               e.getValue().getCommandsTimeout())
           .addGauge(DatanodeCommandDetails.BLOCKS_SENT_TO_DN_COMMAND,
-          e.getValue().getBlocksSent());
+          e.getValue().getBlocksSent())
+          .addGauge(DatanodeCommandDetails.BLOCKS_LIMIT_OF_DN,
+              e.getValue().getBlocksLimit());
     }
     recordBuilder.endRecord();
   }
@@ -284,6 +318,7 @@ public static final class DatanodeCommandDetails {
     private long commandsFailure;
     private long commandsTimeout;
     private long blocksSent;
+    private long blocksLimit;
 
     private static final MetricsInfo COMMANDS_SENT_TO_DN = Interns.info(
         "CommandsSent",
@@ -303,6 +338,10 @@ public static final class DatanodeCommandDetails {
         "BlocksSent",
         "Number of blocks sent to DN in a command for deletion.");
 
+    private static final MetricsInfo BLOCKS_LIMIT_OF_DN = Interns.info(
+        "BlocksLimit",
+        "The limit of blocks sent to DN for deletion in an interval.");
+
     public DatanodeCommandDetails() {
       this.commandsSent = 0;
       this.commandsSuccess = 0;
@@ -331,6 +370,10 @@ public void incrBlocksSent(long delta) {
       this.blocksSent += delta;
     }
 
+    public void setBlocksLimit(long limit) {
+      this.blocksLimit = limit;
+    }
+
     public long getCommandsSent() {
       return commandsSent;
     }
@@ -351,10 +394,15 @@ public long getBlocksSent() {
       return blocksSent;
     }
 
+    public long getBlocksLimit() {
+      return blocksLimit;
+    }
+
     @Override
     public String toString() {
       return "Sent=" + commandsSent + ", Success=" + commandsSuccess + ", Failed=" + commandsFailure + 
-          ", Timeout=" + commandsTimeout + ", BlocksSent = " + blocksSent;
+          ", Timeout=" + commandsTimeout + ", BlocksSent = " + blocksSent +
+          ", BlocksLimit = " + blocksLimit;
     }
   }
 
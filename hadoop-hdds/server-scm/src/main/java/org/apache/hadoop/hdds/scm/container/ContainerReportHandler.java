@@ -35,6 +35,7 @@
 import org.apache.hadoop.hdds.server.events.EventHandler;
 import org.apache.hadoop.hdds.server.events.EventPublisher;
 import org.apache.hadoop.ozone.common.statemachine.InvalidStateTransitionException;
+import org.apache.hadoop.ozone.protocol.commands.ReregisterCommand;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -122,6 +123,12 @@ public ContainerReportHandler(final NodeManager nodeManager,
    *  changed to have a command sent to the datanode to delete the replica via
    *  the hdds.scm.unknown-container.action setting.
    *
+   *  The report may list replicas which are unchanged since the previous
+   *  report of the datanode by container ID only. Those only need to be
+   *  removed from the snapshot, the stored replicas are already up to date.
+   *  If a replica listed this way is not stored in SCM, the datanode is asked
+   *  to re-register so that it sends all replicas.
+   *
    *  Note that the datanode also sends smaller Incremental Container Reports
    *  more frequently, but the logic is synchronized on the datanode to prevent
    *  full and incremental reports processing in parallel for the same datanode
@@ -182,6 +189,9 @@ public void onMessage(final ContainerReportFromDatanode reportFromDatanode,
                     replica, publisher);
           }
         }
+        processUnchangedReplicas(datanodeDetails,
+            containerReport.getUnchangedContainerIdsList(),
+            expectedContainersInDatanode);
         // Anything left in expectedContainersInDatanode was not in the full
         // report, so it is now missing on the DN. We need to remove it from the
         // list
@@ -232,6 +242,54 @@ private void processSingleReplica(final DatanodeDetails datanodeDetails,
     }
   }
 
+  /**
+   * Process the containers whose replica on the given datanode is unchanged
+   * since the previous report. If SCM does not know such a replica, for
+   * example because it was removed when the datanode was marked dead or a
+   * previous report was not processed, the datanode is asked to re-register,
+   * which makes it send a report with all replicas.
+   *
+   * @param datanodeDetails DatanodeDetails
+   * @param unchanged IDs of the unchanged containers
+   * @param expectedContainersInDatanode containers not yet seen in the report
+   */
+  private void processUnchangedReplicas(final DatanodeDetails datanodeDetails,
+      final List<Long> unchanged,
+      final Set<ContainerID> expectedContainersInDatanode)
+      throws NodeNotFoundException {
+    ContainerID unknown = null;
+    for (long id : unchanged) {
+      final ContainerID cid = ContainerID.valueOf(id);
+      final boolean known = expectedContainersInDatanode.remove(cid);
+      if (!known) {
+        getNodeManager().addContainer(datanodeDetails, cid);
+      }
+      if (unknown == null && (!known || !hasReplica(cid, datanodeDetails))) {
+        unknown = cid;
+      }
+    }
+    if (unknown != null) {
+      getLogger().warn("Container {} reported as unchanged has no known "
+          + "replica on datanode {}, requesting a full report.",
+          unknown, datanodeDetails);
+      getNodeManager().addDatanodeCommand(datanodeDetails.getID(),
+          new ReregisterCommand());
+    }
+  }
+
+  private boolean hasReplica(final ContainerID id,
+      final DatanodeDetails datanodeDetails) {
+    try {
+      return getContainerManager().getContainerReplicas(id).stream()
+          .anyMatch(replica -> replica.getDatanodeDetails()
+              .equals(datanodeDetails));
+    } catch (ContainerNotFoundException e) {
+      // Left to the next report with all replicas, which handles unknown
+      // containers according to unknownContainerHandleAction.
+      return true;
+    }
+  }
+
   /**
    * Process the missing replica on the given datanode.
    *
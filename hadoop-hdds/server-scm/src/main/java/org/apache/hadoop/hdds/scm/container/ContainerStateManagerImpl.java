@@ -52,6 +52,7 @@
 import org.apache.hadoop.hdds.protocol.proto.HddsProtos.LifeCycleState;
 import org.apache.hadoop.hdds.protocol.proto.HddsProtos.ReplicationType;
 import org.apache.hadoop.hdds.protocol.proto.SCMRatisProtocol.RequestType;
+import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.ContainerReplicaProto;
 import org.apache.hadoop.hdds.scm.ScmConfigKeys;
 import org.apache.hadoop.hdds.scm.container.common.helpers.InvalidContainerStateException;
 import org.apache.hadoop.hdds.scm.container.replication.ContainerReplicaPendingOps;
@@ -96,9 +97,10 @@
   private final long containerSize;
 
   /**
-   * In-memory representation of Container States.
+   * In-memory representation of Container States. It is thread-safe, so
+   * queries do not take any lock.
    */
-  private ContainerStateMap containers;
+  private volatile ContainerStateMap containers;
 
   /**
    * Persistent store for Container States.
@@ -134,7 +136,8 @@
       containerStateChangeActions;
 
   // Protect containers and containerStore against the potential
-  // contentions between RaftServer and ContainerManager.
+  // contentions between RaftServer and ContainerManager when containers are
+  // added, removed or reinitialized.
   private final ReadWriteLock lock = new ReentrantReadWriteLock(true);
 
   /**
@@ -267,44 +270,32 @@ private void initialize() throws IOException {
 
   @Override
   public List<ContainerInfo> getContainerInfos(ContainerID start, int count) {
-    try (AutoCloseableLock ignored = readLock()) {
-      return containers.getContainerInfos(start, count);
-    }
+    return containers.getContainerInfos(start, count);
   }
 
   @Override
   public List<ContainerInfo> getContainerInfos(LifeCycleState state, ContainerID start, int count) {
-    try (AutoCloseableLock ignored = readLock()) {
-      return containers.getContainerInfos(state, start, count);
-    }
+    return containers.getContainerInfos(state, start, count);
   }
 
   @Override
   public List<ContainerInfo> getContainerInfos(final LifeCycleState state) {
-    try (AutoCloseableLock ignored = readLock()) {
-      return containers.getContainerInfos(state);
-    }
+    return containers.getContainerInfos(state);
   }
 
   @Override
   public List<ContainerInfo> getContainerInfos(ReplicationType type) {
-    try (AutoCloseableLock ignored = readLock()) {
-      return containers.getContainerInfos(type);
-    }
+    return containers.getContainerInfos(type);
   }
 
   @Override
   public int getContainerCount(final LifeCycleState state) {
-    try (AutoCloseableLock ignored = readLock()) {
-      return containers.getContainerCount(state);
-    }
+    return containers.getContainerCount(state);
   }
 
   @Override
   public ContainerInfo getContainer(final ContainerID id) {
-    try (AutoCloseableLock ignored = readLock(id)) {
-      return containers.getContainerInfo(id);
-    }
+    return containers.getContainerInfo(id);
   }
 
   @Override
@@ -347,9 +338,7 @@ public void addContainer(final ContainerInfoProto containerInfo)
 
   @Override
   public boolean contains(ContainerID id) {
-    try (AutoCloseableLock ignored = readLock(id)) {
-      return containers.contains(id);
-    }
+    return containers.contains(id);
   }
 
   @Override
@@ -406,31 +395,55 @@ public void transitionDeletingOrDeletedToClosedState(HddsProtos.ContainerID cont
 
   @Override
   public Set<ContainerReplica> getContainerReplicas(final ContainerID id) {
-    try (AutoCloseableLock ignored = readLock(id)) {
-      return containers.getContainerReplicas(id);
-    }
+    return containers.getContainerReplicas(id);
   }
 
   @Override
   public void updateContainerReplica(final ContainerReplica replica) {
     final ContainerID id = replica.getContainerID();
     try (AutoCloseableLock ignored = writeLock(id)) {
-      containers.updateContainerReplica(replica);
+      final ContainerReplica previous =
+          containers.updateContainerReplica(replica);
       // Clear any pending additions for this replica as we have now seen it.
       containerReplicaPendingOps.completeAddReplica(id,
           replica.getDatanodeDetails(), replica.getReplicaIndex());
+      if (isReplicaChanged(previous, replica)) {
+        containerReplicaPendingOps.replicasChanged(id);
+      }
     }
   }
 
+  /**
+   * @return true if the replica reported again differs from the previous one
+   * in a way which is relevant to the replication of the container.  The
+   * sequence ID of open replicas changes with every write, so it is ignored
+   * for them.
+   */
+  private static boolean isReplicaChanged(ContainerReplica previous,
+      ContainerReplica current) {
+    return previous == null
+        || previous.getState() != current.getState()
+        || previous.getReplicaIndex() != current.getReplicaIndex()
+        || previous.isEmpty() != current.isEmpty()
+        || (previous.getKeyCount() == 0) != (current.getKeyCount() == 0)
+        || (current.getState() != ContainerReplicaProto.State.OPEN
+            && !Objects.equals(previous.getSequenceId(),
+                current.getSequenceId()));
+  }
+
   @Override
   public void removeContainerReplica(final ContainerReplica replica) {
     final ContainerID id = replica.getContainerID();
     try (AutoCloseableLock ignored = writeLock(id)) {
-      containers.removeContainerReplica(id, replica.getDatanodeDetails().getID());
+      final ContainerReplica removed = containers.removeContainerReplica(
+          id, replica.getDatanodeDetails().getID());
       // Remove any pending delete replication operations for the deleted
       // replica.
       containerReplicaPendingOps.completeDeleteReplica(id,
           replica.getDatanodeDetails(), replica.getReplicaIndex());
+      if (removed != null) {
+        containerReplicaPendingOps.replicasChanged(id);
+      }
     }
   }
 
@@ -539,10 +552,6 @@ public void reinitialize(
     }
   }
 
-  private AutoCloseableLock readLock() {
-    return AutoCloseableLock.acquire(lock.readLock());
-  }
-
   private AutoCloseableLock writeLock() {
     return AutoCloseableLock.acquire(lock.writeLock());
   }
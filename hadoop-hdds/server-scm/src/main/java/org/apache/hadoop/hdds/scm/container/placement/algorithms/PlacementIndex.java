@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.hdds.scm.container.placement.algorithms;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import org.apache.hadoop.hdds.conf.ConfigurationSource;
+import org.apache.hadoop.hdds.protocol.DatanodeDetails;
+import org.apache.hadoop.hdds.protocol.DatanodeID;
+import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.StorageReportProto;
+import org.apache.hadoop.hdds.scm.SCMCommonPlacementPolicy;
+import org.apache.hadoop.hdds.scm.net.NetworkTopology;
+import org.apache.hadoop.hdds.scm.net.Node;
+import org.apache.hadoop.hdds.scm.node.DatanodeInfo;
+import org.apache.hadoop.ozone.container.common.volume.VolumeUsage;
+import org.apache.hadoop.util.Time;
+
+/**
+ * Index of the writable datanodes in each rack, for choosing a node without
+ * walking the network topology.
+ * <p>
+ * The nodes of each rack are sorted by the usable space of their largest
+ * volume, so the nodes which may have enough space for a request are a prefix
+ * of the rack's list. The index is a snapshot: it is rebuilt from the network
+ * topology when it is older than the refresh interval, and each node is
+ * checked against its current {@link DatanodeInfo} before being chosen.
+ * Hence a stale index never yields an unsuitable node, but may miss nodes
+ * which became writable since it was built; callers should fall back to
+ * {@link NetworkTopology#chooseRandom} if no node is found.
+ */
+public final class PlacementIndex {
+
+  private final NetworkTopology topology;
+  private final Function<DatanodeID, DatanodeDetails> nodeLookup;
+  private final ConfigurationSource conf;
+  private final long refreshMillis;
+  private volatile Snapshot snapshot;
+
+  public PlacementIndex(NetworkTopology topology,
+      Function<DatanodeID, DatanodeDetails> nodeLookup,
+      ConfigurationSource conf, long refreshMillis) {
+    this.topology = topology;
+    this.nodeLookup = nodeLookup;
+    this.conf = conf;
+    this.refreshMillis = refreshMillis;
+  }
+
+  /**
+   * Choose a random writable node under the given rack which has enough
+   * space and is not excluded.
+   *
+   * @param rack - network full path of the rack
+   * @param excludedNodes - nodes which must not be chosen, can be null
+   * @param metadataSizeRequired - size required for Ratis metadata
+   * @param dataSizeRequired - size required for the container
+   * @return the chosen node as present in the network topology, or null if
+   * the index has no suitable node in the rack
+   */
+  public Node chooseNode(String rack,
+      Collection<? extends Node> excludedNodes,
+      long metadataSizeRequired, long dataSizeRequired) {
+    final RackNodes nodes = getSnapshot().racks.get(rack);
+    if (nodes == null) {
+      return null;
+    }
+    final int candidates = nodes.countWithSpace(dataSizeRequired);
+    if (candidates == 0) {
+      return null;
+    }
+    final int start = ThreadLocalRandom.current().nextInt(candidates);
+    for (int i = 0; i < candidates; i++) {
+      final Node node = nodes.nodes[(start + i) % candidates];
+      if (excludedNodes != null && excludedNodes.contains(node)) {
+        continue;
+      }
+      if (isWritable((DatanodeDetails) node, metadataSizeRequired,
+          dataSizeRequired)) {
+        return node;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Rebuild the index on its next use.
+   */
+  public void invalidate() {
+    snapshot = null;
+  }
+
+  private boolean isWritable(DatanodeDetails node, long metadataSizeRequired,
+      long dataSizeRequired) {
+    final DatanodeDetails dn = nodeLookup.apply(node.getID());
+    return dn instanceof DatanodeInfo
+        && ((DatanodeInfo) dn).getNodeStatus().isNodeWritable()
+        && SCMCommonPlacementPolicy.hasEnoughSpace(dn, metadataSizeRequired,
+            dataSizeRequired, conf);
+  }
+
+  private Snapshot getSnapshot() {
+    final Snapshot current = snapshot;
+    if (current != null && !current.isExpired(refreshMillis)) {
+      return current;
+    }
+    synchronized (this) {
+      if (snapshot == current) {
+        snapshot = build();
+      }
+      return snapshot;
+    }
+  }
+
+  private Snapshot build() {
+    final long buildTime = Time.monotonicNow();
+    final Map<String, List<Node>> nodesByRack = new HashMap<>();
+    final Map<Node, Long> usableSpace = new HashMap<>();
+    for (Node node : topology.getNodes(topology.getMaxLevel())) {
+      final DatanodeDetails dn =
+          nodeLookup.apply(((DatanodeDetails) node).getID());
+      if (!(dn instanceof DatanodeInfo)) {
+        continue;
+      }
+      final DatanodeInfo info = (DatanodeInfo) dn;
+      if (!info.getNodeStatus().isNodeWritable()) {
+        continue;
+      }
+      long maxUsable = 0;
+      for (StorageReportProto report : info.getStorageReports()) {
+        maxUsable = Math.max(maxUsable, VolumeUsage.getUsableSpace(report));
+      }
+      usableSpace.put(node, maxUsable);
+      nodesByRack.computeIfAbsent(node.getNetworkLocation(),
+          k -> new ArrayList<>()).add(node);
+    }
+
+    final Map<String, RackNodes> racks = new HashMap<>();
+    final Comparator<Node> bySpace =
+        Comparator.comparing(usableSpace::get, Comparator.reverseOrder());
+    for (Map.Entry<String, List<Node>> entry : nodesByRack.entrySet()) {
+      final List<Node> nodes = entry.getValue();
+      nodes.sort(bySpace);
+      final long[] space = new long[nodes.size()];
+      for (int i = 0; i < space.length; i++) {
+        space[i] = usableSpace.get(nodes.get(i));
+      }
+      racks.put(entry.getKey(),
+          new RackNodes(nodes.toArray(new Node[0]), space));
+    }
+    return new Snapshot(buildTime, Collections.unmodifiableMap(racks));
+  }
+
+  /** The writable nodes of a rack, in descending order of usable space. */
+  private static final class RackNodes {
+    private final Node[] nodes;
+    private final long[] usableSpace;
+
+    RackNodes(Node[] nodes, long[] usableSpace) {
+      this.nodes = nodes;
+      this.usableSpace = usableSpace;
+    }
+
+    /**
+     * @return the number of leading nodes which had a volume with more than
+     * the given usable space when the index was built.
+     */
+    int countWithSpace(long sizeRequired) {
+      if (sizeRequired <= 0) {
+        return nodes.length;
+      }
+      int low = 0;
+      int high = nodes.length;
+      while (low < high) {
+        final int mid = (low + high) >>> 1;
+        if (usableSpace[mid] > sizeRequired) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      return low;
+    }
+  }
+
+  private static final class Snapshot {
+    private final long buildTime;
+    private final Map<String, RackNodes> racks;
+
+    Snapshot(long buildTime, Map<String, RackNodes> racks) {
+      this.buildTime = buildTime;
+      this.racks = racks;
+    }
+
+    boolean isExpired(long refreshMillis) {
+      return Time.monotonicNow() - buildTime >= refreshMillis;
+    }
+  }
+}
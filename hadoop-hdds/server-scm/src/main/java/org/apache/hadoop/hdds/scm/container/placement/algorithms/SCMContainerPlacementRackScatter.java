@@ -29,10 +29,12 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import org.apache.hadoop.hdds.conf.ConfigurationSource;
 import org.apache.hadoop.hdds.protocol.DatanodeDetails;
 import org.apache.hadoop.hdds.scm.ContainerPlacementStatus;
 import org.apache.hadoop.hdds.scm.SCMCommonPlacementPolicy;
+import org.apache.hadoop.hdds.scm.ScmConfigKeys;
 import org.apache.hadoop.hdds.scm.exceptions.SCMException;
 import org.apache.hadoop.hdds.scm.net.NetworkTopology;
 import org.apache.hadoop.hdds.scm.net.Node;
@@ -64,6 +66,8 @@
   // INNER_LOOP is to choose node in each rack
   private static final int INNER_LOOP_MAX_RETRY = 5;
   private final SCMContainerPlacementMetrics metrics;
+  // null if disabled
+  private final PlacementIndex placementIndex;
 
   /**
    * Constructs a Container Placement with rack awareness.
@@ -77,6 +81,8 @@ public SCMContainerPlacementRackScatter(final NodeManager nodeManager,
     super(nodeManager, conf);
     this.networkTopology = networkTopology;
     this.metrics = metrics;
+    this.placementIndex = createPlacementIndex(nodeManager, conf,
+        networkTopology);
   }
 
   /**
@@ -90,6 +96,21 @@ public SCMContainerPlacementRackScatter(NodeManager nodeManager,
     super(nodeManager, conf);
     this.networkTopology = nodeManager.getClusterNetworkTopologyMap();
     this.metrics = null;
+    this.placementIndex = createPlacementIndex(nodeManager, conf,
+        networkTopology);
+  }
+
+  private static PlacementIndex createPlacementIndex(NodeManager nodeManager,
+      ConfigurationSource conf, NetworkTopology networkTopology) {
+    final long refreshMillis = conf.getTimeDuration(
+        ScmConfigKeys.OZONE_SCM_CONTAINER_PLACEMENT_INDEX_REFRESH,
+        ScmConfigKeys.OZONE_SCM_CONTAINER_PLACEMENT_INDEX_REFRESH_DEFAULT,
+        TimeUnit.MILLISECONDS);
+    if (refreshMillis <= 0 || networkTopology == null) {
+      return null;
+    }
+    return new PlacementIndex(networkTopology, nodeManager::getNode, conf,
+        refreshMillis);
   }
 
   @SuppressWarnings("checkstyle:parameternumber")
@@ -428,7 +449,10 @@ public DatanodeDetails chooseNode(List<DatanodeDetails> healthyNodes) {
    * Choose a datanode which meets the requirements. If there is no node which
    * meets all the requirements, there is fallback chosen process depending on
    * whether fallback is allowed when this class is instantiated.
-   *
+   * <p>
+   * The node is taken from the {@link PlacementIndex} if enabled, otherwise
+   * or if the index has no suitable node, random nodes are picked from the
+   * network topology.
    *
    * @param scope - the rack we are searching nodes under
    * @param excludedNodes - list of the datanodes to excluded. Can be null.
@@ -438,6 +462,18 @@ public DatanodeDetails chooseNode(List<DatanodeDetails> healthyNodes) {
    */
   private Node chooseNode(String scope, List<Node> excludedNodes,
       long metadataSizeRequired, long dataSizeRequired) {
+    if (placementIndex != null) {
+      Node node = placementIndex.chooseNode(scope, excludedNodes,
+          metadataSizeRequired, dataSizeRequired);
+      if (node != null) {
+        if (metrics != null) {
+          metrics.incrDatanodeChooseAttemptCount();
+          metrics.incrDatanodeChooseSuccessCount();
+        }
+        return node;
+      }
+      // The index may not contain nodes which became writable recently.
+    }
     int maxRetry = INNER_LOOP_MAX_RETRY;
     while (true) {
       if (metrics != null) {
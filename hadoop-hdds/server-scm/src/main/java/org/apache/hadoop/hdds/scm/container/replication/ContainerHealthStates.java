@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.hdds.scm.container.replication;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+import org.apache.hadoop.hdds.protocol.proto.HddsProtos.LifeCycleState;
+import org.apache.hadoop.hdds.scm.container.ContainerID;
+import org.apache.hadoop.hdds.scm.container.ReplicationManagerReport;
+import org.apache.hadoop.hdds.scm.container.ReplicationManagerReport.HealthState;
+
+/**
+ * Health states of the containers found by the ReplicationManager in
+ * incremental mode. The states of a container are replaced whenever it is
+ * processed, either by a full pass or as a dirty container, so the report built
+ * from them stays current between the full passes. Only containers with at
+ * least one health state are kept.
+ */
+class ContainerHealthStates {
+
+  private final Map<ContainerID, Set<HealthState>> states =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Replace the health states of the container with those in the given
+   * report, which only covers this container.
+   */
+  void update(ContainerID containerID, ReplicationManagerReport report) {
+    Set<HealthState> current = EnumSet.noneOf(HealthState.class);
+    for (HealthState state : HealthState.values()) {
+      if (report.getStat(state) > 0) {
+        current.add(state);
+      }
+    }
+    if (current.isEmpty()) {
+      states.remove(containerID);
+    } else {
+      states.put(containerID, current);
+    }
+  }
+
+  /**
+   * Forget the containers which do not exist anymore.
+   */
+  void retainAll(Predicate<ContainerID> exists) {
+    states.keySet().removeIf(containerID -> !exists.test(containerID));
+  }
+
+  /**
+   * @param lifeCycleCounts the current number of containers in each state
+   * @return a report of the health states of all containers
+   */
+  ReplicationManagerReport toReport(
+      ToLongFunction<LifeCycleState> lifeCycleCounts) {
+    Report report = new Report();
+    for (LifeCycleState state : LifeCycleState.values()) {
+      report.setLifeCycleCount(state, lifeCycleCounts.applyAsLong(state));
+    }
+    for (Map.Entry<ContainerID, Set<HealthState>> e : states.entrySet()) {
+      for (HealthState state : e.getValue()) {
+        report.incrementAndSample(state, e.getKey());
+      }
+    }
+    report.setComplete();
+    return report;
+  }
+
+  /**
+   * Report whose life cycle state counts are set directly.
+   */
+  private static final class Report extends ReplicationManagerReport {
+    void setLifeCycleCount(LifeCycleState state, long count) {
+      setStat(state.toString(), count);
+    }
+  }
+}
@@ -414,6 +414,18 @@ private void notifySubscribers(List<ContainerReplicaOp> ops,
     }
   }
 
+  /**
+   * Notifies subscribers that the replicas of the given container have
+   * changed by calling ContainerReplicaPendingOpsSubscriber#replicasChanged.
+   *
+   * @param containerID the container whose replicas have changed
+   */
+  public void replicasChanged(ContainerID containerID) {
+    for (ContainerReplicaPendingOpsSubscriber subscriber : subscribers) {
+      subscriber.replicasChanged(containerID);
+    }
+  }
+
   /**
    * Registers a subscriber that will be notified about completed ops.
    *
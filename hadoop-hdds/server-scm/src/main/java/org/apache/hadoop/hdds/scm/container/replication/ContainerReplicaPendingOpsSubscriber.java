@@ -35,4 +35,13 @@ public interface ContainerReplicaPendingOpsSubscriber {
    */
   void opCompleted(ContainerReplicaOp op, ContainerID containerID,
       boolean timedOut);
+
+  /**
+   * Notifies that the replicas of the specified container have changed, e.g.
+   * a replica was added or removed, or has changed its state.
+   *
+   * @param containerID container whose replicas have changed
+   */
+  default void replicasChanged(ContainerID containerID) {
+  }
 }
@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.hdds.scm.container.replication;
+
+import java.time.Clock;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import org.apache.hadoop.hdds.scm.container.ContainerID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Processes the containers which have been marked dirty, e.g. because their
+ * replicas or the state of a node holding them have changed, without waiting
+ * for the next full pass of the ReplicationManager over all containers.
+ * <p>
+ * The dirty containers are sharded by ID, and each shard is drained by its own
+ * worker thread. A container marked again before it is processed is only
+ * processed once, and keeps the time it was first marked, which is used to
+ * report the lag of the oldest pending container. Containers which cannot be
+ * processed yet, e.g. because the ReplicationManager is not ready to run, stay
+ * marked and are retried later.
+ */
+class DirtyContainerProcessor {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(DirtyContainerProcessor.class);
+
+  /** Maximum number of containers taken from a shard under its lock. */
+  private static final int BATCH_SIZE = 100;
+
+  /** Time to wait before retrying containers which could not be processed. */
+  private static final long RETRY_INTERVAL_MS = 1000;
+
+  private final Predicate<ContainerID> processor;
+  private final Clock clock;
+  private final Shard[] shards;
+  private final List<Thread> workers = new ArrayList<>();
+
+  /**
+   * @param processor called by the worker threads for each dirty container,
+   *                  returns false if the container cannot be processed yet
+   * @param shardCount number of shards, and hence worker threads
+   * @param clock used to track the time containers were marked dirty
+   */
+  DirtyContainerProcessor(Predicate<ContainerID> processor, int shardCount,
+      Clock clock) {
+    this.processor = processor;
+    this.clock = clock;
+    this.shards = new Shard[shardCount];
+    for (int i = 0; i < shardCount; i++) {
+      shards[i] = new Shard();
+    }
+  }
+
+  synchronized void start(String threadNamePrefix) {
+    if (!workers.isEmpty()) {
+      return;
+    }
+    for (int i = 0; i < shards.length; i++) {
+      Thread worker = new Thread(shards[i]);
+      worker.setName(threadNamePrefix + "DirtyContainerProcessor-" + i);
+      worker.setDaemon(true);
+      worker.start();
+      workers.add(worker);
+    }
+  }
+
+  synchronized void stop() {
+    for (Thread worker : workers) {
+      worker.interrupt();
+    }
+    workers.clear();
+  }
+
+  void markDirty(ContainerID containerID) {
+    shards[Math.floorMod(Long.hashCode(containerID.getId()), shards.length)]
+        .add(containerID, clock.millis());
+  }
+
+  /**
+   * @return the number of containers waiting to be processed.
+   */
+  long getQueueDepth() {
+    long depth = 0;
+    for (Shard shard : shards) {
+      depth += shard.size();
+    }
+    return depth;
+  }
+
+  /**
+   * @return the time in milliseconds since the oldest container waiting to be
+   * processed was marked dirty, or zero if there is none.
+   */
+  long getLag() {
+    long oldest = Long.MAX_VALUE;
+    for (Shard shard : shards) {
+      oldest = Math.min(oldest, shard.oldestMarkTime());
+    }
+    return oldest == Long.MAX_VALUE ? 0 : clock.millis() - oldest;
+  }
+
+  /**
+   * Dirty containers of one shard, in the order they were marked.
+   */
+  private final class Shard implements Runnable {
+    private final Map<ContainerID, Long> dirty = new LinkedHashMap<>();
+
+    synchronized void add(ContainerID containerID, long now) {
+      if (dirty.putIfAbsent(containerID, now) == null) {
+        notifyAll();
+      }
+    }
+
+    synchronized int size() {
+      return dirty.size();
+    }
+
+    synchronized long oldestMarkTime() {
+      Iterator<Long> it = dirty.values().iterator();
+      return it.hasNext() ? it.next() : Long.MAX_VALUE;
+    }
+
+    private synchronized List<Map.Entry<ContainerID, Long>> take()
+        throws InterruptedException {
+      while (dirty.isEmpty()) {
+        wait();
+      }
+      List<Map.Entry<ContainerID, Long>> batch = new ArrayList<>(
+          Math.min(BATCH_SIZE, dirty.size()));
+      Iterator<Map.Entry<ContainerID, Long>> it = dirty.entrySet().iterator();
+      while (it.hasNext() && batch.size() < BATCH_SIZE) {
+        Map.Entry<ContainerID, Long> e = it.next();
+        batch.add(new AbstractMap.SimpleImmutableEntry<>(e));
+        it.remove();
+      }
+      return batch;
+    }
+
+    /**
+     * Marks the given containers dirty again with their original mark time,
+     * and waits before they are retried.
+     */
+    private synchronized void retryLater(
+        List<Map.Entry<ContainerID, Long>> containers)
+        throws InterruptedException {
+      for (Map.Entry<ContainerID, Long> e : containers) {
+        dirty.putIfAbsent(e.getKey(), e.getValue());
+      }
+      wait(RETRY_INTERVAL_MS);
+    }
+
+    @Override
+    public void run() {
+      try {
+        while (!Thread.currentThread().isInterrupted()) {
+          List<Map.Entry<ContainerID, Long>> batch = take();
+          for (int i = 0; i < batch.size(); i++) {
+            ContainerID containerID = batch.get(i).getKey();
+            boolean processed = true;
+            try {
+              processed = processor.test(containerID);
+            } catch (RuntimeException e) {
+              LOG.error("Error processing dirty container {}", containerID, e);
+            }
+            if (!processed) {
+              retryLater(batch.subList(i, batch.size()));
+              break;
+            }
+          }
+        }
+      } catch (InterruptedException e) {
+        LOG.info("{} is stopped", Thread.currentThread().getName());
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
@@ -39,7 +39,9 @@
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.hadoop.hdds.HddsConfigKeys;
 import org.apache.hadoop.hdds.client.ReplicationConfig;
@@ -107,6 +109,12 @@ public class ReplicationManager implements SCMService, ContainerReplicaPendingOp
   private static final Logger LOG =
       LoggerFactory.getLogger(ReplicationManager.class);
 
+  /**
+   * How often the replication monitor checks whether the service became
+   * ready, in incremental mode.
+   */
+  private static final long NOT_READY_POLL_INTERVAL_MS = 1000;
+
   /**
    * Reference to the ContainerManager.
    */
@@ -168,6 +176,9 @@ public class ReplicationManager implements SCMService, ContainerReplicaPendingOp
   private ServiceStatus serviceStatus = ServiceStatus.PAUSING;
   private final long waitTimeInMillis;
   private long lastTimeToBeReadyInMillis = 0;
+  // The value of lastTimeToBeReadyInMillis when the last full pass over all
+  // containers completed, guarded by serviceLock.
+  private long lastFullPassReadyTime = -1;
   private final Clock clock;
   private final ContainerReplicaPendingOps containerReplicaPendingOps;
   private final ECReplicationCheckHandler ecReplicationCheckHandler;
@@ -176,6 +187,10 @@ public class ReplicationManager implements SCMService, ContainerReplicaPendingOp
   private final EventPublisher eventPublisher;
   private final AtomicReference<ReplicationQueue> replicationQueue
       = new AtomicReference<>(new ReplicationQueue());
+  // Held for read while adding to the current queue outside a full pass, and
+  // for write while the queue is replaced at the end of a full pass.
+  private final ReadWriteLock replicationQueueLock =
+      new ReentrantReadWriteLock();
   private final ECUnderReplicationHandler ecUnderReplicationHandler;
   private final ECOverReplicationHandler ecOverReplicationHandler;
   private final ECMisReplicationHandler ecMisReplicationHandler;
@@ -191,6 +206,14 @@ public class ReplicationManager implements SCMService, ContainerReplicaPendingOp
   private final HealthCheck containerCheckChain;
   private final ReplicationQueue nullReplicationQueue =
       new NullReplicationQueue();
+  /**
+   * Processes dirty containers in incremental mode, null otherwise.
+   */
+  private final DirtyContainerProcessor dirtyContainerProcessor;
+  /**
+   * Health states of the containers in incremental mode, null otherwise.
+   */
+  private final ContainerHealthStates containerHealthStates;
 
   /**
    * Constructs ReplicationManager instance with the given configuration.
@@ -258,6 +281,13 @@ public ReplicationManager(final ReplicationManagerConfiguration rmConf,
         new UnderReplicatedProcessor(this, rmConf::getUnderReplicatedInterval);
     overReplicatedProcessor =
         new OverReplicatedProcessor(this, rmConf::getOverReplicatedInterval);
+    dirtyContainerProcessor = rmConf.isIncrementalEnabled()
+        ? new DirtyContainerProcessor(this::processDirtyContainer,
+            rmConf.getIncrementalWorkers(), clock)
+        : null;
+    containerHealthStates = rmConf.isIncrementalEnabled()
+        ? new ContainerHealthStates()
+        : null;
 
     // Chain together the series of checks that are needed to validate the
     // containers when they are checked by RM.
@@ -318,6 +348,9 @@ public synchronized void stop() {
       LOG.info("Stopping Replication Monitor Thread.");
       underReplicatedProcessorThread.interrupt();
       overReplicatedProcessorThread.interrupt();
+      if (dirtyContainerProcessor != null) {
+        dirtyContainerProcessor.stop();
+      }
       running = false;
       metrics.unRegister();
       replicationMonitor.interrupt();
@@ -347,6 +380,10 @@ protected void startSubServices() {
     overReplicatedProcessorThread.setName(prefix + "OverReplicatedProcessor");
     overReplicatedProcessorThread.setDaemon(true);
     overReplicatedProcessorThread.start();
+
+    if (dirtyContainerProcessor != null) {
+      dirtyContainerProcessor.start(prefix);
+    }
   }
 
   /**
@@ -362,25 +399,55 @@ public synchronized void processAll() {
       return;
     }
     final long start = clock.millis();
+    final long readyTime = getLastTimeToBeReady();
     final List<ContainerInfo> containers =
         containerManager.getContainers();
     ReplicationManagerReport report = new ReplicationManagerReport();
     ReplicationQueue newRepQueue = new ReplicationQueue();
+    boolean complete = true;
     for (ContainerInfo c : containers) {
       if (!shouldRun()) {
+        complete = false;
         break;
       }
       report.increment(c.getState());
       try {
-        processContainer(c, newRepQueue, report);
+        if (containerHealthStates != null) {
+          ReplicationManagerReport containerStates =
+              new ReplicationManagerReport();
+          processContainer(c, newRepQueue, containerStates);
+          containerHealthStates.update(c.containerID(), containerStates);
+        } else {
+          processContainer(c, newRepQueue, report);
+        }
         // TODO - send any commands contained in the health result
       } catch (ContainerNotFoundException e) {
         LOG.error("Container {} not found", c.getContainerID(), e);
       }
     }
     report.setComplete();
-    replicationQueue.set(newRepQueue);
+    replicationQueueLock.writeLock().lock();
+    try {
+      ReplicationQueue oldRepQueue = replicationQueue.getAndSet(newRepQueue);
+      if (isIncrementalEnabled()) {
+        // Keep the containers queued by dirty container processing meanwhile.
+        newRepQueue.merge(oldRepQueue);
+      }
+    } finally {
+      replicationQueueLock.writeLock().unlock();
+    }
     this.containerReport = report;
+    if (complete) {
+      if (containerHealthStates != null) {
+        containerHealthStates.retainAll(this::containerExists);
+      }
+      serviceLock.lock();
+      try {
+        lastFullPassReadyTime = readyTime;
+      } finally {
+        serviceLock.unlock();
+      }
+    }
     LOG.info("Replication Monitor Thread took {} milliseconds for" +
             " processing {} containers.", clock.millis() - start,
         containers.size());
@@ -881,6 +948,89 @@ protected boolean processContainer(ContainerInfo containerInfo,
     }
   }
 
+  /**
+   * Mark the given container to be processed by the incremental mode workers.
+   * Does nothing unless incremental mode is enabled.
+   */
+  public void markDirty(ContainerID containerID) {
+    if (dirtyContainerProcessor != null) {
+      dirtyContainerProcessor.markDirty(containerID);
+    }
+  }
+
+  /**
+   * Mark all the containers on the given node dirty, e.g. after the node
+   * changed its state. Does nothing unless incremental mode is enabled.
+   */
+  public void markDirty(DatanodeDetails datanode) {
+    if (dirtyContainerProcessor == null) {
+      return;
+    }
+    try {
+      for (ContainerID containerID : nodeManager.getContainers(datanode)) {
+        dirtyContainerProcessor.markDirty(containerID);
+      }
+    } catch (NodeNotFoundException e) {
+      LOG.warn("Node {} not found when marking its containers dirty",
+          datanode, e);
+    }
+  }
+
+  public boolean isIncrementalEnabled() {
+    return dirtyContainerProcessor != null;
+  }
+
+  /**
+   * @return the number of dirty containers waiting to be processed.
+   */
+  public long getDirtyContainerQueueDepth() {
+    return dirtyContainerProcessor == null
+        ? 0 : dirtyContainerProcessor.getQueueDepth();
+  }
+
+  /**
+   * @return milliseconds since the oldest pending dirty container was marked.
+   */
+  public long getDirtyContainerLag() {
+    return dirtyContainerProcessor == null
+        ? 0 : dirtyContainerProcessor.getLag();
+  }
+
+  /**
+   * @return false if the container cannot be processed until the service is
+   * ready to run, true otherwise.
+   */
+  private boolean processDirtyContainer(ContainerID containerID) {
+    if (!shouldRun()) {
+      return false;
+    }
+    ReplicationManagerReport containerStates = new ReplicationManagerReport();
+    try {
+      ContainerInfo containerInfo = containerManager.getContainer(containerID);
+      replicationQueueLock.readLock().lock();
+      try {
+        processContainer(containerInfo, replicationQueue.get(),
+            containerStates);
+      } finally {
+        replicationQueueLock.readLock().unlock();
+      }
+      metrics.incrDirtyContainersProcessedTotal();
+    } catch (ContainerNotFoundException e) {
+      LOG.debug("Dirty container {} no longer exists", containerID);
+    }
+    containerHealthStates.update(containerID, containerStates);
+    return true;
+  }
+
+  private boolean containerExists(ContainerID containerID) {
+    try {
+      containerManager.getContainer(containerID);
+      return true;
+    } catch (ContainerNotFoundException e) {
+      return false;
+    }
+  }
+
   /**
    * Sends close container command for the given container to the given
    * datanode.
@@ -915,7 +1065,15 @@ private String getContainerToken(ContainerID containerID) {
     return ""; // unit test
   }
 
+  /**
+   * @return the report of the last full pass over all containers, or in
+   * incremental mode, a report of the current state of all containers.
+   */
   public ReplicationManagerReport getContainerReport() {
+    if (containerHealthStates != null) {
+      return containerHealthStates.toReport(
+          containerManager::getContainerStateCount);
+    }
     return containerReport;
   }
 
@@ -930,8 +1088,10 @@ public boolean isThreadWaiting() {
   private synchronized void run() {
     try {
       while (running) {
-        processAll();
-        wait(rmConf.getInterval().toMillis());
+        if (!isIncrementalEnabled() || shouldRun()) {
+          processAll();
+        }
+        wait(getNextRunDelay());
       }
     } catch (Throwable t) {
       if (t instanceof InterruptedException) {
@@ -945,6 +1105,42 @@ private synchronized void run() {
     }
   }
 
+  /**
+   * @return the time to wait until the next full pass over all containers. In
+   * incremental mode, a full pass runs as soon as the service is ready, and
+   * then every full sweep interval.
+   */
+  private long getNextRunDelay() {
+    if (!isIncrementalEnabled()) {
+      return rmConf.getInterval().toMillis();
+    }
+    serviceLock.lock();
+    try {
+      if (serviceStatus == ServiceStatus.RUNNING) {
+        if (lastFullPassReadyTime == lastTimeToBeReadyInMillis) {
+          return rmConf.getFullSweepInterval().toMillis();
+        }
+        long untilReady =
+            lastTimeToBeReadyInMillis + waitTimeInMillis - clock.millis();
+        if (untilReady > 0) {
+          return untilReady;
+        }
+      }
+      return NOT_READY_POLL_INTERVAL_MS;
+    } finally {
+      serviceLock.unlock();
+    }
+  }
+
+  private long getLastTimeToBeReady() {
+    serviceLock.lock();
+    try {
+      return lastTimeToBeReadyInMillis;
+    } finally {
+      serviceLock.unlock();
+    }
+  }
+
   /**
    * Given a ContainerID, lookup the ContainerInfo and then return a
    * ContainerReplicaCount object for the container.
@@ -1054,6 +1250,7 @@ ReplicationQueue getQueue() {
 
   @Override
   public void opCompleted(ContainerReplicaOp op, ContainerID containerID, boolean timedOut) {
+    markDirty(containerID);
     if (!(timedOut && op.getOpType() == ContainerReplicaOp.PendingOpType.DELETE)) {
       // We only care about expired delete ops. All others should be ignored.
       return;
@@ -1073,6 +1270,11 @@ public void opCompleted(ContainerReplicaOp op, ContainerID containerID, boolean
     }
   }
 
+  @Override
+  public void replicasChanged(ContainerID containerID) {
+    markDirty(containerID);
+  }
+
   /**
    * Configuration used by the Replication Manager.
    */
@@ -1259,6 +1461,40 @@ public void opCompleted(ContainerReplicaOp op, ContainerID containerID, boolean
     )
     private double inflightReplicationLimitFactor = 0.75;
 
+    @Config(key = "incremental.enabled",
+        type = ConfigType.BOOLEAN,
+        defaultValue = "false",
+        tags = {SCM, OZONE},
+        description = "If true, containers are processed by the replication "
+            + "manager as soon as they are marked dirty by a replica change, "
+            + "a completed or expired pending operation, or a state change of "
+            + "a node holding them. The full pass over all containers then "
+            + "only runs every hdds.scm.replication.incremental.full.sweep"
+            + ".interval as a safety net, instead of every "
+            + "hdds.scm.replication.thread.interval."
+    )
+    private boolean incrementalEnabled = false;
+
+    @Config(key = "incremental.workers",
+        type = ConfigType.INT,
+        defaultValue = "4",
+        tags = {SCM, OZONE},
+        description = "The number of threads processing dirty containers when "
+            + "hdds.scm.replication.incremental.enabled is true. Containers "
+            + "are sharded by ID across the threads."
+    )
+    private int incrementalWorkers = 4;
+
+    @Config(key = "incremental.full.sweep.interval",
+        type = ConfigType.TIME,
+        defaultValue = "1h",
+        reconfigurable = true,
+        tags = {SCM, OZONE},
+        description = "The interval of the full pass over all containers when "
+            + "hdds.scm.replication.incremental.enabled is true."
+    )
+    private Duration fullSweepInterval = Duration.ofHours(1);
+
     public long getDatanodeTimeoutOffset() {
       return datanodeTimeoutOffset;
     }
@@ -1343,6 +1579,30 @@ public boolean isPush() {
       return push;
     }
 
+    public boolean isIncrementalEnabled() {
+      return incrementalEnabled;
+    }
+
+    public void setIncrementalEnabled(boolean enabled) {
+      this.incrementalEnabled = enabled;
+    }
+
+    public int getIncrementalWorkers() {
+      return incrementalWorkers;
+    }
+
+    public void setIncrementalWorkers(int workers) {
+      this.incrementalWorkers = workers;
+    }
+
+    public Duration getFullSweepInterval() {
+      return fullSweepInterval;
+    }
+
+    public void setFullSweepInterval(Duration sweepInterval) {
+      this.fullSweepInterval = sweepInterval;
+    }
+
     @PostConstruct
     public void validate() {
       if (datanodeTimeoutOffset < 0) {
@@ -1374,6 +1634,10 @@ public void validate() {
             "inflight.limit.factor is set to " + inflightReplicationLimitFactor
                 + " and must be <= 1");
       }
+      if (incrementalWorkers <= 0) {
+        throw new IllegalArgumentException("incremental.workers is set to "
+            + incrementalWorkers + " and must be > 0");
+      }
     }
   }
 
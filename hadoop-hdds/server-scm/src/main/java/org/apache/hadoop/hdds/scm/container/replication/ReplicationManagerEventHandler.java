@@ -46,6 +46,12 @@ public void onMessage(DatanodeDetails datanodeDetails, EventPublisher eventPubli
       return;
     }
     LOG.debug("ReplicationManagerEventHandler received event for datanode: {}", datanodeDetails);
-    replicationManager.notifyNodeStateChange();
+    if (replicationManager.isIncrementalEnabled()) {
+      // Only the containers on the node need to be checked again, there is
+      // no need for a full pass.
+      replicationManager.markDirty(datanodeDetails);
+    } else {
+      replicationManager.notifyNodeStateChange();
+    }
   }
 }
@@ -87,6 +87,16 @@ public final class ReplicationManagerMetrics implements MetricsSource {
       "OverReplicatedQueueSize",
       "Number of containers currently in the over replicated queue");
 
+  private static final MetricsInfo DIRTY_CONTAINER_QUEUE = Interns.info(
+      "DirtyContainerQueueSize",
+      "Number of dirty containers waiting to be processed in incremental "
+          + "mode");
+
+  private static final MetricsInfo DIRTY_CONTAINER_LAG = Interns.info(
+      "DirtyContainerLagMs",
+      "Time since the oldest dirty container waiting to be processed was "
+          + "marked dirty");
+
   // Setup metric names and descriptions for Container Lifecycle states
   private static final Map<LifeCycleState, MetricsInfo> LIFECYCLE_STATE_METRICS
       = Collections.unmodifiableMap(
@@ -224,6 +234,9 @@ public final class ReplicationManagerMetrics implements MetricsSource {
       + "to the pending commands on all source datanodes")
   private MutableCounterLong replicateContainerCmdsDeferredTotal;
 
+  @Metric("Number of dirty containers processed in incremental mode.")
+  private MutableCounterLong dirtyContainersProcessedTotal;
+
   public ReplicationManagerMetrics(ReplicationManager manager) {
     this.registry = new MetricsRegistry(METRICS_SOURCE_NAME);
     this.replicationManager = manager;
@@ -254,6 +267,13 @@ public void getMetrics(MetricsCollector collector, boolean all) {
           .addGauge(OVER_REPLICATED_QUEUE,
               replicationManager.getQueue().overReplicatedQueueSize());
 
+    if (replicationManager.isIncrementalEnabled()) {
+      builder.addGauge(DIRTY_CONTAINER_QUEUE,
+              replicationManager.getDirtyContainerQueueDepth())
+          .addGauge(DIRTY_CONTAINER_LAG,
+              replicationManager.getDirtyContainerLag());
+    }
+
     ReplicationManagerReport report = replicationManager.getContainerReport();
     for (Map.Entry<HddsProtos.LifeCycleState, MetricsInfo> e :
         LIFECYCLE_STATE_METRICS.entrySet()) {
@@ -289,6 +309,7 @@ public void getMetrics(MetricsCollector collector, boolean all) {
     partialReplicationTotal.snapshot(builder, all);
     ecPartialReplicationForMisReplicationTotal.snapshot(builder, all);
     partialReplicationForMisReplicationTotal.snapshot(builder, all);
+    dirtyContainersProcessedTotal.snapshot(builder, all);
   }
 
   public void unRegister() {
@@ -572,4 +593,11 @@ public long getPartialReplicationForMisReplicationTotal() {
     return this.partialReplicationForMisReplicationTotal.value();
   }
 
+  public void incrDirtyContainersProcessedTotal() {
+    this.dirtyContainersProcessedTotal.incr();
+  }
+
+  public long getDirtyContainersProcessedTotal() {
+    return this.dirtyContainersProcessedTotal.value();
+  }
 }
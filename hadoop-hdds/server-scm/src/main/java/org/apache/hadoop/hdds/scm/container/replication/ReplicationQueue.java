@@ -19,9 +19,12 @@
 
 import com.google.common.collect.Queues;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.PriorityQueue;
 import java.util.Queue;
+import java.util.Set;
+import org.apache.hadoop.hdds.scm.container.ContainerID;
 
 /**
  * Object to encapsulate the under and over replication queues used by
@@ -101,4 +104,28 @@ public boolean isEmpty() {
     return underRepQueue.isEmpty() && overRepQueue.isEmpty();
   }
 
+  /**
+   * Move the containers left in the given queue to this queue, unless this
+   * queue already has an entry for them. Their requeue count is kept.
+   */
+  public void merge(ReplicationQueue other) {
+    mergeInto(underRepQueue, other.underRepQueue);
+    mergeInto(overRepQueue, other.overRepQueue);
+  }
+
+  private static <T extends ContainerHealthResult> void mergeInto(
+      Queue<T> target, Queue<T> source) {
+    Set<ContainerID> present = new HashSet<>();
+    synchronized (target) {
+      for (T result : target) {
+        present.add(result.getContainerInfo().containerID());
+      }
+    }
+    for (T result = source.poll(); result != null; result = source.poll()) {
+      if (present.add(result.getContainerInfo().containerID())) {
+        target.add(result);
+      }
+    }
+  }
+
 }
@@ -17,10 +17,10 @@
 
 package org.apache.hadoop.hdds.scm.container.states;
 
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.hadoop.hdds.protocol.DatanodeID;
 import org.apache.hadoop.hdds.scm.container.ContainerInfo;
 import org.apache.hadoop.hdds.scm.container.ContainerReplica;
@@ -31,7 +31,7 @@
  */
 public class ContainerEntry {
   private final ContainerInfo info;
-  private final Map<DatanodeID, ContainerReplica> replicas = new HashMap<>();
+  private final Map<DatanodeID, ContainerReplica> replicas = new ConcurrentHashMap<>();
 
   ContainerEntry(ContainerInfo info) {
     this.info = info;
@@ -21,7 +21,7 @@
 import java.util.NavigableMap;
 import java.util.Objects;
 import java.util.Set;
-import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.stream.Collectors;
 import org.apache.hadoop.hdds.protocol.DatanodeID;
 import org.apache.hadoop.hdds.protocol.proto.HddsProtos.LifeCycleState;
@@ -67,7 +67,14 @@
  * <p>
  * All the calls are idempotent.
  * <p>
- * This class is NOT thread-safe.
+ * This class is thread-safe, and queries never block: all the maps are
+ * concurrent, and queries see a weakly consistent view of the containers
+ * being changed at the same time, not a snapshot. While a container changes
+ * its state, it may be returned for both the old and the new state, but
+ * always with the new state. Changes of the same container must be
+ * serialized by the caller, {@link
+ * org.apache.hadoop.hdds.scm.container.ContainerStateManagerImpl} uses
+ * striped per-container locks for this.
  */
 public class ContainerStateMap {
   private static final Logger LOG =
@@ -98,7 +105,7 @@ public class ContainerStateMap {
    * Inner replica map: {@link DatanodeID} -> {@link ContainerReplica}
    */
   private static class ContainerMap {
-    private final NavigableMap<ContainerID, ContainerEntry> map = new TreeMap<>();
+    private final NavigableMap<ContainerID, ContainerEntry> map = new ConcurrentSkipListMap<>();
 
     boolean contains(ContainerID id) {
       return map.containsKey(id);
@@ -131,13 +138,7 @@ Set<ContainerReplica> getReplicas(ContainerID id) {
      */
     boolean addIfAbsent(ContainerInfo info) {
       Objects.requireNonNull(info, "info == null");
-      final ContainerID id = info.containerID();
-      if (map.containsKey(id)) {
-        return false; // already exist
-      }
-      final ContainerEntry previous = map.put(id, new ContainerEntry(info));
-      Preconditions.assertNull(previous, "previous");
-      return true;
+      return map.putIfAbsent(info.containerID(), new ContainerEntry(info)) == null;
     }
 
     ContainerReplica put(ContainerReplica replica) {
@@ -223,19 +224,23 @@ public Set<ContainerReplica> getContainerReplicas(
    * Adds given datanodes as nodes where replica for given containerId exist.
    * Logs a debug entry if a datanode is already added as replica for given
    * ContainerId.
+   *
+   * @return the replica previously stored for the datanode, or null.
    */
-  public void updateContainerReplica(ContainerReplica replica) {
+  public ContainerReplica updateContainerReplica(ContainerReplica replica) {
     Objects.requireNonNull(replica, "replica == null");
-    containerMap.put(replica);
+    return containerMap.put(replica);
   }
 
   /**
    * Remove a container Replica for given DataNode.
+   *
+   * @return the removed replica, or null if there was none.
    */
-  public void removeContainerReplica(final ContainerID containerID, DatanodeID datanodeID) {
+  public ContainerReplica removeContainerReplica(final ContainerID containerID, DatanodeID datanodeID) {
     Objects.requireNonNull(containerID, "containerID == null");
     Objects.requireNonNull(datanodeID, "datanodeID == null");
-    containerMap.removeReplica(containerID, datanodeID);
+    return containerMap.removeReplica(containerID, datanodeID);
   }
 
   /**
@@ -255,9 +260,16 @@ public void updateState(ContainerID containerID, LifeCycleState currentState,
     if (currentInfo == null) { // container not found
       return;
     }
-    lifeCycleStateMap.update(currentState, newState, containerID);
-    LOG.trace("Updated the container {} from {} to {}", containerID, currentState, newState);
+    // Set the state before moving the container, so that the containers
+    // returned for the new state are always in the new state.
     currentInfo.setState(newState);
+    try {
+      lifeCycleStateMap.update(currentState, newState, containerID);
+    } catch (SCMException e) {
+      currentInfo.revertState();
+      throw e;
+    }
+    LOG.trace("Updated the container {} from {} to {}", containerID, currentState, newState);
   }
 
   public List<ContainerInfo> getContainerInfos(ContainerID start, int count) {
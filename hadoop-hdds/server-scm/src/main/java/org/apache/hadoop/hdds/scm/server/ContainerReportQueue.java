@@ -83,6 +83,11 @@ private boolean addContainerReport(ContainerReport val) {
           // if FCR, its last FCR report, remove directly
           if (SCMDatanodeHeartbeatDispatcher.ContainerReportType.FCR
               == reportInfo.getType()) {
+            if (val instanceof ContainerReportFromDatanode
+                && reportInfo instanceof ContainerReportFromDatanode) {
+              ((ContainerReportFromDatanode) val).includePreviousReport(
+                  (ContainerReportFromDatanode) reportInfo);
+            }
             dataList.remove(i);
             --capacity;
             droppedCount.incrementAndGet();
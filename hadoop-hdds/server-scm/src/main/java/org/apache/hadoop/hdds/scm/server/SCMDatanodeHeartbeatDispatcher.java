@@ -29,6 +29,7 @@
 
 import com.google.common.base.Preconditions;
 import com.google.protobuf.Message;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import org.apache.hadoop.hdds.protocol.DatanodeDetails;
@@ -36,6 +37,7 @@
 import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.CommandQueueReportProto;
 import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.CommandStatusReportsProto;
 import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.ContainerActionsProto;
+import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.ContainerReplicaProto;
 import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.ContainerReportsProto;
 import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.IncrementalContainerReportProto;
 import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.LayoutVersionProto;
@@ -343,6 +345,38 @@ public String getEventId() {
 
     @Override
     public void mergeReport(ContainerReport nextReport) { }
+
+    /**
+     * Called when this report replaces the given previous report, which has
+     * not been processed yet. If this report lists some unchanged replicas
+     * by container ID only, add their replicas from the previous report, so
+     * that no change in the previous report is lost.
+     */
+    public void includePreviousReport(ContainerReportFromDatanode previous) {
+      final ContainerReportsProto report = getReport();
+      final ContainerReportsProto previousReport = previous.getReport();
+      if (report.getUnchangedContainerIdsCount() == 0
+          || previousReport.getReportsCount() == 0) {
+        return;
+      }
+      final Map<Long, ContainerReplicaProto> previousReplicas =
+          new HashMap<>();
+      for (ContainerReplicaProto replica : previousReport.getReportsList()) {
+        previousReplicas.put(replica.getContainerID(), replica);
+      }
+      final ContainerReportsProto.Builder merged =
+          ContainerReportsProto.newBuilder()
+              .addAllReports(report.getReportsList());
+      for (long id : report.getUnchangedContainerIdsList()) {
+        final ContainerReplicaProto replica = previousReplicas.get(id);
+        if (replica != null) {
+          merged.addReports(replica);
+        } else {
+          merged.addUnchangedContainerIds(id);
+        }
+      }
+      setReport(merged.build());
+    }
   }
 
   /**
@@ -18,8 +18,10 @@
 package org.apache.hadoop.hdds.scm.block;
 
 import static org.apache.hadoop.hdds.scm.ScmConfigKeys.OZONE_SCM_BLOCK_DELETION_MAX_RETRY;
+import static org.apache.hadoop.hdds.scm.ScmConfigKeys.OZONE_SCM_BLOCK_DELETION_PER_DN_ADAPTIVE_WINDOW_ENABLED;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.doAnswer;
@@ -917,6 +919,53 @@ public void testGetTransactionsWithMaxBlocksPerDatanode(int maxAllowedBlockNum)
     assertEquals(datanodeBlockCountMap.get(dnId2.getID()), blocksPerDataNode);
   }
 
+  @Test
+  public void testGetTransactionsWithAdaptiveWindow() throws IOException {
+    conf.setBoolean(OZONE_SCM_BLOCK_DELETION_PER_DN_ADAPTIVE_WINDOW_ENABLED,
+        true);
+    deletedBlockLog.close();
+    deletedBlockLog = new DeletedBlockLogImpl(conf,
+        scm,
+        containerManager,
+        scmHADBTransactionBuffer,
+        metrics);
+    deletedBlockLog.setDeleteBlocksFactorPerDatanode(1);
+    mockContainerHealthResult(true);
+    DatanodeDetails dnId1 = dnList.get(0), dnId2 = dnList.get(1);
+
+    Map<Long, List<Long>> deletedBlocks = generateData(10);
+    addTransactions(deletedBlocks, true);
+    List<Long> containerIds = new ArrayList<>(deletedBlocks.keySet());
+    for (int i = 0; i < containerIds.size(); i++) {
+      DatanodeDetails assignedDn = (i % 2 == 0) ? dnId1 : dnId2;
+      mockStandAloneContainerInfo(containerIds.get(i), assignedDn);
+    }
+
+    // dnId1 failed a command, its window is halved, while dnId2 kept up
+    // and its window is doubled.
+    DatanodeDeletionWindows windows = deletedBlockLog
+        .getSCMDeletedBlockTransactionStatusManager().getDeletionWindows();
+    windows.onFailure(dnId1.getID());
+    for (int i = 0; i < 4; i++) {
+      windows.onSuccess(dnId2.getID());
+    }
+
+    // Each datanode gets a share of 10 blocks without adaptation.
+    DatanodeDeletedBlockTransactions transactions =
+        deletedBlockLog.getTransactions(30, new HashSet<>(dnList));
+    assertEquals(BLOCKS_PER_TXN,
+        transactions.getNumberOfBlocksForDatanode(dnId1.getID()));
+    assertEquals(4 * BLOCKS_PER_TXN,
+        transactions.getNumberOfBlocksForDatanode(dnId2.getID()));
+    verify(metrics).setDNBlocksLimit(dnId1.getID(), 5);
+    verify(metrics).setDNBlocksLimit(dnId2.getID(), 20);
+
+    for (List<DeletedBlocksTransaction> txns
+        : transactions.getDatanodeTransactionMap().values()) {
+      txns.forEach(tx -> assertTrue(tx.hasCreationTime()));
+    }
+  }
+
   @Test
   public void testDeletedBlockTransactionsOfDeletedContainer() throws IOException {
     int txNum = 10;
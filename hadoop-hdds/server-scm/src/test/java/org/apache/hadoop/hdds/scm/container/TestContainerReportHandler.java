@@ -39,6 +39,7 @@
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -322,6 +323,96 @@ public void testUnderReplicatedContainer()
 
   }
 
+  @Test
+  public void testDeltaContainerReport()
+      throws NodeNotFoundException, IOException, TimeoutException {
+    final ContainerReportHandler reportHandler = new ContainerReportHandler(
+        nodeManager, containerManager);
+    final Iterator<DatanodeDetails> nodeIterator = nodeManager.getNodes(
+        NodeStatus.inServiceHealthy()).iterator();
+    final DatanodeDetails datanodeOne = nodeIterator.next();
+    final DatanodeDetails datanodeTwo = nodeIterator.next();
+    final DatanodeDetails datanodeThree = nodeIterator.next();
+
+    final ContainerInfo containerOne = getContainer(LifeCycleState.CLOSED);
+    final ContainerInfo containerTwo = getContainer(LifeCycleState.CLOSED);
+    final ContainerInfo containerThree = getContainer(LifeCycleState.CLOSED);
+    final Set<ContainerID> containerIDSet = Stream.of(
+        containerOne.containerID(), containerTwo.containerID(),
+        containerThree.containerID())
+        .collect(Collectors.toSet());
+
+    for (ContainerInfo container :
+        Arrays.asList(containerOne, containerTwo, containerThree)) {
+      containerStateManager.addContainer(container.getProtobuf());
+      getReplicas(container.containerID(),
+          ContainerReplicaProto.State.CLOSED,
+          datanodeOne, datanodeTwo, datanodeThree)
+          .forEach(containerStateManager::updateContainerReplica);
+    }
+    nodeManager.setContainers(datanodeOne, containerIDSet);
+
+    // datanodeOne reports containerTwo, containerThree is unchanged and
+    // containerOne is missing.
+    final ContainerReportsProto containerReport = getContainerReportsProto(
+        containerTwo.containerID(), ContainerReplicaProto.State.CLOSED,
+        datanodeOne.getUuidString()).toBuilder()
+        .addUnchangedContainerIds(containerThree.getContainerID())
+        .build();
+    reportHandler.onMessage(
+        new ContainerReportFromDatanode(datanodeOne, containerReport),
+        publisher);
+
+    assertEquals(2, containerManager.getContainerReplicas(
+        containerOne.containerID()).size());
+    assertEquals(3, containerManager.getContainerReplicas(
+        containerTwo.containerID()).size());
+    assertEquals(3, containerManager.getContainerReplicas(
+        containerThree.containerID()).size());
+    assertEquals(0, nodeManager.getCommandCount(datanodeOne));
+  }
+
+  @Test
+  public void testDeltaContainerReportWithRemovedReplica()
+      throws NodeNotFoundException, IOException, TimeoutException {
+    final ContainerReportHandler reportHandler = new ContainerReportHandler(
+        nodeManager, containerManager);
+    final Iterator<DatanodeDetails> nodeIterator = nodeManager.getNodes(
+        NodeStatus.inServiceHealthy()).iterator();
+    final DatanodeDetails datanodeOne = nodeIterator.next();
+    final DatanodeDetails datanodeTwo = nodeIterator.next();
+    final DatanodeDetails datanodeThree = nodeIterator.next();
+
+    final ContainerInfo containerOne = getContainer(LifeCycleState.CLOSED);
+    containerStateManager.addContainer(containerOne.getProtobuf());
+    getReplicas(containerOne.containerID(), ContainerReplicaProto.State.CLOSED,
+        datanodeOne, datanodeTwo, datanodeThree)
+        .forEach(containerStateManager::updateContainerReplica);
+    nodeManager.setContainers(datanodeOne,
+        Collections.singleton(containerOne.containerID()));
+
+    // The replica is removed while the datanode is dead, but the datanode
+    // still has it when it comes back.
+    containerStateManager.removeContainerReplica(
+        containerManager.getContainerReplicas(containerOne.containerID())
+            .stream()
+            .filter(r -> r.getDatanodeDetails().equals(datanodeOne))
+            .findFirst().get());
+
+    final ContainerReportsProto containerReport =
+        ContainerReportsProto.newBuilder()
+            .addUnchangedContainerIds(containerOne.getContainerID())
+            .build();
+    reportHandler.onMessage(
+        new ContainerReportFromDatanode(datanodeOne, containerReport),
+        publisher);
+
+    // The datanode is asked for a report with all replicas.
+    assertEquals(1, nodeManager.getCommandCount(datanodeOne));
+    assertEquals(Collections.singleton(containerOne.containerID()),
+        nodeManager.getContainers(datanodeOne));
+  }
+
   @Test
   public void testOverReplicatedContainer() throws NodeNotFoundException,
       IOException, TimeoutException {
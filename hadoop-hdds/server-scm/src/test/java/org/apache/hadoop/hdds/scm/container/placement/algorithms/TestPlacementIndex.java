@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.hdds.scm.container.placement.algorithms;
+
+import static org.apache.hadoop.hdds.scm.net.NetConstants.LEAF_SCHEMA;
+import static org.apache.hadoop.hdds.scm.net.NetConstants.RACK_SCHEMA;
+import static org.apache.hadoop.hdds.scm.net.NetConstants.ROOT_SCHEMA;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
+import org.apache.hadoop.hdds.protocol.DatanodeDetails;
+import org.apache.hadoop.hdds.protocol.DatanodeID;
+import org.apache.hadoop.hdds.protocol.MockDatanodeDetails;
+import org.apache.hadoop.hdds.scm.HddsTestUtils;
+import org.apache.hadoop.hdds.scm.net.NetworkTopology;
+import org.apache.hadoop.hdds.scm.net.NetworkTopologyImpl;
+import org.apache.hadoop.hdds.scm.net.Node;
+import org.apache.hadoop.hdds.scm.net.NodeSchema;
+import org.apache.hadoop.hdds.scm.net.NodeSchemaManager;
+import org.apache.hadoop.hdds.scm.node.DatanodeInfo;
+import org.apache.hadoop.hdds.scm.node.NodeStatus;
+import org.apache.hadoop.ozone.container.upgrade.UpgradeUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link PlacementIndex}.
+ */
+public class TestPlacementIndex {
+
+  private static final long CAPACITY = 1000;
+
+  private NetworkTopology cluster;
+  private final Map<DatanodeID, DatanodeInfo> dnInfos = new HashMap<>();
+  private PlacementIndex index;
+
+  @BeforeEach
+  public void setup() {
+    NodeSchemaManager.getInstance().init(
+        new NodeSchema[] {ROOT_SCHEMA, RACK_SCHEMA, LEAF_SCHEMA}, true);
+    cluster = new NetworkTopologyImpl(NodeSchemaManager.getInstance());
+    // a long refresh interval, so the index is only rebuilt if invalidated
+    index = new PlacementIndex(cluster, dnInfos::get, new OzoneConfiguration(),
+        Long.MAX_VALUE);
+  }
+
+  private DatanodeDetails addNode(String name, String rack, long remaining) {
+    DatanodeDetails dn = MockDatanodeDetails.createDatanodeDetails(name, rack);
+    cluster.add(dn);
+    DatanodeInfo info = new DatanodeInfo(dn, NodeStatus.inServiceHealthy(),
+        UpgradeUtils.defaultLayoutVersionProto());
+    dnInfos.put(dn.getID(), info);
+    setRemaining(dn, remaining);
+    return dn;
+  }
+
+  private void setRemaining(DatanodeDetails dn, long remaining) {
+    dnInfos.get(dn.getID()).updateStorageReports(new ArrayList<>(
+        HddsTestUtils.createStorageReports(dn.getID(), CAPACITY, remaining,
+            0)));
+  }
+
+  private Set<Node> chooseRepeatedly(String rack, List<Node> excluded,
+      long dataSizeRequired) {
+    Set<Node> chosen = new HashSet<>();
+    for (int i = 0; i < 100; i++) {
+      chosen.add(index.chooseNode(rack, excluded, 0, dataSizeRequired));
+    }
+    return chosen;
+  }
+
+  @Test
+  public void testChooseNode() {
+    DatanodeDetails small = addNode("small", "/rack0", 100);
+    DatanodeDetails large1 = addNode("large1", "/rack0", 900);
+    DatanodeDetails large2 = addNode("large2", "/rack0", 800);
+    DatanodeDetails other = addNode("other", "/rack1", 900);
+    DatanodeDetails stale = addNode("stale", "/rack0", 900);
+    dnInfos.get(stale.getID()).setNodeStatus(NodeStatus.inServiceStale());
+
+    // only writable nodes with enough space in the rack are chosen
+    assertEquals(new HashSet<>(Arrays.asList(large1, large2)),
+        chooseRepeatedly("/rack0", null, 500));
+    assertEquals(new HashSet<>(Arrays.asList(small, large1, large2)),
+        chooseRepeatedly("/rack0", Collections.emptyList(), 0));
+    assertEquals(Collections.singleton(other),
+        chooseRepeatedly("/rack1", null, 500));
+
+    // excluded nodes are skipped
+    List<Node> excluded = new ArrayList<>();
+    excluded.add(large1);
+    assertEquals(Collections.singleton(large2),
+        chooseRepeatedly("/rack0", excluded, 500));
+    excluded.add(large2);
+    assertNull(index.chooseNode("/rack0", excluded, 0, 500));
+
+    assertNull(index.chooseNode("/rack0", null, 0, CAPACITY));
+    assertNull(index.chooseNode("/rack2", null, 0, 0));
+  }
+
+  @Test
+  public void testStaleIndex() {
+    DatanodeDetails dn1 = addNode("dn1", "/rack0", 900);
+    DatanodeDetails dn2 = addNode("dn2", "/rack0", 900);
+    assertEquals(2, chooseRepeatedly("/rack0", null, 500).size());
+
+    // the current state of a node is checked before choosing it
+    setRemaining(dn1, 100);
+    assertEquals(Collections.singleton(dn2),
+        chooseRepeatedly("/rack0", null, 500));
+    dnInfos.get(dn2.getID()).setNodeStatus(
+        NodeStatus.inServiceHealthyReadOnly());
+    assertNull(index.chooseNode("/rack0", null, 0, 500));
+
+    // changes which make a node suitable are seen after a rebuild
+    setRemaining(dn1, 900);
+    DatanodeDetails dn3 = addNode("dn3", "/rack0", 900);
+    assertEquals(Collections.singleton(dn1),
+        chooseRepeatedly("/rack0", null, 500));
+    index.invalidate();
+    assertEquals(new HashSet<>(Arrays.asList(dn1, dn3)),
+        chooseRepeatedly("/rack0", null, 500));
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.hdds.scm.container.replication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.hadoop.hdds.scm.container.ContainerID;
+import org.apache.ozone.test.GenericTestUtils;
+import org.apache.ozone.test.TestClock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the DirtyContainerProcessor class.
+ */
+public class TestDirtyContainerProcessor {
+
+  private TestClock clock;
+  private List<ContainerID> processed;
+  private DirtyContainerProcessor processor;
+
+  @BeforeEach
+  public void setup() {
+    clock = TestClock.newInstance();
+    processed = Collections.synchronizedList(new ArrayList<>());
+    processor = new DirtyContainerProcessor(processed::add, 3, clock);
+  }
+
+  @AfterEach
+  public void teardown() {
+    processor.stop();
+  }
+
+  @Test
+  public void testQueueDepthAndLag() {
+    assertEquals(0, processor.getQueueDepth());
+    assertEquals(0, processor.getLag());
+
+    processor.markDirty(ContainerID.valueOf(1));
+    clock.fastForward(1000);
+    processor.markDirty(ContainerID.valueOf(2));
+    // marking again keeps the original time
+    processor.markDirty(ContainerID.valueOf(1));
+    clock.fastForward(500);
+
+    assertEquals(2, processor.getQueueDepth());
+    assertEquals(1500, processor.getLag());
+  }
+
+  @Test
+  public void testDirtyContainersProcessedOnce() throws Exception {
+    for (int i = 0; i < 10; i++) {
+      processor.markDirty(ContainerID.valueOf(i));
+      processor.markDirty(ContainerID.valueOf(i));
+    }
+    processor.start("test-");
+
+    GenericTestUtils.waitFor(() -> processed.size() == 10, 10, 5000);
+    assertEquals(0, processor.getQueueDepth());
+    assertEquals(0, processor.getLag());
+    for (int i = 0; i < 10; i++) {
+      assertEquals(1, Collections.frequency(processed, ContainerID.valueOf(i)));
+    }
+
+    // containers marked while the workers are running are processed too
+    processor.markDirty(ContainerID.valueOf(42));
+    GenericTestUtils.waitFor(() -> processed.size() == 11, 10, 5000);
+    assertEquals(ContainerID.valueOf(42), processed.get(10));
+  }
+
+  @Test
+  public void testContainersRetriedUntilProcessed() throws Exception {
+    AtomicBoolean ready = new AtomicBoolean(false);
+    processor.stop();
+    processor = new DirtyContainerProcessor(containerID -> {
+      if (!ready.get()) {
+        return false;
+      }
+      processed.add(containerID);
+      return true;
+    }, 1, clock);
+    processor.markDirty(ContainerID.valueOf(1));
+    clock.fastForward(1000);
+    processor.markDirty(ContainerID.valueOf(2));
+    processor.start("test-");
+
+    Thread.sleep(200);
+    // the containers stay marked with their original time
+    assertEquals(2, processor.getQueueDepth());
+    assertEquals(1000, processor.getLag());
+    assertEquals(0, processed.size());
+
+    ready.set(true);
+    GenericTestUtils.waitFor(() -> processed.size() == 2, 10, 5000);
+    assertEquals(0, processor.getQueueDepth());
+    assertEquals(ContainerID.valueOf(1), processed.get(0));
+  }
+}
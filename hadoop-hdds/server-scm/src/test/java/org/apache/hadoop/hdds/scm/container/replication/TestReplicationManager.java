@@ -44,6 +44,7 @@
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.isNull;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -1709,6 +1710,151 @@ public synchronized void processAll() {
     customRM.stop();
   }
 
+  @Test
+  public void testIncrementalModeProcessesDirtyContainers() throws Exception {
+    ReplicationManager.ReplicationManagerConfiguration rmConf =
+        configuration.getObject(
+            ReplicationManager.ReplicationManagerConfiguration.class);
+    rmConf.setIncrementalEnabled(true);
+    rmConf.setIncrementalWorkers(2);
+    AtomicBoolean processAllCalled = new AtomicBoolean(false);
+    final ReplicationManager customRM = new ReplicationManager(
+        rmConf,
+        configuration,
+        containerManager,
+        ratisPlacementPolicy,
+        ecPlacementPolicy,
+        eventPublisher,
+        scmContext,
+        nodeManager,
+        clock,
+        containerReplicaPendingOps) {
+          @Override
+          public synchronized void processAll() {
+            processAllCalled.set(true);
+          }
+        };
+    containerReplicaPendingOps.registerSubscriber(customRM);
+    customRM.notifyStatusChanged();
+    assertTrue(customRM.isIncrementalEnabled());
+
+    ContainerInfo container1 = createContainerInfo(repConfig, 1,
+        HddsProtos.LifeCycleState.CLOSED);
+    addReplicas(container1, ContainerReplicaProto.State.CLOSED, 1, 2, 3, 4);
+    ContainerInfo container2 = createContainerInfo(repConfig, 2,
+        HddsProtos.LifeCycleState.CLOSED);
+    addReplicas(container2, ContainerReplicaProto.State.CLOSED, 1, 2, 3, 4);
+    when(containerManager.getContainer(container1.containerID()))
+        .thenReturn(container1);
+    when(containerManager.getContainer(container2.containerID()))
+        .thenReturn(container2);
+    ReplicationManagerMetrics metrics = customRM.getMetrics();
+    long processedBefore = metrics.getDirtyContainersProcessedTotal();
+
+    try {
+      // the first full pass runs as soon as the service is ready
+      GenericTestUtils.waitFor(processAllCalled::get, 100, 5000);
+
+      // a replica change marks the container dirty
+      containerReplicaPendingOps.replicasChanged(container1.containerID());
+      GenericTestUtils.waitFor(() -> metrics.getDirtyContainersProcessedTotal()
+          == processedBefore + 1, 10, 5000);
+      verify(containerManager, times(1))
+          .getContainerReplicas(container1.containerID());
+      // the report and the queue reflect the dirty container
+      assertEquals(1, customRM.getContainerReport().getStat(
+          ReplicationManagerReport.HealthState.UNDER_REPLICATED));
+      assertEquals(1, customRM.getQueue().underReplicatedQueueSize());
+
+      // a node state change marks all the containers on the node dirty
+      DatanodeDetails dn = MockDatanodeDetails.randomDatanodeDetails();
+      when(nodeManager.getContainers(dn)).thenReturn(new HashSet<>(
+          Arrays.asList(container1.containerID(), container2.containerID())));
+      customRM.markDirty(dn);
+      GenericTestUtils.waitFor(() -> metrics.getDirtyContainersProcessedTotal()
+          == processedBefore + 3, 10, 5000);
+      verify(containerManager, times(2))
+          .getContainerReplicas(container1.containerID());
+      verify(containerManager, times(1))
+          .getContainerReplicas(container2.containerID());
+      assertEquals(0, customRM.getDirtyContainerQueueDepth());
+      assertEquals(2, customRM.getContainerReport().getStat(
+          ReplicationManagerReport.HealthState.UNDER_REPLICATED));
+    } finally {
+      customRM.stop();
+    }
+  }
+
+  @Test
+  public void testIncrementalModeKeepsDirtyContainersUntilReady()
+      throws Exception {
+    ReplicationManager.ReplicationManagerConfiguration rmConf =
+        configuration.getObject(
+            ReplicationManager.ReplicationManagerConfiguration.class);
+    rmConf.setIncrementalEnabled(true);
+    rmConf.setIncrementalWorkers(1);
+    when(scmContext.isInSafeMode()).thenReturn(true);
+    final ReplicationManager customRM = new ReplicationManager(
+        rmConf,
+        configuration,
+        containerManager,
+        ratisPlacementPolicy,
+        ecPlacementPolicy,
+        eventPublisher,
+        scmContext,
+        nodeManager,
+        clock,
+        containerReplicaPendingOps);
+    containerReplicaPendingOps.registerSubscriber(customRM);
+    customRM.notifyStatusChanged();
+
+    ContainerInfo container1 = createContainerInfo(repConfig, 1,
+        HddsProtos.LifeCycleState.CLOSED);
+    addReplicas(container1, ContainerReplicaProto.State.CLOSED, 1, 2, 3, 4);
+    when(containerManager.getContainer(container1.containerID()))
+        .thenReturn(container1);
+    ReplicationManagerMetrics metrics = customRM.getMetrics();
+    long processedBefore = metrics.getDirtyContainersProcessedTotal();
+
+    try {
+      containerReplicaPendingOps.replicasChanged(container1.containerID());
+      Thread.sleep(200);
+      // neither a full pass nor the dirty container is processed until ready
+      assertEquals(1, customRM.getDirtyContainerQueueDepth());
+      assertEquals(processedBefore,
+          metrics.getDirtyContainersProcessedTotal());
+      verify(containerManager, times(0)).getContainers();
+
+      when(scmContext.isInSafeMode()).thenReturn(false);
+      customRM.notifyStatusChanged();
+      GenericTestUtils.waitFor(() -> metrics.getDirtyContainersProcessedTotal()
+          == processedBefore + 1, 10, 5000);
+      assertEquals(0, customRM.getDirtyContainerQueueDepth());
+      // the first full pass runs without waiting for the full sweep interval
+      verify(containerManager, timeout(5000)).getContainers();
+      GenericTestUtils.waitFor(customRM::isThreadWaiting, 10, 5000);
+      // drain the entries of the first full pass and of the dirty container
+      int drained = 0;
+      while (customRM.getQueue().dequeueUnderReplicatedContainer() != null) {
+        drained++;
+      }
+      assertThat(drained).isGreaterThan(0);
+
+      // a full pass which does not see the container keeps it queued
+      containerInfoSet.remove(container1);
+      customRM.markDirty(container1.containerID());
+      GenericTestUtils.waitFor(() -> metrics.getDirtyContainersProcessedTotal()
+          == processedBefore + 2, 10, 5000);
+      assertEquals(1, customRM.getQueue().underReplicatedQueueSize());
+      customRM.processAll();
+      assertEquals(1, customRM.getQueue().underReplicatedQueueSize());
+      assertEquals(1, customRM.getContainerReport().getStat(
+          ReplicationManagerReport.HealthState.UNDER_REPLICATED));
+    } finally {
+      customRM.stop();
+    }
+  }
+
   @SafeVarargs
   private final Set<ContainerReplica>  addReplicas(ContainerInfo container,
       ContainerReplicaProto.State replicaState,
@@ -58,6 +58,7 @@ public void testAddNonExisting() {
 
     // Adding it again should fail.
     assertThrows(IllegalStateException.class, () -> containerAttribute.addNonExisting(key1, info));
+    assertEquals(1, containerAttribute.count(key1));
   }
 
   @Test
@@ -74,6 +75,8 @@ public void testClearSet() {
     }
     containerAttribute.clearSet(key1);
     assertEquals(0, containerAttribute.getCollection(key1).size());
+    assertEquals(0, containerAttribute.count(key1));
+    assertEquals(100, containerAttribute.count(key2));
   }
 
   @Test
@@ -100,6 +103,11 @@ public void testRemove() {
     assertEquals(100, containerAttribute.getCollection(key3).size());
 
     assertEquals(50, containerAttribute.getCollection(key1).size());
+
+    // Removing a missing id does not change the count.
+    containerAttribute.remove(key1, ContainerID.valueOf(1));
+    assertEquals(50, containerAttribute.count(key1));
+    assertEquals(100, containerAttribute.count(key2));
   }
 
   @Test
@@ -116,10 +124,14 @@ public void tesUpdate() throws SCMException {
     containerAttribute.update(key1, key2, id);
     assertFalse(hasContainerID(containerAttribute, key1, id));
     assertTrue(hasContainerID(containerAttribute, key2, id));
+    assertEquals(0, containerAttribute.count(key1));
+    assertEquals(1, containerAttribute.count(key2));
 
     // This should fail since we cannot find this id in the key3 bucket.
     assertThrows(SCMException.class,
         () -> containerAttribute.update(key3, key1, id));
+    assertEquals(0, containerAttribute.count(key3));
+    assertEquals(1, containerAttribute.count(key2));
   }
 
   enum Key { K1, K2, K3 }
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.hdds.scm.container.states;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.hadoop.hdds.client.RatisReplicationConfig;
+import org.apache.hadoop.hdds.protocol.DatanodeDetails;
+import org.apache.hadoop.hdds.protocol.MockDatanodeDetails;
+import org.apache.hadoop.hdds.protocol.proto.HddsProtos;
+import org.apache.hadoop.hdds.protocol.proto.HddsProtos.LifeCycleState;
+import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.ContainerReplicaProto;
+import org.apache.hadoop.hdds.scm.container.ContainerID;
+import org.apache.hadoop.hdds.scm.container.ContainerInfo;
+import org.apache.hadoop.hdds.scm.container.ContainerReplica;
+import org.apache.hadoop.hdds.scm.exceptions.SCMException;
+import org.apache.hadoop.hdds.scm.pipeline.PipelineID;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link ContainerStateMap}.
+ */
+public class TestContainerStateMap {
+
+  private static final int CONTAINERS = 1000;
+
+  @Test
+  public void testQueriesConcurrentWithUpdates() throws Exception {
+    ContainerStateMap map = new ContainerStateMap();
+    for (int i = 1; i <= CONTAINERS; i++) {
+      map.addContainer(newContainer(i));
+    }
+    DatanodeDetails dn = MockDatanodeDetails.randomDatanodeDetails();
+
+    AtomicBoolean done = new AtomicBoolean();
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<?>> readers = new ArrayList<>();
+      for (int r = 0; r < 3; r++) {
+        readers.add(executor.submit(() -> {
+          while (!done.get()) {
+            // would fail with ConcurrentModificationException on a TreeMap
+            map.getContainerInfos(LifeCycleState.OPEN);
+            // a container is in its new state before it is listed for it
+            for (ContainerInfo info
+                : map.getContainerInfos(LifeCycleState.CLOSED)) {
+              assertEquals(LifeCycleState.CLOSED, info.getState());
+            }
+            map.getContainerInfos(LifeCycleState.CLOSING,
+                ContainerID.valueOf(1), 100);
+            map.getContainerInfos(ContainerID.valueOf(1), CONTAINERS);
+            map.getContainerCount(LifeCycleState.CLOSED);
+            for (int i = 1; i <= CONTAINERS; i += 97) {
+              ContainerID id = ContainerID.valueOf(i);
+              assertNotNull(map.getContainerInfo(id));
+              assertNotNull(map.getContainerReplicas(id));
+            }
+          }
+          return null;
+        }));
+      }
+
+      Future<?> writer = executor.submit(() -> {
+        try {
+          for (int i = 1; i <= CONTAINERS; i++) {
+            ContainerID id = ContainerID.valueOf(i);
+            map.updateContainerReplica(newReplica(id, dn));
+            map.updateState(id, LifeCycleState.OPEN, LifeCycleState.CLOSING);
+            map.updateState(id, LifeCycleState.CLOSING, LifeCycleState.CLOSED);
+          }
+        } finally {
+          done.set(true);
+        }
+        return null;
+      });
+
+      writer.get();
+      for (Future<?> reader : readers) {
+        reader.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertEquals(0, map.getContainerCount(LifeCycleState.OPEN));
+    assertEquals(0, map.getContainerCount(LifeCycleState.CLOSING));
+    assertEquals(CONTAINERS, map.getContainerCount(LifeCycleState.CLOSED));
+    assertEquals(1, map.getContainerReplicas(ContainerID.valueOf(1)).size());
+  }
+
+  @Test
+  public void testFailedStateUpdate() throws Exception {
+    ContainerStateMap map = new ContainerStateMap();
+    ContainerInfo info = newContainer(1);
+    map.addContainer(info);
+
+    // the container is not CLOSING, so the state is not changed
+    assertThrows(SCMException.class, () -> map.updateState(
+        info.containerID(), LifeCycleState.CLOSING, LifeCycleState.CLOSED));
+    assertEquals(LifeCycleState.OPEN, info.getState());
+    assertEquals(1, map.getContainerCount(LifeCycleState.OPEN));
+    assertEquals(0, map.getContainerCount(LifeCycleState.CLOSED));
+  }
+
+  private static ContainerInfo newContainer(long id) {
+    return new ContainerInfo.Builder()
+        .setContainerID(id)
+        .setState(LifeCycleState.OPEN)
+        .setPipelineID(PipelineID.randomId())
+        .setReplicationConfig(RatisReplicationConfig.getInstance(
+            HddsProtos.ReplicationFactor.THREE))
+        .setOwner("root")
+        .build();
+  }
+
+  private static ContainerReplica newReplica(ContainerID id,
+      DatanodeDetails dn) {
+    return ContainerReplica.newBuilder()
+        .setContainerID(id)
+        .setContainerState(ContainerReplicaProto.State.CLOSED)
+        .setDatanodeDetails(dn)
+        .setOriginNodeId(dn.getID())
+        .setSequenceId(1)
+        .build();
+  }
+}
@@ -22,6 +22,7 @@
 import static org.apache.hadoop.hdds.scm.events.SCMEvents.CONTAINER_REPORT;
 import static org.apache.hadoop.hdds.scm.events.SCMEvents.NODE_REPORT;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.mock;
@@ -30,10 +31,12 @@
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.hadoop.hdds.protocol.DatanodeDetails;
 import org.apache.hadoop.hdds.protocol.DatanodeID;
 import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.CommandStatusReportsProto;
+import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.ContainerReplicaProto;
 import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.ContainerReportsProto;
 import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.NodeReportProto;
 import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.SCMHeartbeatRequestProto;
@@ -165,4 +168,48 @@ public void testScmHeartbeatAfterRestart() throws Exception {
     verify(mockNodeManager, times(1)).addDatanodeCommand(
         any(DatanodeID.class), any(ReregisterCommand.class));
   }
+
+  @Test
+  public void testIncludePreviousContainerReport() {
+    DatanodeDetails datanode = randomDatanodeDetails();
+    ContainerReplicaProto one = replica(1, 10);
+    ContainerReplicaProto two = replica(2, 10);
+    ContainerReplicaProto three = replica(3, 10);
+    ContainerReportFromDatanode previous = new ContainerReportFromDatanode(
+        datanode, ContainerReportsProto.newBuilder()
+            .addReports(one).addReports(two)
+            .addUnchangedContainerIds(3)
+            .build());
+
+    // container 1 changed, 2 and 3 are unchanged, 4 is new
+    ContainerReplicaProto oneChanged = replica(1, 11);
+    ContainerReplicaProto four = replica(4, 10);
+    ContainerReportFromDatanode next = new ContainerReportFromDatanode(
+        datanode, ContainerReportsProto.newBuilder()
+            .addReports(oneChanged).addReports(four)
+            .addUnchangedContainerIds(2).addUnchangedContainerIds(3)
+            .build());
+    next.includePreviousReport(previous);
+
+    assertEquals(Arrays.asList(oneChanged, four, two),
+        next.getReport().getReportsList());
+    assertEquals(Arrays.asList(3L),
+        next.getReport().getUnchangedContainerIdsList());
+
+    // a report with all replicas is not changed
+    ContainerReportsProto full = ContainerReportsProto.newBuilder()
+        .addReports(one).addReports(three).build();
+    ContainerReportFromDatanode fullReport =
+        new ContainerReportFromDatanode(datanode, full);
+    fullReport.includePreviousReport(previous);
+    assertSame(full, fullReport.getReport());
+  }
+
+  private static ContainerReplicaProto replica(long id, long keyCount) {
+    return ContainerReplicaProto.newBuilder()
+        .setContainerID(id)
+        .setState(ContainerReplicaProto.State.CLOSED)
+        .setKeyCount(keyCount)
+        .build();
+  }
 }
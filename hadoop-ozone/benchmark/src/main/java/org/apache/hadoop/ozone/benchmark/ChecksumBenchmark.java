@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.benchmark;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ChecksumType;
+import org.apache.hadoop.ozone.common.Checksum;
+import org.apache.hadoop.ozone.common.ChecksumData;
+import org.apache.hadoop.ozone.common.OzoneChecksumException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link Checksum} computation and verification of a chunk, as
+ * done by the client on write and by the datanode and client on read.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChecksumBenchmark {
+
+  @Param({"CRC32", "CRC32C", "SHA256", "MD5"})
+  private ChecksumType type;
+
+  @Param({"16384", "1048576"})
+  private int bytesPerChecksum;
+
+  @Param({"4194304"})
+  private int chunkSize;
+
+  private Checksum checksum;
+  private ByteBuffer data;
+  private ChecksumData checksumData;
+
+  @Setup
+  public void setup() throws OzoneChecksumException {
+    byte[] bytes = new byte[chunkSize];
+    ThreadLocalRandom.current().nextBytes(bytes);
+    data = ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+    checksum = new Checksum(type, bytesPerChecksum);
+    checksumData = checksum.computeChecksum(data.duplicate());
+  }
+
+  @Benchmark
+  public ChecksumData computeChecksum() throws OzoneChecksumException {
+    return checksum.computeChecksum(data.duplicate());
+  }
+
+  @Benchmark
+  public void verifyChecksum() throws OzoneChecksumException {
+    Checksum.verifyChecksum(data.duplicate(), checksumData, 0);
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.benchmark;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.apache.hadoop.ozone.common.ChecksumByteBuffer;
+import org.apache.hadoop.ozone.common.ChecksumByteBufferFactory;
+import org.apache.hadoop.ozone.common.PureJavaCrc32ByteBuffer;
+import org.apache.hadoop.ozone.common.PureJavaCrc32CByteBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the {@link ChecksumByteBuffer} implementations of CRC32 and
+ * CRC32C on heap and direct buffers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChecksumByteBufferBenchmark {
+
+  /** The implementations to compare. */
+  public enum Impl {
+    CRC32(ChecksumByteBufferFactory::crc32Impl),
+    PURE_JAVA_CRC32(PureJavaCrc32ByteBuffer::new),
+    CRC32C(ChecksumByteBufferFactory::crc32CImpl),
+    PURE_JAVA_CRC32C(PureJavaCrc32CByteBuffer::new);
+
+    private final Supplier<ChecksumByteBuffer> factory;
+
+    Impl(Supplier<ChecksumByteBuffer> factory) {
+      this.factory = factory;
+    }
+  }
+
+  @Param
+  private Impl impl;
+
+  @Param({"512", "16384", "1048576"})
+  private int bytesPerChecksum;
+
+  @Param({"false", "true"})
+  private boolean direct;
+
+  private ChecksumByteBuffer checksum;
+  private ByteBuffer data;
+
+  @Setup
+  public void setup() {
+    byte[] bytes = new byte[bytesPerChecksum];
+    ThreadLocalRandom.current().nextBytes(bytes);
+    data = direct ? ByteBuffer.allocateDirect(bytesPerChecksum)
+        : ByteBuffer.allocate(bytesPerChecksum);
+    data.put(bytes).flip();
+    checksum = impl.factory.get();
+  }
+
+  @Benchmark
+  public long update() {
+    checksum.reset();
+    checksum.update(data.duplicate());
+    return checksum.getValue();
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.benchmark;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.apache.hadoop.ozone.common.ChunkBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks filling a {@link ChunkBuffer} with application writes and
+ * iterating it per checksum, for the contiguous and the incremental
+ * implementation. As in the client, the increment of the latter is the
+ * number of bytes per checksum.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChunkBufferBenchmark {
+
+  @Param({"4194304"})
+  private int capacity;
+
+  @Param({"false", "true"})
+  private boolean incremental;
+
+  @Param({"4096", "1048576"})
+  private int writeSize;
+
+  @Param({"16384"})
+  private int bytesPerChecksum;
+
+  private ChunkBuffer buffer;
+  private ByteBuffer source;
+
+  @Setup
+  public void setup() {
+    buffer = ChunkBuffer.allocate(capacity,
+        incremental ? bytesPerChecksum : 0);
+    byte[] bytes = new byte[writeSize];
+    ThreadLocalRandom.current().nextBytes(bytes);
+    source = ByteBuffer.wrap(bytes);
+  }
+
+  @TearDown
+  public void tearDown() {
+    buffer.close();
+  }
+
+  @Benchmark
+  public ChunkBuffer fill() {
+    buffer.clear();
+    while (buffer.remaining() >= writeSize) {
+      buffer.put(source.duplicate());
+    }
+    return buffer;
+  }
+
+  @Benchmark
+  public void fillAndIterate(Blackhole blackhole) {
+    fill().rewind();
+    for (ByteBuffer b : buffer.iterate(bytesPerChecksum)) {
+      blackhole.consume(b);
+    }
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.benchmark;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.apache.hadoop.hdds.client.RatisReplicationConfig;
+import org.apache.hadoop.hdds.protocol.DatanodeDetails;
+import org.apache.hadoop.hdds.protocol.DatanodeID;
+import org.apache.hadoop.hdds.protocol.proto.HddsProtos.LifeCycleState;
+import org.apache.hadoop.hdds.protocol.proto.HddsProtos.ReplicationFactor;
+import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.ContainerReplicaProto;
+import org.apache.hadoop.hdds.scm.container.ContainerID;
+import org.apache.hadoop.hdds.scm.container.ContainerInfo;
+import org.apache.hadoop.hdds.scm.container.ContainerReplica;
+import org.apache.hadoop.hdds.scm.container.states.ContainerStateMap;
+import org.apache.hadoop.hdds.scm.pipeline.PipelineID;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks queries of {@link ContainerStateMap} concurrent with replica
+ * and state updates, as done by report processing.  With
+ * {@code globalLock}, queries and updates are serialized by a read-write lock
+ * as ContainerStateManagerImpl used to do when the map was not thread-safe;
+ * without it, queries run lock-free on the concurrent map.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContainerStateMapBenchmark {
+
+  @Param({"100000"})
+  private int containers;
+
+  @Param({"false", "true"})
+  private boolean globalLock;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock(true);
+  private ContainerStateMap map;
+  private DatanodeDetails[] datanodes;
+
+  @Setup
+  public void setup() {
+    map = new ContainerStateMap();
+    for (int i = 1; i <= containers; i++) {
+      map.addContainer(new ContainerInfo.Builder()
+          .setContainerID(i)
+          .setState(i % 10 == 0 ? LifeCycleState.OPEN : LifeCycleState.CLOSED)
+          .setPipelineID(PipelineID.randomId())
+          .setReplicationConfig(
+              RatisReplicationConfig.getInstance(ReplicationFactor.THREE))
+          .setOwner("om")
+          .build());
+    }
+    datanodes = new DatanodeDetails[30];
+    for (int i = 0; i < datanodes.length; i++) {
+      datanodes[i] = DatanodeDetails.newBuilder()
+          .setID(DatanodeID.randomID())
+          .setHostName("dn" + i)
+          .setIpAddress("10.0.0." + i)
+          .build();
+    }
+  }
+
+  private ContainerID randomContainer() {
+    return ContainerID.valueOf(
+        ThreadLocalRandom.current().nextInt(containers) + 1);
+  }
+
+  @Benchmark
+  @Group("mixed")
+  @GroupThreads(6)
+  public ContainerInfo getContainer() {
+    if (globalLock) {
+      lock.readLock().lock();
+      try {
+        return map.getContainerInfo(randomContainer());
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+    return map.getContainerInfo(randomContainer());
+  }
+
+  @Benchmark
+  @Group("mixed")
+  @GroupThreads(1)
+  public List<ContainerInfo> listContainers() {
+    if (globalLock) {
+      lock.readLock().lock();
+      try {
+        return map.getContainerInfos(LifeCycleState.CLOSED,
+            randomContainer(), 1000);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+    return map.getContainerInfos(LifeCycleState.CLOSED, randomContainer(),
+        1000);
+  }
+
+  @Benchmark
+  @Group("mixed")
+  @GroupThreads(1)
+  public ContainerReplica updateReplica() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    DatanodeDetails dn = datanodes[random.nextInt(datanodes.length)];
+    ContainerReplica replica = ContainerReplica.newBuilder()
+        .setContainerID(randomContainer())
+        .setContainerState(ContainerReplicaProto.State.CLOSED)
+        .setDatanodeDetails(dn)
+        .setOriginNodeId(dn.getID())
+        .setSequenceId(random.nextLong())
+        .build();
+    if (globalLock) {
+      lock.writeLock().lock();
+      try {
+        return map.updateContainerReplica(replica);
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+    return map.updateContainerReplica(replica);
+  }
+}
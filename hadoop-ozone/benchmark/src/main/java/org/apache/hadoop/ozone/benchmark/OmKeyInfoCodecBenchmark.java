@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.hadoop.hdds.client.BlockID;
+import org.apache.hadoop.hdds.client.RatisReplicationConfig;
+import org.apache.hadoop.hdds.protocol.proto.HddsProtos.ReplicationFactor;
+import org.apache.hadoop.hdds.utils.db.Codec;
+import org.apache.hadoop.hdds.utils.db.CodecBuffer;
+import org.apache.hadoop.hdds.utils.db.CodecException;
+import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.apache.hadoop.ozone.om.helpers.OmKeyLocationInfo;
+import org.apache.hadoop.ozone.om.helpers.OmKeyLocationInfoGroup;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks encoding and decoding {@link OmKeyInfo} with the codec of the
+ * OM key table.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OmKeyInfoCodecBenchmark {
+
+  @Param({"1", "16"})
+  private int blocks;
+
+  @Param({"0", "8"})
+  private int metadataEntries;
+
+  private Codec<OmKeyInfo> codec;
+  private OmKeyInfo keyInfo;
+  private byte[] encoded;
+
+  @Setup
+  public void setup() throws CodecException {
+    codec = OmKeyInfo.getCodec(true);
+
+    List<OmKeyLocationInfo> locations = new ArrayList<>();
+    for (int i = 0; i < blocks; i++) {
+      locations.add(new OmKeyLocationInfo.Builder()
+          .setBlockID(new BlockID(i, 1000L + i))
+          .setLength(256L << 20)
+          .build());
+    }
+    OmKeyInfo.Builder builder = new OmKeyInfo.Builder()
+        .setVolumeName("volume")
+        .setBucketName("bucket")
+        .setKeyName("warehouse/sales/year=2025/month=10/part-00037.parquet")
+        .setReplicationConfig(
+            RatisReplicationConfig.getInstance(ReplicationFactor.THREE))
+        .setObjectID(1L << 40)
+        .setUpdateID(1000L)
+        .setCreationTime(System.currentTimeMillis())
+        .setModificationTime(System.currentTimeMillis())
+        .setDataSize(blocks * (256L << 20))
+        .setOmKeyLocationInfos(Collections.singletonList(
+            new OmKeyLocationInfoGroup(0, locations)));
+    for (int i = 0; i < metadataEntries; i++) {
+      builder.addMetadata("key" + i, "value" + i);
+    }
+    keyInfo = builder.build();
+    encoded = codec.toPersistedFormat(keyInfo);
+  }
+
+  @Benchmark
+  public byte[] encode() throws CodecException {
+    return codec.toPersistedFormat(keyInfo);
+  }
+
+  @Benchmark
+  public OmKeyInfo decode() throws CodecException {
+    return codec.fromPersistedFormat(encoded);
+  }
+
+  @Benchmark
+  public OmKeyInfo decodeFromCodecBuffer() throws CodecException {
+    try (CodecBuffer buffer = CodecBuffer.wrap(encoded)) {
+      return codec.fromCodecBuffer(buffer);
+    }
+  }
+
+  @Benchmark
+  public OmKeyInfo copy() {
+    return codec.copyObject(keyInfo);
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.benchmark;
+
+import static org.apache.hadoop.ozone.om.lock.OzoneManagerLock.LeveledResource.BUCKET_LOCK;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
+import org.apache.hadoop.ozone.OzoneConfigKeys;
+import org.apache.hadoop.ozone.om.lock.OzoneManagerLock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks acquiring and releasing the bucket lock of
+ * {@link OzoneManagerLock} by concurrent threads, with the buckets being
+ * either a single hot bucket or spread over many.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OzoneManagerLockBenchmark {
+
+  private static final String VOLUME = "vol";
+
+  @Param({"1", "1024"})
+  private int buckets;
+
+  @Param({"false", "true"})
+  private boolean optimisticRead;
+
+  private OzoneManagerLock lock;
+  private String[] bucketNames;
+
+  @Setup
+  public void setup() {
+    OzoneConfiguration conf = new OzoneConfiguration();
+    conf.setBoolean(OzoneConfigKeys.OZONE_MANAGER_OPTIMISTIC_READ_ENABLED,
+        optimisticRead);
+    lock = new OzoneManagerLock(conf);
+    bucketNames = new String[buckets];
+    for (int i = 0; i < buckets; i++) {
+      bucketNames[i] = "bucket" + i;
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    lock.cleanup();
+  }
+
+  private String nextBucket() {
+    return bucketNames[ThreadLocalRandom.current().nextInt(buckets)];
+  }
+
+  @Benchmark
+  @Threads(8)
+  public void readLock() {
+    String bucket = nextBucket();
+    lock.acquireReadLock(BUCKET_LOCK, VOLUME, bucket);
+    lock.releaseReadLock(BUCKET_LOCK, VOLUME, bucket);
+  }
+
+  @Benchmark
+  @Threads(8)
+  public void writeLock() {
+    String bucket = nextBucket();
+    lock.acquireWriteLock(BUCKET_LOCK, VOLUME, bucket);
+    lock.releaseWriteLock(BUCKET_LOCK, VOLUME, bucket);
+  }
+
+  @Benchmark
+  @Threads(8)
+  public String readOptimistically() {
+    String bucket = nextBucket();
+    return lock.readOptimistically(BUCKET_LOCK, () -> bucket, VOLUME, bucket);
+  }
+
+  @Benchmark
+  @Group("mixed")
+  @GroupThreads(7)
+  public String mixedRead() {
+    return readOptimistically();
+  }
+
+  @Benchmark
+  @Group("mixed")
+  @GroupThreads(1)
+  public void mixedWrite() {
+    writeLock();
+  }
+}
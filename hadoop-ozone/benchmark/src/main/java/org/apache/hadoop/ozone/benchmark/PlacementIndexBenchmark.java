@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.benchmark;
+
+import static org.apache.hadoop.hdds.scm.net.NetConstants.LEAF_SCHEMA;
+import static org.apache.hadoop.hdds.scm.net.NetConstants.RACK_SCHEMA;
+import static org.apache.hadoop.hdds.scm.net.NetConstants.ROOT_SCHEMA;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
+import org.apache.hadoop.hdds.protocol.DatanodeDetails;
+import org.apache.hadoop.hdds.protocol.DatanodeID;
+import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.StorageReportProto;
+import org.apache.hadoop.hdds.scm.SCMCommonPlacementPolicy;
+import org.apache.hadoop.hdds.scm.container.placement.algorithms.PlacementIndex;
+import org.apache.hadoop.hdds.scm.net.NetworkTopology;
+import org.apache.hadoop.hdds.scm.net.NetworkTopologyImpl;
+import org.apache.hadoop.hdds.scm.net.Node;
+import org.apache.hadoop.hdds.scm.net.NodeSchema;
+import org.apache.hadoop.hdds.scm.net.NodeSchemaManager;
+import org.apache.hadoop.hdds.scm.node.DatanodeInfo;
+import org.apache.hadoop.hdds.scm.node.NodeStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks choosing a datanode in a rack with enough space, as done by
+ * SCMContainerPlacementRackScatter for each replica.  Without
+ * {@code index}, random nodes are picked from the network topology and
+ * checked until a suitable one is found, up to 5 attempts; with it, the
+ * node is taken from a {@link PlacementIndex}.  A fifth of the nodes are
+ * full, and a few nodes are excluded, as by a client retrying a write.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class PlacementIndexBenchmark {
+
+  private static final int MAX_RETRY = 5;
+  private static final long CONTAINER_SIZE = 5L << 30;
+
+  @Param({"5000"})
+  private int datanodes;
+
+  @Param({"25"})
+  private int nodesPerRack;
+
+  @Param({"false", "true"})
+  private boolean index;
+
+  private final OzoneConfiguration conf = new OzoneConfiguration();
+  private final Map<DatanodeID, DatanodeDetails> nodeInfos = new HashMap<>();
+  private NetworkTopology topology;
+  private PlacementIndex placementIndex;
+  private String[] racks;
+  private List<Node> excludedNodes;
+
+  @Setup
+  public void setup() {
+    NodeSchemaManager.getInstance().init(
+        new NodeSchema[] {ROOT_SCHEMA, RACK_SCHEMA, LEAF_SCHEMA}, true);
+    topology = new NetworkTopologyImpl(NodeSchemaManager.getInstance());
+    racks = new String[datanodes / nodesPerRack];
+    for (int i = 0; i < racks.length; i++) {
+      racks[i] = "/rack" + i;
+    }
+    List<Node> nodes = new ArrayList<>();
+    for (int i = 0; i < datanodes; i++) {
+      DatanodeDetails dn = DatanodeDetails.newBuilder()
+          .setID(DatanodeID.randomID())
+          .setHostName("dn" + i)
+          .setIpAddress("10.0." + (i >> 8) + "." + (i & 0xff))
+          .setNetworkLocation(racks[i % racks.length])
+          .build();
+      topology.add(dn);
+      nodes.add(dn);
+      DatanodeInfo info =
+          new DatanodeInfo(dn, NodeStatus.inServiceHealthy(), null);
+      long remaining = i % 5 == 0 ? CONTAINER_SIZE / 2 : 10 * CONTAINER_SIZE;
+      info.updateStorageReports(Collections.singletonList(
+          StorageReportProto.newBuilder()
+              .setStorageUuid(dn.getUuidString())
+              .setStorageLocation("/data")
+              .setCapacity(20 * CONTAINER_SIZE)
+              .setRemaining(remaining)
+              .setScmUsed(20 * CONTAINER_SIZE - remaining)
+              .build()));
+      nodeInfos.put(dn.getID(), info);
+    }
+    Collections.shuffle(nodes);
+    excludedNodes = Collections.unmodifiableList(
+        new ArrayList<>(nodes.subList(0, 3)));
+    placementIndex = new PlacementIndex(topology, nodeInfos::get, conf,
+        TimeUnit.SECONDS.toMillis(1));
+  }
+
+  @Benchmark
+  public Node chooseNode() {
+    String rack = racks[ThreadLocalRandom.current().nextInt(racks.length)];
+    if (index) {
+      return placementIndex.chooseNode(rack, excludedNodes, 0,
+          CONTAINER_SIZE);
+    }
+    List<Node> excluded = new ArrayList<>(excludedNodes);
+    for (int i = 0; i < MAX_RETRY; i++) {
+      Node node = topology.chooseRandom(rack, excluded);
+      if (node == null) {
+        return null;
+      }
+      DatanodeInfo info = (DatanodeInfo) nodeInfos.get(
+          ((DatanodeDetails) node).getID());
+      if (info.getNodeStatus().isNodeWritable()
+          && SCMCommonPlacementPolicy.hasEnoughSpace(info, 0, CONTAINER_SIZE,
+              conf)) {
+        return node;
+      }
+      excluded.add(node);
+    }
+    return null;
+  }
+}
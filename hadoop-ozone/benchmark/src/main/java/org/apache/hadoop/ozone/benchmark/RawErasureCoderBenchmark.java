@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.benchmark;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.apache.hadoop.hdds.client.ECReplicationConfig;
+import org.apache.hadoop.hdds.client.ECReplicationConfig.EcCodec;
+import org.apache.ozone.erasurecode.rawcoder.RSRawErasureCoderFactory;
+import org.apache.ozone.erasurecode.rawcoder.RawErasureCoderFactory;
+import org.apache.ozone.erasurecode.rawcoder.RawErasureDecoder;
+import org.apache.ozone.erasurecode.rawcoder.RawErasureEncoder;
+import org.apache.ozone.erasurecode.rawcoder.XORRawErasureCoderFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks encoding a stripe and reconstructing lost units with the pure
+ * Java RS and XOR raw coders.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RawErasureCoderBenchmark {
+
+  @Param({"rs-3-2", "rs-6-3", "rs-10-4", "xor-2-1"})
+  private String scheme;
+
+  @Param({"1048576"})
+  private int chunkSize;
+
+  @Param({"true"})
+  private boolean direct;
+
+  private RawErasureEncoder encoder;
+  private RawErasureDecoder decoder;
+  private ByteBuffer[] dataUnits;
+  private ByteBuffer[] parityUnits;
+  private ByteBuffer[] decodeInputs;
+  private ByteBuffer[] decodeOutputs;
+  private int[] erasedIndexes;
+
+  @Setup
+  public void setup() throws IOException {
+    String[] parts = scheme.split("-");
+    EcCodec codec = EcCodec.valueOf(parts[0].toUpperCase(Locale.ROOT));
+    ECReplicationConfig config = new ECReplicationConfig(
+        Integer.parseInt(parts[1]), Integer.parseInt(parts[2]), codec,
+        chunkSize);
+    RawErasureCoderFactory factory = codec == EcCodec.XOR
+        ? new XORRawErasureCoderFactory() : new RSRawErasureCoderFactory();
+    encoder = factory.createEncoder(config);
+    decoder = factory.createDecoder(config);
+
+    int data = config.getData();
+    int parity = config.getParity();
+    dataUnits = new ByteBuffer[data];
+    for (int i = 0; i < data; i++) {
+      dataUnits[i] = allocate();
+      byte[] bytes = new byte[chunkSize];
+      ThreadLocalRandom.current().nextBytes(bytes);
+      dataUnits[i].put(bytes).flip();
+    }
+    parityUnits = new ByteBuffer[parity];
+    for (int i = 0; i < parity; i++) {
+      parityUnits[i] = allocate();
+    }
+    encode();
+
+    // lose as many data units as there are parity units
+    erasedIndexes = new int[parity];
+    decodeInputs = new ByteBuffer[data + parity];
+    decodeOutputs = new ByteBuffer[parity];
+    for (int i = 0; i < parity; i++) {
+      erasedIndexes[i] = i;
+      decodeOutputs[i] = allocate();
+    }
+    for (int i = parity; i < data; i++) {
+      decodeInputs[i] = dataUnits[i];
+    }
+    for (int i = 0; i < parity; i++) {
+      decodeInputs[data + i] = parityUnits[i];
+    }
+  }
+
+  private ByteBuffer allocate() {
+    return direct ? ByteBuffer.allocateDirect(chunkSize)
+        : ByteBuffer.allocate(chunkSize);
+  }
+
+  private static ByteBuffer[] reset(ByteBuffer[] buffers, boolean clear) {
+    for (ByteBuffer b : buffers) {
+      if (b == null) {
+        continue;
+      }
+      if (clear) {
+        b.clear();
+      } else {
+        b.rewind();
+      }
+    }
+    return buffers;
+  }
+
+  @Benchmark
+  public ByteBuffer[] encode() throws IOException {
+    encoder.encode(reset(dataUnits, false), reset(parityUnits, true));
+    return parityUnits;
+  }
+
+  @Benchmark
+  public ByteBuffer[] decode() throws IOException {
+    decoder.decode(reset(decodeInputs, false), erasedIndexes,
+        reset(decodeOutputs, true));
+    return decodeOutputs;
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.apache.hadoop.hdds.utils.db.cache.CacheKey;
+import org.apache.hadoop.hdds.utils.db.cache.CacheResult;
+import org.apache.hadoop.hdds.utils.db.cache.CacheValue;
+import org.apache.hadoop.hdds.utils.db.cache.FullTableCache;
+import org.apache.hadoop.hdds.utils.db.cache.PartialTableCache;
+import org.apache.hadoop.hdds.utils.db.cache.TableCache;
+import org.apache.hadoop.hdds.utils.db.cache.TableCache.CacheType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the {@link TableCache} implementations backing TypedTable:
+ * lookups of cached and uncached keys, and puts followed by eviction of the
+ * flushed epochs, as done by the OM double buffer.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TableCacheBenchmark {
+
+  /** Number of epochs evicted at once, similar to a double buffer flush. */
+  private static final int EVICT_BATCH = 1000;
+
+  @Param({"PARTIAL_CACHE", "FULL_CACHE"})
+  private CacheType cacheType;
+
+  @Param({"100000"})
+  private int entries;
+
+  private TableCache<String, String> cache;
+  private List<CacheKey<String>> keys;
+  private long epoch;
+  private List<Long> pendingEpochs;
+
+  @Setup
+  public void setup() {
+    cache = cacheType == CacheType.FULL_CACHE
+        ? new FullTableCache<>("benchmark")
+        : new PartialTableCache<>("benchmark");
+    keys = new ArrayList<>(entries);
+    for (int i = 0; i < entries; i++) {
+      String key = String.format("/volume/bucket/key-%08d", i);
+      keys.add(new CacheKey<>(key));
+      if (cacheType == CacheType.FULL_CACHE) {
+        cache.loadInitial(keys.get(i), CacheValue.get(-1, key));
+      } else {
+        cache.put(keys.get(i), CacheValue.get(-1, key));
+      }
+    }
+    epoch = 0;
+    pendingEpochs = new ArrayList<>(EVICT_BATCH);
+  }
+
+  private CacheKey<String> randomKey() {
+    return keys.get(ThreadLocalRandom.current().nextInt(entries));
+  }
+
+  @Benchmark
+  public CacheValue<String> get() {
+    return cache.get(randomKey());
+  }
+
+  @Benchmark
+  public CacheResult<String> lookupMissing() {
+    return cache.lookup(new CacheKey<>("/volume/bucket/missing-"
+        + ThreadLocalRandom.current().nextInt(entries)));
+  }
+
+  @Benchmark
+  public void putAndEvict() {
+    CacheKey<String> key = randomKey();
+    cache.put(key, CacheValue.get(epoch, key.getCacheKey()));
+    pendingEpochs.add(epoch++);
+    if (pendingEpochs.size() == EVICT_BATCH) {
+      cache.evictCache(pendingEpochs);
+      pendingEpochs = new ArrayList<>(EVICT_BATCH);
+    }
+  }
+}
@@ -0,0 +1,33 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/**
+ * JMH micro-benchmarks for Ozone hot paths.
+ * <p>
+ * The module is only built with the {@code benchmark} profile, and never
+ * deployed, as it bundles JMH, which is GPL licensed:
+ * <pre>
+ *   mvn package -Pbenchmark -pl :ozone-benchmark -am -DskipTests
+ * </pre>
+ * It builds a self-contained jar, which can be run offline:
+ * <pre>
+ *   java -jar ozone-benchmark-*-benchmarks.jar [JMH options] [regexp]
+ * </pre>
+ * Results are written to jmh-result.json by default, see
+ * {@link org.apache.hadoop.ozone.benchmark.BenchmarkRunner}.
+ */
+package org.apache.hadoop.ozone.benchmark;
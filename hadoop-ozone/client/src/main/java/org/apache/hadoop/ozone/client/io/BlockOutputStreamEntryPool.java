@@ -22,18 +22,23 @@
 import java.io.IOException;
 import java.time.Clock;
 import java.time.ZoneOffset;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.function.Supplier;
 import org.apache.hadoop.hdds.client.ContainerBlockID;
+import org.apache.hadoop.hdds.protocol.DatanodeDetails;
 import org.apache.hadoop.hdds.scm.ByteStringConversion;
 import org.apache.hadoop.hdds.scm.ContainerClientMetrics;
 import org.apache.hadoop.hdds.scm.OzoneClientConfig;
 import org.apache.hadoop.hdds.scm.StreamBufferArgs;
 import org.apache.hadoop.hdds.scm.XceiverClientFactory;
+import org.apache.hadoop.hdds.scm.container.ContainerID;
 import org.apache.hadoop.hdds.scm.container.common.helpers.ExcludeList;
 import org.apache.hadoop.hdds.scm.pipeline.PipelineID;
 import org.apache.hadoop.hdds.scm.storage.BufferPool;
@@ -79,6 +84,15 @@ public class BlockOutputStreamEntryPool implements KeyMetadataAware {
    * the entries in the pool.
    */
   private final BufferPool bufferPool;
+  /**
+   * The {@link BufferPool} to be used by the current stream entry. It differs
+   * from {@link #bufferPool} only if full blocks are closed in the background,
+   * see {@link #trySkipCurrentStreamEntry()}.
+   */
+  private BufferPool currentBufferPool;
+  /** Buffer pools released by the blocks closed in the background. */
+  private final Deque<BufferPool> idleBufferPools = new ArrayDeque<>();
+  private boolean cleanedUp;
   private OmMultipartCommitUploadPartInfo commitUploadPartInfo;
   private final long openID;
   private final ExcludeList excludeList;
@@ -111,7 +125,9 @@ public BlockOutputStreamEntryPool(KeyOutputStream.Builder b) {
             (int) (streamBufferArgs.getStreamBufferMaxSize() / streamBufferArgs
                 .getStreamBufferSize()),
             ByteStringConversion
-                .createByteBufferConversion(b.isUnsafeByteBufferConversionEnabled()));
+                .createByteBufferConversion(b.isUnsafeByteBufferConversionEnabled()),
+            b.getWriteBufferBudget());
+    this.currentBufferPool = bufferPool;
     this.clientMetrics = b.getClientMetrics();
     this.executorServiceSupplier = b.getExecutorServiceSupplier();
   }
@@ -364,7 +380,7 @@ void hsyncKey(long offset) throws IOException {
     }
   }
 
-  BlockOutputStreamEntry getCurrentStreamEntry() {
+  synchronized BlockOutputStreamEntry getCurrentStreamEntry() {
     if (streamEntries.isEmpty() || streamEntries.size() <= currentStreamIndex) {
       return null;
     } else {
@@ -396,20 +412,143 @@ synchronized BlockOutputStreamEntry allocateBlockIfNeeded(boolean forRetry) thro
     // still do a sanity check.
     Preconditions.checkArgument(currentStreamIndex < streamEntries.size(),
         "currentStreamIndex(%s) must be < streamEntries.size(%s)", currentStreamIndex, streamEntries.size());
-    return streamEntries.get(currentStreamIndex);
+    streamEntry = streamEntries.get(currentStreamIndex);
+    if (!streamEntry.isInitialized()
+        && streamEntry.getBufferPool() != currentBufferPool) {
+      streamEntry.setBufferPool(currentBufferPool);
+    }
+    return streamEntry;
+  }
+
+  /**
+   * Moves on from the current stream entry, which is full and is going to be
+   * closed in the background. The next write goes to the next pre-allocated
+   * block, or a newly allocated one, using a different {@link BufferPool}
+   * than the one still holding the unacknowledged data of the current block.
+   * @return false if the write buffer budget does not allow another
+   * {@link BufferPool}, in which case the current entry is not skipped.
+   */
+  synchronized boolean trySkipCurrentStreamEntry() {
+    BufferPool next = idleBufferPools.poll();
+    if (next == null) {
+      next = new BufferPool(bufferPool.getBufferSize(),
+          bufferPool.getCapacity(), bufferPool.byteStringConversion(),
+          bufferPool.getBudget());
+      if (!next.tryReserve()) {
+        return false;
+      }
+    }
+    currentStreamIndex++;
+    currentBufferPool = next;
+    return true;
+  }
+
+  /**
+   * Makes the {@link BufferPool} of a block closed in the background
+   * available for the next blocks.
+   */
+  synchronized void releaseBufferPool(BufferPool pool) {
+    if (cleanedUp) {
+      pool.clearBufferPool();
+    } else {
+      idleBufferPools.push(pool);
+    }
+  }
+
+  /**
+   * Allocates a new block to take over the unacknowledged data of a block
+   * which failed while being closed in the background. The new entry is
+   * placed right after the failed one, so that the blocks are committed in
+   * the order of the data they hold, and uses the same {@link BufferPool}.
+   * @param failed the entry which failed
+   * @return the new entry
+   * @throws IOException if the failed entry is not part of the key any
+   * more, or the block allocation failed.
+   */
+  synchronized BlockOutputStreamEntry allocateBlockAfter(
+      BlockOutputStreamEntry failed) throws IOException {
+    int index = streamEntries.indexOf(failed);
+    if (index < 0) {
+      throw new IOException("Stream entry " + failed + " has been discarded");
+    }
+    if (!excludeList.isEmpty()) {
+      LOG.debug("Allocating block with {}", excludeList);
+    }
+    OmKeyLocationInfo subKeyInfo =
+        omClient.allocateBlock(keyArgs, openID, excludeList);
+    Preconditions.checkNotNull(subKeyInfo.getPipeline());
+    BlockOutputStreamEntry entry = createStreamEntry(subKeyInfo, false);
+    entry.setBufferPool(failed.getBufferPool());
+    streamEntries.add(index + 1, entry);
+    if (index < currentStreamIndex) {
+      currentStreamIndex++;
+    }
+    return entry;
+  }
+
+  /**
+   * Adds the servers, and the container or pipeline of a failed stream entry
+   * to the exclude list, and discards the pre-allocated blocks which would
+   * be affected by the same failure.
+   * @param streamEntry the entry which failed
+   * @param excludeContainer whether the container should be excluded
+   *                         instead of the pipeline
+   */
+  synchronized void excludeFailedStream(BlockOutputStreamEntry streamEntry,
+      boolean excludeContainer) {
+    Collection<DatanodeDetails> failedServers = streamEntry.getFailedServers();
+    Preconditions.checkNotNull(failedServers);
+    if (!failedServers.isEmpty()) {
+      excludeList.addDatanodes(failedServers);
+    }
+
+    // if the container needs to be excluded , add the container to the
+    // exclusion list , otherwise add the pipeline to the exclusion list
+    long containerId = streamEntry.getBlockID().getContainerID();
+    PipelineID pipelineId = streamEntry.getPipeline().getId();
+    if (excludeContainer) {
+      excludeList.addConatinerId(ContainerID.valueOf(containerId));
+    } else {
+      excludeList.addPipeline(pipelineId);
+    }
+
+    // discard all subsequent blocks the containers and pipelines which
+    // are in the exclude list so that, the very next retry should never
+    // write data on the  closed container/pipeline
+    if (excludeContainer) {
+      // discard subsequent pre allocated blocks from the streamEntries list
+      // from the closed container
+      discardPreallocatedBlocks(containerId, null);
+    } else {
+      // In case there is timeoutException or Watch for commit happening over
+      // majority or the client connection failure to the leader in the
+      // pipeline, just discard all the pre allocated blocks on this pipeline.
+      // Next block allocation will happen with excluding this specific pipeline
+      // This will ensure if 2 way commit happens , it cannot span over multiple
+      // blocks
+      discardPreallocatedBlocks(-1, pipelineId);
+    }
   }
 
   long computeBufferData() {
     return bufferPool.computeBufferData();
   }
 
-  void cleanup() {
+  synchronized void cleanup() {
+    cleanedUp = true;
     if (excludeList != null) {
       excludeList.clear();
     }
     if (bufferPool != null) {
       bufferPool.clearBufferPool();
     }
+    if (currentBufferPool != bufferPool) {
+      currentBufferPool.clearBufferPool();
+    }
+    for (BufferPool pool : idleBufferPools) {
+      pool.clearBufferPool();
+    }
+    idleBufferPools.clear();
 
     if (streamEntries != null) {
       streamEntries.clear();
@@ -424,7 +563,7 @@ public ExcludeList getExcludeList() {
     return excludeList;
   }
 
-  boolean isEmpty() {
+  synchronized boolean isEmpty() {
     return streamEntries.isEmpty();
   }
 
@@ -22,11 +22,16 @@
 import java.io.IOException;
 import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -43,11 +48,11 @@
 import org.apache.hadoop.hdds.scm.StreamBufferArgs;
 import org.apache.hadoop.hdds.scm.XceiverClientFactory;
 import org.apache.hadoop.hdds.scm.client.HddsClientUtils;
-import org.apache.hadoop.hdds.scm.container.ContainerID;
 import org.apache.hadoop.hdds.scm.container.common.helpers.ExcludeList;
 import org.apache.hadoop.hdds.scm.container.common.helpers.StorageContainerException;
 import org.apache.hadoop.hdds.scm.pipeline.Pipeline;
-import org.apache.hadoop.hdds.scm.pipeline.PipelineID;
+import org.apache.hadoop.hdds.scm.storage.BufferPool;
+import org.apache.hadoop.hdds.scm.storage.WriteBufferBudget;
 import org.apache.hadoop.io.retry.RetryPolicies;
 import org.apache.hadoop.io.retry.RetryPolicy;
 import org.apache.hadoop.ozone.OzoneManagerVersion;
@@ -110,6 +115,16 @@ public class KeyOutputStream extends OutputStream
   private final int maxConcurrentWritePerKey;
   private final KeyOutputStreamSemaphore keyOutputStreamSemaphore;
 
+  /**
+   * Permits for closing full blocks in the background, bounding the number
+   * of blocks written in parallel; null if the blocks are written one after
+   * the other.
+   */
+  private final KeyOutputStreamSemaphore blockClosePermits;
+  /** The blocks being closed in the background, guarded by writeLock. */
+  private final List<CompletableFuture<Void>> pendingBlockCloses =
+      new ArrayList<>();
+
   @VisibleForTesting
   KeyOutputStreamSemaphore getRequestSemaphore() {
     return keyOutputStreamSemaphore;
@@ -121,6 +136,7 @@ KeyOutputStreamSemaphore getRequestSemaphore() {
   KeyOutputStream() {
     maxConcurrentWritePerKey = 0;
     keyOutputStreamSemaphore = null;
+    blockClosePermits = null;
     blockOutputStreamEntryPool = null;
     retryPolicyMap = null;
     replication = null;
@@ -140,6 +156,7 @@ public KeyOutputStream(ReplicationConfig replicationConfig, BlockOutputStreamEnt
     // At the moment, this constructor is only used by ECKeyOutputStream.
     this.maxConcurrentWritePerKey = 1;
     this.keyOutputStreamSemaphore = new KeyOutputStreamSemaphore(maxConcurrentWritePerKey);
+    this.blockClosePermits = null;
   }
 
   protected BlockOutputStreamEntryPool getBlockOutputStreamEntryPool() {
@@ -172,6 +189,9 @@ public KeyOutputStream(Builder b) {
     final OzoneClientConfig config = b.getClientConfig();
     this.maxConcurrentWritePerKey = config.getMaxConcurrentWritePerKey();
     this.keyOutputStreamSemaphore = new KeyOutputStreamSemaphore(maxConcurrentWritePerKey);
+    final int parallelBlockWrites = config.getParallelBlockWrites();
+    this.blockClosePermits = parallelBlockWrites > 1
+        ? new KeyOutputStreamSemaphore(parallelBlockWrites - 1) : null;
     this.retryPolicyMap = HddsClientUtils.getRetryPolicyByException(
         config.getMaxRetryCount(), config.getRetryInterval());
     this.retryCount = 0;
@@ -275,7 +295,11 @@ void handleWrite(byte[] b, int off, long len, boolean retry)
                 off, currentPos);
         if (current.getRemaining() <= 0) {
           // since the current block is already written close the stream.
-          handleFlushOrClose(StreamAction.FULL);
+          if (blockClosePermits != null && !retry) {
+            closeInBackground(current);
+          } else {
+            handleFlushOrClose(StreamAction.FULL);
+          }
         }
         len -= writtenLength;
         off += writtenLength;
@@ -364,10 +388,9 @@ private void handleExceptionInternal(BlockOutputStreamEntry streamEntry, IOExcep
       containerExclusionException = checkIfContainerToExclude(t);
     }
     Pipeline pipeline = streamEntry.getPipeline();
-    PipelineID pipelineId = pipeline.getId();
     long totalSuccessfulFlushedData = streamEntry.getTotalAckDataLength();
     streamEntry.resetToAckedPosition();
-    long bufferedDataLen = blockOutputStreamEntryPool.computeBufferData();
+    long bufferedDataLen = streamEntry.getBufferPool().computeBufferData();
     if (containerExclusionException) {
       LOG.debug(
           "Encountered exception {}. The last committed block length is {}, "
@@ -382,43 +405,11 @@ private void handleExceptionInternal(BlockOutputStreamEntry streamEntry, IOExcep
     }
     Preconditions.checkArgument(
         bufferedDataLen <= streamBufferArgs.getStreamBufferMaxSize());
-    long containerId = streamEntry.getBlockID().getContainerID();
-    Collection<DatanodeDetails> failedServers = streamEntry.getFailedServers();
-    Preconditions.checkNotNull(failedServers);
-    ExcludeList excludeList = blockOutputStreamEntryPool.getExcludeList();
-    if (!failedServers.isEmpty()) {
-      excludeList.addDatanodes(failedServers);
-    }
-
-    // if the container needs to be excluded , add the container to the
-    // exclusion list , otherwise add the pipeline to the exclusion list
-    if (containerExclusionException) {
-      excludeList.addConatinerId(ContainerID.valueOf(containerId));
-    } else {
-      excludeList.addPipeline(pipelineId);
-    }
+    blockOutputStreamEntryPool.excludeFailedStream(streamEntry,
+        containerExclusionException);
     // just clean up the current stream.
     streamEntry.cleanup(retryFailure);
 
-    // discard all subsequent blocks the containers and pipelines which
-    // are in the exclude list so that, the very next retry should never
-    // write data on the  closed container/pipeline
-    if (containerExclusionException) {
-      // discard subsequent pre allocated blocks from the streamEntries list
-      // from the closed container
-      blockOutputStreamEntryPool
-          .discardPreallocatedBlocks(streamEntry.getBlockID().getContainerID(),
-              null);
-    } else {
-      // In case there is timeoutException or Watch for commit happening over
-      // majority or the client connection failure to the leader in the
-      // pipeline, just discard all the pre allocated blocks on this pipeline.
-      // Next block allocation will happen with excluding this specific pipeline
-      // This will ensure if 2 way commit happens , it cannot span over multiple
-      // blocks
-      blockOutputStreamEntryPool
-          .discardPreallocatedBlocks(-1, pipelineId);
-    }
     if (bufferedDataLen > 0) {
       // If the data is still cached in the underlying stream, we need to
       // allocate new block and write this data in the datanode.
@@ -434,6 +425,18 @@ private synchronized void markStreamClosed() {
   }
 
   private void handleRetry(IOException exception, long len) throws IOException {
+    waitForRetry(exception, retryCount);
+    retryCount++;
+    handleWrite(null, 0, len, true);
+  }
+
+  /**
+   * Checks with the retry policy whether the write can be retried after the
+   * given number of attempts, and waits for the delay of the retry.
+   * @throws IOException if the write should not be retried.
+   */
+  private void waitForRetry(IOException exception, int retries)
+      throws IOException {
     RetryPolicy retryPolicy = retryPolicyMap
         .get(HddsClientUtils.checkForException(exception).getClass());
     if (retryPolicy == null) {
@@ -441,7 +444,7 @@ private void handleRetry(IOException exception, long len) throws IOException {
     }
     RetryPolicy.RetryAction action = null;
     try {
-      action = retryPolicy.shouldRetry(exception, retryCount, 0, true);
+      action = retryPolicy.shouldRetry(exception, retries, 0, true);
     } catch (Exception e) {
       setExceptionAndThrow(new IOException(e));
     }
@@ -472,12 +475,139 @@ private void handleRetry(IOException exception, long len) throws IOException {
         setExceptionAndThrow(ioe);
       }
     }
-    retryCount++;
     if (LOG.isTraceEnabled()) {
       LOG.trace("Retrying Write request. Already tried {} time(s); " +
-          "retry policy is {} ", retryCount, retryPolicy);
+          "retry policy is {} ", retries + 1, retryPolicy);
+    }
+  }
+
+  /**
+   * Closes a full block in the background and moves on to the next block, so
+   * that the data of several blocks can be in flight on different pipelines
+   * at the same time. Blocks until a permit is available.
+   */
+  private void closeInBackground(BlockOutputStreamEntry entry)
+      throws IOException {
+    checkBlockCloses(false);
+    blockClosePermits.acquire();
+    if (!blockOutputStreamEntryPool.trySkipCurrentStreamEntry()) {
+      // no memory for the buffers of another block
+      blockClosePermits.release();
+      handleFlushOrClose(StreamAction.FULL);
+      return;
+    }
+    CompletableFuture<Void> future = new CompletableFuture<>();
+    pendingBlockCloses.add(future);
+    try {
+      blockOutputStreamEntryPool.getExecutorServiceSupplier().get()
+          .execute(() -> {
+            try {
+              closeWithRetry(entry);
+              future.complete(null);
+            } catch (Throwable e) {
+              future.completeExceptionally(e);
+            } finally {
+              blockClosePermits.release();
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      blockClosePermits.release();
+      future.completeExceptionally(e);
+    }
+  }
+
+  /**
+   * Closes a block in the background. If it fails, its unacknowledged data
+   * is written to a new block placed right after it, as long as the retry
+   * policy allows.
+   */
+  private void closeWithRetry(BlockOutputStreamEntry entry)
+      throws IOException {
+    final BufferPool bufferPool = entry.getBufferPool();
+    long retryLength = 0;
+    boolean failed = false;
+    for (int retries = 0;; retries++) {
+      try {
+        if (retryLength > 0) {
+          entry.writeOnRetry(retryLength);
+        }
+        entry.close();
+        break;
+      } catch (IOException e) {
+        failed = true;
+        retryLength = handleBlockCloseException(entry, e, retries);
+        if (retryLength == 0) {
+          break;
+        }
+        entry = blockOutputStreamEntryPool.allocateBlockAfter(entry);
+      }
+    }
+    if (failed) {
+      // the failed streams may have left buffers behind
+      bufferPool.clearBufferPool();
+    } else {
+      blockOutputStreamEntryPool.releaseBufferPool(bufferPool);
+    }
+  }
+
+  /**
+   * Same as {@link #handleExceptionInternal}, for a block closed in the
+   * background.
+   * @return the length of the data to be written to a new block.
+   */
+  private long handleBlockCloseException(BlockOutputStreamEntry streamEntry,
+      IOException exception, int retries) throws IOException {
+    try {
+      streamEntry.waitForAllPendingFlushes();
+    } catch (IOException ignored) {
+    }
+
+    Throwable t = HddsClientUtils.checkForException(exception);
+    Preconditions.checkNotNull(t);
+    boolean retryFailure = checkForRetryFailure(t);
+    boolean containerExclusionException =
+        !retryFailure && checkIfContainerToExclude(t);
+    streamEntry.resetToAckedPosition();
+    long bufferedDataLen = streamEntry.getBufferPool().computeBufferData();
+    LOG.warn("Encountered exception {} on the pipeline {} while closing {}. "
+            + "The last committed block length is {}, "
+            + "uncommitted data length is {} retry count {}", exception,
+        streamEntry.getPipeline(), streamEntry,
+        streamEntry.getCurrentPosition(), bufferedDataLen, retries);
+    blockOutputStreamEntryPool.excludeFailedStream(streamEntry,
+        containerExclusionException);
+    streamEntry.cleanup(retryFailure);
+    if (bufferedDataLen > 0) {
+      waitForRetry(exception, retries);
+    }
+    return bufferedDataLen;
+  }
+
+  /**
+   * Checks the blocks closed in the background for failures.
+   * @param waitForAll whether to wait for all the blocks to be closed
+   * @throws IOException if a block could not be closed.
+   */
+  private void checkBlockCloses(boolean waitForAll) throws IOException {
+    Iterator<CompletableFuture<Void>> i = pendingBlockCloses.iterator();
+    while (i.hasNext()) {
+      CompletableFuture<Void> future = i.next();
+      if (!waitForAll && !future.isDone()) {
+        continue;
+      }
+      try {
+        future.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException(
+            "Interrupted waiting for blocks to be closed");
+      } catch (ExecutionException e) {
+        final Throwable cause = e.getCause();
+        setExceptionAndThrow(cause instanceof IOException
+            ? (IOException) cause : new IOException(cause));
+      }
+      i.remove();
     }
-    handleWrite(null, 0, len, true);
   }
 
   private void setExceptionAndThrow(IOException ioe) throws IOException {
@@ -541,6 +671,7 @@ public void hsync() throws IOException {
       handleFlushOrClose(StreamAction.HSYNC);
 
       doInWriteLock(() -> {
+        checkBlockCloses(true);
         Preconditions.checkState(offset >= hsyncPos,
             "offset = %s < hsyncPos = %s", offset, hsyncPos);
         MetricUtil.captureLatencyNs(clientMetrics::addHsyncLatency,
@@ -645,6 +776,7 @@ private void closeInternal() throws IOException {
     closed = true;
     try {
       handleFlushOrClose(StreamAction.CLOSE);
+      checkBlockCloses(true);
       if (!isException) {
         Preconditions.checkArgument(writeOffset == offset);
       }
@@ -693,6 +825,7 @@ public static class Builder {
     private boolean atomicKeyCreation = false;
     private StreamBufferArgs streamBufferArgs;
     private Supplier<ExecutorService> executorServiceSupplier;
+    private WriteBufferBudget writeBufferBudget;
     private OzoneManagerVersion ozoneManagerVersion;
 
     public String getMultipartUploadID() {
@@ -816,6 +949,15 @@ public Supplier<ExecutorService> getExecutorServiceSupplier() {
       return executorServiceSupplier;
     }
 
+    public Builder setWriteBufferBudget(WriteBufferBudget budget) {
+      this.writeBufferBudget = budget;
+      return this;
+    }
+
+    public WriteBufferBudget getWriteBufferBudget() {
+      return writeBufferBudget;
+    }
+
     public Builder setOmVersion(OzoneManagerVersion omVersion) {
       this.ozoneManagerVersion = omVersion;
       return this;
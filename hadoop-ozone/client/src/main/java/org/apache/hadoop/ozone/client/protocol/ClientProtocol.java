@@ -22,6 +22,7 @@
 import java.net.URI;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import org.apache.hadoop.crypto.key.KeyProvider;
 import org.apache.hadoop.hdds.client.ReplicationConfig;
 import org.apache.hadoop.hdds.client.ReplicationFactor;
@@ -52,6 +53,7 @@
 import org.apache.hadoop.ozone.om.helpers.OmKeyArgs;
 import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
 import org.apache.hadoop.ozone.om.helpers.OmKeyLocationInfo;
+import org.apache.hadoop.ozone.om.helpers.OmMultipartCommitUploadPartInfo;
 import org.apache.hadoop.ozone.om.helpers.OmMultipartInfo;
 import org.apache.hadoop.ozone.om.helpers.OmMultipartUploadCompleteInfo;
 import org.apache.hadoop.ozone.om.helpers.OmVolumeArgs;
@@ -356,6 +358,29 @@ OzoneOutputStream createKey(String volumeName, String bucketName,
       Map<String, String> metadata)
       throws IOException;
 
+  /**
+   * Asynchronous
+   * {@link #createKey(String, String, String, long, ReplicationConfig, Map)}:
+   * the returned future completes with the stream once the key is opened,
+   * without blocking the calling thread while OM handles the request.  The
+   * default implementation opens the key in the calling thread.
+   * @return future completed exceptionally on failure, with the IOException
+   * which createKey would throw, possibly wrapped in a CompletionException
+   */
+  default CompletableFuture<OzoneOutputStream> createKeyAsync(
+      String volumeName, String bucketName, String keyName, long size,
+      ReplicationConfig replicationConfig, Map<String, String> metadata) {
+    final CompletableFuture<OzoneOutputStream> future =
+        new CompletableFuture<>();
+    try {
+      future.complete(createKey(volumeName, bucketName, keyName, size,
+          replicationConfig, metadata));
+    } catch (IOException e) {
+      future.completeExceptionally(e);
+    }
+    return future;
+  }
+
   /**
    * This API allows to atomically update an existing key. The key read before invoking this API
    * should remain unchanged for this key to be written. This is controlled by the generation
@@ -496,6 +521,28 @@ Map<String, ErrorInfo> deleteKeys(String volumeName, String bucketName,
   void renameKey(String volumeName, String bucketName, String fromKeyName,
                  String toKeyName) throws IOException;
 
+  /**
+   * Copies an existing key without transferring its data, the new key refers
+   * to the blocks of the source key.
+   * @param volumeName Name of the Volume
+   * @param srcBucketName Name of the Bucket of the source key
+   * @param srcKeyName Name of the source Key
+   * @param srcGeneration Expected update ID of the source key, or null
+   * @param dstBucketName Name of the Bucket of the new key
+   * @param dstKeyName Name of the new Key
+   * @param metadata Custom key value metadata of the new key
+   * @param tags Tags of the new key
+   * @return details of the new key
+   * @throws OMException with NOT_SUPPORTED_OPERATION if the key cannot be
+   * copied this way, in which case the data has to be copied by the caller
+   * @throws IOException
+   */
+  @SuppressWarnings("checkstyle:ParameterNumber")
+  OzoneKeyDetails copyKey(String volumeName, String srcBucketName,
+      String srcKeyName, Long srcGeneration, String dstBucketName,
+      String dstKeyName, Map<String, String> metadata,
+      Map<String, String> tags) throws IOException;
+
   /**
    * Renames existing keys within a bucket.
    * @param volumeName Name of the Volume
@@ -535,6 +582,25 @@ OzoneKeyDetails getKeyDetails(String volumeName, String bucketName,
                                 String keyName)
       throws IOException;
 
+  /**
+   * Asynchronous {@link #getKeyDetails(String, String, String)}, which does
+   * not block the calling thread while OM handles the request.  The default
+   * implementation calls getKeyDetails in the calling thread.
+   * @return future completed exceptionally on failure, with the IOException
+   * which getKeyDetails would throw, possibly wrapped in a
+   * CompletionException
+   */
+  default CompletableFuture<OzoneKeyDetails> getKeyDetailsAsync(
+      String volumeName, String bucketName, String keyName) {
+    final CompletableFuture<OzoneKeyDetails> future = new CompletableFuture<>();
+    try {
+      future.complete(getKeyDetails(volumeName, bucketName, keyName));
+    } catch (IOException e) {
+      future.completeExceptionally(e);
+    }
+    return future;
+  }
+
   /**
    * Close and release the resources.
    */
@@ -615,6 +681,29 @@ OzoneOutputStream createMultipartKey(String volumeName, String bucketName,
                                        int partNumber, String uploadID)
       throws IOException;
 
+  /**
+   * Copies an existing key to a part of a multipart upload key without
+   * transferring its data, the part refers to the blocks of the source key.
+   * @param volumeName Name of the Volume
+   * @param srcBucketName Name of the Bucket of the source key
+   * @param srcKeyName Name of the source Key
+   * @param srcGeneration Expected update ID of the source key, or null
+   * @param dstBucketName Name of the Bucket of the multipart upload
+   * @param dstKeyName Name of the multipart upload key
+   * @param partNumber
+   * @param uploadID
+   * @param eTag ETag of the part
+   * @return OmMultipartCommitUploadPartInfo
+   * @throws OMException with NOT_SUPPORTED_OPERATION if the key cannot be
+   * copied this way, in which case the data has to be copied by the caller
+   * @throws IOException
+   */
+  @SuppressWarnings("checkstyle:ParameterNumber")
+  OmMultipartCommitUploadPartInfo copyMultipartKey(String volumeName,
+      String srcBucketName, String srcKeyName, Long srcGeneration,
+      String dstBucketName, String dstKeyName, int partNumber,
+      String uploadID, String eTag) throws IOException;
+
   /**
    * Create a part key for a multipart upload key.
    * @param volumeName
@@ -999,6 +1088,28 @@ List<OzoneFileStatus> listStatus(String volumeName, String bucketName,
       String keyName, boolean recursive, String startKey,
       long numEntries, boolean allowPartialPrefixes) throws IOException;
 
+  /**
+   * Asynchronous
+   * {@link #listStatus(String, String, String, boolean, String, long, boolean)},
+   * which does not block the calling thread while OM handles the request.
+   * The default implementation calls listStatus in the calling thread.
+   * @return future completed exceptionally on failure, with the IOException
+   * which listStatus would throw, possibly wrapped in a CompletionException
+   */
+  default CompletableFuture<List<OzoneFileStatus>> listStatusAsync(
+      String volumeName, String bucketName, String keyName, boolean recursive,
+      String startKey, long numEntries, boolean allowPartialPrefixes) {
+    final CompletableFuture<List<OzoneFileStatus>> future =
+        new CompletableFuture<>();
+    try {
+      future.complete(listStatus(volumeName, bucketName, keyName, recursive,
+          startKey, numEntries, allowPartialPrefixes));
+    } catch (IOException e) {
+      future.completeExceptionally(e);
+    }
+    return future;
+  }
+
   /**
    * Lightweight listStatus API.
    *
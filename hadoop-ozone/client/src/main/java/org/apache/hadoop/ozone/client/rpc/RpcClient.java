@@ -48,6 +48,8 @@
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -83,7 +85,9 @@
 import org.apache.hadoop.hdds.scm.client.HddsClientUtils;
 import org.apache.hadoop.hdds.scm.pipeline.Pipeline;
 import org.apache.hadoop.hdds.scm.storage.ByteBufferStreamOutput;
+import org.apache.hadoop.hdds.scm.storage.ChunkReadahead;
 import org.apache.hadoop.hdds.scm.storage.MultipartInputStream;
+import org.apache.hadoop.hdds.scm.storage.WriteBufferBudget;
 import org.apache.hadoop.hdds.security.x509.certificate.client.CACertificateProvider;
 import org.apache.hadoop.hdds.tracing.TracingUtil;
 import org.apache.hadoop.hdds.utils.IOUtils;
@@ -138,6 +142,7 @@
 import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
 import org.apache.hadoop.ozone.om.helpers.OmKeyLocationInfo;
 import org.apache.hadoop.ozone.om.helpers.OmKeyLocationInfoGroup;
+import org.apache.hadoop.ozone.om.helpers.OmMultipartCommitUploadPartInfo;
 import org.apache.hadoop.ozone.om.helpers.OmMultipartInfo;
 import org.apache.hadoop.ozone.om.helpers.OmMultipartUploadCompleteInfo;
 import org.apache.hadoop.ozone.om.helpers.OmMultipartUploadCompleteList;
@@ -218,6 +223,8 @@ public class RpcClient implements ClientProtocol {
   private final MemoizedSupplier<ExecutorService> ecReconstructExecutor;
   private final ContainerClientMetrics clientMetrics;
   private final MemoizedSupplier<ExecutorService> writeExecutor;
+  private final MemoizedSupplier<ChunkReadahead> chunkReadahead;
+  private final WriteBufferBudget writeBufferBudget;
   private final AtomicBoolean isS3GRequest = new AtomicBoolean(false);
   private volatile OzoneFsServerDefaults serverDefaults;
   private volatile long serverDefaultsLastUpdate;
@@ -319,9 +326,15 @@ public void onRemoval(
           }
         }).build();
     this.byteBufferPool = new ElasticByteBufferPool();
-    this.blockInputStreamFactory = BlockInputStreamFactoryImpl
-        .getInstance(byteBufferPool, ecReconstructExecutor);
     this.clientMetrics = ContainerClientMetrics.acquire();
+    this.chunkReadahead = MemoizedSupplier.valueOf(
+        () -> new ChunkReadahead(clientConfig, clientMetrics));
+    this.blockInputStreamFactory = BlockInputStreamFactoryImpl
+        .getInstance(byteBufferPool, ecReconstructExecutor, chunkReadahead);
+    this.writeBufferBudget = clientConfig.getWriteBufferMaxSize() > 0
+        ? new WriteBufferBudget(clientConfig.getWriteBufferMaxSize(),
+            clientMetrics)
+        : null;
 
     this.serverDefaultsValidityPeriod = conf.getTimeDuration(
         OZONE_CLIENT_SERVER_DEFAULTS_VALIDITY_PERIOD_MS,
@@ -1364,6 +1377,52 @@ public OzoneOutputStream createKey(
       String volumeName, String bucketName, String keyName, long size,
       ReplicationConfig replicationConfig,
       Map<String, String> metadata, Map<String, String> tags) throws IOException {
+    OpenKeySession openKey = ozoneManagerClient.openKey(createKeyArgs(
+        volumeName, bucketName, keyName, size, replicationConfig, metadata,
+        tags));
+    // For bucket with layout OBJECT_STORE, when create an empty file (size=0),
+    // OM will set DataSize to OzoneConfigKeys#OZONE_SCM_BLOCK_SIZE,
+    // which will cause S3G's atomic write length check to fail,
+    // so reset size to 0 here.
+    if (isS3GRequest.get() && size == 0) {
+      openKey.getKeyInfo().setDataSize(size);
+    }
+    return createOutputStream(openKey);
+  }
+
+  @Override
+  public CompletableFuture<OzoneOutputStream> createKeyAsync(
+      String volumeName, String bucketName, String keyName, long size,
+      ReplicationConfig replicationConfig, Map<String, String> metadata) {
+    final OmKeyArgs keyArgs;
+    try {
+      keyArgs = createKeyArgs(volumeName, bucketName, keyName, size,
+          replicationConfig, metadata, Collections.emptyMap());
+    } catch (IOException e) {
+      final CompletableFuture<OzoneOutputStream> failed =
+          new CompletableFuture<>();
+      failed.completeExceptionally(e);
+      return failed;
+    }
+    // thread local, the stream is created in the thread completing the open
+    final boolean atomicKeyCreation = isS3GRequest.get();
+    return ozoneManagerClient.openKeyAsync(keyArgs).thenApply(openKey -> {
+      if (atomicKeyCreation && size == 0) {
+        openKey.getKeyInfo().setDataSize(size);
+      }
+      try {
+        return createOutputStream(openKey,
+            createKeyOutputStream(openKey, atomicKeyCreation).build());
+      } catch (IOException e) {
+        throw new CompletionException(e);
+      }
+    });
+  }
+
+  private OmKeyArgs createKeyArgs(String volumeName, String bucketName,
+      String keyName, long size, ReplicationConfig replicationConfig,
+      Map<String, String> metadata, Map<String, String> tags)
+      throws IOException {
     createKeyPreChecks(volumeName, bucketName, keyName, replicationConfig);
 
     if (omVersion.compareTo(OzoneManagerVersion.OBJECT_TAG) < 0) {
@@ -1374,7 +1433,7 @@ public OzoneOutputStream createKey(
 
     String ownerName = getRealUserInfo().getShortUserName();
 
-    OmKeyArgs.Builder builder = new OmKeyArgs.Builder()
+    return new OmKeyArgs.Builder()
         .setVolumeName(volumeName)
         .setBucketName(bucketName)
         .setKeyName(keyName)
@@ -1383,17 +1442,8 @@ public OzoneOutputStream createKey(
         .addAllMetadataGdpr(metadata)
         .addAllTags(tags)
         .setLatestVersionLocation(getLatestVersionLocation)
-        .setOwnerName(ownerName);
-
-    OpenKeySession openKey = ozoneManagerClient.openKey(builder.build());
-    // For bucket with layout OBJECT_STORE, when create an empty file (size=0),
-    // OM will set DataSize to OzoneConfigKeys#OZONE_SCM_BLOCK_SIZE,
-    // which will cause S3G's atomic write length check to fail,
-    // so reset size to 0 here.
-    if (isS3GRequest.get() && size == 0) {
-      openKey.getKeyInfo().setDataSize(size);
-    }
-    return createOutputStream(openKey);
+        .setOwnerName(ownerName)
+        .build();
   }
 
   @Override
@@ -1688,6 +1738,84 @@ public void renameKey(String volumeName, String bucketName,
     ozoneManagerClient.renameKey(keyArgs, toKeyName);
   }
 
+  @Override
+  @SuppressWarnings("checkstyle:ParameterNumber")
+  public OzoneKeyDetails copyKey(String volumeName, String srcBucketName,
+      String srcKeyName, Long srcGeneration, String dstBucketName,
+      String dstKeyName, Map<String, String> metadata,
+      Map<String, String> tags) throws IOException {
+    checkServerSideCopySupported();
+    verifyVolumeName(volumeName);
+    verifyBucketName(srcBucketName);
+    verifyBucketName(dstBucketName);
+    if (checkKeyNameEnabled) {
+      HddsClientUtils.verifyKeyName(dstKeyName);
+    }
+    HddsClientUtils.checkNotNull(srcKeyName, dstKeyName);
+
+    OmKeyArgs dstArgs = new OmKeyArgs.Builder()
+        .setVolumeName(volumeName)
+        .setBucketName(dstBucketName)
+        .setKeyName(dstKeyName)
+        .addAllMetadataGdpr(metadata)
+        .addAllTags(tags)
+        .setOwnerName(getRealUserInfo().getShortUserName())
+        .build();
+    OmKeyInfo keyInfo = ozoneManagerClient.copyKey(
+        copySourceArgs(volumeName, srcBucketName, srcKeyName, srcGeneration),
+        dstArgs);
+    return getOzoneKeyDetails(keyInfo);
+  }
+
+  @Override
+  @SuppressWarnings("checkstyle:ParameterNumber")
+  public OmMultipartCommitUploadPartInfo copyMultipartKey(String volumeName,
+      String srcBucketName, String srcKeyName, Long srcGeneration,
+      String dstBucketName, String dstKeyName, int partNumber,
+      String uploadID, String eTag) throws IOException {
+    checkServerSideCopySupported();
+    verifyVolumeName(volumeName);
+    verifyBucketName(srcBucketName);
+    verifyBucketName(dstBucketName);
+    HddsClientUtils.checkNotNull(srcKeyName, dstKeyName);
+    Preconditions.checkArgument(StringUtils.isNotBlank(uploadID),
+        "UploadID cannot be null or empty");
+    Preconditions.checkArgument(partNumber > 0 && partNumber <= 10000,
+        "Part number must be an integer between 1 and 10000, inclusive");
+
+    OmKeyArgs dstArgs = new OmKeyArgs.Builder()
+        .setVolumeName(volumeName)
+        .setBucketName(dstBucketName)
+        .setKeyName(dstKeyName)
+        .setMultipartUploadID(uploadID)
+        .setMultipartUploadPartNumber(partNumber)
+        .addMetadata(ETAG, eTag)
+        .setOwnerName(getRealUserInfo().getShortUserName())
+        .build();
+    return ozoneManagerClient.copyMultipartUploadPart(
+        copySourceArgs(volumeName, srcBucketName, srcKeyName, srcGeneration),
+        dstArgs);
+  }
+
+  private void checkServerSideCopySupported() throws OMException {
+    if (omVersion.compareTo(OzoneManagerVersion.SERVER_SIDE_COPY) < 0) {
+      throw new OMException("OzoneManager does not support server side copy",
+          OMException.ResultCodes.NOT_SUPPORTED_OPERATION);
+    }
+  }
+
+  private static OmKeyArgs copySourceArgs(String volumeName,
+      String bucketName, String keyName, Long generation) {
+    OmKeyArgs.Builder builder = new OmKeyArgs.Builder()
+        .setVolumeName(volumeName)
+        .setBucketName(bucketName)
+        .setKeyName(keyName);
+    if (generation != null) {
+      builder.setExpectedDataGeneration(generation);
+    }
+    return builder.build();
+  }
+
   @Override
   @Deprecated
   public void renameKeys(String volumeName, String bucketName,
@@ -1750,6 +1878,20 @@ public OzoneKeyDetails getKeyDetails(
     return getOzoneKeyDetails(keyInfo);
   }
 
+  @Override
+  public CompletableFuture<OzoneKeyDetails> getKeyDetailsAsync(
+      String volumeName, String bucketName, String keyName) {
+    OmKeyArgs keyArgs = getKeyArgs(volumeName, bucketName, keyName, false);
+    final CompletableFuture<OmKeyInfo> keyInfo;
+    if (omVersion.compareTo(OzoneManagerVersion.OPTIMIZED_GET_KEY_INFO) >= 0) {
+      keyInfo = ozoneManagerClient.getKeyInfoAsync(keyArgs, false)
+          .thenApply(KeyInfoWithVolumeContext::getKeyInfo);
+    } else {
+      keyInfo = ozoneManagerClient.lookupKeyAsync(keyArgs);
+    }
+    return keyInfo.thenApply(this::getOzoneKeyDetails);
+  }
+
   @Nonnull
   private OzoneKeyDetails getOzoneKeyDetails(OmKeyInfo keyInfo) {
     List<OzoneKeyLocation> ozoneKeyLocations = new ArrayList<>();
@@ -1852,10 +1994,16 @@ private OmKeyInfo getS3PartKeyInfo(
   public OmKeyInfo getKeyInfo(
       String volumeName, String bucketName, String keyName,
       boolean forceUpdateContainerCache) throws IOException {
+    return getKeyInfo(getKeyArgs(volumeName, bucketName, keyName,
+        forceUpdateContainerCache));
+  }
+
+  private OmKeyArgs getKeyArgs(String volumeName, String bucketName,
+      String keyName, boolean forceUpdateContainerCache) {
     Preconditions.checkNotNull(volumeName);
     Preconditions.checkNotNull(bucketName);
     Preconditions.checkNotNull(keyName);
-    OmKeyArgs keyArgs = new OmKeyArgs.Builder()
+    return new OmKeyArgs.Builder()
         .setVolumeName(volumeName)
         .setBucketName(bucketName)
         .setKeyName(keyName)
@@ -1863,7 +2011,6 @@ public OmKeyInfo getKeyInfo(
         .setLatestVersionLocation(getLatestVersionLocation)
         .setForceUpdateContainerCacheFromSCM(forceUpdateContainerCache)
         .build();
-    return getKeyInfo(keyArgs);
   }
 
   private OmKeyInfo getKeyInfo(OmKeyArgs keyArgs) throws IOException {
@@ -1885,6 +2032,12 @@ public void close() throws IOException {
     if (writeExecutor.isInitialized()) {
       writeExecutor.get().shutdownNow();
     }
+    if (chunkReadahead.isInitialized()) {
+      chunkReadahead.get().close();
+    }
+    if (writeBufferBudget != null) {
+      writeBufferBudget.close();
+    }
     IOUtils.cleanupWithLogger(LOG, ozoneManagerClient, xceiverClientManager);
     keyProviderCache.invalidateAll();
     keyProviderCache.cleanUp();
@@ -2311,6 +2464,15 @@ public List<OzoneFileStatus> listStatus(String volumeName, String bucketName,
             allowPartialPrefixes);
   }
 
+  @Override
+  public CompletableFuture<List<OzoneFileStatus>> listStatusAsync(
+      String volumeName, String bucketName, String keyName, boolean recursive,
+      String startKey, long numEntries, boolean allowPartialPrefixes) {
+    OmKeyArgs keyArgs = prepareOmKeyArgs(volumeName, bucketName, keyName);
+    return ozoneManagerClient.listStatusAsync(keyArgs, recursive, startKey,
+        numEntries, allowPartialPrefixes);
+  }
+
   @Override
   public List<OzoneFileStatusLight> listStatusLight(String volumeName,
       String bucketName, String keyName, boolean recursive, String startKey,
@@ -2537,6 +2699,11 @@ private OzoneOutputStream createSecureOutputStream(OpenKeySession openKey,
 
   private KeyOutputStream.Builder createKeyOutputStream(
       OpenKeySession openKey) {
+    return createKeyOutputStream(openKey, isS3GRequest.get());
+  }
+
+  private KeyOutputStream.Builder createKeyOutputStream(
+      OpenKeySession openKey, boolean atomicKeyCreation) {
     KeyOutputStream.Builder builder;
 
     ReplicationConfig replicationConfig =
@@ -2559,9 +2726,10 @@ private KeyOutputStream.Builder createKeyOutputStream(
         .setOmClient(ozoneManagerClient)
         .enableUnsafeByteBufferConversion(unsafeByteBufferConversion)
         .setConfig(clientConfig)
-        .setAtomicKeyCreation(isS3GRequest.get())
+        .setAtomicKeyCreation(atomicKeyCreation)
         .setClientMetrics(clientMetrics)
         .setExecutorServiceSupplier(writeExecutor)
+        .setWriteBufferBudget(writeBufferBudget)
         .setStreamBufferArgs(streamBufferArgs)
         .setOmVersion(omVersion);
   }
@@ -20,6 +20,7 @@
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.apache.hadoop.hdds.client.ReplicationFactor.ONE;
 import static org.apache.ozone.test.GenericTestUtils.getTestStartTime;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -28,22 +29,32 @@
 import jakarta.annotation.Nonnull;
 import java.io.IOException;
 import java.time.Instant;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
 import org.apache.hadoop.conf.StorageUnit;
 import org.apache.hadoop.hdds.client.ECReplicationConfig;
+import org.apache.hadoop.hdds.client.RatisReplicationConfig;
 import org.apache.hadoop.hdds.client.ReplicationConfigValidator;
 import org.apache.hadoop.hdds.client.ReplicationType;
 import org.apache.hadoop.hdds.conf.ConfigurationSource;
 import org.apache.hadoop.hdds.conf.OzoneConfiguration;
+import org.apache.hadoop.hdds.protocol.DatanodeDetails;
+import org.apache.hadoop.hdds.scm.OzoneClientConfig;
 import org.apache.hadoop.hdds.scm.XceiverClientFactory;
+import org.apache.hadoop.io.IOUtils;
 import org.apache.hadoop.ozone.OzoneConfigKeys;
 import org.apache.hadoop.ozone.OzoneConsts;
 import org.apache.hadoop.ozone.client.io.OzoneInputStream;
 import org.apache.hadoop.ozone.client.io.OzoneOutputStream;
+import org.apache.hadoop.ozone.client.protocol.ClientProtocol;
 import org.apache.hadoop.ozone.client.rpc.RpcClient;
 import org.apache.hadoop.ozone.om.exceptions.OMException;
 import org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes;
+import org.apache.hadoop.ozone.om.helpers.OmKeyLocationInfo;
 import org.apache.hadoop.ozone.om.helpers.ServiceInfoEx;
 import org.apache.hadoop.ozone.om.protocolPB.OmTransport;
 import org.apache.ozone.test.LambdaTestUtils.VoidCallable;
@@ -77,6 +88,12 @@ public void init() throws IOException {
 
   private void createNewClient(ConfigurationSource config,
       MockBlockAllocator blkAllocator) throws IOException {
+    createNewClient(config, blkAllocator, new MockXceiverClientFactory());
+  }
+
+  private void createNewClient(ConfigurationSource config,
+      MockBlockAllocator blkAllocator, MockXceiverClientFactory factory)
+      throws IOException {
     client = new OzoneClient(config, new RpcClient(config, null) {
 
       @Override
@@ -88,7 +105,7 @@ protected OmTransport createOmTransport(String omServiceId) {
       @Override
       protected XceiverClientFactory createXceiverClientFactory(
           ServiceInfoEx serviceInfo) {
-        return new MockXceiverClientFactory();
+        return factory;
       }
     });
 
@@ -170,6 +187,27 @@ public void testPutKeyRatisOneNode() throws IOException {
     }
   }
 
+  @Test
+  public void testAsyncKeyCalls() throws Exception {
+    String value = "sample value";
+    OzoneBucket bucket = getOzoneBucket();
+    ClientProtocol proxy = client.getProxy();
+
+    CompletableFuture<OzoneOutputStream> created = proxy.createKeyAsync(
+        bucket.getVolumeName(), bucket.getName(), "key",
+        value.getBytes(UTF_8).length,
+        RatisReplicationConfig.getInstance(ONE.toProto()),
+        Collections.emptyMap());
+    try (OzoneOutputStream out = created.get()) {
+      out.write(value.getBytes(UTF_8));
+    }
+
+    OzoneKeyDetails key = proxy.getKeyDetailsAsync(
+        bucket.getVolumeName(), bucket.getName(), "key").get();
+    assertEquals("key", key.getName());
+    assertEquals(value.length(), key.getDataSize());
+  }
+
   @Test
   public void testPutKeyAllocateBlock() throws IOException {
     String value = new String(new byte[1024], UTF_8);
@@ -187,6 +225,91 @@ public void testPutKeyAllocateBlock() throws IOException {
     }
   }
 
+  @Test
+  public void testPutKeyWithParallelBlockWrites() throws IOException {
+    close();
+    OzoneConfiguration config = new OzoneConfiguration();
+    config.setStorageSize(OzoneConfigKeys.OZONE_SCM_BLOCK_SIZE, 4,
+        StorageUnit.KB);
+    OzoneClientConfig clientConfig = config.getObject(OzoneClientConfig.class);
+    clientConfig.setParallelBlockWrites(3);
+    config.setFromObject(clientConfig);
+    createNewClient(config, new SinglePipelineBlockAllocator(config));
+    OzoneBucket bucket = getOzoneBucket();
+
+    byte[] data = new byte[4 * 4096 + 100];
+    ThreadLocalRandom.current().nextBytes(data);
+    String keyName = UUID.randomUUID().toString();
+    try (OzoneOutputStream out = bucket.createKey(keyName, data.length,
+        ReplicationType.RATIS, ONE, new HashMap<>())) {
+      for (int off = 0; off < data.length; off += 1000) {
+        out.write(data, off, Math.min(1000, data.length - off));
+      }
+    }
+
+    OzoneKeyDetails key = bucket.getKey(keyName);
+    assertEquals(data.length, key.getDataSize());
+    assertEquals(5, key.getOzoneKeyLocations().size());
+    byte[] read = new byte[data.length];
+    try (OzoneInputStream in = bucket.readKey(keyName)) {
+      IOUtils.readFully(in, read, 0, read.length);
+    }
+    assertArrayEquals(data, read);
+  }
+
+  @Test
+  public void testPutKeyWithFailedParallelBlockClose() throws IOException {
+    close();
+    OzoneConfiguration config = new OzoneConfiguration();
+    config.setStorageSize(OzoneConfigKeys.OZONE_SCM_BLOCK_SIZE, 4,
+        StorageUnit.KB);
+    OzoneClientConfig clientConfig = config.getObject(OzoneClientConfig.class);
+    clientConfig.setParallelBlockWrites(3);
+    config.setFromObject(clientConfig);
+    // each block on a different datanode, never going back to the failed one
+    MultiNodePipelineBlockAllocator allocator =
+        new MultiNodePipelineBlockAllocator(config, 1, 10);
+    MockXceiverClientFactory factory = new MockXceiverClientFactory();
+    createNewClient(config, allocator, factory);
+    OzoneBucket bucket = getOzoneBucket();
+
+    // the second block fails when it is closed in the background
+    DatanodeDetails failedDn =
+        DatanodeDetails.getFromProtoBuf(allocator.getClusterDns().get(1));
+    factory.setFailedStorages(Collections.singletonList(failedDn));
+
+    byte[] data = new byte[4 * 4096 + 100];
+    ThreadLocalRandom.current().nextBytes(data);
+    String keyName = UUID.randomUUID().toString();
+    try (OzoneOutputStream out = bucket.createKey(keyName, data.length,
+        ReplicationType.RATIS, ONE, new HashMap<>())) {
+      for (int off = 0; off < data.length; off += 1000) {
+        out.write(data, off, Math.min(1000, data.length - off));
+      }
+    }
+
+    // the data of the failed block is written to a new block in its place
+    assertNotNull(factory.getStorages().get(failedDn));
+    OzoneKeyDetails key = bucket.getKey(keyName);
+    assertEquals(data.length, key.getDataSize());
+    List<OmKeyLocationInfo> locations = client.getProxy()
+        .getKeyInfo(bucket.getVolumeName(), bucket.getName(), keyName, false)
+        .getLatestVersionLocations().getLocationList();
+    assertEquals(5, locations.size());
+    long length = 0;
+    for (OmKeyLocationInfo location : locations) {
+      assertFalse(location.getPipeline().getNodes().contains(failedDn));
+      length += location.getLength();
+    }
+    assertEquals(data.length, length);
+
+    byte[] read = new byte[data.length];
+    try (OzoneInputStream in = bucket.readKey(keyName)) {
+      IOUtils.readFully(in, read, 0, read.length);
+    }
+    assertArrayEquals(data, read);
+  }
+
   @Test
   public void testPutKeyWithECReplicationConfig() throws IOException {
     close();
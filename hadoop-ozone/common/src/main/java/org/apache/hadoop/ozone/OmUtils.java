@@ -288,6 +288,7 @@ public static boolean isReadOnly(
     case SetBucketProperty:
     case DeleteBucket:
     case CreateKey:
+    case CopyKey:
     case RenameKey:
     case RenameKeys:
     case DeleteKey:
@@ -308,6 +309,7 @@ public static boolean isReadOnly(
     case SetAcl:
     case AddAcl:
     case PurgeKeys:
+    case PersistDb:
     case RecoverTrash:
       // RecoverTrash is deprecated by HDDS-11251. Keeping this in here
       // As protobuf currently doesn't support deprecating enum fields
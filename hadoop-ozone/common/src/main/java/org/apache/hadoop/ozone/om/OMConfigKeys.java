@@ -473,6 +473,9 @@ public final class OMConfigKeys {
       "ozone.om.unflushed.transaction.max.count";
   public static final int OZONE_OM_UNFLUSHED_TRANSACTION_MAX_COUNT_DEFAULT
       = 10000;
+  public static final String OZONE_OM_DOUBLE_BUFFER_FLUSH_THREADS =
+      "ozone.om.double.buffer.flush.threads";
+  public static final int OZONE_OM_DOUBLE_BUFFER_FLUSH_THREADS_DEFAULT = 1;
 
   /**
    * This configuration shall be enabled to utilize the functionality of the
@@ -534,6 +537,15 @@ public final class OMConfigKeys {
   public static final TimeDuration OZONE_OM_CONTAINER_LOCATION_CACHE_TTL_DEFAULT
       = TimeDuration.valueOf(360, TimeUnit.MINUTES);
 
+  public static final String OZONE_OM_BLOCK_POOL_SIZE
+      = "ozone.om.block.pool.size";
+  public static final int OZONE_OM_BLOCK_POOL_SIZE_DEFAULT = 0;
+
+  public static final String OZONE_OM_BLOCK_POOL_LEASE_TIMEOUT
+      = "ozone.om.block.pool.lease.timeout";
+  public static final TimeDuration OZONE_OM_BLOCK_POOL_LEASE_TIMEOUT_DEFAULT
+      = TimeDuration.valueOf(60, TimeUnit.SECONDS);
+
   public static final String OZONE_OM_ENABLE_OFS_SHARED_TMP_DIR
       = "ozone.om.enable.ofs.shared.tmp.dir";
   public static final boolean OZONE_OM_ENABLE_OFS_SHARED_TMP_DIR_DEFAULT
@@ -661,6 +673,14 @@ public final class OMConfigKeys {
       "ozone.om.snapshot.compact.non.snapshot.diff.tables";
   public static final boolean OZONE_OM_SNAPSHOT_COMPACT_NON_SNAPSHOT_DIFF_TABLES_DEFAULT = false;
 
+  /**
+   * Configuration to execute key write requests on the leader OM and
+   * replicate only the resulting DB changes to the followers.
+   */
+  public static final String OZONE_OM_LEADER_EXECUTION_ENABLED =
+      "ozone.om.leader.execution.enabled";
+  public static final boolean OZONE_OM_LEADER_EXECUTION_ENABLED_DEFAULT = false;
+
   /**
    * Never constructed.
    */
@@ -19,12 +19,21 @@
 
 import static org.apache.hadoop.ozone.OzoneConsts.ETAG;
 
+import com.google.protobuf.InvalidProtocolBufferException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Objects;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.hadoop.hdds.client.ECReplicationConfig;
 import org.apache.hadoop.hdds.client.ReplicationConfig;
+import org.apache.hadoop.hdds.protocol.proto.HddsProtos;
+import org.apache.hadoop.hdds.utils.db.Codec;
+import org.apache.hadoop.hdds.utils.db.CodecException;
+import org.apache.hadoop.hdds.utils.db.Proto2ProjectionCodec;
+import org.apache.hadoop.hdds.utils.db.ProtoFieldReader;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.BasicKeyInfo;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.KeyInfo;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.ListKeysRequest;
 
 /**
@@ -32,6 +41,13 @@
  */
 public final class BasicOmKeyInfo {
 
+  private static final Codec<BasicOmKeyInfo> KEY_INFO_PROJECTION_CODEC =
+      Proto2ProjectionCodec.get(BasicOmKeyInfo.class,
+          BasicOmKeyInfo::fromKeyInfoFields);
+
+  private static final ByteBuffer ETAG_BYTES = ByteBuffer.wrap(
+      ETAG.getBytes(StandardCharsets.UTF_8)).asReadOnlyBuffer();
+
   private final String volumeName;
   private final String bucketName;
   private final String keyName;
@@ -288,4 +304,111 @@ public int hashCode() {
   public static BasicOmKeyInfo fromOmKeyInfo(OmKeyInfo omKeyInfo) {
     return new BasicOmKeyInfo(omKeyInfo);
   }
+
+  /**
+   * @return a codec decoding a serialized {@link KeyInfo} to a
+   * {@link BasicOmKeyInfo}, the same as {@link #fromOmKeyInfo(OmKeyInfo)},
+   * without decoding the other fields such as the block locations and ACLs.
+   */
+  public static Codec<BasicOmKeyInfo> getKeyInfoProjectionCodec() {
+    return KEY_INFO_PROJECTION_CODEC;
+  }
+
+  private static BasicOmKeyInfo fromKeyInfoFields(ProtoFieldReader reader)
+      throws CodecException {
+    final Builder builder = new Builder();
+    HddsProtos.ReplicationType type = null;
+    HddsProtos.ReplicationFactor factor =
+        KeyInfo.getDefaultInstance().getFactor();
+    HddsProtos.ECReplicationConfig ecConfig =
+        KeyInfo.getDefaultInstance().getEcReplicationConfig();
+    while (reader.nextField()) {
+      switch (reader.getFieldNumber()) {
+      case KeyInfo.VOLUMENAME_FIELD_NUMBER:
+        builder.setVolumeName(reader.readString());
+        break;
+      case KeyInfo.BUCKETNAME_FIELD_NUMBER:
+        builder.setBucketName(reader.readString());
+        break;
+      case KeyInfo.KEYNAME_FIELD_NUMBER:
+        builder.setKeyName(reader.readString());
+        break;
+      case KeyInfo.DATASIZE_FIELD_NUMBER:
+        builder.setDataSize(reader.readVarint());
+        break;
+      case KeyInfo.TYPE_FIELD_NUMBER:
+        type = HddsProtos.ReplicationType.valueOf(reader.readInt());
+        break;
+      case KeyInfo.FACTOR_FIELD_NUMBER:
+        factor = HddsProtos.ReplicationFactor.valueOf(reader.readInt());
+        break;
+      case KeyInfo.CREATIONTIME_FIELD_NUMBER:
+        builder.setCreationTime(reader.readVarint());
+        break;
+      case KeyInfo.MODIFICATIONTIME_FIELD_NUMBER:
+        builder.setModificationTime(reader.readVarint());
+        break;
+      case KeyInfo.METADATA_FIELD_NUMBER:
+        final String eTag = readETag(reader.readMessage());
+        if (eTag != null) {
+          builder.setETag(eTag);
+        }
+        break;
+      case KeyInfo.ECREPLICATIONCONFIG_FIELD_NUMBER:
+        ecConfig = readECReplicationConfig(reader.readBytes());
+        break;
+      case KeyInfo.ISFILE_FIELD_NUMBER:
+        builder.setIsFile(reader.readBool());
+        break;
+      case KeyInfo.OWNERNAME_FIELD_NUMBER:
+        builder.setOwnerName(reader.readString());
+        break;
+      default:
+        reader.skipField();
+      }
+    }
+    if (type == null) {
+      throw new CodecException("Missing or unknown replication type in "
+          + KeyInfo.class.getSimpleName());
+    }
+    return builder.setReplicationConfig(
+        ReplicationConfig.fromProto(type, factor, ecConfig))
+        .build();
+  }
+
+  /** @return the value of the given metadata entry if it is the ETag. */
+  private static String readETag(ProtoFieldReader keyValue)
+      throws CodecException {
+    boolean isETag = false;
+    String value = null;
+    while (keyValue.nextField()) {
+      switch (keyValue.getFieldNumber()) {
+      case HddsProtos.KeyValue.KEY_FIELD_NUMBER:
+        isETag = ETAG_BYTES.equals(keyValue.readBytes());
+        break;
+      case HddsProtos.KeyValue.VALUE_FIELD_NUMBER:
+        // The key is serialized before the value.
+        if (isETag) {
+          value = keyValue.readString();
+        } else {
+          keyValue.skipField();
+        }
+        break;
+      default:
+        keyValue.skipField();
+      }
+    }
+    return isETag ? value : null;
+  }
+
+  private static HddsProtos.ECReplicationConfig readECReplicationConfig(
+      ByteBuffer bytes) throws CodecException {
+    final byte[] array = new byte[bytes.remaining()];
+    bytes.get(array);
+    try {
+      return HddsProtos.ECReplicationConfig.parseFrom(array);
+    } catch (InvalidProtocolBufferException e) {
+      throw new CodecException("Failed to parse ECReplicationConfig", e);
+    }
+  }
 }
@@ -19,6 +19,7 @@
 
 import com.google.common.annotations.VisibleForTesting;
 import java.util.Collection;
+import org.apache.ratis.util.function.CheckedSupplier;
 
 /**
  * Interface for OM Metadata locks.
@@ -56,6 +57,21 @@ OMLockDetails releaseReadLock(Resource resource,
   OMLockDetails releaseReadLocks(Resource resource,
                                 Collection<String[]> resources);
 
+  /**
+   * Performs a side-effect free read on resource. Implementations may skip
+   * acquiring the read lock as long as the result is consistent with holding
+   * it; by default the read is performed under the read lock.
+   */
+  default <T, E extends Exception> T readOptimistically(Resource resource,
+      CheckedSupplier<T, E> read, String... resources) throws E {
+    acquireReadLock(resource, resources);
+    try {
+      return read.get();
+    } finally {
+      releaseReadLock(resource, resources);
+    }
+  }
+
   @VisibleForTesting
   int getReadHoldCount(Resource resource,
       String... resources);
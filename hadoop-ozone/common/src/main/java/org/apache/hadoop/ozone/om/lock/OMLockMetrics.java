@@ -25,6 +25,7 @@
 import org.apache.hadoop.metrics2.annotation.Metrics;
 import org.apache.hadoop.metrics2.lib.DefaultMetricsSystem;
 import org.apache.hadoop.metrics2.lib.MetricsRegistry;
+import org.apache.hadoop.metrics2.lib.MutableCounterLong;
 import org.apache.hadoop.metrics2.lib.MutableStat;
 import org.apache.hadoop.ozone.OzoneConsts;
 
@@ -42,6 +43,8 @@ public final class OMLockMetrics implements MetricsSource {
   private final MutableStat readLockHeldTimeMsStat;
   private final MutableStat writeLockWaitingTimeMsStat;
   private final MutableStat writeLockHeldTimeMsStat;
+  private final MutableCounterLong optimisticReads;
+  private final MutableCounterLong optimisticReadFailures;
 
   private OMLockMetrics() {
     registry = new MetricsRegistry(SOURCE_NAME);
@@ -57,6 +60,11 @@ private OMLockMetrics() {
     writeLockHeldTimeMsStat = registry.newStat("WriteLockHeldTime",
         "Time (in milliseconds) spent holding the write lock",
         "Ops", "Time", true);
+    optimisticReads = registry.newCounter("OptimisticReads",
+        "Number of reads completed without acquiring the read lock", 0L);
+    optimisticReadFailures = registry.newCounter("OptimisticReadFailures",
+        "Number of optimistic reads which failed validation and were "
+            + "retried under the read lock", 0L);
   }
 
   /**
@@ -198,6 +206,22 @@ public long getLongestWriteLockHeldTimeMs() {
     return (long) writeLockHeldTimeMsStat.lastStat().max();
   }
 
+  public void incOptimisticReads() {
+    optimisticReads.incr();
+  }
+
+  public void incOptimisticReadFailures() {
+    optimisticReadFailures.incr();
+  }
+
+  public long getOptimisticReads() {
+    return optimisticReads.value();
+  }
+
+  public long getOptimisticReadFailures() {
+    return optimisticReadFailures.value();
+  }
+
   @Override
   public void getMetrics(MetricsCollector collector, boolean all) {
     MetricsRecordBuilder builder = collector.addRecord(SOURCE_NAME);
@@ -205,5 +229,7 @@ public void getMetrics(MetricsCollector collector, boolean all) {
     readLockWaitingTimeMsStat.snapshot(builder, all);
     writeLockHeldTimeMsStat.snapshot(builder, all);
     writeLockWaitingTimeMsStat.snapshot(builder, all);
+    optimisticReads.snapshot(builder, all);
+    optimisticReadFailures.snapshot(builder, all);
   }
 }
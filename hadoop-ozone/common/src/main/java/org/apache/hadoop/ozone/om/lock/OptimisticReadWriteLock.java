@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.lock;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * A {@link ReentrantReadWriteLock} which also supports optimistic reads.
+ * <p>
+ * Each write critical section, i.e. the period from acquiring the outermost
+ * write hold to releasing it, is mirrored by holding the write lock of a
+ * {@link StampedLock}. Readers take a stamp via {@link #tryOptimisticRead()}
+ * instead of acquiring the read lock, and check with {@link #validate(long)}
+ * after reading that no writer has entered in the meantime. Since the
+ * {@link StampedLock} is only write locked while the exclusive lock is held,
+ * it never blocks.
+ */
+class OptimisticReadWriteLock extends ReentrantReadWriteLock {
+
+  private final StampedLock writeSequence = new StampedLock();
+
+  OptimisticReadWriteLock(boolean fair) {
+    super(fair);
+  }
+
+  /**
+   * Called after acquiring the write lock.
+   */
+  void afterWriteLock() {
+    if (getWriteHoldCount() == 1) {
+      writeSequence.writeLock();
+    }
+  }
+
+  /**
+   * Called before releasing the write lock.
+   */
+  void beforeWriteUnlock() {
+    if (getWriteHoldCount() == 1 && isWriteLockedByCurrentThread()) {
+      writeSequence.tryUnlockWrite();
+    }
+  }
+
+  /**
+   * @return a stamp for {@link #validate(long)}, or zero if the write lock is
+   * held at the moment.
+   */
+  long tryOptimisticRead() {
+    return writeSequence.tryOptimisticRead();
+  }
+
+  /**
+   * @return true if the write lock has not been acquired since the stamp was
+   * issued.
+   */
+  boolean validate(long stamp) {
+    return writeSequence.validate(stamp);
+  }
+}
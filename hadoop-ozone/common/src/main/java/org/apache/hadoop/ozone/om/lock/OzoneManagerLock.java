@@ -20,6 +20,8 @@
 import static org.apache.hadoop.hdds.utils.CompositeKey.combineKeys;
 import static org.apache.hadoop.ozone.OzoneConfigKeys.OZONE_MANAGER_FAIR_LOCK;
 import static org.apache.hadoop.ozone.OzoneConfigKeys.OZONE_MANAGER_FAIR_LOCK_DEFAULT;
+import static org.apache.hadoop.ozone.OzoneConfigKeys.OZONE_MANAGER_OPTIMISTIC_READ_ENABLED;
+import static org.apache.hadoop.ozone.OzoneConfigKeys.OZONE_MANAGER_OPTIMISTIC_READ_ENABLED_DEFAULT;
 import static org.apache.hadoop.ozone.OzoneConfigKeys.OZONE_MANAGER_STRIPED_LOCK_SIZE_DEFAULT;
 import static org.apache.hadoop.ozone.OzoneConfigKeys.OZONE_MANAGER_STRIPED_LOCK_SIZE_PREFIX;
 
@@ -49,6 +51,7 @@
 import org.apache.hadoop.ipc.ProcessingDetails.Timing;
 import org.apache.hadoop.ipc.Server;
 import org.apache.hadoop.util.Time;
+import org.apache.ratis.util.function.CheckedSupplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -103,12 +106,17 @@ public class OzoneManagerLock implements IOzoneManagerLock {
 
   private OMLockMetrics omLockMetrics;
 
+  private final boolean optimisticReadEnabled;
+
   /**
    * Creates new OzoneManagerLock instance.
    * @param conf Configuration object
    */
   public OzoneManagerLock(ConfigurationSource conf) {
     omLockMetrics = OMLockMetrics.create();
+    optimisticReadEnabled = conf.getBoolean(
+        OZONE_MANAGER_OPTIMISTIC_READ_ENABLED,
+        OZONE_MANAGER_OPTIMISTIC_READ_ENABLED_DEFAULT);
     this.resourcelockMap = ImmutableMap.of(LeveledResource.class, getLeveledLocks(conf), FlatResource.class,
         getFlatLocks(conf));
   }
@@ -139,6 +147,9 @@ private Striped<ReadWriteLock> createStripeLock(Resource r,
         r.getName().toLowerCase();
     int size = conf.getInt(stripeSizeKey,
         OZONE_MANAGER_STRIPED_LOCK_SIZE_DEFAULT);
+    if (optimisticReadEnabled) {
+      return SimpleStriped.custom(size, () -> new OptimisticReadWriteLock(fair));
+    }
     return SimpleStriped.readWriteLock(size, fair);
   }
 
@@ -268,10 +279,20 @@ private void acquireLock(Resource resource, boolean isReadLock, ReadWriteLock lo
       updateReadLockMetrics(resource, (ReentrantReadWriteLock) lock, startWaitingTimeNanos);
     } else {
       lock.writeLock().lock();
+      if (lock instanceof OptimisticReadWriteLock) {
+        ((OptimisticReadWriteLock) lock).afterWriteLock();
+      }
       updateWriteLockMetrics(resource, (ReentrantReadWriteLock) lock, startWaitingTimeNanos);
     }
   }
 
+  private static void releaseWriteLock(ReadWriteLock lock) {
+    if (lock instanceof OptimisticReadWriteLock) {
+      ((OptimisticReadWriteLock) lock).beforeWriteUnlock();
+    }
+    lock.writeLock().unlock();
+  }
+
   private OMLockDetails acquireLocks(Resource resource, boolean isReadLock,
       Function<Striped<ReadWriteLock>, Iterable<ReadWriteLock>> lockListProvider) {
     Pair<Map<Resource, Striped<ReadWriteLock>>, ResourceLockManager> resourceLockPair =
@@ -450,6 +471,47 @@ public OMLockDetails releaseReadLocks(Resource resource, Collection<String[]> ke
     return releaseLocks(resource, true, striped -> bulkGetLock(striped, keys));
   }
 
+  /**
+   * Performs a read on resource without acquiring the read lock, if
+   * optimistic reads are enabled.
+   * <p>
+   * The read is validated against the write lock of the resource afterwards.
+   * If a writer acquired the lock in the meantime, or was holding it
+   * already, the result is discarded and the read is repeated under the
+   * read lock. Hence the read must have no side effects and must tolerate
+   * observing the state modified by a concurrent writer, e.g. an exception
+   * thrown in that case is also discarded.
+   */
+  @Override
+  public <T, E extends Exception> T readOptimistically(Resource resource,
+      CheckedSupplier<T, E> read, String... keys) throws E {
+    if (optimisticReadEnabled) {
+      ReentrantReadWriteLock lock = getLock(resourcelockMap.get(resource.getClass()).getKey(), resource, keys);
+      if (lock instanceof OptimisticReadWriteLock) {
+        OptimisticReadWriteLock optimisticLock = (OptimisticReadWriteLock) lock;
+        long stamp = optimisticLock.tryOptimisticRead();
+        if (stamp != 0) {
+          T result;
+          try {
+            result = read.get();
+          } catch (Exception e) {
+            if (optimisticLock.validate(stamp)) {
+              omLockMetrics.incOptimisticReads();
+              throw e;
+            }
+            result = null;
+          }
+          if (optimisticLock.validate(stamp)) {
+            omLockMetrics.incOptimisticReads();
+            return result;
+          }
+        }
+        omLockMetrics.incOptimisticReadFailures();
+      }
+    }
+    return IOzoneManagerLock.super.readOptimistically(resource, read, keys);
+  }
+
   private OMLockDetails releaseLock(Resource resource, boolean isReadLock,
       String... keys) {
     Pair<Map<Resource, Striped<ReadWriteLock>>, ResourceLockManager> resourceLockPair =
@@ -462,7 +524,7 @@ private OMLockDetails releaseLock(Resource resource, boolean isReadLock,
       updateReadUnlockMetrics(resource, lock);
     } else {
       boolean isWriteLocked = lock.isWriteLockedByCurrentThread();
-      lock.writeLock().unlock();
+      releaseWriteLock(lock);
       updateWriteUnlockMetrics(resource, lock, isWriteLocked);
     }
     return resourceLockManager.unlockResource(resource);
@@ -484,7 +546,7 @@ private OMLockDetails releaseLocks(Resource resource, boolean isReadLock,
         updateReadUnlockMetrics(resource, (ReentrantReadWriteLock) lock);
       } else {
         boolean isWriteLocked = ((ReentrantReadWriteLock)lock).isWriteLockedByCurrentThread();
-        lock.writeLock().unlock();
+        releaseWriteLock(lock);
         updateWriteUnlockMetrics(resource, (ReentrantReadWriteLock) lock, isWriteLocked);
       }
     }
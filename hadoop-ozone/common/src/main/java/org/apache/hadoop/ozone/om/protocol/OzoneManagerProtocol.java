@@ -331,6 +331,35 @@ default void renameKey(OmKeyArgs args, String toKeyName) throws IOException {
         "this to be implemented, as write requests use a new approach.");
   }
 
+  /**
+   * Copy an existing key by referring to its blocks from the new key.
+   * @param srcArgs the args of the source key.
+   * @param dstArgs the args of the new key, metadata and tags of the new key
+   *                are taken from here.
+   * @return the info of the new key.
+   * @throws IOException
+   */
+  default OmKeyInfo copyKey(OmKeyArgs srcArgs, OmKeyArgs dstArgs)
+      throws IOException {
+    throw new UnsupportedOperationException("OzoneManager does not require " +
+        "this to be implemented, as write requests use a new approach.");
+  }
+
+  /**
+   * Copy an existing key to a part of a multipart upload by referring to its
+   * blocks from the part.
+   * @param srcArgs the args of the source key.
+   * @param dstArgs the args of the part, metadata of the part is taken from
+   *                here.
+   * @return OmMultipartCommitUploadPartInfo
+   * @throws IOException
+   */
+  default OmMultipartCommitUploadPartInfo copyMultipartUploadPart(
+      OmKeyArgs srcArgs, OmKeyArgs dstArgs) throws IOException {
+    throw new UnsupportedOperationException("OzoneManager does not require " +
+        "this to be implemented, as write requests use a new approach.");
+  }
+
   /**
    * Rename existing keys within a bucket.
    * @param omRenameKeys Includes volume, bucket, and fromKey toKey name map
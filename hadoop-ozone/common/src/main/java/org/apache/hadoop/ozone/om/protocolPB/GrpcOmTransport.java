@@ -23,12 +23,14 @@
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.net.HostAndPort;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.grpc.Context;
 import io.grpc.ManagedChannel;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
 import io.grpc.netty.GrpcSslContexts;
 import io.grpc.netty.NettyChannelBuilder;
+import io.grpc.stub.StreamObserver;
 import io.netty.handler.ssl.SslContextBuilder;
 import java.io.IOException;
 import java.lang.reflect.Constructor;
@@ -37,6 +39,10 @@
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -77,6 +83,8 @@ public class GrpcOmTransport implements OmTransport {
 
   private Map<String,
       OzoneManagerServiceGrpc.OzoneManagerServiceBlockingStub> clients;
+  private Map<String,
+      OzoneManagerServiceGrpc.OzoneManagerServiceStub> asyncClients;
   private Map<String, ManagedChannel> channels;
   private ConfigurationSource conf;
 
@@ -86,7 +94,9 @@ public class GrpcOmTransport implements OmTransport {
   private SecurityConfig secConfig;
 
   private RetryPolicy retryPolicy;
-  private int failoverCount = 0;
+  private final AtomicInteger failoverCount = new AtomicInteger();
+  /** Runs the retries of asynchronous requests after the retry delay. */
+  private final ScheduledExecutorService retryExecutor;
   private GrpcOMFailoverProxyProvider<OzoneManagerProtocolPB>
       omFailoverProxyProvider;
 
@@ -100,10 +110,15 @@ public GrpcOmTransport(ConfigurationSource conf,
 
     this.channels = new HashMap<>();
     this.clients = new HashMap<>();
+    this.asyncClients = new HashMap<>();
     this.conf = conf;
     this.host = new AtomicReference();
-    this.failoverCount = 0;
     this.syncFailoverCount = new AtomicInteger();
+    this.retryExecutor = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder()
+            .setNameFormat(CLIENT_NAME + "-Retry-%d")
+            .setDaemon(true)
+            .build());
 
 
     secConfig =  new SecurityConfig(conf);
@@ -163,6 +178,8 @@ public void start() throws IOException {
       clients.put(hostaddr,
           OzoneManagerServiceGrpc
               .newBlockingStub(channels.get(hostaddr)));
+      asyncClients.put(hostaddr,
+          OzoneManagerServiceGrpc.newStub(channels.get(hostaddr)));
     }
     int maxFailovers = conf.getInt(
         OzoneConfigKeys.OZONE_CLIENT_FAILOVER_MAX_ATTEMPTS_KEY,
@@ -210,6 +227,92 @@ public OMResponse submitRequest(OMRequest payload) throws IOException {
     return resp.get();
   }
 
+  /**
+   * Sends the request on the non-blocking stub, so that any number of
+   * requests can be in flight over the channel of the current OM.  Failed
+   * requests are retried and failed over as in
+   * {@link #submitRequest(OMRequest)}, but the retries are scheduled after
+   * the retry delay instead of blocking the gRPC callback thread.
+   */
+  @Override
+  public CompletableFuture<OMResponse> submitRequestAsync(OMRequest payload) {
+    final CompletableFuture<OMResponse> future = new CompletableFuture<>();
+    submitRequestAsync(payload, future);
+    return future;
+  }
+
+  private void submitRequestAsync(OMRequest payload,
+      CompletableFuture<OMResponse> future) {
+    final int expectedFailoverCount = syncFailoverCount.get();
+    final StreamObserver<OMResponse> responseObserver =
+        new StreamObserver<OMResponse>() {
+          @Override
+          public void onNext(OMResponse response) {
+            future.complete(response);
+          }
+
+          @Override
+          public void onError(Throwable t) {
+            onAsyncRequestFailure(payload, future, t, expectedFailoverCount);
+          }
+
+          @Override
+          public void onCompleted() {
+            // the response has been passed to onNext
+          }
+        };
+    try {
+      InetAddress inetAddress = InetAddress.getLocalHost();
+      Context.current()
+          .withValue(GrpcClientConstants.CLIENT_IP_ADDRESS_CTX_KEY,
+              inetAddress.getHostAddress())
+          .withValue(GrpcClientConstants.CLIENT_HOSTNAME_CTX_KEY,
+              inetAddress.getHostName())
+          .run(() -> asyncClients.get(host.get())
+              .submitRequest(payload, responseObserver));
+    } catch (IOException | RuntimeException e) {
+      future.completeExceptionally(e);
+    }
+  }
+
+  private void onAsyncRequestFailure(OMRequest payload,
+      CompletableFuture<OMResponse> future, Throwable t,
+      int expectedFailoverCount) {
+    if (!(t instanceof StatusRuntimeException)) {
+      future.completeExceptionally(new IOException(t));
+      return;
+    }
+    StatusRuntimeException e = (StatusRuntimeException) t;
+    LOG.error("Failed to submit request", e);
+    ResultCodes resultCode = ResultCodes.INTERNAL_ERROR;
+    if (e.getStatus().getCode() == Status.Code.UNAVAILABLE) {
+      if (e.getCause() instanceof javax.net.ssl.SSLHandshakeException) {
+        future.completeExceptionally(
+            new OMException(SSL_CONNECTION_FAILURE));
+        return;
+      }
+      resultCode = ResultCodes.TIMEOUT;
+    }
+    final RetryPolicy.RetryAction action =
+        getRetryAction(unwrapException(new Exception(e)));
+    final OMException failure = new OMException(resultCode);
+    if (action == null) {
+      future.completeExceptionally(failure);
+      return;
+    }
+    try {
+      retryExecutor.schedule(() -> {
+        if (failover(expectedFailoverCount)) {
+          submitRequestAsync(payload, future);
+        } else {
+          future.completeExceptionally(failure);
+        }
+      }, action.delayMillis, TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException ree) {
+      future.completeExceptionally(failure);
+    }
+  }
+
   private Exception unwrapException(Exception ex) {
     Exception grpcException = null;
     try {
@@ -252,44 +355,65 @@ private Exception unwrapException(Exception ex) {
   }
 
   private boolean shouldRetry(Exception ex, int expectedFailoverCount) {
-    boolean retry = false;
-    RetryPolicy.RetryAction action = null;
+    RetryPolicy.RetryAction action = getRetryAction(ex);
+    if (action == null) {
+      return false;
+    }
+    if (action.delayMillis > 0) {
+      try {
+        Thread.sleep(action.delayMillis);
+      } catch (Exception e) {
+        LOG.error("Error trying sleep thread for {}", action.delayMillis);
+      }
+    }
+    return failover(expectedFailoverCount);
+  }
+
+  /**
+   * @return the action of the retry policy for the failed request, or null
+   * if the request should not be retried.
+   */
+  private RetryPolicy.RetryAction getRetryAction(Exception ex) {
     try {
-      action = retryPolicy.shouldRetry((Exception)ex, 0, failoverCount++, true);
+      RetryPolicy.RetryAction action = retryPolicy.shouldRetry(ex, 0,
+          failoverCount.getAndIncrement(), true);
       LOG.debug("grpc failover retry action {}", action.action);
       if (action.action == RetryPolicy.RetryAction.RetryDecision.FAIL) {
-        retry = false;
         LOG.error("Retry request failed. Action : {}, {}",
             action.action, ex.toString());
+      } else if (action.action == RetryPolicy.RetryAction.RetryDecision.RETRY
+          || action.action == RetryPolicy.RetryAction.RetryDecision
+              .FAILOVER_AND_RETRY) {
+        return action;
+      }
+    } catch (Exception e) {
+      LOG.error("Failed failover exception {}", e);
+    }
+    return null;
+  }
+
+  /**
+   * Switch the om host to the current proxy OMNodeId, failing over unless
+   * another request has failed over since the given count.
+   * @return whether the request can be retried on the new host.
+   */
+  private boolean failover(int expectedFailoverCount) {
+    try {
+      if (syncFailoverCount.get() == expectedFailoverCount) {
+        omFailoverProxyProvider.performFailover(null);
+        syncFailoverCount.getAndIncrement();
       } else {
-        if (action.action == RetryPolicy.RetryAction.RetryDecision.RETRY ||
-            (action.action == RetryPolicy.RetryAction.RetryDecision
-                .FAILOVER_AND_RETRY)) {
-          if (action.delayMillis > 0) {
-            try {
-              Thread.sleep(action.delayMillis);
-            } catch (Exception e) {
-              LOG.error("Error trying sleep thread for {}", action.delayMillis);
-            }
-          }
-          // switch om host to current proxy OMNodeId
-          if (syncFailoverCount.get() == expectedFailoverCount) {
-            omFailoverProxyProvider.performFailover(null);
-            syncFailoverCount.getAndIncrement();
-          } else {
-            LOG.warn("A failover has occurred since the start of current" +
-                " thread retry, NOT failover using current proxy");
-          }
-          host.set(omFailoverProxyProvider
-              .getGrpcProxyAddress(
-                  omFailoverProxyProvider.getCurrentProxyOMNodeId()));
-          retry = true;
-        }
+        LOG.warn("A failover has occurred since the start of current" +
+            " thread retry, NOT failover using current proxy");
       }
+      host.set(omFailoverProxyProvider
+          .getGrpcProxyAddress(
+              omFailoverProxyProvider.getCurrentProxyOMNodeId()));
+      return true;
     } catch (Exception e) {
       LOG.error("Failed failover exception {}", e);
+      return false;
     }
-    return retry;
   }
 
   // stub implementation for interface
@@ -299,6 +423,8 @@ public Text getDelegationTokenService() {
   }
 
   public void shutdown() {
+    // the scheduled retries still run, and fail on the closed channels
+    retryExecutor.shutdown();
     for (Map.Entry<String, ManagedChannel> entry : channels.entrySet()) {
       ManagedChannel channel = entry.getValue();
       channel.shutdown();
@@ -347,6 +473,8 @@ public void startClient(ManagedChannel testChannel) throws IOException {
       clients.put(hostaddr,
           OzoneManagerServiceGrpc
               .newBlockingStub(testChannel));
+      asyncClients.put(hostaddr,
+          OzoneManagerServiceGrpc.newStub(testChannel));
     }
     LOG.info("{}: started", CLIENT_NAME);
   }
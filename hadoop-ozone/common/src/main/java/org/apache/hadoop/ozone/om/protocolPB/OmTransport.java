@@ -18,6 +18,7 @@
 package org.apache.hadoop.ozone.om.protocolPB;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 import org.apache.hadoop.io.Text;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
@@ -32,6 +33,25 @@ public interface OmTransport {
    */
   OMResponse submitRequest(OMRequest payload) throws IOException;
 
+  /**
+   * Send out the request without waiting for the response.  Transports
+   * which can have many requests in flight over the same connection should
+   * override this; the default sends the request synchronously.
+   *
+   * @return future completed with the response, or exceptionally with the
+   * IOException which {@link #submitRequest(OMRequest)} would throw
+   */
+  default CompletableFuture<OMResponse> submitRequestAsync(
+      OMRequest payload) {
+    final CompletableFuture<OMResponse> future = new CompletableFuture<>();
+    try {
+      future.complete(submitRequest(payload));
+    } catch (IOException e) {
+      future.completeExceptionally(e);
+    }
+    return future;
+  }
+
   /**
    * Return the addresses of the Ozone Managers, used for delegation token.
    */
@@ -17,12 +17,27 @@
 
 package org.apache.hadoop.ozone.om.protocolPB;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.apache.hadoop.ozone.om.helpers.KeyInfoWithVolumeContext;
+import org.apache.hadoop.ozone.om.helpers.OmKeyArgs;
+import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.apache.hadoop.ozone.om.helpers.OpenKeySession;
+import org.apache.hadoop.ozone.om.helpers.OzoneFileStatus;
 import org.apache.hadoop.ozone.om.protocol.OzoneManagerProtocol;
 import org.apache.hadoop.ozone.om.protocol.S3Auth;
 
 /**
  * OzoneManagerClientProtocol defines interfaces needed on the client side
  * when communicating with Ozone Manager.
+ * <p>
+ * It also has asynchronous variants of the calls on the key read and write
+ * paths, for which the request is built, including the S3 authentication of
+ * the calling thread, before returning.  With a transport which supports it,
+ * such as the gRPC one, many of these requests can be in flight over the
+ * same connection.  The futures are completed exceptionally with the
+ * IOException which the synchronous call would throw, possibly wrapped in a
+ * CompletionException.
  */
 public interface OzoneManagerClientProtocol extends OzoneManagerProtocol {
   /**
@@ -38,4 +53,28 @@ public interface OzoneManagerClientProtocol extends OzoneManagerProtocol {
   void clearThreadLocalS3Auth();
 
   ThreadLocal<S3Auth> getS3CredentialsProvider();
+
+  /**
+   * Asynchronous {@link #openKey(OmKeyArgs)}.  Unlike openKey, the request
+   * is not retried while SCM is in safe mode.
+   */
+  CompletableFuture<OpenKeySession> openKeyAsync(OmKeyArgs args);
+
+  /** Asynchronous {@link #commitKey(OmKeyArgs, long)}. */
+  CompletableFuture<Void> commitKeyAsync(OmKeyArgs args, long clientID);
+
+  /** Asynchronous {@link #lookupKey(OmKeyArgs)}. */
+  CompletableFuture<OmKeyInfo> lookupKeyAsync(OmKeyArgs args);
+
+  /** Asynchronous {@link #getKeyInfo(OmKeyArgs, boolean)}. */
+  CompletableFuture<KeyInfoWithVolumeContext> getKeyInfoAsync(OmKeyArgs args,
+      boolean assumeS3Context);
+
+  /**
+   * Asynchronous
+   * {@link #listStatus(OmKeyArgs, boolean, String, long, boolean)}.
+   */
+  CompletableFuture<List<OzoneFileStatus>> listStatusAsync(OmKeyArgs args,
+      boolean recursive, String startKey, long numEntries,
+      boolean allowPartialPrefixes);
 }
@@ -17,6 +17,7 @@
 
 package org.apache.hadoop.ozone.om.protocolPB;
 
+import static org.apache.hadoop.ozone.OzoneConsts.ETAG;
 import static org.apache.hadoop.ozone.OzoneConsts.OM_S3_CALLER_CONTEXT_PREFIX;
 import static org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes;
 import static org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes.SCM_IN_SAFE_MODE;
@@ -38,6 +39,8 @@
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.hadoop.fs.SafeModeAction;
@@ -104,6 +107,8 @@
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CancelPrepareResponse;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CheckVolumeAccessRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CommitKeyRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CopyKeyRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CopyKeyResponse;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CreateBucketRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CreateDirectoryRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CreateFileRequest;
@@ -247,6 +252,7 @@
 import org.apache.hadoop.ozone.upgrade.UpgradeFinalization.StatusAndMessages;
 import org.apache.hadoop.ozone.util.ProtobufUtils;
 import org.apache.hadoop.security.token.Token;
+import org.apache.ratis.util.function.CheckedFunction;
 
 /**
  * The client side implementation of OzoneManagerProtocol.
@@ -310,6 +316,33 @@ private OMRequest.Builder createOMRequest(Type cmdType) {
    */
   private OMResponse submitRequest(OMRequest omRequest)
       throws IOException {
+    return transport.submitRequest(prepareRequest(omRequest));
+  }
+
+  /**
+   * Submits client request to OM server without waiting for the response.
+   * @param omRequest client request
+   * @param getResult converts the successful response to the result
+   * @return future completed with the result, or exceptionally with the
+   * IOException which the synchronous call would throw
+   */
+  private <T> CompletableFuture<T> submitRequestAsync(OMRequest omRequest,
+      CheckedFunction<OMResponse, T, IOException> getResult) {
+    return transport.submitRequestAsync(prepareRequest(omRequest))
+        .thenApply(response -> {
+          try {
+            return getResult.apply(handleError(response));
+          } catch (IOException e) {
+            throw new CompletionException(e);
+          }
+        });
+  }
+
+  /**
+   * Adds the S3 authentication of the current thread and the tracing
+   * information to the request.
+   */
+  private OMRequest prepareRequest(OMRequest omRequest) {
     OMRequest.Builder  builder = OMRequest.newBuilder(omRequest);
     // Insert S3 Authentication information for each request.
     if (getThreadLocalS3Auth() != null) {
@@ -336,10 +369,7 @@ private OMResponse submitRequest(OMRequest omRequest)
         CallerContext.setCurrent(callerContext);
       }
     }
-    OMResponse response =
-        transport.submitRequest(
-            builder.setTraceID(TracingUtil.exportCurrentSpan()).build());
-    return response;
+    return builder.setTraceID(TracingUtil.exportCurrentSpan()).build();
   }
 
   /**
@@ -686,6 +716,25 @@ public List<OmBucketInfo> listBuckets(String volumeName,
    */
   @Override
   public OpenKeySession openKey(OmKeyArgs args) throws IOException {
+    CreateKeyResponse keyResponse = handleSubmitRequestAndSCMSafeModeRetry(
+        createOpenKeyRequest(args)).getCreateKeyResponse();
+    return toOpenKeySession(keyResponse);
+  }
+
+  @Override
+  public CompletableFuture<OpenKeySession> openKeyAsync(OmKeyArgs args) {
+    return submitRequestAsync(createOpenKeyRequest(args),
+        response -> toOpenKeySession(response.getCreateKeyResponse()));
+  }
+
+  private static OpenKeySession toOpenKeySession(
+      CreateKeyResponse keyResponse) {
+    return new OpenKeySession(keyResponse.getID(),
+        OmKeyInfo.getFromProtobuf(keyResponse.getKeyInfo()),
+        keyResponse.getOpenVersion());
+  }
+
+  private OMRequest createOpenKeyRequest(OmKeyArgs args) {
     CreateKeyRequest.Builder req = CreateKeyRequest.newBuilder();
     KeyArgs.Builder keyArgs = KeyArgs.newBuilder()
         .setVolumeName(args.getVolumeName())
@@ -745,14 +794,9 @@ public OpenKeySession openKey(OmKeyArgs args) throws IOException {
 
     req.setKeyArgs(keyArgs.build());
 
-    OMRequest omRequest = createOMRequest(Type.CreateKey)
+    return createOMRequest(Type.CreateKey)
         .setCreateKeyRequest(req)
         .build();
-
-    CreateKeyResponse keyResponse = handleSubmitRequestAndSCMSafeModeRetry(omRequest).getCreateKeyResponse();
-    return new OpenKeySession(keyResponse.getID(),
-        OmKeyInfo.getFromProtobuf(keyResponse.getKeyInfo()),
-        keyResponse.getOpenVersion());
   }
 
   private OMResponse handleError(OMResponse resp) throws OMException {
@@ -810,6 +854,14 @@ public void commitKey(OmKeyArgs args, long clientId)
     updateKey(args, clientId, false, false);
   }
 
+  @Override
+  public CompletableFuture<Void> commitKeyAsync(OmKeyArgs args,
+      long clientId) {
+    return submitRequestAsync(
+        createUpdateKeyRequest(args, clientId, false, false),
+        response -> null);
+  }
+
   @Override
   public void recoverKey(OmKeyArgs args, long clientId)
       throws IOException {
@@ -831,6 +883,12 @@ public static void setReplicationConfig(ReplicationConfig replication,
 
   private void updateKey(OmKeyArgs args, long clientId, boolean hsync, boolean recovery)
       throws IOException {
+    handleError(submitRequest(
+        createUpdateKeyRequest(args, clientId, hsync, recovery)));
+  }
+
+  private OMRequest createUpdateKeyRequest(OmKeyArgs args, long clientId,
+      boolean hsync, boolean recovery) {
     CommitKeyRequest.Builder req = CommitKeyRequest.newBuilder();
     List<OmKeyLocationInfo> locationInfoList = args.getLocationInfoList();
     Preconditions.checkNotNull(locationInfoList);
@@ -852,43 +910,62 @@ private void updateKey(OmKeyArgs args, long clientId, boolean hsync, boolean rec
     req.setHsync(hsync);
     req.setRecovery(recovery);
 
-    OMRequest omRequest = createOMRequest(Type.CommitKey)
+    return createOMRequest(Type.CommitKey)
         .setCommitKeyRequest(req)
         .build();
-
-    handleError(submitRequest(omRequest));
   }
 
   @Override
   public OmKeyInfo lookupKey(OmKeyArgs args) throws IOException {
+    LookupKeyResponse resp = handleError(submitRequest(
+        createLookupKeyRequest(args))).getLookupKeyResponse();
+
+    return OmKeyInfo.getFromProtobuf(resp.getKeyInfo());
+  }
+
+  @Override
+  public CompletableFuture<OmKeyInfo> lookupKeyAsync(OmKeyArgs args) {
+    return submitRequestAsync(createLookupKeyRequest(args),
+        response -> OmKeyInfo.getFromProtobuf(
+            response.getLookupKeyResponse().getKeyInfo()));
+  }
+
+  private OMRequest createLookupKeyRequest(OmKeyArgs args) {
     LookupKeyRequest.Builder req = LookupKeyRequest.newBuilder();
     req.setKeyArgs(args.toProtobuf());
 
-    OMRequest omRequest = createOMRequest(Type.LookupKey)
+    return createOMRequest(Type.LookupKey)
         .setLookupKeyRequest(req)
         .build();
-
-    LookupKeyResponse resp =
-        handleError(submitRequest(omRequest)).getLookupKeyResponse();
-
-    return OmKeyInfo.getFromProtobuf(resp.getKeyInfo());
   }
 
   @Override
   public KeyInfoWithVolumeContext getKeyInfo(OmKeyArgs args,
                                              boolean assumeS3Context)
       throws IOException {
+    GetKeyInfoResponse resp = handleError(submitRequest(
+        createGetKeyInfoRequest(args, assumeS3Context)))
+        .getGetKeyInfoResponse();
+    return KeyInfoWithVolumeContext.fromProtobuf(resp);
+  }
+
+  @Override
+  public CompletableFuture<KeyInfoWithVolumeContext> getKeyInfoAsync(
+      OmKeyArgs args, boolean assumeS3Context) {
+    return submitRequestAsync(createGetKeyInfoRequest(args, assumeS3Context),
+        response -> KeyInfoWithVolumeContext.fromProtobuf(
+            response.getGetKeyInfoResponse()));
+  }
+
+  private OMRequest createGetKeyInfoRequest(OmKeyArgs args,
+      boolean assumeS3Context) {
     GetKeyInfoRequest.Builder req = GetKeyInfoRequest.newBuilder();
     req.setKeyArgs(args.toProtobuf());
     req.setAssumeS3Context(assumeS3Context);
 
-    OMRequest omRequest = createOMRequest(Type.GetKeyInfo)
+    return createOMRequest(Type.GetKeyInfo)
         .setGetKeyInfoRequest(req)
         .build();
-
-    GetKeyInfoResponse resp =
-        handleError(submitRequest(omRequest)).getGetKeyInfoResponse();
-    return KeyInfoWithVolumeContext.fromProtobuf(resp);
   }
 
   @Override
@@ -937,6 +1014,64 @@ public void renameKey(OmKeyArgs args, String toKeyName) throws IOException {
     handleError(submitRequest(omRequest));
   }
 
+  @Override
+  public OmKeyInfo copyKey(OmKeyArgs srcArgs, OmKeyArgs dstArgs)
+      throws IOException {
+    CopyKeyResponse resp = handleError(submitRequest(
+        createCopyKeyRequest(srcArgs, dstArgs))).getCopyKeyResponse();
+    return OmKeyInfo.getFromProtobuf(resp.getKeyInfo());
+  }
+
+  @Override
+  public OmMultipartCommitUploadPartInfo copyMultipartUploadPart(
+      OmKeyArgs srcArgs, OmKeyArgs dstArgs) throws IOException {
+    CopyKeyResponse resp = handleError(submitRequest(
+        createCopyKeyRequest(srcArgs, dstArgs))).getCopyKeyResponse();
+    return new OmMultipartCommitUploadPartInfo(resp.getPartName(),
+        dstArgs.getMetadata().get(ETAG));
+  }
+
+  private OMRequest createCopyKeyRequest(OmKeyArgs srcArgs,
+      OmKeyArgs dstArgs) {
+    KeyArgs.Builder srcKeyArgs = KeyArgs.newBuilder()
+        .setVolumeName(srcArgs.getVolumeName())
+        .setBucketName(srcArgs.getBucketName())
+        .setKeyName(srcArgs.getKeyName());
+    if (srcArgs.getExpectedDataGeneration() != null) {
+      srcKeyArgs.setExpectedDataGeneration(
+          srcArgs.getExpectedDataGeneration());
+    }
+
+    KeyArgs.Builder dstKeyArgs = KeyArgs.newBuilder()
+        .setVolumeName(dstArgs.getVolumeName())
+        .setBucketName(dstArgs.getBucketName())
+        .setKeyName(dstArgs.getKeyName());
+    if (dstArgs.getOwner() != null) {
+      dstKeyArgs.setOwnerName(dstArgs.getOwner());
+    }
+    if (dstArgs.getAcls() != null) {
+      dstKeyArgs.addAllAcls(dstArgs.getAcls().stream().distinct()
+          .map(OzoneAcl::toProtobuf).collect(Collectors.toList()));
+    }
+    if (dstArgs.getMetadata() != null && !dstArgs.getMetadata().isEmpty()) {
+      dstKeyArgs.addAllMetadata(KeyValueUtil.toProtobuf(dstArgs.getMetadata()));
+    }
+    if (dstArgs.getTags() != null && !dstArgs.getTags().isEmpty()) {
+      dstKeyArgs.addAllTags(KeyValueUtil.toProtobuf(dstArgs.getTags()));
+    }
+    if (dstArgs.getMultipartUploadID() != null) {
+      dstKeyArgs.setIsMultipartKey(true)
+          .setMultipartUploadID(dstArgs.getMultipartUploadID())
+          .setMultipartNumber(dstArgs.getMultipartUploadPartNumber());
+    }
+
+    return createOMRequest(Type.CopyKey)
+        .setCopyKeyRequest(CopyKeyRequest.newBuilder()
+            .setSrcKeyArgs(srcKeyArgs)
+            .setDstKeyArgs(dstKeyArgs))
+        .build();
+  }
+
   /**
    * Deletes an existing key.
    *
@@ -2353,6 +2488,33 @@ private OMResponse handleSubmitRequestAndSCMSafeModeRetry(OMRequest omRequest) t
   public List<OzoneFileStatus> listStatus(OmKeyArgs args, boolean recursive,
       String startKey, long numEntries, boolean allowPartialPrefixes)
       throws IOException {
+    return toFileStatusList(handleError(submitRequest(createListStatusRequest(
+        args, recursive, startKey, numEntries, allowPartialPrefixes))));
+  }
+
+  @Override
+  public CompletableFuture<List<OzoneFileStatus>> listStatusAsync(
+      OmKeyArgs args, boolean recursive, String startKey, long numEntries,
+      boolean allowPartialPrefixes) {
+    return submitRequestAsync(createListStatusRequest(args, recursive,
+        startKey, numEntries, allowPartialPrefixes),
+        OzoneManagerProtocolClientSideTranslatorPB::toFileStatusList);
+  }
+
+  private static List<OzoneFileStatus> toFileStatusList(OMResponse response)
+      throws IOException {
+    ListStatusResponse listStatusResponse = response.getListStatusResponse();
+    List<OzoneFileStatus> statusList =
+        new ArrayList<>(listStatusResponse.getStatusesCount());
+    for (OzoneFileStatusProto fileStatus : listStatusResponse
+        .getStatusesList()) {
+      statusList.add(OzoneFileStatus.getFromProtobuf(fileStatus));
+    }
+    return statusList;
+  }
+
+  private OMRequest createListStatusRequest(OmKeyArgs args, boolean recursive,
+      String startKey, long numEntries, boolean allowPartialPrefixes) {
     KeyArgs keyArgs = KeyArgs.newBuilder()
         .setVolumeName(args.getVolumeName())
         .setBucketName(args.getBucketName())
@@ -2364,18 +2526,9 @@ public List<OzoneFileStatus> listStatus(OmKeyArgs args, boolean recursive,
     ListStatusRequest.Builder listStatusRequestBuilder = createListStatusRequestBuilder(keyArgs, recursive, startKey,
         numEntries, allowPartialPrefixes);
 
-    OMRequest omRequest = createOMRequest(Type.ListStatus)
+    return createOMRequest(Type.ListStatus)
         .setListStatusRequest(listStatusRequestBuilder.build())
         .build();
-    ListStatusResponse listStatusResponse =
-        handleError(submitRequest(omRequest)).getListStatusResponse();
-    List<OzoneFileStatus> statusList =
-        new ArrayList<>(listStatusResponse.getStatusesCount());
-    for (OzoneFileStatusProto fileStatus : listStatusResponse
-        .getStatusesList()) {
-      statusList.add(OzoneFileStatus.getFromProtobuf(fileStatus));
-    }
-    return statusList;
   }
 
   @Override
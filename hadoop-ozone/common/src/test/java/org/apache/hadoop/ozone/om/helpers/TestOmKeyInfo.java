@@ -39,6 +39,8 @@
 import org.apache.hadoop.hdds.protocol.proto.HddsProtos.ReplicationFactor;
 import org.apache.hadoop.hdds.scm.pipeline.Pipeline;
 import org.apache.hadoop.hdds.scm.pipeline.PipelineID;
+import org.apache.hadoop.hdds.utils.db.Codec;
+import org.apache.hadoop.hdds.utils.db.CodecBuffer;
 import org.apache.hadoop.ozone.ClientVersion;
 import org.apache.hadoop.ozone.OzoneAcl;
 import org.apache.hadoop.ozone.OzoneConsts;
@@ -129,6 +131,47 @@ private OmKeyInfo createOmKeyInfo(ReplicationConfig replicationConfig) {
         .build();
   }
 
+  @Test
+  public void testBasicOmKeyInfoProjection() throws IOException {
+    for (ReplicationConfig replicationConfig : Arrays.asList(
+        RatisReplicationConfig.getInstance(ReplicationFactor.THREE),
+        new ECReplicationConfig(3, 2))) {
+      OmKeyInfo key = new Builder()
+          .setKeyName("dir/key1")
+          .setBucketName("bucket")
+          .setVolumeName("vol1")
+          .setCreationTime(123L)
+          .setModificationTime(456L)
+          .setDataSize(789L)
+          .setReplicationConfig(replicationConfig)
+          .setOwnerName("owner")
+          .setFile(true)
+          .addMetadata("key1", "value1")
+          .addMetadata(OzoneConsts.ETAG, "etag")
+          .setOmKeyLocationInfos(
+              Collections.singletonList(createOmKeyLocationInfoGroup(false)))
+          .build();
+      Codec<OmKeyInfo> codec = OmKeyInfo.getCodec(true);
+      Codec<BasicOmKeyInfo> projection =
+          BasicOmKeyInfo.getKeyInfoProjectionCodec();
+      BasicOmKeyInfo expected = BasicOmKeyInfo.fromOmKeyInfo(key);
+
+      assertBasicOmKeyInfo(expected,
+          projection.fromPersistedFormat(codec.toPersistedFormat(key)));
+      try (CodecBuffer buffer = codec.toDirectCodecBuffer(key)) {
+        assertBasicOmKeyInfo(expected, projection.fromCodecBuffer(buffer));
+      }
+    }
+  }
+
+  private static void assertBasicOmKeyInfo(BasicOmKeyInfo expected,
+      BasicOmKeyInfo actual) {
+    assertEquals(expected, actual);
+    assertEquals(expected.getProtobuf(), actual.getProtobuf());
+    assertEquals(expected.isFile(), actual.isFile());
+    assertEquals("etag", actual.getETag());
+  }
+
   @Test
   public void testCopyObject() {
     createdAndTest(false);
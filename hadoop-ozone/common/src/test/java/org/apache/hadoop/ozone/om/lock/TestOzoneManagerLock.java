@@ -29,12 +29,16 @@
 import java.util.List;
 import java.util.Stack;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.apache.hadoop.hdds.conf.OzoneConfiguration;
 import org.apache.hadoop.metrics2.MetricsRecord;
 import org.apache.hadoop.metrics2.impl.MetricsCollectorImpl;
+import org.apache.hadoop.ozone.OzoneConfigKeys;
 import org.apache.hadoop.ozone.om.lock.IOzoneManagerLock.Resource;
 import org.apache.hadoop.ozone.om.lock.OzoneManagerLock.FlatResource;
 import org.apache.hadoop.ozone.om.lock.OzoneManagerLock.LeveledResource;
@@ -637,9 +641,121 @@ void testOMLockMetricsRecords() {
       List<? extends MetricsRecord> metricsRecords = metricsCollector.getRecords();
       assertEquals(1, metricsRecords.size());
       assertThat(metricsRecords.toString())
-          .contains("ReadLockWaitingTime", "ReadLockHeldTime", "WriteLockWaitingTime", "WriteLockHeldTime");
+          .contains("ReadLockWaitingTime", "ReadLockHeldTime", "WriteLockWaitingTime", "WriteLockHeldTime",
+              "OptimisticReads", "OptimisticReadFailures");
     } finally {
       omLockMetrics.unRegister();
     }
   }
+
+  private static OzoneManagerLock newOptimisticLock() {
+    OzoneConfiguration conf = new OzoneConfiguration();
+    conf.setBoolean(OzoneConfigKeys.OZONE_MANAGER_OPTIMISTIC_READ_ENABLED, true);
+    return new OzoneManagerLock(conf);
+  }
+
+  @Test
+  void testOptimisticReadWithoutWriter() {
+    OzoneManagerLock lock = newOptimisticLock();
+    try {
+      String[] resourceName = generateResourceName(LeveledResource.BUCKET_LOCK);
+      String result = lock.readOptimistically(LeveledResource.BUCKET_LOCK, () -> {
+        assertEquals(0, lock.getReadHoldCount(LeveledResource.BUCKET_LOCK, resourceName));
+        return "value";
+      }, resourceName);
+
+      assertEquals("value", result);
+      assertEquals(1, lock.getOMLockMetrics().getOptimisticReads());
+      assertEquals(0, lock.getOMLockMetrics().getOptimisticReadFailures());
+    } finally {
+      lock.cleanup();
+    }
+  }
+
+  @Test
+  void testOptimisticReadFallsBackWhileWriteLocked() throws Exception {
+    OzoneManagerLock lock = newOptimisticLock();
+    try {
+      String[] resourceName = generateResourceName(LeveledResource.BUCKET_LOCK);
+      CountDownLatch locked = new CountDownLatch(1);
+      CountDownLatch release = new CountDownLatch(1);
+      CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+        lock.acquireWriteLock(LeveledResource.BUCKET_LOCK, resourceName);
+        locked.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        } finally {
+          lock.releaseWriteLock(LeveledResource.BUCKET_LOCK, resourceName);
+        }
+      });
+      locked.await();
+
+      AtomicBoolean underReadLock = new AtomicBoolean();
+      CompletableFuture<String> reader = CompletableFuture.supplyAsync(() ->
+          lock.readOptimistically(LeveledResource.BUCKET_LOCK, () -> {
+            underReadLock.set(lock.getReadHoldCount(LeveledResource.BUCKET_LOCK, resourceName) == 1);
+            return "value";
+          }, resourceName));
+
+      // the reader has to wait for the writer
+      Thread.sleep(100);
+      assertFalse(reader.isDone());
+      release.countDown();
+      writer.get();
+
+      assertEquals("value", reader.get());
+      assertTrue(underReadLock.get());
+      assertEquals(0, lock.getOMLockMetrics().getOptimisticReads());
+      assertEquals(1, lock.getOMLockMetrics().getOptimisticReadFailures());
+    } finally {
+      lock.cleanup();
+    }
+  }
+
+  @Test
+  void testOptimisticReadRetriedAfterConcurrentWrite() {
+    OzoneManagerLock lock = newOptimisticLock();
+    try {
+      String[] resourceName = generateResourceName(LeveledResource.BUCKET_LOCK);
+      AtomicInteger attempts = new AtomicInteger();
+      String result = lock.readOptimistically(LeveledResource.BUCKET_LOCK, () -> {
+        if (attempts.incrementAndGet() == 1) {
+          // a writer modifies the resource in the middle of the read
+          CompletableFuture.runAsync(() -> {
+            lock.acquireWriteLock(LeveledResource.BUCKET_LOCK, resourceName);
+            lock.releaseWriteLock(LeveledResource.BUCKET_LOCK, resourceName);
+          }).join();
+          throw new IllegalStateException("inconsistent state");
+        }
+        return "value";
+      }, resourceName);
+
+      assertEquals("value", result);
+      assertEquals(2, attempts.get());
+      assertEquals(0, lock.getOMLockMetrics().getOptimisticReads());
+      assertEquals(1, lock.getOMLockMetrics().getOptimisticReadFailures());
+    } finally {
+      lock.cleanup();
+    }
+  }
+
+  @Test
+  void testOptimisticReadByWriteLockHolder() {
+    OzoneManagerLock lock = newOptimisticLock();
+    try {
+      String[] resourceName = generateResourceName(LeveledResource.BUCKET_LOCK);
+      lock.acquireWriteLock(LeveledResource.BUCKET_LOCK, resourceName);
+      assertEquals("value", lock.readOptimistically(LeveledResource.BUCKET_LOCK, () -> "value", resourceName));
+      lock.releaseWriteLock(LeveledResource.BUCKET_LOCK, resourceName);
+
+      // released write lock does not affect later optimistic reads
+      assertEquals("value", lock.readOptimistically(LeveledResource.BUCKET_LOCK, () -> "value", resourceName));
+      assertEquals(1, lock.getOMLockMetrics().getOptimisticReads());
+      assertEquals(1, lock.getOMLockMetrics().getOptimisticReadFailures());
+    } finally {
+      lock.cleanup();
+    }
+  }
 }
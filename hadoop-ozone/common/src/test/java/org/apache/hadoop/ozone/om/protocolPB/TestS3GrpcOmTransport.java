@@ -20,7 +20,9 @@
 import static org.apache.hadoop.ozone.ClientVersion.CURRENT_VERSION;
 import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_GRPC_MAXIMUM_RESPONSE_LENGTH;
 import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_GRPC_MAXIMUM_RESPONSE_LENGTH_DEFAULT;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.AdditionalAnswers.delegatesTo;
 import static org.mockito.Mockito.mock;
@@ -31,8 +33,11 @@
 import io.grpc.inprocess.InProcessServerBuilder;
 import io.grpc.testing.GrpcCleanupRule;
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import org.apache.hadoop.hdds.conf.OzoneConfiguration;
 import org.apache.hadoop.ozone.OzoneConfigKeys;
+import org.apache.hadoop.ozone.om.exceptions.OMException;
 import org.apache.hadoop.ozone.om.exceptions.OMNotLeaderException;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
@@ -66,6 +71,8 @@ public class TestS3GrpcOmTransport {
       .build();
 
   private boolean doFailover = false;
+  /** The thread the last request was submitted from. */
+  private volatile String requestThread;
 
   private OzoneConfiguration conf;
 
@@ -89,6 +96,7 @@ public void submitRequest(org.apache.hadoop.ozone.protocol.proto
                                               .OzoneManagerProtocolProtos
                                               .OMResponse>
                                               responseObserver) {
+                  requestThread = Thread.currentThread().getName();
                   try {
                     if (doFailover) {
                       doFailover = false;
@@ -188,6 +196,54 @@ public void testGrpcFailoverProxy() throws Exception {
     assertEquals(resp.getLeaderOMNodeId(), LEADER_OM_NODE_ID);
   }
 
+  @Test
+  public void testSubmitRequestAsync() throws Exception {
+    ServiceListRequest req = ServiceListRequest.newBuilder().build();
+
+    final OMRequest omRequest = OMRequest.newBuilder()
+        .setCmdType(Type.ServiceList)
+        .setVersion(CURRENT_VERSION)
+        .setClientId("test")
+        .setServiceListRequest(req)
+        .build();
+
+    client = new GrpcOmTransport(conf, ugi, omServiceId);
+    client.startClient(channel);
+
+    OMResponse resp = client.submitRequestAsync(omRequest).get();
+    assertEquals(LEADER_OM_NODE_ID, resp.getLeaderOMNodeId());
+
+    // failed request is retried after failover
+    doFailover = true;
+    resp = client.submitRequestAsync(omRequest).get();
+    assertEquals(LEADER_OM_NODE_ID, resp.getLeaderOMNodeId());
+    // by the retry executor, not the gRPC callback thread
+    assertThat(requestThread).startsWith("GrpcOmTransport-Retry-");
+  }
+
+  @Test
+  public void testSubmitRequestAsyncExhaustRetry() throws Exception {
+    ServiceListRequest req = ServiceListRequest.newBuilder().build();
+
+    final OMRequest omRequest = OMRequest.newBuilder()
+        .setCmdType(Type.ServiceList)
+        .setVersion(CURRENT_VERSION)
+        .setClientId("test")
+        .setServiceListRequest(req)
+        .build();
+
+    conf.setInt(OzoneConfigKeys.OZONE_CLIENT_FAILOVER_MAX_ATTEMPTS_KEY, 0);
+    client = new GrpcOmTransport(conf, ugi, omServiceId);
+    client.startClient(channel);
+
+    doFailover = true;
+    CompletableFuture<OMResponse> future =
+        client.submitRequestAsync(omRequest);
+    ExecutionException e = assertThrows(ExecutionException.class,
+        future::get);
+    assertInstanceOf(OMException.class, e.getCause());
+  }
+
   @Test
   public void testGrpcFailoverProxyExhaustRetry() throws Exception {
     ServiceListRequest req = ServiceListRequest.newBuilder().build();
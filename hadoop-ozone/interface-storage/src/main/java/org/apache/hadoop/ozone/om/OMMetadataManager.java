@@ -36,6 +36,7 @@
 import org.apache.hadoop.hdds.utils.db.cache.CacheValue;
 import org.apache.hadoop.ozone.common.BlockGroup;
 import org.apache.hadoop.ozone.om.helpers.BucketLayout;
+import org.apache.hadoop.ozone.om.helpers.ListKeysLightResult;
 import org.apache.hadoop.ozone.om.helpers.ListKeysResult;
 import org.apache.hadoop.ozone.om.helpers.ListOpenFilesResult;
 import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
@@ -280,6 +281,15 @@ ListKeysResult listKeys(String volumeName,
                           int maxKeys)
       throws IOException;
 
+  /**
+   * The same as {@link #listKeys(String, String, String, String, int)}
+   * but only returns the basic information of the keys, which is decoded
+   * from the DB without the other fields such as the block locations.
+   */
+  ListKeysLightResult listKeysLight(String volumeName,
+      String bucketName, String startKey, String keyPrefix, int maxKeys)
+      throws IOException;
+
   /**
    * Returns snapshot info for volume/bucket snapshot path.
    * @param volumeName volume name
@@ -467,6 +477,12 @@ String getMultipartKeyFSO(String volume, String bucket, String key, String
 
   Table<String, CompactionLogEntry> getCompactionLogTable();
 
+  /**
+   * Gets the table of blocks shared by more than one key.
+   * @return sharedBlockTable reference.
+   */
+  Table<String, Long> getSharedBlockTable();
+
   /**
    * Gets the OM Meta table.
    * @return meta table reference.
@@ -613,6 +629,15 @@ default String getOpenFileName(long volumeId, long bucketId, long parentObjectId
    */
   String getRenameKey(String volume, String bucket, long objectID);
 
+  /**
+   * Returns the DB key name of a block in the sharedBlockTable.
+   *
+   * @param containerID - ID of the container of the block
+   * @param localID - local ID of the block
+   * @return /containerID/localID
+   */
+  String getSharedBlockKey(long containerID, long localID);
+
   /**
    * Given renameKey, return the volume, bucket and objectID from the key.
    */
@@ -142,6 +142,7 @@
 import org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes;
 import org.apache.hadoop.ozone.om.helpers.BucketEncryptionKeyInfo;
 import org.apache.hadoop.ozone.om.helpers.BucketLayout;
+import org.apache.hadoop.ozone.om.helpers.ListKeysLightResult;
 import org.apache.hadoop.ozone.om.helpers.ListKeysResult;
 import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
 import org.apache.hadoop.ozone.om.helpers.OmDirectoryInfo;
@@ -511,26 +512,20 @@ private OmKeyInfo readKeyInfo(OmKeyArgs args, BucketLayout bucketLayout)
       throws IOException {
     String volumeName = args.getVolumeName();
     String bucketName = args.getBucketName();
-    String keyName = args.getKeyName();
-    OmKeyInfo value = null;
+    String keyName = OMClientRequest.validateAndNormalizeKey(
+        ozoneManager.getEnableFileSystemPaths(), args.getKeyName(),
+        bucketLayout);
+    OmKeyInfo value;
 
-    metadataManager.getLock().acquireReadLock(BUCKET_LOCK, volumeName,
-        bucketName);
     try {
-      keyName = OMClientRequest
-          .validateAndNormalizeKey(ozoneManager.getEnableFileSystemPaths(), keyName,
-              bucketLayout);
-
-      if (bucketLayout.isFileSystemOptimized()) {
-        value = getOmKeyInfoFSO(volumeName, bucketName, keyName);
-      } else {
-        value = getOmKeyInfo(volumeName, bucketName, keyName, bucketLayout);
-        if (value != null) {
-          // For Legacy & OBS buckets, any key is a file by default. This is to
-          // keep getKeyInfo compatible with OFS clients.
-          value.setFile(true);
-        }
-      }
+      value = metadataManager.getLock().readOptimistically(BUCKET_LOCK,
+          () -> {
+            if (bucketLayout.isFileSystemOptimized()) {
+              return getOmKeyInfoFSO(volumeName, bucketName, keyName);
+            }
+            return getOmKeyInfo(volumeName, bucketName, keyName,
+                bucketLayout);
+          }, volumeName, bucketName);
     } catch (IOException ex) {
       if (ex instanceof OMException) {
         throw ex;
@@ -539,9 +534,12 @@ private OmKeyInfo readKeyInfo(OmKeyArgs args, BucketLayout bucketLayout)
           format("Error reading key metadata: /%s/%s/%s",
               volumeName, bucketName, keyName),
           ex, INTERNAL_ERROR);
-    } finally {
-      metadataManager.getLock().releaseReadLock(BUCKET_LOCK, volumeName,
-          bucketName);
+    }
+
+    if (value != null && !bucketLayout.isFileSystemOptimized()) {
+      // For Legacy & OBS buckets, any key is a file by default. This is to
+      // keep getKeyInfo compatible with OFS clients.
+      value.setFile(true);
     }
 
     if (value == null) {
@@ -699,19 +697,7 @@ protected Map<Long, ContainerWithPipeline> refreshPipeline(
   public ListKeysResult listKeys(String volumeName, String bucketName,
       String startKey, String keyPrefix,
       int maxKeys) throws IOException {
-    Preconditions.checkNotNull(volumeName);
-    Preconditions.checkNotNull(bucketName);
-    OmBucketInfo omBucketInfo = getBucketInfo(volumeName, bucketName);
-    if (omBucketInfo == null) {
-      throw new OMException("Bucket " + bucketName + " not found.",
-          ResultCodes.BUCKET_NOT_FOUND);
-    }
-    BucketLayout bucketLayout = omBucketInfo.getBucketLayout();
-    // We don't take a lock in this path, since we walk the
-    // underlying table using an iterator. That automatically creates a
-    // snapshot of the data, so we don't need these locks at a higher level
-    // when we iterate.
-    if (bucketLayout.shouldNormalizePaths(ozoneManager.getEnableFileSystemPaths())) {
+    if (shouldNormalizeListKeys(volumeName, bucketName)) {
       startKey = OmUtils.normalizeKey(startKey, true);
       keyPrefix = OmUtils.normalizeKey(keyPrefix, true);
     }
@@ -729,6 +715,40 @@ public ListKeysResult listKeys(String volumeName, String bucketName,
     return listKeysResult;
   }
 
+  @Override
+  public ListKeysLightResult listKeysLight(String volumeName,
+      String bucketName, String startKey, String keyPrefix, int maxKeys)
+      throws IOException {
+    if (shouldNormalizeListKeys(volumeName, bucketName)) {
+      startKey = OmUtils.normalizeKey(startKey, true);
+      keyPrefix = OmUtils.normalizeKey(keyPrefix, true);
+    }
+    return metadataManager.listKeysLight(volumeName, bucketName, startKey,
+        keyPrefix, maxKeys);
+  }
+
+  /**
+   * @return true if the start key and the key prefix of listing the keys in
+   * the given bucket should be normalized.
+   */
+  private boolean shouldNormalizeListKeys(String volumeName,
+      String bucketName) throws IOException {
+    Preconditions.checkNotNull(volumeName);
+    Preconditions.checkNotNull(bucketName);
+    OmBucketInfo omBucketInfo = getBucketInfo(volumeName, bucketName);
+    if (omBucketInfo == null) {
+      throw new OMException("Bucket " + bucketName + " not found.",
+          ResultCodes.BUCKET_NOT_FOUND);
+    }
+    BucketLayout bucketLayout = omBucketInfo.getBucketLayout();
+    // We don't take a lock in this path, since we walk the
+    // underlying table using an iterator. That automatically creates a
+    // snapshot of the data, so we don't need these locks at a higher level
+    // when we iterate.
+    return bucketLayout.shouldNormalizePaths(
+        ozoneManager.getEnableFileSystemPaths());
+  }
+
   @Override
   public PendingKeysDeletion getPendingDeletionKeys(
       final CheckedFunction<KeyValue<String, OmKeyInfo>, Boolean, IOException> filter, final int count,
@@ -58,6 +58,8 @@
 import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.apache.commons.lang3.StringUtils;
@@ -85,7 +87,9 @@
 import org.apache.hadoop.ozone.om.codec.OMDBDefinition;
 import org.apache.hadoop.ozone.om.exceptions.OMException;
 import org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes;
+import org.apache.hadoop.ozone.om.helpers.BasicOmKeyInfo;
 import org.apache.hadoop.ozone.om.helpers.BucketLayout;
+import org.apache.hadoop.ozone.om.helpers.ListKeysLightResult;
 import org.apache.hadoop.ozone.om.helpers.ListKeysResult;
 import org.apache.hadoop.ozone.om.helpers.ListOpenFilesResult;
 import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
@@ -140,6 +144,8 @@ public class OmMetadataManagerImpl implements OMMetadataManager,
   private TypedTable<String, OmVolumeArgs> volumeTable;
   private TypedTable<String, OmBucketInfo> bucketTable;
   private TypedTable<String, OmKeyInfo> keyTable;
+  /** The keyTable decoding only the fields of {@link BasicOmKeyInfo}. */
+  private TypedTable<String, BasicOmKeyInfo> basicKeyTable;
 
   private TypedTable<String, OmKeyInfo> openKeyTable;
   private TypedTable<String, OmMultipartKeyInfo> multipartInfoTable;
@@ -164,6 +170,7 @@ public class OmMetadataManagerImpl implements OMMetadataManager,
   private TypedTable<String, SnapshotInfo> snapshotInfoTable;
   private TypedTable<String, String> snapshotRenamedTable;
   private TypedTable<String, CompactionLogEntry> compactionLogTable;
+  private TypedTable<String, Long> sharedBlockTable;
 
   private OzoneManager ozoneManager;
 
@@ -445,6 +452,8 @@ protected void initializeOmTables(CacheType cacheType,
     volumeTable = initializer.get(OMDBDefinition.VOLUME_TABLE_DEF, cacheType);
     bucketTable = initializer.get(OMDBDefinition.BUCKET_TABLE_DEF, cacheType);
     keyTable = initializer.get(OMDBDefinition.KEY_TABLE_DEF);
+    basicKeyTable = keyTable.withValueCodec(
+        BasicOmKeyInfo.getKeyInfoProjectionCodec());
 
     openKeyTable = initializer.get(OMDBDefinition.OPEN_KEY_TABLE_DEF);
     multipartInfoTable = initializer.get(OMDBDefinition.MULTIPART_INFO_TABLE_DEF);
@@ -482,6 +491,9 @@ protected void initializeOmTables(CacheType cacheType,
     // TODO: [SNAPSHOT] Initialize table lock for snapshotRenamedTable.
 
     compactionLogTable = initializer.get(OMDBDefinition.COMPACTION_LOG_TABLE_DEF);
+
+    // /containerID/localID -> number of additional keys referring to the block
+    sharedBlockTable = initializer.get(OMDBDefinition.SHARED_BLOCK_TABLE_DEF);
   }
 
   /**
@@ -987,10 +999,38 @@ public ListOpenFilesResult listOpenFiles(BucketLayout bucketLayout,
   public ListKeysResult listKeys(String volumeName, String bucketName,
                                  String startKey, String keyPrefix, int maxKeys)
       throws IOException {
+    return listKeys(volumeName, bucketName, startKey, keyPrefix, maxKeys,
+        getKeyTable(getBucketLayout()), Function.identity(),
+        ListKeysResult::new);
+  }
+
+  @Override
+  public ListKeysLightResult listKeysLight(String volumeName,
+      String bucketName, String startKey, String keyPrefix, int maxKeys)
+      throws IOException {
+    // Decode only the fields required by BasicOmKeyInfo from the DB,
+    // instead of the full OmKeyInfo including the block locations.
+    return listKeys(volumeName, bucketName, startKey, keyPrefix, maxKeys,
+        basicKeyTable, BasicOmKeyInfo::fromOmKeyInfo,
+        ListKeysLightResult::new);
+  }
+
+  /**
+   * List the keys from the cache and the given table of the DB.
+   *
+   * @param dbTable the table to read the keys from the DB.
+   * @param fromCache convert the keys in the cache to the result type.
+   * @param newResult create the result from the keys and isTruncated.
+   */
+  @SuppressWarnings("checkstyle:ParameterNumber")
+  private <T, R> R listKeys(String volumeName, String bucketName,
+      String startKey, String keyPrefix, int maxKeys,
+      Table<String, T> dbTable, Function<OmKeyInfo, T> fromCache,
+      BiFunction<List<T>, Boolean, R> newResult) throws IOException {
     long startNanos = Time.monotonicNowNanos();
-    List<OmKeyInfo> result = new ArrayList<>();
+    List<T> result = new ArrayList<>();
     if (maxKeys <= 0) {
-      return new ListKeysResult(result, false);
+      return newResult.apply(result, false);
     }
 
     if (Strings.isNullOrEmpty(volumeName)) {
@@ -1030,7 +1070,7 @@ public ListKeysResult listKeys(String volumeName, String bucketName,
     int currentCount = 0;
 
 
-    TreeMap<String, OmKeyInfo> cacheKeyMap = new TreeMap<>();
+    TreeMap<String, T> cacheKeyMap = new TreeMap<>();
     Iterator<Map.Entry<CacheKey<String>, CacheValue<OmKeyInfo>>> iterator =
         keyTable.cacheIterator();
 
@@ -1053,15 +1093,15 @@ public ListKeysResult listKeys(String volumeName, String bucketName,
       if (omKeyInfo != null
           && key.startsWith(seekPrefix)
           && key.compareTo(seekKey) >= 0) {
-        cacheKeyMap.put(key, omKeyInfo);
+        cacheKeyMap.put(key, fromCache.apply(omKeyInfo));
       }
     }
     long readFromRDbStartNs, readFromRDbStopNs = 0;
     // Get maxKeys from DB if it has.
-    try (TableIterator<String, ? extends KeyValue<String, OmKeyInfo>>
-             keyIter = getKeyTable(getBucketLayout()).iterator()) {
+    try (TableIterator<String, ? extends KeyValue<String, T>>
+             keyIter = dbTable.iterator()) {
       readFromRDbStartNs = Time.monotonicNowNanos();
-      KeyValue< String, OmKeyInfo > kv;
+      KeyValue<String, T> kv;
       keyIter.seek(seekKey);
       // we need to iterate maxKeys + 1 here because if skipStartKey is true,
       // we should skip that entry and return the result.
@@ -1105,7 +1145,7 @@ public ListKeysResult listKeys(String volumeName, String bucketName,
     // of maxKeys from the sorted map.
     currentCount = 0;
 
-    for (Map.Entry<String, OmKeyInfo>  cacheKey : cacheKeyMap.entrySet()) {
+    for (Map.Entry<String, T> cacheKey : cacheKeyMap.entrySet()) {
       if (cacheKey.getKey().equals(seekKey) && skipStartKey) {
         continue;
       }
@@ -1121,7 +1161,7 @@ public ListKeysResult listKeys(String volumeName, String bucketName,
     // Clear map and set.
     cacheKeyMap.clear();
 
-    return new ListKeysResult(result, isTruncated);
+    return newResult.apply(result, isTruncated);
   }
 
   @Override
@@ -1638,6 +1678,11 @@ public Table<String, CompactionLogEntry> getCompactionLogTable() {
     return compactionLogTable;
   }
 
+  @Override
+  public Table<String, Long> getSharedBlockTable() {
+    return sharedBlockTable;
+  }
+
   /**
    * Get Snapshot Chain Manager.
    *
@@ -1715,6 +1760,11 @@ public String getOpenFileName(long volumeId, long bucketId,
     return openKey.toString();
   }
 
+  @Override
+  public String getSharedBlockKey(long containerID, long localID) {
+    return OM_KEY_PREFIX + containerID + OM_KEY_PREFIX + localID;
+  }
+
   @Override
   public String getRenameKey(String volumeName, String bucketName,
                              long objectID) {
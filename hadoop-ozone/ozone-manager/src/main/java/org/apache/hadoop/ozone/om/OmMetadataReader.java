@@ -44,7 +44,6 @@
 import org.apache.hadoop.ozone.audit.Auditor;
 import org.apache.hadoop.ozone.audit.OMAction;
 import org.apache.hadoop.ozone.om.exceptions.OMException;
-import org.apache.hadoop.ozone.om.helpers.BasicOmKeyInfo;
 import org.apache.hadoop.ozone.om.helpers.KeyInfoWithVolumeContext;
 import org.apache.hadoop.ozone.om.helpers.ListKeysLightResult;
 import org.apache.hadoop.ozone.om.helpers.ListKeysResult;
@@ -324,6 +323,20 @@ public OmKeyInfo lookupFile(OmKeyArgs args) throws IOException {
   @Override
   public ListKeysResult listKeys(String volumeName, String bucketName,
       String startKey, String keyPrefix, int maxKeys) throws IOException {
+    return listKeys(volumeName, bucketName, startKey, keyPrefix, maxKeys,
+        keyManager::listKeys);
+  }
+
+  /** List the keys of a bucket. */
+  @FunctionalInterface
+  private interface KeyLister<R> {
+    R list(String volumeName, String bucketName, String startKey,
+        String keyPrefix, int maxKeys) throws IOException;
+  }
+
+  private <R> R listKeys(String volumeName, String bucketName,
+      String startKey, String keyPrefix, int maxKeys, KeyLister<R> lister)
+      throws IOException {
     long startNanos = Time.monotonicNowNanos();
     ResolvedBucket bucket = captureLatencyNs(
         perfMetrics.getListKeysResolveBucketLatencyNs(),
@@ -344,7 +357,7 @@ public ListKeysResult listKeys(String volumeName, String bucketName,
         );
       }
       metrics.incNumKeyLists();
-      return keyManager.listKeys(bucket.realVolume(), bucket.realBucket(),
+      return lister.list(bucket.realVolume(), bucket.realBucket(),
           startKey, keyPrefix, maxKeys);
     } catch (IOException ex) {
       metrics.incNumKeyListFails();
@@ -366,14 +379,8 @@ public ListKeysLightResult listKeysLight(String volumeName,
                                             String bucketName,
                                             String startKey, String keyPrefix,
                                             int maxKeys) throws IOException {
-    ListKeysResult listKeysResult =
-        listKeys(volumeName, bucketName, startKey, keyPrefix, maxKeys);
-    List<OmKeyInfo> keys = listKeysResult.getKeys();
-    List<BasicOmKeyInfo> basicKeysList =
-        keys.stream().map(BasicOmKeyInfo::fromOmKeyInfo)
-            .collect(Collectors.toList());
-
-    return new ListKeysLightResult(basicKeysList, listKeysResult.isTruncated());
+    return listKeys(volumeName, bucketName, startKey, keyPrefix, maxKeys,
+        keyManager::listKeysLight);
   }
 
   /**
@@ -240,7 +240,6 @@
 import org.apache.hadoop.ozone.om.execution.OMExecutionFlow;
 import org.apache.hadoop.ozone.om.ha.OMHAMetrics;
 import org.apache.hadoop.ozone.om.ha.OMHANodeDetails;
-import org.apache.hadoop.ozone.om.helpers.BasicOmKeyInfo;
 import org.apache.hadoop.ozone.om.helpers.BucketLayout;
 import org.apache.hadoop.ozone.om.helpers.DBUpdates;
 import org.apache.hadoop.ozone.om.helpers.KeyInfoWithVolumeContext;
@@ -3075,14 +3074,11 @@ public ListKeysLightResult listKeysLight(String volumeName,
                                            String bucketName,
                                            String startKey, String keyPrefix,
                                            int maxKeys) throws IOException {
-    ListKeysResult listKeysResult =
-        listKeys(volumeName, bucketName, startKey, keyPrefix, maxKeys);
-    List<OmKeyInfo> keys = listKeysResult.getKeys();
-    List<BasicOmKeyInfo> basicKeysList =
-        keys.stream().map(BasicOmKeyInfo::fromOmKeyInfo)
-            .collect(Collectors.toList());
-
-    return new ListKeysLightResult(basicKeysList, listKeysResult.isTruncated());
+    try (UncheckedAutoCloseableSupplier<IOmMetadataReader> rcReader =
+             getReader(volumeName, bucketName, keyPrefix)) {
+      return rcReader.get().listKeysLight(
+          volumeName, bucketName, startKey, keyPrefix, maxKeys);
+    }
   }
 
   @Override
@@ -3225,6 +3221,18 @@ public List<List<String>> getRatisRoles() {
     return OmUtils.format(serviceList, port, leaderId.toString(), leaderReadiness);
   }
 
+  /**
+   * Discard the blocks allocated in advance, called when the leader changes.
+   * A new leader starts with an empty pool, and a former leader does not
+   * allocate blocks any more.
+   */
+  public void clearBlockPool() {
+    ScmBlockPool blockPool = scmClient.getBlockPool();
+    if (blockPool != null) {
+      blockPool.clear();
+    }
+  }
+
   /**
    * Create OMHAMetrics instance.
    */
@@ -0,0 +1,299 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import org.apache.hadoop.hdds.client.ReplicationConfig;
+import org.apache.hadoop.hdds.protocol.DatanodeDetails;
+import org.apache.hadoop.hdds.scm.container.ContainerID;
+import org.apache.hadoop.hdds.scm.container.common.helpers.AllocatedBlock;
+import org.apache.hadoop.hdds.scm.container.common.helpers.ExcludeList;
+import org.apache.hadoop.hdds.scm.pipeline.Pipeline;
+import org.apache.hadoop.hdds.scm.protocol.ScmBlockLocationProtocol;
+import org.apache.hadoop.util.Time;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pool of blocks allocated from SCM in advance, so that most key creation and
+ * block allocation requests can be served without a round trip to SCM.
+ * <p>
+ * There is a pool for each replication config. A pool running low is
+ * refilled in the background with a single allocateBlock call for the
+ * missing blocks. Pooled blocks are discarded when they have been in the pool
+ * for longer than the lease timeout, when a client reports their pipeline,
+ * container or datanodes in an exclude list, and when the OM leader changes.
+ */
+public class ScmBlockPool implements Closeable {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(ScmBlockPool.class);
+
+  private final ScmBlockLocationProtocol blockClient;
+  private final int poolSize;
+  private final long leaseTimeoutMillis;
+  private final Map<ReplicationConfig, Pool> pools = new ConcurrentHashMap<>();
+  private final ExecutorService refillExecutor;
+  private final ScmBlockPoolMetrics metrics;
+
+  ScmBlockPool(ScmBlockLocationProtocol blockClient, int poolSize,
+      long leaseTimeoutMillis) {
+    this.blockClient = blockClient;
+    this.poolSize = poolSize;
+    this.leaseTimeoutMillis = leaseTimeoutMillis;
+    this.refillExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(), new ThreadFactoryBuilder()
+            .setNameFormat("OMBlockPoolRefill-%d").setDaemon(true).build());
+    this.metrics = ScmBlockPoolMetrics.create();
+  }
+
+  /**
+   * Same as {@link ScmBlockLocationProtocol#allocateBlock(long, int,
+   * ReplicationConfig, String, ExcludeList, String)}, but serves the blocks
+   * from the pool when possible.  Only the blocks missing from the pool are
+   * allocated by calling SCM.
+   */
+  public List<AllocatedBlock> allocateBlock(long size, int numBlocks,
+      ReplicationConfig replicationConfig, String owner,
+      ExcludeList excludeList, String clientMachine) throws IOException {
+    if (!excludeList.isEmpty()) {
+      // Do not hand out blocks the client just failed to write to.
+      exclude(excludeList);
+    }
+    Pool pool = pools.computeIfAbsent(replicationConfig, Pool::new);
+    List<AllocatedBlock> blocks =
+        pool.take(size, owner, numBlocks, Time.monotonicNow());
+    metrics.incrNumPoolHits(blocks.size());
+    if (pool.startRefill()) {
+      try {
+        refillExecutor.execute(() -> refill(pool));
+      } catch (RejectedExecutionException e) {
+        pool.refillDone();
+      }
+    }
+
+    if (blocks.size() < numBlocks) {
+      metrics.incrNumPoolMisses(numBlocks - blocks.size());
+      blocks.addAll(blockClient.allocateBlock(size, numBlocks - blocks.size(),
+          replicationConfig, owner, excludeList, clientMachine));
+    }
+    return blocks;
+  }
+
+  /**
+   * Discard the pooled blocks on the pipelines, containers or datanodes in
+   * the given exclude list.
+   */
+  public void exclude(ExcludeList excludeList) {
+    for (Pool pool : pools.values()) {
+      pool.discardIf(block -> isExcluded(block, excludeList));
+    }
+  }
+
+  /**
+   * Discard all the pooled blocks, including those being allocated at the
+   * moment.
+   */
+  public void clear() {
+    for (Pool pool : pools.values()) {
+      pool.discardIf(block -> true);
+    }
+  }
+
+  @VisibleForTesting
+  int getPooledBlockCount(ReplicationConfig replicationConfig) {
+    Pool pool = pools.get(replicationConfig);
+    return pool == null ? 0 : pool.size();
+  }
+
+  @VisibleForTesting
+  ScmBlockPoolMetrics getMetrics() {
+    return metrics;
+  }
+
+  @Override
+  public void close() {
+    refillExecutor.shutdownNow();
+    clear();
+    metrics.unregister();
+  }
+
+  private static boolean isExcluded(AllocatedBlock block,
+      ExcludeList excludeList) {
+    Pipeline pipeline = block.getPipeline();
+    if (excludeList.getPipelineIds().contains(pipeline.getId())
+        || excludeList.getContainerIds().contains(
+            ContainerID.valueOf(block.getBlockID().getContainerID()))) {
+      return true;
+    }
+    for (DatanodeDetails dn : pipeline.getNodes()) {
+      if (excludeList.getDatanodes().contains(dn)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void refill(Pool pool) {
+    try {
+      RefillRequest request = pool.newRefillRequest(poolSize);
+      if (request == null) {
+        return;
+      }
+      long start = Time.monotonicNowNanos();
+      List<AllocatedBlock> allocated = blockClient.allocateBlock(
+          request.size, request.count, pool.replicationConfig, request.owner,
+          new ExcludeList(), "");
+      metrics.addRefillLatencyNs(Time.monotonicNowNanos() - start);
+      pool.add(request, allocated, Time.monotonicNow());
+    } catch (IOException | RuntimeException e) {
+      metrics.incrNumRefillFailures();
+      LOG.debug("Failed to refill the block pool for {}",
+          pool.replicationConfig, e);
+    } finally {
+      pool.refillDone();
+    }
+  }
+
+  /**
+   * Parameters of a refill, captured under the pool lock.
+   */
+  private static final class RefillRequest {
+    private final long generation;
+    private final long size;
+    private final String owner;
+    private final int count;
+
+    RefillRequest(long generation, long size, String owner, int count) {
+      this.generation = generation;
+      this.size = size;
+      this.owner = owner;
+      this.count = count;
+    }
+  }
+
+  /**
+   * Blocks of one replication config, oldest first.
+   */
+  private final class Pool {
+    private final ReplicationConfig replicationConfig;
+    private final Deque<AllocatedBlock> blocks = new ArrayDeque<>();
+    private final Deque<Long> leaseTimes = new ArrayDeque<>();
+    private long blockSize;
+    private String owner;
+    private boolean refilling;
+    /** Changed whenever the pooled blocks are discarded. */
+    private long generation;
+
+    Pool(ReplicationConfig replicationConfig) {
+      this.replicationConfig = replicationConfig;
+    }
+
+    synchronized List<AllocatedBlock> take(long size, String requestOwner,
+        int numBlocks, long now) {
+      if (size != blockSize || !Objects.equals(requestOwner, owner)) {
+        // all the requests use the same values, unless OM is reconfigured
+        discardIf(block -> true);
+        blockSize = size;
+        owner = requestOwner;
+      }
+      List<AllocatedBlock> result = new ArrayList<>(numBlocks);
+      while (result.size() < numBlocks && !blocks.isEmpty()) {
+        AllocatedBlock block = blocks.poll();
+        if (now - leaseTimes.poll() > leaseTimeoutMillis) {
+          metrics.incrNumBlocksDiscarded(1);
+        } else {
+          result.add(block);
+        }
+      }
+      return result;
+    }
+
+    synchronized int size() {
+      return blocks.size();
+    }
+
+    /**
+     * @return true if the caller should schedule a refill.
+     */
+    synchronized boolean startRefill() {
+      if (refilling || blocks.size() > poolSize / 2) {
+        return false;
+      }
+      refilling = true;
+      return true;
+    }
+
+    synchronized void refillDone() {
+      refilling = false;
+    }
+
+    synchronized RefillRequest newRefillRequest(int targetSize) {
+      int count = targetSize - blocks.size();
+      return count > 0 && owner != null
+          ? new RefillRequest(generation, blockSize, owner, count) : null;
+    }
+
+    synchronized void add(RefillRequest request, List<AllocatedBlock> allocated,
+        long now) {
+      if (request.generation != generation) {
+        // The pool was cleared while the blocks were being allocated.
+        metrics.incrNumBlocksDiscarded(allocated.size());
+        return;
+      }
+      for (AllocatedBlock block : allocated) {
+        blocks.add(block);
+        leaseTimes.add(now);
+      }
+    }
+
+    synchronized void discardIf(Predicate<AllocatedBlock> predicate) {
+      generation++;
+      Iterator<AllocatedBlock> blockIt = blocks.iterator();
+      Iterator<Long> leaseIt = leaseTimes.iterator();
+      int discarded = 0;
+      while (blockIt.hasNext()) {
+        AllocatedBlock block = blockIt.next();
+        leaseIt.next();
+        if (predicate.test(block)) {
+          blockIt.remove();
+          leaseIt.remove();
+          discarded++;
+        }
+      }
+      metrics.incrNumBlocksDiscarded(discarded);
+    }
+  }
+}
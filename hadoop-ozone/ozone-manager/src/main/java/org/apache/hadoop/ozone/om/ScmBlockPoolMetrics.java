@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om;
+
+import org.apache.hadoop.metrics2.MetricsSystem;
+import org.apache.hadoop.metrics2.annotation.Metric;
+import org.apache.hadoop.metrics2.annotation.Metrics;
+import org.apache.hadoop.metrics2.lib.DefaultMetricsSystem;
+import org.apache.hadoop.metrics2.lib.MetricsRegistry;
+import org.apache.hadoop.metrics2.lib.MutableCounterLong;
+import org.apache.hadoop.metrics2.lib.MutableRate;
+import org.apache.hadoop.ozone.OzoneConsts;
+
+/**
+ * Metrics of the pool of blocks allocated in advance by {@link ScmBlockPool}.
+ */
+@Metrics(about = "OM Block Pool Metrics", context = OzoneConsts.OZONE)
+public final class ScmBlockPoolMetrics {
+
+  public static final String METRICS_SOURCE_NAME =
+      ScmBlockPoolMetrics.class.getSimpleName();
+  private final MetricsRegistry registry;
+
+  @Metric("Number of blocks served from the pool")
+  private MutableCounterLong numPoolHits;
+  @Metric("Number of blocks which had to be allocated from SCM synchronously")
+  private MutableCounterLong numPoolMisses;
+  @Metric("Number of pooled blocks discarded due to lease expiry, excluded "
+      + "pipelines or leader change")
+  private MutableCounterLong numBlocksDiscarded;
+  @Metric("Number of failed pool refills")
+  private MutableCounterLong numRefillFailures;
+  @Metric("Latency of pool refills from SCM in nanoseconds")
+  private MutableRate refillLatencyNs;
+
+  private ScmBlockPoolMetrics() {
+    this.registry = new MetricsRegistry(METRICS_SOURCE_NAME);
+  }
+
+  public static ScmBlockPoolMetrics create() {
+    MetricsSystem ms = DefaultMetricsSystem.instance();
+    // unregister, in case several OMs run in the same JVM
+    ms.unregisterSource(METRICS_SOURCE_NAME);
+    return ms.register(METRICS_SOURCE_NAME,
+        "Metrics of the blocks allocated in advance by OM",
+        new ScmBlockPoolMetrics());
+  }
+
+  public void unregister() {
+    DefaultMetricsSystem.instance().unregisterSource(METRICS_SOURCE_NAME);
+  }
+
+  public void incrNumPoolHits(long hits) {
+    numPoolHits.incr(hits);
+  }
+
+  public void incrNumPoolMisses(long misses) {
+    numPoolMisses.incr(misses);
+  }
+
+  public void incrNumBlocksDiscarded(long discarded) {
+    numBlocksDiscarded.incr(discarded);
+  }
+
+  public void incrNumRefillFailures() {
+    numRefillFailures.incr();
+  }
+
+  public void addRefillLatencyNs(long latencyNs) {
+    refillLatencyNs.add(latencyNs);
+  }
+
+  public long getNumPoolHits() {
+    return numPoolHits.value();
+  }
+
+  public long getNumPoolMisses() {
+    return numPoolMisses.value();
+  }
+
+  public long getNumBlocksDiscarded() {
+    return numBlocksDiscarded.value();
+  }
+
+  public long getNumRefillFailures() {
+    return numRefillFailures.value();
+  }
+}
@@ -17,6 +17,10 @@
 
 package org.apache.hadoop.ozone.om;
 
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_BLOCK_POOL_LEASE_TIMEOUT;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_BLOCK_POOL_LEASE_TIMEOUT_DEFAULT;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_BLOCK_POOL_SIZE;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_BLOCK_POOL_SIZE_DEFAULT;
 import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_CONTAINER_LOCATION_CACHE_SIZE;
 import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_CONTAINER_LOCATION_CACHE_SIZE_DEFAULT;
 import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_CONTAINER_LOCATION_CACHE_TTL;
@@ -52,6 +56,7 @@ public class ScmClient {
   private final StorageContainerLocationProtocol containerClient;
   private final LoadingCache<Long, Pipeline> containerLocationCache;
   private final CacheMetrics containerCacheMetrics;
+  private final ScmBlockPool blockPool;
 
   ScmClient(ScmBlockLocationProtocol blockClient,
             StorageContainerLocationProtocol containerClient,
@@ -62,6 +67,21 @@ public class ScmClient {
         createContainerLocationCache(configuration, containerClient);
     this.containerCacheMetrics = CacheMetrics.create(containerLocationCache,
         "ContainerInfo");
+    this.blockPool = createBlockPool(configuration, blockClient);
+  }
+
+  static ScmBlockPool createBlockPool(OzoneConfiguration configuration,
+      ScmBlockLocationProtocol blockClient) {
+    int poolSize = configuration.getInt(OZONE_OM_BLOCK_POOL_SIZE,
+        OZONE_OM_BLOCK_POOL_SIZE_DEFAULT);
+    if (poolSize <= 0) {
+      return null;
+    }
+    TimeUnit unit = OZONE_OM_BLOCK_POOL_LEASE_TIMEOUT_DEFAULT.getUnit();
+    long leaseTimeout = configuration.getTimeDuration(
+        OZONE_OM_BLOCK_POOL_LEASE_TIMEOUT,
+        OZONE_OM_BLOCK_POOL_LEASE_TIMEOUT_DEFAULT.getDuration(), unit);
+    return new ScmBlockPool(blockClient, poolSize, unit.toMillis(leaseTimeout));
   }
 
   static LoadingCache<Long, Pipeline> createContainerLocationCache(
@@ -106,6 +126,13 @@ public StorageContainerLocationProtocol getContainerClient() {
     return this.containerClient;
   }
 
+  /**
+   * @return the pool of blocks allocated in advance, or null if disabled.
+   */
+  public ScmBlockPool getBlockPool() {
+    return blockPool;
+  }
+
   public Map<Long, Pipeline> getContainerLocations(Iterable<Long> containerIds,
                                                   boolean forceRefresh)
       throws IOException {
@@ -166,6 +193,9 @@ private <T> T handleCacheExecutionException(ExecutionException e)
 
   public void close() {
     containerCacheMetrics.unregister();
+    if (blockPool != null) {
+      blockPool.close();
+    }
   }
 
 }
@@ -94,6 +94,17 @@
  *
  * <pre>
  * {@code
+ * Block Tables:
+ * |-----------------------------------------------------------------------|
+ * |        Column Family |                           Mapping              |
+ * |-----------------------------------------------------------------------|
+ * |     sharedBlockTable | /containerID/localID        :- refCount        |
+ * |-----------------------------------------------------------------------|
+ * }
+ * </pre>
+ *
+ * <pre>
+ * {@code
  * File System Optimized (FSO) Tables:
  * |-----------------------------------------------------------------------------------|
  * |          Column Family |                                            Mapping       |
@@ -228,6 +239,21 @@ public final class OMDBDefinition extends DBDefinition.WithMap {
           StringCodec.get(),
           OmMultipartKeyInfo.getCodec());
 
+  //---------------------------------------------------------------------------
+  // Block Tables:
+  public static final String SHARED_BLOCK_TABLE = "sharedBlockTable";
+  /**
+   * sharedBlockTable: /containerID/localID :- refCount.
+   * <p>
+   * Number of keys referring to a block in addition to the key which has
+   * originally written it, for blocks shared by copying a key.
+   * A block without an entry is referred to by a single key.
+   */
+  public static final DBColumnFamilyDefinition<String, Long> SHARED_BLOCK_TABLE_DEF
+      = new DBColumnFamilyDefinition<>(SHARED_BLOCK_TABLE,
+          StringCodec.get(),
+          LongCodec.get());
+
   //---------------------------------------------------------------------------
   // File System Optimized (FSO) Tables:
   public static final String FILE_TABLE = "fileTable";
@@ -332,6 +358,7 @@ public final class OMDBDefinition extends DBDefinition.WithMap {
           PREFIX_TABLE_DEF,
           PRINCIPAL_TO_ACCESS_IDS_TABLE_DEF,
           S3_SECRET_TABLE_DEF,
+          SHARED_BLOCK_TABLE_DEF,
           SNAPSHOT_INFO_TABLE_DEF,
           SNAPSHOT_RENAMED_TABLE_DEF,
           COMPACTION_LOG_TABLE_DEF,
@@ -24,10 +24,13 @@
 import org.apache.hadoop.ozone.om.OMPerformanceMetrics;
 import org.apache.hadoop.ozone.om.OzoneManager;
 import org.apache.hadoop.ozone.om.helpers.OMAuditLogger;
+import org.apache.hadoop.ozone.om.ratis.OzoneManagerRatisServer;
 import org.apache.hadoop.ozone.om.ratis.utils.OzoneManagerRatisUtils;
 import org.apache.hadoop.ozone.om.request.OMClientRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
+import org.apache.ratis.protocol.ClientInvocationId;
+import org.apache.ratis.util.function.CheckedFunction;
 
 /**
  * entry for execution flow for write request.
@@ -50,11 +53,22 @@ public OMExecutionFlow(OzoneManager om) {
    * @throws ServiceException the exception on execution
    */
   public OMResponse submit(OMRequest omRequest) throws ServiceException {
-    // TODO: currently have only execution after ratis submission, but with new flow can have switch later
+    final OzoneManagerRatisServer ratisServer = ozoneManager.getOmRatisServer();
+    final OMLeaderExecutor leaderExecutor = ratisServer == null ? null : ratisServer.getLeaderExecutor();
+    if (leaderExecutor != null && leaderExecutor.isSupported(omRequest)) {
+      // execute on the leader, and replicate the DB changes only
+      final ClientInvocationId invocationId = ratisServer.getClientInvocationId();
+      return preExecuteAndSubmit(omRequest, request -> leaderExecutor.submit(request, invocationId));
+    }
     return submitExecutionToRatis(omRequest);
   }
 
   private OMResponse submitExecutionToRatis(OMRequest request) throws ServiceException {
+    return preExecuteAndSubmit(request, r -> ozoneManager.getOmRatisServer().submitRequest(r));
+  }
+
+  private OMResponse preExecuteAndSubmit(OMRequest request,
+      CheckedFunction<OMRequest, OMResponse, ServiceException> submitter) throws ServiceException {
     // 1. create client request and preExecute
     OMClientRequest omClientRequest = null;
     final OMRequest requestToSubmit;
@@ -72,8 +86,8 @@ private OMResponse submitExecutionToRatis(OMRequest request) throws ServiceExcep
       return OzoneManagerRatisUtils.createErrorResponse(request, ex);
     }
 
-    // 2. submit request to ratis
-    OMResponse response = ozoneManager.getOmRatisServer().submitRequest(requestToSubmit);
+    // 2. submit request to ratis, or execute it on the leader
+    OMResponse response = submitter.apply(requestToSubmit);
     if (!response.getSuccess()) {
       omClientRequest.handleRequestFailure(ozoneManager);
     }
@@ -0,0 +1,450 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.execution;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.protobuf.ServiceException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.apache.hadoop.hdds.utils.db.RecordingBatchOperation;
+import org.apache.hadoop.ozone.om.OzoneManager;
+import org.apache.hadoop.ozone.om.exceptions.OMLeaderNotReadyException;
+import org.apache.hadoop.ozone.om.exceptions.OMNotLeaderException;
+import org.apache.hadoop.ozone.om.execution.flowcontrol.ExecutionContext;
+import org.apache.hadoop.ozone.om.lock.OMLockDetails;
+import org.apache.hadoop.ozone.om.ratis.OzoneManagerRatisServer;
+import org.apache.hadoop.ozone.om.ratis.utils.OzoneManagerRatisUtils;
+import org.apache.hadoop.ozone.om.request.util.OMPersistDbRequest;
+import org.apache.hadoop.ozone.om.response.OMClientResponse;
+import org.apache.hadoop.ozone.om.upgrade.OMLayoutFeature;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.PersistDbRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Status;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Type;
+import org.apache.ratis.protocol.ClientInvocationId;
+import org.apache.ratis.protocol.RaftClientReply;
+import org.apache.ratis.server.RaftServer;
+import org.apache.ratis.server.RetryCache;
+import org.apache.ratis.server.protocol.TermIndex;
+import org.apache.ratis.util.ExitUtils;
+import org.apache.ratis.util.IOUtils;
+import org.apache.ratis.util.function.CheckedSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executes write requests on the leader OM, and replicates only the resulting
+ * DB changes through Ratis as a PersistDb request, which the followers apply
+ * without executing the request again, see {@link OMPersistDbRequest}.
+ * <p>
+ * The requests executed on the leader and all the other requests are
+ * submitted to Ratis one at a time, in the order they arrive, so that the
+ * order of the log is the execution order:
+ * <ul>
+ *   <li>A request is executed only after all the requests submitted to Ratis
+ *   before it have been applied, so that the cache reflects them.</li>
+ *   <li>A request is executed with an index larger than the index of any
+ *   request applied or executed before, and at most the log index of its
+ *   PersistDb request. So no other request uses the same index, and it can be
+ *   used for object IDs and as the cache epoch, on all OMs.</li>
+ * </ul>
+ * No thread waits for Ratis; each step runs on the executor thread once the
+ * futures it depends on are complete.
+ * <p>
+ * The cache of the leader is updated before the changes are committed. If
+ * the changes fail to replicate, e.g. due to a leader change, the client gets
+ * an {@link OMNotLeaderException}, and no more requests are executed until
+ * the changes are either applied, or dropped from the log by a new leader.
+ * In the latter case, the cache entries of the changes are restored from the
+ * DB before a transaction of the new term is applied.
+ */
+public final class OMLeaderExecutor {
+  private static final Logger LOG =
+      LoggerFactory.getLogger(OMLeaderExecutor.class);
+
+  /**
+   * The requests executed on the leader. Their responses must only write to
+   * the DB batch, without reading the DB.
+   */
+  private static final Set<Type> SUPPORTED_TYPES = EnumSet.of(
+      Type.CreateKey,
+      Type.CreateFile,
+      Type.CreateDirectory,
+      Type.AllocateBlock,
+      Type.CommitKey,
+      Type.DeleteKey,
+      Type.SetTimes,
+      Type.InitiateMultiPartUpload,
+      Type.CommitMultiPartUpload,
+      Type.AbortMultiPartUpload,
+      Type.CompleteMultiPartUpload);
+
+  private final OzoneManager ozoneManager;
+  private final OzoneManagerRatisServer ratisServer;
+  private final ExecutorService executor;
+
+  /**
+   * Completes when the last request has been submitted to Ratis, or failed
+   * to. Never completes exceptionally. Guarded by this.
+   */
+  private CompletableFuture<Void> lastSubmitted =
+      CompletableFuture.completedFuture(null);
+  /**
+   * Other requests submitted to Ratis since the last execution, which may not
+   * be applied yet. Guarded by this.
+   */
+  private final List<CompletableFuture<RaftClientReply>> submitted =
+      new ArrayList<>();
+
+  /**
+   * Held while executing a request, and while restoring the cache of changes
+   * dropped from the log.
+   */
+  private final Lock executionLock = new ReentrantLock();
+  /** The last PersistDb request. Guarded by executionLock. */
+  private CompletableFuture<RaftClientReply> lastReplicated =
+      CompletableFuture.completedFuture(null);
+  /** The last index executed with. Guarded by executionLock. */
+  private long lastIndex;
+  /**
+   * Set when changes fail to replicate, until all the changes executed are
+   * applied or dropped. Guarded by executionLock.
+   */
+  private boolean replicationFailed;
+
+  /** The changes executed, but not yet applied, by their index. */
+  private final Map<Long, PersistDbRequest> executed =
+      new ConcurrentHashMap<>();
+
+  public OMLeaderExecutor(OzoneManager ozoneManager,
+      OzoneManagerRatisServer ratisServer) {
+    this.ozoneManager = ozoneManager;
+    this.ratisServer = ratisServer;
+    this.executor = Executors.newSingleThreadExecutor(
+        new ThreadFactoryBuilder().setNameFormat("OMLeaderExecutor")
+            .setDaemon(true).build());
+  }
+
+  /**
+   * @return true if the request can be executed on the leader.
+   */
+  public boolean isSupported(OMRequest request) {
+    return SUPPORTED_TYPES.contains(request.getCmdType())
+        && ozoneManager.getVersionManager()
+            .isAllowed(OMLayoutFeature.LEADER_EXECUTION)
+        && ozoneManager.getPrepareState().requestAllowed(request.getCmdType());
+  }
+
+  /**
+   * Submit a request to Ratis in order with the requests executed on the
+   * leader.
+   * @param submitter submits the request to Ratis
+   * @return the future of the reply
+   */
+  public synchronized CompletableFuture<RaftClientReply> submitInOrder(
+      CheckedSupplier<CompletableFuture<RaftClientReply>, IOException> submitter) {
+    final CompletableFuture<CompletableFuture<RaftClientReply>> submission =
+        lastSubmitted.thenApplyAsync(previous -> {
+          try {
+            return submitter.get();
+          } catch (IOException e) {
+            throw new CompletionException(e);
+          }
+        }, executor);
+    lastSubmitted = submission.handle((future, t) -> null);
+
+    final CompletableFuture<RaftClientReply> reply =
+        submission.thenCompose(Function.identity());
+    submitted.removeIf(CompletableFuture::isDone);
+    submitted.add(reply);
+    return reply;
+  }
+
+  /**
+   * Execute a request on the leader and wait until its changes are applied.
+   * @param request the request, after preExecute
+   * @param invocationId the client call, for the retry cache
+   * @return the response to the client
+   */
+  public OMResponse submit(OMRequest request, ClientInvocationId invocationId)
+      throws ServiceException {
+    try {
+      return submitAsync(request, invocationId).get();
+    } catch (ExecutionException e) {
+      final Throwable cause = e.getCause() instanceof CompletionException
+          ? e.getCause().getCause() : e.getCause();
+      if (cause instanceof ServiceException) {
+        throw (ServiceException) cause;
+      }
+      throw new ServiceException(cause.getMessage(), cause);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ServiceException(e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Execute a request on the leader once the requests submitted before it
+   * are applied.
+   * @return the future of the response, completed once the changes of the
+   * request are applied
+   */
+  public synchronized CompletableFuture<OMResponse> submitAsync(
+      OMRequest request, ClientInvocationId invocationId) {
+    final CompletableFuture<Void> othersApplied = CompletableFuture
+        .allOf(submitted.toArray(new CompletableFuture<?>[0]))
+        // failed to submit, the request is not applied
+        .handle((v, t) -> null);
+    submitted.clear();
+
+    final CompletableFuture<CompletableFuture<OMResponse>> execution =
+        lastSubmitted.thenCombine(othersApplied, (v1, v2) -> null)
+            .thenApplyAsync(v -> execute(request, invocationId), executor);
+    lastSubmitted = execution.handle((future, t) -> null);
+    return execution.thenCompose(Function.identity());
+  }
+
+  /**
+   * Called when a PersistDb request is applied.
+   * @return true if the request has been executed by this OM, i.e. the cache
+   * is already updated.
+   */
+  public boolean completeExecution(PersistDbRequest request) {
+    final PersistDbRequest mine = executed.get(request.getIndex());
+    return mine != null && mine.getTerm() == request.getTerm()
+        && executed.remove(request.getIndex(), mine);
+  }
+
+  /**
+   * Called before a transaction is applied. Once a transaction of a later
+   * term is applied, the changes executed in an earlier term which are not
+   * applied yet have been dropped from the log by the new leader, and their
+   * cache entries are restored from the DB.
+   */
+  public void beforeApply(TermIndex termIndex) throws IOException {
+    if (executed.isEmpty()) {
+      return;
+    }
+    final List<PersistDbRequest> dropped = executed.values().stream()
+        .filter(changes -> changes.getTerm() < termIndex.getTerm())
+        .collect(Collectors.toList());
+    if (dropped.isEmpty()) {
+      return;
+    }
+
+    try {
+      // the DB has all the transactions applied before
+      ratisServer.getOmStateMachine().awaitDoubleBufferFlush();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw IOUtils.toInterruptedIOException(
+          "Interrupted while restoring the cache", e);
+    }
+    executionLock.lock();
+    try {
+      for (PersistDbRequest changes : dropped) {
+        OMPersistDbRequest.restoreCache(ozoneManager.getMetadataManager(),
+            changes);
+        executed.remove(changes.getIndex(), changes);
+      }
+      lastIndex = 0;
+    } finally {
+      executionLock.unlock();
+    }
+    LOG.info("Restored the cache of {} requests executed before term {}",
+        dropped.size(), termIndex.getTerm());
+  }
+
+  public void stop() {
+    executor.shutdownNow();
+  }
+
+  private CompletableFuture<OMResponse> execute(OMRequest request,
+      ClientInvocationId invocationId) {
+    try {
+      OzoneManagerRatisUtils.checkLeaderStatus(ozoneManager);
+    } catch (ServiceException e) {
+      throw new CompletionException(e);
+    }
+
+    // a retry of a request which has been executed already
+    final RaftServer.Division division = ratisServer.getServerDivision();
+    final RetryCache.Entry cached =
+        division.getRetryCache().getIfPresent(invocationId);
+    if (cached != null) {
+      return cached.getReplyFuture().thenApply(
+          reply -> toResponse(request, reply));
+    }
+
+    executionLock.lock();
+    try {
+      if (replicationFailed) {
+        if (!executed.isEmpty()) {
+          throw new CompletionException(new ServiceException(
+              new OMLeaderNotReadyException("Changes executed on the leader"
+                  + " are not replicated yet")));
+        }
+        replicationFailed = false;
+      }
+      return executeAndReplicate(request, invocationId,
+          division.getInfo().getCurrentTerm());
+    } finally {
+      executionLock.unlock();
+    }
+  }
+
+  private CompletableFuture<OMResponse> executeAndReplicate(OMRequest request,
+      ClientInvocationId invocationId, long term) {
+    lastIndex = Math.max(lastIndex,
+        ratisServer.getOmStateMachine().getLastTransactionIndex()) + 1;
+    final long index = lastIndex;
+    final TermIndex termIndex = TermIndex.valueOf(term, index);
+
+    final OMClientResponse clientResponse;
+    try {
+      clientResponse = ratisServer.getOmStateMachine().getHandler()
+          .handleWriteRequestImpl(request, ExecutionContext.of(index, termIndex));
+    } catch (IOException e) {
+      LOG.warn("Failed to write, Exception occurred ", e);
+      final OMResponse errorResponse =
+          OzoneManagerRatisUtils.createErrorResponse(request, e);
+      return lastReplicated.handle((reply, t) -> errorResponse);
+    } catch (Throwable t) {
+      // the same as a failure to apply a transaction
+      return terminate("Request " + request + " failed with exception", t);
+    }
+
+    OMResponse omResponse = clientResponse.getOMResponse();
+    final OMLockDetails omLockDetails = clientResponse.getOmLockDetails();
+    if (omLockDetails != null) {
+      omResponse = omResponse.toBuilder()
+          .setOmLockDetails(omLockDetails.toProtobufBuilder()).build();
+    }
+    if (omResponse.getStatus() != Status.OK) {
+      // nothing changed, but the response may depend on earlier requests
+      final OMResponse failedResponse = omResponse;
+      return lastReplicated.handle((reply, t) -> failedResponse);
+    }
+
+    final PersistDbRequest changes;
+    try {
+      changes = recordChanges(clientResponse, omResponse, termIndex);
+    } catch (Throwable t) {
+      return terminate("Failed to record the changes of " + request, t);
+    }
+
+    executed.put(index, changes);
+    CompletableFuture<RaftClientReply> replicated;
+    try {
+      replicated = ratisServer.submitRequestAsync(
+          createPersistDbRequest(request, changes), invocationId);
+    } catch (Throwable t) {
+      replicated = new CompletableFuture<>();
+      replicated.completeExceptionally(t);
+    }
+    lastReplicated = replicated;
+    return replicated.handle((reply, t) -> {
+      if (t != null || !reply.isSuccess()) {
+        throw new CompletionException(
+            replicationFailed(changes, reply, t));
+      }
+      return toResponse(request, reply);
+    });
+  }
+
+  /**
+   * @return the exception for the client of a request whose changes failed
+   * to replicate
+   */
+  private ServiceException replicationFailed(PersistDbRequest changes,
+      RaftClientReply reply, Throwable t) {
+    executionLock.lock();
+    try {
+      // the changes may have been applied even though the reply failed
+      if (executed.get(changes.getIndex()) == changes) {
+        replicationFailed = true;
+      }
+    } finally {
+      executionLock.unlock();
+    }
+    LOG.warn("Failed to replicate the changes of index {} in term {}: {}",
+        changes.getIndex(), changes.getTerm(), t != null ? t : reply);
+
+    if (reply != null && reply.getNotLeaderException() != null) {
+      return new ServiceException(
+          OMNotLeaderException.convertToOMNotLeaderException(
+              reply.getNotLeaderException(), ratisServer.getRaftPeerId()));
+    }
+    return new ServiceException(new OMNotLeaderException(
+        "Failed to replicate the changes of the request: "
+            + (t != null ? t : reply.getException())));
+  }
+
+  private PersistDbRequest recordChanges(OMClientResponse clientResponse,
+      OMResponse omResponse, TermIndex termIndex) throws IOException {
+    final PersistDbRequest.Builder persistDb = PersistDbRequest.newBuilder()
+        .setIndex(termIndex.getIndex())
+        .setTerm(termIndex.getTerm())
+        .setResponse(omResponse);
+    try (RecordingBatchOperation batch = new RecordingBatchOperation()) {
+      clientResponse.checkAndUpdateDB(ozoneManager.getMetadataManager(), batch);
+      persistDb.addAllTableUpdates(
+          OMPersistDbRequest.toTableUpdates(batch.getRecords()));
+    }
+    return persistDb.build();
+  }
+
+  private static OMRequest createPersistDbRequest(OMRequest request,
+      PersistDbRequest changes) {
+    return OMRequest.newBuilder()
+        .setCmdType(Type.PersistDb)
+        .setClientId(request.getClientId())
+        .setTraceID(request.getTraceID())
+        .setLayoutVersion(request.getLayoutVersion())
+        .setPersistDbRequest(changes)
+        .build();
+  }
+
+  private OMResponse toResponse(OMRequest request, RaftClientReply reply) {
+    try {
+      return ratisServer.createOmResponse(request, reply);
+    } catch (ServiceException e) {
+      throw new CompletionException(e);
+    }
+  }
+
+  private static <T> T terminate(String message, Throwable t) {
+    ExitUtils.terminate(1, message, t, LOG);
+    throw new IllegalStateException(message, t);
+  }
+}
@@ -20,20 +20,28 @@
 import static org.apache.hadoop.ozone.OzoneConsts.TRANSACTION_INFO_KEY;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
@@ -41,11 +49,14 @@
 import org.apache.hadoop.hdds.tracing.TracingUtil;
 import org.apache.hadoop.hdds.utils.TransactionInfo;
 import org.apache.hadoop.hdds.utils.db.BatchOperation;
+import org.apache.hadoop.hdds.utils.db.RecordingBatchOperation;
+import org.apache.hadoop.hdds.utils.db.Table;
 import org.apache.hadoop.ozone.om.OMMetadataManager;
 import org.apache.hadoop.ozone.om.S3SecretManager;
 import org.apache.hadoop.ozone.om.codec.OMDBDefinition;
 import org.apache.hadoop.ozone.om.response.CleanupTableInfo;
 import org.apache.hadoop.ozone.om.response.OMClientResponse;
+import org.apache.hadoop.ozone.om.response.util.OMPersistDbResponse;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
 import org.apache.hadoop.util.Daemon;
@@ -65,13 +76,34 @@
  * any entries, it swaps the buffer and creates a batch and commit to DB.
  * Adding OM request to doubleBuffer and swap of buffer are synchronized
  * methods.
- *
+ * <p>
+ * With more than one flush thread, the flush is pipelined: the responses of a
+ * batch are added to the DB batch by multiple threads, and the batch is
+ * committed by a separate thread while the flush thread prepares the next
+ * batch. Each thread records the DB changes of a contiguous range of the
+ * responses in a {@link RecordingBatchOperation}, and the recordings are
+ * applied to the DB batch in the order of the transactions, so later changes
+ * of a key still replace earlier ones. Batches containing responses which
+ * change snapshot DBs, or rely on the previous batch being committed, are
+ * flushed sequentially.
  */
 public final class OzoneManagerDoubleBuffer {
 
   private static final Logger LOG =
       LoggerFactory.getLogger(OzoneManagerDoubleBuffer.class);
 
+  /** The minimum number of responses added to a DB batch by one thread. */
+  private static final int MIN_RESPONSES_PER_THREAD = 8;
+
+  /** Responses which are not added to a DB batch in parallel. */
+  private static final Set<OzoneManagerProtocolProtos.Type> SEQUENTIAL_CMD_TYPES =
+      EnumSet.of(OzoneManagerProtocolProtos.Type.CreateSnapshot,
+          OzoneManagerProtocolProtos.Type.SnapshotPurge,
+          OzoneManagerProtocolProtos.Type.SnapshotMoveDeletedKeys,
+          OzoneManagerProtocolProtos.Type.SnapshotMoveTableKeys,
+          OzoneManagerProtocolProtos.Type.PurgeKeys,
+          OzoneManagerProtocolProtos.Type.PurgeDirectories);
+
   private Queue<Entry> currentBuffer;
   private Queue<Entry> readyBuffer;
   /**
@@ -94,6 +126,15 @@ public final class OzoneManagerDoubleBuffer {
 
   private final boolean isTracingEnabled;
 
+  private final int flushThreads;
+  /** To add responses to a batch in parallel, null if not pipelined. */
+  private final ExecutorService prepareExecutor;
+  /** To commit batches, null if not pipelined. */
+  private final ExecutorService commitExecutor;
+  /** The commit of the previous batch, only accessed by the {@link #daemon}. */
+  private CompletableFuture<Void> pendingCommit =
+      CompletableFuture.completedFuture(null);
+
   private final OzoneManagerDoubleBufferMetrics metrics = OzoneManagerDoubleBufferMetrics.create();
 
   /** Accumulative count (for testing and debug only). */
@@ -120,6 +161,45 @@ OMClientResponse getResponse() {
     }
   }
 
+  /** A DB batch of responses ready to be committed. */
+  private static final class PreparedBatch {
+    private final BatchOperation batchOperation;
+    private final String lastTraceId;
+    private final int size;
+    private final TermIndex lastTransaction;
+    private final Map<String, List<Long>> cleanupEpochs;
+
+    PreparedBatch(BatchOperation batchOperation, String lastTraceId,
+        int size, TermIndex lastTransaction,
+        Map<String, List<Long>> cleanupEpochs) {
+      this.batchOperation = batchOperation;
+      this.lastTraceId = lastTraceId;
+      this.size = size;
+      this.lastTransaction = lastTransaction;
+      this.cleanupEpochs = cleanupEpochs;
+    }
+
+    BatchOperation getBatchOperation() {
+      return batchOperation;
+    }
+
+    String getLastTraceId() {
+      return lastTraceId;
+    }
+
+    int getSize() {
+      return size;
+    }
+
+    TermIndex getLastTransaction() {
+      return lastTransaction;
+    }
+
+    Map<String, List<Long>> getCleanupEpochs() {
+      return cleanupEpochs;
+    }
+  }
+
   /**
    *  Builder for creating OzoneManagerDoubleBuffer.
    */
@@ -128,6 +208,7 @@ public static final class Builder {
     private Consumer<TermIndex> updateLastAppliedIndex = termIndex -> { };
     private boolean isTracingEnabled = false;
     private int maxUnFlushedTransactionCount = 0;
+    private int flushThreads = 1;
     private FlushNotifier flushNotifier;
     private S3SecretManager s3SecretManager;
     private String threadPrefix = "";
@@ -154,6 +235,11 @@ public Builder setMaxUnFlushedTransactionCount(int maxUnFlushedTransactionCount)
       return this;
     }
 
+    public Builder setFlushThreads(int flushThreads) {
+      this.flushThreads = flushThreads;
+      return this;
+    }
+
     Builder setFlushNotifier(FlushNotifier flushNotifier) {
       this.flushNotifier = flushNotifier;
       return this;
@@ -172,6 +258,8 @@ public Builder setS3SecretManager(S3SecretManager s3SecretManager) {
     public OzoneManagerDoubleBuffer build() {
       Preconditions.assertTrue(maxUnFlushedTransactionCount > 0L,
           () -> "maxUnFlushedTransactionCount = " + maxUnFlushedTransactionCount);
+      Preconditions.assertTrue(flushThreads > 0,
+          () -> "flushThreads = " + flushThreads);
       if (flushNotifier == null) {
         flushNotifier = new FlushNotifier();
       }
@@ -200,6 +288,21 @@ private OzoneManagerDoubleBuffer(Builder b) {
 
     this.isTracingEnabled = b.isTracingEnabled;
 
+    this.flushThreads = b.flushThreads;
+    if (flushThreads > 1) {
+      prepareExecutor = Executors.newFixedThreadPool(flushThreads,
+          new ThreadFactoryBuilder().setDaemon(true)
+              .setNameFormat(b.threadPrefix + "OMDoubleBufferPrepareThread-%d")
+              .build());
+      commitExecutor = Executors.newSingleThreadExecutor(
+          new ThreadFactoryBuilder().setDaemon(true)
+              .setNameFormat(b.threadPrefix + "OMDoubleBufferCommitThread")
+              .build());
+    } else {
+      prepareExecutor = null;
+      commitExecutor = null;
+    }
+
     // Daemon thread which runs in background and flushes transactions to DB.
     daemon = new Daemon(this::flushTransactions);
     daemon.setName(b.threadPrefix + "OMDoubleBufferFlushThread");
@@ -276,7 +379,14 @@ private void addToBatchTransactionInfoWithTrace(String parentName,
    */
   @VisibleForTesting
   public void flushTransactions() {
-    while (isRunning.get() && canFlush()) {
+    while (isRunning.get()) {
+      if (isCurrentBufferEmpty()) {
+        // wait for the pipelined commit before notifying in canFlush()
+        awaitPendingCommit();
+      }
+      if (!canFlush()) {
+        return;
+      }
       flushCurrentBuffer();
     }
   }
@@ -309,12 +419,15 @@ void flushCurrentBuffer() {
       // Flush #4: [snapshotRequest2]
       // Flush #5: [request4]
       final List<Queue<Entry>> bufferQueues = splitReadyBufferAtCreateSnapshot();
-      for (Queue<Entry> buffer : bufferQueues) {
-        flushBatch(buffer);
+      if (commitExecutor == null) {
+        for (Queue<Entry> buffer : bufferQueues) {
+          flushBatch(buffer);
+        }
+        clearReadyBuffer();
+        flushNotifier.notifyFlush();
+      } else {
+        flushPipelined(bufferQueues);
       }
-
-      clearReadyBuffer();
-      flushNotifier.notifyFlush();
     } catch (IOException ex) {
       terminate(ex, 1);
     } catch (Throwable t) {
@@ -323,19 +436,74 @@ void flushCurrentBuffer() {
   }
 
   private void flushBatch(Queue<Entry> buffer) throws IOException {
-    Map<String, List<Long>> cleanupEpochs = new HashMap<>();
+    commitBatch(prepareBatch(buffer, false));
+  }
+
+  /**
+   * Flush the batches, committing each batch while the next one is prepared.
+   * The entries are kept by the batches, so the readyBuffer is cleared
+   * without waiting for the last commit.
+   */
+  private void flushPipelined(List<Queue<Entry>> bufferQueues)
+      throws IOException {
+    for (Queue<Entry> buffer : bufferQueues) {
+      if (!isParallelFlushSupported(buffer)) {
+        awaitPendingCommit();
+        flushBatch(buffer);
+        continue;
+      }
+      final PreparedBatch batch = prepareBatch(buffer, true);
+      awaitPendingCommit();
+      pendingCommit = CompletableFuture.runAsync(() -> {
+        try {
+          commitBatch(batch);
+        } catch (IOException ex) {
+          terminate(ex, 1);
+        } catch (Throwable t) {
+          terminate(t, 2);
+        }
+      }, commitExecutor);
+    }
+
+    clearReadyBuffer();
+    pendingCommit = pendingCommit.thenRun(flushNotifier::notifyFlush);
+  }
+
+  private void awaitPendingCommit() {
+    if (pendingCommit.isDone()) {
+      return;
+    }
+    final long startTime = Time.monotonicNow();
+    try {
+      pendingCommit.join();
+    } catch (CompletionException e) {
+      // commitBatch has already terminated
+      LOG.debug("Failed to commit batch", e);
+    }
+    metrics.updateCommitWaitTime(Time.monotonicNow() - startTime);
+  }
+
+  /**
+   * Add the responses and the transaction info to a new DB batch.
+   * @param parallel whether to add the responses by multiple threads.
+   */
+  private PreparedBatch prepareBatch(Queue<Entry> buffer, boolean parallel)
+      throws IOException {
     // Commit transaction info to DB.
     final List<TermIndex> flushedTransactions = buffer.stream()
         .map(Entry::getTermIndex)
         .sorted()
         .collect(Collectors.toList());
-    final int flushedTransactionsSize = flushedTransactions.size();
-    final TermIndex lastTransaction = flushedTransactions.get(flushedTransactionsSize - 1);
+    final TermIndex lastTransaction = flushedTransactions.get(flushedTransactions.size() - 1);
+    final Map<String, List<Long>> cleanupEpochs = new HashMap<>();
 
-    try (BatchOperation batchOperation = omMetadataManager.getStore()
-        .initBatchOperation()) {
-
-      String lastTraceId = addToBatch(buffer, batchOperation);
+    final long startTime = Time.monotonicNow();
+    final BatchOperation batchOperation = omMetadataManager.getStore()
+        .initBatchOperation();
+    try {
+      String lastTraceId = parallel
+          ? addToBatchInParallel(buffer, batchOperation)
+          : addToBatch(buffer, batchOperation);
 
       buffer.iterator().forEachRemaining(
           entry -> addCleanupEntry(entry, cleanupEpochs));
@@ -345,32 +513,113 @@ private void flushBatch(Queue<Entry> buffer) throws IOException {
           lastTransaction.getIndex(),
           () -> omMetadataManager.getTransactionInfoTable().putWithBatch(
               batchOperation, TRANSACTION_INFO_KEY, TransactionInfo.valueOf(lastTransaction)));
+      metrics.updatePrepareTime(Time.monotonicNow() - startTime);
+      return new PreparedBatch(batchOperation, lastTraceId, buffer.size(),
+          lastTransaction, cleanupEpochs);
+    } catch (IOException | RuntimeException e) {
+      batchOperation.close();
+      throw e;
+    }
+  }
 
+  private void commitBatch(PreparedBatch batch) throws IOException {
+    try (BatchOperation batchOperation = batch.getBatchOperation()) {
       long startTime = Time.monotonicNow();
-      flushBatchWithTrace(lastTraceId, buffer.size(),
+      flushBatchWithTrace(batch.getLastTraceId(), batch.getSize(),
           () -> omMetadataManager.getStore()
               .commitBatchOperation(batchOperation));
 
       metrics.updateFlushTime(Time.monotonicNow() - startTime);
     }
 
+    final int flushedTransactionsSize = batch.getSize();
     final long accumulativeCount = flushedTransactionCount.addAndGet(flushedTransactionsSize);
     final long flushedIterations = flushIterations.incrementAndGet();
     LOG.debug("Sync iteration: {}, size in this iteration: {}, accumulative count: {}",
         flushedIterations, flushedTransactionsSize, accumulativeCount);
 
     // Clean up committed transactions.
-    cleanupCache(cleanupEpochs);
+    cleanupCache(batch.getCleanupEpochs());
 
     releaseUnFlushedTransactions(flushedTransactionsSize);
     // update the last updated index in OzoneManagerStateMachine.
-    updateLastAppliedIndex.accept(lastTransaction);
+    updateLastAppliedIndex.accept(batch.getLastTransaction());
 
     // set metrics.
     metrics.updateFlush(flushedTransactionsSize);
   }
 
-  private String addToBatch(Queue<Entry> buffer, BatchOperation batchOperation) {
+  /**
+   * Add the responses to the batch by multiple threads, each recording the
+   * changes of a contiguous range of responses, and then apply the
+   * recordings in order.
+   */
+  private String addToBatchInParallel(Queue<Entry> buffer,
+      BatchOperation batchOperation) throws IOException {
+    final List<Entry> entries = new ArrayList<>(buffer);
+    final int perThread = Math.max(MIN_RESPONSES_PER_THREAD,
+        (entries.size() + flushThreads - 1) / flushThreads);
+    if (entries.size() <= perThread) {
+      return addToBatch(buffer, batchOperation);
+    }
+
+    final List<CompletableFuture<RecordingBatchOperation>> recordings =
+        new ArrayList<>();
+    for (int i = 0; i < entries.size(); i += perThread) {
+      final List<Entry> range =
+          entries.subList(i, Math.min(i + perThread, entries.size()));
+      recordings.add(CompletableFuture.supplyAsync(() -> {
+        final RecordingBatchOperation recording =
+            new RecordingBatchOperation();
+        addToBatch(range, recording);
+        return recording;
+      }, prepareExecutor));
+    }
+
+    final Map<String, Table<byte[], byte[]>> tables = new HashMap<>();
+    for (CompletableFuture<RecordingBatchOperation> future : recordings) {
+      try (RecordingBatchOperation recording = future.join()) {
+        for (Map.Entry<String, Map<ByteBuffer, byte[]>> update
+            : recording.getRecords().entrySet()) {
+          final Table<byte[], byte[]> table = getTable(tables, update.getKey());
+          for (Map.Entry<ByteBuffer, byte[]> record
+              : update.getValue().entrySet()) {
+            final byte[] key = record.getKey().array();
+            if (record.getValue() != null) {
+              table.putWithBatch(batchOperation, key, record.getValue());
+            } else {
+              table.deleteWithBatch(batchOperation, key);
+            }
+          }
+        }
+      }
+    }
+    return entries.get(entries.size() - 1).getResponse().getOMResponse()
+        .getTraceID();
+  }
+
+  private Table<byte[], byte[]> getTable(
+      Map<String, Table<byte[], byte[]>> tables, String name)
+      throws IOException {
+    Table<byte[], byte[]> table = tables.get(name);
+    if (table == null) {
+      table = omMetadataManager.getStore().getTable(name);
+      tables.put(name, table);
+    }
+    return table;
+  }
+
+  private static boolean isParallelFlushSupported(Queue<Entry> buffer) {
+    for (Entry entry : buffer) {
+      if (SEQUENTIAL_CMD_TYPES.contains(
+          entry.getResponse().getOMResponse().getCmdType())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private String addToBatch(Iterable<Entry> buffer, BatchOperation batchOperation) {
     String lastTraceId = null;
     for (Entry entry: buffer) {
       OMClientResponse response = entry.getResponse();
@@ -444,6 +693,15 @@ private static boolean isStandaloneBatchCmdTypes(OMResponse response) {
   }
 
   private void addCleanupEntry(Entry entry, Map<String, List<Long>> cleanupEpochs) {
+    if (entry.getResponse() instanceof OMPersistDbResponse) {
+      // the cache entries were added with the index of the leader execution
+      final OMPersistDbResponse response = (OMPersistDbResponse) entry.getResponse();
+      for (String table : response.getTableNames()) {
+        cleanupEpochs.computeIfAbsent(table, list -> new ArrayList<>())
+            .add(response.getIndex());
+      }
+      return;
+    }
     Class<? extends OMClientResponse> responseClass =
         entry.getResponse().getClass();
     CleanupTableInfo cleanupTableInfo =
@@ -490,6 +748,18 @@ private synchronized void clearReadyBuffer() {
   @SuppressWarnings("squid:S2142")
   public void stop() {
     stopDaemon();
+    if (commitExecutor != null) {
+      // let the pending commit complete
+      commitExecutor.shutdown();
+      prepareExecutor.shutdown();
+      try {
+        if (!commitExecutor.awaitTermination(1, TimeUnit.MINUTES)) {
+          LOG.warn("Timed out waiting for OMDoubleBuffer commit thread");
+        }
+      } catch (InterruptedException e) {
+        LOG.debug("Interrupted while waiting for commit thread to exit.", e);
+      }
+    }
     metrics.unRegister();
   }
 
@@ -589,6 +859,10 @@ int getCurrentBufferSize() {
     return currentBuffer.size();
   }
 
+  private synchronized boolean isCurrentBufferEmpty() {
+    return currentBuffer.isEmpty();
+  }
+
   synchronized int getReadyBufferSize() {
     return readyBuffer.size();
   }
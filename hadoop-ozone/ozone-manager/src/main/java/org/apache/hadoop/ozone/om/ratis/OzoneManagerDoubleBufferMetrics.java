@@ -52,6 +52,15 @@ public class OzoneManagerDoubleBufferMetrics {
       " rocksdb batch commit time.")
   private MutableRate flushTime;
 
+  @Metric(about = "DoubleBuffer prepareTime. This metrics captures the time" +
+      " to add the responses of a flush iteration to the rocksdb batch.")
+  private MutableRate prepareTime;
+
+  @Metric(about = "DoubleBuffer commitWaitTime. This metrics captures the" +
+      " time the flush thread waits for the commit of the previous batch" +
+      " when the flush is pipelined.")
+  private MutableRate commitWaitTime;
+
   @Metric(about = "Average number of transactions flushed in a single " +
       "iteration")
   private MutableGaugeFloat avgFlushTransactionsInOneIteration;
@@ -115,6 +124,22 @@ MutableRate getFlushTime() {
     return flushTime;
   }
 
+  public void updatePrepareTime(long time) {
+    prepareTime.add(time);
+  }
+
+  MutableRate getPrepareTime() {
+    return prepareTime;
+  }
+
+  public void updateCommitWaitTime(long time) {
+    commitWaitTime.add(time);
+  }
+
+  MutableRate getCommitWaitTime() {
+    return commitWaitTime;
+  }
+
   public float getAvgFlushTransactionsInOneIteration() {
     return avgFlushTransactionsInOneIteration.value();
   }
@@ -40,6 +40,7 @@
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
@@ -60,6 +61,7 @@
 import org.apache.hadoop.ozone.om.exceptions.OMException;
 import org.apache.hadoop.ozone.om.exceptions.OMLeaderNotReadyException;
 import org.apache.hadoop.ozone.om.exceptions.OMNotLeaderException;
+import org.apache.hadoop.ozone.om.execution.OMLeaderExecutor;
 import org.apache.hadoop.ozone.om.helpers.OMNodeDetails;
 import org.apache.hadoop.ozone.om.helpers.OMRatisHelper;
 import org.apache.hadoop.ozone.om.ratis.utils.OzoneManagerRatisUtils;
@@ -119,6 +121,7 @@ public final class OzoneManagerRatisServer {
   private final OzoneManagerStateMachine omStateMachine;
   private final String ratisStorageDir;
   private final OMPerformanceMetrics perfMetrics;
+  private final OMLeaderExecutor leaderExecutor;
 
   private final ClientId clientId = ClientId.randomId();
   private static final AtomicLong CALL_ID_COUNTER = new AtomicLong();
@@ -186,6 +189,10 @@ private OzoneManagerRatisServer(ConfigurationSource conf, OzoneManager om,
       }
     });
     this.perfMetrics = om.getPerfMetrics();
+    this.leaderExecutor = conf.getBoolean(
+        OMConfigKeys.OZONE_OM_LEADER_EXECUTION_ENABLED,
+        OMConfigKeys.OZONE_OM_LEADER_EXECUTION_ENABLED_DEFAULT)
+        ? new OMLeaderExecutor(om, this) : null;
   }
 
   /**
@@ -278,7 +285,7 @@ public OMResponse submitRequest(OMRequest omRequest) throws ServiceException {
     }
   }
 
-  private OMResponse createOmResponse(OMRequest omRequest,
+  public OMResponse createOmResponse(OMRequest omRequest,
       RaftClientReply raftClientReply) throws ServiceException {
     return captureLatencyNs(
         perfMetrics.getCreateOmResponseLatencyNs(),
@@ -307,7 +314,24 @@ private RaftClientRequest createRaftRequest(OMRequest omRequest) {
    * @throws ServiceException
    */
   public OMResponse submitRequest(OMRequest omRequest, ClientId cliId, long callId) throws ServiceException {
-    RaftClientRequest raftClientRequest = RaftClientRequest.newBuilder()
+    RaftClientRequest raftClientRequest = createRaftRequest(omRequest, cliId, callId);
+    RaftClientReply raftClientReply =
+        submitRequestToRatis(raftClientRequest);
+    return createOmResponse(omRequest, raftClientReply);
+  }
+
+  /**
+   * Submit request to Ratis server without waiting for the reply.
+   * Used by {@link OMLeaderExecutor}, which orders the requests itself.
+   */
+  public CompletableFuture<RaftClientReply> submitRequestAsync(OMRequest omRequest,
+      ClientInvocationId invocationId) throws IOException {
+    return server.submitClientRequestAsync(createRaftRequest(
+        omRequest, invocationId.getClientId(), invocationId.getLongId()));
+  }
+
+  private RaftClientRequest createRaftRequest(OMRequest omRequest, ClientId cliId, long callId) {
+    return RaftClientRequest.newBuilder()
         .setClientId(cliId)
         .setServerId(getRaftPeerId())
         .setGroupId(getRaftGroupId())
@@ -316,14 +340,15 @@ public OMResponse submitRequest(OMRequest omRequest, ClientId cliId, long callId
             OMRatisHelper.convertRequestToByteString(omRequest)))
         .setType(RaftClientRequest.writeRequestType())
         .build();
-    RaftClientReply raftClientReply =
-        submitRequestToRatis(raftClientRequest);
-    return createOmResponse(omRequest, raftClientReply);
   }
 
   private RaftClientReply submitRequestToRatisImpl(
       RaftClientRequest raftClientRequest) throws ServiceException {
     try {
+      if (leaderExecutor != null) {
+        return leaderExecutor.submitInOrder(
+            () -> server.submitClientRequestAsync(raftClientRequest)).get();
+      }
       return server.submitClientRequestAsync(raftClientRequest)
           .get();
     } catch (ExecutionException | IOException ex) {
@@ -484,8 +509,15 @@ private long getCallId() {
     return callId;
   }
 
+  /**
+   * @return the ID of the current client call.
+   */
+  public ClientInvocationId getClientInvocationId() {
+    return ClientInvocationId.valueOf(getClientId(), getCallId());
+  }
+
   public OMResponse checkRetryCache() throws ServiceException {
-    final ClientInvocationId invocationId = ClientInvocationId.valueOf(getClientId(), getCallId());
+    final ClientInvocationId invocationId = getClientInvocationId();
     final RetryCache.Entry cacheEntry = getServerDivision().getRetryCache().getIfPresent(invocationId);
     if (cacheEntry == null) {
       return null;  //cache miss
@@ -620,6 +652,13 @@ public OzoneManager getOzoneManager() {
     return ozoneManager;
   }
 
+  /**
+   * @return the executor of requests on the leader, or null if disabled.
+   */
+  public OMLeaderExecutor getLeaderExecutor() {
+    return leaderExecutor;
+  }
+
   /**
    * Start the Ratis server.
    * @throws IOException
@@ -632,6 +671,9 @@ public void start() throws IOException {
 
   public void stop() {
     LOG.info("Stopping {} at port {}", this, port);
+    if (leaderExecutor != null) {
+      leaderExecutor.stop();
+    }
     try {
       // Ratis will also close the state machine
       server.close();
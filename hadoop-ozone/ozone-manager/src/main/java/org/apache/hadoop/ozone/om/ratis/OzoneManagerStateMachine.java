@@ -38,6 +38,7 @@
 import org.apache.hadoop.ozone.om.OzoneManager;
 import org.apache.hadoop.ozone.om.OzoneManagerPrepareState;
 import org.apache.hadoop.ozone.om.exceptions.OMException;
+import org.apache.hadoop.ozone.om.execution.OMLeaderExecutor;
 import org.apache.hadoop.ozone.om.execution.flowcontrol.ExecutionContext;
 import org.apache.hadoop.ozone.om.helpers.OMRatisHelper;
 import org.apache.hadoop.ozone.om.lock.OMLockDetails;
@@ -100,6 +101,8 @@ public class OzoneManagerStateMachine extends BaseStateMachine {
   private volatile TermIndex lastNotifiedTermIndex = TermIndex.valueOf(0, RaftLog.INVALID_LOG_INDEX);
   /** The last index skipped by {@link #notifyTermIndexUpdated(long, long)}. */
   private volatile long lastSkippedIndex = RaftLog.INVALID_LOG_INDEX;
+  /** The index of the last transaction passed to {@link #applyTransaction(TransactionContext)}. */
+  private volatile long lastTransactionIndex = RaftLog.INVALID_LOG_INDEX;
 
   private final NettyMetrics nettyMetrics;
 
@@ -165,6 +168,7 @@ public void notifyLeaderReady() {
   public void notifyLeaderChanged(RaftGroupMemberId groupMemberId,
                                   RaftPeerId newLeaderId) {
     RaftPeerId currentPeerId = groupMemberId.getPeerId();
+    ozoneManager.clearBlockPool();
     if (newLeaderId.equals(currentPeerId)) {
       // warmup cache
       ozoneManager.initializeEdekCache(ozoneManager.getConfiguration());
@@ -195,6 +199,14 @@ public TermIndex getLastNotifiedTermIndex() {
     return lastNotifiedTermIndex;
   }
 
+  /**
+   * @return the largest index of the transactions which have been applied or
+   * are being applied, including the ones only notified.
+   */
+  public long getLastTransactionIndex() {
+    return Math.max(lastTransactionIndex, lastNotifiedTermIndex.getIndex());
+  }
+
   @Override
   protected synchronized boolean updateLastAppliedTermIndex(TermIndex newTermIndex) {
     TermIndex lastApplied = getLastAppliedTermIndex();
@@ -364,6 +376,7 @@ public CompletableFuture<Message> applyTransaction(TransactionContext trx) {
           trx.getStateMachineLogEntry().getLogData());
       final TermIndex termIndex = TermIndex.valueOf(trx.getLogEntry());
       LOG.debug("{}: applyTransaction {}", getId(), termIndex);
+      lastTransactionIndex = termIndex.getIndex();
       // In the current approach we have one single global thread executor.
       // with single thread. Right now this is being done for correctness, as
       // applyTransaction will be run on multiple OM's we want to execute the
@@ -466,10 +479,14 @@ public OzoneManagerDoubleBuffer buildDoubleBufferForRatis() {
     final int maxUnFlushedTransactionCount = ozoneManager.getConfiguration()
         .getInt(OMConfigKeys.OZONE_OM_UNFLUSHED_TRANSACTION_MAX_COUNT,
             OMConfigKeys.OZONE_OM_UNFLUSHED_TRANSACTION_MAX_COUNT_DEFAULT);
+    final int flushThreads = ozoneManager.getConfiguration()
+        .getInt(OMConfigKeys.OZONE_OM_DOUBLE_BUFFER_FLUSH_THREADS,
+            OMConfigKeys.OZONE_OM_DOUBLE_BUFFER_FLUSH_THREADS_DEFAULT);
     return OzoneManagerDoubleBuffer.newBuilder()
         .setOmMetadataManager(ozoneManager.getMetadataManager())
         .setUpdateLastAppliedIndex(this::updateLastAppliedTermIndex)
         .setMaxUnFlushedTransactionCount(maxUnFlushedTransactionCount)
+        .setFlushThreads(flushThreads)
         .setThreadPrefix(threadPrefix)
         .setS3SecretManager(ozoneManager.getS3SecretManager())
         .enableTracing(isTracingEnabled)
@@ -563,6 +580,17 @@ public void close() {
    * @return response from OM
    */
   private OMResponse runCommand(OMRequest request, TermIndex termIndex) {
+    final OzoneManagerRatisServer ratisServer = ozoneManager.getOmRatisServer();
+    final OMLeaderExecutor leaderExecutor =
+        ratisServer == null ? null : ratisServer.getLeaderExecutor();
+    if (leaderExecutor != null) {
+      try {
+        leaderExecutor.beforeApply(termIndex);
+      } catch (Throwable e) {
+        ExitUtils.terminate(1, "Failed to restore the cache before applying "
+            + termIndex, e, LOG);
+      }
+    }
     try {
       ExecutionContext context = ExecutionContext.of(termIndex.getIndex(), termIndex);
       final OMClientResponse omClientResponse = handler.handleWriteRequest(
@@ -91,6 +91,7 @@
 import org.apache.hadoop.ozone.om.request.upgrade.OMFinalizeUpgradeRequest;
 import org.apache.hadoop.ozone.om.request.upgrade.OMPrepareRequest;
 import org.apache.hadoop.ozone.om.request.util.OMEchoRPCWriteRequest;
+import org.apache.hadoop.ozone.om.request.util.OMPersistDbRequest;
 import org.apache.hadoop.ozone.om.request.volume.OMQuotaRepairRequest;
 import org.apache.hadoop.ozone.om.request.volume.OMVolumeCreateRequest;
 import org.apache.hadoop.ozone.om.request.volume.OMVolumeDeleteRequest;
@@ -298,6 +299,11 @@ public static OMClientRequest createClientRequest(OMRequest omRequest,
       volumeName = keyArgs.getVolumeName();
       bucketName = keyArgs.getBucketName();
       break;
+    case CopyKey:
+      keyArgs = omRequest.getCopyKeyRequest().getDstKeyArgs();
+      volumeName = keyArgs.getVolumeName();
+      bucketName = keyArgs.getBucketName();
+      break;
     case RenameKeys:
       OzoneManagerProtocolProtos.RenameKeysArgs renameKeysArgs =
           omRequest.getRenameKeysRequest().getRenameKeysArgs();
@@ -331,6 +337,8 @@ public static OMClientRequest createClientRequest(OMRequest omRequest,
       break;
     case EchoRPC:
       return new OMEchoRPCWriteRequest(omRequest);
+    case PersistDb:
+      return new OMPersistDbRequest(omRequest);
     case AbortExpiredMultiPartUploads:
       return new S3ExpiredMultipartUploadsAbortRequest(omRequest);
     case QuotaRepair:
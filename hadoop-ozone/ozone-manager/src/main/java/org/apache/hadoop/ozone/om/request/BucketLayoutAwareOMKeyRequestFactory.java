@@ -36,6 +36,7 @@
 import org.apache.hadoop.ozone.om.request.key.OMAllocateBlockRequestWithFSO;
 import org.apache.hadoop.ozone.om.request.key.OMKeyCommitRequest;
 import org.apache.hadoop.ozone.om.request.key.OMKeyCommitRequestWithFSO;
+import org.apache.hadoop.ozone.om.request.key.OMKeyCopyRequest;
 import org.apache.hadoop.ozone.om.request.key.OMKeyCreateRequest;
 import org.apache.hadoop.ozone.om.request.key.OMKeyCreateRequestWithFSO;
 import org.apache.hadoop.ozone.om.request.key.OMKeyDeleteRequest;
@@ -148,6 +149,11 @@ public final class BucketLayoutAwareOMKeyRequestFactory {
         OMKeyRenameRequestWithFSO.class,
         BucketLayout.FILE_SYSTEM_OPTIMIZED);
 
+    // CopyKey
+    addRequestClass(Type.CopyKey,
+        OMKeyCopyRequest.class,
+        BucketLayout.OBJECT_STORE);
+
     // RenameKeys
     addRequestClass(Type.RenameKeys,
         OMKeysRenameRequest.class,
@@ -0,0 +1,511 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.request.key;
+
+import static org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes.BUCKET_NOT_FOUND;
+import static org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes.KEY_NOT_FOUND;
+import static org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes.NOT_SUPPORTED_OPERATION;
+import static org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes.NO_SUCH_MULTIPART_UPLOAD_ERROR;
+import static org.apache.hadoop.ozone.om.lock.OzoneManagerLock.LeveledResource.BUCKET_LOCK;
+
+import com.google.common.base.Preconditions;
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.hadoop.hdds.client.ContainerBlockID;
+import org.apache.hadoop.hdds.utils.db.Table;
+import org.apache.hadoop.ozone.OmUtils;
+import org.apache.hadoop.ozone.OzoneConsts;
+import org.apache.hadoop.ozone.OzoneManagerVersion;
+import org.apache.hadoop.ozone.audit.OMAction;
+import org.apache.hadoop.ozone.om.OMMetadataManager;
+import org.apache.hadoop.ozone.om.OMMetrics;
+import org.apache.hadoop.ozone.om.OzoneManager;
+import org.apache.hadoop.ozone.om.exceptions.OMException;
+import org.apache.hadoop.ozone.om.execution.flowcontrol.ExecutionContext;
+import org.apache.hadoop.ozone.om.helpers.BucketLayout;
+import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
+import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.apache.hadoop.ozone.om.helpers.OmKeyLocationInfo;
+import org.apache.hadoop.ozone.om.helpers.OmKeyLocationInfoGroup;
+import org.apache.hadoop.ozone.om.helpers.OmMultipartKeyInfo;
+import org.apache.hadoop.ozone.om.helpers.RepeatedOmKeyInfo;
+import org.apache.hadoop.ozone.om.request.s3.multipart.S3MultipartUploadCommitPartRequest;
+import org.apache.hadoop.ozone.om.request.util.OmResponseUtil;
+import org.apache.hadoop.ozone.om.request.validation.RequestFeatureValidator;
+import org.apache.hadoop.ozone.om.request.validation.ValidationCondition;
+import org.apache.hadoop.ozone.om.request.validation.ValidationContext;
+import org.apache.hadoop.ozone.om.response.OMClientResponse;
+import org.apache.hadoop.ozone.om.response.key.OMKeyCopyResponse;
+import org.apache.hadoop.ozone.om.upgrade.OMLayoutFeature;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CopyKeyRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CopyKeyResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.KeyArgs;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.PartKeyInfo;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Type;
+import org.apache.hadoop.ozone.request.validation.RequestProcessingPhase;
+import org.apache.hadoop.ozone.security.acl.IAccessAuthorizer;
+import org.apache.hadoop.ozone.security.acl.OzoneObj;
+import org.apache.hadoop.util.Time;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Handles copy key request.
+ * <p>
+ * The new key, or multipart upload part, refers to the blocks of the latest
+ * version of the source key instead of a copy of the data. Each such extra
+ * reference is counted in the sharedBlockTable, which
+ * {@link org.apache.hadoop.ozone.om.service.KeyDeletingService} consults
+ * before asking SCM to delete the blocks of a deleted key.
+ * <p>
+ * Keys which cannot share blocks (encrypted or open keys, FSO buckets, etc.)
+ * are rejected with NOT_SUPPORTED_OPERATION so that the client can fall back
+ * to copying the data.
+ */
+public class OMKeyCopyRequest extends OMKeyRequest {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(OMKeyCopyRequest.class);
+
+  public OMKeyCopyRequest(OMRequest omRequest, BucketLayout bucketLayout) {
+    super(omRequest, bucketLayout);
+  }
+
+  @Override
+  public OMRequest preExecute(OzoneManager ozoneManager) throws IOException {
+    CopyKeyRequest copyKeyRequest = super.preExecute(ozoneManager)
+        .getCopyKeyRequest();
+    Preconditions.checkNotNull(copyKeyRequest);
+
+    ozoneManager.checkFeatureEnabled(OzoneManagerVersion.SERVER_SIDE_COPY);
+
+    KeyArgs dstKeyArgs = copyKeyRequest.getDstKeyArgs();
+    OmUtils.verifyKeyNameWithSnapshotReservedWord(dstKeyArgs.getKeyName());
+    if (ozoneManager.getConfig().isKeyNameCharacterCheckEnabled()) {
+      OmUtils.validateKeyName(dstKeyArgs.getKeyName());
+    }
+
+    KeyArgs srcKeyArgs = resolveBucketLink(ozoneManager,
+        copyKeyRequest.getSrcKeyArgs());
+    checkKeyAcls(ozoneManager, srcKeyArgs.getVolumeName(),
+        srcKeyArgs.getBucketName(), srcKeyArgs.getKeyName(),
+        IAccessAuthorizer.ACLType.READ, OzoneObj.ResourceType.KEY);
+
+    dstKeyArgs = resolveBucketAndCheckKeyAcls(dstKeyArgs.toBuilder()
+            .setModificationTime(Time.now()).build(), ozoneManager,
+        IAccessAuthorizer.ACLType.CREATE);
+
+    return getOmRequest().toBuilder()
+        .setCopyKeyRequest(copyKeyRequest.toBuilder()
+            .setSrcKeyArgs(srcKeyArgs)
+            .setDstKeyArgs(dstKeyArgs))
+        .setUserInfo(getUserIfNotExists(ozoneManager)).build();
+  }
+
+  @Override
+  @SuppressWarnings("methodlength")
+  public OMClientResponse validateAndUpdateCache(OzoneManager ozoneManager, ExecutionContext context) {
+    final long trxnLogIndex = context.getIndex();
+
+    CopyKeyRequest copyKeyRequest = getOmRequest().getCopyKeyRequest();
+    KeyArgs srcKeyArgs = copyKeyRequest.getSrcKeyArgs();
+    KeyArgs dstKeyArgs = copyKeyRequest.getDstKeyArgs();
+    Map<String, String> auditMap = buildAuditMap(srcKeyArgs, dstKeyArgs);
+
+    String srcVolumeName = srcKeyArgs.getVolumeName();
+    String srcBucketName = srcKeyArgs.getBucketName();
+    String volumeName = dstKeyArgs.getVolumeName();
+    String bucketName = dstKeyArgs.getBucketName();
+    String keyName = dstKeyArgs.getKeyName();
+    boolean isPart = dstKeyArgs.hasMultipartUploadID();
+
+    OMMetrics omMetrics = ozoneManager.getMetrics();
+    omMetrics.incNumKeyCopies();
+
+    OMResponse.Builder omResponse = OmResponseUtil.getOMResponseBuilder(
+        getOmRequest());
+
+    OMMetadataManager omMetadataManager = ozoneManager.getMetadataManager();
+    List<String[]> buckets = Arrays.asList(
+        new String[] {srcVolumeName, srcBucketName},
+        new String[] {volumeName, bucketName});
+    boolean acquiredLock = false;
+    OMClientResponse omClientResponse = null;
+    Exception exception = null;
+    Result result;
+    try {
+      if (keyName.isEmpty() || srcKeyArgs.getKeyName().isEmpty()) {
+        throw new OMException("Key name is empty",
+            OMException.ResultCodes.INVALID_KEY_NAME);
+      }
+      mergeOmLockDetails(omMetadataManager.getLock()
+          .acquireWriteLocks(BUCKET_LOCK, buckets));
+      acquiredLock = getOmLockDetails().isLockAcquired();
+
+      validateBucketAndVolume(omMetadataManager, volumeName, bucketName);
+      OmBucketInfo omBucketInfo =
+          getBucketInfo(omMetadataManager, volumeName, bucketName);
+      OmBucketInfo srcBucketInfo =
+          getBucketInfo(omMetadataManager, srcVolumeName, srcBucketName);
+      if (srcBucketInfo == null) {
+        throw new OMException("Bucket not found " + srcBucketName,
+            BUCKET_NOT_FOUND);
+      }
+      checkCopySupported(ozoneManager, srcBucketInfo, omBucketInfo);
+
+      OmKeyInfo srcKeyInfo = getSourceKey(omMetadataManager, srcBucketInfo,
+          srcKeyArgs);
+
+      long objectID = ozoneManager.getObjectIdFromTxId(trxnLogIndex);
+      OmKeyInfo newKeyInfo = createFileInfo(dstKeyArgs,
+          copyLatestLocations(srcKeyInfo), srcKeyInfo.getReplicationConfig(),
+          srcKeyInfo.getDataSize(), null, ozoneManager.getPrefixManager(),
+          omBucketInfo, null, trxnLogIndex, objectID, ozoneManager.getConfig());
+      newKeyInfo.getLatestVersionLocations().setMultipartKey(
+          srcKeyInfo.getLatestVersionLocations().isMultipartKey());
+
+      if (isPart) {
+        omClientResponse = copyToPart(omMetadataManager, omResponse,
+            dstKeyArgs, newKeyInfo, omBucketInfo, trxnLogIndex);
+      } else {
+        omClientResponse = copyToKey(ozoneManager, omResponse,
+            newKeyInfo, omBucketInfo, objectID, trxnLogIndex);
+      }
+      result = Result.SUCCESS;
+    } catch (IOException | InvalidPathException ex) {
+      result = Result.FAILURE;
+      exception = ex;
+      omClientResponse = new OMKeyCopyResponse(createErrorOMResponse(
+          omResponse, exception), getBucketLayout());
+    } finally {
+      if (acquiredLock) {
+        mergeOmLockDetails(omMetadataManager.getLock()
+            .releaseWriteLocks(BUCKET_LOCK, buckets));
+      }
+      if (omClientResponse != null) {
+        omClientResponse.setOmLockDetails(getOmLockDetails());
+      }
+    }
+
+    markForAudit(ozoneManager.getAuditLogger(), buildAuditMessage(
+        OMAction.COPY_KEY, auditMap, exception,
+        getOmRequest().getUserInfo()));
+
+    switch (result) {
+    case SUCCESS:
+      LOG.debug("Copy Key is successfully completed for srcKey:{}/{}/{} " +
+              "dstKey:{}/{}/{}.", srcVolumeName, srcBucketName,
+          srcKeyArgs.getKeyName(), volumeName, bucketName, keyName);
+      break;
+    case FAILURE:
+      omMetrics.incNumKeyCopyFails();
+      if (exception instanceof OMException && ((OMException) exception)
+          .getResult() == NOT_SUPPORTED_OPERATION) {
+        // expected, the client falls back to copying the data
+        LOG.debug("Copy key not supported for srcKey:{}/{}/{} " +
+                "dstKey:{}/{}/{}. {}", srcVolumeName, srcBucketName,
+            srcKeyArgs.getKeyName(), volumeName, bucketName, keyName,
+            exception.getMessage());
+      } else {
+        LOG.error("Copy key failed for srcKey:{}/{}/{} dstKey:{}/{}/{}. " +
+                "Exception: {}.", srcVolumeName, srcBucketName,
+            srcKeyArgs.getKeyName(), volumeName, bucketName, keyName,
+            exception.getMessage());
+      }
+      break;
+    default:
+      LOG.error("Unrecognized Result for OMKeyCopyRequest: {}",
+          copyKeyRequest);
+    }
+    return omClientResponse;
+  }
+
+  private void checkCopySupported(OzoneManager ozoneManager,
+      OmBucketInfo srcBucketInfo, OmBucketInfo omBucketInfo)
+      throws OMException {
+    if (srcBucketInfo.getBucketLayout().isFileSystemOptimized()) {
+      throw new OMException("Copy key is not supported from " +
+          srcBucketInfo.getBucketLayout() + " bucket",
+          NOT_SUPPORTED_OPERATION);
+    }
+    if (omBucketInfo.getBucketLayout()
+        .shouldNormalizePaths(ozoneManager.getEnableFileSystemPaths())) {
+      throw new OMException("Copy key is not supported to a bucket with " +
+          "file system paths", NOT_SUPPORTED_OPERATION);
+    }
+    if (omBucketInfo.getEncryptionKeyInfo() != null) {
+      throw new OMException("Copy key is not supported to encrypted bucket",
+          NOT_SUPPORTED_OPERATION);
+    }
+    if (omBucketInfo.getIsVersionEnabled()) {
+      throw new OMException("Copy key is not supported to versioned bucket",
+          NOT_SUPPORTED_OPERATION);
+    }
+  }
+
+  private OmKeyInfo getSourceKey(OMMetadataManager omMetadataManager,
+      OmBucketInfo srcBucketInfo, KeyArgs srcKeyArgs) throws IOException {
+    String srcKey = omMetadataManager.getOzoneKey(srcKeyArgs.getVolumeName(),
+        srcKeyArgs.getBucketName(), srcKeyArgs.getKeyName());
+    OmKeyInfo srcKeyInfo = omMetadataManager
+        .getKeyTable(srcBucketInfo.getBucketLayout()).get(srcKey);
+    if (srcKeyInfo == null) {
+      throw new OMException("Key not found " + srcKey, KEY_NOT_FOUND);
+    }
+    if (srcKeyArgs.hasExpectedDataGeneration()
+        && srcKeyInfo.getUpdateID() != srcKeyArgs.getExpectedDataGeneration()) {
+      throw new OMException("Generation mismatch during copy of " + srcKey,
+          KEY_NOT_FOUND);
+    }
+    if (srcKeyInfo.getFileEncryptionInfo() != null) {
+      throw new OMException("Copy key is not supported for encrypted key " +
+          srcKey, NOT_SUPPORTED_OPERATION);
+    }
+    if (srcKeyInfo.isHsync()) {
+      throw new OMException("Copy key is not supported for open key " +
+          srcKey, NOT_SUPPORTED_OPERATION);
+    }
+    return srcKeyInfo;
+  }
+
+  private OMClientResponse copyToKey(OzoneManager ozoneManager,
+      OMResponse.Builder omResponse, OmKeyInfo newKeyInfo,
+      OmBucketInfo omBucketInfo, long objectID, long trxnLogIndex)
+      throws IOException {
+    OMMetadataManager omMetadataManager = ozoneManager.getMetadataManager();
+    Table<String, OmKeyInfo> keyTable =
+        omMetadataManager.getKeyTable(getBucketLayout());
+    String dbOzoneKey = omMetadataManager.getOzoneKey(
+        newKeyInfo.getVolumeName(), newKeyInfo.getBucketName(),
+        newKeyInfo.getKeyName());
+
+    OmKeyInfo keyToDelete = keyTable.get(dbOzoneKey);
+    long correctedSpace = newKeyInfo.getReplicatedSize();
+    Map<String, RepeatedOmKeyInfo> oldKeyVersionsToDeleteMap = null;
+    if (keyToDelete != null) {
+      if (keyToDelete.isHsync()) {
+        throw new OMException("Copy key is not supported to open key " +
+            dbOzoneKey, NOT_SUPPORTED_OPERATION);
+      }
+      correctedSpace -= keyToDelete.getReplicatedSize();
+      checkBucketQuotaInBytes(omMetadataManager, omBucketInfo,
+          correctedSpace);
+      // The overwritten key keeps its references to shared blocks until it
+      // is purged, so blocks still used by the new key are not filtered out.
+      // objectID + 1 is reserved by this transaction for the delete path,
+      // which must differ from the one of the new key.
+      String delKeyName = omMetadataManager.getOzoneDeletePathKey(
+          objectID + 1, dbOzoneKey);
+      oldKeyVersionsToDeleteMap = Collections.singletonMap(delKeyName,
+          getOldVersionsToCleanUp(keyToDelete, trxnLogIndex));
+    } else {
+      checkBucketQuotaInNamespace(omBucketInfo, 1L);
+      checkBucketQuotaInBytes(omMetadataManager, omBucketInfo,
+          correctedSpace);
+      omBucketInfo.incrUsedNamespace(1L);
+    }
+    omBucketInfo.incrUsedBytes(correctedSpace);
+
+    Map<String, Long> sharedBlocks = addSharedBlockReferences(
+        omMetadataManager, newKeyInfo, trxnLogIndex);
+    keyTable.addCacheEntry(dbOzoneKey, newKeyInfo, trxnLogIndex);
+
+    omResponse.setCopyKeyResponse(CopyKeyResponse.newBuilder()
+        .setKeyInfo(newKeyInfo.getNetworkProtobuf(
+            getOmRequest().getVersion(), true)));
+    return new OMKeyCopyResponse(omResponse.build(), dbOzoneKey, newKeyInfo,
+        oldKeyVersionsToDeleteMap, omBucketInfo.copyObject(), sharedBlocks,
+        getBucketLayout());
+  }
+
+  private OMClientResponse copyToPart(OMMetadataManager omMetadataManager,
+      OMResponse.Builder omResponse, KeyArgs dstKeyArgs, OmKeyInfo partKeyInfo,
+      OmBucketInfo omBucketInfo, long trxnLogIndex) throws IOException {
+    String uploadID = dstKeyArgs.getMultipartUploadID();
+    int partNumber = dstKeyArgs.getMultipartNumber();
+    String multipartKey = omMetadataManager.getMultipartKey(
+        dstKeyArgs.getVolumeName(), dstKeyArgs.getBucketName(),
+        dstKeyArgs.getKeyName(), uploadID);
+    OmMultipartKeyInfo multipartKeyInfo =
+        omMetadataManager.getMultipartInfoTable().get(multipartKey);
+    if (multipartKeyInfo == null) {
+      throw new OMException("No such Multipart upload is with specified " +
+          "uploadId " + uploadID, NO_SUCH_MULTIPART_UPLOAD_ERROR);
+    }
+    if (!partKeyInfo.getReplicationConfig()
+        .equals(multipartKeyInfo.getReplicationConfig())) {
+      throw new OMException("Copy key is not supported for part with " +
+          "replication " + partKeyInfo.getReplicationConfig() +
+          " different from " + multipartKeyInfo.getReplicationConfig(),
+          NOT_SUPPORTED_OPERATION);
+    }
+    checkNoBlockSharedWithOtherParts(multipartKeyInfo, partNumber,
+        partKeyInfo);
+
+    String partName = S3MultipartUploadCommitPartRequest.getPartName(
+        omMetadataManager.getOzoneKey(dstKeyArgs.getVolumeName(),
+            dstKeyArgs.getBucketName(), dstKeyArgs.getKeyName()),
+        uploadID, partNumber);
+    PartKeyInfo oldPartKeyInfo = multipartKeyInfo.getPartKeyInfo(partNumber);
+
+    long correctedSpace = partKeyInfo.getReplicatedSize();
+    if (oldPartKeyInfo != null) {
+      correctedSpace -= OmKeyInfo.getFromProtobuf(
+          oldPartKeyInfo.getPartKeyInfo()).getReplicatedSize();
+    }
+    checkBucketQuotaInBytes(omMetadataManager, omBucketInfo, correctedSpace);
+    omBucketInfo.incrUsedBytes(correctedSpace);
+
+    Map<String, Long> sharedBlocks = addSharedBlockReferences(
+        omMetadataManager, partKeyInfo, trxnLogIndex);
+    multipartKeyInfo.addPartKeyInfo(PartKeyInfo.newBuilder()
+        .setPartName(partName)
+        .setPartNumber(partNumber)
+        .setPartKeyInfo(partKeyInfo.getProtobuf(getOmRequest().getVersion()))
+        .build());
+    multipartKeyInfo.setUpdateID(trxnLogIndex);
+    omMetadataManager.getMultipartInfoTable().addCacheEntry(
+        multipartKey, multipartKeyInfo, trxnLogIndex);
+
+    omResponse.setCopyKeyResponse(CopyKeyResponse.newBuilder()
+        .setPartName(partName));
+    return new OMKeyCopyResponse(omResponse.build(), multipartKey,
+        multipartKeyInfo, oldPartKeyInfo, omBucketInfo.copyObject(),
+        sharedBlocks, getBucketLayout());
+  }
+
+  /**
+   * A key must not refer to the same block more than once, since references
+   * are counted per key. Completing the upload would merge the parts into a
+   * single key.
+   */
+  private static void checkNoBlockSharedWithOtherParts(
+      OmMultipartKeyInfo multipartKeyInfo, int partNumber,
+      OmKeyInfo partKeyInfo) throws IOException {
+    Set<ContainerBlockID> blocks = getLatestBlocks(partKeyInfo);
+    for (PartKeyInfo part : multipartKeyInfo.getPartKeyInfoMap()) {
+      if (part.getPartNumber() == partNumber) {
+        continue;
+      }
+      OmKeyInfo otherPart = OmKeyInfo.getFromProtobuf(part.getPartKeyInfo());
+      for (OmKeyLocationInfoGroup group : otherPart.getKeyLocationVersions()) {
+        for (OmKeyLocationInfo location : group.getLocationList()) {
+          if (blocks.contains(location.getBlockID().getContainerBlockID())) {
+            throw new OMException("Copy key is not supported for part " +
+                "sharing blocks with part " + part.getPartNumber(),
+                NOT_SUPPORTED_OPERATION);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * @return the blocks of the latest version of the source key, as blocks of
+   * version 0 of a new key.
+   */
+  private static List<OmKeyLocationInfo> copyLatestLocations(
+      OmKeyInfo srcKeyInfo) {
+    List<OmKeyLocationInfo> locations = new ArrayList<>();
+    for (OmKeyLocationInfo location
+        : srcKeyInfo.getLatestVersionLocations().getLocationList()) {
+      locations.add(new OmKeyLocationInfo.Builder()
+          .setBlockID(location.getBlockID())
+          .setPipeline(location.getPipeline())
+          .setOffset(location.getOffset())
+          .setLength(location.getLength())
+          .setPartNumber(location.getPartNumber())
+          .setCreateVersion(0)
+          .build());
+    }
+    return locations;
+  }
+
+  private static Set<ContainerBlockID> getLatestBlocks(OmKeyInfo keyInfo) {
+    Set<ContainerBlockID> blocks = new LinkedHashSet<>();
+    for (OmKeyLocationInfo location
+        : keyInfo.getLatestVersionLocations().getLocationList()) {
+      blocks.add(location.getBlockID().getContainerBlockID());
+    }
+    return blocks;
+  }
+
+  /**
+   * Add a reference from the new key to each of its blocks in the
+   * sharedBlockTable cache.
+   * @return the updated reference count of each block.
+   */
+  private static Map<String, Long> addSharedBlockReferences(
+      OMMetadataManager omMetadataManager, OmKeyInfo newKeyInfo,
+      long trxnLogIndex) throws IOException {
+    Table<String, Long> sharedBlockTable =
+        omMetadataManager.getSharedBlockTable();
+    Map<String, Long> refCounts = new HashMap<>();
+    for (ContainerBlockID block : getLatestBlocks(newKeyInfo)) {
+      String key = omMetadataManager.getSharedBlockKey(
+          block.getContainerID(), block.getLocalID());
+      Long refCount = sharedBlockTable.get(key);
+      long newRefCount = refCount == null ? 1 : refCount + 1;
+      refCounts.put(key, newRefCount);
+      sharedBlockTable.addCacheEntry(key, newRefCount, trxnLogIndex);
+    }
+    return refCounts;
+  }
+
+  private Map<String, String> buildAuditMap(KeyArgs srcKeyArgs,
+      KeyArgs dstKeyArgs) {
+    Map<String, String> auditMap = buildKeyArgsAuditMap(dstKeyArgs);
+    auditMap.remove(OzoneConsts.KEY);
+    auditMap.put(OzoneConsts.SRC_KEY, srcKeyArgs.getVolumeName() +
+        OzoneConsts.OM_KEY_PREFIX + srcKeyArgs.getBucketName() +
+        OzoneConsts.OM_KEY_PREFIX + srcKeyArgs.getKeyName());
+    auditMap.put(OzoneConsts.DST_KEY, dstKeyArgs.getKeyName());
+    if (dstKeyArgs.hasMultipartUploadID()) {
+      auditMap.put(OzoneConsts.UPLOAD_ID, dstKeyArgs.getMultipartUploadID());
+      auditMap.put(OzoneConsts.MULTIPART_UPLOAD_PART_NUMBER,
+          String.valueOf(dstKeyArgs.getMultipartNumber()));
+    }
+    return auditMap;
+  }
+
+  @RequestFeatureValidator(
+      conditions = ValidationCondition.CLUSTER_NEEDS_FINALIZATION,
+      processingPhase = RequestProcessingPhase.PRE_PROCESS,
+      requestType = Type.CopyKey
+  )
+  public static OMRequest disallowCopyKeyBeforeFinalization(
+      OMRequest req, ValidationContext ctx) throws OMException {
+    if (!ctx.versionManager().isAllowed(OMLayoutFeature.SERVER_SIDE_COPY)) {
+      throw new OMException("Cluster does not have the server side copy " +
+          "feature finalized yet. Rejecting the request, please finalize " +
+          "the cluster upgrade and then try again.",
+          OMException.ResultCodes.NOT_SUPPORTED_OPERATION_PRIOR_FINALIZATION);
+    }
+    return req;
+  }
+}
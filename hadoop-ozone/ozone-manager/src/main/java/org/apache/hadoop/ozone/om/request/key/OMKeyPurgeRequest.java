@@ -22,12 +22,16 @@
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import org.apache.hadoop.hdds.protocol.proto.HddsProtos.ContainerBlockID;
 import org.apache.hadoop.hdds.utils.TransactionInfo;
 import org.apache.hadoop.hdds.utils.db.cache.CacheKey;
 import org.apache.hadoop.hdds.utils.db.cache.CacheValue;
 import org.apache.hadoop.ozone.om.DeletingServiceMetrics;
+import org.apache.hadoop.ozone.om.OMMetadataManager;
 import org.apache.hadoop.ozone.om.OmMetadataManagerImpl;
 import org.apache.hadoop.ozone.om.OzoneManager;
 import org.apache.hadoop.ozone.om.exceptions.OMException;
@@ -122,8 +126,48 @@ public OMClientResponse validateAndUpdateCache(OzoneManager ozoneManager, Execut
       return new OMKeyPurgeResponse(createErrorOMResponse(omResponse, e));
     }
 
+    Map<String, Long> sharedBlocks;
+    try {
+      sharedBlocks = releaseSharedBlocks(omMetadataManager,
+          purgeKeysRequest.getReleasedSharedBlocksList(), context.getIndex());
+    } catch (IOException e) {
+      return new OMKeyPurgeResponse(createErrorOMResponse(omResponse, e));
+    }
+
     return new OMKeyPurgeResponse(omResponse.build(),
-        keysToBePurgedList, renamedKeysToBePurged, fromSnapshotInfo, keysToUpdateList);
+        keysToBePurgedList, renamedKeysToBePurged, fromSnapshotInfo, keysToUpdateList, sharedBlocks);
+  }
+
+  /**
+   * Drop the references of the purged keys to blocks shared with other keys.
+   * Shared blocks are always tracked in the active DB, even if the keys are
+   * purged from a snapshot.
+   * @return the updated reference count of each block, 0 if the block is
+   * no longer shared.
+   */
+  private static Map<String, Long> releaseSharedBlocks(
+      OMMetadataManager omMetadataManager, List<ContainerBlockID> blocks,
+      long trxnLogIndex) throws IOException {
+    Map<String, Long> refCounts = new HashMap<>();
+    for (ContainerBlockID block : blocks) {
+      String key = omMetadataManager.getSharedBlockKey(
+          block.getContainerID(), block.getLocalID());
+      Long refCount = refCounts.get(key);
+      if (refCount == null) {
+        refCount = omMetadataManager.getSharedBlockTable().get(key);
+      }
+      refCounts.put(key, refCount == null ? 0 : Math.max(0, refCount - 1));
+    }
+    for (Map.Entry<String, Long> entry : refCounts.entrySet()) {
+      if (entry.getValue() == 0) {
+        omMetadataManager.getSharedBlockTable().addCacheEntry(
+            entry.getKey(), trxnLogIndex);
+      } else {
+        omMetadataManager.getSharedBlockTable().addCacheEntry(
+            entry.getKey(), entry.getValue(), trxnLogIndex);
+      }
+    }
+    return refCounts;
   }
 
 }
@@ -70,6 +70,7 @@
 import org.apache.hadoop.ozone.om.OzoneManager;
 import org.apache.hadoop.ozone.om.PrefixManager;
 import org.apache.hadoop.ozone.om.ResolvedBucket;
+import org.apache.hadoop.ozone.om.ScmBlockPool;
 import org.apache.hadoop.ozone.om.ScmClient;
 import org.apache.hadoop.ozone.om.exceptions.OMException;
 import org.apache.hadoop.ozone.om.helpers.BucketEncryptionKeyInfo;
@@ -204,9 +205,12 @@ protected List< OmKeyLocationInfo > allocateBlock(ScmClient scmClient,
     String remoteUser = getRemoteUser().getShortUserName();
     List<AllocatedBlock> allocatedBlocks;
     try {
-      allocatedBlocks = scmClient.getBlockClient()
-          .allocateBlock(scmBlockSize, numBlocks, replicationConfig, serviceID,
-              excludeList, clientMachine);
+      ScmBlockPool blockPool = scmClient.getBlockPool();
+      allocatedBlocks = blockPool != null
+          ? blockPool.allocateBlock(scmBlockSize, numBlocks, replicationConfig,
+              serviceID, excludeList, clientMachine)
+          : scmClient.getBlockClient().allocateBlock(scmBlockSize, numBlocks,
+              replicationConfig, serviceID, excludeList, clientMachine);
     } catch (SCMException ex) {
       omMetrics.incNumBlockAllocateCallFails();
       if (ex.getResult()
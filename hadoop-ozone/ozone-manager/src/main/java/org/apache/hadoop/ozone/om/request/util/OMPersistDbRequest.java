@@ -0,0 +1,296 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.request.util;
+
+import static org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes.INVALID_REQUEST;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.protobuf.ByteString;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.hadoop.hdds.protocol.proto.HddsProtos;
+import org.apache.hadoop.hdds.utils.db.Codec;
+import org.apache.hadoop.hdds.utils.db.DBColumnFamilyDefinition;
+import org.apache.hadoop.hdds.utils.db.Table;
+import org.apache.hadoop.hdds.utils.db.cache.CacheKey;
+import org.apache.hadoop.hdds.utils.db.cache.CacheValue;
+import org.apache.hadoop.ozone.om.OMMetadataManager;
+import org.apache.hadoop.ozone.om.OMMetrics;
+import org.apache.hadoop.ozone.om.OzoneManager;
+import org.apache.hadoop.ozone.om.codec.OMDBDefinition;
+import org.apache.hadoop.ozone.om.exceptions.OMException;
+import org.apache.hadoop.ozone.om.execution.OMLeaderExecutor;
+import org.apache.hadoop.ozone.om.execution.flowcontrol.ExecutionContext;
+import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.apache.hadoop.ozone.om.ratis.OzoneManagerRatisServer;
+import org.apache.hadoop.ozone.om.request.OMClientRequest;
+import org.apache.hadoop.ozone.om.response.OMClientResponse;
+import org.apache.hadoop.ozone.om.response.util.OMPersistDbResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.DBTableRecord;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.DBTableUpdate;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.PersistDbRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Handles PersistDb request, which carries the DB changes of a request
+ * executed on the leader OM by {@link OMLeaderExecutor}.
+ * <p>
+ * The leader has updated its table cache already while executing the
+ * request. The other OMs update the cache here, with the same epoch as the
+ * leader, and the metrics the request would have updated.
+ */
+public class OMPersistDbRequest extends OMClientRequest {
+  private static final Logger LOG =
+      LoggerFactory.getLogger(OMPersistDbRequest.class);
+
+  /** The requests which update the number of keys in the OM metrics. */
+  private static final Set<Type> KEY_COUNT_TYPES = EnumSet.of(
+      Type.CreateKey,
+      Type.CreateFile,
+      Type.CreateDirectory,
+      Type.CommitKey,
+      Type.DeleteKey);
+  /** The tables counted in the number of keys. */
+  private static final Set<String> KEY_TABLES = ImmutableSet.of(
+      OMDBDefinition.KEY_TABLE,
+      OMDBDefinition.FILE_TABLE,
+      OMDBDefinition.DIRECTORY_TABLE);
+  private static final Set<String> COMMITTED_KEY_TABLES = ImmutableSet.of(
+      OMDBDefinition.KEY_TABLE,
+      OMDBDefinition.FILE_TABLE);
+
+  public OMPersistDbRequest(OMRequest omRequest) {
+    super(omRequest);
+  }
+
+  @Override
+  public OMRequest preExecute(OzoneManager ozoneManager) throws IOException {
+    throw new OMException("PersistDb request can only be submitted by "
+        + "the leader OM", INVALID_REQUEST);
+  }
+
+  @Override
+  public OMClientResponse validateAndUpdateCache(OzoneManager ozoneManager,
+      ExecutionContext context) {
+    final PersistDbRequest request = getOmRequest().getPersistDbRequest();
+    final OzoneManagerRatisServer ratisServer = ozoneManager.getOmRatisServer();
+    final OMLeaderExecutor leaderExecutor =
+        ratisServer == null ? null : ratisServer.getLeaderExecutor();
+    if (leaderExecutor == null
+        || !leaderExecutor.completeExecution(request)) {
+      final long numKeys;
+      try {
+        numKeys = updateCache(ozoneManager.getMetadataManager(), request);
+      } catch (IOException e) {
+        // the cache would be different from the leader
+        throw new IllegalStateException("Failed to update the cache for "
+            + "the changes of index " + request.getIndex(), e);
+      }
+      updateMetrics(ozoneManager.getMetrics(), request, numKeys);
+    }
+    return new OMPersistDbResponse(request);
+  }
+
+  /**
+   * Replace the cache entries of changes which will not be applied, since
+   * they have been dropped from the log, with the values in the DB.
+   */
+  public static void restoreCache(OMMetadataManager metadataManager,
+      PersistDbRequest request) throws IOException {
+    for (DBTableUpdate update : request.getTableUpdatesList()) {
+      restoreCacheEntries(metadataManager.getTable(update.getTableName()),
+          getDefinition(update.getTableName()), update.getRecordsList(),
+          request.getIndex());
+    }
+  }
+
+  /**
+   * @param records a (table name -> (key -> value)) map, where a null value
+   * represents a delete.
+   * @return the records for {@link PersistDbRequest}.
+   */
+  public static List<DBTableUpdate> toTableUpdates(
+      Map<String, Map<ByteBuffer, byte[]>> records) {
+    final List<DBTableUpdate> updates = new ArrayList<>(records.size());
+    for (Map.Entry<String, Map<ByteBuffer, byte[]>> table
+        : records.entrySet()) {
+      final DBTableUpdate.Builder update = DBTableUpdate.newBuilder()
+          .setTableName(table.getKey());
+      for (Map.Entry<ByteBuffer, byte[]> record : table.getValue().entrySet()) {
+        final DBTableRecord.Builder tableRecord = DBTableRecord.newBuilder()
+            .setKey(ByteString.copyFrom(record.getKey().duplicate()));
+        if (record.getValue() != null) {
+          tableRecord.setValue(ByteString.copyFrom(record.getValue()));
+        }
+        update.addRecords(tableRecord);
+      }
+      updates.add(update.build());
+    }
+    return updates;
+  }
+
+  /**
+   * @return the number of keys and directories added, less those deleted,
+   * if the request changes the number of keys
+   */
+  private static long updateCache(OMMetadataManager metadataManager,
+      PersistDbRequest request) throws IOException {
+    final boolean countKeys =
+        KEY_COUNT_TYPES.contains(request.getResponse().getCmdType());
+    long numKeys = 0;
+    for (DBTableUpdate update : request.getTableUpdatesList()) {
+      numKeys += addCacheEntries(
+          metadataManager.getTable(update.getTableName()),
+          getDefinition(update.getTableName()), update.getRecordsList(),
+          request.getIndex(),
+          countKeys && KEY_TABLES.contains(update.getTableName()));
+    }
+    return numKeys;
+  }
+
+  private static DBColumnFamilyDefinition<?, ?> getDefinition(String table)
+      throws OMException {
+    final DBColumnFamilyDefinition<?, ?> definition =
+        OMDBDefinition.get().getColumnFamily(table);
+    if (definition == null) {
+      throw new OMException("Unknown table " + table, INVALID_REQUEST);
+    }
+    return definition;
+  }
+
+  /**
+   * @return the number of keys added, less those deleted, if countKeys is set
+   */
+  @SuppressWarnings("unchecked")
+  private static <K, V> long addCacheEntries(Table<?, ?> table,
+      DBColumnFamilyDefinition<K, V> definition, List<DBTableRecord> records,
+      long epoch, boolean countKeys) throws IOException {
+    final Table<K, V> typedTable = (Table<K, V>) table;
+    final Codec<K> keyCodec = definition.getKeyCodec();
+    final Codec<V> valueCodec = definition.getValueCodec();
+    long numKeys = 0;
+    for (DBTableRecord record : records) {
+      final K key = keyCodec.fromPersistedFormat(record.getKey().toByteArray());
+      if (countKeys && typedTable.isExist(key) != record.hasValue()) {
+        numKeys += record.hasValue() ? 1 : -1;
+      }
+      final CacheValue<V> value = record.hasValue()
+          ? CacheValue.get(epoch,
+              valueCodec.fromPersistedFormat(record.getValue().toByteArray()))
+          : CacheValue.get(epoch);
+      typedTable.addCacheEntry(new CacheKey<>(key), value);
+    }
+    return numKeys;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <K, V> void restoreCacheEntries(Table<?, ?> table,
+      DBColumnFamilyDefinition<K, V> definition, List<DBTableRecord> records,
+      long epoch) throws IOException {
+    final Table<K, V> typedTable = (Table<K, V>) table;
+    final Codec<K> keyCodec = definition.getKeyCodec();
+    for (DBTableRecord record : records) {
+      final K key = keyCodec.fromPersistedFormat(record.getKey().toByteArray());
+      final V value = typedTable.getSkipCache(key);
+      typedTable.addCacheEntry(new CacheKey<>(key), value != null
+          ? CacheValue.get(epoch, value) : CacheValue.get(epoch));
+    }
+  }
+
+  /**
+   * Update the metrics the request would have updated if it was executed
+   * on this OM.
+   */
+  private static void updateMetrics(OMMetrics omMetrics,
+      PersistDbRequest request, long numKeys) {
+    omMetrics.incNumKeys((int) numKeys);
+    switch (request.getResponse().getCmdType()) {
+    case CreateKey:
+      omMetrics.incNumKeyAllocates();
+      break;
+    case CreateFile:
+      omMetrics.incNumCreateFile();
+      break;
+    case CreateDirectory:
+      omMetrics.incNumCreateDirectory();
+      break;
+    case AllocateBlock:
+      omMetrics.incNumBlockAllocateCalls();
+      break;
+    case CommitKey:
+      omMetrics.incNumKeyCommits();
+      for (OmKeyInfo keyInfo : getCommittedKeys(request)) {
+        if (keyInfo.getReplicationConfig().getReplicationType()
+            == HddsProtos.ReplicationType.EC) {
+          omMetrics.incEcKeysTotal();
+        }
+        omMetrics.incDataCommittedBytes(keyInfo.getDataSize());
+      }
+      break;
+    case DeleteKey:
+      omMetrics.incNumKeyDeletes();
+      break;
+    case SetTimes:
+      omMetrics.incNumSetTime();
+      break;
+    case InitiateMultiPartUpload:
+      omMetrics.incNumInitiateMultipartUploads();
+      break;
+    case CommitMultiPartUpload:
+      omMetrics.incNumCommitMultipartUploadParts();
+      break;
+    case AbortMultiPartUpload:
+      omMetrics.incNumAbortMultipartUploads();
+      break;
+    case CompleteMultiPartUpload:
+      omMetrics.incNumCompleteMultipartUploads();
+      break;
+    default:
+      break;
+    }
+  }
+
+  private static List<OmKeyInfo> getCommittedKeys(PersistDbRequest request) {
+    final List<OmKeyInfo> keys = new ArrayList<>();
+    for (DBTableUpdate update : request.getTableUpdatesList()) {
+      if (!COMMITTED_KEY_TABLES.contains(update.getTableName())) {
+        continue;
+      }
+      for (DBTableRecord record : update.getRecordsList()) {
+        if (record.hasValue()) {
+          try {
+            keys.add(OmKeyInfo.getCodec(true)
+                .fromPersistedFormat(record.getValue().toByteArray()));
+          } catch (IOException e) {
+            LOG.warn("Failed to decode a key committed in {}",
+                update.getTableName(), e);
+          }
+        }
+      }
+    }
+    return keys;
+  }
+}
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.response.key;
+
+import static org.apache.hadoop.ozone.om.codec.OMDBDefinition.BUCKET_TABLE;
+import static org.apache.hadoop.ozone.om.codec.OMDBDefinition.DELETED_TABLE;
+import static org.apache.hadoop.ozone.om.codec.OMDBDefinition.KEY_TABLE;
+import static org.apache.hadoop.ozone.om.codec.OMDBDefinition.MULTIPART_INFO_TABLE;
+import static org.apache.hadoop.ozone.om.codec.OMDBDefinition.SHARED_BLOCK_TABLE;
+
+import com.google.common.annotations.VisibleForTesting;
+import jakarta.annotation.Nonnull;
+import java.io.IOException;
+import java.util.Map;
+import org.apache.hadoop.hdds.utils.db.BatchOperation;
+import org.apache.hadoop.ozone.OmUtils;
+import org.apache.hadoop.ozone.om.OMMetadataManager;
+import org.apache.hadoop.ozone.om.helpers.BucketLayout;
+import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
+import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.apache.hadoop.ozone.om.helpers.OmMultipartKeyInfo;
+import org.apache.hadoop.ozone.om.helpers.RepeatedOmKeyInfo;
+import org.apache.hadoop.ozone.om.response.CleanupTableInfo;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.PartKeyInfo;
+
+/**
+ * Response for CopyKey request.
+ */
+@CleanupTableInfo(cleanupTables = {KEY_TABLE, DELETED_TABLE,
+    MULTIPART_INFO_TABLE, BUCKET_TABLE, SHARED_BLOCK_TABLE})
+public class OMKeyCopyResponse extends OmKeyResponse {
+
+  private String ozoneKeyName;
+  private OmKeyInfo omKeyInfo;
+  private Map<String, RepeatedOmKeyInfo> keyToDeleteMap;
+  private String multipartKey;
+  private OmMultipartKeyInfo omMultipartKeyInfo;
+  private PartKeyInfo oldPartKeyInfo;
+  private OmBucketInfo omBucketInfo;
+  private Map<String, Long> sharedBlocks;
+
+  /**
+   * Response for copying to a key.
+   */
+  @SuppressWarnings("checkstyle:ParameterNumber")
+  public OMKeyCopyResponse(@Nonnull OMResponse omResponse,
+      @Nonnull String ozoneKeyName, @Nonnull OmKeyInfo omKeyInfo,
+      Map<String, RepeatedOmKeyInfo> keyToDeleteMap,
+      @Nonnull OmBucketInfo omBucketInfo,
+      @Nonnull Map<String, Long> sharedBlocks,
+      @Nonnull BucketLayout bucketLayout) {
+    super(omResponse, bucketLayout);
+    this.ozoneKeyName = ozoneKeyName;
+    this.omKeyInfo = omKeyInfo;
+    this.keyToDeleteMap = keyToDeleteMap;
+    this.omBucketInfo = omBucketInfo;
+    this.sharedBlocks = sharedBlocks;
+  }
+
+  /**
+   * Response for copying to a part of a multipart upload.
+   */
+  @SuppressWarnings("checkstyle:ParameterNumber")
+  public OMKeyCopyResponse(@Nonnull OMResponse omResponse,
+      @Nonnull String multipartKey,
+      @Nonnull OmMultipartKeyInfo omMultipartKeyInfo,
+      PartKeyInfo oldPartKeyInfo,
+      @Nonnull OmBucketInfo omBucketInfo,
+      @Nonnull Map<String, Long> sharedBlocks,
+      @Nonnull BucketLayout bucketLayout) {
+    super(omResponse, bucketLayout);
+    this.multipartKey = multipartKey;
+    this.omMultipartKeyInfo = omMultipartKeyInfo;
+    this.oldPartKeyInfo = oldPartKeyInfo;
+    this.omBucketInfo = omBucketInfo;
+    this.sharedBlocks = sharedBlocks;
+  }
+
+  /**
+   * For when the request is not successful.
+   * For a successful request, the other constructors should be used.
+   */
+  public OMKeyCopyResponse(@Nonnull OMResponse omResponse,
+      @Nonnull BucketLayout bucketLayout) {
+    super(omResponse, bucketLayout);
+    checkStatusNotOK();
+  }
+
+  @Override
+  public void addToDBBatch(OMMetadataManager omMetadataManager,
+      BatchOperation batchOperation) throws IOException {
+
+    if (omMultipartKeyInfo != null) {
+      // The replaced part keeps its blocks until it is purged by the
+      // KeyDeletingService.
+      if (oldPartKeyInfo != null) {
+        OmKeyInfo partKeyToBeDeleted =
+            OmKeyInfo.getFromProtobuf(oldPartKeyInfo.getPartKeyInfo());
+        RepeatedOmKeyInfo repeatedOmKeyInfo = OmUtils.prepareKeyForDelete(
+            partKeyToBeDeleted, omMultipartKeyInfo.getUpdateID());
+        String deleteKey = omMetadataManager.getOzoneDeletePathKey(
+            partKeyToBeDeleted.getObjectID(), multipartKey);
+        omMetadataManager.getDeletedTable().putWithBatch(batchOperation,
+            deleteKey, repeatedOmKeyInfo);
+      }
+      omMetadataManager.getMultipartInfoTable().putWithBatch(batchOperation,
+          multipartKey, omMultipartKeyInfo);
+    } else {
+      omMetadataManager.getKeyTable(getBucketLayout())
+          .putWithBatch(batchOperation, ozoneKeyName, omKeyInfo);
+      if (keyToDeleteMap != null) {
+        for (Map.Entry<String, RepeatedOmKeyInfo> entry
+            : keyToDeleteMap.entrySet()) {
+          omMetadataManager.getDeletedTable().putWithBatch(batchOperation,
+              entry.getKey(), entry.getValue());
+        }
+      }
+    }
+
+    for (Map.Entry<String, Long> entry : sharedBlocks.entrySet()) {
+      omMetadataManager.getSharedBlockTable().putWithBatch(batchOperation,
+          entry.getKey(), entry.getValue());
+    }
+
+    // update bucket usedBytes.
+    omMetadataManager.getBucketTable().putWithBatch(batchOperation,
+        omMetadataManager.getBucketKey(omBucketInfo.getVolumeName(),
+            omBucketInfo.getBucketName()), omBucketInfo);
+  }
+
+  @VisibleForTesting
+  public Map<String, RepeatedOmKeyInfo> getKeysToDelete() {
+    return keyToDeleteMap;
+  }
+
+  @VisibleForTesting
+  public Map<String, Long> getSharedBlocks() {
+    return sharedBlocks;
+  }
+}
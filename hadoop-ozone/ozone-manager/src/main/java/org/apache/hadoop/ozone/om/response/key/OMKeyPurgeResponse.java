@@ -18,12 +18,15 @@
 package org.apache.hadoop.ozone.om.response.key;
 
 import static org.apache.hadoop.ozone.om.codec.OMDBDefinition.DELETED_TABLE;
+import static org.apache.hadoop.ozone.om.codec.OMDBDefinition.SHARED_BLOCK_TABLE;
 import static org.apache.hadoop.ozone.om.codec.OMDBDefinition.SNAPSHOT_INFO_TABLE;
 import static org.apache.hadoop.ozone.om.response.snapshot.OMSnapshotMoveDeletedKeysResponse.createRepeatedOmKeyInfo;
 
 import jakarta.annotation.Nonnull;
 import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import org.apache.hadoop.hdds.utils.db.BatchOperation;
 import org.apache.hadoop.hdds.utils.db.DBStore;
 import org.apache.hadoop.ozone.om.OMMetadataManager;
@@ -42,23 +45,36 @@
 /**
  * Response for {@link OMKeyPurgeRequest} request.
  */
-@CleanupTableInfo(cleanupTables = {DELETED_TABLE, SNAPSHOT_INFO_TABLE})
+@CleanupTableInfo(cleanupTables = {DELETED_TABLE, SNAPSHOT_INFO_TABLE,
+    SHARED_BLOCK_TABLE})
 public class OMKeyPurgeResponse extends OmKeyResponse {
   private List<String> purgeKeyList;
   private List<String> renamedList;
   private SnapshotInfo fromSnapshot;
   private List<SnapshotMoveKeyInfos> keysToUpdateList;
+  private Map<String, Long> sharedBlocks;
 
   public OMKeyPurgeResponse(@Nonnull OMResponse omResponse,
       @Nonnull List<String> keyList,
       @Nonnull List<String> renamedList,
       SnapshotInfo fromSnapshot,
       List<SnapshotMoveKeyInfos> keysToUpdate) {
+    this(omResponse, keyList, renamedList, fromSnapshot, keysToUpdate,
+        Collections.emptyMap());
+  }
+
+  public OMKeyPurgeResponse(@Nonnull OMResponse omResponse,
+      @Nonnull List<String> keyList,
+      @Nonnull List<String> renamedList,
+      SnapshotInfo fromSnapshot,
+      List<SnapshotMoveKeyInfos> keysToUpdate,
+      @Nonnull Map<String, Long> sharedBlocks) {
     super(omResponse);
     this.purgeKeyList = keyList;
     this.renamedList = renamedList;
     this.fromSnapshot = fromSnapshot;
     this.keysToUpdateList = keysToUpdate;
+    this.sharedBlocks = sharedBlocks;
   }
 
   /**
@@ -96,6 +112,17 @@ public void addToDBBatch(OMMetadataManager omMetadataManager,
       processKeys(batchOperation, omMetadataManager);
       processKeysToUpdate(batchOperation, omMetadataManager);
     }
+
+    // Shared blocks are tracked in the active DB only.
+    for (Map.Entry<String, Long> entry : sharedBlocks.entrySet()) {
+      if (entry.getValue() == 0) {
+        omMetadataManager.getSharedBlockTable().deleteWithBatch(
+            batchOperation, entry.getKey());
+      } else {
+        omMetadataManager.getSharedBlockTable().putWithBatch(batchOperation,
+            entry.getKey(), entry.getValue());
+      }
+    }
   }
 
   private void processKeysToUpdate(BatchOperation batchOp,
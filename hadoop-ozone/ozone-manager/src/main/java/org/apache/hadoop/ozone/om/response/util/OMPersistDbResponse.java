@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.response.util;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.hadoop.hdds.utils.db.BatchOperation;
+import org.apache.hadoop.hdds.utils.db.Table;
+import org.apache.hadoop.ozone.om.OMMetadataManager;
+import org.apache.hadoop.ozone.om.response.CleanupTableInfo;
+import org.apache.hadoop.ozone.om.response.OMClientResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.DBTableRecord;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.DBTableUpdate;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.PersistDbRequest;
+
+/**
+ * Response for PersistDb request, writes the DB changes of a request executed
+ * on the leader OM.
+ * <p>
+ * Any table may be changed. The cache entries of the changes have the index
+ * of the original execution as epoch, so the double buffer cleans up the
+ * tables of {@link #getTableNames()} with the epoch {@link #getIndex()}.
+ */
+@CleanupTableInfo(cleanupAll = true)
+public class OMPersistDbResponse extends OMClientResponse {
+
+  private final PersistDbRequest request;
+
+  public OMPersistDbResponse(PersistDbRequest request) {
+    super(request.getResponse());
+    this.request = request;
+  }
+
+  /**
+   * @return the index the request was executed with on the leader.
+   */
+  public long getIndex() {
+    return request.getIndex();
+  }
+
+  /**
+   * @return the names of the tables changed.
+   */
+  public List<String> getTableNames() {
+    return request.getTableUpdatesList().stream()
+        .map(DBTableUpdate::getTableName)
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  protected void addToDBBatch(OMMetadataManager omMetadataManager,
+      BatchOperation batchOperation) throws IOException {
+    for (DBTableUpdate update : request.getTableUpdatesList()) {
+      final Table<byte[], byte[]> table =
+          omMetadataManager.getStore().getTable(update.getTableName());
+      for (DBTableRecord record : update.getRecordsList()) {
+        final byte[] key = record.getKey().toByteArray();
+        if (record.hasValue()) {
+          table.putWithBatch(batchOperation, key,
+              record.getValue().toByteArray());
+        } else {
+          table.deleteWithBatch(batchOperation, key);
+        }
+      }
+    }
+  }
+}
@@ -27,6 +27,8 @@
 import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -35,10 +37,13 @@
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.hadoop.hdds.HddsUtils;
+import org.apache.hadoop.hdds.client.BlockID;
+import org.apache.hadoop.hdds.client.ContainerBlockID;
 import org.apache.hadoop.hdds.conf.ConfigurationSource;
 import org.apache.hadoop.hdds.conf.StorageUnit;
 import org.apache.hadoop.hdds.scm.protocol.ScmBlockLocationProtocol;
@@ -53,6 +58,7 @@
 import org.apache.hadoop.ozone.lock.BootstrapStateHandler;
 import org.apache.hadoop.ozone.om.KeyManager;
 import org.apache.hadoop.ozone.om.OMConfigKeys;
+import org.apache.hadoop.ozone.om.OMMetadataManager;
 import org.apache.hadoop.ozone.om.OmMetadataManagerImpl;
 import org.apache.hadoop.ozone.om.OmSnapshot;
 import org.apache.hadoop.ozone.om.OmSnapshotManager;
@@ -91,6 +97,7 @@ public class KeyDeletingService extends AbstractKeyDeletingService {
   private final SnapshotChainManager snapshotChainManager;
   private int ratisByteLimit;
   private static final double RATIS_LIMIT_FACTOR = 0.9;
+  private final ReentrantLock sharedBlockLock = new ReentrantLock();
 
   public KeyDeletingService(OzoneManager ozoneManager,
       ScmBlockLocationProtocol scmClient, long serviceInterval,
@@ -128,6 +135,89 @@ public AtomicLong getDeletedKeyCount() {
   Pair<Integer, Boolean> processKeyDeletes(List<BlockGroup> keyBlocksList,
       Map<String, RepeatedOmKeyInfo> keysToModify, List<String> renameEntries,
       String snapTableKey, UUID expectedPreviousSnapshotId) throws IOException, InterruptedException {
+    if (getOzoneManager().getMetadataManager().getSharedBlockTable().isEmpty()) {
+      return processKeyDeletes(keyBlocksList, Collections.emptyMap(), keysToModify, renameEntries,
+          snapTableKey, expectedPreviousSnapshotId);
+    }
+    // Tasks of different snapshots are serialized from here until the purge, so that they see each other's
+    // released references to shared blocks.
+    sharedBlockLock.lock();
+    try {
+      Map<String, List<ContainerBlockID>> releasedBlocks = new HashMap<>();
+      List<BlockGroup> blocksToDelete = filterSharedBlocks(keyBlocksList, releasedBlocks);
+      return processKeyDeletes(blocksToDelete, releasedBlocks, keysToModify, renameEntries,
+          snapTableKey, expectedPreviousSnapshotId);
+    } finally {
+      sharedBlockLock.unlock();
+    }
+  }
+
+  /**
+   * Remove the blocks which are still referred to by keys outside the given
+   * list from the blocks to be deleted. Such blocks have been shared between
+   * keys by {@link org.apache.hadoop.ozone.om.request.key.OMKeyCopyRequest}.
+   * @param releasedBlocks the shared blocks of each key, whose references
+   *                       have to be released when the key is purged
+   * @return the blocks to be deleted by SCM for each key
+   */
+  private List<BlockGroup> filterSharedBlocks(List<BlockGroup> keyBlocksList,
+      Map<String, List<ContainerBlockID>> releasedBlocks) throws IOException {
+    OMMetadataManager metadataManager = getOzoneManager().getMetadataManager();
+    // Number of keys in the list referring to each block.
+    Map<ContainerBlockID, Integer> references = new HashMap<>();
+    for (BlockGroup keyBlocks : keyBlocksList) {
+      for (ContainerBlockID block : getDistinctBlocks(keyBlocks)) {
+        references.merge(block, 1, Integer::sum);
+      }
+    }
+
+    Set<ContainerBlockID> sharedBlocks = new HashSet<>();
+    Set<ContainerBlockID> blocksInUse = new HashSet<>();
+    for (Map.Entry<ContainerBlockID, Integer> entry : references.entrySet()) {
+      ContainerBlockID block = entry.getKey();
+      Long refCount = metadataManager.getSharedBlockTable().get(
+          metadataManager.getSharedBlockKey(block.getContainerID(), block.getLocalID()));
+      if (refCount != null && refCount > 0) {
+        sharedBlocks.add(block);
+        // The block is referred to by 1 + refCount keys.
+        if (entry.getValue() <= refCount) {
+          blocksInUse.add(block);
+        }
+      }
+    }
+    if (sharedBlocks.isEmpty()) {
+      return keyBlocksList;
+    }
+
+    List<BlockGroup> blocksToDelete = new ArrayList<>(keyBlocksList.size());
+    for (BlockGroup keyBlocks : keyBlocksList) {
+      List<BlockID> blockIDs = new ArrayList<>();
+      for (BlockID blockID : keyBlocks.getBlockIDList()) {
+        if (!blocksInUse.contains(blockID.getContainerBlockID())) {
+          blockIDs.add(blockID);
+        }
+      }
+      for (ContainerBlockID block : getDistinctBlocks(keyBlocks)) {
+        if (sharedBlocks.contains(block)) {
+          releasedBlocks.computeIfAbsent(keyBlocks.getGroupID(), k -> new ArrayList<>()).add(block);
+        }
+      }
+      blocksToDelete.add(BlockGroup.newBuilder().setKeyName(keyBlocks.getGroupID())
+          .addAllBlockIDs(blockIDs).build());
+    }
+    return blocksToDelete;
+  }
+
+  private static Set<ContainerBlockID> getDistinctBlocks(BlockGroup keyBlocks) {
+    return keyBlocks.getBlockIDList().stream()
+        .map(BlockID::getContainerBlockID)
+        .collect(Collectors.toSet());
+  }
+
+  private Pair<Integer, Boolean> processKeyDeletes(List<BlockGroup> keyBlocksList,
+      Map<String, List<ContainerBlockID>> releasedBlocks,
+      Map<String, RepeatedOmKeyInfo> keysToModify, List<String> renameEntries,
+      String snapTableKey, UUID expectedPreviousSnapshotId) throws IOException, InterruptedException {
     long startTime = Time.monotonicNow();
     Pair<Integer, Boolean> purgeResult = Pair.of(0, false);
     if (LOG.isDebugEnabled()) {
@@ -147,7 +237,7 @@ Pair<Integer, Boolean> processKeyDeletes(List<BlockGroup> keyBlocksList,
         keyBlocksList.size(), Time.monotonicNow() - startTime);
     if (blockDeletionResults != null) {
       long purgeStartTime = Time.monotonicNow();
-      purgeResult = submitPurgeKeysRequest(blockDeletionResults,
+      purgeResult = submitPurgeKeysRequest(blockDeletionResults, releasedBlocks,
           keysToModify, renameEntries, snapTableKey, expectedPreviousSnapshotId);
       int limit = getOzoneManager().getConfiguration().getInt(OMConfigKeys.OZONE_KEY_DELETING_LIMIT_PER_TASK,
           OMConfigKeys.OZONE_KEY_DELETING_LIMIT_PER_TASK_DEFAULT);
@@ -162,9 +252,11 @@ Pair<Integer, Boolean> processKeyDeletes(List<BlockGroup> keyBlocksList,
    * Submits PurgeKeys request for the keys whose blocks have been deleted
    * by SCM.
    * @param results DeleteBlockGroups returned by SCM.
+   * @param releasedBlocks Shared blocks of the keys, by key
    * @param keysToModify Updated list of RepeatedOmKeyInfo
    */
   private Pair<Integer, Boolean> submitPurgeKeysRequest(List<DeleteBlockGroupResult> results,
+      Map<String, List<ContainerBlockID>> releasedBlocks,
       Map<String, RepeatedOmKeyInfo> keysToModify,  List<String> renameEntriesToBeDeleted,
       String snapTableKey, UUID expectedPreviousSnapshotId) throws InterruptedException {
     List<String> purgeKeys = new ArrayList<>();
@@ -213,6 +305,13 @@ private Pair<Integer, Boolean> submitPurgeKeysRequest(List<DeleteBlockGroupResul
         .addAllKeys(purgeKeys)
         .build();
     purgeKeysRequest.addDeletedKeys(deletedKeys);
+    for (Map.Entry<String, List<ContainerBlockID>> entry : releasedBlocks.entrySet()) {
+      if (!failedDeletedKeys.contains(entry.getKey())) {
+        for (ContainerBlockID block : entry.getValue()) {
+          purgeKeysRequest.addReleasedSharedBlocks(block.getProtobuf());
+        }
+      }
+    }
     // Adding rename entries to be purged.
     if (renameEntriesToBeDeleted != null) {
       purgeKeysRequest.addAllRenamedKeys(renameEntriesToBeDeleted);
@@ -45,7 +45,9 @@ public enum OMLayoutFeature implements LayoutFeature {
 
   QUOTA(6, "Ozone quota re-calculate"),
   HBASE_SUPPORT(7, "Full support of hsync, lease recovery and listOpenFiles APIs for HBase"),
-  DELEGATION_TOKEN_SYMMETRIC_SIGN(8, "Delegation token signed by symmetric key");
+  DELEGATION_TOKEN_SYMMETRIC_SIGN(8, "Delegation token signed by symmetric key"),
+  SERVER_SIDE_COPY(9, "Copy keys by sharing blocks between keys"),
+  LEADER_EXECUTION(10, "Replicate the DB changes of requests executed on the leader OM");
 
   ///////////////////////////////  /////////////////////////////
   //    Example OM Layout Feature with Actions
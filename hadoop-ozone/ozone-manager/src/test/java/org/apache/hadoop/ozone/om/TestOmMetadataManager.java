@@ -39,6 +39,7 @@
 import static org.apache.hadoop.ozone.om.codec.OMDBDefinition.PREFIX_TABLE;
 import static org.apache.hadoop.ozone.om.codec.OMDBDefinition.PRINCIPAL_TO_ACCESS_IDS_TABLE;
 import static org.apache.hadoop.ozone.om.codec.OMDBDefinition.S3_SECRET_TABLE;
+import static org.apache.hadoop.ozone.om.codec.OMDBDefinition.SHARED_BLOCK_TABLE;
 import static org.apache.hadoop.ozone.om.codec.OMDBDefinition.SNAPSHOT_INFO_TABLE;
 import static org.apache.hadoop.ozone.om.codec.OMDBDefinition.SNAPSHOT_RENAMED_TABLE;
 import static org.apache.hadoop.ozone.om.codec.OMDBDefinition.TENANT_ACCESS_ID_TABLE;
@@ -58,6 +59,7 @@
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 
 import java.io.File;
+import java.io.IOException;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -82,7 +84,10 @@
 import org.apache.hadoop.ozone.om.codec.OMDBDefinition;
 import org.apache.hadoop.ozone.om.exceptions.OMException;
 import org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes;
+import org.apache.hadoop.ozone.om.helpers.BasicOmKeyInfo;
 import org.apache.hadoop.ozone.om.helpers.BucketLayout;
+import org.apache.hadoop.ozone.om.helpers.ListKeysLightResult;
+import org.apache.hadoop.ozone.om.helpers.ListKeysResult;
 import org.apache.hadoop.ozone.om.helpers.ListOpenFilesResult;
 import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
 import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
@@ -137,7 +142,8 @@ public class TestOmMetadataManager {
       TENANT_STATE_TABLE,
       SNAPSHOT_INFO_TABLE,
       SNAPSHOT_RENAMED_TABLE,
-      COMPACTION_LOG_TABLE
+      COMPACTION_LOG_TABLE,
+      SHARED_BLOCK_TABLE
   };
 
   private OMMetadataManager omMetadataManager;
@@ -517,6 +523,26 @@ public void testListKeys() throws Exception {
       assertTrue(omKeyInfo.getKeyName().startsWith(
           prefixKeyA));
     }
+
+    // listKeysLight returns the same keys, both from the DB (volumeA)
+    // and from the cache (volumeB).
+    assertListKeysLight(volumeNameA, ozoneBucket, null, prefixKeyA, 100);
+    assertListKeysLight(volumeNameA, ozoneBucket, prefixKeyA + 38, null, 10);
+    assertListKeysLight(volumeNameB, hadoopBucket, null, prefixKeyB, 100);
+  }
+
+  private void assertListKeysLight(String volumeName, String bucketName,
+      String startKey, String keyPrefix, int maxKeys) throws IOException {
+    ListKeysResult expected = omMetadataManager.listKeys(volumeName,
+        bucketName, startKey, keyPrefix, maxKeys);
+    ListKeysLightResult actual = omMetadataManager.listKeysLight(volumeName,
+        bucketName, startKey, keyPrefix, maxKeys);
+    assertEquals(expected.isTruncated(), actual.isTruncated());
+    assertEquals(expected.getKeys().stream()
+            .map(k -> BasicOmKeyInfo.fromOmKeyInfo(k).getProtobuf())
+            .collect(Collectors.toList()),
+        actual.getKeys().stream().map(BasicOmKeyInfo::getProtobuf)
+            .collect(Collectors.toList()));
   }
 
   @Test
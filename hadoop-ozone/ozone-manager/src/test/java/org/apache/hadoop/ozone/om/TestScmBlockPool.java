@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.hadoop.hdds.client.ContainerBlockID;
+import org.apache.hadoop.hdds.client.RatisReplicationConfig;
+import org.apache.hadoop.hdds.client.ReplicationConfig;
+import org.apache.hadoop.hdds.protocol.MockDatanodeDetails;
+import org.apache.hadoop.hdds.protocol.proto.HddsProtos.ReplicationFactor;
+import org.apache.hadoop.hdds.scm.container.common.helpers.AllocatedBlock;
+import org.apache.hadoop.hdds.scm.container.common.helpers.ExcludeList;
+import org.apache.hadoop.hdds.scm.pipeline.Pipeline;
+import org.apache.hadoop.hdds.scm.pipeline.PipelineID;
+import org.apache.hadoop.hdds.scm.protocol.ScmBlockLocationProtocol;
+import org.apache.ozone.test.GenericTestUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link ScmBlockPool}.
+ */
+public class TestScmBlockPool {
+
+  private static final long BLOCK_SIZE = 1024;
+  private static final int POOL_SIZE = 10;
+  private static final String OWNER = "om";
+
+  private final ReplicationConfig repConfig =
+      RatisReplicationConfig.getInstance(ReplicationFactor.THREE);
+  private final AtomicLong nextLocalId = new AtomicLong();
+  private Pipeline pipeline;
+  private ScmBlockLocationProtocol blockClient;
+  private ScmBlockPool blockPool;
+
+  @BeforeEach
+  public void setup() throws Exception {
+    pipeline = newPipeline();
+    blockClient = mock(ScmBlockLocationProtocol.class);
+    when(blockClient.allocateBlock(anyLong(), anyInt(),
+        any(ReplicationConfig.class), anyString(), any(ExcludeList.class),
+        anyString())).thenAnswer(invocation -> {
+          int num = invocation.getArgument(1);
+          List<AllocatedBlock> blocks = new ArrayList<>(num);
+          for (int i = 0; i < num; i++) {
+            blocks.add(new AllocatedBlock.Builder()
+                .setPipeline(pipeline)
+                .setContainerBlockID(new ContainerBlockID(1,
+                    nextLocalId.incrementAndGet()))
+                .build());
+          }
+          return blocks;
+        });
+  }
+
+  @AfterEach
+  public void teardown() {
+    if (blockPool != null) {
+      blockPool.close();
+    }
+  }
+
+  @Test
+  public void testBlocksServedFromPool() throws Exception {
+    blockPool = new ScmBlockPool(blockClient, POOL_SIZE, 60_000);
+
+    // the first request has to call SCM, and triggers a refill
+    assertEquals(2, allocate(2).size());
+    verify(blockClient, times(1)).allocateBlock(eq(BLOCK_SIZE), eq(2),
+        eq(repConfig), eq(OWNER), any(ExcludeList.class), eq(""));
+    waitForPoolSize(POOL_SIZE);
+
+    // served from the pool without calling SCM
+    assertEquals(3, allocate(3).size());
+    assertEquals(POOL_SIZE - 3, blockPool.getPooledBlockCount(repConfig));
+    verify(blockClient, times(1)).allocateBlock(eq(BLOCK_SIZE), eq(2),
+        eq(repConfig), eq(OWNER), any(ExcludeList.class), eq(""));
+    verify(blockClient, times(1)).allocateBlock(eq(BLOCK_SIZE),
+        eq(POOL_SIZE), eq(repConfig), eq(OWNER), any(ExcludeList.class),
+        eq(""));
+    assertEquals(3, blockPool.getMetrics().getNumPoolHits());
+    assertEquals(2, blockPool.getMetrics().getNumPoolMisses());
+
+    // running low triggers another refill
+    allocate(3);
+    waitForPoolSize(POOL_SIZE);
+  }
+
+  @Test
+  public void testExcludedPipelineDiscarded() throws Exception {
+    blockPool = new ScmBlockPool(blockClient, POOL_SIZE, 60_000);
+    allocate(1);
+    waitForPoolSize(POOL_SIZE);
+    Pipeline excluded = pipeline;
+    pipeline = newPipeline();
+
+    ExcludeList excludeList = new ExcludeList();
+    excludeList.addPipeline(excluded.getId());
+    List<AllocatedBlock> blocks = blockPool.allocateBlock(BLOCK_SIZE, 1,
+        repConfig, OWNER, excludeList, "");
+
+    assertEquals(1, blocks.size());
+    assertEquals(pipeline.getId(), blocks.get(0).getPipeline().getId());
+    assertEquals(POOL_SIZE, blockPool.getMetrics().getNumBlocksDiscarded());
+  }
+
+  @Test
+  public void testExpiredAndClearedBlocksDiscarded() throws Exception {
+    blockPool = new ScmBlockPool(blockClient, POOL_SIZE, 1);
+    allocate(1);
+    waitForPoolSize(POOL_SIZE);
+    Thread.sleep(10);
+
+    // all the pooled blocks expired, so the request goes to SCM
+    allocate(1);
+    assertEquals(POOL_SIZE, blockPool.getMetrics().getNumBlocksDiscarded());
+    assertEquals(2, blockPool.getMetrics().getNumPoolMisses());
+
+    waitForPoolSize(POOL_SIZE);
+    blockPool.clear();
+    assertEquals(0, blockPool.getPooledBlockCount(repConfig));
+  }
+
+  private List<AllocatedBlock> allocate(int numBlocks) throws Exception {
+    return blockPool.allocateBlock(BLOCK_SIZE, numBlocks, repConfig, OWNER,
+        new ExcludeList(), "");
+  }
+
+  private void waitForPoolSize(int size) throws Exception {
+    GenericTestUtils.waitFor(
+        () -> blockPool.getPooledBlockCount(repConfig) == size, 10, 5000);
+  }
+
+  private Pipeline newPipeline() {
+    return Pipeline.newBuilder()
+        .setState(Pipeline.PipelineState.OPEN)
+        .setId(PipelineID.randomId())
+        .setReplicationConfig(repConfig)
+        .setNodes(Collections.singletonList(
+            MockDatanodeDetails.randomDatanodeDetails()))
+        .build();
+  }
+}
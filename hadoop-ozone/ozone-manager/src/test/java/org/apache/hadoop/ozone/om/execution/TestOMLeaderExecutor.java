@@ -0,0 +1,254 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.execution;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.protobuf.ServiceException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.apache.hadoop.ozone.om.OMMetadataManager;
+import org.apache.hadoop.ozone.om.OzoneManager;
+import org.apache.hadoop.ozone.om.exceptions.OMLeaderNotReadyException;
+import org.apache.hadoop.ozone.om.exceptions.OMNotLeaderException;
+import org.apache.hadoop.ozone.om.execution.flowcontrol.ExecutionContext;
+import org.apache.hadoop.ozone.om.ratis.OzoneManagerRatisServer;
+import org.apache.hadoop.ozone.om.ratis.OzoneManagerStateMachine;
+import org.apache.hadoop.ozone.om.response.OMClientResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.LayoutVersion;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.PersistDbRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Status;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Type;
+import org.apache.hadoop.ozone.protocolPB.OzoneManagerRequestHandler;
+import org.apache.ratis.protocol.ClientId;
+import org.apache.ratis.protocol.ClientInvocationId;
+import org.apache.ratis.protocol.RaftClientReply;
+import org.apache.ratis.server.RaftServer;
+import org.apache.ratis.server.protocol.TermIndex;
+import org.apache.ratis.util.ExitUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+
+/**
+ * Tests {@link OMLeaderExecutor}.
+ */
+public class TestOMLeaderExecutor {
+
+  private static final long TERM = 3;
+
+  private OzoneManagerStateMachine stateMachine;
+  private OzoneManagerRequestHandler handler;
+  private OzoneManagerRatisServer ratisServer;
+  private OMLeaderExecutor leaderExecutor;
+
+  /** The requests submitted to Ratis, in order. */
+  private final List<OMRequest> submitted =
+      Collections.synchronizedList(new ArrayList<>());
+  /** The indexes the requests have been executed with, in order. */
+  private final List<Long> executedIndexes =
+      Collections.synchronizedList(new ArrayList<>());
+  /** The reply to the next PersistDb request. */
+  private CompletableFuture<RaftClientReply> nextReply;
+
+  @BeforeEach
+  public void setup() throws Exception {
+    ExitUtils.disableSystemExit();
+    final OzoneManager ozoneManager = mock(OzoneManager.class);
+    when(ozoneManager.getMetadataManager())
+        .thenReturn(mock(OMMetadataManager.class));
+
+    handler = mock(OzoneManagerRequestHandler.class);
+    when(handler.handleWriteRequestImpl(any(), any())).thenAnswer(i -> {
+      final ExecutionContext context = i.getArgument(1);
+      executedIndexes.add(context.getIndex());
+      final OMClientResponse response = mock(OMClientResponse.class);
+      when(response.getOMResponse()).thenReturn(OMResponse.newBuilder()
+          .setCmdType(Type.CreateKey)
+          .setStatus(Status.OK)
+          .build());
+      return response;
+    });
+    stateMachine = mock(OzoneManagerStateMachine.class);
+    when(stateMachine.getHandler()).thenReturn(handler);
+
+    final RaftServer.Division division =
+        mock(RaftServer.Division.class, Answers.RETURNS_DEEP_STUBS);
+    when(division.getRetryCache().getIfPresent(any())).thenReturn(null);
+    when(division.getInfo().getCurrentTerm()).thenReturn(TERM);
+
+    ratisServer = mock(OzoneManagerRatisServer.class);
+    when(ratisServer.getOmStateMachine()).thenReturn(stateMachine);
+    when(ratisServer.getServerDivision()).thenReturn(division);
+    nextReply = successReply();
+    when(ratisServer.submitRequestAsync(any(), any())).thenAnswer(i -> {
+      submitted.add(i.getArgument(0));
+      final CompletableFuture<RaftClientReply> reply = nextReply;
+      nextReply = successReply();
+      return reply;
+    });
+    when(ratisServer.createOmResponse(any(), any())).thenAnswer(i ->
+        OMResponse.newBuilder()
+            .setCmdType(((OMRequest) i.getArgument(0)).getCmdType())
+            .setStatus(Status.OK)
+            .build());
+
+    leaderExecutor = new OMLeaderExecutor(ozoneManager, ratisServer);
+  }
+
+  @AfterEach
+  public void cleanup() {
+    leaderExecutor.stop();
+    assertFalse(ExitUtils.isTerminated());
+  }
+
+  @Test
+  public void testExecutedInOrder() throws Exception {
+    final CompletableFuture<RaftClientReply> otherReply =
+        new CompletableFuture<>();
+    final OMRequest other = newRequest(Type.RenameKey);
+    leaderExecutor.submitInOrder(() -> {
+      submitted.add(other);
+      return otherReply;
+    });
+    final CompletableFuture<OMResponse> response =
+        leaderExecutor.submitAsync(newRequest(Type.CreateKey), newCallId());
+
+    // executed only after the request submitted before is applied
+    verify(handler, after(200).never()).handleWriteRequestImpl(any(), any());
+    otherReply.complete(mock(RaftClientReply.class));
+    assertEquals(Status.OK,
+        response.get(5, TimeUnit.SECONDS).getStatus());
+
+    // a request submitted later is submitted after the PersistDb request
+    final OMRequest later = newRequest(Type.RenameKey);
+    leaderExecutor.submitInOrder(() -> {
+      submitted.add(later);
+      return successReply();
+    }).get(5, TimeUnit.SECONDS);
+    assertEquals(3, submitted.size());
+    assertEquals(other, submitted.get(0));
+    assertEquals(Type.PersistDb, submitted.get(1).getCmdType());
+    assertEquals(later, submitted.get(2));
+  }
+
+  @Test
+  public void testExecutionIndexes() throws Exception {
+    when(stateMachine.getLastTransactionIndex()).thenReturn(5L);
+    submitAndWait();
+    submitAndWait();
+    // larger than any index applied or executed before
+    when(stateMachine.getLastTransactionIndex()).thenReturn(10L);
+    submitAndWait();
+    assertEquals(Long.valueOf(6), executedIndexes.get(0));
+    assertEquals(Long.valueOf(7), executedIndexes.get(1));
+    assertEquals(Long.valueOf(11), executedIndexes.get(2));
+
+    // the PersistDb requests carry the index and term of the execution
+    final PersistDbRequest changes = submitted.get(2).getPersistDbRequest();
+    assertEquals(11, changes.getIndex());
+    assertEquals(TERM, changes.getTerm());
+
+    // only the changes of this OM complete an execution
+    assertFalse(leaderExecutor.completeExecution(
+        changes.toBuilder().setTerm(TERM + 1).build()));
+    assertTrue(leaderExecutor.completeExecution(changes));
+    assertFalse(leaderExecutor.completeExecution(changes));
+  }
+
+  @Test
+  public void testLeaderChange() throws Exception {
+    when(stateMachine.getLastTransactionIndex()).thenReturn(5L);
+    final CompletableFuture<RaftClientReply> failedReply =
+        new CompletableFuture<>();
+    nextReply = failedReply;
+    final CompletableFuture<OMResponse> response =
+        leaderExecutor.submitAsync(newRequest(Type.CreateKey), newCallId());
+    verify(ratisServer, timeout(5000)).submitRequestAsync(any(), any());
+    failedReply.completeExceptionally(new IOException("leader changed"));
+
+    // the client is redirected, and the OM keeps running
+    assertNotLeader(response, OMNotLeaderException.class);
+    // no more requests are executed until the changes are applied or dropped
+    assertNotLeader(
+        leaderExecutor.submitAsync(newRequest(Type.CreateKey), newCallId()),
+        OMLeaderNotReadyException.class);
+
+    // the changes are not applied by the new leader
+    leaderExecutor.beforeApply(TermIndex.valueOf(TERM, 6));
+    verify(stateMachine, never()).awaitDoubleBufferFlush();
+    leaderExecutor.beforeApply(TermIndex.valueOf(TERM + 1, 6));
+    verify(stateMachine).awaitDoubleBufferFlush();
+
+    submitAndWait();
+    assertEquals(Long.valueOf(6), executedIndexes.get(1));
+  }
+
+  private void submitAndWait() throws Exception {
+    final OMResponse response = leaderExecutor
+        .submitAsync(newRequest(Type.CreateKey), newCallId())
+        .get(5, TimeUnit.SECONDS);
+    assertEquals(Status.OK, response.getStatus());
+  }
+
+  private static void assertNotLeader(CompletableFuture<OMResponse> response,
+      Class<? extends IOException> expected) {
+    final ExecutionException e = assertThrows(ExecutionException.class,
+        () -> response.get(5, TimeUnit.SECONDS));
+    final ServiceException serviceException =
+        assertInstanceOf(ServiceException.class, e.getCause());
+    assertInstanceOf(expected, serviceException.getCause());
+  }
+
+  private static CompletableFuture<RaftClientReply> successReply() {
+    final RaftClientReply reply = mock(RaftClientReply.class);
+    when(reply.isSuccess()).thenReturn(true);
+    return CompletableFuture.completedFuture(reply);
+  }
+
+  private static OMRequest newRequest(Type type) {
+    return OMRequest.newBuilder()
+        .setCmdType(type)
+        .setClientId(ClientId.randomId().toString())
+        .setLayoutVersion(LayoutVersion.newBuilder().setVersion(0))
+        .build();
+  }
+
+  private static ClientInvocationId newCallId() {
+    return ClientInvocationId.valueOf(ClientId.randomId(), 1);
+  }
+}
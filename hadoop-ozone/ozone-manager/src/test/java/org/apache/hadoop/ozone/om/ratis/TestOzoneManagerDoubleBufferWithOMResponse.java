@@ -197,6 +197,56 @@ public void testDoubleBufferWithMixOfTransactions() throws Exception {
         100, 30000);
   }
 
+  /**
+   * Flushes creates and deletes of the same buckets in one pipelined flush,
+   * so that the responses are added to the batch by multiple threads, and
+   * verifies the later changes of a key replace the earlier ones.
+   */
+  @Test
+  public void testPipelinedFlush() throws Exception {
+    doubleBuffer.stop();
+    doubleBuffer = OzoneManagerDoubleBuffer.newBuilder()
+        .setOmMetadataManager(omMetadataManager)
+        .setMaxUnFlushedTransactionCount(100000)
+        .setFlushThreads(4)
+        .build();
+
+    String volumeName = UUID.randomUUID().toString();
+    OMVolumeCreateResponse omVolumeCreateResponse =
+        (OMVolumeCreateResponse) createVolume(volumeName,
+            trxId.incrementAndGet());
+    Queue<OMBucketCreateResponse> bucketQueue = new ConcurrentLinkedQueue<>();
+    Queue<OMBucketDeleteResponse> deleteBucketQueue =
+        new ConcurrentLinkedQueue<>();
+    int bucketCount = 100;
+    for (int i = 0; i < bucketCount; i++) {
+      bucketQueue.add(createBucket(volumeName, "bucket" + i,
+          trxId.incrementAndGet()));
+    }
+    // delete the first half of the buckets, added by other threads
+    for (int i = 0; i < bucketCount / 2; i++) {
+      deleteBucketQueue.add((OMBucketDeleteResponse) deleteBucket(volumeName,
+          bucketQueue.remove().getOmBucketInfo().getBucketName(),
+          trxId.incrementAndGet()));
+    }
+
+    doubleBuffer.flushCurrentBuffer();
+    final long expectedIndex = trxId.get();
+    GenericTestUtils.waitFor(() ->
+        doubleBuffer.getFlushedTransactionCountForTesting() == expectedIndex,
+        100, 30000);
+
+    assertEquals(bucketCount / 2, omMetadataManager.countRowsInTable(
+        omMetadataManager.getBucketTable()));
+    checkVolume(volumeName, omVolumeCreateResponse);
+    checkCreateBuckets(bucketQueue);
+    checkDeletedBuckets(deleteBucketQueue);
+    GenericTestUtils.waitFor(() -> assertTransactionInfo(expectedIndex),
+        100, 30000);
+    assertThat(doubleBuffer.getMetrics().getPrepareTime().lastStat()
+        .numSamples()).isGreaterThan(0);
+  }
+
   private boolean assertTransactionInfo(long lastAppliedIndex) {
     final TransactionInfo info;
     try {
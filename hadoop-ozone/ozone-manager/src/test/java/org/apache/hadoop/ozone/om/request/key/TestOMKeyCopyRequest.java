@@ -0,0 +1,272 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.request.key;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.UUID;
+import org.apache.hadoop.hdds.protocol.proto.HddsProtos;
+import org.apache.hadoop.hdds.utils.db.BatchOperation;
+import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.apache.hadoop.ozone.om.helpers.OmKeyLocationInfo;
+import org.apache.hadoop.ozone.om.helpers.OmMultipartKeyInfo;
+import org.apache.hadoop.ozone.om.request.OMRequestTestUtils;
+import org.apache.hadoop.ozone.om.response.OMClientResponse;
+import org.apache.hadoop.ozone.om.response.key.OMKeyCopyResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CopyKeyRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.KeyArgs;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.PartKeyInfo;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Status;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.UserInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests CopyKey request.
+ */
+public class TestOMKeyCopyRequest extends TestOMKeyRequest {
+
+  private static final String SRC_KEY = "srcKey";
+  private static final String DST_KEY = "dstKey";
+
+  private OmKeyInfo srcKeyInfo;
+  private String sharedBlockKey;
+
+  @BeforeEach
+  public void createSourceKey() throws Exception {
+    OMRequestTestUtils.addVolumeAndBucketToDB(volumeName, bucketName,
+        omMetadataManager, getBucketLayout());
+    OmKeyInfo keyInfo = OMRequestTestUtils.createOmKeyInfo(volumeName,
+        bucketName, SRC_KEY, replicationConfig).build();
+    OMRequestTestUtils.addKeyLocationInfo(keyInfo, 0, 1000L);
+    OMRequestTestUtils.addKeyToTable(false, false, keyInfo, clientID, 10L,
+        omMetadataManager);
+    srcKeyInfo = omMetadataManager.getKeyTable(getBucketLayout()).get(
+        omMetadataManager.getOzoneKey(volumeName, bucketName, SRC_KEY));
+    OmKeyLocationInfo block = srcKeyInfo.getLatestVersionLocations()
+        .getLocationList().get(0);
+    sharedBlockKey = omMetadataManager.getSharedBlockKey(
+        block.getContainerID(), block.getLocalID());
+  }
+
+  @Test
+  public void testPreExecute() throws Exception {
+    OMRequest original = createCopyKeyRequest(SRC_KEY, DST_KEY, null);
+    OMRequest modified = new OMKeyCopyRequest(original, getBucketLayout())
+        .preExecute(ozoneManager);
+
+    // Will not be equal, as UserInfo will be set and modification time is
+    // set in KeyArgs.
+    assertNotEquals(original, modified);
+    assertThat(modified.getCopyKeyRequest().getDstKeyArgs()
+        .getModificationTime()).isGreaterThan(0);
+  }
+
+  @Test
+  public void testValidateAndUpdateCache() throws Exception {
+    OMClientResponse response = copy(createCopyKeyRequest(
+        SRC_KEY, DST_KEY, null), 100L);
+    assertEquals(Status.OK, response.getOMResponse().getStatus());
+
+    OmKeyInfo dstKeyInfo = omMetadataManager.getKeyTable(getBucketLayout())
+        .get(omMetadataManager.getOzoneKey(volumeName, bucketName, DST_KEY));
+    assertNotNull(dstKeyInfo);
+    assertEquals(srcKeyInfo.getDataSize(), dstKeyInfo.getDataSize());
+    assertEquals(srcKeyInfo.getLatestVersionLocations().getBlocksLatestVersionOnly()
+            .get(0).getBlockID(),
+        dstKeyInfo.getLatestVersionLocations().getBlocksLatestVersionOnly()
+            .get(0).getBlockID());
+    assertEquals(1L,
+        omMetadataManager.getSharedBlockTable().get(sharedBlockKey));
+
+    // a second copy adds another reference
+    response = copy(createCopyKeyRequest(SRC_KEY, "otherKey", null), 101L);
+    assertEquals(Status.OK, response.getOMResponse().getStatus());
+    assertEquals(2L,
+        omMetadataManager.getSharedBlockTable().get(sharedBlockKey));
+  }
+
+  @Test
+  public void testAddToDBBatch() throws Exception {
+    OMClientResponse response = copy(createCopyKeyRequest(
+        SRC_KEY, DST_KEY, null), 100L);
+    assertEquals(Status.OK, response.getOMResponse().getStatus());
+
+    try (BatchOperation batchOperation =
+        omMetadataManager.getStore().initBatchOperation()) {
+      ((OMKeyCopyResponse) response).addToDBBatch(omMetadataManager,
+          batchOperation);
+      omMetadataManager.getStore().commitBatchOperation(batchOperation);
+    }
+
+    assertNotNull(omMetadataManager.getKeyTable(getBucketLayout())
+        .getSkipCache(omMetadataManager.getOzoneKey(
+            volumeName, bucketName, DST_KEY)));
+    assertEquals(1L, omMetadataManager.getSharedBlockTable()
+        .getSkipCache(sharedBlockKey));
+  }
+
+  @Test
+  public void testOverwriteKeepsOldKeyForDeletion() throws Exception {
+    OmKeyInfo dstKeyInfo = OMRequestTestUtils.createOmKeyInfo(volumeName,
+        bucketName, DST_KEY, replicationConfig).build();
+    OMRequestTestUtils.addKeyToTable(false, false, dstKeyInfo, clientID, 0L,
+        omMetadataManager);
+
+    OMKeyCopyResponse response = (OMKeyCopyResponse) copy(
+        createCopyKeyRequest(SRC_KEY, DST_KEY, null), 100L);
+    assertEquals(Status.OK, response.getOMResponse().getStatus());
+    assertEquals(1, response.getKeysToDelete().size());
+  }
+
+  @Test
+  public void testValidateAndUpdateCacheWithKeyNotFound() throws Exception {
+    OMClientResponse response = copy(createCopyKeyRequest(
+        "notExist", DST_KEY, null), 100L);
+    assertEquals(Status.KEY_NOT_FOUND, response.getOMResponse().getStatus());
+  }
+
+  @Test
+  public void testValidateAndUpdateCacheWithGenerationMismatch()
+      throws Exception {
+    OMClientResponse response = copy(createCopyKeyRequest(
+        SRC_KEY, DST_KEY, srcKeyInfo.getUpdateID() + 1), 100L);
+    assertEquals(Status.KEY_NOT_FOUND, response.getOMResponse().getStatus());
+    assertNull(omMetadataManager.getSharedBlockTable().get(sharedBlockKey));
+
+    response = copy(createCopyKeyRequest(
+        SRC_KEY, DST_KEY, srcKeyInfo.getUpdateID()), 101L);
+    assertEquals(Status.OK, response.getOMResponse().getStatus());
+  }
+
+  @Test
+  public void testCopyToPart() throws Exception {
+    String uploadID = UUID.randomUUID().toString();
+    addMultipartUpload(uploadID);
+
+    OMClientResponse response = copy(createCopyPartRequest(uploadID, 1),
+        100L);
+    assertEquals(Status.OK, response.getOMResponse().getStatus());
+    assertThat(response.getOMResponse().getCopyKeyResponse().getPartName())
+        .isNotEmpty();
+
+    OmMultipartKeyInfo multipartKeyInfo = omMetadataManager
+        .getMultipartInfoTable().get(omMetadataManager.getMultipartKey(
+            volumeName, bucketName, DST_KEY, uploadID));
+    PartKeyInfo part = multipartKeyInfo.getPartKeyInfo(1);
+    assertNotNull(part);
+    assertEquals(srcKeyInfo.getDataSize(),
+        part.getPartKeyInfo().getDataSize());
+    assertEquals(1L,
+        omMetadataManager.getSharedBlockTable().get(sharedBlockKey));
+
+    // copying the same part again replaces it
+    response = copy(createCopyPartRequest(uploadID, 1), 101L);
+    assertEquals(Status.OK, response.getOMResponse().getStatus());
+    assertEquals(2L,
+        omMetadataManager.getSharedBlockTable().get(sharedBlockKey));
+  }
+
+  @Test
+  public void testCopyToPartSharingBlocksWithOtherPart() throws Exception {
+    String uploadID = UUID.randomUUID().toString();
+    addMultipartUpload(uploadID);
+
+    OMClientResponse response = copy(createCopyPartRequest(uploadID, 1),
+        100L);
+    assertEquals(Status.OK, response.getOMResponse().getStatus());
+
+    response = copy(createCopyPartRequest(uploadID, 2), 101L);
+    assertEquals(Status.NOT_SUPPORTED_OPERATION,
+        response.getOMResponse().getStatus());
+    assertEquals(1L,
+        omMetadataManager.getSharedBlockTable().get(sharedBlockKey));
+  }
+
+  @Test
+  public void testCopyToPartWithoutUpload() throws Exception {
+    OMClientResponse response = copy(
+        createCopyPartRequest(UUID.randomUUID().toString(), 1), 100L);
+    assertEquals(Status.NO_SUCH_MULTIPART_UPLOAD_ERROR,
+        response.getOMResponse().getStatus());
+  }
+
+  private void addMultipartUpload(String uploadID) throws Exception {
+    OmMultipartKeyInfo multipartKeyInfo =
+        OMRequestTestUtils.createOmMultipartKeyInfo(uploadID, 0L,
+            HddsProtos.ReplicationType.RATIS,
+            HddsProtos.ReplicationFactor.ONE, 0L);
+    OMRequestTestUtils.addMultipartInfoToTable(false,
+        OMRequestTestUtils.createOmKeyInfo(volumeName, bucketName, DST_KEY,
+            replicationConfig).build(),
+        multipartKeyInfo, 0L, omMetadataManager);
+  }
+
+  private OMClientResponse copy(OMRequest request, long trxnLogIndex)
+      throws Exception {
+    OMRequest modified = new OMKeyCopyRequest(request, getBucketLayout())
+        .preExecute(ozoneManager);
+    return new OMKeyCopyRequest(modified, getBucketLayout())
+        .validateAndUpdateCache(ozoneManager, trxnLogIndex);
+  }
+
+  private OMRequest createCopyKeyRequest(String srcKey, String dstKey,
+      Long generation) {
+    KeyArgs.Builder srcKeyArgs = KeyArgs.newBuilder()
+        .setVolumeName(volumeName).setBucketName(bucketName)
+        .setKeyName(srcKey);
+    if (generation != null) {
+      srcKeyArgs.setExpectedDataGeneration(generation);
+    }
+    KeyArgs dstKeyArgs = KeyArgs.newBuilder()
+        .setVolumeName(volumeName).setBucketName(bucketName)
+        .setKeyName(dstKey).build();
+    return createRequest(srcKeyArgs.build(), dstKeyArgs);
+  }
+
+  private OMRequest createCopyPartRequest(String uploadID, int partNumber) {
+    KeyArgs srcKeyArgs = KeyArgs.newBuilder()
+        .setVolumeName(volumeName).setBucketName(bucketName)
+        .setKeyName(SRC_KEY).build();
+    KeyArgs dstKeyArgs = KeyArgs.newBuilder()
+        .setVolumeName(volumeName).setBucketName(bucketName)
+        .setKeyName(DST_KEY).setIsMultipartKey(true)
+        .setMultipartUploadID(uploadID).setMultipartNumber(partNumber)
+        .build();
+    return createRequest(srcKeyArgs, dstKeyArgs);
+  }
+
+  private OMRequest createRequest(KeyArgs srcKeyArgs, KeyArgs dstKeyArgs) {
+    return OMRequest.newBuilder()
+        .setClientId(UUID.randomUUID().toString())
+        .setCopyKeyRequest(CopyKeyRequest.newBuilder()
+            .setSrcKeyArgs(srcKeyArgs).setDstKeyArgs(dstKeyArgs))
+        .setCmdType(OzoneManagerProtocolProtos.Type.CopyKey)
+        .setUserInfo(UserInfo.newBuilder()
+            .setUserName("user")
+            .setRemoteAddress("remote-address")
+            .build())
+        .build();
+  }
+}
@@ -20,6 +20,7 @@
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
 
@@ -28,8 +29,10 @@
 import java.util.List;
 import java.util.UUID;
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.hadoop.hdds.client.BlockID;
 import org.apache.hadoop.hdds.client.RatisReplicationConfig;
 import org.apache.hadoop.hdds.protocol.proto.HddsProtos;
+import org.apache.hadoop.hdds.protocol.proto.HddsProtos.ContainerBlockID;
 import org.apache.hadoop.hdds.utils.TransactionInfo;
 import org.apache.hadoop.hdds.utils.db.BatchOperation;
 import org.apache.hadoop.ozone.om.OmSnapshot;
@@ -179,6 +182,40 @@ public void testValidateAndUpdateCache() throws Exception {
     }
   }
 
+  @Test
+  public void testReleaseSharedBlocks() throws Exception {
+    Pair<List<String>, List<String>> deleteKeysAndRenamedEntry = createAndDeleteKeysAndRenamedEntry(1, null);
+    String sharedBlock = omMetadataManager.getSharedBlockKey(1L, 1L);
+    String otherSharedBlock = omMetadataManager.getSharedBlockKey(1L, 2L);
+    omMetadataManager.getSharedBlockTable().put(sharedBlock, 2L);
+    omMetadataManager.getSharedBlockTable().put(otherSharedBlock, 2L);
+
+    // Two purged keys refer to the first block, one to the other one.
+    OMRequest omRequest = createPurgeKeysRequest(deleteKeysAndRenamedEntry.getKey(),
+        deleteKeysAndRenamedEntry.getValue(), null);
+    ContainerBlockID block = new BlockID(1L, 1L).getContainerBlockID().getProtobuf();
+    omRequest = omRequest.toBuilder().setPurgeKeysRequest(omRequest.getPurgeKeysRequest().toBuilder()
+        .addReleasedSharedBlocks(block)
+        .addReleasedSharedBlocks(block)
+        .addReleasedSharedBlocks(new BlockID(1L, 2L).getContainerBlockID().getProtobuf()))
+        .build();
+
+    OMKeyPurgeRequest omKeyPurgeRequest =
+        new OMKeyPurgeRequest(preExecute(omRequest));
+    OMKeyPurgeResponse omKeyPurgeResponse = (OMKeyPurgeResponse)
+        omKeyPurgeRequest.validateAndUpdateCache(ozoneManager, 100L);
+    assertEquals(Status.OK, omKeyPurgeResponse.getOMResponse().getStatus());
+
+    try (BatchOperation batchOperation =
+        omMetadataManager.getStore().initBatchOperation()) {
+      omKeyPurgeResponse.addToDBBatch(omMetadataManager, batchOperation);
+      omMetadataManager.getStore().commitBatchOperation(batchOperation);
+    }
+
+    assertNull(omMetadataManager.getSharedBlockTable().getSkipCache(sharedBlock));
+    assertEquals(1L, omMetadataManager.getSharedBlockTable().getSkipCache(otherSharedBlock));
+  }
+
   @Test
   public void testKeyPurgeInSnapshot() throws Exception {
     when(ozoneManager.getDefaultReplicationConfig())
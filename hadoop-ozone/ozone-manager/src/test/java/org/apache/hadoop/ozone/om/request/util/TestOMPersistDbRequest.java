@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.request.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.apache.hadoop.hdds.utils.db.BatchOperation;
+import org.apache.hadoop.hdds.utils.db.RecordingBatchOperation;
+import org.apache.hadoop.hdds.utils.db.Table;
+import org.apache.hadoop.hdds.utils.db.cache.CacheKey;
+import org.apache.hadoop.hdds.utils.db.cache.CacheValue;
+import org.apache.hadoop.ozone.om.exceptions.OMException;
+import org.apache.hadoop.ozone.om.execution.flowcontrol.ExecutionContext;
+import org.apache.hadoop.ozone.om.helpers.BucketLayout;
+import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.apache.hadoop.ozone.om.request.OMRequestTestUtils;
+import org.apache.hadoop.ozone.om.request.key.TestOMKeyRequest;
+import org.apache.hadoop.ozone.om.response.OMClientResponse;
+import org.apache.hadoop.ozone.om.response.util.OMPersistDbResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.DBTableUpdate;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.PersistDbRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Status;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Type;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link OMPersistDbRequest} and {@link OMPersistDbResponse}.
+ */
+public class TestOMPersistDbRequest extends TestOMKeyRequest {
+
+  private static final long INDEX = 10;
+
+  @Test
+  public void testApplyChangesOfLeader() throws Exception {
+    final Table<String, OmKeyInfo> keyTable =
+        omMetadataManager.getKeyTable(BucketLayout.DEFAULT);
+    final String newKey = omMetadataManager.getOzoneKey(
+        volumeName, bucketName, "new");
+    final String oldKey = omMetadataManager.getOzoneKey(
+        volumeName, bucketName, "old");
+    keyTable.put(oldKey, newKeyInfo("old"));
+
+    // the changes recorded by the leader
+    final List<DBTableUpdate> updates;
+    try (RecordingBatchOperation batch = new RecordingBatchOperation()) {
+      keyTable.putWithBatch(batch, newKey, newKeyInfo("new"));
+      keyTable.deleteWithBatch(batch, oldKey);
+      updates = OMPersistDbRequest.toTableUpdates(batch.getRecords());
+    }
+
+    final OMClientResponse response =
+        new OMPersistDbRequest(newPersistDbRequest(updates))
+            .validateAndUpdateCache(ozoneManager,
+                ExecutionContext.of(INDEX + 2, null));
+
+    // the cache is updated with the epoch of the leader
+    final CacheValue<OmKeyInfo> added =
+        keyTable.getCacheValue(new CacheKey<>(newKey));
+    assertEquals(INDEX, added.getEpoch());
+    assertEquals("new", added.getCacheValue().getKeyName());
+    final CacheValue<OmKeyInfo> deleted =
+        keyTable.getCacheValue(new CacheKey<>(oldKey));
+    assertEquals(INDEX, deleted.getEpoch());
+    assertNull(deleted.getCacheValue());
+
+    // the client gets the response of the original request
+    assertEquals(Type.CreateKey, response.getOMResponse().getCmdType());
+    final OMPersistDbResponse persistDbResponse =
+        assertInstanceOf(OMPersistDbResponse.class, response);
+    assertEquals(INDEX, persistDbResponse.getIndex());
+    assertEquals(Collections.singletonList(keyTable.getName()),
+        persistDbResponse.getTableNames());
+
+    try (BatchOperation batch =
+        omMetadataManager.getStore().initBatchOperation()) {
+      response.checkAndUpdateDB(omMetadataManager, batch);
+      omMetadataManager.getStore().commitBatchOperation(batch);
+    }
+    assertNotNull(keyTable.getSkipCache(newKey));
+    assertNull(keyTable.getSkipCache(oldKey));
+  }
+
+  @Test
+  public void testMetricsUpdated() throws Exception {
+    final Table<String, OmKeyInfo> keyTable =
+        omMetadataManager.getKeyTable(BucketLayout.DEFAULT);
+    final String key = omMetadataManager.getOzoneKey(
+        volumeName, bucketName, keyName);
+    final OmKeyInfo keyInfo = newKeyInfo(keyName);
+    keyInfo.setDataSize(100);
+    final List<DBTableUpdate> updates;
+    try (RecordingBatchOperation batch = new RecordingBatchOperation()) {
+      keyTable.putWithBatch(batch, key, keyInfo);
+      updates = OMPersistDbRequest.toTableUpdates(batch.getRecords());
+    }
+    final long numKeys = omMetrics.getNumKeys();
+    final long numKeyCommits = omMetrics.getNumKeyCommits();
+    final long dataCommitted = omMetrics.getDataCommittedBytes();
+
+    new OMPersistDbRequest(newPersistDbRequest(Type.CommitKey, updates))
+        .validateAndUpdateCache(ozoneManager,
+            ExecutionContext.of(INDEX + 2, null));
+    assertEquals(numKeys + 1, omMetrics.getNumKeys());
+    assertEquals(numKeyCommits + 1, omMetrics.getNumKeyCommits());
+    assertEquals(dataCommitted + 100, omMetrics.getDataCommittedBytes());
+
+    // committing the key again does not add a key
+    new OMPersistDbRequest(newPersistDbRequest(Type.CommitKey, updates))
+        .validateAndUpdateCache(ozoneManager,
+            ExecutionContext.of(INDEX + 3, null));
+    assertEquals(numKeys + 1, omMetrics.getNumKeys());
+    assertEquals(numKeyCommits + 2, omMetrics.getNumKeyCommits());
+  }
+
+  @Test
+  public void testRestoreCache() throws Exception {
+    final Table<String, OmKeyInfo> keyTable =
+        omMetadataManager.getKeyTable(BucketLayout.DEFAULT);
+    final String newKey = omMetadataManager.getOzoneKey(
+        volumeName, bucketName, "new");
+    final String oldKey = omMetadataManager.getOzoneKey(
+        volumeName, bucketName, "old");
+    keyTable.put(oldKey, newKeyInfo("old"));
+    final List<DBTableUpdate> updates;
+    try (RecordingBatchOperation batch = new RecordingBatchOperation()) {
+      keyTable.putWithBatch(batch, newKey, newKeyInfo("new"));
+      keyTable.deleteWithBatch(batch, oldKey);
+      updates = OMPersistDbRequest.toTableUpdates(batch.getRecords());
+    }
+    final OMRequest request = newPersistDbRequest(updates);
+    new OMPersistDbRequest(request).validateAndUpdateCache(ozoneManager,
+        ExecutionContext.of(INDEX + 2, null));
+    assertTrue(keyTable.isExist(newKey));
+    assertFalse(keyTable.isExist(oldKey));
+
+    // the changes were dropped from the log
+    OMPersistDbRequest.restoreCache(omMetadataManager,
+        request.getPersistDbRequest());
+    assertFalse(keyTable.isExist(newKey));
+    assertEquals("old", keyTable.get(oldKey).getKeyName());
+  }
+
+  @Test
+  public void testRecordingKeepsLastOperation() throws Exception {
+    final Table<String, OmKeyInfo> keyTable =
+        omMetadataManager.getKeyTable(BucketLayout.DEFAULT);
+    final String key = omMetadataManager.getOzoneKey(
+        volumeName, bucketName, keyName);
+    try (RecordingBatchOperation batch = new RecordingBatchOperation()) {
+      keyTable.putWithBatch(batch, key, newKeyInfo(keyName));
+      keyTable.deleteWithBatch(batch, key);
+      final Map<ByteBuffer, byte[]> records =
+          batch.getRecords().get(keyTable.getName());
+      assertEquals(1, records.size());
+      assertNull(records.values().iterator().next());
+
+      keyTable.putWithBatch(batch, key, newKeyInfo(keyName));
+      assertEquals(1, records.size());
+      assertNotNull(records.values().iterator().next());
+    }
+    assertFalse(keyTable.isExist(key));
+  }
+
+  @Test
+  public void testRejectedFromClients() {
+    final OMPersistDbRequest request = new OMPersistDbRequest(
+        newPersistDbRequest(Collections.emptyList()));
+    final OMException e = assertThrows(OMException.class,
+        () -> request.preExecute(ozoneManager));
+    assertEquals(OMException.ResultCodes.INVALID_REQUEST, e.getResult());
+  }
+
+  private OmKeyInfo newKeyInfo(String name) {
+    return OMRequestTestUtils.createOmKeyInfo(volumeName, bucketName, name,
+        replicationConfig).build();
+  }
+
+  private static OMRequest newPersistDbRequest(List<DBTableUpdate> updates) {
+    return newPersistDbRequest(Type.CreateKey, updates);
+  }
+
+  private static OMRequest newPersistDbRequest(Type type,
+      List<DBTableUpdate> updates) {
+    final OMResponse response = OMResponse.newBuilder()
+        .setCmdType(type)
+        .setStatus(Status.OK)
+        .build();
+    return OMRequest.newBuilder()
+        .setCmdType(Type.PersistDb)
+        .setClientId(UUID.randomUUID().toString())
+        .setPersistDbRequest(PersistDbRequest.newBuilder()
+            .setIndex(INDEX)
+            .setTerm(1)
+            .addAllTableUpdates(updates)
+            .setResponse(response))
+        .build();
+  }
+}
@@ -52,6 +52,8 @@
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.BlockLocation;
@@ -92,6 +94,7 @@
 import org.apache.hadoop.security.token.Token;
 import org.apache.hadoop.util.Progressable;
 import org.apache.http.client.utils.URIBuilder;
+import org.apache.ratis.util.MemoizedSupplier;
 import org.apache.ratis.util.function.CheckedFunction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -127,6 +130,10 @@ public class BasicRootedOzoneFileSystem extends FileSystem {
   private boolean isRatisStreamingEnabled
       = OzoneConfigKeys.OZONE_FS_DATASTREAM_ENABLED_DEFAULT;
   private int streamingAutoThreshold;
+  private int vectoredReadThreads;
+  private final MemoizedSupplier<ExecutorService> vectoredReadExecutor =
+      MemoizedSupplier.valueOf(
+          () -> OzoneFSVectoredReader.newExecutor(vectoredReadThreads));
 
   private static final String URI_EXCEPTION_TEXT =
       "URL should be one of the following formats: " +
@@ -153,6 +160,9 @@ public void initialize(URI name, Configuration conf) throws IOException {
         OzoneConfigKeys.OZONE_FS_DATASTREAM_AUTO_THRESHOLD,
         OzoneConfigKeys.OZONE_FS_DATASTREAM_AUTO_THRESHOLD_DEFAULT,
         StorageUnit.BYTES);
+    vectoredReadThreads = conf.getInt(
+        OzoneConfigKeys.OZONE_FS_VECTORED_READ_THREADS,
+        OzoneConfigKeys.OZONE_FS_VECTORED_READ_THREADS_DEFAULT);
     setConf(conf);
     Preconditions.checkNotNull(name.getScheme(),
         "No scheme provided in %s", name);
@@ -222,12 +232,23 @@ protected boolean isHsyncEnabled() {
   @Override
   public void close() throws IOException {
     try {
+      if (vectoredReadExecutor.isInitialized()) {
+        vectoredReadExecutor.get().shutdownNow();
+      }
       adapter.close();
     } finally {
       super.close();
     }
   }
 
+  /**
+   * @return the executor issuing block reads of vectored reads, created on
+   * first use.
+   */
+  protected Supplier<ExecutorService> getVectoredReadExecutor() {
+    return vectoredReadExecutor;
+  }
+
   @Override
   public URI getUri() {
     return uri;
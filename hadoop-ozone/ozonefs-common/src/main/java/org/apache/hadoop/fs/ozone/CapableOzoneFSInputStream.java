@@ -17,16 +17,34 @@
 
 package org.apache.hadoop.fs.ozone;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import org.apache.hadoop.fs.FileRange;
 import org.apache.hadoop.fs.FileSystem.Statistics;
 import org.apache.hadoop.fs.StreamCapabilities;
+import org.apache.hadoop.hdds.scm.storage.MultipartInputStream;
 import org.apache.hadoop.util.StringUtils;
 
 final class CapableOzoneFSInputStream extends OzoneFSInputStream
     implements StreamCapabilities {
 
+  private final Statistics statistics;
+  private final Supplier<? extends Executor> vectoredReadExecutor;
+
   CapableOzoneFSInputStream(InputStream inputStream, Statistics statistics) {
+    this(inputStream, statistics, null);
+  }
+
+  CapableOzoneFSInputStream(InputStream inputStream, Statistics statistics,
+      Supplier<? extends Executor> vectoredReadExecutor) {
     super(inputStream, statistics);
+    this.statistics = statistics;
+    this.vectoredReadExecutor = vectoredReadExecutor;
   }
 
   @Override
@@ -36,8 +54,42 @@ public boolean hasCapability(String capability) {
     case StreamCapabilities.UNBUFFER:
     case StreamCapabilities.PREADBYTEBUFFER:
       return true;
+    case StreamCapabilities.VECTOREDIO:
+      return isVectoredReadSupported();
     default:
       return false;
     }
   }
+
+  @Override
+  public int minSeekForVectorReads() {
+    return OzoneFSVectoredReader.MIN_SEEK;
+  }
+
+  @Override
+  public int maxReadSizeForVectorReads() {
+    return OzoneFSVectoredReader.MAX_MERGED_READ_SIZE;
+  }
+
+  /**
+   * Reads the ranges in parallel per block, coalescing nearby ranges.
+   * Falls back to the default implementation (one positioned read per range)
+   * for streams not backed directly by blocks, e.g. encrypted keys.
+   */
+  @Override
+  public void readVectored(List<? extends FileRange> ranges,
+      IntFunction<ByteBuffer> allocate) throws IOException {
+    if (!isVectoredReadSupported()) {
+      super.readVectored(ranges, allocate);
+      return;
+    }
+    new OzoneFSVectoredReader((MultipartInputStream) getInputStream(),
+        vectoredReadExecutor.get(), statistics)
+        .readVectored(ranges, allocate);
+  }
+
+  private boolean isVectoredReadSupported() {
+    return vectoredReadExecutor != null
+        && getInputStream() instanceof MultipartInputStream;
+  }
 }
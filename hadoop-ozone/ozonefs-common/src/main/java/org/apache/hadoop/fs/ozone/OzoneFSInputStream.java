@@ -54,6 +54,10 @@ public OzoneFSInputStream(InputStream inputStream, Statistics statistics) {
     this.statistics = statistics;
   }
 
+  InputStream getInputStream() {
+    return inputStream;
+  }
+
   @Override
   public int read() throws IOException {
     Span span = GlobalTracer.get()
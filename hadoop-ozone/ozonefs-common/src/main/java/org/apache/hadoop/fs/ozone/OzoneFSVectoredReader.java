@@ -0,0 +1,242 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.fs.ozone;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import org.apache.hadoop.fs.FileRange;
+import org.apache.hadoop.fs.FileSystem.Statistics;
+import org.apache.hadoop.hdds.scm.storage.MultipartInputStream;
+
+/**
+ * Implements vectored reads on top of a {@link MultipartInputStream}.
+ * <p>
+ * Ranges are sorted and nearby ranges within the same block are coalesced
+ * into a single read, so that a Parquet/ORC footer and its column chunks turn
+ * into a few ReadChunk calls instead of many small ones. The reads of
+ * different blocks are issued in parallel on the given executor, while the
+ * reads of the same block are issued one after the other. A range which is
+ * not coalesced with others is read directly into the buffer allocated for
+ * it; coalesced ranges are returned as slices of the shared buffer.
+ */
+final class OzoneFSVectoredReader {
+
+  /** Ranges closer to each other than this are read together. */
+  static final int MIN_SEEK = 128 * 1024;
+
+  /** Upper bound of the size of a read produced by coalescing ranges. */
+  static final int MAX_MERGED_READ_SIZE = 4 * 1024 * 1024;
+
+  private final MultipartInputStream in;
+  private final Executor executor;
+  private final Statistics statistics;
+
+  OzoneFSVectoredReader(MultipartInputStream in, Executor executor,
+      Statistics statistics) {
+    this.in = in;
+    this.executor = executor;
+    this.statistics = statistics;
+  }
+
+  /**
+   * @return a new executor for issuing the reads of different blocks.
+   */
+  static ExecutorService newExecutor(int threads) {
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads,
+        60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+        new ThreadFactoryBuilder().setNameFormat("ozone-fs-vectored-read-%d")
+            .setDaemon(true).build());
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  /**
+   * Start reading the given ranges. The data future of each range is set
+   * before this method returns and completed asynchronously.
+   */
+  void readVectored(List<? extends FileRange> ranges,
+      IntFunction<ByteBuffer> allocate) throws IOException {
+    List<FileRange> sorted = sortAndValidate(ranges);
+    for (FileRange range : sorted) {
+      range.setData(new CompletableFuture<>());
+    }
+
+    // group the coalesced reads by block, keeping their order
+    Map<Integer, List<MergedRange>> readsByBlock = new LinkedHashMap<>();
+    for (MergedRange merged : merge(sorted)) {
+      readsByBlock.computeIfAbsent(merged.getBlockIndex(),
+          k -> new ArrayList<>()).add(merged);
+    }
+    for (List<MergedRange> reads : readsByBlock.values()) {
+      CompletableFuture.runAsync(() -> {
+        for (MergedRange merged : reads) {
+          read(merged, allocate);
+        }
+      }, executor).exceptionally(e -> {
+        // e.g. the executor rejected the task, fail the pending ranges
+        for (MergedRange merged : reads) {
+          merged.fail(e);
+        }
+        return null;
+      });
+    }
+  }
+
+  private void read(MergedRange merged, IntFunction<ByteBuffer> allocate) {
+    try {
+      List<FileRange> parts = merged.getRanges();
+      if (parts.size() == 1) {
+        FileRange range = parts.get(0);
+        ByteBuffer buffer = allocate.apply(range.getLength());
+        readFully(range.getOffset(), buffer, range.getLength());
+        range.getData().complete(buffer);
+        return;
+      }
+
+      ByteBuffer buffer = allocate.apply(merged.getLength());
+      readFully(merged.getOffset(), buffer, merged.getLength());
+      for (FileRange range : parts) {
+        ByteBuffer slice = buffer.duplicate();
+        int start = buffer.position()
+            + (int) (range.getOffset() - merged.getOffset());
+        slice.position(start);
+        slice.limit(start + range.getLength());
+        range.getData().complete(slice.slice());
+      }
+    } catch (Throwable e) {
+      merged.fail(e);
+    }
+  }
+
+  private void readFully(long position, ByteBuffer buffer, int length)
+      throws IOException {
+    int start = buffer.position();
+    buffer.limit(start + length);
+    in.readFully(position, buffer);
+    buffer.position(start);
+    buffer.limit(start + length);
+    if (statistics != null) {
+      statistics.incrementBytesRead(length);
+    }
+  }
+
+  private List<FileRange> sortAndValidate(List<? extends FileRange> ranges)
+      throws EOFException {
+    List<FileRange> sorted = new ArrayList<>(ranges);
+    sorted.sort(Comparator.comparingLong(FileRange::getOffset));
+    FileRange prev = null;
+    for (FileRange range : sorted) {
+      if (range.getOffset() < 0 || range.getLength() < 0) {
+        throw new IllegalArgumentException("Invalid range " + range);
+      }
+      if (range.getOffset() + range.getLength() > in.getLength()) {
+        throw new EOFException("Range " + range + " is beyond the end of "
+            + "the file of length " + in.getLength());
+      }
+      if (prev != null
+          && prev.getOffset() + prev.getLength() > range.getOffset()) {
+        throw new IllegalArgumentException("Overlapping ranges " + prev
+            + " and " + range);
+      }
+      prev = range;
+    }
+    return sorted;
+  }
+
+  /**
+   * Coalesce sorted ranges which are close to each other and start in the
+   * same block.
+   */
+  private List<MergedRange> merge(List<FileRange> sorted) {
+    List<MergedRange> result = new ArrayList<>();
+    MergedRange current = null;
+    for (FileRange range : sorted) {
+      int blockIndex = in.getPartIndex(range.getOffset());
+      if (current == null || !current.tryAppend(range, blockIndex)) {
+        current = new MergedRange(range, blockIndex);
+        result.add(current);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * A single read covering one or more ranges.
+   */
+  private static final class MergedRange {
+    private final List<FileRange> ranges = new ArrayList<>();
+    private final int blockIndex;
+    private final long offset;
+    private long end;
+
+    MergedRange(FileRange range, int blockIndex) {
+      this.blockIndex = blockIndex;
+      this.offset = range.getOffset();
+      this.end = offset + range.getLength();
+      ranges.add(range);
+    }
+
+    boolean tryAppend(FileRange range, int rangeBlockIndex) {
+      long newEnd = range.getOffset() + range.getLength();
+      if (rangeBlockIndex != blockIndex
+          || range.getOffset() - end > MIN_SEEK
+          || newEnd - offset > MAX_MERGED_READ_SIZE) {
+        return false;
+      }
+      end = newEnd;
+      ranges.add(range);
+      return true;
+    }
+
+    int getBlockIndex() {
+      return blockIndex;
+    }
+
+    long getOffset() {
+      return offset;
+    }
+
+    int getLength() {
+      return (int) (end - offset);
+    }
+
+    List<FileRange> getRanges() {
+      return ranges;
+    }
+
+    void fail(Throwable e) {
+      for (FileRange range : ranges) {
+        range.getData().completeExceptionally(e);
+      }
+    }
+  }
+}
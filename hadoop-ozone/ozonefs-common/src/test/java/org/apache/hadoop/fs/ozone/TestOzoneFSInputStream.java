@@ -19,6 +19,7 @@
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.mock;
@@ -28,12 +29,18 @@
 
 import com.google.common.collect.ImmutableList;
 import java.io.ByteArrayInputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.security.GeneralSecurityException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.function.IntFunction;
 import org.apache.commons.lang3.RandomUtils;
 import org.apache.hadoop.conf.Configuration;
@@ -41,8 +48,13 @@
 import org.apache.hadoop.crypto.CryptoCodec;
 import org.apache.hadoop.crypto.CryptoInputStream;
 import org.apache.hadoop.crypto.Decryptor;
+import org.apache.hadoop.fs.FileRange;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.StreamCapabilities;
+import org.apache.hadoop.hdds.scm.storage.ByteReaderStrategy;
+import org.apache.hadoop.hdds.scm.storage.ExtendedInputStream;
+import org.apache.hadoop.hdds.scm.storage.MultipartInputStream;
+import org.apache.hadoop.hdds.scm.storage.PartInputStream;
 import org.apache.hadoop.ozone.client.io.KeyInputStream;
 import org.junit.jupiter.api.Test;
 
@@ -164,6 +176,53 @@ public void testCryptoStreamUnbuffer()
     }
   }
 
+  @Test
+  public void testVectoredRead() throws Exception {
+    final byte[] source = RandomUtils.secure().randomBytes(300);
+    List<ByteArrayPart> parts = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      parts.add(new ByteArrayPart(
+          Arrays.copyOfRange(source, i * 100, (i + 1) * 100)));
+    }
+    MultipartInputStream key = new MultipartInputStream("key", parts);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try (CapableOzoneFSInputStream subject = new CapableOzoneFSInputStream(
+        key, new FileSystem.Statistics("test"), () -> executor)) {
+      assertTrue(subject.hasCapability(StreamCapabilities.VECTOREDIO));
+      subject.seek(42);
+
+      // unsorted, with nearby ranges and a range crossing a block boundary
+      List<FileRange> ranges = Arrays.asList(
+          FileRange.createFileRange(250, 30),
+          FileRange.createFileRange(10, 5),
+          FileRange.createFileRange(20, 10),
+          FileRange.createFileRange(95, 10),
+          FileRange.createFileRange(150, 0));
+      subject.readVectored(ranges, ByteBuffer::allocate);
+
+      for (FileRange range : ranges) {
+        ByteBuffer data = range.getData().get(10, TimeUnit.SECONDS);
+        assertEquals(range.getLength(), data.remaining());
+        byte[] content = new byte[data.remaining()];
+        data.get(content);
+        assertArrayEquals(Arrays.copyOfRange(source, (int) range.getOffset(),
+            (int) range.getOffset() + range.getLength()), content);
+      }
+      // vectored reads do not change the position of the stream
+      assertEquals(42, subject.getPos());
+
+      assertThrows(EOFException.class, () -> subject.readVectored(
+          Collections.singletonList(FileRange.createFileRange(290, 20)),
+          ByteBuffer::allocate));
+      assertThrows(IllegalArgumentException.class, () -> subject.readVectored(
+          Arrays.asList(FileRange.createFileRange(10, 20),
+              FileRange.createFileRange(20, 20)),
+          ByteBuffer::allocate));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
   private static OzoneFSInputStream createTestSubject(InputStream input) {
     return new OzoneFSInputStream(input,
         new FileSystem.Statistics("test"));
@@ -173,6 +232,65 @@ private static InputStream emptyStream() {
     return new ByteArrayInputStream(new byte[0]);
   }
 
+  /**
+   * In-memory part of a {@link MultipartInputStream}.
+   */
+  private static final class ByteArrayPart extends ExtendedInputStream
+      implements PartInputStream {
+    private final byte[] data;
+    private int position;
+
+    ByteArrayPart(byte[] data) {
+      this.data = data;
+    }
+
+    @Override
+    public synchronized int read(byte[] b, int off, int len) {
+      int n = Math.min(len, data.length - position);
+      if (n <= 0) {
+        return EOF;
+      }
+      System.arraycopy(data, position, b, off, n);
+      position += n;
+      return n;
+    }
+
+    @Override
+    public synchronized int read(ByteBuffer buf) {
+      int n = Math.min(buf.remaining(), data.length - position);
+      if (n <= 0) {
+        return EOF;
+      }
+      buf.put(data, position, n);
+      position += n;
+      return n;
+    }
+
+    @Override
+    protected int readWithStrategy(ByteReaderStrategy strategy) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public synchronized void seek(long pos) {
+      position = (int) pos;
+    }
+
+    @Override
+    public synchronized long getPos() {
+      return position;
+    }
+
+    @Override
+    public long getLength() {
+      return data.length;
+    }
+
+    @Override
+    public void unbuffer() {
+    }
+  }
+
   private static InputStream eofStream() {
     return new InputStream() {
       @Override
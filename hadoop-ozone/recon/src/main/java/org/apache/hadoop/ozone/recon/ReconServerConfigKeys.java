@@ -108,6 +108,10 @@ public final class  ReconServerConfigKeys {
       "ozone.recon.task.thread.count";
   public static final int OZONE_RECON_TASK_THREAD_COUNT_DEFAULT = 8;
 
+  public static final String OZONE_RECON_TASK_REPROCESS_THREADS =
+      "ozone.recon.task.reprocess.threads";
+  public static final int OZONE_RECON_TASK_REPROCESS_THREADS_DEFAULT = 4;
+
   public static final String OZONE_RECON_HTTP_AUTH_CONFIG_PREFIX =
       "ozone.recon.http.auth.";
 
@@ -40,6 +40,7 @@
 import org.apache.hadoop.ozone.recon.api.types.ContainerKeyPrefix;
 import org.apache.hadoop.ozone.recon.api.types.KeyPrefixContainer;
 import org.apache.hadoop.ozone.recon.spi.ReconContainerMetadataManager;
+import org.apache.hadoop.ozone.recon.tasks.updater.ReconTaskStatusUpdater;
 import org.apache.hadoop.util.Time;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -54,6 +55,10 @@ public abstract class ContainerKeyMapperHelper {
   // Static lock to guard table truncation.
   private static final Object TRUNCATE_LOCK = new Object();
 
+  // Static lock to guard updates of the key counts of containers by the
+  // reprocess of different bucket layouts.
+  private static final Object CONTAINER_KEY_COUNT_LOCK = new Object();
+
   /**
    * Ensures that the container key tables are truncated only once before reprocessing.
    * Uses an AtomicBoolean to track if truncation has already been performed.
@@ -80,11 +85,31 @@ public static void truncateTablesIfNeeded(ReconContainerMetadataManager reconCon
     }
   }
 
+  /**
+   * Rebuilds the container key mappings of the given bucket layout from the
+   * OM key table. The key table is split into key ranges at bucket boundaries,
+   * which are processed in parallel. Each range writes its own container key
+   * mappings, which are distinct as every OM key is in a single range, and
+   * counts the keys per container. The per-range counts are summed and added
+   * to the counts in the DB at the end.
+   *
+   * @param omMetadataManager OM metadata manager.
+   * @param reconContainerMetadataManager Recon metadata manager instance.
+   * @param bucketLayout The bucket layout to process.
+   * @param taskName The name of the task for logging.
+   * @param containerKeyFlushToDBMaxThreshold Number of container key mappings
+   *                                          to keep in memory.
+   * @param threads Number of threads to scan the key table with.
+   * @param taskStatusUpdater Updater to record the progress in.
+   * @return true if processing succeeds, false otherwise.
+   */
   public static boolean reprocess(OMMetadataManager omMetadataManager,
-                                                ReconContainerMetadataManager reconContainerMetadataManager,
-                                                BucketLayout bucketLayout,
-                                                String taskName,
-                                                long containerKeyFlushToDBMaxThreshold) {
+                                  ReconContainerMetadataManager reconContainerMetadataManager,
+                                  BucketLayout bucketLayout,
+                                  String taskName,
+                                  long containerKeyFlushToDBMaxThreshold,
+                                  int threads,
+                                  ReconTaskStatusUpdater taskStatusUpdater) {
     long omKeyCount = 0;
     Map<ContainerKeyPrefix, Integer> containerKeyMap = new HashMap<>();
     Map<Long, Long> containerKeyCountMap = new HashMap<>();
@@ -99,34 +124,46 @@ public static boolean reprocess(OMMetadataManager omMetadataManager,
       // Get the appropriate table based on BucketLayout
       Table<String, OmKeyInfo> omKeyInfoTable = omMetadataManager.getKeyTable(bucketLayout);
 
-      // Iterate through the table and process keys
-      try (TableIterator<String, ? extends Table.KeyValue<String, OmKeyInfo>> keyIter = omKeyInfoTable.iterator()) {
-        while (keyIter.hasNext()) {
-          Table.KeyValue<String, OmKeyInfo> kv = keyIter.next();
-          handleKeyReprocess(kv.getKey(), kv.getValue(), containerKeyMap, containerKeyCountMap,
-              reconContainerMetadataManager);
-          omKeyCount++;
-
-          // Check and flush data if it reaches the batch threshold
-          if (!checkAndCallFlushToDB(containerKeyMap, containerKeyFlushToDBMaxThreshold,
-              reconContainerMetadataManager)) {
-            LOG.error("Failed to flush container key data for {}", taskName);
-            return false;
-          }
-        }
+      List<String> boundaries = threads > 1
+          ? KeyRangeScanner.getBucketPrefixes(omMetadataManager, bucketLayout)
+          : Collections.emptyList();
+      // Ranges are processed at the same time, share the threshold.
+      long rangeFlushThreshold = Math.max(1, containerKeyFlushToDBMaxThreshold / Math.max(1, threads));
+      List<RangeMappings> ranges = KeyRangeScanner.scan(omKeyInfoTable, boundaries, threads,
+          RangeMappings::new, (range, kv) -> {
+            handleKeyReprocess(kv.getKey(), kv.getValue(), range.containerKeyMap,
+                range.containerKeyCountMap, reconContainerMetadataManager);
+            range.keys++;
+
+            // Check and flush data if it reaches the batch threshold
+            if (!checkAndCallFlushToDB(range.containerKeyMap, rangeFlushThreshold,
+                reconContainerMetadataManager)) {
+              throw new IOException("Failed to flush container key data for " + taskName);
+            }
+          }, taskStatusUpdater);
+
+      for (RangeMappings range : ranges) {
+        containerKeyMap.putAll(range.containerKeyMap);
+        range.containerKeyCountMap.forEach((containerId, count) ->
+            containerKeyCountMap.merge(containerId, count, Long::sum));
+        omKeyCount += range.keys;
       }
 
       // Final flush and commit
-      if (!flushAndCommitContainerKeyInfoToDB(containerKeyMap, containerKeyCountMap, reconContainerMetadataManager)) {
-        LOG.error("Failed to flush Container Key data to DB for {}", taskName);
-        return false;
+      synchronized (CONTAINER_KEY_COUNT_LOCK) {
+        addStoredContainerKeyCounts(containerKeyCountMap, reconContainerMetadataManager);
+        if (!flushAndCommitContainerKeyInfoToDB(containerKeyMap, containerKeyCountMap,
+            reconContainerMetadataManager)) {
+          LOG.error("Failed to flush Container Key data to DB for {}", taskName);
+          return false;
+        }
       }
 
       Instant end = Instant.now();
       long durationMillis = Duration.between(start, end).toMillis();
       double durationSeconds = (double) durationMillis / 1000.0;
-      LOG.debug("Completed 'reprocess' for {}. Processed {} keys in {} ms ({} seconds).",
-          taskName, omKeyCount, durationMillis, durationSeconds);
+      LOG.debug("Completed 'reprocess' for {}. Processed {} keys in {} key ranges in {} ms ({} seconds).",
+          taskName, omKeyCount, ranges.size(), durationMillis, durationSeconds);
 
     } catch (IOException ioEx) {
       LOG.error("Error populating Container Key data for {} in Recon DB.", taskName, ioEx);
@@ -135,6 +172,27 @@ public static boolean reprocess(OMMetadataManager omMetadataManager,
     return true;
   }
 
+  /**
+   * Adds the key counts stored in the DB, e.g. by the reprocess of another
+   * bucket layout, to the key counts of the containers counted from scratch,
+   * and increments the number of containers by the containers not stored yet.
+   */
+  private static void addStoredContainerKeyCounts(Map<Long, Long> containerKeyCountMap,
+      ReconContainerMetadataManager reconContainerMetadataManager) throws IOException {
+    long containerCountToIncrement = 0;
+    for (Map.Entry<Long, Long> entry : containerKeyCountMap.entrySet()) {
+      long containerId = entry.getKey();
+      if (reconContainerMetadataManager.doesContainerExists(containerId)) {
+        entry.setValue(entry.getValue() + reconContainerMetadataManager.getKeyCountForContainer(containerId));
+      } else {
+        containerCountToIncrement++;
+      }
+    }
+    if (containerCountToIncrement > 0) {
+      reconContainerMetadataManager.incrementContainerCountBy(containerCountToIncrement);
+    }
+  }
+
   private static boolean checkAndCallFlushToDB(Map<ContainerKeyPrefix, Integer> containerKeyMap,
                                                long containerKeyFlushToDBMaxThreshold,
                                                ReconContainerMetadataManager reconContainerMetadataManager) {
@@ -385,28 +443,25 @@ private static void writeToTheDB(Map<ContainerKeyPrefix, Integer> containerKeyMa
   }
 
   /**
-   * Write an OM key to container DB and update containerID -&gt; no. of keys
-   * count to the Global Stats table.
+   * Note the container key mappings of an OM key during reprocess and count
+   * the key for its containers.
    *
    * @param key key String
    * @param omKeyInfo omKeyInfo value
    * @param containerKeyMap we keep the added containerKeys in this map
    *                        to allow incremental batching to containerKeyTable
-   * @param containerKeyCountMap we keep the containerKey counts in this map
-   *                             to allow batching to containerKeyCountTable
-   *                             after reprocessing is done
+   * @param containerKeyCountMap we count the keys added per container in this
+   *                             map, starting from zero
    * @param reconContainerMetadataManager Recon metadata manager instance
-   * @throws IOException if unable to write to recon DB.
+   * @throws IOException if unable to read from recon DB.
    */
-  public static void handleKeyReprocess(String key,
-                                        OmKeyInfo omKeyInfo,
-                                        Map<ContainerKeyPrefix, Integer> containerKeyMap,
-                                        Map<Long, Long> containerKeyCountMap,
-                                        ReconContainerMetadataManager reconContainerMetadataManager)
+  private static void handleKeyReprocess(String key,
+                                         OmKeyInfo omKeyInfo,
+                                         Map<ContainerKeyPrefix, Integer> containerKeyMap,
+                                         Map<Long, Long> containerKeyCountMap,
+                                         ReconContainerMetadataManager reconContainerMetadataManager)
       throws IOException {
 
-    long containerCountToIncrement = 0;
-
     for (OmKeyLocationInfoGroup omKeyLocationInfoGroup : omKeyInfo.getKeyLocationVersions()) {
       long keyVersion = omKeyLocationInfoGroup.getVersion();
       for (OmKeyLocationInfo omKeyLocationInfo : omKeyLocationInfoGroup.getLocationList()) {
@@ -417,25 +472,10 @@ public static void handleKeyReprocess(String key,
             && !containerKeyMap.containsKey(containerKeyPrefix)) {
           // Save on writes. No need to save same container-key prefix mapping again.
           containerKeyMap.put(containerKeyPrefix, 1);
-
-          // Check if container already exists; if not, increment the count
-          if (!reconContainerMetadataManager.doesContainerExists(containerId)
-              && !containerKeyCountMap.containsKey(containerId)) {
-            containerCountToIncrement++;
-          }
-
-          // Update the count of keys for the given containerID
-          long keyCount = containerKeyCountMap.getOrDefault(containerId,
-              reconContainerMetadataManager.getKeyCountForContainer(containerId));
-
-          containerKeyCountMap.put(containerId, keyCount + 1);
+          containerKeyCountMap.merge(containerId, 1L, Long::sum);
         }
       }
     }
-
-    if (containerCountToIncrement > 0) {
-      reconContainerMetadataManager.incrementContainerCountBy(containerCountToIncrement);
-    }
   }
 
   public static boolean flushAndCommitContainerKeyInfoToDB(
@@ -458,4 +498,12 @@ public static boolean flushAndCommitContainerKeyInfoToDB(
     return true;
   }
 
+  /**
+   * Container key mappings and counts of a single key range during reprocess.
+   */
+  private static final class RangeMappings {
+    private final Map<ContainerKeyPrefix, Integer> containerKeyMap = new HashMap<>();
+    private final Map<Long, Long> containerKeyCountMap = new HashMap<>();
+    private long keys;
+  }
 }
@@ -24,6 +24,7 @@
 import org.apache.hadoop.ozone.om.helpers.BucketLayout;
 import org.apache.hadoop.ozone.recon.ReconServerConfigKeys;
 import org.apache.hadoop.ozone.recon.spi.ReconContainerMetadataManager;
+import org.apache.hadoop.ozone.recon.tasks.updater.ReconTaskStatusUpdaterManager;
 
 /**
  * Task for processing ContainerKey mapping specifically for OBS buckets.
@@ -32,12 +33,15 @@ public class ContainerKeyMapperTaskOBS implements ReconOmTask {
 
   private final ReconContainerMetadataManager reconContainerMetadataManager;
   private final OzoneConfiguration ozoneConfiguration;
+  private final ReconTaskStatusUpdaterManager taskStatusUpdaterManager;
 
   @Inject
   public ContainerKeyMapperTaskOBS(ReconContainerMetadataManager reconContainerMetadataManager,
-                                   OzoneConfiguration configuration) {
+                                   OzoneConfiguration configuration,
+                                   ReconTaskStatusUpdaterManager taskStatusUpdaterManager) {
     this.reconContainerMetadataManager = reconContainerMetadataManager;
     this.ozoneConfiguration = configuration;
+    this.taskStatusUpdaterManager = taskStatusUpdaterManager;
   }
 
   @Override
@@ -45,9 +49,13 @@ public TaskResult reprocess(OMMetadataManager omMetadataManager) {
     long containerKeyFlushToDBMaxThreshold = ozoneConfiguration.getLong(
         ReconServerConfigKeys.OZONE_RECON_CONTAINER_KEY_FLUSH_TO_DB_MAX_THRESHOLD,
         ReconServerConfigKeys.OZONE_RECON_CONTAINER_KEY_FLUSH_TO_DB_MAX_THRESHOLD_DEFAULT);
+    int threads = ozoneConfiguration.getInt(
+        ReconServerConfigKeys.OZONE_RECON_TASK_REPROCESS_THREADS,
+        ReconServerConfigKeys.OZONE_RECON_TASK_REPROCESS_THREADS_DEFAULT);
     boolean result = ContainerKeyMapperHelper.reprocess(
         omMetadataManager, reconContainerMetadataManager, BucketLayout.OBJECT_STORE, getTaskName(),
-        containerKeyFlushToDBMaxThreshold);
+        containerKeyFlushToDBMaxThreshold, threads,
+        taskStatusUpdaterManager.getTaskStatusUpdater(getTaskName()));
     return buildTaskResult(result);
   }
 
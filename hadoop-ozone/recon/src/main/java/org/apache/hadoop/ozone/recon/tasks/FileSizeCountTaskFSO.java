@@ -21,8 +21,11 @@
 
 import com.google.inject.Inject;
 import java.util.Map;
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
 import org.apache.hadoop.ozone.om.OMMetadataManager;
 import org.apache.hadoop.ozone.om.helpers.BucketLayout;
+import org.apache.hadoop.ozone.recon.ReconServerConfigKeys;
+import org.apache.hadoop.ozone.recon.tasks.updater.ReconTaskStatusUpdaterManager;
 import org.apache.ozone.recon.schema.UtilizationSchemaDefinition;
 import org.apache.ozone.recon.schema.generated.tables.daos.FileCountBySizeDao;
 import org.jooq.DSLContext;
@@ -34,12 +37,20 @@ public class FileSizeCountTaskFSO implements ReconOmTask {
 
   private final FileCountBySizeDao fileCountBySizeDao;
   private final DSLContext dslContext;
+  private final int reprocessThreads;
+  private final ReconTaskStatusUpdaterManager taskStatusUpdaterManager;
 
   @Inject
   public FileSizeCountTaskFSO(FileCountBySizeDao fileCountBySizeDao,
-                              UtilizationSchemaDefinition utilizationSchemaDefinition) {
+                              UtilizationSchemaDefinition utilizationSchemaDefinition,
+                              OzoneConfiguration configuration,
+                              ReconTaskStatusUpdaterManager taskStatusUpdaterManager) {
     this.fileCountBySizeDao = fileCountBySizeDao;
     this.dslContext = utilizationSchemaDefinition.getDSLContext();
+    this.reprocessThreads = configuration.getInt(
+        ReconServerConfigKeys.OZONE_RECON_TASK_REPROCESS_THREADS,
+        ReconServerConfigKeys.OZONE_RECON_TASK_REPROCESS_THREADS_DEFAULT);
+    this.taskStatusUpdaterManager = taskStatusUpdaterManager;
   }
 
   @Override
@@ -49,7 +60,9 @@ public TaskResult reprocess(OMMetadataManager omMetadataManager) {
         dslContext,
         fileCountBySizeDao,
         BucketLayout.FILE_SYSTEM_OPTIMIZED,
-        getTaskName()
+        getTaskName(),
+        reprocessThreads,
+        taskStatusUpdaterManager.getTaskStatusUpdater(getTaskName())
     );
   }
 
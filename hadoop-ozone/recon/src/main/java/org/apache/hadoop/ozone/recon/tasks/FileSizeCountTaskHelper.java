@@ -21,17 +21,18 @@
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import org.apache.hadoop.hdds.utils.db.Table;
-import org.apache.hadoop.hdds.utils.db.TableIterator;
 import org.apache.hadoop.ozone.om.OMMetadataManager;
 import org.apache.hadoop.ozone.om.helpers.BucketLayout;
 import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
 import org.apache.hadoop.ozone.recon.ReconConstants;
 import org.apache.hadoop.ozone.recon.ReconUtils;
+import org.apache.hadoop.ozone.recon.tasks.updater.ReconTaskStatusUpdater;
 import org.apache.hadoop.util.Time;
 import org.apache.ozone.recon.schema.generated.tables.daos.FileCountBySizeDao;
 import org.apache.ozone.recon.schema.generated.tables.pojos.FileCountBySize;
@@ -82,19 +83,23 @@ public static void truncateTableIfNeeded(DSLContext dslContext) {
    * @param fileCountBySizeDao DAO for file count table.
    * @param bucketLayout       The bucket layout to process.
    * @param taskName           The name of the task for logging.
+   * @param threads            Number of threads to scan the key table with.
+   * @param taskStatusUpdater  Updater to record the progress in.
    * @return A Pair of task name and boolean indicating success.
    */
   public static ReconOmTask.TaskResult reprocess(OMMetadataManager omMetadataManager,
                                                  DSLContext dslContext,
                                                  FileCountBySizeDao fileCountBySizeDao,
                                                  BucketLayout bucketLayout,
-                                                 String taskName) {
+                                                 String taskName,
+                                                 int threads,
+                                                 ReconTaskStatusUpdater taskStatusUpdater) {
     LOG.info("Starting Reprocess for {}", taskName);
     Map<FileSizeCountKey, Long> fileSizeCountMap = new HashMap<>();
     long startTime = Time.monotonicNow();
     truncateTableIfNeeded(dslContext);
-    boolean status = reprocessBucketLayout(
-        bucketLayout, omMetadataManager, fileSizeCountMap, dslContext, fileCountBySizeDao, taskName);
+    boolean status = reprocessBucketLayout(bucketLayout, omMetadataManager,
+        fileSizeCountMap, dslContext, fileCountBySizeDao, taskName, threads, taskStatusUpdater);
     if (!status) {
       return buildTaskResult(taskName, false);
     }
@@ -106,6 +111,8 @@ public static ReconOmTask.TaskResult reprocess(OMMetadataManager omMetadataManag
 
   /**
    * Iterates over the OM DB keys for the given bucket layout and updates the fileSizeCountMap.
+   * The key table is split into key ranges at bucket boundaries, which are counted in parallel
+   * into separate maps, merged into fileSizeCountMap afterwards.
    *
    * @param bucketLayout       The bucket layout to use.
    * @param omMetadataManager  OM metadata manager.
@@ -113,22 +120,33 @@ public static ReconOmTask.TaskResult reprocess(OMMetadataManager omMetadataManag
    * @param dslContext         DSLContext for DB operations.
    * @param fileCountBySizeDao DAO for file count table.
    * @param taskName           The name of the task for logging.
+   * @param threads            Number of threads to scan the key table with.
+   * @param taskStatusUpdater  Updater to record the progress in.
    * @return true if processing succeeds, false otherwise.
    */
+  @SuppressWarnings("checkstyle:ParameterNumber")
   public static boolean reprocessBucketLayout(BucketLayout bucketLayout,
                                               OMMetadataManager omMetadataManager,
                                               Map<FileSizeCountKey, Long> fileSizeCountMap,
                                               DSLContext dslContext,
                                               FileCountBySizeDao fileCountBySizeDao,
-                                              String taskName) {
+                                              String taskName,
+                                              int threads,
+                                              ReconTaskStatusUpdater taskStatusUpdater) {
     Table<String, OmKeyInfo> omKeyInfoTable = omMetadataManager.getKeyTable(bucketLayout);
-    int totalKeysProcessed = 0;
-    try (TableIterator<String, ? extends Table.KeyValue<String, OmKeyInfo>> keyIter =
-             omKeyInfoTable.iterator()) {
-      while (keyIter.hasNext()) {
-        Table.KeyValue<String, OmKeyInfo> kv = keyIter.next();
-        handlePutKeyEvent(kv.getValue(), fileSizeCountMap);
-        totalKeysProcessed++;
+    long totalKeysProcessed = 0;
+    try {
+      List<String> boundaries = threads > 1
+          ? KeyRangeScanner.getBucketPrefixes(omMetadataManager, bucketLayout)
+          : Collections.emptyList();
+      List<RangeCounts> ranges = KeyRangeScanner.scan(omKeyInfoTable, boundaries, threads,
+          RangeCounts::new, (range, kv) -> {
+            handlePutKeyEvent(kv.getValue(), range.counts);
+            range.keys++;
+          }, taskStatusUpdater);
+      for (RangeCounts range : ranges) {
+        range.counts.forEach((key, count) -> fileSizeCountMap.merge(key, count, Long::sum));
+        totalKeysProcessed += range.keys;
 
         // Flush to DB periodically.
         if (fileSizeCountMap.size() >= 100000) {
@@ -136,6 +154,7 @@ public static boolean reprocessBucketLayout(BucketLayout bucketLayout,
           fileSizeCountMap.clear();
         }
       }
+      LOG.info("{} counted keys in {} key ranges.", taskName, ranges.size());
     } catch (IOException ioEx) {
       LOG.error("Unable to populate File Size Count for {} in Recon DB.", taskName, ioEx);
       return false;
@@ -328,6 +347,14 @@ public int hashCode() {
     }
   }
 
+  /**
+   * File size counts of a single key range during reprocess.
+   */
+  private static final class RangeCounts {
+    private final Map<FileSizeCountKey, Long> counts = new HashMap<>();
+    private long keys;
+  }
+
   public static ReconOmTask.TaskResult buildTaskResult(String taskName, boolean success) {
     return new ReconOmTask.TaskResult.Builder()
         .setTaskName(taskName)
@@ -0,0 +1,233 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.recon.tasks;
+
+import static org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes.BUCKET_NOT_FOUND;
+import static org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes.VOLUME_NOT_FOUND;
+
+import com.google.common.primitives.UnsignedBytes;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.apache.hadoop.hdds.utils.db.Table;
+import org.apache.hadoop.hdds.utils.db.TableIterator;
+import org.apache.hadoop.ozone.om.OMMetadataManager;
+import org.apache.hadoop.ozone.om.exceptions.OMException;
+import org.apache.hadoop.ozone.om.helpers.BucketLayout;
+import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
+import org.apache.hadoop.ozone.recon.tasks.updater.ReconTaskStatusUpdater;
+import org.apache.ratis.util.function.CheckedBiConsumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Scans an OM key table in parallel during reprocess.
+ * <p>
+ * The key space is split into contiguous ranges at bucket prefixes, so every
+ * key of the table belongs to exactly one range, regardless of whether its
+ * bucket still exists. Each range is processed by a separate task of a
+ * work-stealing pool into its own partial result, which the caller merges
+ * after all ranges are done. The progress is recorded in the status of the
+ * task after each range.
+ */
+public final class KeyRangeScanner {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(KeyRangeScanner.class);
+
+  /** Number of ranges per thread, to let idle threads steal work. */
+  private static final int RANGES_PER_THREAD = 4;
+
+  private static final Comparator<byte[]> BYTE_ORDER =
+      UnsignedBytes.lexicographicalComparator();
+
+  private KeyRangeScanner() {
+  }
+
+  /**
+   * Returns the sorted key prefixes of the buckets stored in the key table of
+   * the given layout, or an empty list if the bucket table is not available.
+   * FSO buckets whose volume or bucket ID cannot be resolved are left out.
+   */
+  public static List<String> getBucketPrefixes(
+      OMMetadataManager omMetadataManager, BucketLayout bucketLayout)
+      throws IOException {
+    Table<String, OmBucketInfo> bucketTable =
+        omMetadataManager.getBucketTable();
+    if (bucketTable == null) {
+      return Collections.emptyList();
+    }
+    List<String> prefixes = new ArrayList<>();
+    try (TableIterator<String, ? extends Table.KeyValue<String, OmBucketInfo>>
+             iterator = bucketTable.iterator()) {
+      while (iterator.hasNext()) {
+        OmBucketInfo bucket = iterator.next().getValue();
+        boolean fso = bucket.getBucketLayout().isFileSystemOptimized();
+        if (fso != bucketLayout.isFileSystemOptimized()) {
+          continue;
+        }
+        if (!fso) {
+          prefixes.add(omMetadataManager.getBucketKeyPrefix(
+              bucket.getVolumeName(), bucket.getBucketName()));
+          continue;
+        }
+        try {
+          prefixes.add(omMetadataManager.getBucketKeyPrefixFSO(
+              bucket.getVolumeName(), bucket.getBucketName()));
+        } catch (OMException e) {
+          // The prefix is only a split point, the keys are scanned anyway.
+          if (e.getResult() != VOLUME_NOT_FOUND
+              && e.getResult() != BUCKET_NOT_FOUND) {
+            throw e;
+          }
+          LOG.debug("Not splitting at bucket {}/{}: {}",
+              bucket.getVolumeName(), bucket.getBucketName(), e.getMessage());
+        }
+      }
+    }
+    prefixes.sort(KeyRangeScanner::compare);
+    return prefixes;
+  }
+
+  /**
+   * Splits the key space at (a subset of) the given sorted boundaries into at
+   * most {@code threads * RANGES_PER_THREAD} ranges.
+   *
+   * @return the start keys of the ranges; the first is always null, which
+   * stands for the beginning of the table.
+   */
+  static List<String> getRangeStarts(List<String> boundaries, int threads) {
+    int maxRanges = Math.max(1, threads * RANGES_PER_THREAD);
+    int step = Math.max(1, (boundaries.size() + maxRanges - 1) / maxRanges);
+    List<String> starts = new ArrayList<>();
+    starts.add(null);
+    for (int i = step; i < boundaries.size(); i += step) {
+      starts.add(boundaries.get(i));
+    }
+    return starts;
+  }
+
+  /**
+   * Processes all entries of the table, splitting the work into key ranges
+   * at the given boundaries.  If a single thread is requested or there is
+   * only one range, the table is iterated in the calling thread.
+   *
+   * @param table the table to scan
+   * @param boundaries sorted keys to split the table at
+   * @param threads number of threads to use
+   * @param partialResult creates the partial result for one range
+   * @param processor adds an entry to the partial result of its range
+   * @param taskStatusUpdater records the progress after each range, may be
+   *                          null
+   * @return the partial results, one per range
+   */
+  public static <V, R> List<R> scan(Table<String, V> table,
+      List<String> boundaries, int threads, Supplier<R> partialResult,
+      CheckedBiConsumer<R, Table.KeyValue<String, V>, IOException> processor,
+      ReconTaskStatusUpdater taskStatusUpdater)
+      throws IOException {
+    List<String> starts = getRangeStarts(boundaries, threads);
+    if (threads <= 1 || starts.size() == 1) {
+      R result = partialResult.get();
+      scanRange(table, null, null, result, processor);
+      recordProgress(taskStatusUpdater, table, 1, 1);
+      return Collections.singletonList(result);
+    }
+
+    List<Callable<R>> tasks = new ArrayList<>(starts.size());
+    AtomicInteger completed = new AtomicInteger();
+    for (int i = 0; i < starts.size(); i++) {
+      String start = starts.get(i);
+      String end = i + 1 < starts.size() ? starts.get(i + 1) : null;
+      tasks.add(() -> {
+        R result = partialResult.get();
+        long count = scanRange(table, start, end, result, processor);
+        LOG.debug("Scanned {} keys of {} in range [{}, {})",
+            count, table.getName(), start, end);
+        recordProgress(taskStatusUpdater, table, completed.incrementAndGet(),
+            starts.size());
+        return result;
+      });
+    }
+
+    ForkJoinPool pool = new ForkJoinPool(threads);
+    try {
+      List<R> results = new ArrayList<>(tasks.size());
+      for (Future<R> future : pool.invokeAll(tasks)) {
+        results.add(future.get());
+      }
+      return results;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while scanning " + table.getName(), e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      throw new IOException("Failed to scan " + table.getName(), cause);
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  private static void recordProgress(ReconTaskStatusUpdater taskStatusUpdater,
+      Table<String, ?> table, int completed, int total) {
+    if (taskStatusUpdater != null) {
+      taskStatusUpdater.recordProgress(table.getName(), completed, total);
+    }
+  }
+
+  private static <V, R> long scanRange(Table<String, V> table,
+      String start, String end, R result,
+      CheckedBiConsumer<R, Table.KeyValue<String, V>, IOException> processor)
+      throws IOException {
+    byte[] endBytes = end == null ? null : end.getBytes(StandardCharsets.UTF_8);
+    long count = 0;
+    try (TableIterator<String, ? extends Table.KeyValue<String, V>> iterator =
+             table.iterator()) {
+      if (start != null) {
+        iterator.seek(start);
+      }
+      while (iterator.hasNext()) {
+        Table.KeyValue<String, V> kv = iterator.next();
+        if (endBytes != null && BYTE_ORDER.compare(
+            kv.getKey().getBytes(StandardCharsets.UTF_8), endBytes) >= 0) {
+          break;
+        }
+        processor.accept(result, kv);
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private static int compare(String a, String b) {
+    return BYTE_ORDER.compare(a.getBytes(StandardCharsets.UTF_8),
+        b.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -19,6 +19,8 @@
 
 import static org.apache.hadoop.ozone.recon.ReconServerConfigKeys.OZONE_RECON_NSSUMMARY_FLUSH_TO_DB_MAX_THRESHOLD;
 import static org.apache.hadoop.ozone.recon.ReconServerConfigKeys.OZONE_RECON_NSSUMMARY_FLUSH_TO_DB_MAX_THRESHOLD_DEFAULT;
+import static org.apache.hadoop.ozone.recon.ReconServerConfigKeys.OZONE_RECON_TASK_REPROCESS_THREADS;
+import static org.apache.hadoop.ozone.recon.ReconServerConfigKeys.OZONE_RECON_TASK_REPROCESS_THREADS_DEFAULT;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
@@ -42,6 +44,8 @@
 import org.apache.hadoop.ozone.om.OMMetadataManager;
 import org.apache.hadoop.ozone.recon.recovery.ReconOMMetadataManager;
 import org.apache.hadoop.ozone.recon.spi.ReconNamespaceSummaryManager;
+import org.apache.hadoop.ozone.recon.tasks.updater.ReconTaskStatusUpdater;
+import org.apache.hadoop.ozone.recon.tasks.updater.ReconTaskStatusUpdaterManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -49,6 +53,8 @@
  * Task to query data from OMDB and write into Recon RocksDB.
  * Reprocess() will take a snapshots on OMDB, and iterate the keyTable,
  * the fileTable and the dirTable to write all information to RocksDB.
+ * The tables are scanned in parallel key ranges, see {@link KeyRangeScanner},
+ * the summaries counted per range are merged into RocksDB.
  *
  * For FSO-enabled keyTable (fileTable), we need to fetch the parent object
  * (bucket or directory), increment its numOfKeys by 1, increase its sizeOfKeys
@@ -79,6 +85,8 @@ public class NSSummaryTask implements ReconOmTask {
   private final NSSummaryTaskWithFSO nsSummaryTaskWithFSO;
   private final NSSummaryTaskWithLegacy nsSummaryTaskWithLegacy;
   private final NSSummaryTaskWithOBS nsSummaryTaskWithOBS;
+  private final ReconTaskStatusUpdaterManager taskStatusUpdaterManager;
+  private final int reprocessThreads;
 
   /**
    * Rebuild state enum to track NSSummary tree rebuild status.
@@ -95,9 +103,15 @@ public NSSummaryTask(ReconNamespaceSummaryManager
                        ReconOMMetadataManager
                        reconOMMetadataManager,
                        OzoneConfiguration
-                       ozoneConfiguration) {
+                       ozoneConfiguration,
+                       ReconTaskStatusUpdaterManager
+                       taskStatusUpdaterManager) {
     this.reconNamespaceSummaryManager = reconNamespaceSummaryManager;
     this.reconOMMetadataManager = reconOMMetadataManager;
+    this.taskStatusUpdaterManager = taskStatusUpdaterManager;
+    this.reprocessThreads = ozoneConfiguration.getInt(
+        OZONE_RECON_TASK_REPROCESS_THREADS,
+        OZONE_RECON_TASK_REPROCESS_THREADS_DEFAULT);
     long nsSummaryFlushToDBMaxThreshold = ozoneConfiguration.getLong(
         OZONE_RECON_NSSUMMARY_FLUSH_TO_DB_MAX_THRESHOLD,
         OZONE_RECON_NSSUMMARY_FLUSH_TO_DB_MAX_THRESHOLD_DEFAULT);
@@ -228,12 +242,17 @@ protected TaskResult executeReprocess(OMMetadataManager omMetadataManager, long
       return buildTaskResult(false);
     }
 
+    ReconTaskStatusUpdater taskStatusUpdater =
+        taskStatusUpdaterManager.getTaskStatusUpdater(getTaskName());
     tasks.add(() -> nsSummaryTaskWithFSO
-        .reprocessWithFSO(omMetadataManager));
+        .reprocessWithFSO(omMetadataManager, reprocessThreads,
+            taskStatusUpdater));
     tasks.add(() -> nsSummaryTaskWithLegacy
-        .reprocessWithLegacy(reconOMMetadataManager));
+        .reprocessWithLegacy(reconOMMetadataManager, reprocessThreads,
+            taskStatusUpdater));
     tasks.add(() -> nsSummaryTaskWithOBS
-        .reprocessWithOBS(reconOMMetadataManager));
+        .reprocessWithOBS(reconOMMetadataManager, reprocessThreads,
+            taskStatusUpdater));
 
     List<Future<Boolean>> results;
     ThreadFactory threadFactory = new ThreadFactoryBuilder()
@@ -20,14 +20,19 @@
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import org.apache.hadoop.hdds.utils.db.RDBBatchOperation;
+import org.apache.hadoop.hdds.utils.db.Table;
 import org.apache.hadoop.ozone.om.helpers.OmDirectoryInfo;
 import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
 import org.apache.hadoop.ozone.recon.ReconUtils;
 import org.apache.hadoop.ozone.recon.api.types.NSSummary;
 import org.apache.hadoop.ozone.recon.recovery.ReconOMMetadataManager;
 import org.apache.hadoop.ozone.recon.spi.ReconNamespaceSummaryManager;
+import org.apache.hadoop.ozone.recon.tasks.updater.ReconTaskStatusUpdater;
+import org.apache.ratis.util.function.CheckedBiConsumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,6 +45,11 @@ public class NSSummaryTaskDbEventHandler {
 
   private static final Logger LOG =
       LoggerFactory.getLogger(NSSummaryTaskDbEventHandler.class);
+
+  // Guards merging summaries counted in parallel during reprocess into the
+  // summaries in the DB.
+  private static final Object MERGE_LOCK = new Object();
+
   private ReconNamespaceSummaryManager reconNamespaceSummaryManager;
   private ReconOMMetadataManager reconOMMetadataManager;
 
@@ -85,10 +95,23 @@ private void updateNSSummariesToDB(Map<Long, NSSummary> nsSummaryMap, Collection
 
   protected void handlePutKeyEvent(OmKeyInfo keyInfo, Map<Long,
       NSSummary> nsSummaryMap) throws IOException {
+    handlePutKeyEvent(keyInfo, nsSummaryMap, true);
+  }
+
+  /**
+   * Adds a key to the summary of its parent.
+   *
+   * @param keyInfo the key
+   * @param nsSummaryMap the summaries updated in this batch
+   * @param readFromDB whether a summary not in the map is read from the DB,
+   *                   or counted from scratch, see {@link #mergeNSSummariesToDB}
+   */
+  protected void handlePutKeyEvent(OmKeyInfo keyInfo, Map<Long,
+      NSSummary> nsSummaryMap, boolean readFromDB) throws IOException {
     long parentObjectId = keyInfo.getParentObjectID();
     // Try to get the NSSummary from our local map that maps NSSummaries to IDs
     NSSummary nsSummary = nsSummaryMap.get(parentObjectId);
-    if (nsSummary == null) {
+    if (nsSummary == null && readFromDB) {
       // If we don't have it in this batch we try to get it from the DB
       nsSummary = reconNamespaceSummaryManager.getNSSummary(parentObjectId);
     }
@@ -110,13 +133,29 @@ protected void handlePutKeyEvent(OmKeyInfo keyInfo, Map<Long,
   protected void handlePutDirEvent(OmDirectoryInfo directoryInfo,
                                    Map<Long, NSSummary> nsSummaryMap)
       throws IOException {
+    handlePutDirEvent(directoryInfo, nsSummaryMap, true);
+  }
+
+  /**
+   * Adds a directory to the summary of its parent, and sets its name and
+   * parent in its own summary.
+   *
+   * @param directoryInfo the directory
+   * @param nsSummaryMap the summaries updated in this batch
+   * @param readFromDB whether a summary not in the map is read from the DB,
+   *                   or counted from scratch, see {@link #mergeNSSummariesToDB}
+   */
+  protected void handlePutDirEvent(OmDirectoryInfo directoryInfo,
+                                   Map<Long, NSSummary> nsSummaryMap,
+                                   boolean readFromDB)
+      throws IOException {
     long parentObjectId = directoryInfo.getParentObjectID();
     long objectId = directoryInfo.getObjectID();
     // write the dir name to the current directory
     String dirName = directoryInfo.getName();
     // Try to get the NSSummary from our local map that maps NSSummaries to IDs
     NSSummary curNSSummary = nsSummaryMap.get(objectId);
-    if (curNSSummary == null) {
+    if (curNSSummary == null && readFromDB) {
       // If we don't have it in this batch we try to get it from the DB
       curNSSummary = reconNamespaceSummaryManager.getNSSummary(objectId);
     }
@@ -133,7 +172,7 @@ protected void handlePutDirEvent(OmDirectoryInfo directoryInfo,
     // Write the child dir list to the parent directory
     // Try to get the NSSummary from our local map that maps NSSummaries to IDs
     NSSummary nsSummary = nsSummaryMap.get(parentObjectId);
-    if (nsSummary == null) {
+    if (nsSummary == null && readFromDB) {
       // If we don't have it in this batch we try to get it from the DB
       nsSummary = reconNamespaceSummaryManager.getNSSummary(parentObjectId);
     }
@@ -197,6 +236,84 @@ protected void handleDeleteDirEvent(OmDirectoryInfo directoryInfo,
     nsSummaryMap.put(parentObjectId, nsSummary);
   }
 
+  /**
+   * Processes all entries of an OM table during reprocess, splitting the work
+   * into key ranges at the given boundaries, see {@link KeyRangeScanner}.
+   * Each range counts the summaries from scratch, which are merged into the
+   * summaries in the DB whenever they reach the flush threshold and at the
+   * end of the range.
+   *
+   * @param table the OM table
+   * @param boundaries sorted keys to split the table at
+   * @param threads number of threads to use
+   * @param nsSummaryFlushToDBMaxThreshold number of summaries to keep in memory
+   * @param handler counts an entry into the summaries of its range
+   * @param taskStatusUpdater updater to record the progress in
+   */
+  protected <V> void reprocessTable(Table<String, V> table,
+      List<String> boundaries, int threads, long nsSummaryFlushToDBMaxThreshold,
+      CheckedBiConsumer<Map<Long, NSSummary>, V, IOException> handler,
+      ReconTaskStatusUpdater taskStatusUpdater) throws IOException {
+    // Ranges are processed at the same time, share the threshold.
+    long rangeFlushThreshold =
+        Math.max(1, nsSummaryFlushToDBMaxThreshold / Math.max(1, threads));
+    List<Map<Long, NSSummary>> ranges = KeyRangeScanner.scan(table,
+        boundaries, threads, HashMap::new, (nsSummaryMap, kv) -> {
+          handler.accept(nsSummaryMap, kv.getValue());
+          if (nsSummaryMap.size() >= rangeFlushThreshold) {
+            mergeNSSummariesToDB(nsSummaryMap);
+          }
+        }, taskStatusUpdater);
+    for (Map<Long, NSSummary> nsSummaryMap : ranges) {
+      mergeNSSummariesToDB(nsSummaryMap);
+    }
+  }
+
+  /**
+   * Merges summaries counted from scratch into the summaries in the DB:
+   * counts are added, child directories are combined and the name and parent
+   * of a directory are set if known. Clears the map.
+   *
+   * @param nsSummaryMap Map of objectId to NSSummary counted from scratch
+   * @throws IOException if unable to read from or write to the DB
+   */
+  protected void mergeNSSummariesToDB(Map<Long, NSSummary> nsSummaryMap)
+      throws IOException {
+    try {
+      synchronized (MERGE_LOCK) {
+        for (Map.Entry<Long, NSSummary> entry : nsSummaryMap.entrySet()) {
+          NSSummary stored =
+              reconNamespaceSummaryManager.getNSSummary(entry.getKey());
+          if (stored != null) {
+            merge(stored, entry.getValue());
+            entry.setValue(stored);
+          }
+        }
+        updateNSSummariesToDB(nsSummaryMap, Collections.emptyList());
+      }
+    } finally {
+      nsSummaryMap.clear();
+    }
+  }
+
+  private static void merge(NSSummary stored, NSSummary counted) {
+    stored.setNumOfFiles(stored.getNumOfFiles() + counted.getNumOfFiles());
+    stored.setSizeOfFiles(stored.getSizeOfFiles() + counted.getSizeOfFiles());
+    int[] fileBucket = stored.getFileSizeBucket();
+    int[] countedFileBucket = counted.getFileSizeBucket();
+    for (int i = 0; i < fileBucket.length; i++) {
+      fileBucket[i] += countedFileBucket[i];
+    }
+    stored.setFileSizeBucket(fileBucket);
+    stored.getChildDir().addAll(counted.getChildDir());
+    if (!counted.getDirName().isEmpty()) {
+      stored.setDirName(counted.getDirName());
+    }
+    if (counted.getParentId() != 0) {
+      stored.setParentId(counted.getParentId());
+    }
+  }
+
   protected boolean flushAndCommitNSToDB(Map<Long, NSSummary> nsSummaryMap) {
     try {
       updateNSSummariesToDB(nsSummaryMap, Collections.emptyList());
@@ -28,18 +28,19 @@
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
-import org.apache.hadoop.hdds.utils.db.Table;
-import org.apache.hadoop.hdds.utils.db.TableIterator;
 import org.apache.hadoop.ozone.om.OMMetadataManager;
+import org.apache.hadoop.ozone.om.helpers.BucketLayout;
 import org.apache.hadoop.ozone.om.helpers.OmDirectoryInfo;
 import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
 import org.apache.hadoop.ozone.om.helpers.WithParentObjectId;
 import org.apache.hadoop.ozone.recon.api.types.NSSummary;
 import org.apache.hadoop.ozone.recon.recovery.ReconOMMetadataManager;
 import org.apache.hadoop.ozone.recon.spi.ReconNamespaceSummaryManager;
+import org.apache.hadoop.ozone.recon.tasks.updater.ReconTaskStatusUpdater;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -222,54 +223,40 @@ private void handleUpdateOnFileTable(OMDBUpdateEvent<String, ? extends WithParen
   }
 
   public boolean reprocessWithFSO(OMMetadataManager omMetadataManager) {
-    Map<Long, NSSummary> nsSummaryMap = new HashMap<>();
+    return reprocessWithFSO(omMetadataManager, 1, null);
+  }
 
+  /**
+   * Rebuilds the summaries of FSO buckets from the directory and file tables,
+   * which are scanned in parallel key ranges at bucket boundaries.
+   *
+   * @param omMetadataManager OM metadata manager
+   * @param threads number of threads to scan a table with
+   * @param taskStatusUpdater updater to record the progress in, may be null
+   * @return true if processing succeeds, false otherwise
+   */
+  public boolean reprocessWithFSO(OMMetadataManager omMetadataManager,
+      int threads, ReconTaskStatusUpdater taskStatusUpdater) {
     try {
-      Table<String, OmDirectoryInfo> dirTable =
-          omMetadataManager.getDirectoryTable();
-      try (TableIterator<String,
-              ? extends Table.KeyValue<String, OmDirectoryInfo>>
-                dirTableIter = dirTable.iterator()) {
-        while (dirTableIter.hasNext()) {
-          Table.KeyValue<String, OmDirectoryInfo> kv = dirTableIter.next();
-          OmDirectoryInfo directoryInfo = kv.getValue();
-          handlePutDirEvent(directoryInfo, nsSummaryMap);
-          if (nsSummaryMap.size() >= nsSummaryFlushToDBMaxThreshold) {
-            if (!flushAndCommitNSToDB(nsSummaryMap)) {
-              return false;
-            }
-          }
-        }
-      }
-
-      // Get fileTable used by FSO
-      Table<String, OmKeyInfo> keyTable =
-          omMetadataManager.getFileTable();
-
-      try (TableIterator<String, ? extends Table.KeyValue<String, OmKeyInfo>>
-              keyTableIter = keyTable.iterator()) {
-        while (keyTableIter.hasNext()) {
-          Table.KeyValue<String, OmKeyInfo> kv = keyTableIter.next();
-          OmKeyInfo keyInfo = kv.getValue();
-          handlePutKeyEvent(keyInfo, nsSummaryMap);
-          if (nsSummaryMap.size() >= nsSummaryFlushToDBMaxThreshold) {
-            if (!flushAndCommitNSToDB(nsSummaryMap)) {
-              return false;
-            }
-          }
-        }
-      }
-
+      List<String> boundaries = threads > 1
+          ? KeyRangeScanner.getBucketPrefixes(omMetadataManager,
+              BucketLayout.FILE_SYSTEM_OPTIMIZED)
+          : Collections.emptyList();
+      reprocessTable(omMetadataManager.getDirectoryTable(), boundaries,
+          threads, nsSummaryFlushToDBMaxThreshold,
+          (nsSummaryMap, directoryInfo) ->
+              handlePutDirEvent(directoryInfo, nsSummaryMap, false),
+          taskStatusUpdater);
+      reprocessTable(omMetadataManager.getFileTable(), boundaries,
+          threads, nsSummaryFlushToDBMaxThreshold,
+          (nsSummaryMap, keyInfo) ->
+              handlePutKeyEvent(keyInfo, nsSummaryMap, false),
+          taskStatusUpdater);
     } catch (IOException ioEx) {
       LOG.error("Unable to reprocess Namespace Summary data in Recon DB. ",
               ioEx);
       return false;
     }
-    // flush and commit left out keys at end
-    if (!flushAndCommitNSToDB(nsSummaryMap)) {
-      LOG.info("flushAndCommitNSToDB failed during reprocessWithFSO.");
-      return false;
-    }
     LOG.info("Completed a reprocess run of NSSummaryTaskWithFSO");
     return true;
   }
@@ -22,14 +22,15 @@
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.hadoop.hdds.conf.OzoneConfiguration;
 import org.apache.hadoop.hdds.utils.db.Table;
-import org.apache.hadoop.hdds.utils.db.TableIterator;
 import org.apache.hadoop.ozone.om.OMMetadataManager;
 import org.apache.hadoop.ozone.om.OmConfig;
 import org.apache.hadoop.ozone.om.helpers.BucketLayout;
@@ -40,6 +41,7 @@
 import org.apache.hadoop.ozone.recon.api.types.NSSummary;
 import org.apache.hadoop.ozone.recon.recovery.ReconOMMetadataManager;
 import org.apache.hadoop.ozone.recon.spi.ReconNamespaceSummaryManager;
+import org.apache.hadoop.ozone.recon.tasks.updater.ReconTaskStatusUpdater;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -255,65 +257,65 @@ private void processWithObjectStoreLayout(OmKeyInfo updatedKeyInfo,
   }
 
   public boolean reprocessWithLegacy(OMMetadataManager omMetadataManager) {
-    Map<Long, NSSummary> nsSummaryMap = new HashMap<>();
+    return reprocessWithLegacy(omMetadataManager, 1, null);
+  }
 
+  /**
+   * Rebuilds the summaries of Legacy buckets from the key table, which is
+   * scanned in parallel key ranges at bucket boundaries.
+   *
+   * @param omMetadataManager OM metadata manager
+   * @param threads number of threads to scan the key table with
+   * @param taskStatusUpdater updater to record the progress in, may be null
+   * @return true if processing succeeds, false otherwise
+   */
+  public boolean reprocessWithLegacy(OMMetadataManager omMetadataManager,
+      int threads, ReconTaskStatusUpdater taskStatusUpdater) {
     try {
       Table<String, OmKeyInfo> keyTable =
           omMetadataManager.getKeyTable(LEGACY_BUCKET_LAYOUT);
+      List<String> boundaries = threads > 1
+          ? KeyRangeScanner.getBucketPrefixes(omMetadataManager,
+              LEGACY_BUCKET_LAYOUT)
+          : Collections.emptyList();
+
+      reprocessTable(keyTable, boundaries, threads,
+          nsSummaryFlushToDBMaxThreshold, (nsSummaryMap, keyInfo) -> {
+            // KeyTable entries belong to both Legacy and OBS buckets.
+            // Check bucket layout and if it's OBS
+            // skip the entry.
+            if (!isBucketLayoutValid(
+                (ReconOMMetadataManager) omMetadataManager, keyInfo)) {
+              return;
+            }
 
-      try (TableIterator<String, ? extends Table.KeyValue<String, OmKeyInfo>>
-          keyTableIter = keyTable.iterator()) {
-
-        while (keyTableIter.hasNext()) {
-          Table.KeyValue<String, OmKeyInfo> kv = keyTableIter.next();
-          OmKeyInfo keyInfo = kv.getValue();
-
-          // KeyTable entries belong to both Legacy and OBS buckets.
-          // Check bucket layout and if it's OBS
-          // continue to the next iteration.
-          if (!isBucketLayoutValid((ReconOMMetadataManager) omMetadataManager,
-              keyInfo)) {
-            continue;
-          }
-
-          if (enableFileSystemPaths) {
-            // The LEGACY bucket is a file system bucket.
-            setKeyParentID(keyInfo);
-
-            if (keyInfo.getKeyName().endsWith(OM_KEY_PREFIX)) {
-              OmDirectoryInfo directoryInfo =
-                  new OmDirectoryInfo.Builder()
-                      .setName(keyInfo.getKeyName())
-                      .setObjectID(keyInfo.getObjectID())
-                      .setParentObjectID(keyInfo.getParentObjectID())
-                      .build();
-              handlePutDirEvent(directoryInfo, nsSummaryMap);
+            if (enableFileSystemPaths) {
+              // The LEGACY bucket is a file system bucket.
+              setKeyParentID(keyInfo);
+
+              if (keyInfo.getKeyName().endsWith(OM_KEY_PREFIX)) {
+                OmDirectoryInfo directoryInfo =
+                    new OmDirectoryInfo.Builder()
+                        .setName(keyInfo.getKeyName())
+                        .setObjectID(keyInfo.getObjectID())
+                        .setParentObjectID(keyInfo.getParentObjectID())
+                        .build();
+                handlePutDirEvent(directoryInfo, nsSummaryMap, false);
+              } else {
+                handlePutKeyEvent(keyInfo, nsSummaryMap, false);
+              }
             } else {
-              handlePutKeyEvent(keyInfo, nsSummaryMap);
-            }
-          } else {
-            // The LEGACY bucket is an object store bucket.
-            setParentBucketId(keyInfo);
-            handlePutKeyEvent(keyInfo, nsSummaryMap);
-          }
-          if (nsSummaryMap.size() >= nsSummaryFlushToDBMaxThreshold) {
-            if (!flushAndCommitNSToDB(nsSummaryMap)) {
-              return false;
+              // The LEGACY bucket is an object store bucket.
+              setParentBucketId(keyInfo);
+              handlePutKeyEvent(keyInfo, nsSummaryMap, false);
             }
-          }
-        }
-      }
+          }, taskStatusUpdater);
     } catch (IOException ioEx) {
       LOG.error("Unable to reprocess Namespace Summary data in Recon DB. ",
           ioEx);
-      nsSummaryMap.clear();
       return false;
     }
 
-    // flush and commit left out entries at end
-    if (!flushAndCommitNSToDB(nsSummaryMap)) {
-      return false;
-    }
     LOG.debug("Completed a reprocess run of NSSummaryTaskWithLegacy");
     return true;
   }
@@ -20,13 +20,14 @@
 import static org.apache.hadoop.ozone.om.codec.OMDBDefinition.KEY_TABLE;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.hadoop.hdds.utils.db.Table;
-import org.apache.hadoop.hdds.utils.db.TableIterator;
 import org.apache.hadoop.ozone.om.OMMetadataManager;
 import org.apache.hadoop.ozone.om.helpers.BucketLayout;
 import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
@@ -35,6 +36,7 @@
 import org.apache.hadoop.ozone.recon.api.types.NSSummary;
 import org.apache.hadoop.ozone.recon.recovery.ReconOMMetadataManager;
 import org.apache.hadoop.ozone.recon.spi.ReconNamespaceSummaryManager;
+import org.apache.hadoop.ozone.recon.tasks.updater.ReconTaskStatusUpdater;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -60,55 +62,54 @@ public NSSummaryTaskWithOBS(
   }
 
   public boolean reprocessWithOBS(OMMetadataManager omMetadataManager) {
-    Map<Long, NSSummary> nsSummaryMap = new HashMap<>();
+    return reprocessWithOBS(omMetadataManager, 1, null);
+  }
 
+  /**
+   * Rebuilds the summaries of OBS buckets from the key table, which is
+   * scanned in parallel key ranges at bucket boundaries.
+   *
+   * @param omMetadataManager OM metadata manager
+   * @param threads number of threads to scan the key table with
+   * @param taskStatusUpdater updater to record the progress in, may be null
+   * @return true if processing succeeds, false otherwise
+   */
+  public boolean reprocessWithOBS(OMMetadataManager omMetadataManager,
+      int threads, ReconTaskStatusUpdater taskStatusUpdater) {
     try {
       Table<String, OmKeyInfo> keyTable =
           omMetadataManager.getKeyTable(BUCKET_LAYOUT);
+      List<String> boundaries = threads > 1
+          ? KeyRangeScanner.getBucketPrefixes(omMetadataManager, BUCKET_LAYOUT)
+          : Collections.emptyList();
+
+      reprocessTable(keyTable, boundaries, threads,
+          nsSummaryFlushToDBMaxThreshold, (nsSummaryMap, keyInfo) -> {
+            // KeyTable entries belong to both Legacy and OBS buckets.
+            // Check bucket layout and if it's anything other than OBS,
+            // skip the entry.
+            String volumeName = keyInfo.getVolumeName();
+            String bucketName = keyInfo.getBucketName();
+            String bucketDBKey = omMetadataManager
+                .getBucketKey(volumeName, bucketName);
+            // Get bucket info from bucket table
+            OmBucketInfo omBucketInfo = omMetadataManager
+                .getBucketTable().getSkipCache(bucketDBKey);
+
+            if (omBucketInfo.getBucketLayout() != BUCKET_LAYOUT) {
+              return;
+            }
 
-      try (TableIterator<String, ? extends Table.KeyValue<String, OmKeyInfo>>
-               keyTableIter = keyTable.iterator()) {
-
-        while (keyTableIter.hasNext()) {
-          Table.KeyValue<String, OmKeyInfo> kv = keyTableIter.next();
-          OmKeyInfo keyInfo = kv.getValue();
-
-          // KeyTable entries belong to both Legacy and OBS buckets.
-          // Check bucket layout and if it's anything other than OBS,
-          // continue to the next iteration.
-          String volumeName = keyInfo.getVolumeName();
-          String bucketName = keyInfo.getBucketName();
-          String bucketDBKey = omMetadataManager
-              .getBucketKey(volumeName, bucketName);
-          // Get bucket info from bucket table
-          OmBucketInfo omBucketInfo = omMetadataManager
-              .getBucketTable().getSkipCache(bucketDBKey);
-
-          if (omBucketInfo.getBucketLayout() != BUCKET_LAYOUT) {
-            continue;
-          }
-
-          setKeyParentID(keyInfo);
+            setKeyParentID(keyInfo);
 
-          handlePutKeyEvent(keyInfo, nsSummaryMap);
-          if (nsSummaryMap.size() >= nsSummaryFlushToDBMaxThreshold) {
-            if (!flushAndCommitNSToDB(nsSummaryMap)) {
-              return false;
-            }
-          }
-        }
-      }
+            handlePutKeyEvent(keyInfo, nsSummaryMap, false);
+          }, taskStatusUpdater);
     } catch (IOException ioEx) {
       LOG.error("Unable to reprocess Namespace Summary data in Recon DB. ",
           ioEx);
-      nsSummaryMap.clear();
       return false;
     }
 
-    // flush and commit left out entries at end
-    if (!flushAndCommitNSToDB(nsSummaryMap)) {
-      return false;
-    }
     LOG.debug("Completed a reprocess run of NSSummaryTaskWithOBS");
     return true;
   }
@@ -114,6 +114,26 @@ public void recordRunCompletion() {
     }
   }
 
+  /**
+   * Helper function to record the progress of a running task, like a reprocess
+   * scanning the OM DB in several parts. The TASK_STATUS table has no progress
+   * column, so the timestamp of the running task is updated and the progress
+   * is logged.
+   *
+   * @param stage what the task is processing, e.g. the name of the table
+   * @param completed number of parts of the stage completed
+   * @param total total number of parts of the stage
+   */
+  public synchronized void recordProgress(String stage, long completed, long total) {
+    LOG.info("{}: processed {} of {} parts of {}.", taskName, completed, total, stage);
+    try {
+      this.reconTaskStatus.setLastUpdatedTimestamp(System.currentTimeMillis());
+      updateDetails();
+    } catch (DataAccessException e) {
+      LOG.error("Failed to update table for progress of task: {}", this.reconTaskStatus.getTaskName());
+    }
+  }
+
   /**
    * Utility function to update table with task details and update the counter if needed.
    */
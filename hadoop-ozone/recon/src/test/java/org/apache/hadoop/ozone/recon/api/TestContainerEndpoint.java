@@ -103,6 +103,7 @@
 import org.apache.hadoop.ozone.recon.tasks.ContainerKeyMapperTaskFSO;
 import org.apache.hadoop.ozone.recon.tasks.ContainerKeyMapperTaskOBS;
 import org.apache.hadoop.ozone.recon.tasks.NSSummaryTaskWithFSO;
+import org.apache.hadoop.ozone.recon.tasks.updater.ReconTaskStatusUpdaterManager;
 import org.apache.ozone.recon.schema.ContainerSchemaDefinition.UnHealthyContainerStates;
 import org.apache.ozone.recon.schema.generated.tables.pojos.UnhealthyContainers;
 import org.junit.jupiter.api.BeforeEach;
@@ -300,11 +301,13 @@ public void setUp() throws Exception {
 
   private void reprocessContainerKeyMapper() {
     ContainerKeyMapperTaskOBS containerKeyMapperTaskOBS =
-        new ContainerKeyMapperTaskOBS(reconContainerMetadataManager, omConfiguration);
+        new ContainerKeyMapperTaskOBS(reconContainerMetadataManager, omConfiguration,
+            mock(ReconTaskStatusUpdaterManager.class));
     containerKeyMapperTaskOBS.reprocess(reconOMMetadataManager);
 
     ContainerKeyMapperTaskFSO containerKeyMapperTaskFSO =
-        new ContainerKeyMapperTaskFSO(reconContainerMetadataManager, omConfiguration);
+        new ContainerKeyMapperTaskFSO(reconContainerMetadataManager, omConfiguration,
+            mock(ReconTaskStatusUpdaterManager.class));
     containerKeyMapperTaskFSO.reprocess(reconOMMetadataManager);
   }
 
@@ -136,6 +136,7 @@
 import org.apache.hadoop.ozone.recon.tasks.FileSizeCountTaskOBS;
 import org.apache.hadoop.ozone.recon.tasks.OmTableInsightTask;
 import org.apache.hadoop.ozone.recon.tasks.ReconOmTask;
+import org.apache.hadoop.ozone.recon.tasks.updater.ReconTaskStatusUpdaterManager;
 import org.apache.hadoop.ozone.security.acl.IAccessAuthorizer;
 import org.apache.ozone.recon.schema.UtilizationSchemaDefinition;
 import org.apache.ozone.recon.schema.generated.tables.daos.ContainerCountBySizeDao;
@@ -311,9 +312,11 @@ private void initializeInjector() throws Exception {
         containerCountBySizeDao,
         utilizationSchemaDefinition);
     fileSizeCountTaskFSO =
-        new FileSizeCountTaskFSO(fileCountBySizeDao, utilizationSchemaDefinition);
+        new FileSizeCountTaskFSO(fileCountBySizeDao, utilizationSchemaDefinition, new OzoneConfiguration(),
+            mock(ReconTaskStatusUpdaterManager.class));
     fileSizeCountTaskOBS =
-        new FileSizeCountTaskOBS(fileCountBySizeDao, utilizationSchemaDefinition);
+        new FileSizeCountTaskOBS(fileCountBySizeDao, utilizationSchemaDefinition, new OzoneConfiguration(),
+            mock(ReconTaskStatusUpdaterManager.class));
     omTableInsightTask =
         new OmTableInsightTask(globalStatsDao, sqlConfiguration,
             reconOMMetadataManager);
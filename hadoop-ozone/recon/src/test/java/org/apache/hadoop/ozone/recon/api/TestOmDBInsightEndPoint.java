@@ -86,6 +86,7 @@
 import org.apache.hadoop.ozone.recon.tasks.NSSummaryTaskWithFSO;
 import org.apache.hadoop.ozone.recon.tasks.NSSummaryTaskWithLegacy;
 import org.apache.hadoop.ozone.recon.tasks.NSSummaryTaskWithOBS;
+import org.apache.hadoop.ozone.recon.tasks.updater.ReconTaskStatusUpdaterManager;
 import org.apache.ozone.recon.schema.generated.tables.daos.GlobalStatsDao;
 import org.apache.ozone.recon.schema.generated.tables.pojos.GlobalStats;
 import org.junit.jupiter.api.BeforeEach;
@@ -389,7 +390,7 @@ private void setUpOmData() throws Exception {
         .thenReturn(tableMock);
     ContainerKeyMapperTaskOBS containerKeyMapperTask =
         new ContainerKeyMapperTaskOBS(reconContainerMetadataManager,
-            ozoneConfiguration);
+            ozoneConfiguration, mock(ReconTaskStatusUpdaterManager.class));
     containerKeyMapperTask.reprocess(reconOMMetadataManager);
 
     String volumeOneKey = reconOMMetadataManager.getVolumeKey(VOLUME_ONE);
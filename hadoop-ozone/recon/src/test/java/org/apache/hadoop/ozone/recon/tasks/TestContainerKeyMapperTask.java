@@ -26,6 +26,8 @@
 import static org.apache.hadoop.ozone.recon.OMMetadataManagerTestUtils.writeKeyToOm;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
 
 import java.io.IOException;
 import java.nio.file.Path;
@@ -41,6 +43,7 @@
 import org.apache.hadoop.hdds.scm.pipeline.Pipeline;
 import org.apache.hadoop.ozone.om.OMMetadataManager;
 import org.apache.hadoop.ozone.om.helpers.BucketLayout;
+import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
 import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
 import org.apache.hadoop.ozone.om.helpers.OmKeyLocationInfo;
 import org.apache.hadoop.ozone.om.helpers.OmKeyLocationInfoGroup;
@@ -49,6 +52,7 @@
 import org.apache.hadoop.ozone.recon.recovery.ReconOMMetadataManager;
 import org.apache.hadoop.ozone.recon.spi.ReconContainerMetadataManager;
 import org.apache.hadoop.ozone.recon.spi.impl.OzoneManagerServiceProviderImpl;
+import org.apache.hadoop.ozone.recon.tasks.updater.ReconTaskStatusUpdaterManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -134,7 +138,7 @@ public void testKeyTableReprocess() throws Exception {
 
     ContainerKeyMapperTaskOBS containerKeyMapperTaskOBS =
         new ContainerKeyMapperTaskOBS(reconContainerMetadataManager,
-            omConfiguration);
+            omConfiguration, mock(ReconTaskStatusUpdaterManager.class));
     containerKeyMapperTaskOBS.reprocess(reconOMMetadataManager);
 
     keyPrefixesForContainer =
@@ -164,6 +168,43 @@ public void testKeyTableReprocess() throws Exception {
     assertEquals(2, reconContainerMetadataManager.getCountForContainers());
   }
 
+  @Test
+  public void testKeyTableReprocessInKeyRanges() throws Exception {
+    Pipeline pipeline = getRandomPipeline();
+    for (int bktIndex = 1; bktIndex <= 20; bktIndex++) {
+      String bucket = "bucket" + bktIndex;
+      reconOMMetadataManager.getBucketTable().put(
+          reconOMMetadataManager.getBucketKey(VOLUME_NAME, bucket),
+          OmBucketInfo.newBuilder()
+              .setVolumeName(VOLUME_NAME)
+              .setBucketName(bucket)
+              .setBucketLayout(BucketLayout.OBJECT_STORE)
+              .build());
+      // Every bucket has a key in container 1 and 2 and one in its own.
+      List<OmKeyLocationInfo> locations = new ArrayList<>();
+      locations.add(getOmKeyLocationInfo(new BlockID(1, bktIndex), pipeline));
+      locations.add(getOmKeyLocationInfo(new BlockID(2, bktIndex), pipeline));
+      locations.add(getOmKeyLocationInfo(
+          new BlockID(100 + bktIndex, 1), pipeline));
+      writeDataToOm(reconOMMetadataManager, FILE_NAME, bucket, VOLUME_NAME,
+          Collections.singletonList(
+              new OmKeyLocationInfoGroup(0, locations)));
+    }
+
+    // A small threshold flushes the ranges several times.
+    assertTrue(ContainerKeyMapperHelper.reprocess(reconOMMetadataManager,
+        reconContainerMetadataManager, BucketLayout.OBJECT_STORE,
+        "testKeyTableReprocessInKeyRanges", 7, 4, null));
+
+    assertEquals(20, reconContainerMetadataManager
+        .getKeyPrefixesForContainer(1).size());
+    assertEquals(20, reconContainerMetadataManager.getKeyCountForContainer(1L));
+    assertEquals(20, reconContainerMetadataManager.getKeyCountForContainer(2L));
+    assertEquals(1,
+        reconContainerMetadataManager.getKeyCountForContainer(107L));
+    assertEquals(22, reconContainerMetadataManager.getCountForContainers());
+  }
+
   @Test
   public void testFileTableReprocess() throws Exception {
     // Make sure the key prefixes are empty for container 1
@@ -207,7 +248,7 @@ public void testFileTableReprocess() throws Exception {
     // Reprocess container key mappings
     ContainerKeyMapperTaskFSO containerKeyMapperTaskFSO =
         new ContainerKeyMapperTaskFSO(reconContainerMetadataManager,
-            omConfiguration);
+            omConfiguration, mock(ReconTaskStatusUpdaterManager.class));
     containerKeyMapperTaskFSO.reprocess(reconOMMetadataManager);
 
     // Check the key prefixes for container 1
@@ -316,7 +357,7 @@ public void testKeyTableProcess() throws IOException {
 
     ContainerKeyMapperTaskOBS containerKeyMapperTaskOBS =
         new ContainerKeyMapperTaskOBS(reconContainerMetadataManager,
-            omConfiguration);
+            omConfiguration, mock(ReconTaskStatusUpdaterManager.class));
     containerKeyMapperTaskOBS.reprocess(reconOMMetadataManager);
 
     keyPrefixesForContainer = reconContainerMetadataManager
@@ -386,7 +427,7 @@ public void testFileTableProcess() throws Exception {
     // Reprocess container key mappings
     ContainerKeyMapperTaskFSO containerKeyMapperTaskFSO =
         new ContainerKeyMapperTaskFSO(reconContainerMetadataManager,
-            omConfiguration);
+            omConfiguration, mock(ReconTaskStatusUpdaterManager.class));
 
     String bucket = BUCKET_NAME;
     String volume = VOLUME_NAME;
@@ -579,7 +620,8 @@ public void testDuplicateFSOKeysInDifferentDirectories() throws Exception {
 
     // Reprocess container key mappings.
     ContainerKeyMapperTaskFSO containerKeyMapperTask =
-        new ContainerKeyMapperTaskFSO(reconContainerMetadataManager, omConfiguration);
+        new ContainerKeyMapperTaskFSO(reconContainerMetadataManager, omConfiguration,
+            mock(ReconTaskStatusUpdaterManager.class));
     containerKeyMapperTask.reprocess(reconOMMetadataManager);
 
     // With our changes using the raw key prefix as the unique identifier,
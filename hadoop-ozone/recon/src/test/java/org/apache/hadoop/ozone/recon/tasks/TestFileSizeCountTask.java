@@ -19,6 +19,8 @@
 
 import static org.apache.hadoop.ozone.om.codec.OMDBDefinition.FILE_TABLE;
 import static org.apache.hadoop.ozone.om.codec.OMDBDefinition.KEY_TABLE;
+import static org.apache.hadoop.ozone.recon.OMMetadataManagerTestUtils.initializeEmptyOmMetadataManager;
+import static org.apache.hadoop.ozone.recon.OMMetadataManagerTestUtils.writeKeyToOm;
 import static org.apache.hadoop.ozone.recon.tasks.OMDBUpdateEvent.OMDBUpdateAction.DELETE;
 import static org.apache.hadoop.ozone.recon.tasks.OMDBUpdateEvent.OMDBUpdateAction.PUT;
 import static org.apache.hadoop.ozone.recon.tasks.OMDBUpdateEvent.OMDBUpdateAction.UPDATE;
@@ -32,19 +34,24 @@
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
 import org.apache.hadoop.hdds.utils.db.Table;
 import org.apache.hadoop.hdds.utils.db.TypedTable;
 import org.apache.hadoop.ozone.om.OMMetadataManager;
 import org.apache.hadoop.ozone.om.OmMetadataManagerImpl;
 import org.apache.hadoop.ozone.om.helpers.BucketLayout;
+import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
 import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.apache.hadoop.ozone.recon.ReconConstants;
 import org.apache.hadoop.ozone.recon.persistence.AbstractReconSqlDBTest;
 import org.apache.hadoop.ozone.recon.tasks.OMDBUpdateEvent.OMUpdateEventBuilder;
+import org.apache.hadoop.ozone.recon.tasks.updater.ReconTaskStatusUpdaterManager;
 import org.apache.ozone.recon.schema.UtilizationSchemaDefinition;
 import org.apache.ozone.recon.schema.generated.tables.daos.FileCountBySizeDao;
 import org.apache.ozone.recon.schema.generated.tables.pojos.FileCountBySize;
@@ -52,6 +59,7 @@
 import org.jooq.Record3;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 /**
  * Unit test for File Size Count Task.
@@ -63,6 +71,7 @@ public class TestFileSizeCountTask extends AbstractReconSqlDBTest {
   private FileSizeCountTaskFSO fileSizeCountTaskFSO;
   private DSLContext dslContext;
   private UtilizationSchemaDefinition utilizationSchemaDefinition;
+  private OzoneConfiguration ozoneConfiguration;
 
   public TestFileSizeCountTask() {
     super();
@@ -72,9 +81,12 @@ public TestFileSizeCountTask() {
   public void setUp() {
     fileCountBySizeDao = getDao(FileCountBySizeDao.class);
     utilizationSchemaDefinition = getSchemaDefinition(UtilizationSchemaDefinition.class);
+    ozoneConfiguration = new OzoneConfiguration();
     // Create separate task instances.
-    fileSizeCountTaskOBS = new FileSizeCountTaskOBS(fileCountBySizeDao, utilizationSchemaDefinition);
-    fileSizeCountTaskFSO = new FileSizeCountTaskFSO(fileCountBySizeDao, utilizationSchemaDefinition);
+    fileSizeCountTaskOBS = new FileSizeCountTaskOBS(fileCountBySizeDao, utilizationSchemaDefinition,
+        ozoneConfiguration, mock(ReconTaskStatusUpdaterManager.class));
+    fileSizeCountTaskFSO = new FileSizeCountTaskFSO(fileCountBySizeDao, utilizationSchemaDefinition,
+        ozoneConfiguration, mock(ReconTaskStatusUpdaterManager.class));
     dslContext = utilizationSchemaDefinition.getDSLContext();
     // Truncate table before each test.
     dslContext.truncate(FILE_COUNT_BY_SIZE);
@@ -357,6 +369,50 @@ public void testReprocessAtScale() throws IOException {
         fileCountBySizeDao.findById(recordToFind).getCount().longValue());
   }
 
+  @Test
+  public void testReprocessInKeyRanges(@TempDir File omDbDir) throws Exception {
+    OMMetadataManager omMetadataManager = initializeEmptyOmMetadataManager(omDbDir);
+    for (int bktIndex = 1; bktIndex <= 20; bktIndex++) {
+      String bucket = "bucket" + bktIndex;
+      omMetadataManager.getBucketTable().put(omMetadataManager.getBucketKey("vol1", bucket),
+          OmBucketInfo.newBuilder()
+              .setVolumeName("vol1")
+              .setBucketName(bucket)
+              .setBucketLayout(BucketLayout.OBJECT_STORE)
+              .build());
+      for (int keyIndex = 1; keyIndex <= 10; keyIndex++) {
+        writeKeyToOm(omMetadataManager, "key" + keyIndex, bucket, "vol1", null,
+            keyIndex, 0, bktIndex, 1, 1000L, BucketLayout.OBJECT_STORE);
+      }
+    }
+    // Keys of a bucket missing from the bucket table are still counted.
+    writeKeyToOm(omMetadataManager, "key1", "orphan", "vol1", null,
+        1, 0, 21, 1, 1000L, BucketLayout.OBJECT_STORE);
+    assertEquals(20, KeyRangeScanner.getBucketPrefixes(
+        omMetadataManager, BucketLayout.OBJECT_STORE).size());
+
+    ReconConstants.resetTableTruncatedFlags();
+    ReconOmTask.TaskResult result = FileSizeCountTaskHelper.reprocess(omMetadataManager,
+        dslContext, fileCountBySizeDao, BucketLayout.OBJECT_STORE, "testReprocessInKeyRanges", 4, null);
+    assertTrue(result.isTaskSuccess());
+
+    // 20 buckets + 1 orphan bucket, all keys in the 1024 bin.
+    assertEquals(21, fileCountBySizeDao.count());
+    Record3<String, String, Long> recordToFind = dslContext.newRecord(
+            FILE_COUNT_BY_SIZE.VOLUME,
+            FILE_COUNT_BY_SIZE.BUCKET,
+            FILE_COUNT_BY_SIZE.FILE_SIZE)
+        .value1("vol1")
+        .value2("bucket7")
+        .value3(1024L);
+    assertEquals(10L, fileCountBySizeDao.findById(recordToFind).getCount().longValue());
+    recordToFind.value2("orphan");
+    assertEquals(1L, fileCountBySizeDao.findById(recordToFind).getCount().longValue());
+    omMetadataManager.stop();
+    dslContext.delete(FILE_COUNT_BY_SIZE).execute();
+    ReconConstants.resetTableTruncatedFlags();
+  }
+
   @Test
   public void testProcessAtScale() {
     // Write 10000 keys.
@@ -514,8 +570,10 @@ public void testTruncateTableExceptionPropagation() {
         .thenThrow(new RuntimeException("Simulated DB failure"));
 
     // Create instances of FileSizeCountTaskOBS and FileSizeCountTaskFSO using mocks
-    fileSizeCountTaskOBS = new FileSizeCountTaskOBS(mockDao, mockSchema);
-    fileSizeCountTaskFSO = new FileSizeCountTaskFSO(mockDao, mockSchema);
+    fileSizeCountTaskOBS = new FileSizeCountTaskOBS(mockDao, mockSchema, ozoneConfiguration,
+        mock(ReconTaskStatusUpdaterManager.class));
+    fileSizeCountTaskFSO = new FileSizeCountTaskFSO(mockDao, mockSchema, ozoneConfiguration,
+        mock(ReconTaskStatusUpdaterManager.class));
 
     // Mock OMMetadataManager
     OMMetadataManager omMetadataManager = mock(OmMetadataManagerImpl.class);
@@ -131,7 +131,8 @@ private NSSummaryTask createTestableNSSummaryTask() {
     return new NSSummaryTask(
         mockNamespaceSummaryManager, 
         mockReconOMMetadataManager, 
-        ozoneConfiguration) {
+        ozoneConfiguration,
+        mock(ReconTaskStatusUpdaterManager.class)) {
       
       @Override
       public TaskResult buildTaskResult(boolean success) {
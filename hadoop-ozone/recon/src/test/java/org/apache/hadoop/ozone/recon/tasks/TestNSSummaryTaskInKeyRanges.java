@@ -0,0 +1,233 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.recon.tasks;
+
+import static org.apache.hadoop.ozone.OzoneConsts.OM_KEY_PREFIX;
+import static org.apache.hadoop.ozone.recon.OMMetadataManagerTestUtils.getMockOzoneManagerServiceProviderWithFSO;
+import static org.apache.hadoop.ozone.recon.OMMetadataManagerTestUtils.getTestReconOmMetadataManager;
+import static org.apache.hadoop.ozone.recon.OMMetadataManagerTestUtils.initializeEmptyOmMetadataManager;
+import static org.apache.hadoop.ozone.recon.OMMetadataManagerTestUtils.writeDirToOm;
+import static org.apache.hadoop.ozone.recon.OMMetadataManagerTestUtils.writeKeyToOm;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
+import org.apache.hadoop.ozone.om.OMConfigKeys;
+import org.apache.hadoop.ozone.om.helpers.BucketLayout;
+import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
+import org.apache.hadoop.ozone.om.helpers.OmVolumeArgs;
+import org.apache.hadoop.ozone.recon.ReconTestInjector;
+import org.apache.hadoop.ozone.recon.api.types.NSSummary;
+import org.apache.hadoop.ozone.recon.recovery.ReconOMMetadataManager;
+import org.apache.hadoop.ozone.recon.spi.ReconNamespaceSummaryManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests that the NSSummary reprocess of FSO, Legacy and OBS buckets in
+ * parallel key ranges builds the same summaries as a sequential reprocess.
+ */
+public class TestNSSummaryTaskInKeyRanges {
+
+  private static final String TEST_USER = "TestUser";
+  private static final int VOLUMES = 2;
+  private static final int BUCKETS_PER_LAYOUT = 2;
+  private static final int DIRS = 3;
+  private static final int FILES = 3;
+
+  @TempDir
+  private Path temporaryFolder;
+
+  private ReconOMMetadataManager reconOMMetadataManager;
+  private ReconNamespaceSummaryManager reconNamespaceSummaryManager;
+  private OzoneConfiguration ozoneConfiguration;
+  private long nextObjectId = 1;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    reconOMMetadataManager = getTestReconOmMetadataManager(
+        initializeEmptyOmMetadataManager(
+            temporaryFolder.resolve("om").toFile()),
+        temporaryFolder.resolve("recon").toFile());
+    ReconTestInjector reconTestInjector =
+        new ReconTestInjector.Builder(temporaryFolder.toFile())
+            .withReconOm(reconOMMetadataManager)
+            .withOmServiceProvider(getMockOzoneManagerServiceProviderWithFSO())
+            .withReconSqlDb()
+            .withContainerDB()
+            .build();
+    reconNamespaceSummaryManager =
+        reconTestInjector.getInstance(ReconNamespaceSummaryManager.class);
+    ozoneConfiguration = new OzoneConfiguration();
+    ozoneConfiguration.setBoolean(
+        OMConfigKeys.OZONE_OM_ENABLE_FILESYSTEM_PATHS, true);
+
+    for (int v = 0; v < VOLUMES; v++) {
+      String volume = "vol" + v;
+      long volumeId = nextObjectId++;
+      reconOMMetadataManager.getVolumeTable().put(
+          reconOMMetadataManager.getVolumeKey(volume),
+          OmVolumeArgs.newBuilder()
+              .setObjectID(volumeId)
+              .setVolume(volume)
+              .setAdminName(TEST_USER)
+              .setOwnerName(TEST_USER)
+              .build());
+      for (int b = 0; b < BUCKETS_PER_LAYOUT; b++) {
+        populateFSOBucket(volume, volumeId, "fso" + b);
+        populateLegacyBucket(volume, volumeId, "legacy" + b);
+        populateOBSBucket(volume, volumeId, "obs" + b);
+      }
+    }
+  }
+
+  @Test
+  public void testReprocessInKeyRangesEqualsSequential() throws Exception {
+    Map<Long, String> sequential = reprocess(1, 1000);
+    // Each bucket has a summary, each directory a summary of its own.
+    assertTrue(sequential.size()
+        > VOLUMES * BUCKETS_PER_LAYOUT * (1 + DIRS) * 2);
+
+    // A small threshold merges partial summaries into the DB many times.
+    assertEquals(sequential, reprocess(4, 3));
+    assertEquals(sequential, reprocess(3, 1));
+  }
+
+  private Map<Long, String> reprocess(int threads, long flushThreshold)
+      throws IOException {
+    reconNamespaceSummaryManager.clearNSSummaryTable();
+    assertTrue(new NSSummaryTaskWithFSO(reconNamespaceSummaryManager,
+        reconOMMetadataManager, flushThreshold)
+        .reprocessWithFSO(reconOMMetadataManager, threads, null));
+    assertTrue(new NSSummaryTaskWithLegacy(reconNamespaceSummaryManager,
+        reconOMMetadataManager, ozoneConfiguration, flushThreshold)
+        .reprocessWithLegacy(reconOMMetadataManager, threads, null));
+    assertTrue(new NSSummaryTaskWithOBS(reconNamespaceSummaryManager,
+        reconOMMetadataManager, flushThreshold)
+        .reprocessWithOBS(reconOMMetadataManager, threads, null));
+
+    Map<Long, String> summaries = new TreeMap<>();
+    for (long id = 1; id < nextObjectId; id++) {
+      NSSummary summary = reconNamespaceSummaryManager.getNSSummary(id);
+      if (summary != null) {
+        summaries.put(id, summary.getNumOfFiles()
+            + " " + summary.getSizeOfFiles()
+            + " " + Arrays.toString(summary.getFileSizeBucket())
+            + " " + new TreeSet<>(summary.getChildDir())
+            + " " + summary.getDirName()
+            + " " + summary.getParentId());
+      }
+    }
+    return summaries;
+  }
+
+  /**
+   * Files at the bucket root, and in directories with a subdirectory each.
+   */
+  private void populateFSOBucket(String volume, long volumeId, String bucket)
+      throws IOException {
+    long bucketId = addBucket(volume, bucket,
+        BucketLayout.FILE_SYSTEM_OPTIMIZED);
+    writeFSOFiles(volume, volumeId, bucket, bucketId, bucketId);
+    for (int d = 0; d < DIRS; d++) {
+      long dirId = nextObjectId++;
+      writeDirToOm(reconOMMetadataManager, dirId, bucketId, bucketId,
+          volumeId, "dir" + d);
+      writeFSOFiles(volume, volumeId, bucket, bucketId, dirId);
+      long subDirId = nextObjectId++;
+      writeDirToOm(reconOMMetadataManager, subDirId, dirId, bucketId,
+          volumeId, "sub");
+      writeFSOFiles(volume, volumeId, bucket, bucketId, subDirId);
+    }
+  }
+
+  private void writeFSOFiles(String volume, long volumeId, String bucket,
+      long bucketId, long parentId) throws IOException {
+    for (int f = 0; f < FILES; f++) {
+      long objectId = nextObjectId++;
+      writeKeyToOm(reconOMMetadataManager, "file" + f, bucket, volume,
+          "file" + f, objectId, parentId, bucketId, volumeId,
+          fileSize(objectId), BucketLayout.FILE_SYSTEM_OPTIMIZED);
+    }
+  }
+
+  /**
+   * The same tree as in FSO buckets, with directories as keys.
+   */
+  private void populateLegacyBucket(String volume, long volumeId,
+      String bucket) throws IOException {
+    long bucketId = addBucket(volume, bucket, BucketLayout.LEGACY);
+    writeKeys(volume, volumeId, bucket, bucketId, "", BucketLayout.LEGACY);
+    for (int d = 0; d < DIRS; d++) {
+      String dir = "dir" + d + OM_KEY_PREFIX;
+      String subDir = dir + "sub" + OM_KEY_PREFIX;
+      writeDirToOm(reconOMMetadataManager, dir, bucket, volume, "dir" + d,
+          nextObjectId++, 0, bucketId, volumeId, BucketLayout.LEGACY);
+      writeKeys(volume, volumeId, bucket, bucketId, dir, BucketLayout.LEGACY);
+      writeDirToOm(reconOMMetadataManager, subDir, bucket, volume, "sub",
+          nextObjectId++, 0, bucketId, volumeId, BucketLayout.LEGACY);
+      writeKeys(volume, volumeId, bucket, bucketId, subDir,
+          BucketLayout.LEGACY);
+    }
+  }
+
+  private void populateOBSBucket(String volume, long volumeId, String bucket)
+      throws IOException {
+    long bucketId = addBucket(volume, bucket, BucketLayout.OBJECT_STORE);
+    for (int d = 0; d < DIRS; d++) {
+      writeKeys(volume, volumeId, bucket, bucketId, "prefix" + d + "/",
+          BucketLayout.OBJECT_STORE);
+    }
+  }
+
+  private void writeKeys(String volume, long volumeId, String bucket,
+      long bucketId, String prefix, BucketLayout layout) throws IOException {
+    for (int f = 0; f < FILES; f++) {
+      long objectId = nextObjectId++;
+      writeKeyToOm(reconOMMetadataManager, prefix + "file" + f, bucket,
+          volume, "file" + f, objectId, 0, bucketId, volumeId,
+          fileSize(objectId), layout);
+    }
+  }
+
+  private long addBucket(String volume, String bucket, BucketLayout layout)
+      throws IOException {
+    long bucketId = nextObjectId++;
+    reconOMMetadataManager.getBucketTable().put(
+        reconOMMetadataManager.getBucketKey(volume, bucket),
+        OmBucketInfo.newBuilder()
+            .setVolumeName(volume)
+            .setBucketName(bucket)
+            .setObjectID(bucketId)
+            .setBucketLayout(layout)
+            .build());
+    return bucketId;
+  }
+
+  /** Sizes spread over several bins of the file size distribution. */
+  private static long fileSize(long objectId) {
+    return 1000L << (objectId % 8);
+  }
+}
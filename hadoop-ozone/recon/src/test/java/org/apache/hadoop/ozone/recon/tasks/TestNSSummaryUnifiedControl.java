@@ -50,6 +50,7 @@
 import org.apache.hadoop.ozone.recon.spi.ReconNamespaceSummaryManager;
 import org.apache.hadoop.ozone.recon.tasks.NSSummaryTask.RebuildState;
 import org.apache.hadoop.ozone.recon.tasks.ReconOmTask.TaskResult;
+import org.apache.hadoop.ozone.recon.tasks.updater.ReconTaskStatusUpdaterManager;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -101,7 +102,8 @@ private NSSummaryTask createTestableNSSummaryTask() {
     return new NSSummaryTask(
         mockNamespaceSummaryManager, 
         mockReconOMMetadataManager, 
-        ozoneConfiguration) {
+        ozoneConfiguration,
+        mock(ReconTaskStatusUpdaterManager.class)) {
       
       @Override
       public TaskResult buildTaskResult(boolean success) {
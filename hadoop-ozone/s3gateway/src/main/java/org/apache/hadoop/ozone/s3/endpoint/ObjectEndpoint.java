@@ -75,6 +75,7 @@
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -143,6 +144,7 @@
 import org.apache.hadoop.ozone.web.utils.OzoneUtils;
 import org.apache.hadoop.util.Time;
 import org.apache.http.HttpStatus;
+import org.apache.ratis.util.function.CheckedSupplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -1034,6 +1036,26 @@ private Response createMultipartKey(OzoneVolume volume, OzoneBucket ozoneBucket,
           throw newError(PRECOND_FAILED, sourceBucket + "/" + sourceKey);
         }
 
+        OmMultipartCommitUploadPartInfo copyPartInfo = null;
+        if (range == null
+            && canCopyServerSide(sourceKeyDetails, replicationConfig)) {
+          copyPartInfo = copyServerSide(() -> getClientProtocol()
+              .copyMultipartKey(volume.getName(), sourceBucket, sourceKey,
+                  sourceKeyDetails.getGeneration(), bucketName, key,
+                  partNumber, uploadID,
+                  sourceKeyDetails.getMetadata().get(ETAG)));
+        }
+        if (copyPartInfo != null) {
+          metadataLatencyNs =
+              getMetrics().updateCopyKeyMetadataStats(startNanos);
+          getMetrics().incCopyObjectSuccessLength(length);
+          perf.appendSizeBytes(length);
+          perf.appendMetaLatencyNanos(metadataLatencyNs);
+          getMetrics().updateCopyObjectSuccessStats(startNanos);
+          return Response.ok(new CopyPartResult(copyPartInfo.getETag()))
+              .build();
+        }
+
         try (OzoneInputStream sourceObject = sourceKeyDetails.getContent()) {
           long copyLength;
           if (range != null) {
@@ -1324,16 +1346,32 @@ private CopyObjectResponse copyObject(OzoneVolume volume,
         throw ex;
       }
 
-      try (OzoneInputStream src = getClientProtocol().getKey(volume.getName(),
-          sourceBucket, sourceKey)) {
-        getMetrics().updateCopyKeyMetadataStats(startNanos);
-        sourceDigestInputStream = new DigestInputStream(src, getMessageDigestInstance());
-        copy(volume, sourceDigestInputStream, sourceKeyLen, destkey, destBucket, replicationConfig,
-                customMetadata, perf, startNanos, tags);
+      OzoneKeyDetails destKeyDetails = null;
+      if (canCopyServerSide(sourceKeyDetails, replicationConfig)) {
+        Map<String, String> metadata = new HashMap<>(customMetadata);
+        metadata.put(ETAG, sourceKeyDetails.getMetadata().get(ETAG));
+        destKeyDetails = copyServerSide(() -> getClientProtocol().copyKey(
+            volume.getName(), sourceBucket, sourceKey,
+            sourceKeyDetails.getGeneration(), destBucket, destkey, metadata,
+            tags));
       }
 
-      final OzoneKeyDetails destKeyDetails = getClientProtocol().getKeyDetails(
-          volume.getName(), destBucket, destkey);
+      if (destKeyDetails != null) {
+        getMetrics().updateCopyKeyMetadataStats(startNanos);
+        getMetrics().incCopyObjectSuccessLength(sourceKeyLen);
+        perf.appendSizeBytes(sourceKeyLen);
+      } else {
+        try (OzoneInputStream src = getClientProtocol().getKey(
+            volume.getName(), sourceBucket, sourceKey)) {
+          getMetrics().updateCopyKeyMetadataStats(startNanos);
+          sourceDigestInputStream = new DigestInputStream(src, getMessageDigestInstance());
+          copy(volume, sourceDigestInputStream, sourceKeyLen, destkey, destBucket, replicationConfig,
+                  customMetadata, perf, startNanos, tags);
+        }
+
+        destKeyDetails = getClientProtocol().getKeyDetails(
+            volume.getName(), destBucket, destkey);
+      }
 
       getMetrics().updateCopyObjectSuccessStats(startNanos);
       CopyObjectResponse copyObjectResponse = new CopyObjectResponse();
@@ -1359,6 +1397,48 @@ private CopyObjectResponse copyObject(OzoneVolume volume,
     }
   }
 
+  /**
+   * Whether the source key can be copied by the Ozone Manager without
+   * transferring its data, i.e. the copy keeps the replication of the source
+   * and the ETag of the source is known.
+   */
+  /**
+   * The ETag of the source is reused for a server side copy, so it is only
+   * done if the ETag is the MD5 of the data.  The ETag of a key completed
+   * from a multipart upload, {@code <md5>-<parts>}, is not, so such keys are
+   * copied through the gateway to compute the MD5 of the copy.
+   */
+  @VisibleForTesting
+  static boolean canCopyServerSide(OzoneKeyDetails sourceKeyDetails,
+      ReplicationConfig replicationConfig) {
+    final String eTag = sourceKeyDetails.getMetadata().get(ETAG);
+    return sourceKeyDetails.getFileEncryptionInfo() == null
+        && eTag != null && !eTag.contains("-")
+        && (replicationConfig == null || replicationConfig.equals(
+            sourceKeyDetails.getReplicationConfig()));
+  }
+
+  /**
+   * Run a server side copy.
+   * @return the result of the copy, or null if the Ozone Manager cannot
+   * copy the key, in which case the data has to be copied through the
+   * gateway.
+   */
+  private static <T> T copyServerSide(CheckedSupplier<T, IOException> copy)
+      throws IOException {
+    try {
+      return copy.get();
+    } catch (OMException ex) {
+      if (ex.getResult() == ResultCodes.NOT_SUPPORTED_OPERATION
+          || ex.getResult()
+          == ResultCodes.NOT_SUPPORTED_OPERATION_PRIOR_FINALIZATION) {
+        LOG.debug("Falling back to copying the data: {}", ex.getMessage());
+        return null;
+      }
+      throw ex;
+    }
+  }
+
   /**
    * Parse the key and bucket name from copy header.
    */
@@ -37,12 +37,15 @@
 import org.apache.hadoop.ozone.client.io.OzoneInputStream;
 import org.apache.hadoop.ozone.client.io.OzoneOutputStream;
 import org.apache.hadoop.ozone.client.protocol.ClientProtocol;
+import org.apache.hadoop.ozone.om.exceptions.OMException;
+import org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes;
 import org.apache.hadoop.ozone.om.helpers.DeleteTenantState;
 import org.apache.hadoop.ozone.om.helpers.ErrorInfo;
 import org.apache.hadoop.ozone.om.helpers.LeaseKeyInfo;
 import org.apache.hadoop.ozone.om.helpers.OmKeyArgs;
 import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
 import org.apache.hadoop.ozone.om.helpers.OmKeyLocationInfo;
+import org.apache.hadoop.ozone.om.helpers.OmMultipartCommitUploadPartInfo;
 import org.apache.hadoop.ozone.om.helpers.OmMultipartInfo;
 import org.apache.hadoop.ozone.om.helpers.OmMultipartUploadCompleteInfo;
 import org.apache.hadoop.ozone.om.helpers.OmVolumeArgs;
@@ -293,6 +296,24 @@ public void renameKey(String volumeName, String bucketName,
 
   }
 
+  @Override
+  @SuppressWarnings("checkstyle:ParameterNumber")
+  public OzoneKeyDetails copyKey(String volumeName, String srcBucketName,
+      String srcKeyName, Long srcGeneration, String dstBucketName,
+      String dstKeyName, Map<String, String> metadata,
+      Map<String, String> tags) throws IOException {
+    throw new OMException(ResultCodes.NOT_SUPPORTED_OPERATION);
+  }
+
+  @Override
+  @SuppressWarnings("checkstyle:ParameterNumber")
+  public OmMultipartCommitUploadPartInfo copyMultipartKey(String volumeName,
+      String srcBucketName, String srcKeyName, Long srcGeneration,
+      String dstBucketName, String dstKeyName, int partNumber,
+      String uploadID, String eTag) throws IOException {
+    throw new OMException(ResultCodes.NOT_SUPPORTED_OPERATION);
+  }
+
   @Override
   public void renameKeys(String volumeName, String bucketName,
                          Map<String, String> keyMap) throws IOException {
@@ -17,9 +17,19 @@
 
 package org.apache.hadoop.ozone.s3.endpoint;
 
+import static javax.ws.rs.core.HttpHeaders.ETAG;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
+import java.util.Collections;
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.hadoop.hdds.client.RatisReplicationConfig;
+import org.apache.hadoop.hdds.client.ReplicationConfig;
+import org.apache.hadoop.hdds.protocol.proto.HddsProtos.ReplicationFactor;
+import org.apache.hadoop.ozone.client.OzoneKeyDetails;
 import org.apache.hadoop.ozone.s3.exception.OS3Exception;
 import org.junit.jupiter.api.Test;
 
@@ -48,4 +58,34 @@ public void parseSourceHeaderWithPrefix() throws OS3Exception {
     assertEquals("key1", bucketKey.getRight());
   }
 
+  @Test
+  public void canCopyServerSide() {
+    ReplicationConfig replication =
+        RatisReplicationConfig.getInstance(ReplicationFactor.THREE);
+
+    assertTrue(ObjectEndpoint.canCopyServerSide(
+        newSourceKey("5d41402abc4b2a76b9719d911017c592", replication),
+        replication));
+    assertTrue(ObjectEndpoint.canCopyServerSide(
+        newSourceKey("5d41402abc4b2a76b9719d911017c592", replication),
+        null));
+    // the ETag of a multipart key is not the MD5 of the data
+    assertFalse(ObjectEndpoint.canCopyServerSide(
+        newSourceKey("a7d8a5c2f1e8c7a0b8e2f7c6d5e4f3a2-3", replication),
+        replication));
+    assertFalse(ObjectEndpoint.canCopyServerSide(
+        newSourceKey(null, replication), replication));
+    assertFalse(ObjectEndpoint.canCopyServerSide(
+        newSourceKey("5d41402abc4b2a76b9719d911017c592", replication),
+        RatisReplicationConfig.getInstance(ReplicationFactor.ONE)));
+  }
+
+  private static OzoneKeyDetails newSourceKey(String eTag,
+      ReplicationConfig replication) {
+    OzoneKeyDetails key = mock(OzoneKeyDetails.class);
+    when(key.getMetadata()).thenReturn(eTag == null
+        ? Collections.emptyMap() : Collections.singletonMap(ETAG, eTag));
+    when(key.getReplicationConfig()).thenReturn(replication);
+    return key;
+  }
 }